@@ -49,6 +49,8 @@ public interface ConfigFacade {
 
 	String getSmsAuthSecret();
 
+	String getSmsBaseUrl();
+
 	String getDocumentFilesPath();
 
 	String getTempFilesPath();
@@ -57,8 +59,6 @@ public interface ConfigFacade {
 
 	String getCustomFilesPath();
 
-	String getRScriptExecutable();
-
 	char getCsvSeparator();
 
 	String getAppLegacyUrl();
@@ -105,6 +105,12 @@ public interface ConfigFacade {
 
 	String getGeocodingEPSG4326_WKT();
 
+	int getGeocodingCacheDays();
+
+	int getGeocodingMaxConcurrentRequests();
+
+	double getGeocodingRequestsPerSecond();
+
 	SymptomJournalConfig getSymptomJournalConfig();
 
 	PatientDiaryConfig getPatientDiaryConfig();
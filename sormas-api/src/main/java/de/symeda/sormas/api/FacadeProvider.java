@@ -29,6 +29,7 @@ import de.symeda.sormas.api.caze.CaseFacade;
 import de.symeda.sormas.api.caze.CaseStatisticsFacade;
 import de.symeda.sormas.api.caze.caseimport.CaseImportFacade;
 import de.symeda.sormas.api.caze.classification.CaseClassificationFacade;
+import de.symeda.sormas.api.caze.classification.CaseReclassificationFacade;
 import de.symeda.sormas.api.caze.maternalhistory.MaternalHistoryFacade;
 import de.symeda.sormas.api.caze.surveillancereport.SurveillanceReportFacade;
 import de.symeda.sormas.api.clinicalcourse.ClinicalCourseFacade;
@@ -84,6 +85,7 @@ import de.symeda.sormas.api.sormastosormas.contact.SormasToSormasContactFacade;
 import de.symeda.sormas.api.sormastosormas.event.SormasToSormasEventFacade;
 import de.symeda.sormas.api.sormastosormas.sharerequest.SormasToSormasShareRequestFacade;
 import de.symeda.sormas.api.symptoms.SymptomsFacade;
+import de.symeda.sormas.api.systemevents.ScheduledJobFacade;
 import de.symeda.sormas.api.systemevents.SystemEventFacade;
 import de.symeda.sormas.api.task.TaskFacade;
 import de.symeda.sormas.api.therapy.PrescriptionFacade;
@@ -255,6 +257,10 @@ public class FacadeProvider {
 		return get().lookupEjbRemote(CaseClassificationFacade.class);
 	}
 
+	public static CaseReclassificationFacade getCaseReclassificationFacade() {
+		return get().lookupEjbRemote(CaseReclassificationFacade.class);
+	}
+
 	public static TherapyFacade getTherapyFacade() {
 		return get().lookupEjbRemote(TherapyFacade.class);
 	}
@@ -392,6 +398,10 @@ public class FacadeProvider {
 		return get().lookupEjbRemote(SystemEventFacade.class);
 	}
 
+	public static ScheduledJobFacade getScheduledJobFacade() {
+		return get().lookupEjbRemote(ScheduledJobFacade.class);
+	}
+
 	public static LabMessageFacade getLabMessageFacade() {
 		return get().lookupEjbRemote(LabMessageFacade.class);
 	}
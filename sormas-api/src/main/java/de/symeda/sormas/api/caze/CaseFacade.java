@@ -31,6 +31,9 @@ import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.common.Page;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
+import de.symeda.sormas.api.dashboard.MapCaseDisplayMode;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.event.EventParticipantReferenceDto;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
@@ -99,13 +102,18 @@ public interface CaseFacade {
 
 	String getUuidByUuidEpidNumberOrExternalId(String searchTerm);
 
+	/**
+	 * @param viewport
+	 *            if not {@code null}, only cases with a position within the viewport are returned
+	 */
 	List<MapCaseDto> getCasesForMap(
 		RegionReferenceDto regionRef,
 		DistrictReferenceDto districtRef,
 		Disease disease,
 		Date from,
 		Date to,
-		NewCaseDateType dateType);
+		NewCaseDateType dateType,
+		MapViewportDto viewport);
 
 	Long countCasesForMap(
 		RegionReferenceDto regionRef,
@@ -113,7 +121,21 @@ public interface CaseFacade {
 		Disease disease,
 		Date from,
 		Date to,
-		NewCaseDateType dateType);
+		NewCaseDateType dateType,
+		MapViewportDto viewport);
+
+	/**
+	 * @return the cases within the viewport, counted per grid cell of the viewport and classification
+	 */
+	List<MapMarkerClusterDto<CaseClassification>> getCaseClustersForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		NewCaseDateType dateType,
+		MapCaseDisplayMode displayMode,
+		MapViewportDto viewport);
 
 	List<Pair<DistrictDto, BigDecimal>> getCaseMeasurePerDistrict(Date onsetFromDate, Date onsetToDate, Disease disease, CaseMeasure caseMeasure);
 
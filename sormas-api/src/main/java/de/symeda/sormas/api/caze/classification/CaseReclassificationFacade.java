@@ -0,0 +1,42 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.caze.classification;
+
+import javax.ejb.Remote;
+
+import de.symeda.sormas.api.Disease;
+
+/**
+ * Re-classifies all existing cases of a disease in the background, e.g. after the classification criteria or the
+ * configuration have changed.
+ */
+@Remote
+public interface CaseReclassificationFacade {
+
+	/**
+	 * Starts the re-classification of all cases of the disease. Only one re-classification runs at a time, so nothing is
+	 * started while the cases of any disease are being re-classified.
+	 * 
+	 * @return {@code false} if a re-classification, of this or another disease, is already running.
+	 */
+	boolean reclassifyCases(Disease disease);
+
+	/**
+	 * @return The progress of the running or last finished re-classification of the disease, {@code null} if there was none
+	 *         since the server has been started.
+	 */
+	CaseReclassificationProgressDto getProgress(Disease disease);
+}
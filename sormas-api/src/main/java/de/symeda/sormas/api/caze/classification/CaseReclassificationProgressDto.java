@@ -0,0 +1,111 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.caze.classification;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+
+public class CaseReclassificationProgressDto implements Serializable {
+
+	private static final long serialVersionUID = -4150528829431473046L;
+
+	private Disease disease;
+	private SystemEventStatus status;
+	private long totalCount;
+	private long processedCount;
+	private long changedCount;
+	private Date startDate;
+	private Date endDate;
+
+	public CaseReclassificationProgressDto(Disease disease, long totalCount, Date startDate) {
+		this.disease = disease;
+		this.status = SystemEventStatus.STARTED;
+		this.totalCount = totalCount;
+		this.startDate = startDate;
+	}
+
+	/**
+	 * @return The number of processed cases per second since the start of the re-classification.
+	 */
+	public double getCasesPerSecond() {
+
+		long durationMillis = (endDate != null ? endDate.getTime() : System.currentTimeMillis()) - startDate.getTime();
+		return durationMillis > 0 ? processedCount * 1000d / durationMillis : 0;
+	}
+
+	public boolean isRunning() {
+		return status == SystemEventStatus.STARTED;
+	}
+
+	public Disease getDisease() {
+		return disease;
+	}
+
+	public void setDisease(Disease disease) {
+		this.disease = disease;
+	}
+
+	public SystemEventStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(SystemEventStatus status) {
+		this.status = status;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public void setTotalCount(long totalCount) {
+		this.totalCount = totalCount;
+	}
+
+	public long getProcessedCount() {
+		return processedCount;
+	}
+
+	public void setProcessedCount(long processedCount) {
+		this.processedCount = processedCount;
+	}
+
+	public long getChangedCount() {
+		return changedCount;
+	}
+
+	public void setChangedCount(long changedCount) {
+		this.changedCount = changedCount;
+	}
+
+	public Date getStartDate() {
+		return startDate;
+	}
+
+	public void setStartDate(Date startDate) {
+		this.startDate = startDate;
+	}
+
+	public Date getEndDate() {
+		return endDate;
+	}
+
+	public void setEndDate(Date endDate) {
+		this.endDate = endDate;
+	}
+}
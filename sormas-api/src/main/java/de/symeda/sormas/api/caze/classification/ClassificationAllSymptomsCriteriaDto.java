@@ -6,6 +6,8 @@ import java.util.List;
 import de.symeda.sormas.api.utils.fieldvisibility.FieldVisibilityCheckers;
 import org.apache.commons.lang3.ArrayUtils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.caze.CaseDataDto;
@@ -75,4 +77,14 @@ public class ClassificationAllSymptomsCriteriaDto extends ClassificationCriteria
 		}
 		return stringBuilder.toString();
 	}
+
+	@JsonIgnore
+	public SymptomState getSymptomState() {
+		return symptomState;
+	}
+
+	@JsonIgnore
+	public FieldVisibilityCheckers getFieldVisibilityCheckers() {
+		return fieldVisibilityCheckers;
+	}
 }
@@ -97,4 +97,11 @@ public class ClassificationExposureCriteriaDto extends ClassificationCaseCriteri
 		return sb.toString();
 	}
 
+	public ExposureType getExposureType() {
+		return exposureType;
+	}
+
+	public void setExposureType(ExposureType exposureType) {
+		this.exposureType = exposureType;
+	}
 }
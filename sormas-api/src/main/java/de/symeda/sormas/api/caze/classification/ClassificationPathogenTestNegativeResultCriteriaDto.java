@@ -50,4 +50,12 @@ public class ClassificationPathogenTestNegativeResultCriteriaDto extends Classif
 
 		return stringBuilder.toString();
 	}
+
+	public Disease getTestedDisease() {
+		return testedDisease;
+	}
+
+	public void setTestedDisease(Disease testedDisease) {
+		this.testedDisease = testedDisease;
+	}
 }
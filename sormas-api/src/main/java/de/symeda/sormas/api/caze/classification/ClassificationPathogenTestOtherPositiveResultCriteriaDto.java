@@ -46,4 +46,12 @@ public class ClassificationPathogenTestOtherPositiveResultCriteriaDto extends Cl
 
 		return stringBuilder.toString();
 	}
+
+	public Disease getTestedDisease() {
+		return testedDisease;
+	}
+
+	public void setTestedDisease(Disease testedDisease) {
+		this.testedDisease = testedDisease;
+	}
 }
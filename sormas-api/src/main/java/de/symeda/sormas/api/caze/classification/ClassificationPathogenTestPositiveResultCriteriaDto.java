@@ -91,4 +91,12 @@ public class ClassificationPathogenTestPositiveResultCriteriaDto extends Classif
 	public void setSampleTestTypes(List<PathogenTestType> pathogenTestTypes) {
 		this.pathogenTestTypes = pathogenTestTypes;
 	}
+
+	public Disease getTestedDisease() {
+		return testedDisease;
+	}
+
+	public void setTestedDisease(Disease testedDisease) {
+		this.testedDisease = testedDisease;
+	}
 }
@@ -40,7 +40,7 @@ import de.symeda.sormas.api.utils.IgnoreForUrl;
 import de.symeda.sormas.api.utils.YesNoUnknown;
 import de.symeda.sormas.api.utils.criteria.BaseCriteria;
 
-public class ContactCriteria extends BaseCriteria implements Serializable {
+public class ContactCriteria extends BaseCriteria implements Serializable, Cloneable {
 
 	public static final String DISEASE_VARIANT = "diseaseVariant";
 	public static final String NAME_UUID_CASE_LIKE = "nameUuidCaseLike";
@@ -134,6 +134,16 @@ public class ContactCriteria extends BaseCriteria implements Serializable {
 	private Date creationDateTo;
 	private String reportingUserLike;
 
+	@Override
+	public ContactCriteria clone() {
+
+		try {
+			return (ContactCriteria) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	public UserRole getReportingUserRole() {
 		return reportingUserRole;
 	}
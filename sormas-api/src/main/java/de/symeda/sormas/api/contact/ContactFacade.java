@@ -28,7 +28,12 @@ import javax.validation.Valid;
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.common.Page;
+import de.symeda.sormas.api.dashboard.ContactEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardContactDto;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import de.symeda.sormas.api.followup.FollowUpPeriodDto;
@@ -59,9 +64,36 @@ public interface ContactFacade {
 
 	List<ContactDto> getByUuids(List<String> uuids);
 
-	Long countContactsForMap(RegionReferenceDto regionRef, DistrictReferenceDto districtRef, Disease disease, Date from, Date to);
+	Long countContactsForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		MapViewportDto viewport);
 
-	List<MapContactDto> getContactsForMap(RegionReferenceDto regionRef, DistrictReferenceDto districtRef, Disease disease, Date from, Date to);
+	/**
+	 * @param viewport
+	 *            if not {@code null}, only contacts with a position within the viewport are returned
+	 */
+	List<MapContactDto> getContactsForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		MapViewportDto viewport);
+
+	/**
+	 * @return the contacts within the viewport, counted per grid cell of the viewport and classification
+	 */
+	List<MapMarkerClusterDto<ContactClassification>> getContactClustersForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		MapViewportDto viewport);
 
 	void deleteContact(String contactUuid);
 
@@ -109,6 +141,16 @@ public interface ContactFacade {
 
 	int getFollowUpUntilCount(ContactCriteria contactCriteria);
 
+	/**
+	 * Counts the contacts per bucket and series value with a single query. The report date or follow-up until range of the
+	 * criteria is replaced by the range of the buckets.
+	 */
+	EpiCurveHistogramDto getContactEpiCurve(
+		ContactCriteria contactCriteria,
+		List<Date> bucketDates,
+		EpiCurveGrouping grouping,
+		ContactEpiCurveSeries series);
+
 	long count(ContactCriteria contactCriteria);
 
 	List<String> getDeletedUuidsSince(Date since);
@@ -0,0 +1,30 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.dashboard;
+
+/**
+ * Dimension by which the contacts of an epi curve are split into series, and the date the contacts are bucketed by.
+ */
+public enum ContactEpiCurveSeries {
+
+	/** by report date, series values are {@link de.symeda.sormas.api.contact.ContactClassification}s */
+	CONTACT_CLASSIFICATION,
+	/** by report date, series values are {@link de.symeda.sormas.api.contact.FollowUpStatus}es */
+	FOLLOW_UP_STATUS,
+	/** by report date, series values are {@link de.symeda.sormas.api.contact.ContactStatus}es */
+	CONTACT_STATUS,
+	/** by follow-up until date, a single series with the value {@code null} */
+	FOLLOW_UP_UNTIL;
+}
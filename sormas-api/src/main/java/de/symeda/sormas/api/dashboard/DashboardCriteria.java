@@ -17,6 +17,8 @@ public class DashboardCriteria extends BaseCriteria implements Serializable {
 	private CriteriaDateType newCaseDateType;
 	private Date dateFrom;
 	private Date dateTo;
+	private Date previousDateFrom;
+	private Date previousDateTo;
 
 	private boolean includeNotACaseClassification;
 
@@ -70,6 +72,23 @@ public class DashboardCriteria extends BaseCriteria implements Serializable {
 		return this;
 	}
 
+	public Date getPreviousDateFrom() {
+		return previousDateFrom;
+	}
+
+	public Date getPreviousDateTo() {
+		return previousDateTo;
+	}
+
+	/**
+	 * The period the current period is compared with, e.g. to compute the growth of the fatalities.
+	 */
+	public DashboardCriteria previousDateBetween(Date previousDateFrom, Date previousDateTo) {
+		this.previousDateFrom = previousDateFrom;
+		this.previousDateTo = previousDateTo;
+		return this;
+	}
+
 	public boolean shouldIncludeNotACaseClassification() {
 		return includeNotACaseClassification;
 	}
@@ -34,6 +34,22 @@ public interface DashboardFacade {
 
 	Map<EventStatus, Long> getEventCountByStatus(DashboardCriteria dashboardCriteria);
 
+	/**
+	 * Computes all figures of the surveillance dashboard for the disease of the criteria in one call. Results are shared
+	 * for a short time between users with the same jurisdiction.
+	 */
+	DashboardSnapshotDto getSnapshot(DashboardCriteria dashboardCriteria);
+
+	/**
+	 * Counts the new cases per bucket and series value with a single query. The date range of the criteria is replaced by
+	 * the range of the buckets.
+	 */
+	EpiCurveHistogramDto getCaseEpiCurve(
+		DashboardCriteria dashboardCriteria,
+		List<Date> bucketDates,
+		EpiCurveGrouping grouping,
+		CaseEpiCurveSeries series);
+
 	List<DiseaseBurdenDto> getDiseaseBurden(
 		RegionReferenceDto region,
 		DistrictReferenceDto district,
@@ -0,0 +1,119 @@
+package de.symeda.sormas.api.dashboard;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.event.EventStatus;
+import de.symeda.sormas.api.sample.PathogenTestResultType;
+
+/**
+ * The aggregated figures of the surveillance dashboard for one disease, computed by a single call to the server.
+ */
+public class DashboardSnapshotDto implements Serializable {
+
+	private static final long serialVersionUID = 5273894402614562380L;
+
+	/** new cases of the current period, including those classified as not a case */
+	private Map<CaseClassification, Integer> caseCountByClassification = new HashMap<>();
+	/** new cases of the current period, excluding those classified as not a case */
+	private long caseCount;
+	private long fatalCaseCount;
+	private long previousFatalCaseCount;
+	private String lastReportedDistrictName = "";
+	private Map<PathogenTestResultType, Long> testResultCountByResultType = new HashMap<>();
+	private Map<EventStatus, Long> eventCountByStatus = new HashMap<>();
+	private long outbreakDistrictCount;
+	private long casesInQuarantineCount;
+	private long casesPlacedInQuarantineCount;
+	private long casesConvertedFromContactsCount;
+
+	public Map<CaseClassification, Integer> getCaseCountByClassification() {
+		return caseCountByClassification;
+	}
+
+	public void setCaseCountByClassification(Map<CaseClassification, Integer> caseCountByClassification) {
+		this.caseCountByClassification = caseCountByClassification;
+	}
+
+	public long getCaseCount() {
+		return caseCount;
+	}
+
+	public void setCaseCount(long caseCount) {
+		this.caseCount = caseCount;
+	}
+
+	public long getFatalCaseCount() {
+		return fatalCaseCount;
+	}
+
+	public void setFatalCaseCount(long fatalCaseCount) {
+		this.fatalCaseCount = fatalCaseCount;
+	}
+
+	public long getPreviousFatalCaseCount() {
+		return previousFatalCaseCount;
+	}
+
+	public void setPreviousFatalCaseCount(long previousFatalCaseCount) {
+		this.previousFatalCaseCount = previousFatalCaseCount;
+	}
+
+	public String getLastReportedDistrictName() {
+		return lastReportedDistrictName;
+	}
+
+	public void setLastReportedDistrictName(String lastReportedDistrictName) {
+		this.lastReportedDistrictName = lastReportedDistrictName;
+	}
+
+	public Map<PathogenTestResultType, Long> getTestResultCountByResultType() {
+		return testResultCountByResultType;
+	}
+
+	public void setTestResultCountByResultType(Map<PathogenTestResultType, Long> testResultCountByResultType) {
+		this.testResultCountByResultType = testResultCountByResultType;
+	}
+
+	public Map<EventStatus, Long> getEventCountByStatus() {
+		return eventCountByStatus;
+	}
+
+	public void setEventCountByStatus(Map<EventStatus, Long> eventCountByStatus) {
+		this.eventCountByStatus = eventCountByStatus;
+	}
+
+	public long getOutbreakDistrictCount() {
+		return outbreakDistrictCount;
+	}
+
+	public void setOutbreakDistrictCount(long outbreakDistrictCount) {
+		this.outbreakDistrictCount = outbreakDistrictCount;
+	}
+
+	public long getCasesInQuarantineCount() {
+		return casesInQuarantineCount;
+	}
+
+	public void setCasesInQuarantineCount(long casesInQuarantineCount) {
+		this.casesInQuarantineCount = casesInQuarantineCount;
+	}
+
+	public long getCasesPlacedInQuarantineCount() {
+		return casesPlacedInQuarantineCount;
+	}
+
+	public void setCasesPlacedInQuarantineCount(long casesPlacedInQuarantineCount) {
+		this.casesPlacedInQuarantineCount = casesPlacedInQuarantineCount;
+	}
+
+	public long getCasesConvertedFromContactsCount() {
+		return casesConvertedFromContactsCount;
+	}
+
+	public void setCasesConvertedFromContactsCount(long casesConvertedFromContactsCount) {
+		this.casesConvertedFromContactsCount = casesConvertedFromContactsCount;
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.dashboard;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.symeda.sormas.api.utils.DateHelper;
+
+/**
+ * Counts of an epi curve: one value per bucket (day, week or month) for each value of the series dimension.
+ */
+public class EpiCurveHistogramDto implements Serializable {
+
+	private static final long serialVersionUID = -2409765874216405311L;
+
+	private final EpiCurveGrouping grouping;
+	private final long[] bucketStarts;
+	private final long[] bucketEnds;
+	private final Map<Object, int[]> countsBySeries = new HashMap<>();
+
+	/**
+	 * @param bucketDates
+	 *            one date within each bucket, in ascending order; the bucket spans the day, week or month of the date
+	 */
+	public EpiCurveHistogramDto(List<Date> bucketDates, EpiCurveGrouping grouping) {
+
+		this.grouping = grouping;
+		this.bucketStarts = new long[bucketDates.size()];
+		this.bucketEnds = new long[bucketDates.size()];
+		for (int i = 0; i < bucketDates.size(); i++) {
+			bucketStarts[i] = getStartOfBucket(bucketDates.get(i), grouping).getTime();
+			bucketEnds[i] = getEndOfBucket(bucketDates.get(i), grouping).getTime();
+		}
+	}
+
+	public static Date getStartOfBucket(Date date, EpiCurveGrouping grouping) {
+
+		switch (grouping) {
+		case DAY:
+			return DateHelper.getStartOfDay(date);
+		case WEEK:
+			return DateHelper.getStartOfWeek(date);
+		case MONTH:
+			return DateHelper.getStartOfMonth(date);
+		default:
+			throw new IllegalArgumentException(grouping.toString());
+		}
+	}
+
+	public static Date getEndOfBucket(Date date, EpiCurveGrouping grouping) {
+
+		switch (grouping) {
+		case DAY:
+			return DateHelper.getEndOfDay(date);
+		case WEEK:
+			return DateHelper.getEndOfWeek(date);
+		case MONTH:
+			return DateHelper.getEndOfMonth(date);
+		default:
+			throw new IllegalArgumentException(grouping.toString());
+		}
+	}
+
+	/**
+	 * @return the start of the first bucket or {@code null} if there are no buckets
+	 */
+	public Date getFrom() {
+		return bucketStarts.length > 0 ? new Date(bucketStarts[0]) : null;
+	}
+
+	/**
+	 * @return the end of the last bucket or {@code null} if there are no buckets
+	 */
+	public Date getTo() {
+		return bucketEnds.length > 0 ? new Date(bucketEnds[bucketEnds.length - 1]) : null;
+	}
+
+	public EpiCurveGrouping getGrouping() {
+		return grouping;
+	}
+
+	public int getBucketCount() {
+		return bucketStarts.length;
+	}
+
+	public Date getBucketStart(int bucket) {
+		return new Date(bucketStarts[bucket]);
+	}
+
+	public Date getBucketEnd(int bucket) {
+		return new Date(bucketEnds[bucket]);
+	}
+
+	/**
+	 * Adds the count to the bucket containing the date. Dates outside of all buckets are ignored.
+	 *
+	 * @param seriesValue
+	 *            the value of the series dimension, may be {@code null}
+	 */
+	public void add(Object seriesValue, Date date, int count) {
+
+		int bucket = getBucketIndex(date);
+		if (bucket >= 0) {
+			int[] counts = countsBySeries.get(seriesValue);
+			if (counts == null) {
+				counts = new int[bucketStarts.length];
+				countsBySeries.put(seriesValue, counts);
+			}
+			counts[bucket] += count;
+		}
+	}
+
+	/**
+	 * @return the index of the bucket containing the date or -1
+	 */
+	public int getBucketIndex(Date date) {
+
+		if (date == null) {
+			return -1;
+		}
+
+		int index = Arrays.binarySearch(bucketStarts, date.getTime());
+		if (index < 0) {
+			// insertion point - 1 is the last bucket starting before the date
+			index = -index - 2;
+		}
+		return index >= 0 && date.getTime() <= bucketEnds[index] ? index : -1;
+	}
+
+	/**
+	 * @return the counts per bucket for the series value; all zero if there is no data
+	 */
+	public int[] getCounts(Object seriesValue) {
+
+		int[] counts = countsBySeries.get(seriesValue);
+		return counts != null ? Arrays.copyOf(counts, counts.length) : new int[bucketStarts.length];
+	}
+
+	/**
+	 * @return the summed counts per bucket for all the series values
+	 */
+	public int[] getSummedCounts(Object... seriesValues) {
+
+		int[] counts = new int[bucketStarts.length];
+		for (Object seriesValue : seriesValues) {
+			int[] seriesCounts = countsBySeries.get(seriesValue);
+			if (seriesCounts != null) {
+				for (int i = 0; i < counts.length; i++) {
+					counts[i] += seriesCounts[i];
+				}
+			}
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.dashboard;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The markers of one grid cell of the map, counted per classification.
+ * <p>
+ * The position is the center of the cell, not the position of any of the markers.
+ */
+public class MapMarkerClusterDto<C extends Enum<C>> implements Serializable {
+
+	private static final long serialVersionUID = 3620571960839519023L;
+
+	private final double latitude;
+	private final double longitude;
+	private final Map<C, Long> countByClassification = new HashMap<>();
+
+	public MapMarkerClusterDto(double latitude, double longitude) {
+		this.latitude = latitude;
+		this.longitude = longitude;
+	}
+
+	public double getLatitude() {
+		return latitude;
+	}
+
+	public double getLongitude() {
+		return longitude;
+	}
+
+	public void addCount(C classification, long count) {
+		countByClassification.put(classification, getCount(classification) + count);
+	}
+
+	public long getCount(C classification) {
+		Long count = countByClassification.get(classification);
+		return count != null ? count : 0L;
+	}
+
+	/**
+	 * @return the summed count of the classifications
+	 */
+	public long getCount(Collection<C> classifications) {
+
+		long count = 0;
+		for (C classification : classifications) {
+			count += getCount(classification);
+		}
+		return count;
+	}
+
+	public long getTotalCount() {
+
+		long count = 0;
+		for (Long classificationCount : countByClassification.values()) {
+			count += classificationCount;
+		}
+		return count;
+	}
+
+	public Map<C, Long> getCountByClassification() {
+		return countByClassification;
+	}
+}
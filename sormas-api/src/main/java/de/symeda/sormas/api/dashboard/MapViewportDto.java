@@ -0,0 +1,101 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.dashboard;
+
+import java.io.Serializable;
+
+/**
+ * The part of the map that is visible in the browser: its bounding box and zoom level.
+ * <p>
+ * Below {@link #INDIVIDUAL_MARKERS_MIN_ZOOM}, markers are aggregated in the database per cell of a grid. A cell spans
+ * a quarter of a map tile in longitude, so neighbouring clusters are about 64 pixels apart horizontally at every zoom
+ * level. The grid has the same spacing in degrees of latitude, which the Mercator projection of the map stretches
+ * towards the poles: cells are about square on the map near the equator and get taller with the latitude, e.g. twice as
+ * tall at 60°.
+ */
+public class MapViewportDto implements Serializable {
+
+	private static final long serialVersionUID = -4526361740285337291L;
+
+	public static final int INDIVIDUAL_MARKERS_MIN_ZOOM = 12;
+	private static final int CELLS_PER_TILE = 4;
+
+	private final double south;
+	private final double west;
+	private final double north;
+	private final double east;
+	private final int zoom;
+
+	public MapViewportDto(double south, double west, double north, double east, int zoom) {
+		this.south = south;
+		this.west = west;
+		this.north = north;
+		this.east = east;
+		this.zoom = zoom;
+	}
+
+	public double getSouth() {
+		return south;
+	}
+
+	public double getWest() {
+		return west;
+	}
+
+	public double getNorth() {
+		return north;
+	}
+
+	public double getEast() {
+		return east;
+	}
+
+	public int getZoom() {
+		return zoom;
+	}
+
+	/**
+	 * @return whether markers are aggregated per grid cell instead of being shown individually
+	 */
+	public boolean isClustered() {
+		return zoom < INDIVIDUAL_MARKERS_MIN_ZOOM;
+	}
+
+	/**
+	 * @return the number of grid cells around the globe
+	 */
+	public int getCellCount() {
+		return (1 << Math.max(Math.min(zoom, INDIVIDUAL_MARKERS_MIN_ZOOM), 0)) * CELLS_PER_TILE;
+	}
+
+	/**
+	 * @return the width and height of a grid cell in degrees, not in pixels
+	 */
+	public double getCellSize() {
+		return 360d / getCellCount();
+	}
+
+	/**
+	 * @return the latitude or longitude of the center of the cell with the given index
+	 */
+	public double getCellCenter(long cellIndex) {
+		return (cellIndex + 0.5d) * getCellSize();
+	}
+
+	@Override
+	public String toString() {
+		return "[" + south + ", " + west + "; " + north + ", " + east + "] @ " + zoom;
+	}
+}
@@ -44,6 +44,18 @@ public interface QuarantineOrderFacade {
 		Properties extraProperties)
 		throws DocumentTemplateException;
 
+	/**
+	 * Generates the documents into a ZIP archive, without keeping all of them in memory.
+	 *
+	 * @return the path of the archive in the temp files directory
+	 */
+	String getGeneratedDocumentsArchive(
+		String templateName,
+		DocumentWorkflow workflow,
+		List<ReferenceDto> rootEntityReferences,
+		Properties extraProperties)
+		throws DocumentTemplateException;
+
 	List<String> getAvailableTemplates(DocumentWorkflow workflow);
 
 	DocumentVariables getDocumentVariables(DocumentWorkflow documentWorkflow, String templateName) throws DocumentTemplateException;
@@ -26,6 +26,15 @@ public interface DocumentFacade {
 
 	DocumentDto saveDocument(DocumentDto dto, byte[] bytes) throws IOException;
 
+	/**
+	 * Saves the document with the content of a file, without loading it into memory.
+	 *
+	 * @param filePath
+	 *            a file in the {@link de.symeda.sormas.api.ConfigFacade#getTempFilesPath() temp files directory}; the caller is
+	 *            responsible for deleting it
+	 */
+	DocumentDto saveDocumentFromFile(DocumentDto dto, String filePath) throws IOException;
+
 	void deleteDocument(String uuid);
 
 	List<DocumentDto> getDocumentsRelatedToEntity(DocumentRelatedEntityType type, String uuid);
@@ -34,5 +43,12 @@ public interface DocumentFacade {
 
 	byte[] read(String uuid) throws IOException;
 
+	/**
+	 * Reads a part of the content, so large documents can be served without loading them into memory.
+	 *
+	 * @return up to {@code length} bytes starting at {@code offset}; less if the end of the content is reached
+	 */
+	byte[] read(String uuid, long offset, int length) throws IOException;
+
 	void cleanupDeletedDocuments();
 }
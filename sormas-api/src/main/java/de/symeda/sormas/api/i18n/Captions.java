@@ -508,6 +508,9 @@ public interface Captions {
 	String CasePreviousHospitalization_isolated = "CasePreviousHospitalization.isolated";
 	String CasePreviousHospitalization_otherHospitalizationReason = "CasePreviousHospitalization.otherHospitalizationReason";
 	String CasePreviousHospitalization_prevHospPeriod = "CasePreviousHospitalization.prevHospPeriod";
+	String caseReclassificationProgress = "caseReclassificationProgress";
+	String caseReclassificationStart = "caseReclassificationStart";
+	String caseReclassifyCases = "caseReclassifyCases";
 	String caseReferToFacility = "caseReferToFacility";
 	String caseSearchCase = "caseSearchCase";
 	String caseSearchSpecificCase = "caseSearchSpecificCase";
@@ -1408,6 +1411,7 @@ public interface Captions {
 	String messagesNoSmsSentForCase = "messagesNoSmsSentForCase";
 	String messagesNumberOfMessages = "messagesNumberOfMessages";
 	String messagesNumberOfMissingPhoneNumbers = "messagesNumberOfMissingPhoneNumbers";
+	String messagesPendingDelivery = "messagesPendingDelivery";
 	String messagesSendingSms = "messagesSendingSms";
 	String messagesSendSMS = "messagesSendSMS";
 	String messagesSentBy = "messagesSentBy";
@@ -1772,6 +1776,20 @@ public interface Captions {
 	String sampleSelect = "sampleSelect";
 	String sampleShipped = "sampleShipped";
 	String sampleSpecimenNotAdequate = "sampleSpecimenNotAdequate";
+	String ScheduledJobStatus_averageDurationMillis = "ScheduledJobStatus.averageDurationMillis";
+	String ScheduledJobStatus_durationHistogram = "ScheduledJobStatus.durationHistogram";
+	String ScheduledJobStatus_failedCount = "ScheduledJobStatus.failedCount";
+	String ScheduledJobStatus_jobName = "ScheduledJobStatus.jobName";
+	String ScheduledJobStatus_lastEndDate = "ScheduledJobStatus.lastEndDate";
+	String ScheduledJobStatus_lastInfo = "ScheduledJobStatus.lastInfo";
+	String ScheduledJobStatus_lastStartDate = "ScheduledJobStatus.lastStartDate";
+	String ScheduledJobStatus_lastStatus = "ScheduledJobStatus.lastStatus";
+	String ScheduledJobStatus_leaseOwner = "ScheduledJobStatus.leaseOwner";
+	String ScheduledJobStatus_maxDurationMillis = "ScheduledJobStatus.maxDurationMillis";
+	String ScheduledJobStatus_rowCountHistogram = "ScheduledJobStatus.rowCountHistogram";
+	String ScheduledJobStatus_runCount = "ScheduledJobStatus.runCount";
+	String ScheduledJobStatus_running = "ScheduledJobStatus.running";
+	String ScheduledJobStatus_skippedCount = "ScheduledJobStatus.skippedCount";
 	String sex = "sex";
 	String showPlacesOnMap = "showPlacesOnMap";
 	String singleDayEventDate = "singleDayEventDate";
@@ -2216,6 +2234,8 @@ public interface Captions {
 	String View_configuration_populationdata_short = "View.configuration.populationdata.short";
 	String View_configuration_regions = "View.configuration.regions";
 	String View_configuration_regions_short = "View.configuration.regions.short";
+	String View_configuration_scheduledJobs = "View.configuration.scheduledJobs";
+	String View_configuration_scheduledJobs_short = "View.configuration.scheduledJobs.short";
 	String View_configuration_subcontinents = "View.configuration.subcontinents";
 	String View_configuration_subcontinents_short = "View.configuration.subcontinents.short";
 	String View_configuration_templates = "View.configuration.templates";
@@ -0,0 +1,39 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.labmessage;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.ejb.Remote;
+
+/**
+ * Implemented by adapters that can deliver the lab messages in pages. Adapters that only implement
+ * {@link ExternalLabResultsFacade} return all messages at once.
+ */
+@Remote
+public interface PagedExternalLabResultsFacade extends ExternalLabResultsFacade {
+
+	/**
+	 * Fetches the lab messages in pages: The synchronization date of the result is the one to fetch the next page with,
+	 * and a page with less than {@code maxResults} messages is the last one. Messages may be repeated on the next page.
+	 *
+	 * @param since
+	 * @param maxResults
+	 *            the maximum number of messages to return
+	 * @return LabMessages that are new or have changed since
+	 */
+	ExternalMessageResult<List<LabMessageDto>> getExternalLabMessages(Date since, int maxResults);
+}
@@ -17,6 +17,8 @@
  *******************************************************************************/
 package de.symeda.sormas.api.region;
 
+import java.util.List;
+
 import javax.ejb.Remote;
 
 @Remote
@@ -27,19 +29,49 @@ public interface GeoShapeProvider {
 	 */
 	GeoLatLon[][] getRegionShape(RegionReferenceDto region);
 
+	/**
+	 * @return the shape of the region, simplified to the precision visible at the zoom level of a map
+	 * @see GeoShapeSimplification
+	 */
+	GeoLatLon[][] getRegionShape(RegionReferenceDto region, int zoom);
+
 	RegionReferenceDto getRegionByCoord(GeoLatLon latLon);
 
+	/**
+	 * @return the regions containing the coordinates, in the same order; {@code null} for coordinates outside of all
+	 *         regions
+	 */
+	List<RegionReferenceDto> getRegionsByCoords(List<GeoLatLon> latLons);
+
 	GeoLatLon getCenterOfAllRegions();
 
 	GeoLatLon getCenterOfRegion(RegionReferenceDto region);
 
 	GeoLatLon[][] getDistrictShape(DistrictReferenceDto district);
 
+	/**
+	 * @return the shape of the district, simplified to the precision visible at the zoom level of a map
+	 * @see GeoShapeSimplification
+	 */
+	GeoLatLon[][] getDistrictShape(DistrictReferenceDto district, int zoom);
+
 	DistrictReferenceDto getDistrictByCoord(GeoLatLon latLon);
 
+	/**
+	 * @return the districts containing the coordinates, in the same order; {@code null} for coordinates outside of all
+	 *         districts
+	 */
+	List<DistrictReferenceDto> getDistrictsByCoords(List<GeoLatLon> latLons);
+
 	GeoLatLon getCenterOfDistrict(DistrictReferenceDto district);
 
 	GeoLatLon[][] getCountryShape();
 
+	/**
+	 * @return the shape of the country, simplified to the precision visible at the zoom level of a map
+	 * @see GeoShapeSimplification
+	 */
+	GeoLatLon[][] getCountryShape(int zoom);
+
 	String loadShapefileAttributions();
 }
@@ -0,0 +1,56 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.region;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The zoom levels for which simplified region, district and country shapes are precomputed. A shape requested for a
+ * zoom level is simplified with a tolerance of one pixel at the next of these levels; beyond the last one the shape is
+ * used in full resolution.
+ */
+public final class GeoShapeSimplification {
+
+	public static final List<Integer> ZOOM_LEVELS = Collections.unmodifiableList(Arrays.asList(4, 6, 8, 10));
+	public static final int FULL_RESOLUTION = Integer.MAX_VALUE;
+
+	private static final int TILE_SIZE = 256;
+
+	private GeoShapeSimplification() {
+		// Hide Utility Class Constructor
+	}
+
+	/**
+	 * @return the zoom level of the precomputed shapes to use for the zoom or {@link #FULL_RESOLUTION}
+	 */
+	public static int getZoomLevel(int zoom) {
+
+		for (int zoomLevel : ZOOM_LEVELS) {
+			if (zoom <= zoomLevel) {
+				return zoomLevel;
+			}
+		}
+		return FULL_RESOLUTION;
+	}
+
+	/**
+	 * @return the size of a pixel at the zoom level in degrees
+	 */
+	public static double getTolerance(int zoomLevel) {
+		return 360d / (TILE_SIZE * (1L << zoomLevel));
+	}
+}
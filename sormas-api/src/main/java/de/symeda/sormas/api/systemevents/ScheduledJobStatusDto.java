@@ -0,0 +1,172 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.systemevents;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * The status of a job run by the scheduler: its last run as recorded in the {@link SystemEventType#SCHEDULED_JOB}
+ * system events and the statistics of its runs on one server since it was started.
+ */
+public class ScheduledJobStatusDto implements Serializable {
+
+	private static final long serialVersionUID = 5106283915622860514L;
+
+	public static final String I18N_PREFIX = "ScheduledJobStatus";
+
+	public static final String JOB_NAME = "jobName";
+	public static final String LEASE_OWNER = "leaseOwner";
+	public static final String RUNNING = "running";
+	public static final String LAST_STATUS = "lastStatus";
+	public static final String LAST_START_DATE = "lastStartDate";
+	public static final String LAST_END_DATE = "lastEndDate";
+	public static final String LAST_INFO = "lastInfo";
+	public static final String RUN_COUNT = "runCount";
+	public static final String SKIPPED_COUNT = "skippedCount";
+	public static final String FAILED_COUNT = "failedCount";
+	public static final String AVERAGE_DURATION_MILLIS = "averageDurationMillis";
+	public static final String MAX_DURATION_MILLIS = "maxDurationMillis";
+	public static final String DURATION_HISTOGRAM = "durationHistogram";
+	public static final String ROW_COUNT_HISTOGRAM = "rowCountHistogram";
+
+	private String jobName;
+	private String leaseOwner;
+	private boolean running;
+	private SystemEventStatus lastStatus;
+	private Date lastStartDate;
+	private Date lastEndDate;
+	private String lastInfo;
+	private long runCount;
+	private long skippedCount;
+	private long failedCount;
+	private long averageDurationMillis;
+	private long maxDurationMillis;
+	private String durationHistogram;
+	private String rowCountHistogram;
+
+	public String getJobName() {
+		return jobName;
+	}
+
+	public void setJobName(String jobName) {
+		this.jobName = jobName;
+	}
+
+	public String getLeaseOwner() {
+		return leaseOwner;
+	}
+
+	public void setLeaseOwner(String leaseOwner) {
+		this.leaseOwner = leaseOwner;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public void setRunning(boolean running) {
+		this.running = running;
+	}
+
+	public SystemEventStatus getLastStatus() {
+		return lastStatus;
+	}
+
+	public void setLastStatus(SystemEventStatus lastStatus) {
+		this.lastStatus = lastStatus;
+	}
+
+	public Date getLastStartDate() {
+		return lastStartDate;
+	}
+
+	public void setLastStartDate(Date lastStartDate) {
+		this.lastStartDate = lastStartDate;
+	}
+
+	public Date getLastEndDate() {
+		return lastEndDate;
+	}
+
+	public void setLastEndDate(Date lastEndDate) {
+		this.lastEndDate = lastEndDate;
+	}
+
+	public String getLastInfo() {
+		return lastInfo;
+	}
+
+	public void setLastInfo(String lastInfo) {
+		this.lastInfo = lastInfo;
+	}
+
+	public long getRunCount() {
+		return runCount;
+	}
+
+	public void setRunCount(long runCount) {
+		this.runCount = runCount;
+	}
+
+	public long getSkippedCount() {
+		return skippedCount;
+	}
+
+	public void setSkippedCount(long skippedCount) {
+		this.skippedCount = skippedCount;
+	}
+
+	public long getFailedCount() {
+		return failedCount;
+	}
+
+	public void setFailedCount(long failedCount) {
+		this.failedCount = failedCount;
+	}
+
+	public long getAverageDurationMillis() {
+		return averageDurationMillis;
+	}
+
+	public void setAverageDurationMillis(long averageDurationMillis) {
+		this.averageDurationMillis = averageDurationMillis;
+	}
+
+	public long getMaxDurationMillis() {
+		return maxDurationMillis;
+	}
+
+	public void setMaxDurationMillis(long maxDurationMillis) {
+		this.maxDurationMillis = maxDurationMillis;
+	}
+
+	public String getDurationHistogram() {
+		return durationHistogram;
+	}
+
+	public void setDurationHistogram(String durationHistogram) {
+		this.durationHistogram = durationHistogram;
+	}
+
+	public String getRowCountHistogram() {
+		return rowCountHistogram;
+	}
+
+	public void setRowCountHistogram(String rowCountHistogram) {
+		this.rowCountHistogram = rowCountHistogram;
+	}
+}
@@ -1,5 +1,10 @@
 package de.symeda.sormas.api.systemevents;
 
 public enum SystemEventType {
-	FETCH_LAB_MESSAGES
+	FETCH_LAB_MESSAGES,
+	CASE_RECLASSIFICATION,
+	CASE_STATISTICS_REFRESH,
+	ARCHIVE_CASES,
+	ARCHIVE_EVENTS,
+	SCHEDULED_JOB
 }
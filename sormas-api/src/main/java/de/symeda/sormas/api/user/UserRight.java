@@ -231,6 +231,9 @@ public enum UserRight {
 			ADMIN,
 			ADMIN_SUPERVISOR
 	),
+	CASE_RECLASSIFY(
+			ADMIN
+	),
 	PERSON_VIEW(
 			ADMIN,
 			NATIONAL_USER,
@@ -19,6 +19,8 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.symeda.sormas.api.utils.fieldaccess.checkers.AnnotationBasedFieldAccessChecker;
+
 public class FieldAccessCheckers {
 
 	private List<FieldAccessChecker> checkers = new ArrayList<>();
@@ -90,6 +92,23 @@ public class FieldAccessCheckers {
 		return true;
 	}
 
+	/**
+	 * @return A key that is equal for checkers that allow access to the same fields, {@code null} if one of the checkers
+	 *         can't provide its configuration.
+	 */
+	public Object getConfigurationKey() {
+
+		List<Object> key = new ArrayList<>(checkers.size());
+		for (FieldAccessChecker checker : checkers) {
+			if (!(checker instanceof AnnotationBasedFieldAccessChecker)) {
+				return null;
+			}
+			key.add(((AnnotationBasedFieldAccessChecker) checker).getConfigurationKey());
+		}
+
+		return key;
+	}
+
 	public FieldAccessCheckers add(FieldAccessChecker checker) {
 		checkers.add(checker);
 		return this;
@@ -17,6 +17,7 @@ package de.symeda.sormas.api.utils.fieldaccess.checkers;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 
 import de.symeda.sormas.api.utils.fieldaccess.FieldAccessChecker;
 
@@ -58,6 +59,13 @@ public abstract class AnnotationBasedFieldAccessChecker implements FieldAccessCh
 		return hasRight;
 	}
 
+	/**
+	 * @return A key that is equal for checkers of the same type checking the same annotations with the same right.
+	 */
+	public Object getConfigurationKey() {
+		return Arrays.asList(getClass(), fieldAnnotation, embeddedAnnotation, hasRight);
+	}
+
 	public interface RightCheck {
 
 		boolean check(boolean inJurisdiction);
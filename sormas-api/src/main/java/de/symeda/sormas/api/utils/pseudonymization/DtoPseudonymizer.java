@@ -17,8 +17,11 @@ package de.symeda.sormas.api.utils.pseudonymization;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import de.symeda.sormas.api.user.UserRight;
 import de.symeda.sormas.api.utils.fieldaccess.FieldAccessChecker;
@@ -27,6 +30,12 @@ import de.symeda.sormas.api.utils.pseudonymization.valuepseudonymizers.DefaultVa
 
 public class DtoPseudonymizer {
 
+	/**
+	 * Plans are only derived from the DTO class and the configuration of the checkers, so they can be shared by all
+	 * pseudonymizer instances with the same configuration.
+	 */
+	private static final Map<List<Object>, PseudonymizationPlan> PLAN_CACHE = new ConcurrentHashMap<>();
+
 	protected FieldAccessCheckers inJurisdictionCheckers;
 	protected FieldAccessCheckers outsideJurisdictionCheckers;
 
@@ -34,6 +43,9 @@ public class DtoPseudonymizer {
 
 	private final boolean pseudonymizeMandatoryFields;
 
+	private Object inJurisdictionCheckersKey;
+	private Object outsideJurisdictionCheckersKey;
+
 	protected DtoPseudonymizer(
 		FieldAccessCheckers inJurisdictionCheckers,
 		FieldAccessCheckers outsideJurisdictionCheckers,
@@ -49,6 +61,9 @@ public class DtoPseudonymizer {
 	public void addFieldAccessChecker(FieldAccessChecker inJurisdictionChecker, FieldAccessChecker outsideJurisdictionChecker) {
 		this.inJurisdictionCheckers.add(inJurisdictionChecker);
 		this.outsideJurisdictionCheckers.add(outsideJurisdictionChecker);
+
+		inJurisdictionCheckersKey = null;
+		outsideJurisdictionCheckersKey = null;
 	}
 
 	public <DTO> void pseudonymizeDtoCollection(
@@ -67,19 +82,15 @@ public class DtoPseudonymizer {
 		final CustomCollectionItemPseudonymization<DTO> customPseudonymization,
 		boolean skipEmbeddedFields) {
 
-		List<Field> pseudonymizableFieldsInJurisdiction = getPseudonymizableFields(type, true);
-		List<Field> pseudonymizableFieldsOutsideJurisdiction = getPseudonymizableFields(type, false);
-		List<Field> embeddedFieldsInJurisdiction = getEmbeddedFields(type, true);
-		List<Field> embeddedFieldsOutsideJurisdiction = getEmbeddedFields(type, false);
+		PseudonymizationPlan planInJurisdiction = getPlan(type, true, null);
+		PseudonymizationPlan planOutsideJurisdiction = getPlan(type, false, null);
 
 		for (final DTO dto : dtos) {
 			final boolean isInJurisdiction = jurisdictionValidator.validate(dto);
 			pseudonymizeDto(
 				dto,
-				isInJurisdiction ? pseudonymizableFieldsInJurisdiction : pseudonymizableFieldsOutsideJurisdiction,
-				isInJurisdiction ? embeddedFieldsInJurisdiction : embeddedFieldsOutsideJurisdiction,
+				isInJurisdiction ? planInJurisdiction : planOutsideJurisdiction,
 				isInJurisdiction,
-				null,
 				customPseudonymization == null ? null : new CustomPseudonymization<DTO>() {
 
 					@Override
@@ -92,17 +103,13 @@ public class DtoPseudonymizer {
 	}
 
 	public <DTO> void pseudonymizeDto(Class<DTO> type, DTO dto, boolean isInJurisdiction, CustomPseudonymization<DTO> customPseudonymization) {
-		List<Field> declaredFields = getPseudonymizableFields(type, isInJurisdiction);
-		List<Field> embeddedFields = getEmbeddedFields(type, isInJurisdiction);
-
-		pseudonymizeDto(dto, declaredFields, embeddedFields, isInJurisdiction, null, customPseudonymization, false);
+		pseudonymizeDto(dto, getPlan(type, isInJurisdiction, null), isInJurisdiction, customPseudonymization, false);
 	}
 
 	public <DTO> boolean isAccessible(Class<DTO> type, String fieldName, boolean isInJurisdiction) {
-		List<Field> pseudonymizableFields = getPseudonymizableFields(type, isInJurisdiction);
-		for (Field field : pseudonymizableFields) {
-			if (fieldName.equals(field.getName())) {
-				return getFieldAccessCheckers(isInJurisdiction).isAccessible(field, pseudonymizeMandatoryFields);
+		for (PlannedField field : getPlan(type, isInJurisdiction, null).pseudonymizableFields) {
+			if (fieldName.equals(field.field.getName())) {
+				return field.accessible;
 			}
 		}
 		throw new RuntimeException("Could not find field: " + fieldName);
@@ -113,62 +120,30 @@ public class DtoPseudonymizer {
 			return;
 		}
 
-		List<Field> pseudonymizableFields = getPseudonymizableFields(type, isInJurisdiction);
-		List<Field> embeddedFields = getEmbeddedFields(type, isInJurisdiction);
+		PseudonymizationPlan plan = getPlan(type, isInJurisdiction, null);
 
-		for (Field pseudonymizedField : pseudonymizableFields) {
-			if (!getFieldAccessCheckers(isInJurisdiction).isAccessible(pseudonymizedField, pseudonymizeMandatoryFields) || dto.isPseudonymized()) {
-				restoreOriginalValue(dto, pseudonymizedField, originalDto);
+		for (PlannedField pseudonymizedField : plan.pseudonymizableFields) {
+			if (!pseudonymizedField.accessible || dto.isPseudonymized()) {
+				pseudonymizedField.set(dto, pseudonymizedField.get(originalDto));
 			}
 		}
-		for (Field embeddedField : embeddedFields) {
-			Class<?> fieldType = embeddedField.getType();
+		for (PlannedEmbeddedField embeddedField : plan.embeddedFields) {
+			Class<?> fieldType = embeddedField.field.getType();
 
 			if (Pseudonymizable.class.isAssignableFrom(fieldType)) {
-				boolean isAccessible = embeddedField.isAccessible();
-				try {
-					embeddedField.setAccessible(true);
-
-					restorePseudonymizedValues(
-						(Class<Pseudonymizable>) fieldType,
-						(Pseudonymizable) embeddedField.get(dto),
-						(Pseudonymizable) embeddedField.get(originalDto),
-						isInJurisdiction);
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException("Couldn't restore embedded field " + dto.getClass().getName() + "." + embeddedField.getName(), e);
-				} finally {
-					embeddedField.setAccessible(isAccessible);
-				}
+				restorePseudonymizedValues(
+					(Class<Pseudonymizable>) fieldType,
+					(Pseudonymizable) embeddedField.get(dto),
+					(Pseudonymizable) embeddedField.get(originalDto),
+					isInJurisdiction);
 			}
 		}
 	}
 
-	private <DTO> boolean pseudonymizeDto(
-		Class<DTO> type,
-		DTO dto,
-		boolean isInJurisdiction,
-		Class<? extends ValuePseudonymizer> defaultPseudonymizerClass,
-		CustomPseudonymization<DTO> customPseudonymization,
-		boolean skipEmbeddedFields) {
-		List<Field> declaredFields = getPseudonymizableFields(type, isInJurisdiction);
-		List<Field> embeddedFields = getEmbeddedFields(type, isInJurisdiction);
-
-		return pseudonymizeDto(
-			dto,
-			declaredFields,
-			embeddedFields,
-			isInJurisdiction,
-			defaultPseudonymizerClass,
-			customPseudonymization,
-			skipEmbeddedFields);
-	}
-
 	private <DTO> boolean pseudonymizeDto(
 		DTO dto,
-		List<Field> pseudonymizableFields,
-		List<Field> embeddedFields,
+		PseudonymizationPlan plan,
 		boolean inJurisdiction,
-		Class<? extends ValuePseudonymizer> defaultPseudonymizerClass,
 		CustomPseudonymization<DTO> customPseudonymization,
 		boolean skipEmbeddedFields) {
 		if (dto == null) {
@@ -177,37 +152,19 @@ public class DtoPseudonymizer {
 
 		boolean didPseudonymization = false;
 
-		for (Field field : pseudonymizableFields) {
-			if (!getFieldAccessCheckers(inJurisdiction).isAccessible(field, pseudonymizeMandatoryFields)) {
-				pseudonymizeField(dto, field, defaultPseudonymizerClass);
-				didPseudonymization = true;
-			}
+		for (PlannedField field : plan.inaccessibleFields) {
+			field.set(dto, field.pseudonymizer.pseudonymize(field.get(dto)));
+			didPseudonymization = true;
 		}
 
 		if (!skipEmbeddedFields) {
-			for (Field embeddedField : embeddedFields) {
-				boolean accessible = embeddedField.isAccessible();
-				try {
-
-					embeddedField.setAccessible(true);
-					Pseudonymizer pseudonymizerAnnotation = embeddedField.getAnnotation(Pseudonymizer.class);
-					Class<? extends ValuePseudonymizer> psudonomyzerClass =
-						pseudonymizerAnnotation != null ? pseudonymizerAnnotation.value() : defaultPseudonymizerClass;
-
-					didPseudonymization = pseudonymizeDto(
-						(Class<Object>) embeddedField.getType(),
-						embeddedField.get(dto),
-						inJurisdiction,
-						psudonomyzerClass,
-						null,
-						skipEmbeddedFields);
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException(
-						"Failed to pseudonymize embedded field " + dto.getClass().getName() + "." + embeddedField.getName(),
-						e);
-				} finally {
-					embeddedField.setAccessible(accessible);
-				}
+			for (PlannedEmbeddedField embeddedField : plan.embeddedFields) {
+				didPseudonymization = pseudonymizeDto(
+					embeddedField.get(dto),
+					getPlan(embeddedField.field.getType(), inJurisdiction, embeddedField.pseudonymizerClass),
+					inJurisdiction,
+					null,
+					skipEmbeddedFields);
 			}
 		}
 
@@ -222,46 +179,87 @@ public class DtoPseudonymizer {
 		return didPseudonymization;
 	}
 
-	private <DTO> void pseudonymizeField(DTO dto, Field field, Class<? extends ValuePseudonymizer> pseudonymizerClass) {
+	/**
+	 * @param defaultPseudonymizerClass
+	 *            Used for fields without an own {@link Pseudonymizer} annotation, {@code null} to use a
+	 *            {@link DefaultValuePseudonymizer} with the string value placeholder.
+	 */
+	private PseudonymizationPlan getPlan(Class<?> type, boolean inJurisdiction, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass) {
+
+		Object checkersKey = getFieldAccessCheckersKey(inJurisdiction);
+		if (checkersKey == null) {
+			// checkers that can't describe their configuration can't share plans
+			return createPlan(type, inJurisdiction, defaultPseudonymizerClass);
+		}
 
-		try {
-			field.setAccessible(true);
+		List<Object> planKey = Arrays.asList(type, checkersKey, pseudonymizeMandatoryFields, stringValuePlaceholder, defaultPseudonymizerClass);
+		PseudonymizationPlan plan = PLAN_CACHE.get(planKey);
+		if (plan == null) {
+			plan = createPlan(type, inJurisdiction, defaultPseudonymizerClass);
+			PLAN_CACHE.put(planKey, plan);
+		}
 
-			ValuePseudonymizer<?> pseudonymizer = getPseudonymizer(field, pseudonymizerClass);
-			Object emptyValue = pseudonymizer.pseudonymize(field.get(dto));
-			field.set(dto, emptyValue);
-		} catch (IllegalAccessException | InstantiationException e) {
-			throw new RuntimeException(e);
-		} finally {
-			field.setAccessible(false);
+		return plan;
+	}
+
+	private Object getFieldAccessCheckersKey(boolean inJurisdiction) {
+		if (inJurisdiction) {
+			if (inJurisdictionCheckersKey == null) {
+				inJurisdictionCheckersKey = inJurisdictionCheckers.getConfigurationKey();
+			}
+			return inJurisdictionCheckersKey;
+		} else {
+			if (outsideJurisdictionCheckersKey == null) {
+				outsideJurisdictionCheckersKey = outsideJurisdictionCheckers.getConfigurationKey();
+			}
+			return outsideJurisdictionCheckersKey;
 		}
 	}
 
-	private ValuePseudonymizer<?> getPseudonymizer(Field field, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass)
-		throws IllegalAccessException, InstantiationException {
-		Pseudonymizer pseudonymizerAnnotation = field.getAnnotation(Pseudonymizer.class);
+	private PseudonymizationPlan createPlan(Class<?> type, boolean inJurisdiction, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass) {
+
+		FieldAccessCheckers fieldAccessCheckers = getFieldAccessCheckers(inJurisdiction);
+
+		List<PlannedField> pseudonymizableFields = new ArrayList<>();
+		List<PlannedField> inaccessibleFields = new ArrayList<>();
+		for (Field field : getPseudonymizableFields(type, inJurisdiction)) {
+			field.setAccessible(true);
 
-		if (pseudonymizerAnnotation == null) {
-			if (defaultPseudonymizerClass != null) {
-				return defaultPseudonymizerClass.newInstance();
+			boolean accessible = fieldAccessCheckers.isAccessible(field, pseudonymizeMandatoryFields);
+			PlannedField plannedField = new PlannedField(field, accessible, accessible ? null : getPseudonymizer(field, defaultPseudonymizerClass));
+			pseudonymizableFields.add(plannedField);
+			if (!accessible) {
+				inaccessibleFields.add(plannedField);
 			}
+		}
+
+		List<PlannedEmbeddedField> embeddedFields = new ArrayList<>();
+		for (Field embeddedField : getEmbeddedFields(type, inJurisdiction)) {
+			embeddedField.setAccessible(true);
 
-			return new DefaultValuePseudonymizer<>(stringValuePlaceholder);
+			Pseudonymizer pseudonymizerAnnotation = embeddedField.getAnnotation(Pseudonymizer.class);
+			embeddedFields
+				.add(new PlannedEmbeddedField(embeddedField, pseudonymizerAnnotation != null ? pseudonymizerAnnotation.value() : defaultPseudonymizerClass));
 		}
 
-		return pseudonymizerAnnotation.value().newInstance();
+		return new PseudonymizationPlan(pseudonymizableFields, inaccessibleFields, embeddedFields);
 	}
 
-	private <DTO extends Pseudonymizable> void restoreOriginalValue(DTO dto, Field field, DTO originalDto) {
+	private ValuePseudonymizer<?> getPseudonymizer(Field field, Class<? extends ValuePseudonymizer> defaultPseudonymizerClass) {
+		Pseudonymizer pseudonymizerAnnotation = field.getAnnotation(Pseudonymizer.class);
 
 		try {
-			field.setAccessible(true);
-			Object originalValue = field.get(originalDto);
-			field.set(dto, originalValue);
-		} catch (IllegalAccessException e) {
+			if (pseudonymizerAnnotation == null) {
+				if (defaultPseudonymizerClass != null) {
+					return defaultPseudonymizerClass.newInstance();
+				}
+
+				return new DefaultValuePseudonymizer<>(stringValuePlaceholder);
+			}
+
+			return pseudonymizerAnnotation.value().newInstance();
+		} catch (IllegalAccessException | InstantiationException e) {
 			throw new RuntimeException(e);
-		} finally {
-			field.setAccessible(false);
 		}
 	}
 
@@ -334,4 +332,64 @@ public class DtoPseudonymizer {
 		boolean apply(Field field);
 	}
 
+	/**
+	 * The fields of a DTO class to pseudonymize, resolved once for a checker configuration. The fields are made
+	 * accessible when the plan is created, the value pseudonymizers are created once per plan.
+	 */
+	private static final class PseudonymizationPlan {
+
+		/** all fields configured for a check */
+		private final PlannedField[] pseudonymizableFields;
+		/** the fields of {@link #pseudonymizableFields} the user has no access to */
+		private final PlannedField[] inaccessibleFields;
+		private final PlannedEmbeddedField[] embeddedFields;
+
+		private PseudonymizationPlan(
+			List<PlannedField> pseudonymizableFields,
+			List<PlannedField> inaccessibleFields,
+			List<PlannedEmbeddedField> embeddedFields) {
+			this.pseudonymizableFields = pseudonymizableFields.toArray(new PlannedField[0]);
+			this.inaccessibleFields = inaccessibleFields.toArray(new PlannedField[0]);
+			this.embeddedFields = embeddedFields.toArray(new PlannedEmbeddedField[0]);
+		}
+	}
+
+	private static class PlannedField {
+
+		protected final Field field;
+		private final boolean accessible;
+		private final ValuePseudonymizer<?> pseudonymizer;
+
+		private PlannedField(Field field, boolean accessible, ValuePseudonymizer<?> pseudonymizer) {
+			this.field = field;
+			this.accessible = accessible;
+			this.pseudonymizer = pseudonymizer;
+		}
+
+		Object get(Object dto) {
+			try {
+				return field.get(dto);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		void set(Object dto, Object value) {
+			try {
+				field.set(dto, value);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static final class PlannedEmbeddedField extends PlannedField {
+
+		private final Class<? extends ValuePseudonymizer> pseudonymizerClass;
+
+		private PlannedEmbeddedField(Field field, Class<? extends ValuePseudonymizer> pseudonymizerClass) {
+			super(field, true, null);
+			this.pseudonymizerClass = pseudonymizerClass;
+		}
+	}
 }
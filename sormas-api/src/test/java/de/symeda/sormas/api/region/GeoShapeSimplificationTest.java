@@ -0,0 +1,41 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.api.region;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+public class GeoShapeSimplificationTest {
+
+	@Test
+	public void testGetZoomLevel() {
+
+		assertThat(GeoShapeSimplification.getZoomLevel(1), is(4));
+		assertThat(GeoShapeSimplification.getZoomLevel(4), is(4));
+		assertThat(GeoShapeSimplification.getZoomLevel(5), is(6));
+		assertThat(GeoShapeSimplification.getZoomLevel(10), is(10));
+		assertThat(GeoShapeSimplification.getZoomLevel(11), is(GeoShapeSimplification.FULL_RESOLUTION));
+	}
+
+	@Test
+	public void testGetTolerance() {
+
+		assertThat(GeoShapeSimplification.getTolerance(0), closeTo(360d / 256, 0.000001));
+		assertThat(GeoShapeSimplification.getTolerance(4), closeTo(360d / 4096, 0.000001));
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.utils.pseudonymization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.symeda.sormas.api.caze.AgeAndBirthDateDto;
+import de.symeda.sormas.api.caze.CaseIndexDto;
+
+/**
+ * Pseudonymizes a page of the case directory like {@code CaseFacadeEjb.getIndexList} does, with a new pseudonymizer for
+ * each page. Half of the cases are outside the jurisdiction of the user.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.mainClass=...DtoPseudonymizerBenchmark -Dexec.classpathScope=test}
+ * or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoPseudonymizerBenchmark {
+
+	@Param({
+		"100",
+		"1000" })
+	private int pageSize;
+
+	private List<CaseIndexDto> cases;
+
+	@Setup
+	public void setUp() {
+		cases = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			cases.add(DtoPseudonymizerTest.createCaseIndexDto(i));
+		}
+	}
+
+	@Benchmark
+	public List<CaseIndexDto> pseudonymizeIndexList() {
+
+		// pseudonymized values are the same in each invocation, so the cases don't have to be reset
+		final DtoPseudonymizer pseudonymizer = DtoPseudonymizerTest.createPseudonymizer(false);
+		for (CaseIndexDto caze : cases) {
+			final boolean isInJurisdiction = caze.getId() % 2 == 0;
+			pseudonymizer.pseudonymizeDto(CaseIndexDto.class, caze, isInJurisdiction, new DtoPseudonymizer.CustomPseudonymization<CaseIndexDto>() {
+
+				@Override
+				public void pseudonymize(CaseIndexDto c) {
+					pseudonymizer.pseudonymizeDto(AgeAndBirthDateDto.class, c.getAgeAndBirthDate(), isInJurisdiction, null);
+				}
+			});
+		}
+
+		return cases;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DtoPseudonymizerBenchmark.class.getSimpleName()).build()).run();
+	}
+}
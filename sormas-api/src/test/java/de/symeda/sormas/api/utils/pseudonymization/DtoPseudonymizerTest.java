@@ -0,0 +1,168 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.api.utils.pseudonymization;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.caze.AgeAndBirthDateDto;
+import de.symeda.sormas.api.caze.CaseIndexDto;
+import de.symeda.sormas.api.user.UserRight;
+import de.symeda.sormas.api.utils.fieldaccess.FieldAccessCheckers;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.PersonalDataFieldAccessChecker;
+import de.symeda.sormas.api.utils.fieldaccess.checkers.SensitiveDataFieldAccessChecker;
+
+public class DtoPseudonymizerTest {
+
+	@Test
+	public void testPseudonymizeOutsideJurisdiction() {
+
+		CaseIndexDto caze = createCaseIndexDto(1);
+		DtoPseudonymizer pseudonymizer = createPseudonymizer(false);
+		pseudonymizer.pseudonymizeDto(CaseIndexDto.class, caze, false, null);
+		pseudonymizer.pseudonymizeDto(AgeAndBirthDateDto.class, caze.getAgeAndBirthDate(), false, null);
+
+		assertThat(caze.getPersonFirstName(), is("***"));
+		assertThat(caze.getPersonLastName(), is("***"));
+		assertThat(caze.getAgeAndBirthDate().getDateOfBirthDD(), is(nullValue()));
+		assertThat(caze.getAgeAndBirthDate().getDateOfBirthYYYY(), is(1990));
+		assertThat(caze.getEpidNumber(), is("EPID-1"));
+		assertThat(caze.isPseudonymized(), is(true));
+
+		// a second pseudonymizer with the same configuration uses the cached plan
+		CaseIndexDto otherCase = createCaseIndexDto(2);
+		createPseudonymizer(false).pseudonymizeDto(CaseIndexDto.class, otherCase, false, null);
+		assertThat(otherCase.getPersonFirstName(), is("***"));
+	}
+
+	@Test
+	public void testPlansDependOnRights() {
+
+		createPseudonymizer(false).pseudonymizeDto(CaseIndexDto.class, createCaseIndexDto(1), false, null);
+
+		CaseIndexDto caze = createCaseIndexDto(1);
+		DtoPseudonymizer pseudonymizer = createPseudonymizer(true);
+		pseudonymizer.pseudonymizeDto(CaseIndexDto.class, caze, false, null);
+
+		assertThat(caze.getPersonFirstName(), is("First 1"));
+		assertThat(caze.isPseudonymized(), is(false));
+		assertThat(pseudonymizer.isAccessible(CaseIndexDto.class, CaseIndexDto.PERSON_FIRST_NAME, false), is(true));
+
+		pseudonymizer.addFieldAccessChecker(PersonalDataFieldAccessChecker.forcedNoAccess(), PersonalDataFieldAccessChecker.forcedNoAccess());
+		pseudonymizer.pseudonymizeDto(CaseIndexDto.class, caze, false, null);
+
+		assertThat(caze.getPersonFirstName(), is("***"));
+		assertThat(pseudonymizer.isAccessible(CaseIndexDto.class, CaseIndexDto.PERSON_FIRST_NAME, false), is(false));
+	}
+
+	@Test
+	public void testRestorePseudonymizedValues() {
+
+		CaseIndexDto original = createCaseIndexDto(1);
+		CaseIndexDto caze = createCaseIndexDto(1);
+		DtoPseudonymizer pseudonymizer = createPseudonymizer(false);
+		pseudonymizer.pseudonymizeDto(CaseIndexDto.class, caze, false, null);
+		pseudonymizer.restorePseudonymizedValues(CaseIndexDto.class, caze, original, false);
+
+		assertThat(caze.getPersonFirstName(), is("First 1"));
+		assertThat(caze.getHealthFacilityName(), is(original.getHealthFacilityName()));
+	}
+
+	/**
+	 * @param rightsOutsideJurisdiction
+	 *            Whether the user can see personal and sensitive data outside the jurisdiction. Inside the
+	 *            jurisdiction, the user can always see them.
+	 */
+	static DtoPseudonymizer createPseudonymizer(final boolean rightsOutsideJurisdiction) {
+
+		PersonalDataFieldAccessChecker.RightCheck personalDataRightCheck = new PersonalDataFieldAccessChecker.RightCheck() {
+
+			@Override
+			public boolean check(UserRight userRight) {
+				return rightsOutsideJurisdiction || userRight == UserRight.SEE_PERSONAL_DATA_IN_JURISDICTION;
+			}
+		};
+		SensitiveDataFieldAccessChecker.RightCheck sensitiveDataRightCheck = new SensitiveDataFieldAccessChecker.RightCheck() {
+
+			@Override
+			public boolean check(UserRight userRight) {
+				return rightsOutsideJurisdiction || userRight == UserRight.SEE_SENSITIVE_DATA_IN_JURISDICTION;
+			}
+		};
+
+		return new DtoPseudonymizer(
+			FieldAccessCheckers.withCheckers(
+				PersonalDataFieldAccessChecker.inJurisdiction(personalDataRightCheck),
+				SensitiveDataFieldAccessChecker.inJurisdiction(sensitiveDataRightCheck)),
+			FieldAccessCheckers.withCheckers(
+				PersonalDataFieldAccessChecker.outsideJurisdiction(personalDataRightCheck),
+				SensitiveDataFieldAccessChecker.outsideJurisdiction(sensitiveDataRightCheck)),
+			"***",
+			true);
+	}
+
+	static CaseIndexDto createCaseIndexDto(long id) {
+
+		return new CaseIndexDto(
+			id,
+			"uuid-" + id,
+			"EPID-" + id,
+			null,
+			null,
+			null,
+			"First " + id,
+			"Last " + id,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			"Facility " + id,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			31,
+			null,
+			12,
+			3,
+			1990,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			null,
+			true);
+	}
+}
@@ -2,14 +2,17 @@ package de.symeda.sormas.backend;
 
 import java.sql.Types;
 
-import org.hibernate.dialect.PostgreSQL94Dialect;
+import org.hibernate.dialect.PostgreSQL95Dialect;
 import org.hibernate.dialect.function.SQLFunctionTemplate;
 import org.hibernate.dialect.function.StandardSQLFunction;
 import org.hibernate.type.StandardBasicTypes;
 
 import com.vladmihalcea.hibernate.type.json.JsonStringType;
 
-public class ExtendedPostgreSQL94Dialect extends PostgreSQL94Dialect {
+/**
+ * Based on the 9.5 dialect, the oldest supported PostgreSQL version, so {@code FOR UPDATE SKIP LOCKED} is available.
+ */
+public class ExtendedPostgreSQL95Dialect extends PostgreSQL95Dialect {
 
 	public final static String SIMILARITY_OPERATOR = "similarity_operator";
 	public final static String ARRAY_TO_STRING = "array_to_string";
@@ -21,7 +24,7 @@ public class ExtendedPostgreSQL94Dialect extends PostgreSQL94Dialect {
 	public final static String WINDOW_FIRST_VALUE_DESC = "window_first_value_desc";
 	public final static String WINDOW_COUNT = "window_count";
 
-	public ExtendedPostgreSQL94Dialect() {
+	public ExtendedPostgreSQL95Dialect() {
 		super();
 		// needed because of hibernate bug: https://hibernate.atlassian.net/browse/HHH-11938
 		registerFunction("regexp_replace", new StandardSQLFunction("regexp_replace"));
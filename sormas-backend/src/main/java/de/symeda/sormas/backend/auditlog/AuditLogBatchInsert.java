@@ -0,0 +1,137 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts {@link AuditLogEntry}s with JDBC batches. The ids of all entries are fetched with a single query, in the order
+ * of the entries, so entries written later still get higher ids. The transaction timestamp is the time the transaction
+ * of the entries has been completed, not the time they are inserted.
+ */
+final class AuditLogBatchInsert {
+
+	static final int BATCH_SIZE = 1000;
+
+	private static final String NEXT_IDS = "SELECT nextval('auditlog_seq') FROM generate_series(1, ?) ORDER BY 1";
+	private static final String INSERT_ENTRY =
+		"INSERT INTO auditlogentry (id, detection_ts, changetype, editinguser, clazz, uuid, transaction_id, transaction_ts)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String INSERT_ATTRIBUTE = "INSERT INTO auditlogentry_attributes (auditlogentry_id, attribute_key, attribute_value) VALUES (?, ?, ?)";
+
+	private AuditLogBatchInsert() {
+		// Hide Utility Class Constructor
+	}
+
+	static void insert(Connection connection, List<AuditLogEntry> entries, Date transactionTimestamp) throws SQLException {
+		insert(connection, Collections.singletonList(new LoggedTransaction(entries, transactionTimestamp)));
+	}
+
+	static void insert(Connection connection, List<LoggedTransaction> transactions) throws SQLException {
+
+		List<AuditLogEntry> entries = new ArrayList<>();
+		List<Timestamp> transactionTimestamps = new ArrayList<>();
+		for (LoggedTransaction transaction : transactions) {
+			Timestamp transactionTimestamp = new Timestamp(transaction.timestamp.getTime());
+			for (AuditLogEntry entry : transaction.entries) {
+				entries.add(entry);
+				transactionTimestamps.add(transactionTimestamp);
+			}
+		}
+
+		for (int start = 0; start < entries.size(); start += BATCH_SIZE) {
+			int end = Math.min(start + BATCH_SIZE, entries.size());
+			insertBatch(connection, entries.subList(start, end), transactionTimestamps.subList(start, end));
+		}
+	}
+
+	private static void insertBatch(Connection connection, List<AuditLogEntry> entries, List<Timestamp> transactionTimestamps)
+		throws SQLException {
+
+		List<Long> ids = nextIds(connection, entries.size());
+
+		try (PreparedStatement entryStatement = connection.prepareStatement(INSERT_ENTRY);
+			PreparedStatement attributeStatement = connection.prepareStatement(INSERT_ATTRIBUTE)) {
+
+			int attributeCount = 0;
+			for (int i = 0; i < entries.size(); i++) {
+				AuditLogEntry entry = entries.get(i);
+				entry.setId(ids.get(i));
+
+				entryStatement.setLong(1, entry.getId());
+				entryStatement.setTimestamp(2, new Timestamp(entry.getDetectionTimestamp().getTime()));
+				entryStatement.setString(3, entry.getChangeType().name());
+				entryStatement.setString(4, entry.getEditingUser());
+				entryStatement.setString(5, entry.getClazz());
+				entryStatement.setString(6, entry.getUuid());
+				entryStatement.setString(7, entry.getTransactionId());
+				entryStatement.setTimestamp(8, transactionTimestamps.get(i));
+				entryStatement.addBatch();
+
+				if (entry.getAttributes() != null) {
+					for (Map.Entry<String, String> attribute : entry.getAttributes().entrySet()) {
+						attributeStatement.setLong(1, entry.getId());
+						attributeStatement.setString(2, attribute.getKey());
+						attributeStatement.setString(3, attribute.getValue());
+						attributeStatement.addBatch();
+						attributeCount++;
+					}
+				}
+			}
+
+			entryStatement.executeBatch();
+			if (attributeCount > 0) {
+				attributeStatement.executeBatch();
+			}
+		}
+	}
+
+	private static List<Long> nextIds(Connection connection, int count) throws SQLException {
+
+		List<Long> ids = new ArrayList<>(count);
+		try (PreparedStatement statement = connection.prepareStatement(NEXT_IDS)) {
+			statement.setInt(1, count);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					ids.add(resultSet.getLong(1));
+				}
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * The entries of one transaction and the time it has been completed.
+	 */
+	static final class LoggedTransaction {
+
+		private final List<AuditLogEntry> entries;
+		private final Date timestamp;
+
+		LoggedTransaction(List<AuditLogEntry> entries, Date timestamp) {
+			this.entries = entries;
+			this.timestamp = timestamp;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+
+import de.symeda.sormas.backend.auditlog.AuditLogBatchInsert.LoggedTransaction;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * The durable queue of the {@link AuditLogWriter}: The entries of a transaction are stored as one row in the SORMAS
+ * database within the transaction and later moved to the audit log database.
+ */
+@Stateless
+@LocalBean
+public class AuditLogQueueService {
+
+	/** key of the advisory lock that ensures that the queue is drained by only one server at a time */
+	private static final long DRAIN_LOCK_KEY = 4_120_352_801L;
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME_AUDITLOG)
+	private EntityManager auditEm;
+
+	@TransactionAttribute(TransactionAttributeType.MANDATORY)
+	public void enqueue(List<AuditLogEntry> entries) {
+
+		em.createNativeQuery("INSERT INTO auditlogqueue (creationdate, payload) VALUES (clock_timestamp(), ?1)")
+			.setParameter(1, serialize(entries))
+			.executeUpdate();
+	}
+
+	/**
+	 * Moves the oldest transactions of the queue to the audit log database, in the order they were queued.
+	 *
+	 * @return the result or {@code null} if the queue is being drained by another server
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public DrainResult drain(int maxTransactions) {
+
+		Boolean locked = (Boolean) em.createNativeQuery("SELECT pg_try_advisory_xact_lock(" + DRAIN_LOCK_KEY + ")").getSingleResult();
+		if (!Boolean.TRUE.equals(locked)) {
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		List<Object[]> rows = em.createNativeQuery("SELECT id, creationdate, payload FROM auditlogqueue ORDER BY id LIMIT ?1")
+			.setParameter(1, maxTransactions)
+			.getResultList();
+		if (rows.isEmpty()) {
+			return new DrainResult(0, 0, null, 0);
+		}
+
+		// the time a transaction has been queued is the time it has been completed
+		List<LoggedTransaction> transactions = new ArrayList<>();
+		int entryCount = 0;
+		for (Object[] row : rows) {
+			List<AuditLogEntry> entries = deserialize((byte[]) row[2]);
+			transactions.add(new LoggedTransaction(entries, (Date) row[1]));
+			entryCount += entries.size();
+		}
+		auditEm.unwrap(Session.class).doWork(connection -> AuditLogBatchInsert.insert(connection, transactions));
+
+		List<Long> ids = rows.stream().map(row -> ((Number) row[0]).longValue()).collect(Collectors.toList());
+		em.createNativeQuery("DELETE FROM auditlogqueue WHERE id IN (:ids)").setParameter("ids", ids).executeUpdate();
+		long remaining = ((Number) em.createNativeQuery("SELECT count(*) FROM auditlogqueue").getSingleResult()).longValue();
+
+		return new DrainResult(rows.size(), entryCount, (Date) rows.get(0)[1], remaining);
+	}
+
+	static byte[] serialize(List<AuditLogEntry> entries) {
+
+		ArrayList<AuditLogEntry> serializableEntries = new ArrayList<>(entries);
+		for (AuditLogEntry entry : serializableEntries) {
+			if (entry.getAttributes() != null && !(entry.getAttributes() instanceof TreeMap)) {
+				entry.setAttributes(new TreeMap<>(entry.getAttributes()));
+			}
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(serializableEntries);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	static List<AuditLogEntry> deserialize(byte[] payload) {
+
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+			return (List<AuditLogEntry>) in.readObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static final class DrainResult {
+
+		private final int transactionCount;
+		private final int entryCount;
+		private final Date oldestQueueDate;
+		private final long remainingTransactions;
+
+		DrainResult(int transactionCount, int entryCount, Date oldestQueueDate, long remainingTransactions) {
+			this.transactionCount = transactionCount;
+			this.entryCount = entryCount;
+			this.oldestQueueDate = oldestQueueDate;
+			this.remainingTransactions = remainingTransactions;
+		}
+
+		public int getTransactionCount() {
+			return transactionCount;
+		}
+
+		public int getEntryCount() {
+			return entryCount;
+		}
+
+		/**
+		 * @return when the oldest drained transaction has been queued or {@code null} if the queue was empty
+		 */
+		public Date getOldestQueueDate() {
+			return oldestQueueDate;
+		}
+
+		public long getRemainingTransactions() {
+			return remainingTransactions;
+		}
+	}
+}
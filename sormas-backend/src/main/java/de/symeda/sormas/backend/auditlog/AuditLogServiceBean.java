@@ -19,27 +19,25 @@ package de.symeda.sormas.backend.auditlog;
 
 import java.util.Date;
 
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.enterprise.event.Observes;
 import javax.enterprise.event.TransactionPhase;
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
 
 import de.symeda.auditlog.api.ChangeEvent;
-import de.symeda.sormas.backend.util.ModelConstants;
 
 /**
- * Turns {@link ChangeEvent}s to {@link AuditLogEntry} and saves it.
+ * Turns {@link ChangeEvent}s to {@link AuditLogEntry} and saves it with the {@link AuditLogWriter}.
  * 
  * @author Oliver Milke
  */
 @Stateless
 public class AuditLogServiceBean {
 
-	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME_AUDITLOG)
-	private EntityManager entityManager;
+	@EJB
+	private AuditLogWriter auditLogWriter;
 
 	@TransactionAttribute(TransactionAttributeType.MANDATORY)
 	public void receiveChanges(@Observes(during = TransactionPhase.IN_PROGRESS) ChangeEvent event) {
@@ -55,6 +53,6 @@ public class AuditLogServiceBean {
 		log.setUuid(event.getOid().getEntityUuid());
 		log.setClazz(event.getOid().getEntityClass().getName());
 
-		this.entityManager.persist(log);
+		auditLogWriter.write(log);
 	}
 }
@@ -0,0 +1,208 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.backend.auditlog.AuditLogQueueService.DrainResult;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.util.ModelConstants;
+import de.symeda.sormas.backend.util.ValueStatistics;
+
+/**
+ * Writes the {@link AuditLogEntry}s of a transaction together when it completes instead of one by one:
+ * <ul>
+ * <li>The entries are collected per transaction and written with JDBC batches right before the commit, after the
+ * entity manager has been flushed, so the changes flushed by the commit are included.</li>
+ * <li>When {@code auditor.queue.enabled} is set, the entries are instead stored as one row in the SORMAS database and
+ * moved to the audit log database every few seconds, so transactions don't have to wait for the audit log database.
+ * When the queue has grown to {@code auditor.queue.maxBacklog} transactions, new transactions drain it themselves
+ * before they add to it, which bounds the lag.</li>
+ * </ul>
+ * The entries keep the order in which they were logged: the ids of a batch are taken from the sequence in one go, the
+ * queue is drained in the order of the transactions by one server at a time, and entries are never written directly
+ * while older ones are still queued. The transaction timestamp of an entry is the time its transaction was completed,
+ * also when it has been queued.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuditLogWriter {
+
+	private static final Object BUFFER_KEY = AuditLogWriter.class.getName() + ".buffer";
+	private static final int DRAIN_TRANSACTIONS = 100;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME_AUDITLOG)
+	private EntityManager auditEm;
+
+	@EJB
+	private AuditLogQueueService queueService;
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+
+	/** the entries written to the audit log database at once by this server, for a transaction or from the queue */
+	private final ValueStatistics writtenBatches = new ValueStatistics("entries");
+	/** how long the transactions moved from the queue by this server had been waiting */
+	private final ValueStatistics queueLags = new ValueStatistics("ms");
+	private final AtomicLong backPressures = new AtomicLong();
+	/** -1 until the queue has been drained for the first time */
+	private final AtomicLong backlog = new AtomicLong(-1);
+
+	/**
+	 * Adds the entry to the entries of the current transaction. Entries logged while the transaction is already being
+	 * completed are written right away.
+	 */
+	@TransactionAttribute(TransactionAttributeType.MANDATORY)
+	public void write(AuditLogEntry entry) {
+
+		TransactionBuffer buffer = (TransactionBuffer) transactionSynchronizationRegistry.getResource(BUFFER_KEY);
+		if (buffer == null) {
+			buffer = new TransactionBuffer();
+			try {
+				transactionSynchronizationRegistry.registerInterposedSynchronization(buffer);
+			} catch (IllegalStateException e) {
+				// the transaction is already completing
+				flush(Collections.singletonList(entry));
+				return;
+			}
+			transactionSynchronizationRegistry.putResource(BUFFER_KEY, buffer);
+			awaitQueue();
+		}
+
+		if (buffer.flushed) {
+			flush(Collections.singletonList(entry));
+		} else {
+			buffer.entries.add(entry);
+		}
+	}
+
+	@Schedule(hour = "*", minute = "*", second = "*/5", persistent = false)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void drainQueue() {
+
+		// without the queue, it is only drained once after the start in case it had been used before
+		if (!configFacade.isAuditorQueueEnabled() && backlog.get() == 0) {
+			return;
+		}
+
+		DrainResult result;
+		do {
+			result = queueService.drain(DRAIN_TRANSACTIONS);
+			if (result == null) {
+				// drained by another server
+				return;
+			}
+
+			if (result.getTransactionCount() > 0) {
+				long lag = System.currentTimeMillis() - result.getOldestQueueDate().getTime();
+				queueLags.record(lag);
+				writtenBatches.record(result.getEntryCount());
+				logger.debug(
+					"Moved {} audit log entries of {} transactions from the queue, lag {} ms, {} transactions remaining. Since startup: written batches {}, lags {}",
+					result.getEntryCount(),
+					result.getTransactionCount(),
+					lag,
+					result.getRemainingTransactions(),
+					writtenBatches,
+					queueLags);
+			}
+			backlog.set(result.getRemainingTransactions());
+		}
+		while (result.getTransactionCount() == DRAIN_TRANSACTIONS);
+	}
+
+	/**
+	 * Drains the queue before the transaction continues if it is full or, without the queue, if it may still contain
+	 * entries that must be written before those of the transaction. Nothing is drained when another server is already
+	 * draining the queue.
+	 */
+	private void awaitQueue() {
+
+		boolean drain =
+			configFacade.isAuditorQueueEnabled() ? backlog.get() >= configFacade.getAuditorQueueMaxBacklog() : backlog.get() != 0;
+		if (drain) {
+			logger.info("Draining the audit log queue before the transaction continues, {} times since startup", backPressures.incrementAndGet());
+			drainQueue();
+		}
+	}
+
+	private void flush(List<AuditLogEntry> entries) {
+
+		if (configFacade.isAuditorQueueEnabled()) {
+			queueService.enqueue(entries);
+			backlog.incrementAndGet();
+		} else {
+			Date transactionTimestamp = new Date();
+			auditEm.unwrap(Session.class).doWork(connection -> AuditLogBatchInsert.insert(connection, entries, transactionTimestamp));
+			writtenBatches.record(entries.size());
+		}
+	}
+
+	private final class TransactionBuffer implements Synchronization {
+
+		private final List<AuditLogEntry> entries = new ArrayList<>();
+		private boolean flushed;
+
+		@Override
+		public void beforeCompletion() {
+
+			flushed = true;
+			if (entries.isEmpty() || transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_MARKED_ROLLBACK) {
+				return;
+			}
+
+			long start = System.currentTimeMillis();
+			flush(entries);
+			logger.debug(
+				"Wrote {} audit log entries in {} ms. Since startup: written batches {}",
+				entries.size(),
+				System.currentTimeMillis() - start,
+				writtenBatches);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			// nothing to do
+		}
+	}
+}
@@ -33,7 +33,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -113,6 +115,9 @@ import de.symeda.sormas.api.common.Page;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
+import de.symeda.sormas.api.dashboard.MapCaseDisplayMode;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.api.epidata.EpiDataDto;
 import de.symeda.sormas.api.epidata.EpiDataHelper;
@@ -155,6 +160,7 @@ import de.symeda.sormas.api.sample.SampleCriteria;
 import de.symeda.sormas.api.sample.SampleDto;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
 import de.symeda.sormas.api.symptoms.SymptomsHelper;
+import de.symeda.sormas.api.systemevents.SystemEventType;
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskHelper;
@@ -196,12 +202,12 @@ import de.symeda.sormas.backend.clinicalcourse.ClinicalVisitFacadeEjb.ClinicalVi
 import de.symeda.sormas.backend.clinicalcourse.ClinicalVisitService;
 import de.symeda.sormas.backend.clinicalcourse.HealthConditions;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.BulkArchivingJob;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.ManualMessageLogService;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
@@ -417,6 +423,8 @@ public class CaseFacadeEjb implements CaseFacade {
 	private SurveillanceReportService surveillanceReportService;
 	@EJB
 	private SurveillanceReportFacadeEjb.SurveillanceReportFacadeEjbLocal surveillanceReportFacade;
+	@EJB
+	private BulkArchivingJob bulkArchivingJob;
 
 	@Override
 	public List<CaseDataDto> getAllActiveCasesAfter(Date date) {
@@ -1085,11 +1093,12 @@ public class CaseFacadeEjb implements CaseFacade {
 		Disease disease,
 		Date from,
 		Date to,
-		NewCaseDateType dateType) {
+		NewCaseDateType dateType,
+		MapViewportDto viewport) {
 		Region region = regionService.getByReferenceDto(regionRef);
 		District district = districtService.getByReferenceDto(districtRef);
 
-		return caseService.countCasesForMap(region, district, disease, from, to, dateType);
+		return caseService.countCasesForMap(region, district, disease, from, to, dateType, viewport);
 	}
 
 	@Override
@@ -1099,12 +1108,13 @@ public class CaseFacadeEjb implements CaseFacade {
 		Disease disease,
 		Date from,
 		Date to,
-		NewCaseDateType dateType) {
+		NewCaseDateType dateType,
+		MapViewportDto viewport) {
 
 		Region region = regionService.getByReferenceDto(regionRef);
 		District district = districtService.getByReferenceDto(districtRef);
 
-		List<MapCaseDto> cases = caseService.getCasesForMap(region, district, disease, from, to, dateType);
+		List<MapCaseDto> cases = caseService.getCasesForMap(region, district, disease, from, to, dateType, viewport);
 
 		Pseudonymizer pseudonymizer = Pseudonymizer.getDefault(userService::hasRight);
 		pseudonymizer.pseudonymizeDtoCollection(MapCaseDto.class, cases, c -> c.getInJurisdiction(), (c, isInJurisdiction) -> {
@@ -1114,6 +1124,23 @@ public class CaseFacadeEjb implements CaseFacade {
 		return cases;
 	}
 
+	@Override
+	public List<MapMarkerClusterDto<CaseClassification>> getCaseClustersForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		NewCaseDateType dateType,
+		MapCaseDisplayMode displayMode,
+		MapViewportDto viewport) {
+
+		Region region = regionService.getByReferenceDto(regionRef);
+		District district = districtService.getByReferenceDto(districtRef);
+
+		return caseService.getCaseClustersForMap(region, district, disease, from, to, dateType, displayMode, viewport);
+	}
+
 	@Override
 	public List<CaseDataDto> getAllCasesOfPerson(String personUuid) {
 
@@ -1393,6 +1420,7 @@ public class CaseFacadeEjb implements CaseFacade {
 		boolean surveillanceOfficerChange)
 		throws ValidationRuntimeException {
 
+		CaseSideEffects sideEffects = new CaseSideEffects();
 		for (String caseUuid : caseUuidList) {
 			Case caze = caseService.getByUuid(caseUuid);
 			CaseDataDto existingCaseDto = toDto(caze);
@@ -1405,8 +1433,9 @@ public class CaseFacadeEjb implements CaseFacade {
 				investigationStatusChange,
 				outcomeChange,
 				surveillanceOfficerChange);
-			doSave(caze, true, existingCaseDto);
+			doSave(caze, true, existingCaseDto, sideEffects);
 		}
+		executeSideEffects(sideEffects);
 	}
 
 	public void saveBulkEditWithFacilities(
@@ -1427,6 +1456,7 @@ public class CaseFacadeEjb implements CaseFacade {
 			newCommunity = communityService.getByUuid(updatedCaseBulkEditData.getCommunity().getUuid());
 		}
 
+		CaseSideEffects sideEffects = new CaseSideEffects();
 		for (String caseUuid : caseUuidList) {
 			Case caze = caseService.getByUuid(caseUuid);
 			CaseDataDto existingCaseDto = toDto(caze);
@@ -1447,8 +1477,9 @@ public class CaseFacadeEjb implements CaseFacade {
 			caze.setHealthFacility(facilityService.getByUuid(updatedCaseBulkEditData.getHealthFacility().getUuid()));
 			caze.setHealthFacilityDetails(updatedCaseBulkEditData.getHealthFacilityDetails());
 			CaseLogic.handleHospitalization(toDto(caze), existingCaseDto, doTransfer);
-			doSave(caze, true, existingCaseDto);
+			doSave(caze, true, existingCaseDto, sideEffects);
 		}
+		executeSideEffects(sideEffects);
 	}
 
 	private void updateCaseWithBulkData(
@@ -1522,12 +1553,19 @@ public class CaseFacadeEjb implements CaseFacade {
 	}
 
 	private void doSave(Case caze, boolean handleChanges, CaseDataDto existingCaseDto) {
+
+		CaseSideEffects sideEffects = new CaseSideEffects();
+		doSave(caze, handleChanges, existingCaseDto, sideEffects);
+		executeSideEffects(sideEffects);
+	}
+
+	private void doSave(Case caze, boolean handleChanges, CaseDataDto existingCaseDto, CaseSideEffects sideEffects) {
 		caseService.ensurePersisted(caze);
 		if (handleChanges) {
 			updateCaseVisitAssociations(existingCaseDto, caze);
 			caseService.updateFollowUpDetails(caze, existingCaseDto != null && caze.getFollowUpStatus() != existingCaseDto.getFollowUpStatus());
 
-			onCaseChanged(existingCaseDto, caze);
+			onCaseChanged(existingCaseDto, caze, sideEffects);
 		}
 	}
 
@@ -1755,6 +1793,17 @@ public class CaseFacadeEjb implements CaseFacade {
 	 */
 	public void onCaseChanged(CaseDataDto existingCase, Case newCase) {
 
+		CaseSideEffects sideEffects = new CaseSideEffects();
+		onCaseChanged(existingCase, newCase, sideEffects);
+		executeSideEffects(sideEffects);
+	}
+
+	/**
+	 * Like {@link #onCaseChanged(CaseDataDto, Case)}, but the changes of the contacts, the automatic classification and
+	 * the notifications are only added to the side effects, to be executed by {@link #executeSideEffects(CaseSideEffects)}.
+	 */
+	private void onCaseChanged(CaseDataDto existingCase, Case newCase, CaseSideEffects sideEffects) {
+
 		// If its a new case and the case is new and the geo coordinates of the case's
 		// health facility are null, set its coordinates to the case's report
 		// coordinates, if available. Else if case report coordinates are null set them
@@ -1812,36 +1861,77 @@ public class CaseFacadeEjb implements CaseFacade {
 		updateCaseAge(existingCase, newCase);
 
 		// Change the disease of all contacts if the case disease or disease details have changed
-		if (existingCase != null
+		boolean contactDiseaseChanged = existingCase != null
+			&& (newCase.getDisease() != existingCase.getDisease()
+				|| !StringUtils.equals(newCase.getDiseaseDetails(), existingCase.getDiseaseDetails()));
+
+		// Update follow-up until and status of all contacts
+		boolean contactFollowUpChanged = existingCase != null
 			&& (newCase.getDisease() != existingCase.getDisease()
-				|| !StringUtils.equals(newCase.getDiseaseDetails(), existingCase.getDiseaseDetails()))) {
-			for (Contact contact : contactService.findBy(new ContactCriteria().caze(newCase.toReference()), null)) {
-				if (contact.getDisease() != newCase.getDisease() || !StringUtils.equals(contact.getDiseaseDetails(), newCase.getDiseaseDetails())) {
+				|| newCase.getReportDate() != existingCase.getReportDate()
+				|| newCase.getSymptoms().getOnsetDate() != existingCase.getSymptoms().getOnsetDate());
+
+		sideEffects.add(newCase, existingCase, contactDiseaseChanged, contactFollowUpChanged);
+
+		updateTasksOnCaseChanged(newCase, existingCase);
+
+		// Set Yes/No/Unknown fields associated with embedded lists to Yes if the lists
+		// are not empty
+		if (!newCase.getHospitalization().getPreviousHospitalizations().isEmpty()
+			&& YesNoUnknown.YES != newCase.getHospitalization().getHospitalizedPreviously()) {
+			newCase.getHospitalization().setHospitalizedPreviously(YesNoUnknown.YES);
+		}
+		if (!newCase.getEpiData().getExposures().isEmpty() && !YesNoUnknown.YES.equals(newCase.getEpiData().getExposureDetailsKnown())) {
+			newCase.getEpiData().setExposureDetailsKnown(YesNoUnknown.YES);
+		}
+
+		// Update completeness value
+		newCase.setCompleteness(null);
+	}
+
+	/**
+	 * Executes the side effects of the case changes with as few queries as possible: The contacts of all cases are
+	 * loaded at once and the recipients of the notifications once per region.
+	 */
+	private void executeSideEffects(CaseSideEffects sideEffects) {
+
+		if (sideEffects.isEmpty()) {
+			return;
+		}
+
+		List<Case> casesWithContactDiseaseChanged = sideEffects.getCasesWithContactDiseaseChanged();
+		if (!casesWithContactDiseaseChanged.isEmpty()) {
+			for (Contact contact : contactService.getAllByCases(casesWithContactDiseaseChanged)) {
+				Case caze = contact.getCaze();
+				if (contact.getDisease() != caze.getDisease() || !StringUtils.equals(contact.getDiseaseDetails(), caze.getDiseaseDetails())) {
 					// Only do the change if it hasn't been done in the mobile app before
-					contact.setDisease(newCase.getDisease());
-					contact.setDiseaseDetails(newCase.getDiseaseDetails());
+					contact.setDisease(caze.getDisease());
+					contact.setDiseaseDetails(caze.getDiseaseDetails());
 					contactService.ensurePersisted(contact);
 				}
 			}
 		}
 
-		if (existingCase != null
-			&& (newCase.getDisease() != existingCase.getDisease()
-				|| newCase.getReportDate() != existingCase.getReportDate()
-				|| newCase.getSymptoms().getOnsetDate() != existingCase.getSymptoms().getOnsetDate())) {
-
-			// Update follow-up until and status of all contacts
-			for (Contact contact : contactService.findBy(new ContactCriteria().caze(newCase.toReference()), null)) {
-				contactService.updateFollowUpDetails(contact, false);
-				contactService.udpateContactStatus(contact);
-			}
-			for (Contact contact : contactService.getAllByResultingCase(newCase)) {
+		List<Case> casesWithContactFollowUpChanged = sideEffects.getCasesWithContactFollowUpChanged();
+		if (!casesWithContactFollowUpChanged.isEmpty()) {
+			Set<Contact> contacts = new LinkedHashSet<>(contactService.getAllByCases(casesWithContactFollowUpChanged));
+			contacts.addAll(contactService.getAllByResultingCases(casesWithContactFollowUpChanged));
+			for (Contact contact : contacts) {
 				contactService.updateFollowUpDetails(contact, false);
 				contactService.udpateContactStatus(contact);
 			}
 		}
 
-		updateTasksOnCaseChanged(newCase, existingCase);
+		Map<List<Region>, List<User>> supervisorsByRegions = new HashMap<>();
+		for (CaseSideEffects.PendingCase pendingCase : sideEffects.getPendingCases()) {
+			updateCaseClassification(pendingCase.getCase());
+			sendCaseChangedNotifications(pendingCase.getExistingCase(), pendingCase.getCase(), supervisorsByRegions);
+		}
+
+		sideEffects.clear();
+	}
+
+	private void updateCaseClassification(Case newCase) {
 
 		// Update case classification if the feature is enabled
 		if (configFacade.isFeatureAutomaticCaseClassification()) {
@@ -1864,78 +1954,42 @@ public class CaseFacadeEjb implements CaseFacade {
 				}
 			}
 		}
+	}
 
-		// Set Yes/No/Unknown fields associated with embedded lists to Yes if the lists
-		// are not empty
-		if (!newCase.getHospitalization().getPreviousHospitalizations().isEmpty()
-			&& YesNoUnknown.YES != newCase.getHospitalization().getHospitalizedPreviously()) {
-			newCase.getHospitalization().setHospitalizedPreviously(YesNoUnknown.YES);
-		}
-		if (!newCase.getEpiData().getExposures().isEmpty() && !YesNoUnknown.YES.equals(newCase.getEpiData().getExposureDetailsKnown())) {
-			newCase.getEpiData().setExposureDetailsKnown(YesNoUnknown.YES);
-		}
-
-		// Update completeness value
-		newCase.setCompleteness(null);
+	private void sendCaseChangedNotifications(CaseDataDto existingCase, Case newCase, Map<List<Region>, List<User>> supervisorsByRegions) {
 
 		// Send an email to all responsible supervisors when the case classification has
 		// changed
 		if (existingCase != null && existingCase.getCaseClassification() != newCase.getCaseClassification()) {
-			List<User> messageRecipients = userService.getAllByRegionsAndUserRoles(
-				JurisdictionHelper.getCaseRegions(newCase),
-				UserRole.SURVEILLANCE_SUPERVISOR,
-				UserRole.ADMIN_SUPERVISOR,
-				UserRole.CASE_SUPERVISOR,
-				UserRole.CONTACT_SUPERVISOR);
+			List<User> messageRecipients = getCaseSupervisors(newCase, supervisorsByRegions);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.CASE_CLASSIFICATION_CHANGED,
-						String.format(
-							I18nProperties.getString(MessagingService.CONTENT_CASE_CLASSIFICATION_CHANGED),
-							DataHelper.getShortUuid(newCase.getUuid()),
-							newCase.getCaseClassification().toString()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the change of a case classification. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.CASE_CLASSIFICATION_CHANGED,
+					String.format(
+						I18nProperties.getString(MessagingService.CONTENT_CASE_CLASSIFICATION_CHANGED),
+						DataHelper.getShortUuid(newCase.getUuid()),
+						newCase.getCaseClassification().toString()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
 		// Send an email to all responsible supervisors when the disease of an
 		// Unspecified VHF case has changed
 		if (existingCase != null && existingCase.getDisease() == Disease.UNSPECIFIED_VHF && existingCase.getDisease() != newCase.getDisease()) {
-			List<User> messageRecipients = userService.getAllByRegionsAndUserRoles(
-				JurisdictionHelper.getCaseRegions(newCase),
-				UserRole.SURVEILLANCE_SUPERVISOR,
-				UserRole.ADMIN_SUPERVISOR,
-				UserRole.CASE_SUPERVISOR,
-				UserRole.CONTACT_SUPERVISOR);
+			List<User> messageRecipients = getCaseSupervisors(newCase, supervisorsByRegions);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.DISEASE_CHANGED,
-						String.format(
-							I18nProperties.getString(MessagingService.CONTENT_DISEASE_CHANGED),
-							DataHelper.getShortUuid(newCase.getUuid()),
-							existingCase.getDisease().toString(),
-							newCase.getDisease().toString()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the change of a case disease. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.DISEASE_CHANGED,
+					String.format(
+						I18nProperties.getString(MessagingService.CONTENT_DISEASE_CHANGED),
+						DataHelper.getShortUuid(newCase.getUuid()),
+						existingCase.getDisease().toString(),
+						newCase.getDisease().toString()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -1948,31 +2002,34 @@ public class CaseFacadeEjb implements CaseFacade {
 		}
 	}
 
+	private List<User> getCaseSupervisors(Case caze, Map<List<Region>, List<User>> supervisorsByRegions) {
+		return supervisorsByRegions.computeIfAbsent(
+			JurisdictionHelper.getCaseRegions(caze),
+			regions -> userService.getAllByRegionsAndUserRoles(
+				regions,
+				UserRole.SURVEILLANCE_SUPERVISOR,
+				UserRole.ADMIN_SUPERVISOR,
+				UserRole.CASE_SUPERVISOR,
+				UserRole.CONTACT_SUPERVISOR));
+	}
+
 	private void sendConfirmedCaseNotificationsForEvents(Case caze) {
 		Date fromDate = Date.from(Instant.now().minus(Duration.ofDays(30)));
 		Map<String, User> responsibleUserByEventByEventUuid =
 			eventService.getAllEventUuidWithResponsibleUserByCaseAfterDateForNotification(caze, fromDate);
 		for (Map.Entry<String, User> entry : responsibleUserByEventByEventUuid.entrySet()) {
-			try {
-				messagingService.sendMessage(
-					entry.getValue(),
-					MessageSubject.EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED,
-					new Object[] {
-						caze.getDisease().getName() },
-					String.format(
-						I18nProperties.getString(MessagingService.CONTENT_EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED),
-						DataHelper.getShortUuid(entry.getKey()),
-						caze.getDisease().getName(),
-						DataHelper.getShortUuid(caze.getUuid())),
-					MessageType.EMAIL,
-					MessageType.SMS);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify event responsible user about a newly confirmed case. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-						entry.getValue().getUuid()));
-			}
+			messagingService.sendMessage(
+				entry.getValue(),
+				MessageSubject.EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED,
+				new Object[] {
+					caze.getDisease().getName() },
+				String.format(
+					I18nProperties.getString(MessagingService.CONTENT_EVENT_PARTICIPANT_CASE_CLASSIFICATION_CONFIRMED),
+					DataHelper.getShortUuid(entry.getKey()),
+					caze.getDisease().getName(),
+					DataHelper.getShortUuid(caze.getUuid())),
+				MessageType.EMAIL,
+				MessageType.SMS);
 		}
 	}
 
@@ -3045,21 +3102,13 @@ public class CaseFacadeEjb implements CaseFacade {
 			UserRole.CASE_SUPERVISOR,
 			UserRole.CONTACT_SUPERVISOR);
 		for (User recipient : messageRecipients) {
-			try {
-				messagingService.sendMessage(
-					recipient,
-					MessageSubject.CASE_INVESTIGATION_DONE,
-					String
-						.format(I18nProperties.getString(MessagingService.CONTENT_CASE_INVESTIGATION_DONE), DataHelper.getShortUuid(caze.getUuid())),
-					MessageType.EMAIL,
-					MessageType.SMS);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify supervisors about the completion of a case investigation. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-						recipient.getUuid()));
-			}
+			messagingService.sendMessage(
+				recipient,
+				MessageSubject.CASE_INVESTIGATION_DONE,
+				String
+					.format(I18nProperties.getString(MessagingService.CONTENT_CASE_INVESTIGATION_DONE), DataHelper.getShortUuid(caze.getUuid())),
+				MessageType.EMAIL,
+				MessageType.SMS);
 		}
 	}
 
@@ -3344,7 +3393,7 @@ public class CaseFacadeEjb implements CaseFacade {
 	 *            defines the amount of days
 	 */
 	@Override
-	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public void archiveAllArchivableCases(int daysAfterCaseGetsArchived) {
 
 		archiveAllArchivableCases(daysAfterCaseGetsArchived, LocalDate.now());
@@ -3352,25 +3401,14 @@ public class CaseFacadeEjb implements CaseFacade {
 
 	void archiveAllArchivableCases(int daysAfterCaseGetsArchived, LocalDate referenceDate) {
 
-		long startTime = DateHelper.startTime();
-
 		LocalDate notChangedSince = referenceDate.minusDays(daysAfterCaseGetsArchived);
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<String> cq = cb.createQuery(String.class);
-		Root<Case> from = cq.from(Case.class);
-
 		Timestamp notChangedTimestamp = Timestamp.valueOf(notChangedSince.atStartOfDay());
-		cq.where(cb.equal(from.get(Case.ARCHIVED), false), cb.not(caseService.createChangeDateFilter(cb, from, notChangedTimestamp, true)));
-		cq.select(from.get(Case.UUID));
-		List<String> caseUuids = em.createQuery(cq).getResultList();
 
-		IterableHelper.executeBatched(caseUuids, ARCHIVE_BATCH_SIZE, batchedCaseUuids -> caseService.updateArchived(batchedCaseUuids, true));
-		logger.debug(
-			"archiveAllArchivableCases() finished. caseCount = {}, daysAfterCaseGetsArchived = {}, {}ms",
-			caseUuids.size(),
-			daysAfterCaseGetsArchived,
-			DateHelper.durationMillies(startTime));
+		long caseCount = bulkArchivingJob.archive(
+			SystemEventType.ARCHIVE_CASES,
+			Case.class,
+			(cb, root) -> cb.not(caseService.createChangeDateFilter(cb, root, notChangedTimestamp, true)));
+		logger.debug("archiveAllArchivableCases() finished. caseCount = {}, daysAfterCaseGetsArchived = {}", caseCount, daysAfterCaseGetsArchived);
 	}
 
 	@Override
@@ -3541,16 +3579,7 @@ public class CaseFacadeEjb implements CaseFacade {
 			final Case aCase = caseService.getByUuid(uuid);
 			final Person person = aCase.getPerson();
 
-			try {
-				messagingService.sendMessage(person, subject, messageContent, messageTypes);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify person about: %s" + "Failed to send " + e.getMessageType()
-							+ " to person with UUID %s.",
-						subject,
-						person.getUuid()));
-			}
+			messagingService.sendMessage(person, subject, messageContent, messageTypes);
 		});
 	}
 
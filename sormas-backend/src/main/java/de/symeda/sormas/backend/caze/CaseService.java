@@ -19,6 +19,7 @@ package de.symeda.sormas.backend.caze;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -67,8 +68,12 @@ import de.symeda.sormas.api.clinicalcourse.ClinicalCourseReferenceDto;
 import de.symeda.sormas.api.clinicalcourse.ClinicalVisitCriteria;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.FollowUpStatus;
+import de.symeda.sormas.api.dashboard.MapCaseDisplayMode;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
+import de.symeda.sormas.api.facility.FacilityDto;
 import de.symeda.sormas.api.feature.FeatureType;
 import de.symeda.sormas.api.followup.FollowUpLogic;
 import de.symeda.sormas.api.sample.PathogenTestResultType;
@@ -91,6 +96,7 @@ import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.ChangeDateFilterBuilder;
 import de.symeda.sormas.backend.common.CoreAdo;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
+import de.symeda.sormas.backend.common.MapViewportHelper;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactQueryContext;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -253,7 +259,14 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		return em.createQuery(cq).getResultList();
 	}
 
-	public Long countCasesForMap(Region region, District district, Disease disease, Date from, Date to, NewCaseDateType dateType) {
+	public Long countCasesForMap(
+		Region region,
+		District district,
+		Disease disease,
+		Date from,
+		Date to,
+		NewCaseDateType dateType,
+		MapViewportDto viewport) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 		Root<Case> caze = cq.from(getElementClass());
@@ -261,6 +274,9 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		CaseJoins<Case> joins = new CaseJoins<>(caze);
 
 		Predicate filter = createMapCasesFilter(cb, cq, caze, joins, region, district, disease, from, to, dateType);
+		if (viewport != null) {
+			filter = CriteriaBuilderHelper.and(cb, filter, createMapCasesViewportFilter(cb, caze, joins, viewport));
+		}
 
 		if (filter != null) {
 			cq.where(filter);
@@ -272,7 +288,14 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		return 0L;
 	}
 
-	public List<MapCaseDto> getCasesForMap(Region region, District district, Disease disease, Date from, Date to, NewCaseDateType dateType) {
+	public List<MapCaseDto> getCasesForMap(
+		Region region,
+		District district,
+		Disease disease,
+		Date from,
+		Date to,
+		NewCaseDateType dateType,
+		MapViewportDto viewport) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<MapCaseDto> cq = cb.createQuery(MapCaseDto.class);
@@ -281,6 +304,9 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		CaseJoins<Case> joins = new CaseJoins<>(caze);
 
 		Predicate filter = createMapCasesFilter(cb, cq, caze, joins, region, district, disease, from, to, dateType);
+		if (viewport != null) {
+			filter = CriteriaBuilderHelper.and(cb, filter, createMapCasesViewportFilter(cb, caze, joins, viewport));
+		}
 
 		List<MapCaseDto> result;
 		if (filter != null) {
@@ -310,6 +336,107 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		return result;
 	}
 
+	/**
+	 * Counts the cases per grid cell of the viewport and classification. Cases are placed at their facility or address
+	 * like the individual markers of the map.
+	 */
+	public List<MapMarkerClusterDto<CaseClassification>> getCaseClustersForMap(
+		Region region,
+		District district,
+		Disease disease,
+		Date from,
+		Date to,
+		NewCaseDateType dateType,
+		MapCaseDisplayMode displayMode,
+		MapViewportDto viewport) {
+
+		List<Object[]> rows = new ArrayList<>();
+		if (displayMode != MapCaseDisplayMode.CASE_ADDRESS) {
+			rows.addAll(getCaseClusterRows(region, district, disease, from, to, dateType, displayMode, true, viewport));
+		}
+		if (displayMode != MapCaseDisplayMode.FACILITY) {
+			rows.addAll(getCaseClusterRows(region, district, disease, from, to, dateType, displayMode, false, viewport));
+		}
+
+		return MapViewportHelper.toClusters(rows, viewport);
+	}
+
+	/**
+	 * The position expressions must not contain parameters because they are used in the group by clause, so cases at
+	 * facilities and cases at their address are counted by separate queries.
+	 */
+	private List<Object[]> getCaseClusterRows(
+		Region region,
+		District district,
+		Disease disease,
+		Date from,
+		Date to,
+		NewCaseDateType dateType,
+		MapCaseDisplayMode displayMode,
+		boolean atFacility,
+		MapViewportDto viewport) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(getElementClass());
+
+		CaseJoins<Case> joins = new CaseJoins<>(caze);
+		Join<Case, Facility> facility = joins.getFacility();
+
+		Predicate hasFacilityGps = cb.and(
+			cb.isNotNull(facility.get(Facility.LATITUDE)),
+			cb.isNotNull(facility.get(Facility.LONGITUDE)),
+			cb.notEqual(facility.get(Facility.UUID), FacilityDto.NONE_FACILITY_UUID),
+			cb.notEqual(facility.get(Facility.UUID), FacilityDto.OTHER_FACILITY_UUID));
+
+		Expression<Double> latitude;
+		Expression<Double> longitude;
+		Predicate positionFilter;
+		if (atFacility) {
+			latitude = facility.get(Facility.LATITUDE);
+			longitude = facility.get(Facility.LONGITUDE);
+			positionFilter = hasFacilityGps;
+		} else {
+			Predicate hasAddressGps = cb.and(
+				cb.isNotNull(joins.getPersonAddress().get(Location.LATITUDE)),
+				cb.isNotNull(joins.getPersonAddress().get(Location.LONGITUDE)));
+			latitude = cb.<Double> selectCase()
+				.when(hasAddressGps, joins.getPersonAddress().get(Location.LATITUDE))
+				.otherwise(caze.get(Case.REPORT_LAT));
+			longitude = cb.<Double> selectCase()
+				.when(hasAddressGps, joins.getPersonAddress().get(Location.LONGITUDE))
+				.otherwise(caze.get(Case.REPORT_LON));
+			positionFilter = cb.and(cb.isNotNull(latitude), cb.isNotNull(longitude));
+			if (displayMode == MapCaseDisplayMode.FACILITY_OR_CASE_ADDRESS) {
+				positionFilter = cb.and(positionFilter, cb.not(hasFacilityGps));
+			}
+		}
+
+		Predicate filter = createMapCasesFilter(cb, cq, caze, joins, region, district, disease, from, to, dateType);
+		if (filter == null) {
+			return Collections.emptyList();
+		}
+		filter = cb.and(filter, positionFilter, MapViewportHelper.withinViewport(cb, latitude, longitude, viewport));
+
+		Expression<Double> latitudeIndex = MapViewportHelper.cellIndex(cb, latitude, viewport);
+		Expression<Double> longitudeIndex = MapViewportHelper.cellIndex(cb, longitude, viewport);
+		cq.multiselect(latitudeIndex, longitudeIndex, caze.get(Case.CASE_CLASSIFICATION), cb.count(caze));
+		cq.where(filter);
+		cq.groupBy(latitudeIndex, longitudeIndex, caze.get(Case.CASE_CLASSIFICATION));
+
+		return em.createQuery(cq).getResultList();
+	}
+
+	private Predicate createMapCasesViewportFilter(CriteriaBuilder cb, Root<Case> root, CaseJoins<Case> joins, MapViewportDto viewport) {
+
+		return CriteriaBuilderHelper.or(
+			cb,
+			MapViewportHelper
+				.withinViewport(cb, joins.getPersonAddress().get(Location.LATITUDE), joins.getPersonAddress().get(Location.LONGITUDE), viewport),
+			MapViewportHelper.withinViewport(cb, root.get(Case.REPORT_LAT), root.get(Case.REPORT_LON), viewport),
+			MapViewportHelper.withinViewport(cb, joins.getFacility().get(Facility.LATITUDE), joins.getFacility().get(Facility.LONGITUDE), viewport));
+	}
+
 	private Predicate createMapCasesFilter(
 		CriteriaBuilder cb,
 		CriteriaQuery<?> cq,
@@ -1241,6 +1368,70 @@ public class CaseService extends AbstractCoreAdoService<Case> {
 		em.createQuery(cu).executeUpdate();
 	}
 
+	/**
+	 * Cases of the disease that can be re-classified automatically, i.e. are not deleted and not classified as
+	 * {@link CaseClassification#NO_CASE}.
+	 */
+	private Predicate createReclassificationFilter(CriteriaBuilder cb, Root<Case> root, Disease disease) {
+
+		return cb.and(
+			cb.equal(root.get(Case.DISEASE), disease),
+			cb.isFalse(root.get(Case.DELETED)),
+			cb.notEqual(root.get(Case.CASE_CLASSIFICATION), CaseClassification.NO_CASE));
+	}
+
+	public long countForReclassification(Disease disease) {
+		return count((cb, root) -> createReclassificationFilter(cb, root, disease));
+	}
+
+	/**
+	 * Keyset paging: returns the next {@code maxResults} cases to re-classify with an id greater than {@code afterId},
+	 * ordered by id. The person is fetched along with the case.
+	 */
+	public List<Case> getForReclassification(Disease disease, Long afterId, int maxResults) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Case> cq = cb.createQuery(getElementClass());
+		Root<Case> root = cq.from(getElementClass());
+		root.fetch(Case.PERSON);
+		root.fetch(Case.SYMPTOMS);
+		root.fetch(Case.EPI_DATA, JoinType.LEFT);
+
+		Predicate filter = createReclassificationFilter(cb, root, disease);
+		if (afterId != null) {
+			filter = cb.and(filter, cb.greaterThan(root.get(Case.ID), afterId));
+		}
+
+		cq.where(filter);
+		cq.orderBy(cb.asc(root.get(Case.ID)));
+
+		return em.createQuery(cq).setMaxResults(maxResults).getResultList();
+	}
+
+	/**
+	 * Sets the system case classification of the cases. If {@code userClassificationChanged} is true, the case
+	 * classification is changed as well, the same way {@link CaseFacadeEjb#onCaseChanged} does for a single case.
+	 */
+	public void updateClassification(List<Long> caseIds, CaseClassification classification, boolean userClassificationChanged) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<Case> cu = cb.createCriteriaUpdate(Case.class);
+		Root<Case> root = cu.from(Case.class);
+
+		Timestamp now = Timestamp.from(Instant.now());
+		cu.set(Case.CHANGE_DATE, now);
+		cu.set(root.get(Case.SYSTEM_CASE_CLASSIFICATION), classification);
+		if (userClassificationChanged) {
+			cu.set(root.get(Case.CASE_CLASSIFICATION), classification);
+			cu.set(root.<User> get(Case.CLASSIFICATION_USER), (User) null);
+			cu.set(root.get(Case.CLASSIFICATION_DATE), now);
+		}
+
+		cu.where(root.get(Case.ID).in(caseIds));
+
+		em.createQuery(cu).executeUpdate();
+	}
+
 	public boolean isCaseEditAllowed(Case caze) {
 		if (caze.getSormasToSormasOriginInfo() != null) {
 			return caze.getSormasToSormasOriginInfo().isOwnershipHandedOver();
@@ -0,0 +1,90 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.caze;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+
+/**
+ * Collects the side effects of case changes that load or update other entities: the disease, follow-up and status of
+ * the contacts, the automatic classification and the notifications of supervisors and event officers.
+ * <p>
+ * The effects are coalesced per case, so a case that is changed several times is handled once, compared to its state
+ * before the first change. They are executed in batches by {@link CaseFacadeEjb} after all cases have been saved.
+ */
+public class CaseSideEffects {
+
+	private final Map<String, PendingCase> pendingCases = new LinkedHashMap<>();
+
+	/**
+	 * @param existingCase
+	 *            the case before the change or {@code null} for a new case
+	 */
+	public void add(Case caze, CaseDataDto existingCase, boolean contactDiseaseChanged, boolean contactFollowUpChanged) {
+
+		PendingCase pendingCase = pendingCases.computeIfAbsent(caze.getUuid(), uuid -> new PendingCase(caze, existingCase));
+		pendingCase.contactDiseaseChanged |= contactDiseaseChanged;
+		pendingCase.contactFollowUpChanged |= contactFollowUpChanged;
+	}
+
+	public boolean isEmpty() {
+		return pendingCases.isEmpty();
+	}
+
+	public Collection<PendingCase> getPendingCases() {
+		return pendingCases.values();
+	}
+
+	public List<Case> getCasesWithContactDiseaseChanged() {
+		return pendingCases.values().stream().filter(p -> p.contactDiseaseChanged).map(PendingCase::getCase).collect(Collectors.toList());
+	}
+
+	public List<Case> getCasesWithContactFollowUpChanged() {
+		return pendingCases.values().stream().filter(p -> p.contactFollowUpChanged).map(PendingCase::getCase).collect(Collectors.toList());
+	}
+
+	public void clear() {
+		pendingCases.clear();
+	}
+
+	public static final class PendingCase {
+
+		private final Case caze;
+		private final CaseDataDto existingCase;
+		private boolean contactDiseaseChanged;
+		private boolean contactFollowUpChanged;
+
+		private PendingCase(Case caze, CaseDataDto existingCase) {
+			this.caze = caze;
+			this.existingCase = existingCase;
+		}
+
+		public Case getCase() {
+			return caze;
+		}
+
+		/**
+		 * @return the case before the first change or {@code null} if it is a new case
+		 */
+		public CaseDataDto getExistingCase() {
+			return existingCase;
+		}
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
+import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
+import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
+import de.symeda.sormas.backend.person.Person;
+import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Maintains the pre-aggregated case statistics used by {@link CaseStatisticsFacadeEjb}.
+ * <p>
+ * {@link #FACT_TABLE_NAME} holds one row per non-deleted case with all attributes the statistics can be answered for.
+ * {@link #CUBE_TABLE_NAME} sums these rows up by all of their attributes. Changed cases are re-read into the fact table
+ * and the cube is re-aggregated for all report periods the changed cases had before or have now.
+ * <p>
+ * Each attribute is only kept as fine as the covered groupings and filters need it: report and onset date are reduced to
+ * the start of the period they share month and epi week with ({@value #PERIOD_START_FUNCTION}), which still yields
+ * every year, quarter, month and epi week. The age stays in single years for the 1 year intervals and arbitrary age
+ * filters, the district for the grouping by district.
+ */
+@Stateless
+@LocalBean
+public class CaseStatisticsCubeService {
+
+	public static final String FACT_TABLE_NAME = "casestatisticsfact";
+	public static final String CUBE_TABLE_NAME = "casestatisticscube";
+
+	public static final String CASE_ID = "case_id";
+	public static final String REPORT_PERIOD_START = "reportperiodstart";
+	public static final String ONSET_PERIOD_START = "onsetperiodstart";
+	public static final String DISEASE = "disease";
+	public static final String CASE_CLASSIFICATION = "caseclassification";
+	public static final String OUTCOME = "outcome";
+	public static final String SEX = "sex";
+	public static final String CASE_AGE = "caseage";
+	public static final String REGION_ID = "region_id";
+	public static final String DISTRICT_ID = "district_id";
+	public static final String CASE_COUNT = "casecount";
+
+	/**
+	 * Database function that returns the later of the first day of the month and the first day of the epi week of a date.
+	 */
+	public static final String PERIOD_START_FUNCTION = "epi_period_start";
+
+	private static final String ATTRIBUTE_COLUMNS =
+		String.join(", ", REPORT_PERIOD_START, ONSET_PERIOD_START, DISEASE, CASE_CLASSIFICATION, OUTCOME, SEX, CASE_AGE, REGION_ID, DISTRICT_ID);
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	/**
+	 * @return {@code true} if the cube contains all groupings and filters needed to answer the query. Time filters and
+	 *         groupings are only covered for report and onset date, except for date ranges; place filters and groupings
+	 *         only for region and district.
+	 */
+	public static boolean isCovered(
+		StatisticsCaseCriteria caseCriteria,
+		StatisticsCaseAttribute rowGrouping,
+		StatisticsCaseSubAttribute rowSubGrouping,
+		StatisticsCaseAttribute columnGrouping,
+		StatisticsCaseSubAttribute columnSubGrouping) {
+
+		return isGroupingCovered(rowGrouping, rowSubGrouping)
+			&& isGroupingCovered(columnGrouping, columnSubGrouping)
+			&& isFilterCovered(caseCriteria);
+	}
+
+	private static boolean isGroupingCovered(StatisticsCaseAttribute grouping, StatisticsCaseSubAttribute subGrouping) {
+
+		if (grouping == null) {
+			return true;
+		}
+
+		switch (grouping) {
+		case ONSET_TIME:
+		case REPORT_TIME:
+			return subGrouping != StatisticsCaseSubAttribute.DATE_RANGE;
+		case JURISDICTION:
+			return subGrouping == StatisticsCaseSubAttribute.REGION || subGrouping == StatisticsCaseSubAttribute.DISTRICT;
+		case SEX:
+		case AGE_INTERVAL_1_YEAR:
+		case AGE_INTERVAL_5_YEARS:
+		case AGE_INTERVAL_CHILDREN_COARSE:
+		case AGE_INTERVAL_CHILDREN_FINE:
+		case AGE_INTERVAL_CHILDREN_MEDIUM:
+		case AGE_INTERVAL_BASIC:
+		case DISEASE:
+		case CLASSIFICATION:
+		case OUTCOME:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static boolean isFilterCovered(StatisticsCaseCriteria caseCriteria) {
+
+		return caseCriteria.getOnsetDateFrom() == null
+			&& caseCriteria.getOnsetDateTo() == null
+			&& caseCriteria.getReportDateFrom() == null
+			&& caseCriteria.getReportDateTo() == null
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeYears())
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeQuarters())
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeMonths())
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeEpiWeeks())
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeQuartersOfYear())
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeMonthsOfYear())
+			&& CollectionUtils.isEmpty(caseCriteria.getOutcomeEpiWeeksOfYear())
+			&& caseCriteria.getOutcomeDateFrom() == null
+			&& caseCriteria.getOutcomeDateTo() == null
+			&& CollectionUtils.isEmpty(caseCriteria.getCommunities())
+			&& CollectionUtils.isEmpty(caseCriteria.getHealthFacilities())
+			&& caseCriteria.getPersonRegions() == null
+			&& caseCriteria.getPersonDistricts() == null
+			&& caseCriteria.getPersonCommunities() == null
+			&& caseCriteria.getPersonCity() == null
+			&& caseCriteria.getPersonPostcode() == null
+			&& CollectionUtils.isEmpty(caseCriteria.getReportingUserRoles());
+	}
+
+	/**
+	 * @return ids of all cases that were changed since the given date, including changes to their symptoms or person.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Long> getChangedCaseIds(Date since) {
+
+		String caseTable = Case.TABLE_NAME;
+		String query = "SELECT " + caseTable + "." + Case.ID + " FROM " + caseTable + " WHERE " + caseTable + "." + Case.CHANGE_DATE
+			+ " >= :since" + " UNION SELECT " + caseTable + "." + Case.ID + " FROM " + caseTable + " JOIN " + Symptoms.TABLE_NAME + " ON "
+			+ Symptoms.TABLE_NAME + "." + Symptoms.ID + " = " + caseTable + "." + Case.SYMPTOMS + "_id WHERE " + Symptoms.TABLE_NAME + "."
+			+ Symptoms.CHANGE_DATE + " >= :since" + " UNION SELECT " + caseTable + "." + Case.ID + " FROM " + caseTable + " JOIN "
+			+ Person.TABLE_NAME + " ON " + Person.TABLE_NAME + "." + Person.ID + " = " + caseTable + "." + Case.PERSON + "_id WHERE "
+			+ Person.TABLE_NAME + "." + Person.CHANGE_DATE + " >= :since";
+
+		List<Number> ids = em.createNativeQuery(query).setParameter("since", since).getResultList();
+		return ids.stream().map(Number::longValue).collect(Collectors.toList());
+	}
+
+	/**
+	 * Rebuilds the fact table and the cube from all cases.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public int rebuild() {
+
+		em.createNativeQuery("DELETE FROM " + CUBE_TABLE_NAME).executeUpdate();
+		em.createNativeQuery("DELETE FROM " + FACT_TABLE_NAME).executeUpdate();
+		int caseCount = em.createNativeQuery(buildFactInsert(false)).executeUpdate();
+		em.createNativeQuery(buildCubeInsert(false)).executeUpdate();
+		return caseCount;
+	}
+
+	/**
+	 * Re-reads the given cases into the fact table and re-aggregates the cube for all report periods affected.
+	 */
+	@SuppressWarnings("unchecked")
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void refresh(List<Long> caseIds) {
+
+		List<Date> affectedReportPeriods = em
+			.createNativeQuery(
+				"SELECT " + REPORT_PERIOD_START + " FROM " + FACT_TABLE_NAME + " WHERE " + CASE_ID + " IN (:caseIds)" + " UNION SELECT "
+					+ PERIOD_START_FUNCTION + "(" + Case.TABLE_NAME + "." + Case.REPORT_DATE + ") FROM " + Case.TABLE_NAME + " WHERE "
+					+ Case.TABLE_NAME + "." + Case.ID + " IN (:caseIds)")
+			.setParameter("caseIds", caseIds)
+			.getResultList();
+
+		em.createNativeQuery("DELETE FROM " + FACT_TABLE_NAME + " WHERE " + CASE_ID + " IN (:caseIds)")
+			.setParameter("caseIds", caseIds)
+			.executeUpdate();
+		em.createNativeQuery(buildFactInsert(true)).setParameter("caseIds", caseIds).executeUpdate();
+
+		if (affectedReportPeriods.isEmpty()) {
+			return;
+		}
+
+		em.createNativeQuery("DELETE FROM " + CUBE_TABLE_NAME + " WHERE " + REPORT_PERIOD_START + " IN (:reportPeriods)")
+			.setParameter("reportPeriods", affectedReportPeriods)
+			.executeUpdate();
+		em.createNativeQuery(buildCubeInsert(true)).setParameter("reportPeriods", affectedReportPeriods).executeUpdate();
+	}
+
+	private String buildFactInsert(boolean limitToCaseIds) {
+
+		String caseTable = Case.TABLE_NAME;
+		StringBuilder insertBuilder = new StringBuilder();
+		insertBuilder.append("INSERT INTO ")
+			.append(FACT_TABLE_NAME)
+			.append(" (")
+			.append(CASE_ID)
+			.append(", ")
+			.append(ATTRIBUTE_COLUMNS)
+			.append(") SELECT ")
+			.append(caseTable)
+			.append(".")
+			.append(Case.ID)
+			.append(", ")
+			.append(PERIOD_START_FUNCTION)
+			.append("(")
+			.append(caseTable)
+			.append(".")
+			.append(Case.REPORT_DATE)
+			.append("), ")
+			.append(PERIOD_START_FUNCTION)
+			.append("(")
+			.append(Symptoms.TABLE_NAME)
+			.append(".")
+			.append(Symptoms.ONSET_DATE)
+			.append("), ");
+		insertBuilder.append(caseTable).append(".").append(Case.DISEASE).append(", ");
+		insertBuilder.append(caseTable).append(".").append(Case.CASE_CLASSIFICATION).append(", ");
+		insertBuilder.append(caseTable).append(".").append(Case.OUTCOME).append(", ");
+		insertBuilder.append(Person.TABLE_NAME).append(".").append(Person.SEX).append(", ");
+		insertBuilder.append(caseTable).append(".").append(Case.CASE_AGE).append(", ");
+		insertBuilder.append(caseTable).append(".").append(Case.RESPONSIBLE_REGION).append("_id, ");
+		insertBuilder.append(caseTable).append(".").append(Case.RESPONSIBLE_DISTRICT).append("_id");
+
+		insertBuilder.append(" FROM ")
+			.append(caseTable)
+			.append(" LEFT JOIN ")
+			.append(Symptoms.TABLE_NAME)
+			.append(" ON ")
+			.append(caseTable)
+			.append(".")
+			.append(Case.SYMPTOMS)
+			.append("_id = ")
+			.append(Symptoms.TABLE_NAME)
+			.append(".")
+			.append(Symptoms.ID)
+			.append(" LEFT JOIN ")
+			.append(Person.TABLE_NAME)
+			.append(" ON ")
+			.append(caseTable)
+			.append(".")
+			.append(Case.PERSON)
+			.append("_id = ")
+			.append(Person.TABLE_NAME)
+			.append(".")
+			.append(Person.ID);
+
+		insertBuilder.append(" WHERE ").append(caseTable).append(".").append(Case.DELETED).append(" = false");
+		if (limitToCaseIds) {
+			insertBuilder.append(" AND ").append(caseTable).append(".").append(Case.ID).append(" IN (:caseIds)");
+		}
+
+		return insertBuilder.toString();
+	}
+
+	private String buildCubeInsert(boolean limitToReportPeriods) {
+
+		StringBuilder insertBuilder = new StringBuilder();
+		insertBuilder.append("INSERT INTO ")
+			.append(CUBE_TABLE_NAME)
+			.append(" (")
+			.append(ATTRIBUTE_COLUMNS)
+			.append(", ")
+			.append(CASE_COUNT)
+			.append(") SELECT ")
+			.append(ATTRIBUTE_COLUMNS)
+			.append(", COUNT(*) FROM ")
+			.append(FACT_TABLE_NAME);
+
+		if (limitToReportPeriods) {
+			insertBuilder.append(" WHERE ").append(REPORT_PERIOD_START).append(" IN (:reportPeriods)");
+		}
+
+		insertBuilder.append(" GROUP BY ").append(ATTRIBUTE_COLUMNS);
+
+		return insertBuilder.toString();
+	}
+}
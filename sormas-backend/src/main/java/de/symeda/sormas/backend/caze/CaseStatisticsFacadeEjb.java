@@ -18,10 +18,15 @@
 package de.symeda.sormas.backend.caze;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -30,6 +35,8 @@ import java.util.stream.Stream;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
@@ -38,13 +45,21 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.symeda.sormas.api.AgeGroup;
 import de.symeda.sormas.api.IntegerRange;
+import de.symeda.sormas.api.Month;
+import de.symeda.sormas.api.MonthOfYear;
+import de.symeda.sormas.api.Quarter;
+import de.symeda.sormas.api.QuarterOfYear;
+import de.symeda.sormas.api.Year;
 import de.symeda.sormas.api.caze.CaseStatisticsFacade;
 import de.symeda.sormas.api.facility.FacilityReferenceDto;
 import de.symeda.sormas.api.region.CommunityReferenceDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
+import de.symeda.sormas.api.person.Sex;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
 import de.symeda.sormas.api.statistics.StatisticsCaseCountDto;
@@ -52,11 +67,17 @@ import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
 import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
 import de.symeda.sormas.api.statistics.StatisticsGroupingKey;
 import de.symeda.sormas.api.statistics.StatisticsHelper;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.api.systemevents.SystemEventType;
 import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.EpiWeek;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb.FacilityFacadeEjbLocal;
 import de.symeda.sormas.backend.facility.FacilityService;
-import de.symeda.sormas.backend.infrastructure.PopulationData;
+import de.symeda.sormas.backend.infrastructure.PopulationLookupService;
+import de.symeda.sormas.backend.infrastructure.PopulationLookupService.PopulationEntry;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.region.Community;
@@ -69,13 +90,20 @@ import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.region.RegionFacadeEjb.RegionFacadeEjbLocal;
 import de.symeda.sormas.backend.region.RegionService;
 import de.symeda.sormas.backend.symptoms.Symptoms;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
 import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.util.IterableHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
 import de.symeda.sormas.backend.util.QueryHelper;
 
 @Stateless(name = "CaseStatisticsFacade")
 public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 
+	private static final int STATISTICS_CUBE_REFRESH_BATCH_SIZE = 1000;
+	private static final long STATISTICS_CUBE_REFRESH_OVERLAP_MILLIS = 10 * 60 * 1000L;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
@@ -96,6 +124,49 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	private CommunityFacadeEjbLocal communityFacade;
 	@EJB
 	private FacilityFacadeEjbLocal facilityFacade;
+	@EJB
+	private CaseStatisticsCubeService caseStatisticsCubeService;
+	@EJB
+	private SystemEventFacadeEjbLocal systemEventFacade;
+	@EJB
+	private PopulationLookupService populationLookupService;
+
+	/**
+	 * Brings the pre-aggregated case statistics up to date with all cases changed since the start of the last successful
+	 * refresh. If there is none, they are built from all cases.
+	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void refreshStatisticsCube() {
+
+		SystemEventDto latestSuccess = systemEventFacade.getLatestSuccessByType(SystemEventType.CASE_STATISTICS_REFRESH);
+
+		systemEventFacade.markPreviouslyStartedAsUnclear(SystemEventType.CASE_STATISTICS_REFRESH);
+		SystemEventDto systemEvent = SystemEventDto.build();
+		systemEvent.setType(SystemEventType.CASE_STATISTICS_REFRESH);
+		systemEvent.setStatus(SystemEventStatus.STARTED);
+		systemEvent.setStartDate(new Date());
+		systemEventFacade.saveSystemEvent(systemEvent);
+
+		long startTime = DateHelper.startTime();
+		try {
+			String message;
+			if (latestSuccess == null) {
+				int caseCount = caseStatisticsCubeService.rebuild();
+				message = String.format("Built case statistics from %d cases", caseCount);
+			} else {
+				// overlap with the last refresh to include cases saved in transactions that were committed after it had started
+				Date since = new Date(latestSuccess.getStartDate().getTime() - STATISTICS_CUBE_REFRESH_OVERLAP_MILLIS);
+				List<Long> changedCaseIds = caseStatisticsCubeService.getChangedCaseIds(since);
+				IterableHelper.executeBatched(changedCaseIds, STATISTICS_CUBE_REFRESH_BATCH_SIZE, caseStatisticsCubeService::refresh);
+				message = String.format("Refreshed case statistics for %d changed cases", changedCaseIds.size());
+			}
+			logger.debug("refreshStatisticsCube() finished. {}, {}ms", message, DateHelper.durationMillies(startTime));
+			systemEventFacade.reportSuccess(systemEvent, message, new Date());
+		} catch (RuntimeException e) {
+			logger.error("Refreshing the pre-aggregated case statistics failed", e);
+			systemEventFacade.reportError(systemEvent, e.getMessage(), new Date());
+		}
+	}
 
 	@SuppressWarnings("unchecked")
 	@Override
@@ -110,8 +181,13 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		Integer populationReferenceYear) {
 
 		// case counts
-		Pair<String, List<Object>> caseCountQueryAndParams =
-			buildCaseCountQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping);
+		Pair<String, List<Object>> caseCountQueryAndParams;
+		if (CaseStatisticsCubeService.isCovered(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping)
+			&& systemEventFacade.getLatestSuccessByType(SystemEventType.CASE_STATISTICS_REFRESH) != null) {
+			caseCountQueryAndParams = buildCubeCaseCountQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping);
+		} else {
+			caseCountQueryAndParams = buildCaseCountQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping);
+		}
 
 		Query caseCountQuery = em.createNativeQuery(caseCountQueryAndParams.getKey().toString());
 		for (int i = 0; i < caseCountQueryAndParams.getValue().size(); i++) {
@@ -179,15 +255,10 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 
 		// population
 		if (includePopulation) {
-			Pair<String, List<Object>> populationQueryAndParams =
-				buildPopulationQuery(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping, populationReferenceYear);
-
-			Query populationQuery = em.createNativeQuery(populationQueryAndParams.getKey().toString());
-			for (int i = 0; i < populationQueryAndParams.getValue().size(); i++) {
-				populationQuery.setParameter(i + 1, populationQueryAndParams.getValue().get(i));
-			}
+			List<Object[]> populationRows =
+				queryPopulation(caseCriteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping, populationReferenceYear);
 
-			List<StatisticsCaseCountDto> populationResults = ((Stream<Object[]>) populationQuery.getResultStream()).map(result -> {
+			List<StatisticsCaseCountDto> populationResults = populationRows.stream().map(result -> {
 				Object rowKey = "".equals(result[1]) ? null : result[1];
 				Object columnKey = "".equals(result[2]) ? null : result[2];
 				return new StatisticsCaseCountDto(
@@ -407,78 +478,18 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		caseFilterBuilder.append(")");
 		List<Object> filterBuilderParameters = new ArrayList<Object>();
 
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetYears())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"YEAR",
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetYears(),
-				dateValue -> (dateValue.getValue()));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetQuarters())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"QUARTER",
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetQuarters(),
-				dateValue -> (dateValue.getValue()));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetMonths())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"MONTH",
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetMonths(),
-				dateValue -> (dateValue.ordinal() + 1));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetEpiWeeks())) {
-			extendFilterBuilderWithEpiWeek(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetEpiWeeks(),
-				value -> value.getWeek());
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetQuartersOfYear())) {
-			extendFilterBuilderWithQuarterOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetQuartersOfYear(),
-				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetMonthsOfYear())) {
-			extendFilterBuilderWithMonthOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetMonthsOfYear(),
-				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOnsetEpiWeeksOfYear())) {
-			extendFilterBuilderWithEpiWeekOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Symptoms.TABLE_NAME,
-				Symptoms.ONSET_DATE,
-				caseCriteria.getOnsetEpiWeeksOfYear(),
-				value -> value.getYear() * 100 + value.getWeek());
-		}
+		extendFilterBuilderWithTimeElements(
+			caseFilterBuilder,
+			filterBuilderParameters,
+			Symptoms.TABLE_NAME,
+			Symptoms.ONSET_DATE,
+			caseCriteria.getOnsetYears(),
+			caseCriteria.getOnsetQuarters(),
+			caseCriteria.getOnsetMonths(),
+			caseCriteria.getOnsetEpiWeeks(),
+			caseCriteria.getOnsetQuartersOfYear(),
+			caseCriteria.getOnsetMonthsOfYear(),
+			caseCriteria.getOnsetEpiWeeksOfYear());
 
 		if (caseCriteria.getOnsetDateFrom() != null || caseCriteria.getOnsetDateTo() != null) {
 			extendFilterBuilderWithDate(
@@ -490,78 +501,18 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 				Symptoms.ONSET_DATE);
 		}
 
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportYears())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"YEAR",
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportYears(),
-				dateValue -> (dateValue.getValue()));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportQuarters())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"QUARTER",
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportQuarters(),
-				dateValue -> (dateValue.getValue()));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportMonths())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"MONTH",
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportMonths(),
-				dateValue -> (dateValue.ordinal() + 1));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportEpiWeeks())) {
-			extendFilterBuilderWithEpiWeek(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportEpiWeeks(),
-				value -> value.getWeek());
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportQuartersOfYear())) {
-			extendFilterBuilderWithQuarterOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportQuartersOfYear(),
-				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportMonthsOfYear())) {
-			extendFilterBuilderWithMonthOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportMonthsOfYear(),
-				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getReportEpiWeeksOfYear())) {
-			extendFilterBuilderWithEpiWeekOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.REPORT_DATE,
-				caseCriteria.getReportEpiWeeksOfYear(),
-				value -> value.getYear() * 100 + value.getWeek());
-		}
+		extendFilterBuilderWithTimeElements(
+			caseFilterBuilder,
+			filterBuilderParameters,
+			Case.TABLE_NAME,
+			Case.REPORT_DATE,
+			caseCriteria.getReportYears(),
+			caseCriteria.getReportQuarters(),
+			caseCriteria.getReportMonths(),
+			caseCriteria.getReportEpiWeeks(),
+			caseCriteria.getReportQuartersOfYear(),
+			caseCriteria.getReportMonthsOfYear(),
+			caseCriteria.getReportEpiWeeksOfYear());
 
 		if (caseCriteria.getReportDateFrom() != null || caseCriteria.getReportDateTo() != null) {
 			extendFilterBuilderWithDate(
@@ -573,78 +524,18 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 				Case.REPORT_DATE);
 		}
 
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeYears())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"YEAR",
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeYears(),
-				dateValue -> (dateValue.getValue()));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeQuarters())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"QUARTER",
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeQuarters(),
-				dateValue -> (dateValue.getValue()));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeMonths())) {
-			extendFilterBuilderWithDateElement(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				"MONTH",
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeMonths(),
-				dateValue -> (dateValue.ordinal() + 1));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeEpiWeeks())) {
-			extendFilterBuilderWithEpiWeek(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeEpiWeeks(),
-				value -> value.getWeek());
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeQuartersOfYear())) {
-			extendFilterBuilderWithQuarterOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeQuartersOfYear(),
-				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeMonthsOfYear())) {
-			extendFilterBuilderWithMonthOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeMonthsOfYear(),
-				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomeEpiWeeksOfYear())) {
-			extendFilterBuilderWithEpiWeekOfYear(
-				caseFilterBuilder,
-				filterBuilderParameters,
-				Case.TABLE_NAME,
-				Case.OUTCOME_DATE,
-				caseCriteria.getOutcomeEpiWeeksOfYear(),
-				value -> value.getYear() * 100 + value.getWeek());
-		}
+		extendFilterBuilderWithTimeElements(
+			caseFilterBuilder,
+			filterBuilderParameters,
+			Case.TABLE_NAME,
+			Case.OUTCOME_DATE,
+			caseCriteria.getOutcomeYears(),
+			caseCriteria.getOutcomeQuarters(),
+			caseCriteria.getOutcomeMonths(),
+			caseCriteria.getOutcomeEpiWeeks(),
+			caseCriteria.getOutcomeQuartersOfYear(),
+			caseCriteria.getOutcomeMonthsOfYear(),
+			caseCriteria.getOutcomeEpiWeeksOfYear());
 
 		if (caseCriteria.getOutcomeDateFrom() != null || caseCriteria.getOutcomeDateTo() != null) {
 			extendFilterBuilderWithDate(
@@ -693,90 +584,8 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			extendFilterBuilderWithLike(caseFilterBuilder, Location.TABLE_NAME, Location.POSTAL_CODE, caseCriteria.getPersonPostcode());
 		}
 
-		if (CollectionUtils.isNotEmpty(caseCriteria.getSexes()) || caseCriteria.isSexUnknown() != null) {
-			if (caseFilterBuilder.length() > 0) {
-				caseFilterBuilder.append(" AND ");
-			}
-
-			caseFilterBuilder.append("(");
-			StringBuilder subFilterBuilder = new StringBuilder();
-
-			if (CollectionUtils.isNotEmpty(caseCriteria.getSexes())) {
-				extendFilterBuilderWithSimpleValue(
-					subFilterBuilder,
-					filterBuilderParameters,
-					Person.TABLE_NAME,
-					Person.SEX,
-					caseCriteria.getSexes(),
-					entry -> entry.name());
-			}
-
-			if (caseCriteria.isSexUnknown() != null) {
-				if (subFilterBuilder.length() > 0) {
-					subFilterBuilder.append(" OR ");
-				}
-				subFilterBuilder.append(Person.TABLE_NAME)
-					.append(".")
-					.append(Person.SEX)
-					.append(" IS ")
-					.append(caseCriteria.isSexUnknown() == true ? "NULL" : "NOT NULL");
-			}
-
-			caseFilterBuilder.append(subFilterBuilder);
-			caseFilterBuilder.append(")");
-		}
-
-		if (CollectionUtils.isNotEmpty(caseCriteria.getAgeIntervals())) {
-			if (caseFilterBuilder.length() > 0) {
-				caseFilterBuilder.append(" AND ");
-			}
-
-			caseFilterBuilder.append("(");
-			StringBuilder subFilterBuilder = new StringBuilder();
-
-			Integer upperRangeBoundary = null;
-			boolean appendUnknown = false;
-			List<Integer> agesList = new ArrayList<Integer>();
-			for (IntegerRange range : caseCriteria.getAgeIntervals()) {
-				if (range.getTo() == null) {
-					if (range.getFrom() == null) {
-						appendUnknown = true;
-					} else {
-						upperRangeBoundary = range.getFrom();
-					}
-				} else {
-					agesList.addAll(IntStream.rangeClosed(range.getFrom(), range.getTo()).boxed().collect(Collectors.toList()));
-				}
-			}
-
-			if (agesList.size() > 0) {
-				extendFilterBuilderWithSimpleValue(
-					subFilterBuilder,
-					filterBuilderParameters,
-					Case.TABLE_NAME,
-					Case.CASE_AGE,
-					agesList,
-					value -> value);
-			}
-
-			if (upperRangeBoundary != null) {
-				if (subFilterBuilder.length() > 0) {
-					subFilterBuilder.append(" OR ");
-				}
-				subFilterBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" >= ?").append(filterBuilderParameters.size() + 1);
-				filterBuilderParameters.add(upperRangeBoundary);
-			}
-
-			if (appendUnknown) {
-				if (subFilterBuilder.length() > 0) {
-					subFilterBuilder.append(" OR ");
-				}
-				subFilterBuilder.append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" IS NULL");
-			}
-
-			caseFilterBuilder.append(subFilterBuilder);
-			caseFilterBuilder.append(")");
-		}
+		extendFilterBuilderWithSex(caseFilterBuilder, filterBuilderParameters, caseCriteria, Person.TABLE_NAME, Person.SEX);
+		extendFilterBuilderWithAgeIntervals(caseFilterBuilder, filterBuilderParameters, caseCriteria, Case.TABLE_NAME, Case.CASE_AGE);
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getDiseases())) {
 			extendFilterBuilderWithSimpleValue(
@@ -928,282 +737,287 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 	}
 
 	/**
-	 * Builds SQL query string and list of parameters (for filters)
+	 * Builds SQL query string and list of parameters (for filters) against the pre-aggregated case statistics. Only valid
+	 * if {@link CaseStatisticsCubeService#isCovered} is true for the criteria and groupings.
 	 */
-	public Pair<String, List<Object>> buildPopulationQuery(
+	public Pair<String, List<Object>> buildCubeCaseCountQuery(
 		StatisticsCaseCriteria caseCriteria,
 		StatisticsCaseAttribute groupingA,
 		StatisticsCaseSubAttribute subGroupingA,
 		StatisticsCaseAttribute groupingB,
-		StatisticsCaseSubAttribute subGroupingB,
-		Integer populationReferenceYear) {
+		StatisticsCaseSubAttribute subGroupingB) {
 
-		////////
-		// GROUP BY
-		///////
+		String cubeTable = CaseStatisticsCubeService.CUBE_TABLE_NAME;
 
-		String groupAAlias = "groupA";
-		String groupBAlias = "groupB";
-		String groupASelect = buildPopulationGroupingSelect(groupingA, subGroupingA);
-		String groupBSelect = buildPopulationGroupingSelect(groupingB, subGroupingB);
+		StringBuilder filterBuilder = new StringBuilder();
+		List<Object> filterBuilderParameters = new ArrayList<Object>();
 
-		StringBuilder groupByBuilder = new StringBuilder();
-		if (groupASelect != null || groupBSelect != null) {
-			groupByBuilder.append(" GROUP BY ");
-			if (groupASelect != null) {
-				groupByBuilder.append(groupAAlias);
-			}
-			if (groupBSelect != null) {
-				if (groupASelect != null) {
-					groupByBuilder.append(", ");
-				}
-				groupByBuilder.append(groupBAlias);
-			}
-		}
+		extendFilterBuilderWithTimeElements(
+			filterBuilder,
+			filterBuilderParameters,
+			cubeTable,
+			CaseStatisticsCubeService.ONSET_PERIOD_START,
+			caseCriteria.getOnsetYears(),
+			caseCriteria.getOnsetQuarters(),
+			caseCriteria.getOnsetMonths(),
+			caseCriteria.getOnsetEpiWeeks(),
+			caseCriteria.getOnsetQuartersOfYear(),
+			caseCriteria.getOnsetMonthsOfYear(),
+			caseCriteria.getOnsetEpiWeeksOfYear());
+		extendFilterBuilderWithTimeElements(
+			filterBuilder,
+			filterBuilderParameters,
+			cubeTable,
+			CaseStatisticsCubeService.REPORT_PERIOD_START,
+			caseCriteria.getReportYears(),
+			caseCriteria.getReportQuarters(),
+			caseCriteria.getReportMonths(),
+			caseCriteria.getReportEpiWeeks(),
+			caseCriteria.getReportQuartersOfYear(),
+			caseCriteria.getReportMonthsOfYear(),
+			caseCriteria.getReportEpiWeeksOfYear());
+
+		extendFilterBuilderWithSex(filterBuilder, filterBuilderParameters, caseCriteria, cubeTable, CaseStatisticsCubeService.SEX);
+		extendFilterBuilderWithAgeIntervals(filterBuilder, filterBuilderParameters, caseCriteria, cubeTable, CaseStatisticsCubeService.CASE_AGE);
 
-		if (groupASelect == null) {
-			groupASelect = "null\\:\\:text";
+		if (CollectionUtils.isNotEmpty(caseCriteria.getDiseases())) {
+			extendFilterBuilderWithSimpleValue(
+				filterBuilder,
+				filterBuilderParameters,
+				cubeTable,
+				CaseStatisticsCubeService.DISEASE,
+				caseCriteria.getDiseases(),
+				entry -> entry.name());
 		}
-		groupASelect += " AS " + groupAAlias;
 
-		if (groupBSelect == null) {
-			groupBSelect = "null\\:\\:text";
+		if (CollectionUtils.isNotEmpty(caseCriteria.getClassifications())) {
+			extendFilterBuilderWithSimpleValue(
+				filterBuilder,
+				filterBuilderParameters,
+				cubeTable,
+				CaseStatisticsCubeService.CASE_CLASSIFICATION,
+				caseCriteria.getClassifications(),
+				entry -> entry.name());
 		}
-		groupBSelect += " AS " + groupBAlias;
-
-		////////
-		// WHERE
-		///////
 
-		StringBuilder whereBuilder = new StringBuilder();
-		List<Object> filterBuilderParameters = new ArrayList<Object>();
+		if (CollectionUtils.isNotEmpty(caseCriteria.getOutcomes())) {
+			extendFilterBuilderWithSimpleValue(
+				filterBuilder,
+				filterBuilderParameters,
+				cubeTable,
+				CaseStatisticsCubeService.OUTCOME,
+				caseCriteria.getOutcomes(),
+				entry -> entry.name());
+		}
 
 		if (CollectionUtils.isNotEmpty(caseCriteria.getRegions())) {
-			// limit to specific regions
-
 			List<Long> regionIds = regionService.getIdsByReferenceDtos(caseCriteria.getRegions());
 			extendFilterBuilderWithSimpleValue(
-				whereBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.REGION + "_id",
+				cubeTable,
+				CaseStatisticsCubeService.REGION_ID,
 				regionIds,
 				entry -> entry);
 		}
 
-		boolean usesCommunitys;
-		List<Long> communityIds;
-		if (CollectionUtils.isNotEmpty(caseCriteria.getCommunities())) {
-			// limit to specific communitys
-
-			communityIds = communityService.getIdsByReferenceDtos(caseCriteria.getCommunities());
-			extendFilterBuilderWithSimpleValue(
-					whereBuilder,
-					filterBuilderParameters,
-					PopulationData.TABLE_NAME,
-					PopulationData.COMMUNITY + "_id",
-					communityIds,
-					entry -> entry);
-			usesCommunitys = true;
-		} else {
-			// limit either to entries with community or to entries without community
-
-			communityIds = null;
-			usesCommunitys = subGroupingA == StatisticsCaseSubAttribute.COMMUNITY || subGroupingB == StatisticsCaseSubAttribute.COMMUNITY;
-
-			if (whereBuilder.length() > 0) {
-				whereBuilder.append(" AND ");
-			}
-			whereBuilder.append("(").append(PopulationData.TABLE_NAME).append(".").append(PopulationData.COMMUNITY).append("_id");
-			if (usesCommunitys) {
-				whereBuilder.append(" IS NOT NULL)");
-			} else {
-				// use entry with sum for all community
-				whereBuilder.append(" IS NULL)");
-			}
-		}
-
-		boolean usesDistricts;
-		List<Long> districtIds;
 		if (CollectionUtils.isNotEmpty(caseCriteria.getDistricts())) {
-			// limit to specific districts
-
-			districtIds = districtService.getIdsByReferenceDtos(caseCriteria.getDistricts());
+			List<Long> districtIds = districtService.getIdsByReferenceDtos(caseCriteria.getDistricts());
 			extendFilterBuilderWithSimpleValue(
-				whereBuilder,
+				filterBuilder,
 				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.DISTRICT + "_id",
+				cubeTable,
+				CaseStatisticsCubeService.DISTRICT_ID,
 				districtIds,
 				entry -> entry);
-			usesDistricts = true;
-		} else {
-			// limit either to entries with district or to entries without district
-
-			districtIds = null;
-			usesDistricts = subGroupingA == StatisticsCaseSubAttribute.DISTRICT || subGroupingB == StatisticsCaseSubAttribute.DISTRICT;
-
-			if (whereBuilder.length() > 0) {
-				whereBuilder.append(" AND ");
-			}
-			whereBuilder.append("(").append(PopulationData.TABLE_NAME).append(".").append(PopulationData.DISTRICT).append("_id");
-			if (usesDistricts || usesCommunitys) {
-				whereBuilder.append(" IS NOT NULL)");
-			} else {
-				// use entry with sum for all districts
-				whereBuilder.append(" IS NULL)");
-			}
 		}
 
-		// sex
-		whereBuilder.append(" AND (");
-		if (CollectionUtils.isNotEmpty(caseCriteria.getSexes())) {
+		if (filterBuilder.length() > 0) {
+			filterBuilder.insert(0, " WHERE ");
+		}
 
-			StringBuilder subFilterBuilder = new StringBuilder();
-			extendFilterBuilderWithSimpleValue(
-				subFilterBuilder,
-				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.SEX,
-				caseCriteria.getSexes(),
-				entry -> entry.name());
-			whereBuilder.append(subFilterBuilder);
+		String groupAAlias = "groupA";
+		String groupBAlias = "groupB";
 
+		StringBuilder queryBuilder = new StringBuilder();
+		queryBuilder.append("SELECT COALESCE(SUM(").append(cubeTable).append(".").append(CaseStatisticsCubeService.CASE_COUNT).append("), 0) AS casecount");
+		if (groupingA != null) {
+			queryBuilder.append(", ").append(buildCubeGroupingSelectQuery(groupingA, subGroupingA, groupAAlias));
 		} else {
+			queryBuilder.append(", null\\:\\:text AS ").append(groupAAlias);
+		}
+		if (groupingB != null) {
+			queryBuilder.append(", ").append(buildCubeGroupingSelectQuery(groupingB, subGroupingB, groupBAlias));
+		} else {
+			queryBuilder.append(", null\\:\\:text AS ").append(groupBAlias);
+		}
 
-			boolean usesSex = groupingA == StatisticsCaseAttribute.SEX || groupingB == StatisticsCaseAttribute.SEX;
-			whereBuilder.append(PopulationData.TABLE_NAME).append(".").append(PopulationData.SEX);
-			if (usesSex) {
-				whereBuilder.append(" IS NOT NULL");
-			} else {
-				// use entry with sum for all sexes
-				whereBuilder.append(" IS NULL");
+		queryBuilder.append(" FROM ").append(cubeTable).append(filterBuilder);
+
+		if (groupingA != null || groupingB != null) {
+			StringBuilder groupByBuilder = new StringBuilder(" GROUP BY ");
+			StringBuilder orderByBuilder = new StringBuilder(" ORDER BY ");
+			if (groupingA != null) {
+				groupByBuilder.append(groupAAlias);
+				orderByBuilder.append(groupAAlias).append(" NULLS LAST");
 			}
+			if (groupingB != null) {
+				if (groupingA != null) {
+					groupByBuilder.append(",");
+					orderByBuilder.append(",");
+				}
+				groupByBuilder.append(groupBAlias);
+				orderByBuilder.append(groupBAlias).append(" NULLS LAST");
+			}
+			queryBuilder.append(groupByBuilder).append(orderByBuilder);
 		}
-		whereBuilder.append(")");
 
-		// age group
-		whereBuilder.append(" AND (");
-		if (CollectionUtils.isNotEmpty(caseCriteria.getAgeIntervals())) {
+		return new ImmutablePair<String, List<Object>>(queryBuilder.toString(), filterBuilderParameters);
+	}
 
-			List<AgeGroup> ageGroups = caseCriteria.getAgeIntervals().stream().map(ageInterval -> {
-				AgeGroup ageGroup = AgeGroup.getAgeGroupFromIntegerRange(ageInterval);
-				if (ageGroup == null) {
-					throw new IllegalArgumentException("Could not map integer range to age group: " + ageInterval.toString());
-				}
-				return ageGroup;
-			}).collect(Collectors.toList());
+	/**
+	 * Sums up the projected population from the in-memory population table, grouped like the case counts.
+	 * 
+	 * @return rows of population, key of grouping A and key of grouping B. Keys are {@code null} for groupings that are
+	 *         not based on population data.
+	 */
+	public List<Object[]> queryPopulation(
+		StatisticsCaseCriteria caseCriteria,
+		StatisticsCaseAttribute groupingA,
+		StatisticsCaseSubAttribute subGroupingA,
+		StatisticsCaseAttribute groupingB,
+		StatisticsCaseSubAttribute subGroupingB,
+		Integer populationReferenceYear) {
 
-			StringBuilder subFilterBuilder = new StringBuilder();
-			extendFilterBuilderWithSimpleValue(
-				subFilterBuilder,
-				filterBuilderParameters,
-				PopulationData.TABLE_NAME,
-				PopulationData.AGE_GROUP,
-				ageGroups,
-				entry -> entry.name());
-			whereBuilder.append(subFilterBuilder);
+		Set<Long> regionIds = CollectionUtils.isNotEmpty(caseCriteria.getRegions())
+			? new HashSet<>(regionService.getIdsByReferenceDtos(caseCriteria.getRegions()))
+			: null;
 
+		boolean usesCommunitys;
+		Set<Long> communityIds;
+		if (CollectionUtils.isNotEmpty(caseCriteria.getCommunities())) {
+			// limit to specific communitys
+			communityIds = new HashSet<>(communityService.getIdsByReferenceDtos(caseCriteria.getCommunities()));
+			usesCommunitys = true;
 		} else {
-
-			boolean usesAgeGroup =
-				groupingA == StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS || groupingB == StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS;
-			whereBuilder.append(PopulationData.TABLE_NAME).append(".").append(PopulationData.AGE_GROUP);
-			if (usesAgeGroup) {
-				whereBuilder.append(" IS NOT NULL");
-			} else {
-				// use entry with sum for all sexes
-				whereBuilder.append(" IS NULL");
-			}
+			// limit either to entries with community or to entries without community
+			communityIds = null;
+			usesCommunitys = subGroupingA == StatisticsCaseSubAttribute.COMMUNITY || subGroupingB == StatisticsCaseSubAttribute.COMMUNITY;
 		}
-		whereBuilder.append(")");
-
-		whereBuilder.insert(0, " WHERE ");
 
-		////////
-		// SELECT
-		///////
+		boolean usesDistricts;
+		Set<Long> districtIds;
+		if (CollectionUtils.isNotEmpty(caseCriteria.getDistricts())) {
+			// limit to specific districts
+			districtIds = new HashSet<>(districtService.getIdsByReferenceDtos(caseCriteria.getDistricts()));
+			usesDistricts = true;
+		} else {
+			// limit either to entries with district or to entries without district
+			districtIds = null;
+			usesDistricts = subGroupingA == StatisticsCaseSubAttribute.DISTRICT || subGroupingB == StatisticsCaseSubAttribute.DISTRICT;
+		}
 
-		StringBuilder selectBuilder = new StringBuilder(" SELECT SUM(").append(PopulationData.POPULATION)
-			.append("*EXP(growthsource.growthrate*0.01*")
-			.append("(?")
-			.append(filterBuilderParameters.size() + 1)
-			.append(" - date_part('year', " + PopulationData.COLLECTION_DATE)
-			.append("\\:\\:timestamp)")
-			.append("))) AS population, ");
+		Set<Sex> sexes = CollectionUtils.isNotEmpty(caseCriteria.getSexes()) ? new HashSet<>(caseCriteria.getSexes()) : null;
+		boolean usesSex = groupingA == StatisticsCaseAttribute.SEX || groupingB == StatisticsCaseAttribute.SEX;
 
-		if (populationReferenceYear == null) {
-			filterBuilderParameters.add(LocalDate.now().getYear());
+		Set<AgeGroup> ageGroups;
+		if (CollectionUtils.isNotEmpty(caseCriteria.getAgeIntervals())) {
+			ageGroups = caseCriteria.getAgeIntervals().stream().map(ageInterval -> {
+				AgeGroup ageGroup = AgeGroup.getAgeGroupFromIntegerRange(ageInterval);
+				if (ageGroup == null) {
+					throw new IllegalArgumentException("Could not map integer range to age group: " + ageInterval.toString());
+				}
+				return ageGroup;
+			}).collect(Collectors.toSet());
 		} else {
-			filterBuilderParameters.add(populationReferenceYear);
+			ageGroups = null;
 		}
-		selectBuilder.append(groupASelect).append(", ").append(groupBSelect);
-		selectBuilder.append(" FROM ").append(PopulationData.TABLE_NAME);
+		boolean usesAgeGroup =
+			groupingA == StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS || groupingB == StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS;
 
 		// growth rates to calculate the population
-		selectBuilder.append(" LEFT JOIN ");
+		Function<PopulationEntry, Float> growthRateSource;
 		if (communityIds != null || subGroupingA == StatisticsCaseSubAttribute.COMMUNITY || subGroupingB == StatisticsCaseSubAttribute.COMMUNITY) {
-			selectBuilder.append(Community.TABLE_NAME)
-				.append(" AS growthsource ON growthsource.")
-				.append(Community.ID)
-				.append(" = ")
-				.append(PopulationData.COMMUNITY)
-				.append("_id");
+			growthRateSource = PopulationEntry::getCommunityGrowthRate;
 		} else if (districtIds != null
 			|| subGroupingA == StatisticsCaseSubAttribute.DISTRICT
 			|| subGroupingB == StatisticsCaseSubAttribute.DISTRICT) {
-			selectBuilder.append(District.TABLE_NAME)
-				.append(" AS growthsource ON growthsource.")
-				.append(District.ID)
-				.append(" = ")
-				.append(PopulationData.DISTRICT)
-				.append("_id");
+			growthRateSource = PopulationEntry::getDistrictGrowthRate;
 		} else {
-			selectBuilder.append(Region.TABLE_NAME)
-				.append(" AS growthsource ON growthsource.")
-				.append(Region.ID)
-				.append(" = ")
-				.append(PopulationData.REGION)
-				.append("_id");
+			growthRateSource = PopulationEntry::getRegionGrowthRate;
 		}
 
-		////////
-		// ORDER BY
-		///////
+		int referenceYear = populationReferenceYear != null ? populationReferenceYear : LocalDate.now().getYear();
 
-		StringBuilder orderByBuilder = new StringBuilder();
-		orderByBuilder.append(" ORDER BY ").append(groupAAlias).append(" NULLS LAST, ").append(groupBAlias).append(" NULLS LAST");
+		Map<List<Object>, Double> populationByGroup = new LinkedHashMap<>();
+		for (PopulationEntry entry : populationLookupService.getEntries()) {
 
-		StringBuilder queryBuilder = new StringBuilder();
+			if (regionIds != null && !regionIds.contains(entry.getRegionId())) {
+				continue;
+			}
+			if (communityIds != null ? !communityIds.contains(entry.getCommunityId()) : usesCommunitys != (entry.getCommunityId() != null)) {
+				continue;
+			}
+			if (districtIds != null
+				? !districtIds.contains(entry.getDistrictId())
+				: (usesDistricts || usesCommunitys) != (entry.getDistrictId() != null)) {
+				continue;
+			}
+			if (sexes != null ? !sexes.contains(entry.getSex()) : usesSex != (entry.getSex() != null)) {
+				continue;
+			}
+			if (ageGroups != null ? !ageGroups.contains(entry.getAgeGroup()) : usesAgeGroup != (entry.getAgeGroup() != null)) {
+				continue;
+			}
 
-		queryBuilder.append(selectBuilder);
-		queryBuilder.append(whereBuilder);
-		queryBuilder.append(groupByBuilder);
-		queryBuilder.append(orderByBuilder);
+			List<Object> groupKey = Arrays
+				.asList(getPopulationGroupingKey(entry, groupingA, subGroupingA), getPopulationGroupingKey(entry, groupingB, subGroupingB));
 
-		return new ImmutablePair<String, List<Object>>(queryBuilder.toString(), filterBuilderParameters);
+			Float growthRate = growthRateSource.apply(entry);
+			Double population = null;
+			if (growthRate != null && entry.getPopulation() != null && entry.getCollectionDate() != null) {
+				int collectionYear = entry.getCollectionDate().toInstant().atZone(ZoneId.systemDefault()).getYear();
+				population = entry.getPopulation() * Math.exp(growthRate * 0.01 * (referenceYear - collectionYear));
+			}
+
+			// groups without any usable entry keep a null population
+			Double groupPopulation = populationByGroup.get(groupKey);
+			if (population != null) {
+				populationByGroup.put(groupKey, groupPopulation != null ? groupPopulation + population : population);
+			} else if (!populationByGroup.containsKey(groupKey)) {
+				populationByGroup.put(groupKey, null);
+			}
+		}
+
+		return populationByGroup.entrySet()
+			.stream()
+			.map(e -> new Object[] {
+				e.getValue(),
+				e.getKey().get(0),
+				e.getKey().get(1) })
+			.collect(Collectors.toList());
 	}
 
-	private String buildPopulationGroupingSelect(StatisticsCaseAttribute grouping, StatisticsCaseSubAttribute subGrouping) {
+	private Object getPopulationGroupingKey(PopulationEntry entry, StatisticsCaseAttribute grouping, StatisticsCaseSubAttribute subGrouping) {
 
 		if (grouping != null) {
 			switch (grouping) {
 			case JURISDICTION: {
 				switch (subGrouping) {
 				case REGION:
-					return PopulationData.TABLE_NAME + "." + PopulationData.REGION + "_id";
+					return entry.getRegionId();
 				case DISTRICT:
-					return PopulationData.TABLE_NAME + "." + PopulationData.DISTRICT + "_id";
+					return entry.getDistrictId();
 				case COMMUNITY:
-					return PopulationData.TABLE_NAME + "." + PopulationData.COMMUNITY + "_id";
+					return entry.getCommunityId();
 				default:
 					return null;
 				}
 			}
 			case SEX:
-				return PopulationData.TABLE_NAME + "." + PopulationData.SEX;
+				return entry.getSex().name();
 			case AGE_INTERVAL_5_YEARS:
-				return PopulationData.TABLE_NAME + "." + PopulationData.AGE_GROUP;
+				return entry.getAgeGroup().name();
 			default:
 				return null;
 			}
@@ -1211,6 +1025,182 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		return null;
 	}
 
+	private void extendFilterBuilderWithSex(
+		StringBuilder filterBuilder,
+		List<Object> filterBuilderParameters,
+		StatisticsCaseCriteria caseCriteria,
+		String tableName,
+		String fieldName) {
+
+	if (CollectionUtils.isNotEmpty(caseCriteria.getSexes()) || caseCriteria.isSexUnknown() != null) {
+		if (filterBuilder.length() > 0) {
+			filterBuilder.append(" AND ");
+		}
+
+		filterBuilder.append("(");
+		StringBuilder subFilterBuilder = new StringBuilder();
+
+		if (CollectionUtils.isNotEmpty(caseCriteria.getSexes())) {
+			extendFilterBuilderWithSimpleValue(
+				subFilterBuilder,
+				filterBuilderParameters,
+				tableName,
+				fieldName,
+				caseCriteria.getSexes(),
+				entry -> entry.name());
+		}
+
+		if (caseCriteria.isSexUnknown() != null) {
+			if (subFilterBuilder.length() > 0) {
+				subFilterBuilder.append(" OR ");
+			}
+			subFilterBuilder.append(tableName)
+				.append(".")
+				.append(fieldName)
+				.append(" IS ")
+				.append(caseCriteria.isSexUnknown() == true ? "NULL" : "NOT NULL");
+		}
+
+		filterBuilder.append(subFilterBuilder);
+		filterBuilder.append(")");
+	}
+	}
+
+	private void extendFilterBuilderWithAgeIntervals(
+		StringBuilder filterBuilder,
+		List<Object> filterBuilderParameters,
+		StatisticsCaseCriteria caseCriteria,
+		String tableName,
+		String fieldName) {
+
+	if (CollectionUtils.isNotEmpty(caseCriteria.getAgeIntervals())) {
+		if (filterBuilder.length() > 0) {
+			filterBuilder.append(" AND ");
+		}
+
+		filterBuilder.append("(");
+		StringBuilder subFilterBuilder = new StringBuilder();
+
+		Integer upperRangeBoundary = null;
+		boolean appendUnknown = false;
+		List<Integer> agesList = new ArrayList<Integer>();
+		for (IntegerRange range : caseCriteria.getAgeIntervals()) {
+			if (range.getTo() == null) {
+				if (range.getFrom() == null) {
+					appendUnknown = true;
+				} else {
+					upperRangeBoundary = range.getFrom();
+				}
+			} else {
+				agesList.addAll(IntStream.rangeClosed(range.getFrom(), range.getTo()).boxed().collect(Collectors.toList()));
+			}
+		}
+
+		if (agesList.size() > 0) {
+			extendFilterBuilderWithSimpleValue(
+				subFilterBuilder,
+				filterBuilderParameters,
+				tableName,
+				fieldName,
+				agesList,
+				value -> value);
+		}
+
+		if (upperRangeBoundary != null) {
+			if (subFilterBuilder.length() > 0) {
+				subFilterBuilder.append(" OR ");
+			}
+			subFilterBuilder.append(tableName).append(".").append(fieldName).append(" >= ?").append(filterBuilderParameters.size() + 1);
+			filterBuilderParameters.add(upperRangeBoundary);
+		}
+
+		if (appendUnknown) {
+			if (subFilterBuilder.length() > 0) {
+				subFilterBuilder.append(" OR ");
+			}
+			subFilterBuilder.append(tableName).append(".").append(fieldName).append(" IS NULL");
+		}
+
+		filterBuilder.append(subFilterBuilder);
+		filterBuilder.append(")");
+	}
+	}
+
+	private void extendFilterBuilderWithTimeElements(
+		StringBuilder filterBuilder,
+		List<Object> filterBuilderParameters,
+		String tableName,
+		String fieldName,
+		List<Year> years,
+		List<Quarter> quarters,
+		List<Month> months,
+		List<EpiWeek> epiWeeks,
+		List<QuarterOfYear> quartersOfYear,
+		List<MonthOfYear> monthsOfYear,
+		List<EpiWeek> epiWeeksOfYear) {
+
+		if (CollectionUtils.isNotEmpty(years)) {
+			extendFilterBuilderWithDateElement(
+				filterBuilder,
+				filterBuilderParameters,
+				"YEAR",
+				tableName,
+				fieldName,
+				years,
+				dateValue -> (dateValue.getValue()));
+		}
+		if (CollectionUtils.isNotEmpty(quarters)) {
+			extendFilterBuilderWithDateElement(
+				filterBuilder,
+				filterBuilderParameters,
+				"QUARTER",
+				tableName,
+				fieldName,
+				quarters,
+				dateValue -> (dateValue.getValue()));
+		}
+		if (CollectionUtils.isNotEmpty(months)) {
+			extendFilterBuilderWithDateElement(
+				filterBuilder,
+				filterBuilderParameters,
+				"MONTH",
+				tableName,
+				fieldName,
+				months,
+				dateValue -> (dateValue.ordinal() + 1));
+		}
+		if (CollectionUtils.isNotEmpty(epiWeeks)) {
+			extendFilterBuilderWithEpiWeek(filterBuilder, filterBuilderParameters, tableName, fieldName, epiWeeks, value -> value.getWeek());
+		}
+		if (CollectionUtils.isNotEmpty(quartersOfYear)) {
+			extendFilterBuilderWithQuarterOfYear(
+				filterBuilder,
+				filterBuilderParameters,
+				tableName,
+				fieldName,
+				quartersOfYear,
+				value -> value.getYear().getValue() * 10 + value.getQuarter().getValue());
+		}
+		if (CollectionUtils.isNotEmpty(monthsOfYear)) {
+			extendFilterBuilderWithMonthOfYear(
+				filterBuilder,
+				filterBuilderParameters,
+				tableName,
+				fieldName,
+				monthsOfYear,
+				value -> value.getYear().getValue() * 100 + (value.getMonth().ordinal() + 1));
+		}
+		if (CollectionUtils.isNotEmpty(epiWeeksOfYear)) {
+			extendFilterBuilderWithEpiWeekOfYear(
+				filterBuilder,
+				filterBuilderParameters,
+				tableName,
+				fieldName,
+				epiWeeksOfYear,
+				value -> value.getYear() * 100 + value.getWeek());
+		}
+	}
+
 	private void extendFilterBuilderWithLike(StringBuilder filterBuilder, String tableName, String fieldName, String filterValue) {
 
 		if (filterBuilder.length() > 0) {
@@ -1424,88 +1414,16 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		case AGE_INTERVAL_CHILDREN_FINE:
 		case AGE_INTERVAL_CHILDREN_MEDIUM:
 		case AGE_INTERVAL_BASIC:
-			extendGroupingBuilderWithAgeInterval(groupingSelectPartBuilder, grouping, groupAlias);
+			extendGroupingBuilderWithAgeInterval(groupingSelectPartBuilder, grouping, Case.TABLE_NAME + "." + Case.CASE_AGE, groupAlias);
 			break;
 		case ONSET_TIME:
-			switch (subGrouping) {
-			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
-				break;
-			default:
-				throw new IllegalArgumentException(subGrouping.toString());
-			}
+			extendGroupingBuilderWithTime(groupingSelectPartBuilder, subGrouping, Symptoms.TABLE_NAME, Symptoms.ONSET_DATE, groupAlias);
 			break;
 		case REPORT_TIME:
-			switch (subGrouping) {
-			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
-				break;
-			default:
-				throw new IllegalArgumentException(subGrouping.toString());
-			}
+			extendGroupingBuilderWithTime(groupingSelectPartBuilder, subGrouping, Case.TABLE_NAME, Case.REPORT_DATE, groupAlias);
 			break;
 		case OUTCOME_TIME:
-			switch (subGrouping) {
-			case YEAR:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "YEAR", Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			case QUARTER:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "QUARTER", Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			case MONTH:
-				extendGroupingBuilderWithDate(groupingSelectPartBuilder, "MONTH", Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			case EPI_WEEK:
-				extendGroupingBuilderWithEpiWeek(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			case QUARTER_OF_YEAR:
-				extendGroupingBuilderWithQuarterOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			case MONTH_OF_YEAR:
-				extendGroupingBuilderWithMonthOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			case EPI_WEEK_OF_YEAR:
-				extendGroupingBuilderWithEpiWeekOfYear(groupingSelectPartBuilder, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
-				break;
-			default:
-				throw new IllegalArgumentException(subGrouping.toString());
-			}
+			extendGroupingBuilderWithTime(groupingSelectPartBuilder, subGrouping, Case.TABLE_NAME, Case.OUTCOME_DATE, groupAlias);
 			break;
 		case REPORTING_USER_ROLE:
 			groupingSelectPartBuilder.append(User.TABLE_NAME_USERROLES)
@@ -1520,6 +1438,102 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 		return groupingSelectPartBuilder.toString();
 	}
 
+	private String buildCubeGroupingSelectQuery(StatisticsCaseAttribute grouping, StatisticsCaseSubAttribute subGrouping, String groupAlias) {
+
+		String cubeTable = CaseStatisticsCubeService.CUBE_TABLE_NAME;
+		StringBuilder groupingSelectPartBuilder = new StringBuilder();
+		switch (grouping) {
+		case SEX:
+			groupingSelectPartBuilder.append(cubeTable).append(".").append(CaseStatisticsCubeService.SEX).append(" AS ").append(groupAlias);
+			break;
+		case DISEASE:
+			groupingSelectPartBuilder.append(cubeTable).append(".").append(CaseStatisticsCubeService.DISEASE).append(" AS ").append(groupAlias);
+			break;
+		case CLASSIFICATION:
+			groupingSelectPartBuilder.append(cubeTable)
+				.append(".")
+				.append(CaseStatisticsCubeService.CASE_CLASSIFICATION)
+				.append(" AS ")
+				.append(groupAlias);
+			break;
+		case OUTCOME:
+			groupingSelectPartBuilder.append(cubeTable).append(".").append(CaseStatisticsCubeService.OUTCOME).append(" AS ").append(groupAlias);
+			break;
+		case JURISDICTION: {
+			switch (subGrouping) {
+			case REGION:
+				groupingSelectPartBuilder.append(cubeTable).append(".").append(CaseStatisticsCubeService.REGION_ID).append(" AS ").append(groupAlias);
+				break;
+			case DISTRICT:
+				groupingSelectPartBuilder.append(cubeTable)
+					.append(".")
+					.append(CaseStatisticsCubeService.DISTRICT_ID)
+					.append(" AS ")
+					.append(groupAlias);
+				break;
+			default:
+				throw new IllegalArgumentException(subGrouping.toString());
+			}
+			break;
+		}
+		case AGE_INTERVAL_1_YEAR:
+		case AGE_INTERVAL_5_YEARS:
+		case AGE_INTERVAL_CHILDREN_COARSE:
+		case AGE_INTERVAL_CHILDREN_FINE:
+		case AGE_INTERVAL_CHILDREN_MEDIUM:
+		case AGE_INTERVAL_BASIC:
+			extendGroupingBuilderWithAgeInterval(
+				groupingSelectPartBuilder,
+				grouping,
+				cubeTable + "." + CaseStatisticsCubeService.CASE_AGE,
+				groupAlias);
+			break;
+		case ONSET_TIME:
+			extendGroupingBuilderWithTime(groupingSelectPartBuilder, subGrouping, cubeTable, CaseStatisticsCubeService.ONSET_PERIOD_START, groupAlias);
+			break;
+		case REPORT_TIME:
+			extendGroupingBuilderWithTime(groupingSelectPartBuilder, subGrouping, cubeTable, CaseStatisticsCubeService.REPORT_PERIOD_START, groupAlias);
+			break;
+		default:
+			throw new IllegalArgumentException(grouping.toString());
+		}
+		return groupingSelectPartBuilder.toString();
+	}
+
+	private void extendGroupingBuilderWithTime(
+		StringBuilder groupingBuilder,
+		StatisticsCaseSubAttribute subGrouping,
+		String tableName,
+		String fieldName,
+		String groupAlias) {
+
+		switch (subGrouping) {
+		case YEAR:
+			extendGroupingBuilderWithDate(groupingBuilder, "YEAR", tableName, fieldName, groupAlias);
+			break;
+		case QUARTER:
+			extendGroupingBuilderWithDate(groupingBuilder, "QUARTER", tableName, fieldName, groupAlias);
+			break;
+		case MONTH:
+			extendGroupingBuilderWithDate(groupingBuilder, "MONTH", tableName, fieldName, groupAlias);
+			break;
+		case EPI_WEEK:
+			extendGroupingBuilderWithEpiWeek(groupingBuilder, tableName, fieldName, groupAlias);
+			break;
+		case QUARTER_OF_YEAR:
+			extendGroupingBuilderWithQuarterOfYear(groupingBuilder, tableName, fieldName, groupAlias);
+			break;
+		case MONTH_OF_YEAR:
+			extendGroupingBuilderWithMonthOfYear(groupingBuilder, tableName, fieldName, groupAlias);
+			break;
+		case EPI_WEEK_OF_YEAR:
+			extendGroupingBuilderWithEpiWeekOfYear(groupingBuilder, tableName, fieldName, groupAlias);
+			break;
+		default:
+			throw new IllegalArgumentException(subGrouping.toString());
+		}
+	}
+
 	private void extendGroupingBuilderWithDate(
 		StringBuilder groupingBuilder,
 		String dateToExtract,
@@ -1584,16 +1598,18 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			.append(groupAlias);
 	}
 
-	private void extendGroupingBuilderWithAgeInterval(StringBuilder groupingBuilder, StatisticsCaseAttribute grouping, String groupAlias) {
+	private void extendGroupingBuilderWithAgeInterval(
+		StringBuilder groupingBuilder,
+		StatisticsCaseAttribute grouping,
+		String ageColumn,
+		String groupAlias) {
 
 		groupingBuilder.append("CASE ");
 		switch (grouping) {
 		case AGE_INTERVAL_1_YEAR:
 			for (int i = 0; i < 80; i++) {
 				groupingBuilder.append("WHEN ")
-					.append(Case.TABLE_NAME)
-					.append(".")
-					.append(Case.CASE_AGE)
+					.append(ageColumn)
 					.append(" = ")
 					.append(i < 10 ? "0" + i : i)
 					.append(" THEN ")
@@ -1604,24 +1620,22 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			break;
 		case AGE_INTERVAL_5_YEARS:
 			for (AgeGroup ageGroup : AgeGroup.values()) {
-				addAgeGroupToStringBuilder(groupingBuilder, ageGroup);
+				addAgeGroupToStringBuilder(groupingBuilder, ageColumn, ageGroup);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_COARSE:
-			addAgeIntervalToStringBuilder(groupingBuilder, 0, 14);
+			addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, 0, 14);
 			for (int i = 15; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_FINE:
 			for (int i = 0; i < 5; i++) {
 				groupingBuilder.append("WHEN ")
-					.append(Case.TABLE_NAME)
-					.append(".")
-					.append(Case.CASE_AGE)
+					.append(ageColumn)
 					.append(" = ")
 					.append(i)
 					.append(" THEN ")
@@ -1632,44 +1646,42 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 					.append("' ");
 			}
 			for (int i = 5; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_CHILDREN_MEDIUM:
 			for (int i = 0; i < 30; i += 5) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 4);
+				addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, i, 4);
 			}
 			for (int i = 30; i < 80; i += 10) {
-				addAgeIntervalToStringBuilder(groupingBuilder, i, 9);
+				addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, i, 9);
 			}
 			break;
 		case AGE_INTERVAL_BASIC:
-			addAgeIntervalToStringBuilder(groupingBuilder, 0, 0);
-			addAgeIntervalToStringBuilder(groupingBuilder, 1, 3);
-			addAgeIntervalToStringBuilder(groupingBuilder, 5, 9);
-			groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" >= 15 THEN '15+' ");
+			addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, 0, 0);
+			addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, 1, 3);
+			addAgeIntervalToStringBuilder(groupingBuilder, ageColumn, 5, 9);
+			groupingBuilder.append("WHEN ").append(ageColumn).append(" >= 15 THEN '15+' ");
 			break;
 		default:
 			throw new IllegalArgumentException(grouping.toString());
 		}
 
 		if (grouping != StatisticsCaseAttribute.AGE_INTERVAL_BASIC && grouping != StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS) {
-			groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE).append(" >= 80 THEN '80+' ");
+			groupingBuilder.append("WHEN ").append(ageColumn).append(" >= 80 THEN '80+' ");
 		}
 		groupingBuilder.append("ELSE NULL END AS " + groupAlias);
 	}
 
-	private void addAgeIntervalToStringBuilder(StringBuilder groupingBuilder, int number, int increase) {
+	private void addAgeIntervalToStringBuilder(StringBuilder groupingBuilder, String ageColumn, int number, int increase) {
 
 		String lowerNumberString = number < 10 ? "0" + number : String.valueOf(number);
 		String higherNumberString = number + increase < 10 ? "0" + (number + increase) : String.valueOf(number + increase);
 		groupingBuilder.append("WHEN ")
-			.append(Case.TABLE_NAME)
-			.append(".")
-			.append(Case.CASE_AGE)
+			.append(ageColumn)
 			.append(" BETWEEN ")
 			.append(number)
 			.append(" AND ")
@@ -1681,10 +1693,10 @@ public class CaseStatisticsFacadeEjb implements CaseStatisticsFacade {
 			.append("' ");
 	}
 
-	private void addAgeGroupToStringBuilder(StringBuilder groupingBuilder, AgeGroup ageGroup) {
+	private void addAgeGroupToStringBuilder(StringBuilder groupingBuilder, String ageColumn, AgeGroup ageGroup) {
 
 		IntegerRange ageRange = ageGroup.toIntegerRange();
-		groupingBuilder.append("WHEN ").append(Case.TABLE_NAME).append(".").append(Case.CASE_AGE);
+		groupingBuilder.append("WHEN ").append(ageColumn);
 		if (ageRange.getTo() == null) {
 			groupingBuilder.append(" >= ").append(ageRange.getFrom());
 		} else {
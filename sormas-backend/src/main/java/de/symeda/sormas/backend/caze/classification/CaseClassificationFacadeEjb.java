@@ -19,15 +19,25 @@ package de.symeda.sormas.backend.caze.classification;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 
 import de.symeda.sormas.api.CountryHelper;
 import de.symeda.sormas.api.Disease;
@@ -57,23 +67,33 @@ import de.symeda.sormas.api.caze.classification.ClassificationXOfCriteriaDto.Cla
 import de.symeda.sormas.api.caze.classification.ClassificationXOfCriteriaDto.ClassificationXOfSubCriteriaDto;
 import de.symeda.sormas.api.caze.classification.DiseaseClassificationCriteriaDto;
 import de.symeda.sormas.api.epidata.EpiDataDto;
-import de.symeda.sormas.api.event.EventDto;
 import de.symeda.sormas.api.exposure.ExposureDto;
 import de.symeda.sormas.api.exposure.ExposureType;
 import de.symeda.sormas.api.exposure.TypeOfAnimal;
-import de.symeda.sormas.api.person.PersonDto;
 import de.symeda.sormas.api.sample.PathogenTestDto;
 import de.symeda.sormas.api.sample.PathogenTestType;
 import de.symeda.sormas.api.symptoms.SymptomState;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.api.utils.YesNoUnknown;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.caze.classification.ClassificationCriteriaCompiler.EvaluationCost;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.epidata.EpiData;
+import de.symeda.sormas.backend.epidata.EpiDataFacadeEjb;
+import de.symeda.sormas.backend.epidata.EpiDataService;
+import de.symeda.sormas.backend.event.Event;
 import de.symeda.sormas.backend.event.EventFacadeEjb;
 import de.symeda.sormas.backend.event.EventService;
+import de.symeda.sormas.backend.exposure.Exposure;
+import de.symeda.sormas.backend.person.PersonFacadeEjb;
 import de.symeda.sormas.backend.person.PersonFacadeEjb.PersonFacadeEjbLocal;
+import de.symeda.sormas.backend.sample.PathogenTest;
 import de.symeda.sormas.backend.sample.PathogenTestFacadeEjb;
 import de.symeda.sormas.backend.sample.PathogenTestService;
+import de.symeda.sormas.backend.symptoms.SymptomsFacadeEjb;
+import de.symeda.sormas.backend.util.DtoHelper;
 
 /**
  * Stateless instead of Singleton. It's ok to have multiple instances with an
@@ -92,47 +112,210 @@ public class CaseClassificationFacadeEjb implements CaseClassificationFacade {
 	private ConfigFacadeEjbLocal configFacade;
 	@EJB
 	private EventService eventService;
+	@EJB
+	private CaseService caseService;
+	@EJB
+	private EpiDataService epiDataService;
+	@Resource
+	private ManagedExecutorService executorService;
+
+	/** upper bound of threads used to classify a chunk of cases, see {@link #reclassifyCaseChunk} */
+	private static final int MAX_RECLASSIFICATION_THREADS = 4;
 
 	/** local cache */
 	private final Map<Disease, DiseaseClassificationCriteriaDto> criteriaMap = new HashMap<>();
+	/** compiled form of the criteria in {@link #criteriaMap}, built on first use */
+	private final Map<Disease, CompiledDiseaseClassificationCriteria> compiledCriteriaMap = new EnumMap<>(Disease.class);
 
 	@Override
 	public CaseClassification getClassification(CaseDataDto caze) {
 
+		CompiledDiseaseClassificationCriteria criteria = getCompiledCriteria(caze.getDisease());
+		if (criteria == null) {
+			return CaseClassification.NOT_CLASSIFIED;
+		}
+
+		// person, pathogen tests and events are only loaded if a criteria that is evaluated needs them
+		ClassificationEvaluationContext context = new ClassificationEvaluationContext(
+			caze,
+			() -> personFacade.getPersonByUuid(caze.getPerson().getUuid()),
+			() -> pathogenTestService.getAllByCase(caze.getUuid())
+				.stream()
+				.map(PathogenTestFacadeEjb.PathogenTestFacadeEjbLocal::toDto)
+				.collect(Collectors.toList()),
+			() -> eventService.getAllByCase(caze.getUuid()).stream().map(EventFacadeEjb::toDto).collect(Collectors.toList()));
+
+		return criteria.classify(context, configFacade.isConfiguredCountry(CountryHelper.COUNTRY_CODE_GERMANY));
+	}
+
+	private CompiledDiseaseClassificationCriteria getCompiledCriteria(Disease disease) {
+
 		if (criteriaMap.isEmpty()) {
 			buildCriteria();
 		}
 
-		PersonDto person = personFacade.getPersonByUuid(caze.getPerson().getUuid());
-		List<PathogenTestDto> pathogenTests = pathogenTestService.getAllByCase(caze.getUuid())
-			.stream()
-			.map(PathogenTestFacadeEjb.PathogenTestFacadeEjbLocal::toDto)
-			.collect(Collectors.toList());
-
-		List<EventDto> caseEvents = eventService.getAllByCase(caze.getUuid()).stream().map(EventFacadeEjb::toDto).collect(Collectors.toList());
-
-		DiseaseClassificationCriteriaDto criteria = criteriaMap.get(caze.getDisease());
-
-		if (criteria != null) {
-			if (criteria.getConfirmedCriteria() != null && criteria.getConfirmedCriteria().eval(caze, person, pathogenTests, caseEvents)) {
-				return CaseClassification.CONFIRMED;
-			} else if (criteria.getNotACaseCriteria() != null && criteria.getNotACaseCriteria().eval(caze, person, pathogenTests, caseEvents)) {
-				return CaseClassification.NO_CASE;
-			} else if (criteria.getProbableCriteria() != null && criteria.getProbableCriteria().eval(caze, person, pathogenTests, caseEvents)) {
-				return CaseClassification.PROBABLE;
-			} else if (criteria.getSuspectCriteria() != null && criteria.getSuspectCriteria().eval(caze, person, pathogenTests, caseEvents)) {
-				return CaseClassification.SUSPECT;
-			} else if (configFacade.isConfiguredCountry(CountryHelper.COUNTRY_CODE_GERMANY)) {
-				if (criteria.getConfirmedNoSymptomsCriteria() != null
-					&& criteria.getConfirmedNoSymptomsCriteria().eval(caze, person, pathogenTests, caseEvents)) {
-					return CaseClassification.CONFIRMED_NO_SYMPTOMS;
-				} else if (criteria.getConfirmedUnknownSymptomsCriteria() != null
-					&& criteria.getConfirmedUnknownSymptomsCriteria().eval(caze, person, pathogenTests, caseEvents)) {
-					return CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS;
+		DiseaseClassificationCriteriaDto criteria = criteriaMap.get(disease);
+		if (criteria == null) {
+			return null;
+		}
+
+		return compiledCriteriaMap.computeIfAbsent(disease, d -> ClassificationCriteriaCompiler.compile(criteria));
+	}
+
+	public long countCasesForReclassification(Disease disease) {
+		return caseService.countForReclassification(disease);
+	}
+
+	/**
+	 * Re-classifies the next chunk of cases of the disease, in id order after the case with the id {@code afterCaseId}.
+	 * Exposures are loaded for the whole chunk at once, persons, pathogen tests and events as well, but only if the
+	 * criteria of the disease need them. The cases are then classified in parallel and only changed classifications are written back,
+	 * grouped by the new classification.
+	 * Unlike {@link de.symeda.sormas.backend.caze.CaseFacadeEjb#onCaseChanged}, no notifications are sent.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public ReclassificationChunkResult reclassifyCaseChunk(Disease disease, Long afterCaseId, int chunkSize) {
+
+		List<Case> cases = caseService.getForReclassification(disease, afterCaseId, chunkSize);
+		CompiledDiseaseClassificationCriteria criteria = getCompiledCriteria(disease);
+		if (cases.isEmpty() || criteria == null) {
+			return new ReclassificationChunkResult(null, cases.size(), 0);
+		}
+
+		List<Long> caseIds = cases.stream().map(Case::getId).collect(Collectors.toList());
+		Map<Long, List<Exposure>> exposures = epiDataService.getExposuresByEpiDataIds(
+			cases.stream().map(Case::getEpiData).filter(Objects::nonNull).map(EpiData::getId).collect(Collectors.toList()));
+		Set<EvaluationCost> requiredData = criteria.getRequiredData();
+		Map<Long, List<PathogenTest>> pathogenTests =
+			requiredData.contains(EvaluationCost.PATHOGEN_TESTS) ? pathogenTestService.getAllByCaseIds(caseIds) : Collections.emptyMap();
+		Map<Long, List<Event>> events =
+			requiredData.contains(EvaluationCost.EVENTS) ? eventService.getAllByCaseIds(caseIds) : Collections.emptyMap();
+
+		// only DTOs are handed to the worker threads, entities must not leave the transaction
+		List<ClassificationEvaluationContext> contexts = new ArrayList<>(cases.size());
+		for (Case caze : cases) {
+			contexts.add(
+				new ClassificationEvaluationContext(
+					toClassificationDto(caze, exposures),
+					requiredData.contains(EvaluationCost.PERSON) ? PersonFacadeEjb.toDto(caze.getPerson()) : null,
+					pathogenTests.getOrDefault(caze.getId(), Collections.emptyList())
+						.stream()
+						.map(PathogenTestFacadeEjb.PathogenTestFacadeEjbLocal::toDto)
+						.collect(Collectors.toList()),
+					events.getOrDefault(caze.getId(), Collections.emptyList()).stream().map(EventFacadeEjb::toDto).collect(Collectors.toList())));
+		}
+
+		CaseClassification[] classifications =
+			classifyInParallel(criteria, contexts, configFacade.isConfiguredCountry(CountryHelper.COUNTRY_CODE_GERMANY));
+
+		// only update when classification by system changes - user may overwrite this
+		Map<CaseClassification, List<Long>> systemClassificationChanged = new EnumMap<>(CaseClassification.class);
+		Map<CaseClassification, List<Long>> classificationChanged = new EnumMap<>(CaseClassification.class);
+		for (int i = 0; i < cases.size(); i++) {
+			Case caze = cases.get(i);
+			CaseClassification classification = classifications[i];
+			if (classification != caze.getSystemCaseClassification()) {
+				(classification != caze.getCaseClassification() ? classificationChanged : systemClassificationChanged)
+					.computeIfAbsent(classification, c -> new ArrayList<>())
+					.add(caze.getId());
+			}
+		}
+
+		systemClassificationChanged.forEach((classification, ids) -> caseService.updateClassification(ids, classification, false));
+		classificationChanged.forEach((classification, ids) -> caseService.updateClassification(ids, classification, true));
+
+		int changedCount = classificationChanged.values().stream().mapToInt(List::size).sum();
+		return new ReclassificationChunkResult(caseIds.get(caseIds.size() - 1), cases.size(), changedCount);
+	}
+
+	/**
+	 * Converts the case with only the data the classification criteria can evaluate, so that no further associations
+	 * of the case are loaded one by one. The symptoms and epi data are fetched with the case, the exposures are passed
+	 * in by the id of the epi data.
+	 */
+	private static CaseDataDto toClassificationDto(Case source, Map<Long, List<Exposure>> exposures) {
+
+		CaseDataDto target = new CaseDataDto();
+		DtoHelper.fillDto(target, source);
+
+		target.setDisease(source.getDisease());
+		target.setDiseaseDetails(source.getDiseaseDetails());
+		target.setPlagueType(source.getPlagueType());
+		target.setDengueFeverType(source.getDengueFeverType());
+		target.setRabiesType(source.getRabiesType());
+		target.setCaseClassification(source.getCaseClassification());
+		target.setClinicalConfirmation(source.getClinicalConfirmation());
+		target.setEpidemiologicalConfirmation(source.getEpidemiologicalConfirmation());
+		target.setLaboratoryDiagnosticConfirmation(source.getLaboratoryDiagnosticConfirmation());
+		target.setPerson(PersonFacadeEjb.toReferenceDto(source.getPerson()));
+		target.setReportDate(source.getReportDate());
+		target.setOutcome(source.getOutcome());
+		target.setOutcomeDate(source.getOutcomeDate());
+		target.setVaccination(source.getVaccination());
+		target.setLastVaccinationDate(source.getLastVaccinationDate());
+		target.setSymptoms(SymptomsFacadeEjb.toDto(source.getSymptoms()));
+
+		EpiData epiData = source.getEpiData();
+		if (epiData != null) {
+			EpiDataDto epiDataDto = new EpiDataDto();
+			DtoHelper.fillDto(epiDataDto, epiData);
+			epiDataDto.setExposureDetailsKnown(epiData.getExposureDetailsKnown());
+			epiDataDto.setContactWithSourceCaseKnown(epiData.getContactWithSourceCaseKnown());
+			epiDataDto.setHighTransmissionRiskArea(epiData.getHighTransmissionRiskArea());
+			epiDataDto.setLargeOutbreaksArea(epiData.getLargeOutbreaksArea());
+			epiDataDto.setAreaInfectedAnimals(epiData.getAreaInfectedAnimals());
+			epiDataDto.setExposures(
+				exposures.getOrDefault(epiData.getId(), Collections.emptyList())
+					.stream()
+					.map(EpiDataFacadeEjb::toExposureDto)
+					.collect(Collectors.toList()));
+			target.setEpiData(epiDataDto);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Splits the contexts into one slice per worker and classifies the slices on the managed executor.
+	 */
+	private CaseClassification[] classifyInParallel(
+		CompiledDiseaseClassificationCriteria criteria,
+		List<ClassificationEvaluationContext> contexts,
+		boolean withoutSymptomsClassifications) {
+
+		CaseClassification[] classifications = new CaseClassification[contexts.size()];
+		int parallelism = Math.min(Runtime.getRuntime().availableProcessors(), MAX_RECLASSIFICATION_THREADS);
+		int sliceSize = (contexts.size() + parallelism - 1) / parallelism;
+
+		List<Future<?>> slices = new ArrayList<>();
+		for (int start = 0; start < contexts.size(); start += sliceSize) {
+			int sliceStart = start;
+			int sliceEnd = Math.min(start + sliceSize, contexts.size());
+			Runnable slice = () -> {
+				for (int i = sliceStart; i < sliceEnd; i++) {
+					classifications[i] = criteria.classify(contexts.get(i), withoutSymptomsClassifications);
 				}
+			};
+
+			if (executorService != null && parallelism > 1) {
+				slices.add(executorService.submit(slice));
+			} else {
+				slice.run();
 			}
 		}
-		return CaseClassification.NOT_CLASSIFIED;
+
+		try {
+			for (Future<?> slice : slices) {
+				slice.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+
+		return classifications;
 	}
 
 	@Override
@@ -164,6 +347,8 @@ public class CaseClassificationFacadeEjb implements CaseClassificationFacade {
 
 	private void buildCriteria() {
 
+		compiledCriteriaMap.clear();
+
 		ClassificationCriteriaDto suspect;
 		ClassificationCriteriaDto probable;
 		ClassificationCriteriaDto confirmed;
@@ -519,6 +704,7 @@ public class CaseClassificationFacadeEjb implements CaseClassificationFacade {
 		DiseaseClassificationCriteriaDto criteria =
 			new DiseaseClassificationCriteriaDto(disease, changeDate, suspect, probable, confirmed, null, null, notACase);
 		criteriaMap.put(disease, criteria);
+		compiledCriteriaMap.remove(disease);
 	}
 
 	private void addCriteria(
@@ -541,6 +727,7 @@ public class CaseClassificationFacadeEjb implements CaseClassificationFacade {
 			confirmedUnknownSymptoms,
 			notACase);
 		criteriaMap.put(disease, criteria);
+		compiledCriteriaMap.remove(disease);
 	}
 
 	private ClassificationAllOfCriteriaDto allOf(ClassificationCriteriaDto... criteria) {
@@ -619,6 +806,34 @@ public class CaseClassificationFacadeEjb implements CaseClassificationFacade {
 		return new ClassificationEventClusterCriteriaDto();
 	}
 
+	public static class ReclassificationChunkResult {
+
+		private final Long lastCaseId;
+		private final int processedCount;
+		private final int changedCount;
+
+		public ReclassificationChunkResult(Long lastCaseId, int processedCount, int changedCount) {
+			this.lastCaseId = lastCaseId;
+			this.processedCount = processedCount;
+			this.changedCount = changedCount;
+		}
+
+		/**
+		 * @return The id to continue the next chunk after, {@code null} if there are no more cases.
+		 */
+		public Long getLastCaseId() {
+			return lastCaseId;
+		}
+
+		public int getProcessedCount() {
+			return processedCount;
+		}
+
+		public int getChangedCount() {
+			return changedCount;
+		}
+	}
+
 	@LocalBean
 	@Stateless
 	public static class CaseClassificationFacadeEjbLocal extends CaseClassificationFacadeEjb {
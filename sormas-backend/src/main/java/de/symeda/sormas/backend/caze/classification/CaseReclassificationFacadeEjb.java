@@ -0,0 +1,61 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze.classification;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.classification.CaseReclassificationFacade;
+import de.symeda.sormas.api.caze.classification.CaseReclassificationProgressDto;
+import de.symeda.sormas.api.user.UserRight;
+import de.symeda.sormas.backend.user.UserService;
+
+@Stateless(name = "CaseReclassificationFacade")
+public class CaseReclassificationFacadeEjb implements CaseReclassificationFacade {
+
+	@EJB
+	private CaseReclassificationJob reclassificationJob;
+	@EJB
+	private UserService userService;
+
+	@Override
+	public boolean reclassifyCases(Disease disease) {
+
+		if (!userService.hasRight(UserRight.CASE_RECLASSIFY)) {
+			throw new UnsupportedOperationException("User " + userService.getCurrentUser().getUuid() + " is not allowed to re-classify cases");
+		}
+
+		if (!reclassificationJob.prepare(disease)) {
+			return false;
+		}
+
+		reclassificationJob.reclassify(disease);
+		return true;
+	}
+
+	@Override
+	public CaseReclassificationProgressDto getProgress(Disease disease) {
+		return reclassificationJob.getProgress(disease);
+	}
+
+	@LocalBean
+	@Stateless
+	public static class CaseReclassificationFacadeEjbLocal extends CaseReclassificationFacadeEjb {
+
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze.classification;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.ejb.Asynchronous;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.classification.CaseReclassificationProgressDto;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.api.systemevents.SystemEventType;
+import de.symeda.sormas.backend.caze.classification.CaseClassificationFacadeEjb.CaseClassificationFacadeEjbLocal;
+import de.symeda.sormas.backend.caze.classification.CaseClassificationFacadeEjb.ReclassificationChunkResult;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
+
+/**
+ * Runs the re-classification of all cases of a disease in the background. Cases are processed in chunks, each in its own
+ * transaction, so a failure only rolls back the current chunk. Only one re-classification runs at a time.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class CaseReclassificationJob {
+
+	private static final int CHUNK_SIZE = 1000;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** the last published progress per disease, replaced after each chunk */
+	private final Map<Disease, CaseReclassificationProgressDto> progressByDisease = new ConcurrentHashMap<>();
+
+	@EJB
+	private CaseClassificationFacadeEjbLocal caseClassificationFacade;
+	@EJB
+	private SystemEventFacadeEjbLocal systemEventFacade;
+
+	/**
+	 * Registers a new re-classification of the disease, to be started with {@link #reclassify(Disease)}.
+	 * 
+	 * @return {@code false} if a re-classification of any disease is already running.
+	 */
+	public synchronized boolean prepare(Disease disease) {
+
+		if (progressByDisease.values().stream().anyMatch(CaseReclassificationProgressDto::isRunning)) {
+			return false;
+		}
+
+		long totalCount = caseClassificationFacade.countCasesForReclassification(disease);
+		progressByDisease.put(disease, new CaseReclassificationProgressDto(disease, totalCount, new Date()));
+		return true;
+	}
+
+	@Asynchronous
+	public void reclassify(Disease disease) {
+
+		CaseReclassificationProgressDto progress = progressByDisease.get(disease);
+
+		systemEventFacade.markPreviouslyStartedAsUnclear(SystemEventType.CASE_RECLASSIFICATION);
+		SystemEventDto systemEvent = SystemEventDto.build();
+		systemEvent.setType(SystemEventType.CASE_RECLASSIFICATION);
+		systemEvent.setStatus(SystemEventStatus.STARTED);
+		systemEvent.setStartDate(progress.getStartDate());
+		systemEventFacade.saveSystemEvent(systemEvent);
+
+		logger.info("Starting re-classification of {} {} cases", progress.getTotalCount(), disease);
+
+		Long lastCaseId = null;
+		long processedCount = 0;
+		long changedCount = 0;
+		try {
+			ReclassificationChunkResult chunk;
+			do {
+				chunk = caseClassificationFacade.reclassifyCaseChunk(disease, lastCaseId, CHUNK_SIZE);
+				lastCaseId = chunk.getLastCaseId();
+				processedCount += chunk.getProcessedCount();
+				changedCount += chunk.getChangedCount();
+
+				progress = publishProgress(progress, SystemEventStatus.STARTED, processedCount, changedCount);
+				logger.info(
+					"Re-classified {} of {} {} cases, {} changed ({} cases/s)",
+					processedCount,
+					progress.getTotalCount(),
+					disease,
+					changedCount,
+					Math.round(progress.getCasesPerSecond()));
+			}
+			while (lastCaseId != null && chunk.getProcessedCount() == CHUNK_SIZE);
+
+			progress = publishProgress(progress, SystemEventStatus.SUCCESS, processedCount, changedCount);
+			String message = String.format(
+				"Re-classified %d %s cases, %d changed (%.1f cases/s)",
+				processedCount,
+				disease,
+				changedCount,
+				progress.getCasesPerSecond());
+			logger.info(message);
+			systemEventFacade.reportSuccess(systemEvent, message, progress.getEndDate());
+		} catch (RuntimeException e) {
+			progress = publishProgress(progress, SystemEventStatus.ERROR, processedCount, changedCount);
+			logger.error("Re-classification of " + disease + " cases failed after " + processedCount + " cases", e);
+			systemEventFacade.reportError(systemEvent, e.getMessage(), progress.getEndDate());
+		}
+	}
+
+	public CaseReclassificationProgressDto getProgress(Disease disease) {
+		return progressByDisease.get(disease);
+	}
+
+	private CaseReclassificationProgressDto publishProgress(
+		CaseReclassificationProgressDto previous,
+		SystemEventStatus status,
+		long processedCount,
+		long changedCount) {
+
+		CaseReclassificationProgressDto progress =
+			new CaseReclassificationProgressDto(previous.getDisease(), previous.getTotalCount(), previous.getStartDate());
+		progress.setStatus(status);
+		progress.setProcessedCount(processedCount);
+		progress.setChangedCount(changedCount);
+		if (status != SystemEventStatus.STARTED) {
+			progress.setEndDate(new Date());
+		}
+
+		progressByDisease.put(progress.getDisease(), progress);
+		return progress;
+	}
+}
@@ -0,0 +1,608 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze.classification;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseLogic;
+import de.symeda.sormas.api.caze.classification.ClassificationAllOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationAllSymptomsCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCaseCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationEpiDataCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationEventClusterCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationExposureCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationNoneOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationNotInStartDateRangeCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPathogenTestCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPathogenTestNegativeResultCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPathogenTestOtherPositiveResultCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPathogenTestPositiveResultCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPersonAgeBetweenYearsCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationSymptomsCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationXOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.DiseaseClassificationCriteriaDto;
+import de.symeda.sormas.api.epidata.EpiDataDto;
+import de.symeda.sormas.api.event.EventDto;
+import de.symeda.sormas.api.event.EventStatus;
+import de.symeda.sormas.api.exposure.ExposureDto;
+import de.symeda.sormas.api.exposure.ExposureType;
+import de.symeda.sormas.api.person.ApproximateAgeType.ApproximateAgeHelper;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.sample.PathogenTestDto;
+import de.symeda.sormas.api.sample.PathogenTestResultType;
+import de.symeda.sormas.api.sample.PathogenTestType;
+import de.symeda.sormas.api.symptoms.SymptomState;
+import de.symeda.sormas.api.symptoms.SymptomsDto;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.YesNoUnknown;
+import de.symeda.sormas.api.utils.fieldvisibility.FieldVisibilityCheckers;
+
+/**
+ * Turns the {@link ClassificationCriteriaDto} trees of a {@link DiseaseClassificationCriteriaDto} into trees of
+ * {@link ClassificationEvaluator}s. All property getters are resolved once into method handles, and the sub criteria of
+ * collective criteria are ordered so that criteria only depending on the case itself are evaluated before those that
+ * need pathogen tests, events or the person. Because the result of a collective criteria does not depend on the order of
+ * its sub criteria, the compiled tree classifies exactly like {@link ClassificationCriteriaDto#eval}.
+ */
+public final class ClassificationCriteriaCompiler {
+
+	private ClassificationCriteriaCompiler() {
+		// Hide Utility Class Constructor
+	}
+
+	public static CompiledDiseaseClassificationCriteria compile(DiseaseClassificationCriteriaDto criteria) {
+
+		return new CompiledDiseaseClassificationCriteria(
+			criteria.getDisease(),
+			compile(criteria.getSuspectCriteria()),
+			compile(criteria.getProbableCriteria()),
+			compile(criteria.getConfirmedCriteria()),
+			compile(criteria.getConfirmedNoSymptomsCriteria()),
+			compile(criteria.getConfirmedUnknownSymptomsCriteria()),
+			compile(criteria.getNotACaseCriteria()));
+	}
+
+	/**
+	 * @return The compiled criteria or {@code null} if {@code criteria} is {@code null}.
+	 */
+	public static ClassificationEvaluator compile(ClassificationCriteriaDto criteria) {
+
+		if (criteria == null) {
+			return null;
+		}
+
+		// collective criteria (including their compact and sub variants)
+		if (criteria instanceof ClassificationAllOfCriteriaDto) {
+			return new AllOfEvaluator(compileSubCriteria(((ClassificationAllOfCriteriaDto) criteria).getSubCriteria()));
+		}
+		if (criteria instanceof ClassificationXOfCriteriaDto) {
+			ClassificationXOfCriteriaDto xOfCriteria = (ClassificationXOfCriteriaDto) criteria;
+			return new XOfEvaluator(xOfCriteria.getRequiredAmount(), compileSubCriteria(xOfCriteria.getSubCriteria()));
+		}
+		if (criteria instanceof ClassificationNoneOfCriteriaDto) {
+			return new NoneOfEvaluator(compileSubCriteria(((ClassificationNoneOfCriteriaDto) criteria).getSubCriteria()));
+		}
+
+		// leaf criteria; subclasses that might override eval are delegated to the criteria itself
+		Class<? extends ClassificationCriteriaDto> type = criteria.getClass();
+		if (type == ClassificationCaseCriteriaDto.class) {
+			ClassificationCaseCriteriaDto caseCriteria = (ClassificationCaseCriteriaDto) criteria;
+			return new PropertyEvaluator<>(
+				getterHandle(CaseDataDto.class, caseCriteria.getPropertyId()),
+				ClassificationEvaluationContext::getCase,
+				caseCriteria.getPropertyValues());
+		}
+		if (type == ClassificationSymptomsCriteriaDto.class) {
+			ClassificationSymptomsCriteriaDto symptomsCriteria = (ClassificationSymptomsCriteriaDto) criteria;
+			return new PropertyEvaluator<>(
+				getterHandle(SymptomsDto.class, symptomsCriteria.getPropertyId()),
+				context -> context.getCase().getSymptoms(),
+				symptomsCriteria.getPropertyValues());
+		}
+		if (type == ClassificationEpiDataCriteriaDto.class) {
+			ClassificationEpiDataCriteriaDto epiDataCriteria = (ClassificationEpiDataCriteriaDto) criteria;
+			return new PropertyEvaluator<>(
+				getterHandle(EpiDataDto.class, epiDataCriteria.getPropertyId()),
+				context -> context.getCase().getEpiData(),
+				epiDataCriteria.getPropertyValues());
+		}
+		if (type == ClassificationExposureCriteriaDto.class) {
+			ClassificationExposureCriteriaDto exposureCriteria = (ClassificationExposureCriteriaDto) criteria;
+			return new ExposureEvaluator(
+				getterHandle(ExposureDto.class, exposureCriteria.getPropertyId()),
+				exposureCriteria.getExposureType(),
+				exposureCriteria.getPropertyValues());
+		}
+		if (type == ClassificationNotInStartDateRangeCriteriaDto.class) {
+			ClassificationNotInStartDateRangeCriteriaDto dateRangeCriteria = (ClassificationNotInStartDateRangeCriteriaDto) criteria;
+			return new NotInStartDateRangeEvaluator(
+				getterHandle(CaseDataDto.class, dateRangeCriteria.getPropertyId()),
+				dateRangeCriteria.getDaysBeforeStartDate());
+		}
+		if (type == ClassificationPathogenTestCriteriaDto.class) {
+			ClassificationPathogenTestCriteriaDto pathogenTestCriteria = (ClassificationPathogenTestCriteriaDto) criteria;
+			return new PathogenTestPropertyEvaluator(
+				getterHandle(PathogenTestDto.class, pathogenTestCriteria.getPropertyId()),
+				pathogenTestCriteria.getTestTypes(),
+				pathogenTestCriteria.getPropertyValues());
+		}
+		if (type == ClassificationPathogenTestPositiveResultCriteriaDto.class) {
+			ClassificationPathogenTestPositiveResultCriteriaDto positiveCriteria = (ClassificationPathogenTestPositiveResultCriteriaDto) criteria;
+			return new PositiveTestResultEvaluator(positiveCriteria.getTestedDisease(), positiveCriteria.getPathogenTestTypes());
+		}
+		if (type == ClassificationPathogenTestNegativeResultCriteriaDto.class) {
+			Disease testedDisease = ((ClassificationPathogenTestNegativeResultCriteriaDto) criteria).getTestedDisease();
+			return new PathogenTestEvaluator(
+				pathogenTest -> pathogenTest.getTestResult() == PathogenTestResultType.NEGATIVE && pathogenTest.getTestedDisease() == testedDisease);
+		}
+		if (type == ClassificationPathogenTestOtherPositiveResultCriteriaDto.class) {
+			Disease testedDisease = ((ClassificationPathogenTestOtherPositiveResultCriteriaDto) criteria).getTestedDisease();
+			if (testedDisease == null) {
+				return new ConstantEvaluator(false);
+			}
+			return new PathogenTestEvaluator(
+				pathogenTest -> pathogenTest.getTestResult() == PathogenTestResultType.POSITIVE && pathogenTest.getTestedDisease() != testedDisease);
+		}
+		if (type == ClassificationPersonAgeBetweenYearsCriteriaDto.class) {
+			ClassificationPersonAgeBetweenYearsCriteriaDto ageCriteria = (ClassificationPersonAgeBetweenYearsCriteriaDto) criteria;
+			return new PersonAgeEvaluator(ageCriteria.getLowerThreshold(), ageCriteria.getUpperThreshold());
+		}
+		if (type == ClassificationAllSymptomsCriteriaDto.class) {
+			ClassificationAllSymptomsCriteriaDto allSymptomsCriteria = (ClassificationAllSymptomsCriteriaDto) criteria;
+			return new AllSymptomsEvaluator(allSymptomsCriteria.getSymptomState(), allSymptomsCriteria.getFieldVisibilityCheckers());
+		}
+		if (type == ClassificationEventClusterCriteriaDto.class) {
+			return new EventClusterEvaluator();
+		}
+
+		return new DelegatingEvaluator(criteria);
+	}
+
+	private static List<ClassificationEvaluator> compileSubCriteria(List<ClassificationCriteriaDto> subCriteria) {
+
+		List<ClassificationEvaluator> evaluators = new ArrayList<>(subCriteria.size());
+		for (ClassificationCriteriaDto criteria : subCriteria) {
+			evaluators.add(compile(criteria));
+		}
+
+		// stable sort: cheap criteria first, the given order is kept for criteria with the same cost
+		evaluators.sort(Comparator.comparing(ClassificationEvaluator::getCost));
+		return evaluators;
+	}
+
+	private static MethodHandle getterHandle(Class<?> type, String propertyId) {
+
+		String capitalizedPropertyId = propertyId.substring(0, 1).toUpperCase() + propertyId.substring(1);
+		Method method;
+		try {
+			method = type.getMethod("get" + capitalizedPropertyId);
+		} catch (NoSuchMethodException e) {
+			try {
+				method = type.getMethod("is" + capitalizedPropertyId);
+			} catch (NoSuchMethodException newE) {
+				throw new IllegalArgumentException("No getter for property " + propertyId + " in " + type.getSimpleName(), newE);
+			}
+		}
+
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private static Object invokeGetter(MethodHandle getter, Object target) {
+
+		try {
+			return (Object) getter.invokeExact(target);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+
+	/**
+	 * The data a criteria needs to be evaluated. The order of the constants is the order in which sub criteria are
+	 * evaluated: data that is part of the case itself is free, all other data has to be loaded from the database.
+	 */
+	public enum EvaluationCost {
+		CASE,
+		PATHOGEN_TESTS,
+		EVENTS,
+		PERSON,
+		ALL
+	}
+
+	public abstract static class ClassificationEvaluator {
+
+		private final EvaluationCost cost;
+
+		protected ClassificationEvaluator(EvaluationCost cost) {
+			this.cost = cost;
+		}
+
+		public abstract boolean eval(ClassificationEvaluationContext context);
+
+		public EvaluationCost getCost() {
+			return cost;
+		}
+
+		/**
+		 * Adds the data that may be needed to evaluate this criteria to the given set; {@link EvaluationCost#ALL} is
+		 * expanded to all other constants.
+		 */
+		public void collectRequiredData(Set<EvaluationCost> requiredData) {
+			if (cost == EvaluationCost.ALL) {
+				requiredData.addAll(EnumSet.allOf(EvaluationCost.class));
+			} else {
+				requiredData.add(cost);
+			}
+		}
+	}
+
+	private abstract static class CollectiveEvaluator extends ClassificationEvaluator {
+
+		protected final ClassificationEvaluator[] subEvaluators;
+
+		protected CollectiveEvaluator(List<ClassificationEvaluator> subEvaluators) {
+			super(subEvaluators.stream().map(ClassificationEvaluator::getCost).max(Comparator.naturalOrder()).orElse(EvaluationCost.CASE));
+			this.subEvaluators = subEvaluators.toArray(new ClassificationEvaluator[0]);
+		}
+
+		@Override
+		public void collectRequiredData(Set<EvaluationCost> requiredData) {
+			for (ClassificationEvaluator subEvaluator : subEvaluators) {
+				subEvaluator.collectRequiredData(requiredData);
+			}
+		}
+	}
+
+	private static class AllOfEvaluator extends CollectiveEvaluator {
+
+		AllOfEvaluator(List<ClassificationEvaluator> subEvaluators) {
+			super(subEvaluators);
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			for (ClassificationEvaluator subEvaluator : subEvaluators) {
+				if (!subEvaluator.eval(context)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class XOfEvaluator extends CollectiveEvaluator {
+
+		private final int requiredAmount;
+
+		XOfEvaluator(int requiredAmount, List<ClassificationEvaluator> subEvaluators) {
+			super(subEvaluators);
+			this.requiredAmount = requiredAmount;
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			int amount = 0;
+			for (int i = 0; i < subEvaluators.length; i++) {
+				// not enough criteria left to reach the required amount
+				if (amount + subEvaluators.length - i < requiredAmount) {
+					return false;
+				}
+
+				if (subEvaluators[i].eval(context)) {
+					amount++;
+					if (amount >= requiredAmount) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class NoneOfEvaluator extends CollectiveEvaluator {
+
+		NoneOfEvaluator(List<ClassificationEvaluator> subEvaluators) {
+			super(subEvaluators);
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			for (ClassificationEvaluator subEvaluator : subEvaluators) {
+				if (subEvaluator.eval(context)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class ConstantEvaluator extends ClassificationEvaluator {
+
+		private final boolean result;
+
+		ConstantEvaluator(boolean result) {
+			super(EvaluationCost.CASE);
+			this.result = result;
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+			return result;
+		}
+	}
+
+	private static class PropertyEvaluator<T> extends ClassificationEvaluator {
+
+		private final MethodHandle getter;
+		private final Function<ClassificationEvaluationContext, T> targetProvider;
+		private final Set<Object> propertyValues;
+
+		PropertyEvaluator(MethodHandle getter, Function<ClassificationEvaluationContext, T> targetProvider, List<Object> propertyValues) {
+			super(EvaluationCost.CASE);
+			this.getter = getter;
+			this.targetProvider = targetProvider;
+			this.propertyValues = new HashSet<>(propertyValues);
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+			return propertyValues.contains(invokeGetter(getter, targetProvider.apply(context)));
+		}
+	}
+
+	private static class ExposureEvaluator extends ClassificationEvaluator {
+
+		private final MethodHandle getter;
+		private final ExposureType exposureType;
+		private final Set<Object> propertyValues;
+		private final boolean matchYesIfNoValues;
+
+		ExposureEvaluator(MethodHandle getter, ExposureType exposureType, List<Object> propertyValues) {
+			super(EvaluationCost.CASE);
+			this.getter = getter;
+			this.exposureType = exposureType;
+			this.propertyValues = propertyValues != null ? new HashSet<>(propertyValues) : new HashSet<>();
+			this.matchYesIfNoValues = CollectionUtils.isEmpty(propertyValues);
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			for (ExposureDto exposure : context.getCase().getEpiData().getExposures()) {
+				if (exposureType != null && exposure.getExposureType() != exposureType) {
+					continue;
+				}
+
+				Object value = invokeGetter(getter, exposure);
+				if (propertyValues.contains(value) || matchYesIfNoValues && YesNoUnknown.YES.equals(value)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class NotInStartDateRangeEvaluator extends ClassificationEvaluator {
+
+		private final MethodHandle getter;
+		private final int daysBeforeStartDate;
+
+		NotInStartDateRangeEvaluator(MethodHandle getter, int daysBeforeStartDate) {
+			super(EvaluationCost.CASE);
+			this.getter = getter;
+			this.daysBeforeStartDate = daysBeforeStartDate;
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			CaseDataDto caze = context.getCase();
+			Object value = invokeGetter(getter, caze);
+			if (!(value instanceof Date)) {
+				return true;
+			}
+
+			Date date = (Date) value;
+			Date startDate = CaseLogic.getStartDate(caze.getSymptoms().getOnsetDate(), caze.getReportDate());
+			Date lowerThresholdDate = DateHelper.subtractDays(startDate, daysBeforeStartDate);
+			return !(date.equals(lowerThresholdDate) || date.equals(startDate) || (date.after(lowerThresholdDate) && date.before(startDate)));
+		}
+	}
+
+	private static class PathogenTestEvaluator extends ClassificationEvaluator {
+
+		private final Predicate<PathogenTestDto> matcher;
+
+		PathogenTestEvaluator(Predicate<PathogenTestDto> matcher) {
+			super(EvaluationCost.PATHOGEN_TESTS);
+			this.matcher = matcher;
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			for (PathogenTestDto pathogenTest : context.getPathogenTests()) {
+				if (matcher.test(pathogenTest)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static class PositiveTestResultEvaluator extends PathogenTestEvaluator {
+
+		PositiveTestResultEvaluator(Disease testedDisease, List<PathogenTestType> testTypes) {
+			super(positiveTestResultMatcher(testedDisease, testTypes));
+		}
+
+		private static Predicate<PathogenTestDto> positiveTestResultMatcher(
+			Disease testedDisease,
+			List<PathogenTestType> testTypes) {
+
+			Set<PathogenTestType> testTypeSet = toTestTypeSet(testTypes);
+			return pathogenTest -> pathogenTest.getTestResult() == PathogenTestResultType.POSITIVE
+				&& pathogenTest.getTestType() != null
+				&& testTypeSet.contains(pathogenTest.getTestType())
+				&& (testedDisease == null || pathogenTest.getTestedDisease() == testedDisease);
+		}
+	}
+
+	private static class PathogenTestPropertyEvaluator extends PathogenTestEvaluator {
+
+		PathogenTestPropertyEvaluator(MethodHandle getter, List<PathogenTestType> testTypes, List<Object> propertyValues) {
+			super(pathogenTestPropertyMatcher(getter, testTypes, propertyValues));
+		}
+
+		private static Predicate<PathogenTestDto> pathogenTestPropertyMatcher(
+			MethodHandle getter,
+			List<PathogenTestType> testTypes,
+			List<Object> propertyValues) {
+
+			Set<PathogenTestType> testTypeSet = toTestTypeSet(testTypes);
+			Set<Object> propertyValueSet = new HashSet<>(propertyValues);
+			return pathogenTest -> pathogenTest.getTestType() != null
+				&& testTypeSet.contains(pathogenTest.getTestType())
+				&& propertyValueSet.contains(invokeGetter(getter, pathogenTest));
+		}
+	}
+
+	private static Set<PathogenTestType> toTestTypeSet(List<PathogenTestType> testTypes) {
+		return testTypes.isEmpty() ? EnumSet.noneOf(PathogenTestType.class) : EnumSet.copyOf(testTypes);
+	}
+
+	private static class PersonAgeEvaluator extends ClassificationEvaluator {
+
+		private final Integer lowerYearsThreshold;
+		private final Integer upperYearsThreshold;
+
+		PersonAgeEvaluator(Integer lowerYearsThreshold, Integer upperYearsThreshold) {
+			super(EvaluationCost.PERSON);
+			this.lowerYearsThreshold = lowerYearsThreshold;
+			this.upperYearsThreshold = upperYearsThreshold;
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			PersonDto person = context.getPerson();
+			Integer approximateAge = ApproximateAgeHelper.getAgeYears(person.getApproximateAge(), person.getApproximateAgeType());
+			return approximateAge != null
+				&& (lowerYearsThreshold == null || approximateAge >= lowerYearsThreshold)
+				&& (upperYearsThreshold == null || approximateAge <= upperYearsThreshold);
+		}
+	}
+
+	private static class AllSymptomsEvaluator extends ClassificationEvaluator {
+
+		private final SymptomState symptomState;
+		private final MethodHandle[] getters;
+
+		AllSymptomsEvaluator(SymptomState symptomState, FieldVisibilityCheckers fieldVisibilityCheckers) {
+
+			super(EvaluationCost.CASE);
+			this.symptomState = symptomState;
+
+			List<MethodHandle> visibleSymptomGetters = new ArrayList<>();
+			for (Field field : SymptomsDto.class.getDeclaredFields()) {
+				if (field.getType() == SymptomState.class && fieldVisibilityCheckers.isVisible(SymptomsDto.class, field.getName())) {
+					field.setAccessible(true);
+					try {
+						visibleSymptomGetters
+							.add(MethodHandles.lookup().unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class)));
+					} catch (IllegalAccessException e) {
+						throw new IllegalArgumentException(e);
+					}
+				}
+			}
+			this.getters = visibleSymptomGetters.toArray(new MethodHandle[0]);
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			SymptomsDto symptoms = context.getCase().getSymptoms();
+			for (MethodHandle getter : getters) {
+				if (invokeGetter(getter, symptoms) != symptomState) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class EventClusterEvaluator extends ClassificationEvaluator {
+
+		EventClusterEvaluator() {
+			super(EvaluationCost.EVENTS);
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+
+			for (EventDto event : context.getEvents()) {
+				if (event.getEventStatus() == EventStatus.CLUSTER) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Fallback for criteria types that are not known to the compiler; needs all data of the case to be loaded.
+	 */
+	private static class DelegatingEvaluator extends ClassificationEvaluator {
+
+		private final ClassificationCriteriaDto criteria;
+
+		DelegatingEvaluator(ClassificationCriteriaDto criteria) {
+			super(EvaluationCost.ALL);
+			this.criteria = criteria;
+		}
+
+		@Override
+		public boolean eval(ClassificationEvaluationContext context) {
+			return criteria.eval(context.getCase(), context.getPerson(), context.getPathogenTests(), context.getEvents());
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze.classification;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.event.EventDto;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.sample.PathogenTestDto;
+
+/**
+ * Input of a compiled classification evaluation. The person, pathogen tests and events of the case are only loaded when a
+ * criteria that actually needs them is evaluated, and are then kept for the remaining evaluation.
+ */
+public class ClassificationEvaluationContext {
+
+	private final CaseDataDto caze;
+	private final Supplier<PersonDto> personSupplier;
+	private final Supplier<List<PathogenTestDto>> pathogenTestsSupplier;
+	private final Supplier<List<EventDto>> eventsSupplier;
+
+	private PersonDto person;
+	private List<PathogenTestDto> pathogenTests;
+	private List<EventDto> events;
+
+	public ClassificationEvaluationContext(
+		CaseDataDto caze,
+		Supplier<PersonDto> personSupplier,
+		Supplier<List<PathogenTestDto>> pathogenTestsSupplier,
+		Supplier<List<EventDto>> eventsSupplier) {
+
+		this.caze = caze;
+		this.personSupplier = personSupplier;
+		this.pathogenTestsSupplier = pathogenTestsSupplier;
+		this.eventsSupplier = eventsSupplier;
+	}
+
+	public ClassificationEvaluationContext(CaseDataDto caze, PersonDto person, List<PathogenTestDto> pathogenTests, List<EventDto> events) {
+		this(caze, () -> person, () -> pathogenTests, () -> events);
+	}
+
+	public CaseDataDto getCase() {
+		return caze;
+	}
+
+	public PersonDto getPerson() {
+		if (person == null) {
+			person = personSupplier.get();
+		}
+		return person;
+	}
+
+	public List<PathogenTestDto> getPathogenTests() {
+		if (pathogenTests == null) {
+			pathogenTests = pathogenTestsSupplier.get();
+		}
+		return pathogenTests;
+	}
+
+	public List<EventDto> getEvents() {
+		if (events == null) {
+			events = eventsSupplier.get();
+		}
+		return events;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze.classification;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.backend.caze.classification.ClassificationCriteriaCompiler.ClassificationEvaluator;
+import de.symeda.sormas.backend.caze.classification.ClassificationCriteriaCompiler.EvaluationCost;
+
+/**
+ * Compiled form of a {@link de.symeda.sormas.api.caze.classification.DiseaseClassificationCriteriaDto}, created by
+ * {@link ClassificationCriteriaCompiler}.
+ */
+public class CompiledDiseaseClassificationCriteria {
+
+	private final Disease disease;
+	private final ClassificationEvaluator suspectCriteria;
+	private final ClassificationEvaluator probableCriteria;
+	private final ClassificationEvaluator confirmedCriteria;
+	private final ClassificationEvaluator confirmedNoSymptomsCriteria;
+	private final ClassificationEvaluator confirmedUnknownSymptomsCriteria;
+	private final ClassificationEvaluator notACaseCriteria;
+
+	public CompiledDiseaseClassificationCriteria(
+		Disease disease,
+		ClassificationEvaluator suspectCriteria,
+		ClassificationEvaluator probableCriteria,
+		ClassificationEvaluator confirmedCriteria,
+		ClassificationEvaluator confirmedNoSymptomsCriteria,
+		ClassificationEvaluator confirmedUnknownSymptomsCriteria,
+		ClassificationEvaluator notACaseCriteria) {
+
+		this.disease = disease;
+		this.suspectCriteria = suspectCriteria;
+		this.probableCriteria = probableCriteria;
+		this.confirmedCriteria = confirmedCriteria;
+		this.confirmedNoSymptomsCriteria = confirmedNoSymptomsCriteria;
+		this.confirmedUnknownSymptomsCriteria = confirmedUnknownSymptomsCriteria;
+		this.notACaseCriteria = notACaseCriteria;
+	}
+
+	/**
+	 * @param withoutSymptomsClassifications
+	 *            Whether {@link CaseClassification#CONFIRMED_NO_SYMPTOMS} and
+	 *            {@link CaseClassification#CONFIRMED_UNKNOWN_SYMPTOMS} are used in the configured country.
+	 */
+	public CaseClassification classify(ClassificationEvaluationContext context, boolean withoutSymptomsClassifications) {
+
+		if (matches(confirmedCriteria, context)) {
+			return CaseClassification.CONFIRMED;
+		} else if (matches(notACaseCriteria, context)) {
+			return CaseClassification.NO_CASE;
+		} else if (matches(probableCriteria, context)) {
+			return CaseClassification.PROBABLE;
+		} else if (matches(suspectCriteria, context)) {
+			return CaseClassification.SUSPECT;
+		} else if (withoutSymptomsClassifications) {
+			if (matches(confirmedNoSymptomsCriteria, context)) {
+				return CaseClassification.CONFIRMED_NO_SYMPTOMS;
+			} else if (matches(confirmedUnknownSymptomsCriteria, context)) {
+				return CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS;
+			}
+		}
+
+		return CaseClassification.NOT_CLASSIFIED;
+	}
+
+	/**
+	 * @return The data that may be needed in addition to the case to classify a case of the disease.
+	 */
+	public Set<EvaluationCost> getRequiredData() {
+
+		Set<EvaluationCost> requiredData = EnumSet.noneOf(EvaluationCost.class);
+		for (ClassificationEvaluator criteria : Arrays.asList(
+			suspectCriteria,
+			probableCriteria,
+			confirmedCriteria,
+			confirmedNoSymptomsCriteria,
+			confirmedUnknownSymptomsCriteria,
+			notACaseCriteria)) {
+			if (criteria != null) {
+				criteria.collectRequiredData(requiredData);
+			}
+		}
+		requiredData.remove(EvaluationCost.CASE);
+		requiredData.remove(EvaluationCost.ALL);
+		return requiredData;
+	}
+
+	private static boolean matches(ClassificationEvaluator criteria, ClassificationEvaluationContext context) {
+		return criteria != null && criteria.eval(context);
+	}
+
+	public Disease getDisease() {
+		return disease;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.api.systemevents.SystemEventType;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.common.BulkArchivingService.ArchivingChunkResult;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
+
+/**
+ * Runs the automatic archiving of an entity type through the {@link BulkArchivingService}, chunk by chunk, and records
+ * its progress in the system event of the run. Each chunk is committed on its own, so a run that is stopped by a
+ * shutdown or fails keeps what it has archived so far; the next run continues with the remaining entities, since
+ * archived entities no longer match.
+ * <p>
+ * Only one run per system event type is executed at a time.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class BulkArchivingJob {
+
+	public static final int CHUNK_SIZE = 1000;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final Set<SystemEventType> runningTypes = ConcurrentHashMap.newKeySet();
+	private volatile boolean shuttingDown;
+
+	@EJB
+	private BulkArchivingService bulkArchivingService;
+	@EJB
+	private SystemEventFacadeEjbLocal systemEventFacade;
+
+	/**
+	 * Archives all entities that match the filter and are not archived yet.
+	 * 
+	 * @return the number of archived entities
+	 */
+	public <ADO extends AbstractDomainObject> long archive(
+		SystemEventType type,
+		Class<ADO> entityClass,
+		BiFunction<CriteriaBuilder, Root<ADO>, Predicate> archivableFilter) {
+
+		if (!runningTypes.add(type)) {
+			logger.warn("{} is already running", type);
+			return 0;
+		}
+
+		try {
+			return run(type, entityClass, archivableFilter);
+		} finally {
+			runningTypes.remove(type);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		shuttingDown = true;
+	}
+
+	private <ADO extends AbstractDomainObject> long run(
+		SystemEventType type,
+		Class<ADO> entityClass,
+		BiFunction<CriteriaBuilder, Root<ADO>, Predicate> archivableFilter) {
+
+		long startTime = DateHelper.startTime();
+
+		systemEventFacade.markPreviouslyStartedAsUnclear(type);
+		SystemEventDto systemEvent = SystemEventDto.build();
+		systemEvent.setType(type);
+		systemEvent.setStatus(SystemEventStatus.STARTED);
+		systemEvent.setStartDate(new Date(startTime));
+		systemEventFacade.saveSystemEvent(systemEvent);
+
+		Long lastId = null;
+		long archivedCount = 0;
+		try {
+			ArchivingChunkResult chunk;
+			do {
+				if (shuttingDown || Thread.currentThread().isInterrupted()) {
+					String message = getProgressMessage("Stopped after archiving", archivedCount, entityClass, startTime);
+					logger.info("{}: {}", type, message);
+					systemEvent.setStatus(SystemEventStatus.CANCELLED);
+					systemEvent.setAdditionalInfo(message);
+					systemEvent.setEndDate(new Date());
+					systemEvent.setChangeDate(new Date());
+					systemEventFacade.saveSystemEvent(systemEvent);
+					return archivedCount;
+				}
+
+				chunk = bulkArchivingService.archiveChunk(entityClass, archivableFilter, lastId, CHUNK_SIZE);
+				lastId = chunk.getLastId();
+				archivedCount += chunk.getArchivedCount();
+
+				if (lastId != null) {
+					String message = getProgressMessage("Archived", archivedCount, entityClass, startTime);
+					logger.debug("{}: {}", type, message);
+					systemEvent.setAdditionalInfo(message);
+					systemEvent.setChangeDate(new Date());
+					systemEventFacade.saveSystemEvent(systemEvent);
+				}
+			}
+			while (lastId != null);
+
+			String message = getProgressMessage("Archived", archivedCount, entityClass, startTime);
+			logger.info("{}: {}", type, message);
+			systemEventFacade.reportSuccess(systemEvent, message, new Date());
+		} catch (RuntimeException e) {
+			logger.error(type + " failed after archiving " + archivedCount + " entities", e);
+			systemEventFacade.reportError(systemEvent, e.getMessage(), new Date());
+		}
+
+		return archivedCount;
+	}
+
+	private String getProgressMessage(String action, long archivedCount, Class<?> entityClass, long startTime) {
+
+		long durationMillis = Math.max(DateHelper.durationMillies(startTime), 1);
+		return String.format(
+			"%s %d %s entities in %d ms (%.1f/s)",
+			action,
+			archivedCount,
+			entityClass.getSimpleName(),
+			durationMillis,
+			archivedCount * 1000d / durationMillis);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Archives entities with a boolean {@value #ARCHIVED} attribute chunk by chunk, each chunk with one
+ * {@code UPDATE ... WHERE id IN (SELECT id ...)} statement in its own transaction. The ids of the archived entities are
+ * never loaded; only the last id of each chunk is looked up to continue the next chunk after it.
+ */
+@Stateless
+@LocalBean
+public class BulkArchivingService {
+
+	public static final String ARCHIVED = "archived";
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	/**
+	 * Archives the next {@code chunkSize} entities, ordered by id, that are not archived yet and match the filter.
+	 * 
+	 * @param archivableFilter
+	 *            must not depend on {@value #ARCHIVED}, because it is also applied to the entities to find the end of
+	 *            the chunk
+	 * @param afterId
+	 *            the id to continue after, {@code null} to start with the first entity
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public <ADO extends AbstractDomainObject> ArchivingChunkResult archiveChunk(
+		Class<ADO> entityClass,
+		BiFunction<CriteriaBuilder, Root<ADO>, Predicate> archivableFilter,
+		Long afterId,
+		int chunkSize) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+
+		CriteriaQuery<Long> lastIdQuery = cb.createQuery(Long.class);
+		Root<ADO> lastIdRoot = lastIdQuery.from(entityClass);
+		lastIdQuery.select(lastIdRoot.get(AbstractDomainObject.ID));
+		lastIdQuery.distinct(true);
+		lastIdQuery.where(createChunkFilter(cb, lastIdRoot, archivableFilter, afterId, null));
+		lastIdQuery.orderBy(cb.asc(lastIdRoot.get(AbstractDomainObject.ID)));
+		List<Long> lastIds = em.createQuery(lastIdQuery).setFirstResult(chunkSize - 1).setMaxResults(1).getResultList();
+		// without a last id, the chunk contains all remaining entities
+		Long lastId = lastIds.isEmpty() ? null : lastIds.get(0);
+
+		CriteriaUpdate<ADO> cu = cb.createCriteriaUpdate(entityClass);
+		Root<ADO> root = cu.from(entityClass);
+		Subquery<Long> chunkIds = cu.subquery(Long.class);
+		Root<ADO> chunkRoot = chunkIds.from(entityClass);
+		chunkIds.select(chunkRoot.get(AbstractDomainObject.ID));
+		chunkIds.where(createChunkFilter(cb, chunkRoot, archivableFilter, afterId, lastId));
+
+		cu.set(AbstractDomainObject.CHANGE_DATE, Timestamp.from(Instant.now()));
+		cu.set(root.get(ARCHIVED), true);
+		cu.where(root.get(AbstractDomainObject.ID).in(chunkIds));
+
+		int archivedCount = em.createQuery(cu).executeUpdate();
+		return new ArchivingChunkResult(lastId, archivedCount);
+	}
+
+	private <ADO extends AbstractDomainObject> Predicate createChunkFilter(
+		CriteriaBuilder cb,
+		Root<ADO> root,
+		BiFunction<CriteriaBuilder, Root<ADO>, Predicate> archivableFilter,
+		Long afterId,
+		Long lastId) {
+
+		Predicate filter = cb.and(cb.isFalse(root.get(ARCHIVED)), archivableFilter.apply(cb, root));
+		if (afterId != null) {
+			filter = cb.and(filter, cb.greaterThan(root.get(AbstractDomainObject.ID), afterId));
+		}
+		if (lastId != null) {
+			filter = cb.and(filter, cb.lessThanOrEqualTo(root.get(AbstractDomainObject.ID), lastId));
+		}
+		return filter;
+	}
+
+	public static class ArchivingChunkResult {
+
+		private final Long lastId;
+		private final int archivedCount;
+
+		public ArchivingChunkResult(Long lastId, int archivedCount) {
+			this.lastId = lastId;
+			this.archivedCount = archivedCount;
+		}
+
+		/**
+		 * @return The id to continue the next chunk after, {@code null} if there are no more entities to archive.
+		 */
+		public Long getLastId() {
+			return lastId;
+		}
+
+		public int getArchivedCount() {
+			return archivedCount;
+		}
+	}
+}
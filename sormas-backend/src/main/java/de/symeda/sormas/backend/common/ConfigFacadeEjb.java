@@ -82,13 +82,13 @@ public class ConfigFacadeEjb implements ConfigFacade {
 	public static final String GENERATED_FILES_PATH = "generated.path";
 	public static final String CUSTOM_FILES_PATH = "custom.path";
 	public static final String CSV_SEPARATOR = "csv.separator";
-	public static final String RSCRIPT_EXECUTABLE = "rscript.executable";
 
 	public static final String EMAIL_SENDER_ADDRESS = "email.sender.address";
 	public static final String EMAIL_SENDER_NAME = "email.sender.name";
 	public static final String SMS_SENDER_NAME = "sms.sender.name";
 	public static final String SMS_AUTH_KEY = "sms.auth.key";
 	public static final String SMS_AUTH_SECRET = "sms.auth.secret";
+	public static final String SMS_BASE_URL = "sms.baseUrl";
 
 	public static final String DUPLICATE_CHECKS_EXCLUDE_PERSONS_OF_ACHIVED_ENTRIES = "duplicatechecks.excludepersonsonlylinkedtoarchivedentries";
 	public static final String NAME_SIMILARITY_THRESHOLD = "namesimilaritythreshold";
@@ -111,6 +111,7 @@ public class ConfigFacadeEjb implements ConfigFacade {
 	public static final String INTERFACE_PATIENT_DIARY_DEFAULT_USER_PASSWORD = "interface.patientdiary.defaultuser.password";
 
 	public static final String DOCGENERATION_NULL_REPLACEMENT = "docgeneration.nullReplacement";
+	public static final String DOCGENERATION_MAX_CONCURRENT_DOCUMENTS = "docgeneration.maxConcurrentDocuments";
 	public static final String INTERFACE_DEMIS_JNDINAME = "interface.demis.jndiName";
 
 	public static final String DAYS_AFTER_CASE_GETS_ARCHIVED = "daysAfterCaseGetsArchived";
@@ -122,6 +123,9 @@ public class ConfigFacadeEjb implements ConfigFacade {
 	private static final String GEOCODING_LONGITUDE_JSON_PATH = "geocodingLongitudeJsonPath";
 	private static final String GEOCODING_LATITUDE_JSON_PATH = "geocodingLatitudeJsonPath";
 	private static final String GEOCODING_EPSG4326_WKT = "geocodingEPSG4326_WKT";
+	private static final String GEOCODING_CACHE_DAYS = "geocodingCacheDays";
+	private static final String GEOCODING_MAX_CONCURRENT_REQUESTS = "geocodingMaxConcurrentRequests";
+	private static final String GEOCODING_REQUESTS_PER_SECOND = "geocodingRequestsPerSecond";
 
 	private static final String SORMAS2SORMAS_FILES_PATH = "sormas2sormas.path";
 	private static final String SORMAS2SORMAS_SERVER_ACCESS_DATA_FILE_NAME = "sormas2sormas.serverAccessDataFileName";
@@ -137,6 +141,8 @@ public class ConfigFacadeEjb implements ConfigFacade {
 
 	private static final String DASHBOARD_MAP_MARKER_LIMIT = "dashboardMapMarkerLimit";
 	private static final String AUDITOR_ATTRIBUTE_LOGGING = "auditor.attribute.logging";
+	private static final String AUDITOR_QUEUE_ENABLED = "auditor.queue.enabled";
+	private static final String AUDITOR_QUEUE_MAX_BACKLOG = "auditor.queue.maxBacklog";
 
 	private static final String CREATE_DEFAULT_ENTITIES = "createDefaultEntities";
 	private static final String SKIP_DEFAULT_PASSWORD_CHECK = "skipDefaultPasswordCheck";
@@ -338,11 +344,6 @@ public class ConfigFacadeEjb implements ConfigFacade {
 		return getProperty(CUSTOM_FILES_PATH, "/opt/sormas/custom/");
 	}
 
-	@Override
-	public String getRScriptExecutable() {
-		return getProperty(RSCRIPT_EXECUTABLE, null);
-	}
-
 	@Override
 	public boolean isFeatureAutomaticCaseClassification() {
 		return getBoolean(FEATURE_AUTOMATIC_CASE_CLASSIFICATION, true);
@@ -373,6 +374,11 @@ public class ConfigFacadeEjb implements ConfigFacade {
 		return getProperty(SMS_AUTH_SECRET, "");
 	}
 
+	@Override
+	public String getSmsBaseUrl() {
+		return getProperty(SMS_BASE_URL, null);
+	}
+
 	@Override
 	public boolean isDuplicateChecksExcludePersonsOfArchivedEntries() {
 		return getBoolean(DUPLICATE_CHECKS_EXCLUDE_PERSONS_OF_ACHIVED_ENTRIES, false);
@@ -435,6 +441,21 @@ public class ConfigFacadeEjb implements ConfigFacade {
 			"GEOGCS[\"WGS 84\",DATUM[\"WGS_1984\",SPHEROID[\"WGS 84\",6378137,298.257223563,AUTHORITY[\"EPSG\",\"7030\"]],AUTHORITY[\"EPSG\",\"6326\"]],PRIMEM[\"Greenwich\",0,AUTHORITY[\"EPSG\",\"8901\"]],UNIT[\"degree\",0.01745329251994328,AUTHORITY[\"EPSG\",\"9122\"]],AXIS[\"Long\",EAST],AXIS[\"Lat\",NORTH],AUTHORITY[\"EPSG\",\"4326\"]]");
 	}
 
+	@Override
+	public int getGeocodingCacheDays() {
+		return getInt(GEOCODING_CACHE_DAYS, 90);
+	}
+
+	@Override
+	public int getGeocodingMaxConcurrentRequests() {
+		return getInt(GEOCODING_MAX_CONCURRENT_REQUESTS, 4);
+	}
+
+	@Override
+	public double getGeocodingRequestsPerSecond() {
+		return getDouble(GEOCODING_REQUESTS_PER_SECOND, 10);
+	}
+
 	@Override
 	public SymptomJournalConfig getSymptomJournalConfig() {
 		SymptomJournalConfig config = new SymptomJournalConfig();
@@ -596,11 +617,23 @@ public class ConfigFacadeEjb implements ConfigFacade {
 		return getProperty(DOCGENERATION_NULL_REPLACEMENT, "./.");
 	}
 
+	public int getDocgenerationMaxConcurrentDocuments() {
+		return getInt(DOCGENERATION_MAX_CONCURRENT_DOCUMENTS, 4);
+	}
+
 	@Override
 	public boolean isAuditorAttributeLoggingEnabled() {
 		return getBoolean(AUDITOR_ATTRIBUTE_LOGGING, true);
 	}
 
+	public boolean isAuditorQueueEnabled() {
+		return getBoolean(AUDITOR_QUEUE_ENABLED, false);
+	}
+
+	public int getAuditorQueueMaxBacklog() {
+		return getInt(AUDITOR_QUEUE_MAX_BACKLOG, 10000);
+	}
+
 	@Override
 	public int getStepSizeForCsvExport() {
 		return getInt(STEP_SIZE_FOR_CSV_EXPORT, 5000);
@@ -21,7 +21,7 @@ import org.apache.commons.collections4.ListUtils;
 
 import de.symeda.sormas.api.ReferenceDto;
 import de.symeda.sormas.api.utils.DataHelper;
-import de.symeda.sormas.backend.ExtendedPostgreSQL94Dialect;
+import de.symeda.sormas.backend.ExtendedPostgreSQL95Dialect;
 import de.symeda.sormas.backend.util.ModelConstants;
 
 public class CriteriaBuilderHelper {
@@ -115,8 +115,8 @@ public class CriteriaBuilderHelper {
 	}
 
 	public static Predicate unaccentedIlike(CriteriaBuilder cb, Expression<String> valueExpression, Expression<String> patternExpression) {
-		Expression<String> unaccentedValueExpression = cb.function(ExtendedPostgreSQL94Dialect.UNACCENT, String.class, valueExpression);
-		Expression<String> unaccentedPatternExpression = cb.function(ExtendedPostgreSQL94Dialect.UNACCENT, String.class, patternExpression);
+		Expression<String> unaccentedValueExpression = cb.function(ExtendedPostgreSQL95Dialect.UNACCENT, String.class, valueExpression);
+		Expression<String> unaccentedPatternExpression = cb.function(ExtendedPostgreSQL95Dialect.UNACCENT, String.class, patternExpression);
 		return ilike(cb, unaccentedValueExpression, unaccentedPatternExpression);
 	}
 
@@ -129,7 +129,7 @@ public class CriteriaBuilderHelper {
 	}
 
 	public static Predicate ilike(CriteriaBuilder cb, Expression<String> valueExpression, Expression<String> patternExpression) {
-		return cb.isTrue(cb.function(ExtendedPostgreSQL94Dialect.ILIKE, Boolean.class, valueExpression, patternExpression));
+		return cb.isTrue(cb.function(ExtendedPostgreSQL95Dialect.ILIKE, Boolean.class, valueExpression, patternExpression));
 	}
 
 	public static Expression<String> windowFirstValueDesc(
@@ -137,11 +137,11 @@ public class CriteriaBuilderHelper {
 		Path<Object> valueProperty,
 		Path<Object> partitionProperty,
 		Path<Object> orderProperty) {
-		return cb.function(ExtendedPostgreSQL94Dialect.WINDOW_FIRST_VALUE_DESC, String.class, valueProperty, partitionProperty, orderProperty);
+		return cb.function(ExtendedPostgreSQL95Dialect.WINDOW_FIRST_VALUE_DESC, String.class, valueProperty, partitionProperty, orderProperty);
 	}
 
 	public static Expression<String> windowCount(CriteriaBuilder cb, Path<Object> valueProperty, Path<Object> partitionProperty) {
-		return cb.function(ExtendedPostgreSQL94Dialect.WINDOW_COUNT, String.class, valueProperty, partitionProperty);
+		return cb.function(ExtendedPostgreSQL95Dialect.WINDOW_COUNT, String.class, valueProperty, partitionProperty);
 	}
 
 	public static Predicate buildFreeTextSearchPredicate(CriteriaBuilder cb, String searchTerm, Function<String, Predicate> createTextFilter) {
@@ -21,11 +21,12 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
 
 import javax.annotation.security.RunAs;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
 import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 
-import de.symeda.sormas.api.utils.DateHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +35,7 @@ import de.symeda.sormas.api.importexport.ImportExportUtils;
 import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
+import de.symeda.sormas.backend.caze.CaseStatisticsFacadeEjb.CaseStatisticsFacadeEjbLocal;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
 import de.symeda.sormas.backend.document.DocumentFacadeEjb.DocumentFacadeEjbLocal;
@@ -44,14 +46,21 @@ import de.symeda.sormas.backend.report.WeeklyReportFacadeEjb.WeeklyReportFacadeE
 import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
 import de.symeda.sormas.backend.task.TaskFacadeEjb.TaskFacadeEjbLocal;
 
+/**
+ * The jobs are run by the {@link JobScheduler}, so a job does not block the other ones, is skipped while it is still
+ * running and is run by only one server of a cluster.
+ */
 @Singleton
 @RunAs(UserRole._SYSTEM)
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class CronService {
 
 	public static final int TASK_UPDATE_INTERVAL = 10;
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
+	@EJB
+	private JobScheduler jobScheduler;
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 	@EJB
@@ -72,44 +81,63 @@ public class CronService {
 	private SystemEventFacadeEjbLocal systemEventFacade;
 	@EJB
 	private LabMessageFacadeEjbLocal labMessageFacade;
+	@EJB
+	private CaseStatisticsFacadeEjbLocal caseStatisticsFacade;
 
 	@Schedule(hour = "*", minute = "*/" + TASK_UPDATE_INTERVAL, second = "0", persistent = false)
 	public void sendNewAndDueTaskMessages() {
-		taskFacade.sendNewAndDueTaskMessages();
+		jobScheduler.execute("sendNewAndDueTaskMessages", () -> {
+			taskFacade.sendNewAndDueTaskMessages();
+			return null;
+		});
 	}
 
 	@Schedule(hour = "*", minute = "*/2", second = "0", persistent = false)
 	public void calculateCaseCompletion() {
-		long timeStart = DateHelper.startTime();
-		int casesUpdated = caseFacade.updateCompleteness();
-		logger.debug("calculateCaseCompletion finished. {} cases, {} s", casesUpdated, DateHelper.durationSeconds(timeStart));
+		jobScheduler.execute("calculateCaseCompletion", () -> (long) caseFacade.updateCompleteness());
+	}
+
+	@Schedule(hour = "*", minute = "*/5", second = "30", persistent = false)
+	public void refreshCaseStatistics() {
+		jobScheduler.execute("refreshCaseStatistics", () -> {
+			caseStatisticsFacade.refreshStatisticsCube();
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "0", second = "0", persistent = false)
 	public void deleteAllExpiredFeatureConfigurations() {
-
-		// Remove all feature configurations whose end dates have been reached
-		featureConfigurationFacade.deleteAllExpiredFeatureConfigurations(new Date());
-		logger.info("Deleted expired feature configurations");
+		jobScheduler.execute("deleteAllExpiredFeatureConfigurations", () -> {
+			// Remove all feature configurations whose end dates have been reached
+			featureConfigurationFacade.deleteAllExpiredFeatureConfigurations(new Date());
+			logger.info("Deleted expired feature configurations");
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "5", second = "0", persistent = false)
 	public void generateAutomaticTasks() {
-
-		if (featureConfigurationFacade.isTaskGenerationFeatureEnabled(TaskType.CONTACT_FOLLOW_UP)) {
-			contactFacade.generateContactFollowUpTasks();
-		}
-		if (featureConfigurationFacade.isTaskGenerationFeatureEnabled(TaskType.WEEKLY_REPORT_GENERATION)) {
-			weeklyReportFacade.generateSubmitWeeklyReportTasks();
-		}
+		jobScheduler.execute("generateAutomaticTasks", () -> {
+			if (featureConfigurationFacade.isTaskGenerationFeatureEnabled(TaskType.CONTACT_FOLLOW_UP)) {
+				contactFacade.generateContactFollowUpTasks();
+			}
+			if (featureConfigurationFacade.isTaskGenerationFeatureEnabled(TaskType.WEEKLY_REPORT_GENERATION)) {
+				weeklyReportFacade.generateSubmitWeeklyReportTasks();
+			}
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "10", second = "0", persistent = false)
 	public void cleanUpTemporaryFiles() {
+		jobScheduler.execute("cleanUpTemporaryFiles", this::deleteTemporaryFiles);
+	}
+
+	private Long deleteTemporaryFiles() {
 
 		Date now = new Date();
 		File exportFolder = new File(configFacade.getTempFilesPath());
-		int numberOfDeletedFiles = 0;
+		long numberOfDeletedFiles = 0;
 		for (final File fileEntry : exportFolder.listFiles()) {
 			// Skip the file if it's a directory or not a temporary sormas file
 			if (!fileEntry.isFile() || (!fileEntry.getName().startsWith(ImportExportUtils.TEMP_FILE_PREFIX))) {
@@ -128,43 +156,57 @@ public class CronService {
 		}
 
 		logger.info("Deleted " + numberOfDeletedFiles + " export files");
+		return numberOfDeletedFiles;
 	}
 
 	@Schedule(hour = "1", minute = "15", second = "0", persistent = false)
 	public void archiveCases() {
-
-		int daysAfterCaseGetsArchived = configFacade.getDaysAfterCaseGetsArchived();
-		if (daysAfterCaseGetsArchived >= 1) {
-			caseFacade.archiveAllArchivableCases(daysAfterCaseGetsArchived);
-		}
+		jobScheduler.execute("archiveCases", () -> {
+			int daysAfterCaseGetsArchived = configFacade.getDaysAfterCaseGetsArchived();
+			if (daysAfterCaseGetsArchived >= 1) {
+				caseFacade.archiveAllArchivableCases(daysAfterCaseGetsArchived);
+			}
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "20", second = "0", persistent = false)
 	public void archiveEvents() {
-
-		int daysAfterEventsGetsArchived = configFacade.getDaysAfterEventGetsArchived();
-		if (daysAfterEventsGetsArchived >= 1) {
-			eventFacade.archiveAllArchivableEvents(daysAfterEventsGetsArchived);
-		}
+		jobScheduler.execute("archiveEvents", () -> {
+			int daysAfterEventsGetsArchived = configFacade.getDaysAfterEventGetsArchived();
+			if (daysAfterEventsGetsArchived >= 1) {
+				eventFacade.archiveAllArchivableEvents(daysAfterEventsGetsArchived);
+			}
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "25", second = "0", persistent = false)
 	public void cleanupDeletedDocuments() {
-		documentFacade.cleanupDeletedDocuments();
+		jobScheduler.execute("cleanupDeletedDocuments", () -> {
+			documentFacade.cleanupDeletedDocuments();
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "30", second = "0", persistent = false)
 	public void deleteSystemEvents() {
-		int daysAfterSystemEventGetsDeleted = configFacade.getDaysAfterSystemEventGetsDeleted();
-		if (daysAfterSystemEventGetsDeleted >= 1) {
-			systemEventFacade.deleteAllDeletableSystemEvents(daysAfterSystemEventGetsDeleted);
-		}
+		jobScheduler.execute("deleteSystemEvents", () -> {
+			int daysAfterSystemEventGetsDeleted = configFacade.getDaysAfterSystemEventGetsDeleted();
+			if (daysAfterSystemEventGetsDeleted >= 1) {
+				systemEventFacade.deleteAllDeletableSystemEvents(daysAfterSystemEventGetsDeleted);
+			}
+			return null;
+		});
 	}
 
 	@Schedule(hour = "1", minute = "35", second = "0", persistent = false)
 	public void fetchLabMessages() {
-		if (featureConfigurationFacade.isFeatureEnabled(FeatureType.LAB_MESSAGES)) {
-			labMessageFacade.fetchAndSaveExternalLabMessages(null);
-		}
+		jobScheduler.execute("fetchLabMessages", () -> {
+			if (featureConfigurationFacade.isFeatureEnabled(FeatureType.LAB_MESSAGES)) {
+				labMessageFacade.fetchAndSaveExternalLabMessages(null);
+			}
+			return null;
+		});
 	}
 }
@@ -0,0 +1,355 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.systemevents.ScheduledJobStatusDto;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.api.systemevents.SystemEventType;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.systemevent.SystemEvent;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
+import de.symeda.sormas.backend.systemevent.SystemEventService;
+import de.symeda.sormas.backend.util.ValueStatistics;
+
+/**
+ * Runs the jobs of the {@link CronService}:
+ * <ul>
+ * <li>A job is skipped while its previous run on this server is still going on.</li>
+ * <li>When several servers share the database, only the server that gets the lease of the job in the database runs it;
+ * the lease is granted once per scheduled minute and not while another server holds it. It is renewed while the job
+ * runs and only expires if the server stops.</li>
+ * <li>Each run is recorded as a {@link SystemEventType#SCHEDULED_JOB} system event whose additional info starts with
+ * the name of the job.</li>
+ * <li>The durations and processed rows of the runs on this server are counted in histograms.</li>
+ * </ul>
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JobScheduler {
+
+	private static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+	private static final long LEASE_RENEWAL_MILLIS = LEASE_MILLIS / 5;
+
+	private static final long[] DURATION_BOUNDS_MILLIS = {
+		100,
+		1000,
+		10_000,
+		60_000,
+		600_000,
+		3_600_000 };
+	private static final String[] DURATION_LABELS = {
+		"100ms",
+		"1s",
+		"10s",
+		"1min",
+		"10min",
+		"1h" };
+	private static final long[] ROW_COUNT_BOUNDS = {
+		0,
+		10,
+		100,
+		1000,
+		10_000,
+		100_000 };
+	private static final String[] ROW_COUNT_LABELS = {
+		"0",
+		"10",
+		"100",
+		"1k",
+		"10k",
+		"100k" };
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** identifies this server in the leases, e.g. 1234@hostname */
+	private final String serverName = ManagementFactory.getRuntimeMXBean().getName();
+
+	private final Map<String, JobStatistics> statisticsByJob = new ConcurrentHashMap<>();
+
+	@EJB
+	private ScheduledJobService scheduledJobService;
+	@EJB
+	private SystemEventService systemEventService;
+	@EJB
+	private SystemEventFacadeEjbLocal systemEventFacade;
+	@Resource
+	private ManagedScheduledExecutorService scheduledExecutorService;
+
+	@FunctionalInterface
+	public interface Job {
+
+		/**
+		 * @return the number of processed rows or {@code null} if the job does not count them
+		 */
+		Long run();
+	}
+
+	/**
+	 * Runs the job unless it is still running or has already been run for this minute by another server.
+	 *
+	 * @return {@code true} if the job was run successfully
+	 */
+	public boolean execute(String jobName, Job job) {
+
+		JobStatistics statistics = statisticsByJob.computeIfAbsent(jobName, name -> new JobStatistics());
+		if (!statistics.running.compareAndSet(false, true)) {
+			statistics.skippedCount.incrementAndGet();
+			logger.warn("Skipped {}, because it is still running", jobName);
+			return false;
+		}
+
+		try {
+			if (!acquireLease(jobName, DateUtils.truncate(new Date(), Calendar.MINUTE))) {
+				statistics.skippedCount.incrementAndGet();
+				logger.debug("Skipped {}, because it is run by another server", jobName);
+				return false;
+			}
+
+			ScheduledFuture<?> leaseRenewal = scheduledExecutorService
+				.scheduleWithFixedDelay(() -> renewLease(jobName), LEASE_RENEWAL_MILLIS, LEASE_RENEWAL_MILLIS, TimeUnit.MILLISECONDS);
+			try {
+				return run(jobName, job, statistics);
+			} finally {
+				leaseRenewal.cancel(false);
+				scheduledJobService.releaseLease(jobName, serverName);
+			}
+		} finally {
+			statistics.running.set(false);
+		}
+	}
+
+	private boolean acquireLease(String jobName, Date scheduledRun) {
+
+		Date leaseEnd = new Date(System.currentTimeMillis() + LEASE_MILLIS);
+		if (scheduledJobService.acquireLease(jobName, serverName, scheduledRun, leaseEnd)) {
+			return true;
+		}
+
+		if (scheduledJobService.getByName(jobName) == null) {
+			try {
+				scheduledJobService.createIfMissing(jobName);
+			} catch (RuntimeException e) {
+				// another server has created the job at the same time and will run it
+				return false;
+			}
+			return scheduledJobService.acquireLease(jobName, serverName, scheduledRun, leaseEnd);
+		}
+
+		return false;
+	}
+
+	private void renewLease(String jobName) {
+
+		try {
+			if (!scheduledJobService.renewLease(jobName, serverName, new Date(System.currentTimeMillis() + LEASE_MILLIS))) {
+				logger.warn("Lost the lease of {} while it is running", jobName);
+			}
+		} catch (RuntimeException e) {
+			// the next renewal tries again
+			logger.error("Could not renew the lease of " + jobName, e);
+		}
+	}
+
+	private boolean run(String jobName, Job job, JobStatistics statistics) {
+
+		long startTime = DateHelper.startTime();
+
+		SystemEventDto systemEvent = SystemEventDto.build();
+		systemEvent.setType(SystemEventType.SCHEDULED_JOB);
+		systemEvent.setStatus(SystemEventStatus.STARTED);
+		systemEvent.setStartDate(new Date(startTime));
+		systemEvent.setAdditionalInfo(getInfo(jobName, "running on " + serverName));
+		systemEventFacade.saveSystemEvent(systemEvent);
+
+		try {
+			Long rowCount = job.run();
+			long duration = DateHelper.durationMillies(startTime);
+			statistics.recordRun(duration, rowCount);
+
+			String result = (rowCount != null ? rowCount + " rows, " : "") + duration + " ms on " + serverName;
+			logger.debug("{} finished: {}", jobName, result);
+			systemEventFacade.reportSuccess(systemEvent, getInfo(jobName, result), new Date());
+			return true;
+		} catch (RuntimeException e) {
+			statistics.recordFailure(DateHelper.durationMillies(startTime));
+			logger.error(jobName + " failed", e);
+			systemEventFacade.reportError(systemEvent, getInfo(jobName, e.getMessage()), new Date());
+			return false;
+		}
+	}
+
+	private String getInfo(String jobName, String message) {
+		return jobName + ": " + message;
+	}
+
+	/**
+	 * @return the status of all jobs that have been run on any server, sorted by name
+	 */
+	public List<ScheduledJobStatusDto> getStatuses() {
+
+		Map<String, ScheduledJob> jobs = new ConcurrentHashMap<>();
+		scheduledJobService.getAll().forEach(job -> jobs.put(job.getName(), job));
+
+		TreeSet<String> jobNames = new TreeSet<>(jobs.keySet());
+		jobNames.addAll(statisticsByJob.keySet());
+
+		List<ScheduledJobStatusDto> statuses = new ArrayList<>();
+		for (String jobName : jobNames) {
+			ScheduledJobStatusDto status = new ScheduledJobStatusDto();
+			status.setJobName(jobName);
+
+			ScheduledJob job = jobs.get(jobName);
+			if (job != null && job.getLeaseEnd() != null && job.getLeaseEnd().after(new Date())) {
+				status.setLeaseOwner(job.getLeaseOwner());
+			}
+
+			SystemEvent lastRun = systemEventService.getLatestByTypeAndInfoPrefix(SystemEventType.SCHEDULED_JOB, getInfo(jobName, ""));
+			if (lastRun != null) {
+				status.setLastStatus(lastRun.getStatus());
+				status.setLastStartDate(lastRun.getStartDate());
+				status.setLastEndDate(lastRun.getEndDate());
+				status.setLastInfo(lastRun.getAdditionalInfo());
+			}
+
+			JobStatistics statistics = statisticsByJob.get(jobName);
+			if (statistics != null) {
+				statistics.fillStatus(status);
+			}
+			statuses.add(status);
+		}
+		return statuses;
+	}
+
+	private static final class JobStatistics {
+
+		private final AtomicBoolean running = new AtomicBoolean();
+		private final AtomicLong skippedCount = new AtomicLong();
+		private final AtomicLong failedCount = new AtomicLong();
+		private final ValueStatistics runs = new ValueStatistics("ms");
+		private final Histogram durations = new Histogram(DURATION_BOUNDS_MILLIS, DURATION_LABELS);
+		private final Histogram rowCounts = new Histogram(ROW_COUNT_BOUNDS, ROW_COUNT_LABELS);
+
+		private void recordRun(long durationMillis, Long rowCount) {
+
+			recordDuration(durationMillis);
+			if (rowCount != null) {
+				rowCounts.record(rowCount);
+			}
+		}
+
+		private void recordFailure(long durationMillis) {
+
+			failedCount.incrementAndGet();
+			recordDuration(durationMillis);
+		}
+
+		private void recordDuration(long durationMillis) {
+
+			runs.record(durationMillis);
+			durations.record(durationMillis);
+		}
+
+		private void fillStatus(ScheduledJobStatusDto status) {
+
+			status.setRunning(running.get());
+			status.setRunCount(runs.getCount());
+			status.setSkippedCount(skippedCount.get());
+			status.setFailedCount(failedCount.get());
+			status.setAverageDurationMillis(runs.getAverage());
+			status.setMaxDurationMillis(runs.getMax());
+			status.setDurationHistogram(durations.toString());
+			status.setRowCountHistogram(rowCounts.toString());
+		}
+	}
+
+	/**
+	 * Counts values in buckets with the given inclusive upper bounds and one more bucket for larger values.
+	 */
+	static final class Histogram {
+
+		private final long[] bounds;
+		private final String[] labels;
+		private final AtomicLongArray counts;
+
+		Histogram(long[] bounds, String[] labels) {
+			this.bounds = bounds;
+			this.labels = labels;
+			this.counts = new AtomicLongArray(bounds.length + 1);
+		}
+
+		void record(long value) {
+
+			int bucket = 0;
+			while (bucket < bounds.length && value > bounds[bucket]) {
+				bucket++;
+			}
+			counts.incrementAndGet(bucket);
+		}
+
+		long getCount(int bucket) {
+			return counts.get(bucket);
+		}
+
+		/**
+		 * @return the non-empty buckets, e.g. {@code "≤1s: 12, ≤10s: 3"}
+		 */
+		@Override
+		public String toString() {
+
+			StringBuilder sb = new StringBuilder();
+			for (int bucket = 0; bucket < counts.length(); bucket++) {
+				long count = counts.get(bucket);
+				if (count > 0) {
+					if (sb.length() > 0) {
+						sb.append(", ");
+					}
+					sb.append(bucket < bounds.length ? "≤" + labels[bucket] : ">" + labels[bounds.length - 1]).append(": ").append(count);
+				}
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
+
+/**
+ * Builds the criteria to restrict map markers to the visible part of the map and to aggregate them per grid cell.
+ */
+public final class MapViewportHelper {
+
+	private MapViewportHelper() {
+		// Hide Utility Class Constructor
+	}
+
+	/**
+	 * @return a filter for positions within the bounding box of the viewport; the viewport may span the antimeridian
+	 */
+	public static Predicate withinViewport(CriteriaBuilder cb, Expression<Double> latitude, Expression<Double> longitude, MapViewportDto viewport) {
+
+		Predicate filter = cb.between(latitude, viewport.getSouth(), viewport.getNorth());
+
+		double width = viewport.getEast() - viewport.getWest();
+		if (width >= 360) {
+			return filter;
+		}
+
+		double west = ((viewport.getWest() + 180) % 360 + 360) % 360 - 180;
+		double east = west + width;
+		if (east <= 180) {
+			return cb.and(filter, cb.between(longitude, west, east));
+		} else {
+			return cb.and(filter, cb.or(cb.greaterThanOrEqualTo(longitude, west), cb.lessThanOrEqualTo(longitude, east - 360)));
+		}
+	}
+
+	/**
+	 * The cell count is rendered as an integer literal, so the expression is identical wherever it is used and the
+	 * database accepts it in the select and the group by clause.
+	 *
+	 * @return the index of the grid cell containing the latitude or longitude
+	 */
+	public static Expression<Double> cellIndex(CriteriaBuilder cb, Expression<Double> coordinate, MapViewportDto viewport) {
+		return cb.function("floor", Double.class, cb.quot(cb.prod(coordinate, viewport.getCellCount()), 360));
+	}
+
+	/**
+	 * Merges the rows of grouped cluster queries into one cluster per grid cell.
+	 *
+	 * @param rows
+	 *            latitude cell index, longitude cell index, classification, count
+	 */
+	@SuppressWarnings("unchecked")
+	public static <C extends Enum<C>> List<MapMarkerClusterDto<C>> toClusters(List<Object[]> rows, MapViewportDto viewport) {
+
+		Map<String, MapMarkerClusterDto<C>> clusters = new LinkedHashMap<>();
+		for (Object[] row : rows) {
+			long latitudeIndex = ((Number) row[0]).longValue();
+			long longitudeIndex = ((Number) row[1]).longValue();
+			MapMarkerClusterDto<C> cluster = clusters.computeIfAbsent(
+				latitudeIndex + ":" + longitudeIndex,
+				k -> new MapMarkerClusterDto<>(viewport.getCellCenter(latitudeIndex), viewport.getCellCenter(longitudeIndex)));
+			cluster.addCount((C) row[2], ((Number) row[3]).longValue());
+		}
+
+		return new ArrayList<>(clusters.values());
+	}
+}
@@ -1,7 +1,7 @@
 package de.symeda.sormas.backend.common;
 
-import static de.symeda.sormas.backend.ExtendedPostgreSQL94Dialect.ARRAY_AGG;
-import static de.symeda.sormas.backend.ExtendedPostgreSQL94Dialect.ARRAY_TO_STRING;
+import static de.symeda.sormas.backend.ExtendedPostgreSQL95Dialect.ARRAY_AGG;
+import static de.symeda.sormas.backend.ExtendedPostgreSQL95Dialect.ARRAY_TO_STRING;
 
 import java.util.HashMap;
 import java.util.List;
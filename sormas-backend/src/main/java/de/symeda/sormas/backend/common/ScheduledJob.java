@@ -0,0 +1,89 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * The lease of a job run by the {@link JobScheduler}. The server holding the lease runs the job; the other servers of a
+ * cluster skip it.
+ */
+@Entity
+public class ScheduledJob extends AbstractDomainObject {
+
+	private static final long serialVersionUID = -2235512379120153812L;
+
+	public static final String TABLE_NAME = "scheduledjob";
+
+	public static final String NAME = "name";
+	public static final String LEASE_OWNER = "leaseOwner";
+	public static final String LEASE_END = "leaseEnd";
+	public static final String LAST_SCHEDULED_RUN = "lastScheduledRun";
+
+	private String name;
+	private String leaseOwner;
+	private Date leaseEnd;
+	private Date lastScheduledRun;
+
+	@Column(nullable = false, unique = true)
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return the server that runs or last ran the job
+	 */
+	@Column
+	public String getLeaseOwner() {
+		return leaseOwner;
+	}
+
+	public void setLeaseOwner(String leaseOwner) {
+		this.leaseOwner = leaseOwner;
+	}
+
+	/**
+	 * @return the end of the lease while the job is running, {@code null} otherwise
+	 */
+	@Temporal(TemporalType.TIMESTAMP)
+	public Date getLeaseEnd() {
+		return leaseEnd;
+	}
+
+	public void setLeaseEnd(Date leaseEnd) {
+		this.leaseEnd = leaseEnd;
+	}
+
+	/**
+	 * @return the scheduled time of the last run, so a run scheduled on several servers is only executed once
+	 */
+	@Temporal(TemporalType.TIMESTAMP)
+	public Date getLastScheduledRun() {
+		return lastScheduledRun;
+	}
+
+	public void setLastScheduledRun(Date lastScheduledRun) {
+		this.lastScheduledRun = lastScheduledRun;
+	}
+}
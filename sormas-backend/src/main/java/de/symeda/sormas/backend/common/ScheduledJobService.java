@@ -0,0 +1,128 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Date;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.NoResultException;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+
+@Stateless
+@LocalBean
+public class ScheduledJobService extends BaseAdoService<ScheduledJob> {
+
+	public ScheduledJobService() {
+		super(ScheduledJob.class);
+	}
+
+	public ScheduledJob getByName(String name) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<ScheduledJob> cq = cb.createQuery(ScheduledJob.class);
+		Root<ScheduledJob> root = cq.from(ScheduledJob.class);
+		cq.where(cb.equal(root.get(ScheduledJob.NAME), name));
+
+		try {
+			return em.createQuery(cq).getSingleResult();
+		} catch (NoResultException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the row holding the lease of the job. Fails with a unique constraint violation if another server has
+	 * created it at the same time.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void createIfMissing(String name) {
+
+		if (getByName(name) == null) {
+			ScheduledJob job = new ScheduledJob();
+			job.setName(name);
+			ensurePersisted(job);
+		}
+	}
+
+	/**
+	 * Takes the lease of the job with a single conditional update, so of several servers trying at the same time only
+	 * one succeeds. The lease is only granted if it is not held by another run and the scheduled run has not been
+	 * executed yet.
+	 *
+	 * @return {@code true} if the lease was granted
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public boolean acquireLease(String name, String owner, Date scheduledRun, Date leaseEnd) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<ScheduledJob> cu = cb.createCriteriaUpdate(ScheduledJob.class);
+		Root<ScheduledJob> root = cu.from(ScheduledJob.class);
+
+		cu.set(ScheduledJob.LEASE_OWNER, owner);
+		cu.set(ScheduledJob.LEASE_END, leaseEnd);
+		cu.set(ScheduledJob.LAST_SCHEDULED_RUN, scheduledRun);
+		cu.set(ScheduledJob.CHANGE_DATE, Timestamp.from(Instant.now()));
+		cu.where(
+			cb.equal(root.get(ScheduledJob.NAME), name),
+			cb.or(cb.isNull(root.get(ScheduledJob.LEASE_END)), cb.lessThan(root.get(ScheduledJob.LEASE_END), new Date())),
+			cb.or(cb.isNull(root.get(ScheduledJob.LAST_SCHEDULED_RUN)), cb.lessThan(root.get(ScheduledJob.LAST_SCHEDULED_RUN), scheduledRun)));
+
+		return em.createQuery(cu).executeUpdate() == 1;
+	}
+
+	/**
+	 * Extends the lease of the job, as long as the owner still holds it.
+	 *
+	 * @return {@code false} if the lease has been released or taken over by another server
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public boolean renewLease(String name, String owner, Date leaseEnd) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<ScheduledJob> cu = cb.createCriteriaUpdate(ScheduledJob.class);
+		Root<ScheduledJob> root = cu.from(ScheduledJob.class);
+
+		cu.set(ScheduledJob.LEASE_END, leaseEnd);
+		cu.set(ScheduledJob.CHANGE_DATE, Timestamp.from(Instant.now()));
+		cu.where(
+			cb.equal(root.get(ScheduledJob.NAME), name),
+			cb.equal(root.get(ScheduledJob.LEASE_OWNER), owner),
+			cb.isNotNull(root.get(ScheduledJob.LEASE_END)));
+
+		return em.createQuery(cu).executeUpdate() == 1;
+	}
+
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void releaseLease(String name, String owner) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaUpdate<ScheduledJob> cu = cb.createCriteriaUpdate(ScheduledJob.class);
+		Root<ScheduledJob> root = cu.from(ScheduledJob.class);
+
+		cu.set(root.get(ScheduledJob.LEASE_END), (Date) null);
+		cu.set(ScheduledJob.CHANGE_DATE, Timestamp.from(Instant.now()));
+		cu.where(cb.equal(root.get(ScheduledJob.NAME), name), cb.equal(root.get(ScheduledJob.LEASE_OWNER), owner));
+
+		em.createQuery(cu).executeUpdate();
+	}
+}
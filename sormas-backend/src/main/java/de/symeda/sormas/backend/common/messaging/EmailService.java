@@ -20,7 +20,6 @@ package de.symeda.sormas.backend.common.messaging;
 import java.io.UnsupportedEncodingException;
 
 import javax.annotation.Resource;
-import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
@@ -49,7 +48,9 @@ public class EmailService {
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 
-	@Asynchronous
+	/**
+	 * Sends the email right away; notifications are sent through the {@link OutboxDispatcher} instead.
+	 */
 	public void sendEmail(String recipient, String subject, String content) throws AddressException, MessagingException {
 
 		Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
@@ -41,6 +41,9 @@ public class ManualMessageLog extends AbstractDomainObject {
 		this.messageType = messageType;
 	}
 
+	/**
+	 * @return when the message was delivered, {@code null} as long as it is waiting in the outbox
+	 */
 	@Temporal(TemporalType.TIMESTAMP)
 	public Date getSentDate() {
 		return sentDate;
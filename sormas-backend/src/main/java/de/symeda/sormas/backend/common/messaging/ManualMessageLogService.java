@@ -35,7 +35,8 @@ public class ManualMessageLogService extends BaseAdoService<ManualMessageLog> {
 			cb.equal(manualMessageLogRoot.get(ManualMessageLog.MESSAGE_TYPE), messageType));
 
 		cq.where(filter);
-		cq.orderBy(cb.desc(manualMessageLogRoot.get(ManualMessageLog.SENT_DATE)));
+		// messages that have not been delivered yet have no sent date
+		cq.orderBy(cb.desc(manualMessageLogRoot.get(ManualMessageLog.CREATION_DATE)));
 
 		return em.createQuery(cq).setMaxResults(MANUAL_MESSAGE_LOG_LIMIT).getResultList();
 	}
@@ -0,0 +1,347 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.common.messaging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.mail.internet.AddressException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.util.ValueStatistics;
+
+/**
+ * Delivers the messages of the outbox in batches. Each channel has its own limit of concurrent deliveries, failed
+ * deliveries are retried with an exponential backoff and messages that can't be delivered after
+ * {@link #MAX_ATTEMPTS} attempts, or not at all because the recipient is invalid, are moved to the dead letters.
+ * <p>
+ * The dispatcher has its own timer instead of being run by the CronService, so it is not blocked by the long-running
+ * nightly jobs.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class OutboxDispatcher {
+
+	public static final int BATCH_SIZE = 100;
+	public static final int MAX_ATTEMPTS = 6;
+
+	private static final long LEASE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+	private static final long INITIAL_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private static final Map<MessageType, Integer> MAX_CONCURRENT_DELIVERIES;
+
+	static {
+		Map<MessageType, Integer> maxConcurrentDeliveries = new EnumMap<>(MessageType.class);
+		maxConcurrentDeliveries.put(MessageType.EMAIL, 4);
+		maxConcurrentDeliveries.put(MessageType.SMS, 2);
+		MAX_CONCURRENT_DELIVERIES = Collections.unmodifiableMap(maxConcurrentDeliveries);
+	}
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@EJB
+	private OutboxMessageService outboxMessageService;
+	@EJB
+	private EmailService emailService;
+	@EJB
+	private SmsService smsService;
+	@Resource
+	private ManagedExecutorService executorService;
+
+	private final AtomicBoolean dispatching = new AtomicBoolean();
+	private final Map<MessageType, DeliveryStatistics> statistics;
+
+	public OutboxDispatcher() {
+
+		Map<MessageType, DeliveryStatistics> channelStatistics = new EnumMap<>(MessageType.class);
+		for (MessageType messageType : MessageType.values()) {
+			channelStatistics.put(messageType, new DeliveryStatistics());
+		}
+		statistics = Collections.unmodifiableMap(channelStatistics);
+	}
+
+	/**
+	 * The messages are claimed and their outcomes recorded in transactions of their own, so the deliveries don't run
+	 * within a transaction. The attribute is needed here as well, because {@link #dispatch()} is called directly and not
+	 * through the container.
+	 */
+	@Schedule(hour = "*", minute = "*", second = "*/15", persistent = false)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public void dispatchOutboxMessages() {
+		dispatch();
+	}
+
+	/**
+	 * Delivers all messages that are due. Returns right away if another thread is already dispatching.
+	 *
+	 * @return the number of delivery attempts
+	 */
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+	public int dispatch() {
+
+		if (!dispatching.compareAndSet(false, true)) {
+			return 0;
+		}
+
+		try {
+			long startTime = DateHelper.startTime();
+			int attempts = 0;
+			int failed = 0;
+			List<OutboxMessage> messages;
+			do {
+				messages = outboxMessageService.claimDue(BATCH_SIZE, new Date(System.currentTimeMillis() + LEASE_MILLIS));
+				failed += deliver(messages);
+				attempts += messages.size();
+			}
+			while (messages.size() == BATCH_SIZE);
+
+			if (attempts > 0) {
+				logger.info(
+					"dispatchOutboxMessages finished. {} messages, {} failed, {} ms. Since startup: email {}; SMS {}.",
+					attempts,
+					failed,
+					DateHelper.durationMillies(startTime),
+					statistics.get(MessageType.EMAIL),
+					statistics.get(MessageType.SMS));
+			}
+			return attempts;
+		} finally {
+			dispatching.set(false);
+		}
+	}
+
+	/**
+	 * @return the statistics of all deliveries through the channel since the server was started
+	 */
+	public DeliveryStatistics getStatistics(MessageType messageType) {
+		return statistics.get(messageType);
+	}
+
+	/**
+	 * Delivers the messages by up to {@link #MAX_CONCURRENT_DELIVERIES} workers per channel that take the messages from
+	 * a shared queue. The outcomes are recorded by the calling thread once all messages have been processed.
+	 *
+	 * @return the number of failed deliveries
+	 */
+	private int deliver(List<OutboxMessage> messages) {
+
+		if (messages.isEmpty()) {
+			return 0;
+		}
+
+		Map<MessageType, Queue<OutboxMessage>> queues = new EnumMap<>(MessageType.class);
+		for (OutboxMessage message : messages) {
+			queues.computeIfAbsent(message.getMessageType(), t -> new ConcurrentLinkedQueue<>()).add(message);
+		}
+
+		Queue<Long> deliveredIds = new ConcurrentLinkedQueue<>();
+		Queue<DeliveryFailure> failures = new ConcurrentLinkedQueue<>();
+		List<Runnable> workers = new ArrayList<>();
+		queues.forEach((messageType, queue) -> {
+			Runnable worker = () -> {
+				OutboxMessage message;
+				while ((message = queue.poll()) != null) {
+					try {
+						send(message);
+						deliveredIds.add(message.getId());
+						statistics.get(messageType).recordDelivered(System.currentTimeMillis() - message.getCreationDate().getTime());
+					} catch (Exception e) {
+						failures.add(new DeliveryFailure(message, e));
+					}
+				}
+			};
+			int workerCount = Math.min(queue.size(), MAX_CONCURRENT_DELIVERIES.get(messageType));
+			for (int i = 0; i < workerCount; i++) {
+				workers.add(worker);
+			}
+		});
+
+		runWorkers(workers);
+
+		if (!deliveredIds.isEmpty()) {
+			outboxMessageService.recordDelivered(new ArrayList<>(deliveredIds));
+		}
+		for (DeliveryFailure failure : failures) {
+			recordFailure(failure.message, failure.exception);
+		}
+
+		return failures.size();
+	}
+
+	private void send(OutboxMessage message) throws Exception {
+
+		switch (message.getMessageType()) {
+		case EMAIL:
+			emailService.sendEmail(message.getRecipient(), message.getSubject(), message.getContent());
+			break;
+		case SMS:
+			smsService.sendSms(message.getRecipient(), message.getContent());
+			break;
+		default:
+			throw new IllegalArgumentException(message.getMessageType().toString());
+		}
+	}
+
+	private void recordFailure(OutboxMessage message, Exception exception) {
+
+		DeliveryStatistics channelStatistics = statistics.get(message.getMessageType());
+		int attemptCount = message.getAttemptCount() + 1;
+		if (isPermanentFailure(exception) || attemptCount >= MAX_ATTEMPTS) {
+			logger.error(
+				"{} {} could not be delivered after {} attempts and was moved to the dead letters: {}",
+				message.getMessageType(),
+				message.getUuid(),
+				attemptCount,
+				exception.getMessage());
+			channelStatistics.recordDeadLettered();
+			outboxMessageService.recordFailed(message.getId(), null, exception.toString());
+		} else {
+			logger.warn("{} {} could not be delivered, attempt {}: {}", message.getMessageType(), message.getUuid(), attemptCount, exception.getMessage());
+			channelStatistics.recordFailedAttempt();
+			outboxMessageService.recordFailed(message.getId(), new Date(System.currentTimeMillis() + getRetryDelay(attemptCount)), exception.toString());
+		}
+	}
+
+	private boolean isPermanentFailure(Exception exception) {
+		return exception instanceof AddressException || exception instanceof InvalidPhoneNumberException;
+	}
+
+	/**
+	 * @return the delay before the next attempt, doubled with every failed attempt
+	 */
+	static long getRetryDelay(int attemptCount) {
+		return Math.min(INITIAL_RETRY_DELAY_MILLIS << Math.min(attemptCount - 1, 30), MAX_RETRY_DELAY_MILLIS);
+	}
+
+	private void runWorkers(List<Runnable> workers) {
+
+		List<Future<?>> futures = new ArrayList<>();
+		if (executorService != null) {
+			for (Runnable worker : workers.subList(1, workers.size())) {
+				futures.add(executorService.submit(worker));
+			}
+			workers.get(0).run();
+		} else {
+			workers.forEach(Runnable::run);
+		}
+
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private static final class DeliveryFailure {
+
+		private final OutboxMessage message;
+		private final Exception exception;
+
+		private DeliveryFailure(OutboxMessage message, Exception exception) {
+			this.message = message;
+			this.exception = exception;
+		}
+	}
+
+	/**
+	 * Counts the deliveries through one channel. The latency is measured from the creation of the message, i.e. the
+	 * business transaction, to its successful delivery.
+	 */
+	public static final class DeliveryStatistics {
+
+		private final ValueStatistics latencies = new ValueStatistics("ms");
+		private final AtomicLong failedAttempts = new AtomicLong();
+		private final AtomicLong deadLettered = new AtomicLong();
+
+		private void recordDelivered(long latencyMillis) {
+			latencies.record(latencyMillis);
+		}
+
+		private void recordFailedAttempt() {
+			failedAttempts.incrementAndGet();
+		}
+
+		private void recordDeadLettered() {
+			deadLettered.incrementAndGet();
+		}
+
+		public long getDelivered() {
+			return latencies.getCount();
+		}
+
+		/**
+		 * @return the failed attempts that will be retried
+		 */
+		public long getFailedAttempts() {
+			return failedAttempts.get();
+		}
+
+		public long getDeadLettered() {
+			return deadLettered.get();
+		}
+
+		public long getAverageLatencyMillis() {
+			return latencies.getAverage();
+		}
+
+		public long getMaxLatencyMillis() {
+			return latencies.getMax();
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+				"%d delivered, %d failed attempts, %d dead letters, latency avg %d ms, max %d ms",
+				getDelivered(),
+				getFailedAttempts(),
+				getDeadLettered(),
+				getAverageLatencyMillis(),
+				getMaxLatencyMillis());
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.common.messaging;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+
+/**
+ * An email or SMS that was requested by a business transaction and is delivered by the {@link OutboxDispatcher} once
+ * that transaction has been committed. Delivered messages are deleted.
+ */
+@Entity
+public class OutboxMessage extends AbstractDomainObject {
+
+	private static final long serialVersionUID = -4871935226813617429L;
+
+	public static final String TABLE_NAME = "outboxmessage";
+
+	public static final String MESSAGE_TYPE = "messageType";
+	public static final String RECIPIENT = "recipient";
+	public static final String SUBJECT = "subject";
+	public static final String CONTENT = "content";
+	public static final String STATUS = "status";
+	public static final String ATTEMPT_COUNT = "attemptCount";
+	public static final String NEXT_ATTEMPT_DATE = "nextAttemptDate";
+	public static final String LAST_ERROR = "lastError";
+	public static final String MANUAL_MESSAGE_LOG = "manualMessageLog";
+
+	private MessageType messageType;
+	private String recipient;
+	private String subject;
+	private String content;
+	private OutboxMessageStatus status;
+	private int attemptCount;
+	private Date nextAttemptDate;
+	private String lastError;
+	private ManualMessageLog manualMessageLog;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public MessageType getMessageType() {
+		return messageType;
+	}
+
+	public void setMessageType(MessageType messageType) {
+		this.messageType = messageType;
+	}
+
+	/**
+	 * @return the email address or phone number
+	 */
+	@Column(nullable = false, length = 512)
+	public String getRecipient() {
+		return recipient;
+	}
+
+	public void setRecipient(String recipient) {
+		this.recipient = recipient;
+	}
+
+	@Column(columnDefinition = "text")
+	public String getSubject() {
+		return subject;
+	}
+
+	public void setSubject(String subject) {
+		this.subject = subject;
+	}
+
+	@Column(columnDefinition = "text")
+	public String getContent() {
+		return content;
+	}
+
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	public OutboxMessageStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OutboxMessageStatus status) {
+		this.status = status;
+	}
+
+	@Column(nullable = false)
+	public int getAttemptCount() {
+		return attemptCount;
+	}
+
+	public void setAttemptCount(int attemptCount) {
+		this.attemptCount = attemptCount;
+	}
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(nullable = false)
+	public Date getNextAttemptDate() {
+		return nextAttemptDate;
+	}
+
+	public void setNextAttemptDate(Date nextAttemptDate) {
+		this.nextAttemptDate = nextAttemptDate;
+	}
+
+	@Column(columnDefinition = "text")
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+	/**
+	 * @return the log entry of a manually sent message, which is marked as sent when the message has been delivered
+	 */
+	@ManyToOne(cascade = {})
+	public ManualMessageLog getManualMessageLog() {
+		return manualMessageLog;
+	}
+
+	public void setManualMessageLog(ManualMessageLog manualMessageLog) {
+		this.manualMessageLog = manualMessageLog;
+	}
+}
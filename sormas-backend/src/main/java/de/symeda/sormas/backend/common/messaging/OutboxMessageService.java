@@ -0,0 +1,152 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.common.messaging;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.LockModeType;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.backend.common.BaseAdoService;
+import de.symeda.sormas.backend.util.IterableHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+@Stateless
+@LocalBean
+public class OutboxMessageService extends BaseAdoService<OutboxMessage> {
+
+	private static final int MAX_ERROR_LENGTH = 4000;
+
+	public OutboxMessageService() {
+		super(OutboxMessage.class);
+	}
+
+	/**
+	 * Stores the message in the transaction of the caller, so it is only delivered if that transaction is committed.
+	 */
+	public void enqueue(MessageType messageType, String recipient, String subject, String content) {
+		enqueue(messageType, recipient, subject, content, null);
+	}
+
+	/**
+	 * @param manualMessageLog
+	 *            the log entry of a manually sent message that is to be marked as sent on delivery, or {@code null}
+	 */
+	public void enqueue(MessageType messageType, String recipient, String subject, String content, ManualMessageLog manualMessageLog) {
+
+		OutboxMessage message = new OutboxMessage();
+		message.setMessageType(messageType);
+		message.setRecipient(recipient);
+		message.setSubject(subject);
+		message.setContent(content);
+		message.setStatus(OutboxMessageStatus.PENDING);
+		message.setNextAttemptDate(new Date());
+		message.setManualMessageLog(manualMessageLog);
+		ensurePersisted(message);
+	}
+
+	/**
+	 * Claims the pending messages that are due for delivery by moving their next attempt date to the end of the lease.
+	 * The rows are locked while they are claimed and rows locked by a second server sharing the database are skipped
+	 * instead of waited for ({@code FOR UPDATE SKIP LOCKED}); if the
+	 * dispatcher dies before recording the outcome, the messages become due again when the lease has expired.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public List<OutboxMessage> claimDue(int maxResults, Date leaseEnd) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<OutboxMessage> cq = cb.createQuery(OutboxMessage.class);
+		Root<OutboxMessage> from = cq.from(OutboxMessage.class);
+		cq.where(
+			cb.equal(from.get(OutboxMessage.STATUS), OutboxMessageStatus.PENDING),
+			cb.lessThanOrEqualTo(from.get(OutboxMessage.NEXT_ATTEMPT_DATE), new Date()));
+		cq.orderBy(cb.asc(from.get(OutboxMessage.ID)));
+
+		List<OutboxMessage> messages = em.createQuery(cq)
+			.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+			.setHint(AvailableSettings.JPA_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+			.setMaxResults(maxResults)
+			.getResultList();
+		for (OutboxMessage message : messages) {
+			message.setNextAttemptDate(leaseEnd);
+		}
+		return messages;
+	}
+
+	/**
+	 * Deletes the delivered messages and marks the manually sent ones as sent in their log.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void recordDelivered(List<Long> messageIds) {
+
+		Date sentDate = new Date();
+		IterableHelper.executeBatched(messageIds, ModelConstants.PARAMETER_LIMIT, batchedIds -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+
+			CriteriaQuery<ManualMessageLog> logQuery = cb.createQuery(ManualMessageLog.class);
+			Root<OutboxMessage> message = logQuery.from(OutboxMessage.class);
+			logQuery.select(message.get(OutboxMessage.MANUAL_MESSAGE_LOG));
+			logQuery.where(message.get(OutboxMessage.ID).in(batchedIds));
+			for (ManualMessageLog manualMessageLog : em.createQuery(logQuery).getResultList()) {
+				manualMessageLog.setSentDate(sentDate);
+			}
+			em.flush();
+
+			CriteriaDelete<OutboxMessage> cd = cb.createCriteriaDelete(OutboxMessage.class);
+			Root<OutboxMessage> from = cd.from(OutboxMessage.class);
+			cd.where(from.get(OutboxMessage.ID).in(batchedIds));
+			em.createQuery(cd).executeUpdate();
+		});
+	}
+
+	/**
+	 * @param nextAttemptDate
+	 *            {@code null} to give up on the message and move it to the dead letters
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void recordFailed(long messageId, Date nextAttemptDate, String error) {
+
+		OutboxMessage message = getById(messageId);
+		if (message == null) {
+			return;
+		}
+
+		message.setAttemptCount(message.getAttemptCount() + 1);
+		message.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+		if (nextAttemptDate != null) {
+			message.setNextAttemptDate(nextAttemptDate);
+		} else {
+			message.setStatus(OutboxMessageStatus.DEAD_LETTER);
+		}
+	}
+
+	public long countByStatus(OutboxMessageStatus status) {
+		return count((cb, root) -> cb.equal(root.get(OutboxMessage.STATUS), status));
+	}
+}
@@ -1,35 +1,29 @@
-/*******************************************************************************
+/*
  * SORMAS® - Surveillance Outbreak Response Management & Analysis System
- * Copyright © 2016-2018 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
- *
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
  * GNU General Public License for more details.
- *
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <https://www.gnu.org/licenses/>.
- *******************************************************************************/
-package de.symeda.sormas.backend.common.messaging;
-
-import de.symeda.sormas.api.messaging.MessageType;
+ */
 
-@SuppressWarnings("serial")
-public class NotificationDeliveryFailedException extends Exception {
+package de.symeda.sormas.backend.common.messaging;
 
-	private MessageType messageType;
+public enum OutboxMessageStatus {
 
-	public NotificationDeliveryFailedException(String message, MessageType messageType, Throwable cause) {
-		super(message, cause);
-		this.messageType = messageType;
-	}
+	/**
+	 * Waiting for its next delivery attempt.
+	 */
+	PENDING,
 
-	public MessageType getMessageType() {
-		return messageType;
-	}
+	/**
+	 * Delivery failed permanently; the message is kept for inspection, but not sent again.
+	 */
+	DEAD_LETTER;
 }
@@ -19,7 +19,6 @@ package de.symeda.sormas.backend.common.messaging;
 
 import java.io.IOException;
 
-import javax.ejb.Asynchronous;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
@@ -27,6 +26,7 @@ import javax.ejb.Stateless;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.nexmo.client.HttpConfig;
 import com.nexmo.client.NexmoClient;
 import com.nexmo.client.NexmoClientException;
 import com.nexmo.client.insight.CarrierDetails.NetworkType;
@@ -38,6 +38,7 @@ import com.nexmo.client.sms.SmsSubmissionResponse;
 import com.nexmo.client.sms.SmsSubmissionResponseMessage;
 import com.nexmo.client.sms.messages.TextMessage;
 
+import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 
 @Stateless(name = "SmsService")
@@ -49,7 +50,12 @@ public class SmsService {
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 
-	@Asynchronous
+	/**
+	 * Sends the SMS right away; notifications are sent through the {@link OutboxDispatcher} instead.
+	 *
+	 * @throws NexmoClientException
+	 *             if the message was not accepted, so it can be sent again later
+	 */
 	public void sendSms(String phoneNumber, String content) throws IOException, NexmoClientException, InvalidPhoneNumberException {
 
 		if (!configFacade.isSmsServiceSetUp()) {
@@ -61,7 +67,11 @@ public class SmsService {
 			phoneNumber = phoneNumber.substring(1);
 		}
 
-		NexmoClient client = NexmoClient.builder().apiKey(configFacade.getSmsAuthKey()).apiSecret(configFacade.getSmsAuthSecret()).build();
+		NexmoClient.Builder clientBuilder = NexmoClient.builder().apiKey(configFacade.getSmsAuthKey()).apiSecret(configFacade.getSmsAuthSecret());
+		if (!DataHelper.isNullOrEmpty(configFacade.getSmsBaseUrl())) {
+			clientBuilder.httpConfig(HttpConfig.builder().baseUri(configFacade.getSmsBaseUrl()).build());
+		}
+		NexmoClient client = clientBuilder.build();
 
 		// If the phone number is invalid, e.g. because it is a landline number or malformed otherwise, throw an exception
 		InsightClient insightClient = client.getInsightClient();
@@ -75,12 +85,9 @@ public class SmsService {
 		for (SmsSubmissionResponseMessage message : response.getMessages()) {
 			if (message.getStatus() == MessageStatus.OK) {
 				logger.info("SMS successfully sent to {}.", phoneNumber);
-			} else if (message.getErrorText() != null) {
-				logger.info(
-					"Error sending SMS to {} with following error: status: {}, text: '{}'.",
-					phoneNumber,
-					message.getStatus(),
-					message.getErrorText());
+			} else {
+				throw new NexmoClientException(
+					String.format("Error sending SMS to %s with following error: status: %s, text: '%s'.", phoneNumber, message.getStatus(), message.getErrorText()));
 			}
 		}
 	}
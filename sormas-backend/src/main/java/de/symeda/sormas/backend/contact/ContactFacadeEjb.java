@@ -83,7 +83,12 @@ import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.contact.MapContactDto;
 import de.symeda.sormas.api.contact.MergeContactIndexDto;
 import de.symeda.sormas.api.contact.SimilarContactDto;
+import de.symeda.sormas.api.dashboard.ContactEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardContactDto;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.api.epidata.EpiDataDto;
 import de.symeda.sormas.api.epidata.EpiDataHelper;
@@ -109,7 +114,6 @@ import de.symeda.sormas.api.symptoms.SymptomsHelper;
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskPriority;
-import de.symeda.sormas.api.task.TaskStatus;
 import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.UserRight;
 import de.symeda.sormas.api.user.UserRole;
@@ -169,6 +173,7 @@ import de.symeda.sormas.backend.symptoms.Symptoms;
 import de.symeda.sormas.backend.symptoms.SymptomsFacadeEjb;
 import de.symeda.sormas.backend.task.Task;
 import de.symeda.sormas.backend.task.TaskService;
+import de.symeda.sormas.backend.task.TaskService.ContactFollowUpTaskChunkResult;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
 import de.symeda.sormas.backend.user.UserService;
@@ -191,6 +196,8 @@ public class ContactFacadeEjb implements ContactFacade {
 
 	private static final long SECONDS_30_DAYS = TimeUnit.DAYS.toSeconds(30L);
 
+	private static final int FOLLOW_UP_TASK_CHUNK_SIZE = 1000;
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
@@ -420,11 +427,17 @@ public class ContactFacadeEjb implements ContactFacade {
 	}
 
 	@Override
-	public Long countContactsForMap(RegionReferenceDto regionRef, DistrictReferenceDto districtRef, Disease disease, Date from, Date to) {
+	public Long countContactsForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		MapViewportDto viewport) {
 		Region region = regionService.getByReferenceDto(regionRef);
 		District district = districtService.getByReferenceDto(districtRef);
 
-		return contactService.countContactsForMap(region, district, disease, from, to);
+		return contactService.countContactsForMap(region, district, disease, from, to, viewport);
 	}
 
 	@Override
@@ -433,12 +446,28 @@ public class ContactFacadeEjb implements ContactFacade {
 		DistrictReferenceDto districtRef,
 		Disease disease,
 		Date from,
-		Date to) {
+		Date to,
+		MapViewportDto viewport) {
+
+		Region region = regionService.getByReferenceDto(regionRef);
+		District district = districtService.getByReferenceDto(districtRef);
+
+		return contactService.getContactsForMap(region, district, disease, from, to, viewport);
+	}
+
+	@Override
+	public List<MapMarkerClusterDto<ContactClassification>> getContactClustersForMap(
+		RegionReferenceDto regionRef,
+		DistrictReferenceDto districtRef,
+		Disease disease,
+		Date from,
+		Date to,
+		MapViewportDto viewport) {
 
 		Region region = regionService.getByReferenceDto(regionRef);
 		District district = districtService.getByReferenceDto(districtRef);
 
-		return contactService.getContactsForMap(region, district, disease, from, to);
+		return contactService.getContactClustersForMap(region, district, disease, from, to, viewport);
 	}
 
 	@Override
@@ -1303,6 +1332,18 @@ public class ContactFacadeEjb implements ContactFacade {
 		return contactService.getFollowUpUntilCount(contactCriteria, user);
 	}
 
+	@Override
+	public EpiCurveHistogramDto getContactEpiCurve(
+		ContactCriteria contactCriteria,
+		List<Date> bucketDates,
+		EpiCurveGrouping grouping,
+		ContactEpiCurveSeries series) {
+
+		EpiCurveHistogramDto histogram = new EpiCurveHistogramDto(bucketDates, grouping);
+		contactService.fillContactEpiCurve(contactCriteria, series, histogram);
+		return histogram;
+	}
+
 	public ContactDto convertToDto(Contact source, Pseudonymizer pseudonymizer) {
 
 		ContactDto dto = toDto(source);
@@ -1504,55 +1545,48 @@ public class ContactFacadeEjb implements ContactFacade {
 		return target;
 	}
 
+	/**
+	 * Creates today's follow-up tasks for all contacts under follow-up that don't have one yet. The contacts are
+	 * processed in chunks of {@link #FOLLOW_UP_TASK_CHUNK_SIZE}, each committed in its own transaction.
+	 */
 	@RolesAllowed(UserRole._SYSTEM)
-	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public void generateContactFollowUpTasks() {
 
-		// get all contacts that are followed up
+		long startTime = DateHelper.startTime();
 		LocalDateTime fromDateTime = LocalDate.now().atStartOfDay();
 		LocalDateTime toDateTime = fromDateTime.plusDays(1);
-		List<Contact> contacts = contactService.getFollowUpBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
-
-		for (Contact contact : contacts) {
-			// Only generate tasks for contacts that are under follow-up
-			if (!(contact.getFollowUpStatus().equals(FollowUpStatus.FOLLOW_UP) || contact.getFollowUpStatus().equals(FollowUpStatus.LOST))) {
-				continue;
-			}
 
-			User assignee;
-			try {
-				assignee = taskService.getTaskAssignee(contact);
-			} catch (TaskCreationException e) {
-				logger.warn(e.getMessage());
-				continue;
-			}
-
-			// find already existing tasks
-			TaskCriteria pendingUserTaskCriteria = new TaskCriteria().contact(contact.toReference())
-				.taskType(TaskType.CONTACT_FOLLOW_UP)
-				.assigneeUser(assignee.toReference())
-				.taskStatus(TaskStatus.PENDING);
-			List<Task> pendingUserTasks = taskService.findBy(pendingUserTaskCriteria, true);
-
-			if (!pendingUserTasks.isEmpty()) {
-				// the user still has a pending task for this contact
-				continue;
-			}
-
-			TaskCriteria dayTaskCriteria = new TaskCriteria().contact(contact.toReference())
-				.taskType(TaskType.CONTACT_FOLLOW_UP)
-				.dueDateBetween(DateHelper8.toDate(fromDateTime), DateHelper8.toDate(toDateTime));
-			List<Task> dayTasks = taskService.findBy(dayTaskCriteria, true);
-
-			if (!dayTasks.isEmpty()) {
-				// there is already a task for the exact day
-				continue;
-			}
-
-			// none found -> create the task
-			Task task = createContactTask(TaskType.CONTACT_FOLLOW_UP, fromDateTime, toDateTime, contact, assignee);
-			taskService.ensurePersisted(task);
-		}
+		Long lastContactId = null;
+		int chunkCount = 0;
+		long processedCount = 0;
+		long createdCount = 0;
+		long withoutAssigneeCount = 0;
+		long pendingTaskCount = 0;
+		ContactFollowUpTaskChunkResult chunk;
+		do {
+			chunk = taskService.createContactFollowUpTasks(
+				DateHelper8.toDate(fromDateTime),
+				DateHelper8.toDate(toDateTime),
+				lastContactId,
+				FOLLOW_UP_TASK_CHUNK_SIZE);
+			lastContactId = chunk.getLastContactId();
+			chunkCount++;
+			processedCount += chunk.getProcessedCount();
+			createdCount += chunk.getCreatedCount();
+			withoutAssigneeCount += chunk.getWithoutAssigneeCount();
+			pendingTaskCount += chunk.getPendingTaskCount();
+		}
+		while (lastContactId != null && chunk.getProcessedCount() == FOLLOW_UP_TASK_CHUNK_SIZE);
+
+		logger.info(
+			"Generated {} contact follow-up tasks for {} contacts in {} chunks, {} without assignee, {} with pending task ({} ms)",
+			createdCount,
+			processedCount,
+			chunkCount,
+			withoutAssigneeCount,
+			pendingTaskCount,
+			DateHelper.durationMillies(startTime));
 	}
 
 	private Task createContactTask(TaskType taskType, LocalDateTime fromDateTime, LocalDateTime toDateTime, Contact contact, User assignee) {
@@ -0,0 +1,71 @@
+package de.symeda.sormas.backend.contact;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A contact that needs a follow-up task, with the ids needed to choose the assignee.
+ */
+public class ContactFollowUpTaskCandidate {
+
+	private final Long contactId;
+	private final String contactUuid;
+	private final boolean highPriority;
+	private final Long contactOfficerId;
+	private final List<Long> districtIds;
+	private final List<Long> regionIds;
+
+	public ContactFollowUpTaskCandidate(
+		Long contactId,
+		String contactUuid,
+		Boolean highPriority,
+		Long contactOfficerId,
+		Long districtId,
+		Long personDistrictId,
+		Long caseResponsibleDistrictId,
+		Long caseDistrictId,
+		Long regionId,
+		Long personRegionId,
+		Long caseResponsibleRegionId,
+		Long caseRegionId) {
+
+		this.contactId = contactId;
+		this.contactUuid = contactUuid;
+		this.highPriority = Boolean.TRUE.equals(highPriority);
+		this.contactOfficerId = contactOfficerId;
+		this.districtIds = Arrays.asList(districtId, personDistrictId, caseResponsibleDistrictId, caseDistrictId);
+		this.regionIds = Arrays.asList(regionId, personRegionId, caseResponsibleRegionId, caseRegionId);
+	}
+
+	public Long getContactId() {
+		return contactId;
+	}
+
+	public String getContactUuid() {
+		return contactUuid;
+	}
+
+	public boolean isHighPriority() {
+		return highPriority;
+	}
+
+	public Long getContactOfficerId() {
+		return contactOfficerId;
+	}
+
+	/**
+	 * @return the ids of the contact's, contact person's, contact case's responsible and contact case's district in
+	 *         this order, {@code null} where not set
+	 */
+	public List<Long> getDistrictIds() {
+		return districtIds;
+	}
+
+	/**
+	 * @return the ids of the contact's, contact person's, contact case's responsible and contact case's region in this
+	 *         order, {@code null} where not set
+	 */
+	public List<Long> getRegionIds() {
+		return regionIds;
+	}
+}
@@ -18,6 +18,7 @@
 package de.symeda.sormas.backend.contact;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -60,7 +61,11 @@ import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.api.contact.ContactStatus;
 import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.contact.MapContactDto;
+import de.symeda.sormas.api.dashboard.ContactEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardContactDto;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.externaldata.ExternalDataDto;
 import de.symeda.sormas.api.externaldata.ExternalDataUpdateException;
 import de.symeda.sormas.api.followup.FollowUpLogic;
@@ -68,6 +73,7 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.sample.PathogenTestResultType;
 import de.symeda.sormas.api.task.TaskCriteria;
+import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.JurisdictionLevel;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
@@ -81,6 +87,7 @@ import de.symeda.sormas.backend.common.AbstractCoreAdoService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CoreAdo;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
+import de.symeda.sormas.backend.common.MapViewportHelper;
 import de.symeda.sormas.backend.disease.DiseaseConfigurationFacadeEjb.DiseaseConfigurationFacadeEjbLocal;
 import de.symeda.sormas.backend.epidata.EpiDataService;
 import de.symeda.sormas.backend.event.Event;
@@ -240,6 +247,37 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		return em.createQuery(cq).getResultList();
 	}
 
+	/**
+	 * @return the contacts of all the cases, loaded with one query per {@link ModelConstants#PARAMETER_LIMIT} cases
+	 */
+	public List<Contact> getAllByCases(List<Case> cases) {
+		return getAllByCaseAttribute(Contact.CAZE, cases);
+	}
+
+	/**
+	 * @return the contacts that resulted in any of the cases, loaded with one query per
+	 *         {@link ModelConstants#PARAMETER_LIMIT} cases
+	 */
+	public List<Contact> getAllByResultingCases(List<Case> cases) {
+		return getAllByCaseAttribute(Contact.RESULTING_CASE, cases);
+	}
+
+	private List<Contact> getAllByCaseAttribute(String caseAttribute, List<Case> cases) {
+
+		List<Contact> contacts = new ArrayList<>();
+		IterableHelper.executeBatched(cases, ModelConstants.PARAMETER_LIMIT, batch -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<Contact> cq = cb.createQuery(getElementClass());
+			Root<Contact> from = cq.from(getElementClass());
+
+			cq.where(createDefaultFilter(cb, from), from.get(caseAttribute).in(batch));
+			cq.orderBy(cb.asc(from.get(Contact.CREATION_DATE)));
+
+			contacts.addAll(em.createQuery(cq).getResultList());
+		});
+		return contacts;
+	}
+
 	public List<Object[]> getSourceCaseClassifications(List<Long> caseIds) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -256,13 +294,38 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		return em.createQuery(cq).getResultList();
 	}
 
-	public List<Contact> getFollowUpBetween(@NotNull Date fromDate, @NotNull Date toDate) {
+	/**
+	 * Finds the contacts under follow-up between the dates that don't have a follow-up task due in this period yet.
+	 * The contacts are returned ordered by id, starting after {@code afterContactId}, so they can be processed in chunks.
+	 */
+	public List<ContactFollowUpTaskCandidate> getFollowUpTaskCandidates(
+		@NotNull Date fromDate,
+		@NotNull Date toDate,
+		Long afterContactId,
+		int maxResults) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Contact> cq = cb.createQuery(getElementClass());
+		CriteriaQuery<ContactFollowUpTaskCandidate> cq = cb.createQuery(ContactFollowUpTaskCandidate.class);
 		Root<Contact> from = cq.from(getElementClass());
+		Join<Person, Location> address = from.join(Contact.PERSON).join(Person.ADDRESS, JoinType.LEFT);
+		Join<Contact, Case> caze = from.join(Contact.CAZE, JoinType.LEFT);
+
+		cq.multiselect(
+			from.get(Contact.ID),
+			from.get(Contact.UUID),
+			from.get(Contact.HIGH_PRIORITY),
+			from.join(Contact.CONTACT_OFFICER, JoinType.LEFT).get(User.ID),
+			from.join(Contact.DISTRICT, JoinType.LEFT).get(District.ID),
+			address.join(Location.DISTRICT, JoinType.LEFT).get(District.ID),
+			caze.join(Case.RESPONSIBLE_DISTRICT, JoinType.LEFT).get(District.ID),
+			caze.join(Case.DISTRICT, JoinType.LEFT).get(District.ID),
+			from.join(Contact.REGION, JoinType.LEFT).get(Region.ID),
+			address.join(Location.REGION, JoinType.LEFT).get(Region.ID),
+			caze.join(Case.RESPONSIBLE_REGION, JoinType.LEFT).get(Region.ID),
+			caze.join(Case.REGION, JoinType.LEFT).get(Region.ID));
 
 		Predicate filter = createActiveContactsFilter(cb, from);
+		filter = cb.and(filter, from.get(Contact.FOLLOW_UP_STATUS).in(FollowUpStatus.FOLLOW_UP, FollowUpStatus.LOST));
 		filter = cb.and(filter, cb.isNotNull(from.get(Contact.FOLLOW_UP_UNTIL)));
 		filter = cb.and(filter, cb.greaterThanOrEqualTo(from.get(Contact.FOLLOW_UP_UNTIL), fromDate));
 		filter = cb.and(
@@ -270,10 +333,25 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 			cb.or(
 				cb.and(cb.isNotNull(from.get(Contact.LAST_CONTACT_DATE)), cb.lessThan(from.get(Contact.LAST_CONTACT_DATE), toDate)),
 				cb.lessThan(from.get(Contact.REPORT_DATE_TIME), toDate)));
+		if (afterContactId != null) {
+			filter = cb.and(filter, cb.greaterThan(from.get(Contact.ID), afterContactId));
+		}
+
+		// anti-join: no follow-up task due in the period
+		Subquery<Long> taskSubquery = cq.subquery(Long.class);
+		Root<Task> taskRoot = taskSubquery.from(Task.class);
+		taskSubquery.select(taskRoot.get(Task.ID));
+		taskSubquery.where(
+			cb.equal(taskRoot.get(Task.CONTACT), from),
+			cb.equal(taskRoot.get(Task.TASK_TYPE), TaskType.CONTACT_FOLLOW_UP),
+			cb.greaterThanOrEqualTo(taskRoot.get(Task.DUE_DATE), fromDate),
+			cb.lessThan(taskRoot.get(Task.DUE_DATE), toDate));
+		filter = cb.and(filter, cb.not(cb.exists(taskSubquery)));
 
 		cq.where(filter);
+		cq.orderBy(cb.asc(from.get(Contact.ID)));
 
-		return em.createQuery(cq).getResultList();
+		return em.createQuery(cq).setMaxResults(maxResults).getResultList();
 	}
 
 	public List<Contact> getByPersonAndDisease(Person person, Disease disease) {
@@ -387,7 +465,7 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		return em.createQuery(cq).getResultList();
 	}
 
-	public Long countContactsForMap(Region region, District district, Disease disease, Date from, Date to) {
+	public Long countContactsForMap(Region region, District district, Disease disease, Date from, Date to, MapViewportDto viewport) {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 		Root<Contact> contact = cq.from(getElementClass());
@@ -396,6 +474,9 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		Join<Person, Location> contactPersonAddressJoin = personJoin.join(Person.ADDRESS, JoinType.LEFT);
 
 		Predicate filter = createMapContactsFilter(cb, cq, contact, caze, contactPersonAddressJoin, region, district, disease, from, to);
+		if (viewport != null) {
+			filter = CriteriaBuilderHelper.and(cb, filter, createMapContactsViewportFilter(cb, contact, contactPersonAddressJoin, viewport));
+		}
 
 		if (filter != null) {
 			cq.where(filter);
@@ -407,7 +488,7 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		return 0L;
 	}
 
-	public List<MapContactDto> getContactsForMap(Region region, District district, Disease disease, Date from, Date to) {
+	public List<MapContactDto> getContactsForMap(Region region, District district, Disease disease, Date from, Date to, MapViewportDto viewport) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<MapContactDto> cq = cb.createQuery(MapContactDto.class);
@@ -419,6 +500,9 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		Join<Case, Symptoms> symptoms = caze.join(Case.SYMPTOMS, JoinType.LEFT);
 
 		Predicate filter = createMapContactsFilter(cb, cq, contact, caze, contactPersonAddress, region, district, disease, from, to);
+		if (viewport != null) {
+			filter = CriteriaBuilderHelper.and(cb, filter, createMapContactsViewportFilter(cb, contact, contactPersonAddress, viewport));
+		}
 
 		List<MapContactDto> result;
 		if (filter != null) {
@@ -456,6 +540,69 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		return result;
 	}
 
+	/**
+	 * Counts the contacts per grid cell of the viewport and classification. Contacts are placed at their address or, if
+	 * it has no coordinates, where they were reported.
+	 */
+	public List<MapMarkerClusterDto<ContactClassification>> getContactClustersForMap(
+		Region region,
+		District district,
+		Disease disease,
+		Date from,
+		Date to,
+		MapViewportDto viewport) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Contact> contact = cq.from(getElementClass());
+		Join<Contact, Case> caze = contact.join(Contact.CAZE, JoinType.LEFT);
+		Join<Contact, Person> person = contact.join(Contact.PERSON, JoinType.LEFT);
+		Join<Person, Location> contactPersonAddress = person.join(Person.ADDRESS, JoinType.LEFT);
+
+		Predicate filter = createMapContactsFilter(cb, cq, contact, caze, contactPersonAddress, region, district, disease, from, to);
+		if (filter == null) {
+			return Collections.emptyList();
+		}
+
+		Predicate hasAddressGps =
+			cb.and(cb.isNotNull(contactPersonAddress.get(Location.LATITUDE)), cb.isNotNull(contactPersonAddress.get(Location.LONGITUDE)));
+		Expression<Double> latitude = cb.<Double> selectCase()
+			.when(hasAddressGps, contactPersonAddress.get(Location.LATITUDE))
+			.otherwise(contact.get(Contact.REPORT_LAT));
+		Expression<Double> longitude = cb.<Double> selectCase()
+			.when(hasAddressGps, contactPersonAddress.get(Location.LONGITUDE))
+			.otherwise(contact.get(Contact.REPORT_LON));
+		filter = cb.and(
+			filter,
+			cb.isNotNull(latitude),
+			cb.isNotNull(longitude),
+			MapViewportHelper.withinViewport(cb, latitude, longitude, viewport));
+
+		Expression<Double> latitudeIndex = MapViewportHelper.cellIndex(cb, latitude, viewport);
+		Expression<Double> longitudeIndex = MapViewportHelper.cellIndex(cb, longitude, viewport);
+		cq.multiselect(latitudeIndex, longitudeIndex, contact.get(Contact.CONTACT_CLASSIFICATION), cb.count(contact));
+		cq.where(filter);
+		cq.groupBy(latitudeIndex, longitudeIndex, contact.get(Contact.CONTACT_CLASSIFICATION));
+
+		return MapViewportHelper.toClusters(em.createQuery(cq).getResultList(), viewport);
+	}
+
+	private Predicate createMapContactsViewportFilter(
+		CriteriaBuilder cb,
+		Root<Contact> contactRoot,
+		Join<Person, Location> contactPersonAddressJoin,
+		MapViewportDto viewport) {
+
+		return CriteriaBuilderHelper.or(
+			cb,
+			MapViewportHelper.withinViewport(
+				cb,
+				contactPersonAddressJoin.get(Location.LATITUDE),
+				contactPersonAddressJoin.get(Location.LONGITUDE),
+				viewport),
+			MapViewportHelper.withinViewport(cb, contactRoot.get(Contact.REPORT_LAT), contactRoot.get(Contact.REPORT_LON), viewport));
+	}
+
 	private Predicate createMapContactsFilter(
 		CriteriaBuilder cb,
 		CriteriaQuery<?> cq,
@@ -704,6 +851,71 @@ public class ContactService extends AbstractCoreAdoService<Contact> {
 		return em.createQuery(cq).getSingleResult().intValue();
 	}
 
+	/**
+	 * Counts the contacts per day and series value in a single query and adds them to the buckets of the histogram.
+	 * The date range of the histogram is applied to a copy of the criteria.
+	 */
+	public void fillContactEpiCurve(ContactCriteria criteria, ContactEpiCurveSeries series, EpiCurveHistogramDto histogram) {
+
+		if (histogram.getBucketCount() == 0) {
+			return;
+		}
+
+		ContactCriteria contactCriteria = criteria.clone();
+		String dateProperty;
+		if (series == ContactEpiCurveSeries.FOLLOW_UP_UNTIL) {
+			contactCriteria.followUpUntilBetween(histogram.getFrom(), histogram.getTo());
+			dateProperty = Contact.FOLLOW_UP_UNTIL;
+		} else {
+			contactCriteria.reportDateBetween(histogram.getFrom(), histogram.getTo());
+			dateProperty = Contact.REPORT_DATE_TIME;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Contact> contact = cq.from(getElementClass());
+		final ContactQueryContext contactQueryContext = new ContactQueryContext(cb, cq, contact);
+
+		Predicate filter = createUserFilter(cb, cq, contact);
+		filter = CriteriaBuilderHelper.and(cb, filter, buildCriteriaFilter(contactCriteria, contactQueryContext));
+		if (filter != null) {
+			cq.where(filter);
+		}
+
+		Expression<Date> day = cb.function("date", Date.class, contact.get(dateProperty));
+
+		Expression<?> seriesExpression;
+		switch (series) {
+		case CONTACT_CLASSIFICATION:
+			seriesExpression = contact.get(Contact.CONTACT_CLASSIFICATION);
+			break;
+		case FOLLOW_UP_STATUS:
+			seriesExpression = contact.get(Contact.FOLLOW_UP_STATUS);
+			break;
+		case CONTACT_STATUS:
+			seriesExpression = contact.get(Contact.CONTACT_STATUS);
+			break;
+		default:
+			seriesExpression = null;
+		}
+
+		if (seriesExpression != null) {
+			cq.multiselect(day, seriesExpression, cb.count(contact));
+			cq.groupBy(day, seriesExpression);
+		} else {
+			cq.multiselect(day, cb.count(contact));
+			cq.groupBy(day);
+		}
+
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			if (seriesExpression != null) {
+				histogram.add(result[1], (Date) result[0], ((Number) result[2]).intValue());
+			} else {
+				histogram.add(null, (Date) result[0], ((Number) result[1]).intValue());
+			}
+		}
+	}
+
 	/**
 	 * Calculates resultingCase and contact status based on: - existing disease
 	 * cases (and classification) of the person - the incubation period - the
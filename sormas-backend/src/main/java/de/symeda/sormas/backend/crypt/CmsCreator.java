@@ -1,34 +1,25 @@
 package de.symeda.sormas.backend.crypt;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.security.PrivateKey;
-import java.security.cert.Certificate;
-import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
-import java.util.Arrays;
-import java.util.Collections;
 
-import org.bouncycastle.asn1.ASN1EncodableVector;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
-import org.bouncycastle.asn1.cms.AttributeTable;
-import org.bouncycastle.asn1.cms.IssuerAndSerialNumber;
 import org.bouncycastle.asn1.smime.SMIMECapability;
-import org.bouncycastle.asn1.smime.SMIMEEncryptionKeyPreferenceAttribute;
-import org.bouncycastle.asn1.x500.X500Name;
-import org.bouncycastle.cert.jcajce.JcaCertStore;
 import org.bouncycastle.cms.CMSEnvelopedData;
 import org.bouncycastle.cms.CMSEnvelopedDataGenerator;
+import org.bouncycastle.cms.CMSEnvelopedDataStreamGenerator;
 import org.bouncycastle.cms.CMSException;
 import org.bouncycastle.cms.CMSProcessableByteArray;
 import org.bouncycastle.cms.CMSSignedData;
 import org.bouncycastle.cms.CMSSignedDataGenerator;
+import org.bouncycastle.cms.CMSSignedDataStreamGenerator;
 import org.bouncycastle.cms.CMSTypedData;
-import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
 import org.bouncycastle.cms.jcajce.JceCMSContentEncryptorBuilder;
-import org.bouncycastle.cms.jcajce.JceKeyTransRecipientInfoGenerator;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
-import org.bouncycastle.operator.OperatorCreationException;
 import org.bouncycastle.operator.OutputEncryptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,8 +69,6 @@ public class CmsCreator {
 
 	private static final ASN1ObjectIdentifier SYMMETRIC_CRYPT_ALG = SMIMECapability.aES256_CBC;
 
-	private static final String SIG_ALG = "SHA256WITHRSA";
-
 	static {
 		//make sure BC is initialised
 		CryptInit.getProvider();
@@ -101,18 +90,68 @@ public class CmsCreator {
 		boolean validateSignature)
 		throws CMSException {
 
-		byte[] signedData = sign(plainData, signerCertificate, privateKey, validateSignature);
+		return signAndEncrypt(plainData, new CmsIdentity(signerCertificate, privateKey), new CmsPartner(recipientCertificate), validateSignature);
+	}
+
+	public static byte[] signAndEncrypt(byte[] plainData, CmsIdentity signer, CmsPartner recipient, boolean validateSignature) throws CMSException {
+
+		byte[] signedData = sign(plainData, signer, validateSignature);
 
 		/* Create the encryptor */
-		return encrypt(signedData, recipientCertificate);
+		return encrypt(signedData, recipient);
+	}
+
+	/**
+	 * Opens a stream that signs and encrypts the data written to it, without keeping it in memory. The message is only
+	 * complete when the stream has been closed.
+	 *
+	 * @param target
+	 *            receives the encrypted message; it is not closed with the returned stream
+	 */
+	public static OutputStream openSignAndEncrypt(OutputStream target, CmsIdentity signer, CmsPartner recipient) throws CMSException, IOException {
+
+		CMSEnvelopedDataStreamGenerator encryptor = new CMSEnvelopedDataStreamGenerator();
+		encryptor.addRecipientInfoGenerator(recipient.getRecipientInfoGenerator());
+		OutputEncryptor outputEncryptor = new JceCMSContentEncryptorBuilder(SYMMETRIC_CRYPT_ALG).setProvider(CryptInit.getProvider()).build();
+		OutputStream encryptingStream = encryptor.open(target, outputEncryptor);
+
+		CMSSignedDataStreamGenerator generator = new CMSSignedDataStreamGenerator();
+		generator.addSignerInfoGenerator(signer.createSignerInfoGenerator());
+		generator.addCertificates(signer.getCertificates());
+		OutputStream signingStream = generator.open(encryptingStream, true);
+
+		return new FilterOutputStream(signingStream) {
+
+			private boolean closed;
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				if (!closed) {
+					closed = true;
+					// the signed data is the content of the enveloped data, so it has to be completed first
+					signingStream.close();
+					encryptingStream.close();
+				}
+			}
+		};
 	}
 
 	static byte[] sign(byte[] plainData, X509Certificate signerCertificate, PrivateKey privateKey, boolean validateSignature) throws CMSException {
+		return sign(plainData, new CmsIdentity(signerCertificate, privateKey), validateSignature);
+	}
 
-		BouncyCastleProvider provider = CryptInit.getProvider();
+	static byte[] sign(byte[] plainData, CmsIdentity signer, boolean validateSignature) throws CMSException {
 
 		/* Create the SMIMESignedGenerator */
-		CMSSignedDataGenerator generator = createSigner(signerCertificate, privateKey, provider);
+		CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
+		generator.addSignerInfoGenerator(signer.createSignerInfoGenerator());
+		/* Add the list of certs to the generator */
+		generator.addCertificates(signer.getCertificates());
 
 		CMSTypedData content = new CMSProcessableByteArray(plainData);
 
@@ -125,54 +164,24 @@ public class CmsCreator {
 		}
 
 		if (validateSignature) {
-			CmsReader.verify(cmsSignedData, Collections.singletonList(signerCertificate));
+			CmsReader.verify(cmsSignedData, signer.asPartner());
 			logger.info("Created signature is valid");
 		}
 
 		return signedData;
 	}
 
-	private static CMSSignedDataGenerator createSigner(X509Certificate signerCertificate, PrivateKey privateKey, BouncyCastleProvider provider)
-		throws CMSException {
-
-		ASN1EncodableVector attributes = createAttributes(signerCertificate);
-
-		try {
-			CMSSignedDataGenerator generator = new CMSSignedDataGenerator();
-			generator.addSignerInfoGenerator(
-				new JcaSimpleSignerInfoGeneratorBuilder().setProvider(provider)
-					.setSignedAttributeGenerator(new AttributeTable(attributes))
-					.build(SIG_ALG, privateKey, signerCertificate));
-
-			/* Add the list of certs to the generator */
-			JcaCertStore certs = new JcaCertStore(Arrays.asList(signerCertificate));
-			generator.addCertificates(certs);
-
-			return generator;
-
-		} catch (CertificateEncodingException | OperatorCreationException e) {
-			throw new RuntimeException(e);
-		}
-	}
-
-	private static ASN1EncodableVector createAttributes(Certificate certificate) {
-		ASN1EncodableVector attributes = new ASN1EncodableVector();
-		attributes.add(
-			new SMIMEEncryptionKeyPreferenceAttribute(
-				new IssuerAndSerialNumber(
-					new X500Name(((X509Certificate) certificate).getIssuerDN().getName()),
-					((X509Certificate) certificate).getSerialNumber())));
-
-		return attributes;
+	public static byte[] encrypt(byte[] signedData, X509Certificate recipientCertificate) {
+		return encrypt(signedData, new CmsPartner(recipientCertificate));
 	}
 
-	public static byte[] encrypt(byte[] signedData, X509Certificate recipientCertificate) {
+	public static byte[] encrypt(byte[] signedData, CmsPartner recipient) {
 
 		BouncyCastleProvider provider = CryptInit.getProvider();
 
 		try {
 			CMSEnvelopedDataGenerator encryptor = new CMSEnvelopedDataGenerator();
-			encryptor.addRecipientInfoGenerator(new JceKeyTransRecipientInfoGenerator(recipientCertificate).setProvider(provider));
+			encryptor.addRecipientInfoGenerator(recipient.getRecipientInfoGenerator());
 
 			/* Encrypt the message */
 			CMSTypedData content = new CMSProcessableByteArray(signedData);
@@ -181,7 +190,7 @@ public class CmsCreator {
 
 			return ed.getEncoded();
 
-		} catch (CertificateEncodingException | IllegalArgumentException | CMSException | IOException e) {
+		} catch (IllegalArgumentException | CMSException | IOException e) {
 			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
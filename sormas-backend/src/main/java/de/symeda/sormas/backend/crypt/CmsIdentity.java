@@ -0,0 +1,98 @@
+package de.symeda.sormas.backend.crypt;
+
+import java.security.PrivateKey;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.cms.AttributeTable;
+import org.bouncycastle.asn1.cms.IssuerAndSerialNumber;
+import org.bouncycastle.asn1.smime.SMIMEEncryptionKeyPreferenceAttribute;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cms.Recipient;
+import org.bouncycastle.cms.RecipientId;
+import org.bouncycastle.cms.SignerInfoGenerator;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.cms.jcajce.JceKeyTransEnvelopedRecipient;
+import org.bouncycastle.cms.jcajce.JceKeyTransRecipientId;
+import org.bouncycastle.operator.OperatorCreationException;
+
+/**
+ * The own certificate and private key, prepared for signing and decrypting CMS messages.
+ * <p>
+ * Everything that does not depend on the message is built once, so an identity can be reused for any number of
+ * messages and by several threads.
+ */
+public class CmsIdentity {
+
+	private static final String SIG_ALG = "SHA256WITHRSA";
+
+	private final X509Certificate certificate;
+	private final PrivateKey privateKey;
+	private final AttributeTable signedAttributes;
+	private final JcaCertStore certificates;
+	private final RecipientId recipientId;
+	private final Recipient recipient;
+	private final CmsPartner partner;
+
+	public CmsIdentity(X509Certificate certificate, PrivateKey privateKey) {
+
+		this.certificate = certificate;
+		this.privateKey = privateKey;
+
+		ASN1EncodableVector attributes = new ASN1EncodableVector();
+		attributes.add(
+			new SMIMEEncryptionKeyPreferenceAttribute(
+				new IssuerAndSerialNumber(new X500Name(certificate.getIssuerDN().getName()), certificate.getSerialNumber())));
+		signedAttributes = new AttributeTable(attributes);
+
+		try {
+			certificates = new JcaCertStore(Collections.singletonList(certificate));
+		} catch (CertificateEncodingException e) {
+			throw new RuntimeException(e);
+		}
+
+		recipientId = new JceKeyTransRecipientId(certificate);
+		recipient = new JceKeyTransEnvelopedRecipient(privateKey);
+		partner = new CmsPartner(certificate);
+	}
+
+	/**
+	 * The signer holds the state of the signature, so a new one is needed for each message.
+	 */
+	SignerInfoGenerator createSignerInfoGenerator() {
+
+		try {
+			return new JcaSimpleSignerInfoGeneratorBuilder().setProvider(CryptInit.getProvider())
+				.setSignedAttributeGenerator(signedAttributes)
+				.build(SIG_ALG, privateKey, certificate);
+		} catch (CertificateEncodingException | OperatorCreationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public X509Certificate getCertificate() {
+		return certificate;
+	}
+
+	/**
+	 * @return the own certificate as a partner, to verify the own signatures
+	 */
+	CmsPartner asPartner() {
+		return partner;
+	}
+
+	JcaCertStore getCertificates() {
+		return certificates;
+	}
+
+	RecipientId getRecipientId() {
+		return recipientId;
+	}
+
+	Recipient getRecipient() {
+		return recipient;
+	}
+}
@@ -0,0 +1,55 @@
+package de.symeda.sormas.backend.crypt;
+
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+
+import org.bouncycastle.cms.RecipientInfoGenerator;
+import org.bouncycastle.cms.SignerId;
+import org.bouncycastle.cms.SignerInformationVerifier;
+import org.bouncycastle.cms.jcajce.JcaSignerInfoVerifierBuilder;
+import org.bouncycastle.cms.jcajce.JcaX509CertSelectorConverter;
+import org.bouncycastle.cms.jcajce.JceKeyTransRecipientInfoGenerator;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.bc.BcDigestCalculatorProvider;
+
+/**
+ * The certificate of another organization, prepared for encrypting CMS messages for it and verifying its signatures.
+ * <p>
+ * Like a {@link CmsIdentity}, a partner can be reused for any number of messages and by several threads.
+ */
+public class CmsPartner {
+
+	private static final JcaX509CertSelectorConverter SELECTOR_CONVERTER = new JcaX509CertSelectorConverter();
+
+	private final X509Certificate certificate;
+	private final RecipientInfoGenerator recipientInfoGenerator;
+	private final SignerInformationVerifier verifier;
+
+	public CmsPartner(X509Certificate certificate) {
+
+		this.certificate = certificate;
+
+		try {
+			recipientInfoGenerator = new JceKeyTransRecipientInfoGenerator(certificate).setProvider(CryptInit.getProvider());
+			verifier = new JcaSignerInfoVerifierBuilder(new BcDigestCalculatorProvider()).build(certificate);
+		} catch (CertificateEncodingException | OperatorCreationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	boolean isSigner(SignerId signerId) {
+		return SELECTOR_CONVERTER.getCertSelector(signerId).match(certificate);
+	}
+
+	public X509Certificate getCertificate() {
+		return certificate;
+	}
+
+	RecipientInfoGenerator getRecipientInfoGenerator() {
+		return recipientInfoGenerator;
+	}
+
+	SignerInformationVerifier getVerifier() {
+		return verifier;
+	}
+}
@@ -1,5 +1,7 @@
 package de.symeda.sormas.backend.crypt;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
@@ -9,26 +11,25 @@ import java.security.cert.CollectionCertStoreParameters;
 import java.security.cert.X509CertSelector;
 import java.security.cert.X509Certificate;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.bouncycastle.asn1.smime.SMIMECapability;
 import org.bouncycastle.cms.CMSEnvelopedData;
+import org.bouncycastle.cms.CMSEnvelopedDataParser;
 import org.bouncycastle.cms.CMSException;
 import org.bouncycastle.cms.CMSSignedData;
-import org.bouncycastle.cms.Recipient;
-import org.bouncycastle.cms.RecipientId;
+import org.bouncycastle.cms.CMSSignedDataParser;
+import org.bouncycastle.cms.CMSTypedStream;
 import org.bouncycastle.cms.RecipientInformation;
 import org.bouncycastle.cms.RecipientInformationStore;
 import org.bouncycastle.cms.SignerId;
 import org.bouncycastle.cms.SignerInformation;
-import org.bouncycastle.cms.SignerInformationVerifier;
-import org.bouncycastle.cms.jcajce.JcaSignerInfoVerifierBuilder;
+import org.bouncycastle.cms.SignerInformationStore;
 import org.bouncycastle.cms.jcajce.JcaX509CertSelectorConverter;
-import org.bouncycastle.cms.jcajce.JceKeyTransEnvelopedRecipient;
-import org.bouncycastle.cms.jcajce.JceKeyTransRecipientId;
-import org.bouncycastle.operator.OperatorCreationException;
 import org.bouncycastle.operator.bc.BcDigestCalculatorProvider;
 
 /**
@@ -50,11 +51,61 @@ public class CmsReader {
 		List<X509Certificate> expectedSignatureCerts,
 		X509Certificate recipientCertificate,
 		PrivateKey recipientPrivateKey) {
-		byte[] decrypted = decrypt(encryptedData, recipientCertificate, recipientPrivateKey);
-		return verifyAndExtractPayload(decrypted, expectedSignatureCerts);
+		return decryptAndVerify(
+			encryptedData,
+			expectedSignatureCerts.stream().map(CmsPartner::new).collect(Collectors.toList()),
+			new CmsIdentity(recipientCertificate, recipientPrivateKey));
+	}
+
+	public static byte[] decryptAndVerify(byte[] encryptedData, CmsPartner expectedSigner, CmsIdentity recipient) {
+		return decryptAndVerify(encryptedData, Collections.singletonList(expectedSigner), recipient);
+	}
+
+	private static byte[] decryptAndVerify(byte[] encryptedData, Collection<CmsPartner> expectedSigners, CmsIdentity recipient) {
+		byte[] decrypted = decrypt(encryptedData, recipient);
+		return extractVerifiedPayload(decrypted, expectedSigners);
+	}
+
+	/**
+	 * Decrypts the message and reads the signed content while it is being decrypted, without keeping it in memory. The
+	 * signature is verified after the content has been read, so the result of the reader must not be used if this
+	 * method fails.
+	 */
+	public static <T> T decryptAndVerify(InputStream encryptedData, CmsPartner expectedSigner, CmsIdentity recipient, PayloadReader<T> payloadReader)
+		throws IOException {
+
+		try {
+			CMSEnvelopedDataParser envelopedData = new CMSEnvelopedDataParser(encryptedData);
+			checkAlgOID("encryption", EXPECTED_ENC_ALG_OID, envelopedData.getEncryptionAlgOID());
+
+			RecipientInformation recipientInfo = envelopedData.getRecipientInfos().get(recipient.getRecipientId());
+			checkAlgOID("key encryption", EXPECTED_KEY_ENC_ALG_OID, recipientInfo.getKeyEncryptionAlgOID());
+
+			CMSSignedDataParser signedData =
+				new CMSSignedDataParser(new BcDigestCalculatorProvider(), recipientInfo.getContentStream(recipient.getRecipient()).getContentStream());
+			CMSTypedStream signedContent = signedData.getSignedContent();
+			T payload = payloadReader.read(signedContent.getContentStream());
+			// the digest covers the whole content, also the part the reader may have left
+			signedContent.drain();
+
+			verifySigners(signedData.getSignerInfos(), Collections.singletonList(expectedSigner));
+
+			return payload;
+		} catch (CMSException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public interface PayloadReader<T> {
+
+		T read(InputStream payload) throws IOException;
 	}
 
 	static byte[] verifyAndExtractPayload(byte[] signedData, Collection<X509Certificate> expectedSignatureCerts) {
+		return extractVerifiedPayload(signedData, expectedSignatureCerts.stream().map(CmsPartner::new).collect(Collectors.toList()));
+	}
+
+	private static byte[] extractVerifiedPayload(byte[] signedData, Collection<CmsPartner> expectedSigners) {
 
 		//VERIFY
 
@@ -65,7 +116,7 @@ public class CmsReader {
 			throw new RuntimeException(e);
 		}
 
-		verify(s, expectedSignatureCerts);
+		verifySigners(s, expectedSigners);
 
 		//
 		// extract the content
@@ -74,6 +125,10 @@ public class CmsReader {
 	}
 
 	static byte[] decrypt(byte[] encryptedData, X509Certificate recipientCertificate, PrivateKey recipientPrivateKey) {
+		return decrypt(encryptedData, new CmsIdentity(recipientCertificate, recipientPrivateKey));
+	}
+
+	static byte[] decrypt(byte[] encryptedData, CmsIdentity recipient) {
 
 		try {
 			CMSEnvelopedData m = new CMSEnvelopedData(encryptedData);
@@ -81,13 +136,10 @@ public class CmsReader {
 
 			RecipientInformationStore recipients = m.getRecipientInfos();
 
-			RecipientId recId = new JceKeyTransRecipientId(recipientCertificate);
-			RecipientInformation recipientInfo = recipients.get(recId);
+			RecipientInformation recipientInfo = recipients.get(recipient.getRecipientId());
 			checkAlgOID("key encryption", EXPECTED_KEY_ENC_ALG_OID, recipientInfo.getKeyEncryptionAlgOID());
 
-			Recipient recipient = new JceKeyTransEnvelopedRecipient(recipientPrivateKey);
-
-			return recipientInfo.getContent(recipient);
+			return recipientInfo.getContent(recipient.getRecipient());
 
 		} catch (CMSException e) {
 			throw new RuntimeException(e);
@@ -102,10 +154,20 @@ public class CmsReader {
 	 * @throws Mail301Exception
 	 */
 	static void verify(CMSSignedData s, Collection<X509Certificate> expectedCerts) {
+		verifySigners(s, expectedCerts.stream().map(CmsPartner::new).collect(Collectors.toList()));
+	}
+
+	static void verify(CMSSignedData s, CmsPartner expectedSigner) {
+		verifySigners(s, Collections.singletonList(expectedSigner));
+	}
+
+	private static void verifySigners(CMSSignedData s, Collection<CmsPartner> expectedSigners) {
+		verifySigners(s.getSignerInfos(), expectedSigners);
+	}
 
-		CertStore certStore = createCertStore(expectedCerts);
+	private static void verifySigners(SignerInformationStore signerInfos, Collection<CmsPartner> expectedSigners) {
 
-		Iterator<SignerInformation> it = s.getSignerInfos().getSigners().iterator();
+		Iterator<SignerInformation> it = signerInfos.getSigners().iterator();
 
 		if (!it.hasNext()) {
 			throw new RuntimeException("Message has not been signed");
@@ -121,31 +183,14 @@ public class CmsReader {
 
 			SignerId sid = signer.getSID();
 
-			Collection<X509Certificate> certCollection;
-			try {
-				certCollection = getCertificates(certStore, sid);
-			} catch (CertStoreException e) {
-				throw new RuntimeException(e);
-			}
-
-			Iterator<X509Certificate> certIt = certCollection.iterator();
-			if (!certIt.hasNext()) {
-				throw new RuntimeException("Unknown Signer Certificate: " + sid.getIssuer() + "#" + sid.getSerialNumber());
-			}
 			//Expectation: Exactly one match
-			X509Certificate cert = certIt.next();
-
-			BcDigestCalculatorProvider dcProvider = new BcDigestCalculatorProvider();
-			JcaSignerInfoVerifierBuilder verifierBuilder = new JcaSignerInfoVerifierBuilder(dcProvider);
-			SignerInformationVerifier verifier;
-			try {
-				verifier = verifierBuilder.build(cert);
-			} catch (OperatorCreationException e) {
-				throw new RuntimeException(e);
-			}
+			CmsPartner expectedSigner = expectedSigners.stream()
+				.filter(p -> p.isSigner(sid))
+				.findFirst()
+				.orElseThrow(() -> new RuntimeException("Unknown Signer Certificate: " + sid.getIssuer() + "#" + sid.getSerialNumber()));
 
 			try {
-				if (!signer.verify(verifier)) {
+				if (!signer.verify(expectedSigner.getVerifier())) {
 					throw new RuntimeException("Signature failed!");
 				}
 			} catch (CMSException e) {
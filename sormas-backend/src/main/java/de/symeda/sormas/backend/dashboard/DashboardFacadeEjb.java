@@ -11,13 +11,19 @@ import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 
+import org.apache.commons.lang3.SerializationUtils;
+
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.NewCaseDateType;
+import de.symeda.sormas.api.dashboard.CaseEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
 import de.symeda.sormas.api.dashboard.DashboardFacade;
+import de.symeda.sormas.api.dashboard.DashboardSnapshotDto;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.disease.DiseaseBurdenDto;
 import de.symeda.sormas.api.event.EventCriteria;
 import de.symeda.sormas.api.event.EventStatus;
@@ -31,8 +37,9 @@ import de.symeda.sormas.backend.disease.DiseaseConfigurationFacadeEjb;
 import de.symeda.sormas.backend.event.EventFacadeEjb;
 import de.symeda.sormas.backend.feature.FeatureConfigurationFacadeEjb;
 import de.symeda.sormas.backend.outbreak.OutbreakFacadeEjb;
-import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.sample.SampleFacadeEjb;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserService;
 
 @Stateless(name = "DashboardFacade")
 public class DashboardFacadeEjb implements DashboardFacade {
@@ -52,9 +59,15 @@ public class DashboardFacadeEjb implements DashboardFacade {
 	@EJB
 	private SampleFacadeEjb.SampleFacadeEjbLocal sampleFacade;
 
+	@EJB
+	private UserService userService;
+
 	@EJB
 	private DashboardService dashboardService;
 
+	@EJB
+	private DashboardSnapshotCache snapshotCache;
+
 	@Override
 	public List<DashboardCaseDto> getCases(DashboardCriteria dashboardCriteria) {
 		return dashboardService.getCases(dashboardCriteria);
@@ -98,6 +111,54 @@ public class DashboardFacadeEjb implements DashboardFacade {
 		return dashboardService.getEventCountByStatus(dashboardCriteria);
 	}
 
+	@Override
+	public DashboardSnapshotDto getSnapshot(DashboardCriteria dashboardCriteria) {
+
+		User currentUser = userService.getCurrentUser();
+		String criteriaKey = DashboardSnapshotCache.createCriteriaKey(dashboardCriteria);
+
+		DashboardSnapshotDto caseSnapshot = snapshotCache.get(
+			"cases|" + criteriaKey + "|" + DashboardSnapshotCache.createJurisdictionKey(currentUser),
+			() -> buildCaseSnapshot(dashboardCriteria));
+
+		// events reported by or assigned to the user are visible outside of the jurisdiction, so the counts are not shared
+		Map<EventStatus, Long> eventCountByStatus = snapshotCache.get(
+			"events|" + criteriaKey + "|" + (currentUser != null ? currentUser.getUuid() : ""),
+			() -> dashboardService.getEventCountByStatus(dashboardCriteria));
+
+		// the cached figures are shared between callers, so each one gets a copy
+		DashboardSnapshotDto snapshot = SerializationUtils.clone(caseSnapshot);
+		snapshot.setEventCountByStatus(new HashMap<>(eventCountByStatus));
+		return snapshot;
+	}
+
+	private DashboardSnapshotDto buildCaseSnapshot(DashboardCriteria dashboardCriteria) {
+
+		DashboardSnapshotDto snapshot = new DashboardSnapshotDto();
+		dashboardService.fillCaseSnapshot(dashboardCriteria, snapshot);
+		snapshot.setLastReportedDistrictName(dashboardService.getLastReportedDistrictName(dashboardCriteria));
+		snapshot.setTestResultCountByResultType(sampleFacade.getNewTestResultCountByResultType(dashboardService.getCaseIds(dashboardCriteria)));
+		snapshot.setOutbreakDistrictCount(
+			outbreakFacade.getOutbreakDistrictCount(
+				new OutbreakCriteria().region(dashboardCriteria.getRegion())
+					.district(dashboardCriteria.getDistrict())
+					.disease(dashboardCriteria.getDisease())
+					.reportedBetween(dashboardCriteria.getDateFrom(), dashboardCriteria.getDateTo())));
+		return snapshot;
+	}
+
+	@Override
+	public EpiCurveHistogramDto getCaseEpiCurve(
+		DashboardCriteria dashboardCriteria,
+		List<Date> bucketDates,
+		EpiCurveGrouping grouping,
+		CaseEpiCurveSeries series) {
+
+		EpiCurveHistogramDto histogram = new EpiCurveHistogramDto(bucketDates, grouping);
+		dashboardService.fillCaseEpiCurve(dashboardCriteria, series, histogram);
+		return histogram;
+	}
+
 	@Override
 	public List<DiseaseBurdenDto> getDiseaseBurden(
 		RegionReferenceDto region,
@@ -108,56 +169,50 @@ public class DashboardFacadeEjb implements DashboardFacade {
 		Date previousToDate,
 		NewCaseDateType newCaseDateType) {
 
-		//diseases
 		List<Disease> diseases = diseaseConfigurationFacade.getAllDiseases(true, true, true);
 
-		//new cases
-		DashboardCriteria dashboardCriteria =
-			new DashboardCriteria().region(region).district(district).newCaseDateType(newCaseDateType).dateBetween(fromDate, toDate);
-		Map<Disease, Long> newCases = dashboardService.getCaseCountByDisease(dashboardCriteria);
-
-		//events
-		Map<Disease, Long> events = eventFacade
-			.getEventCountByDisease(new EventCriteria().region(region).district(district).eventDateType(null).eventDateBetween(fromDate, toDate));
+		DashboardCriteria dashboardCriteria = new DashboardCriteria().region(region)
+			.district(district)
+			.newCaseDateType(newCaseDateType)
+			.dateBetween(fromDate, toDate)
+			.previousDateBetween(previousFromDate, previousToDate);
 
-		//outbreaks
-		Map<Disease, Long> outbreakDistrictsCount;
-		if (featureConfigurationFacade.isFeatureEnabled(FeatureType.OUTBREAKS)) {
-			outbreakDistrictsCount = outbreakFacade
-				.getOutbreakDistrictCountByDisease(new OutbreakCriteria().region(region).district(district).reportedBetween(fromDate, toDate));
-		} else {
-			outbreakDistrictsCount = new HashMap<>();
-		}
+		User currentUser = userService.getCurrentUser();
+		String criteriaKey = DashboardSnapshotCache.createCriteriaKey(dashboardCriteria);
 
-		//last report district
-		Map<Disease, District> lastReportedDistricts = dashboardService.getLastReportedDistrictByDisease(dashboardCriteria);
+		//cases, case fatalities and last reported district
+		Map<Disease, DiseaseBurdenDto> caseBurdens = snapshotCache.get(
+			"burden|" + criteriaKey + "|" + DashboardSnapshotCache.createJurisdictionKey(currentUser),
+			() -> dashboardService.getCaseBurdenByDisease(dashboardCriteria));
 
-		//case fatalities
-		Map<Disease, Long> caseFatalities = dashboardService.getDeathCountByDisease(dashboardCriteria);
+		//events
+		Map<Disease, Long> events = snapshotCache.get(
+			"burdenEvents|" + criteriaKey + "|" + (currentUser != null ? currentUser.getUuid() : ""),
+			() -> eventFacade.getEventCountByDisease(
+				new EventCriteria().region(region).district(district).eventDateType(null).eventDateBetween(fromDate, toDate)));
 
-		//previous cases
-		dashboardCriteria.dateBetween(previousFromDate, previousToDate);
-		Map<Disease, Long> previousCases = dashboardService.getCaseCountByDisease(dashboardCriteria);
+		//outbreaks
+		Map<Disease, Long> outbreakDistrictsCount = snapshotCache.get("burdenOutbreaks|" + criteriaKey, () -> {
+			if (featureConfigurationFacade.isFeatureEnabled(FeatureType.OUTBREAKS)) {
+				return outbreakFacade
+					.getOutbreakDistrictCountByDisease(new OutbreakCriteria().region(region).district(district).reportedBetween(fromDate, toDate));
+			} else {
+				return new HashMap<>();
+			}
+		});
 
 		//build diseasesBurden
 		List<DiseaseBurdenDto> diseasesBurden = diseases.stream().map(disease -> {
-			Long caseCount = newCases.getOrDefault(disease, 0L);
-			Long previousCaseCount = previousCases.getOrDefault(disease, 0L);
-			Long eventCount = events.getOrDefault(disease, 0L);
-			Long outbreakDistrictCount = outbreakDistrictsCount.getOrDefault(disease, 0L);
-			Long caseFatalityCount = caseFatalities.getOrDefault(disease, 0L);
-			District lastReportedDistrict = lastReportedDistricts.getOrDefault(disease, null);
-
-			String lastReportedDistrictName = lastReportedDistrict == null ? "" : lastReportedDistrict.getName();
+			DiseaseBurdenDto caseBurden = caseBurdens.get(disease);
 
 			return new DiseaseBurdenDto(
 				disease,
-				caseCount,
-				previousCaseCount,
-				eventCount,
-				outbreakDistrictCount,
-				caseFatalityCount,
-				lastReportedDistrictName);
+				caseBurden != null ? caseBurden.getCaseCount() : 0L,
+				caseBurden != null ? caseBurden.getPreviousCaseCount() : 0L,
+				events.getOrDefault(disease, 0L),
+				outbreakDistrictsCount.getOrDefault(disease, 0L),
+				caseBurden != null ? caseBurden.getCaseDeathCount() : 0L,
+				caseBurden != null ? caseBurden.getLastReportedDistrictName() : "");
 
 		}).collect(Collectors.toList());
 
@@ -27,18 +27,25 @@ import javax.persistence.criteria.Root;
 
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.NewCaseDateType;
+import de.symeda.sormas.api.dashboard.CaseEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
+import de.symeda.sormas.api.dashboard.DashboardSnapshotDto;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
+import de.symeda.sormas.api.disease.DiseaseBurdenDto;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.person.PresentCondition;
 import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.api.utils.criteria.CriteriaDateType;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseQueryContext;
 import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.caze.CaseUserFilterCriteria;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
+import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.event.Event;
 import de.symeda.sormas.backend.event.EventQueryContext;
 import de.symeda.sormas.backend.event.EventService;
@@ -47,6 +54,7 @@ import de.symeda.sormas.backend.person.Person;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.symptoms.Symptoms;
 import de.symeda.sormas.backend.user.User;
 import de.symeda.sormas.backend.util.JurisdictionHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -130,28 +138,99 @@ public class DashboardService {
 		return result;
 	}
 
-	public Map<Disease, Long> getCaseCountByDisease(DashboardCriteria dashboardCriteria) {
+	/**
+	 * Computes the case measures of the disease burden with one query: The filtered cases are grouped by disease and
+	 * responsible district, and the new cases of both periods and the fatalities are counted with conditional aggregates.
+	 * The last reported district of a disease is the group with the latest report date in the current period.
+	 *
+	 * @return the case count, previous case count, death count and last reported district by disease; event and outbreak
+	 *         counts are not set
+	 */
+	public Map<Disease, DiseaseBurdenDto> getCaseBurdenByDisease(DashboardCriteria dashboardCriteria) {
+
+		Date dateFrom = dashboardCriteria.getDateFrom();
+		Date dateTo = dashboardCriteria.getDateTo();
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
 		Root<Case> caze = cq.from(Case.class);
 		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
+		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
+		Join<Case, District> responsibleDistrict = joins.getResponsibleDistrict();
 
-		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		// the periods are applied as conditions of the aggregates
+		DashboardCriteria baseCriteria = new DashboardCriteria().region(dashboardCriteria.getRegion())
+			.district(dashboardCriteria.getDistrict())
+			.disease(dashboardCriteria.getDisease())
+			.includeNotACaseClassification(dashboardCriteria.shouldIncludeNotACaseClassification());
 
-		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(baseCriteria, caseQueryContext));
 
+		Predicate current = dateFrom != null && dateTo != null
+			? caseService.createNewCaseFilter(
+				cq,
+				cb,
+				caze,
+				DateHelper.getStartOfDay(dateFrom),
+				DateHelper.getEndOfDay(dateTo),
+				dashboardCriteria.getNewCaseDateType())
+			: cb.conjunction();
+		Predicate previous = dashboardCriteria.getPreviousDateFrom() != null && dashboardCriteria.getPreviousDateTo() != null
+			? caseService.createNewCaseFilter(
+				cq,
+				cb,
+				caze,
+				DateHelper.getStartOfDay(dashboardCriteria.getPreviousDateFrom()),
+				DateHelper.getEndOfDay(dashboardCriteria.getPreviousDateTo()),
+				dashboardCriteria.getNewCaseDateType())
+			: cb.conjunction();
+		filter = CriteriaBuilderHelper.and(cb, filter, cb.or(current, previous));
+
+		Predicate fatal = cb.equal(joins.getPerson().get(Person.CAUSE_OF_DEATH_DISEASE), caze.get(Case.DISEASE));
+		Expression<Date> lastReportDate =
+			cb.greatest(cb.<Date> selectCase().when(current, caze.<Date> get(Case.REPORT_DATE)).otherwise(cb.nullLiteral(Date.class)));
+		Expression<Date> lastCreationDate =
+			cb.greatest(cb.<Date> selectCase().when(current, caze.<Date> get(Case.CREATION_DATE)).otherwise(cb.nullLiteral(Date.class)));
+
+		cq.multiselect(
+			caze.get(Case.DISEASE),
+			responsibleDistrict.get(District.NAME),
+			countIf(cb, current),
+			countIf(cb, previous),
+			countIf(cb, cb.and(current, fatal)),
+			lastReportDate,
+			lastCreationDate);
 		if (filter != null) {
 			cq.where(filter);
 		}
+		cq.groupBy(caze.get(Case.DISEASE), responsibleDistrict.get(District.ID), responsibleDistrict.get(District.NAME));
+
+		Map<Disease, DiseaseBurdenDto> result = new HashMap<>();
+		Map<Disease, Date[]> lastReportDates = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			Disease disease = (Disease) row[0];
+			DiseaseBurdenDto burden = result.computeIfAbsent(disease, d -> new DiseaseBurdenDto(d, 0L, 0L, 0L, 0L, 0L, ""));
+			burden.setCaseCount(burden.getCaseCount() + ((Number) row[2]).longValue());
+			burden.setPreviousCaseCount(burden.getPreviousCaseCount() + ((Number) row[3]).longValue());
+			burden.setCaseDeathCount(burden.getCaseDeathCount() + ((Number) row[4]).longValue());
+
+			Date reportDate = (Date) row[5];
+			Date creationDate = (Date) row[6];
+			if (reportDate != null) {
+				Date[] lastDates = lastReportDates.get(disease);
+				if (lastDates == null
+					|| reportDate.after(lastDates[0])
+					|| (reportDate.equals(lastDates[0]) && creationDate != null && (lastDates[1] == null || creationDate.after(lastDates[1])))) {
+					lastReportDates.put(disease, new Date[] {
+						reportDate,
+						creationDate });
+					burden.setLastReportedDistrictName(row[1] != null ? (String) row[1] : "");
+				}
+			}
+		}
 
-		cq.groupBy(caze.get(Case.DISEASE));
-		cq.multiselect(caze.get(Case.DISEASE), cb.count(caze));
-		List<Object[]> results = em.createQuery(cq).getResultList();
-
-		Map<Disease, Long> resultMap = results.stream().collect(Collectors.toMap(e -> (Disease) e[0], e -> (Long) e[1]));
-
-		return resultMap;
+		return result;
 	}
 
 	public String getLastReportedDistrictName(DashboardCriteria dashboardCriteria) {
@@ -185,76 +264,165 @@ public class DashboardService {
 		}
 	}
 
-	public Map<Disease, District> getLastReportedDistrictByDisease(DashboardCriteria dashboardCriteria) {
+	public long countCasesConvertedFromContacts(DashboardCriteria dashboardCriteria) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 		Root<Case> caze = cq.from(Case.class);
 		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
-		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
-		Join<Case, District> districtJoin = joins.getResponsibleDistrict();
 
 		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		Predicate criteriaFilter = createCaseCriteriaFilter(dashboardCriteria, caseQueryContext);
+		filter = CriteriaBuilderHelper.and(cb, filter, criteriaFilter);
 
-		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
+		caze.join(Case.CONVERTED_FROM_CONTACT, JoinType.INNER);
 
 		if (filter != null) {
 			cq.where(filter);
 		}
 
-		Expression<Number> maxReportDate = cb.max(caze.get(Case.REPORT_DATE));
-		Expression<Number> maxCreationDate = cb.max(caze.get(Case.CREATION_DATE));
-		cq.multiselect(caze.get(Case.DISEASE), districtJoin);
-		cq.groupBy(caze.get(Case.DISEASE), districtJoin);
+		cq.select(cb.countDistinct(caze));
+		return em.createQuery(cq).getSingleResult();
+	}
 
-		List<Order> order = new ArrayList<>();
-		order.add(cb.desc(maxReportDate));
-		order.add(cb.desc(maxCreationDate));
-		cq.orderBy(order);
+	public Map<PresentCondition, Integer> getCasesCountPerPersonCondition(DashboardCriteria dashboardCriteria) {
 
-		List<Object[]> results = em.createQuery(cq).getResultList();
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Case> caze = cq.from(Case.class);
+		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
+		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
 
-		Map<Disease, District> resultMap = new HashMap<>();
-		for (Object[] e : results) {
-			Disease disease = (Disease) e[0];
-			if (!resultMap.containsKey(disease)) {
-				District district = (District) e[1];
-				resultMap.put(disease, district);
-			}
+		Join<Case, Person> person = joins.getPerson();
+
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		Predicate criteriaFilter = createCaseCriteriaFilter(dashboardCriteria, caseQueryContext);
+		filter = CriteriaBuilderHelper.and(cb, filter, criteriaFilter);
+
+		if (filter != null) {
+			cq.where(filter);
 		}
 
+		cq.groupBy(person.get(Person.PRESENT_CONDITION));
+		cq.multiselect(person.get(Person.PRESENT_CONDITION), cb.count(caze));
+		List<Object[]> results = em.createQuery(cq).getResultList();
+
+		Map<PresentCondition, Integer> resultMap = results.stream()
+			.collect(Collectors.toMap(e -> e[0] != null ? (PresentCondition) e[0] : PresentCondition.UNKNOWN, e -> ((Number) e[1]).intValue()));
 		return resultMap;
 	}
 
-	public Map<Disease, Long> getDeathCountByDisease(DashboardCriteria dashboardCriteria) {
+	/**
+	 * Computes the case figures of the snapshot with one grouped query: The cases of the current and the previous period
+	 * are filtered once and counted with conditional aggregates per case classification.
+	 */
+	public void fillCaseSnapshot(DashboardCriteria dashboardCriteria, DashboardSnapshotDto snapshot) {
+
+		Date dateFrom = dashboardCriteria.getDateFrom();
+		Date dateTo = dashboardCriteria.getDateTo();
+		if (dateFrom == null || dateTo == null) {
+			return;
+		}
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
-		Root<Case> root = cq.from(Case.class);
-
-		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, root);
-		CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
+		Root<Case> caze = cq.from(Case.class);
+		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
+		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
 		Join<Case, Person> person = joins.getPerson();
 
-		Predicate filter = caseService.createUserFilter(cb, cq, root, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
-		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
-		filter = CriteriaBuilderHelper.and(cb, filter, cb.equal(person.get(Person.CAUSE_OF_DEATH_DISEASE), root.get(Case.DISEASE)));
+		// the periods are applied as conditions of the aggregates
+		DashboardCriteria baseCriteria = new DashboardCriteria().region(dashboardCriteria.getRegion())
+			.district(dashboardCriteria.getDistrict())
+			.disease(dashboardCriteria.getDisease())
+			.includeNotACaseClassification(true);
 
-		if (filter != null) {
-			cq.where(filter);
+		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
+		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(baseCriteria, caseQueryContext));
+
+		Predicate current = caseService.createNewCaseFilter(
+			cq,
+			cb,
+			caze,
+			DateHelper.getStartOfDay(dateFrom),
+			DateHelper.getEndOfDay(dateTo),
+			dashboardCriteria.getNewCaseDateType());
+		Predicate previous;
+		if (dashboardCriteria.getPreviousDateFrom() != null && dashboardCriteria.getPreviousDateTo() != null) {
+			previous = caseService.createNewCaseFilter(
+				cq,
+				cb,
+				caze,
+				DateHelper.getStartOfDay(dashboardCriteria.getPreviousDateFrom()),
+				DateHelper.getEndOfDay(dashboardCriteria.getPreviousDateTo()),
+				dashboardCriteria.getNewCaseDateType());
+		} else {
+			previous = cb.disjunction();
 		}
+		filter = CriteriaBuilderHelper.and(cb, filter, cb.or(current, previous));
+
+		Expression<PresentCondition> presentCondition = person.get(Person.PRESENT_CONDITION);
+		Predicate fatal = cb.and(
+			cb.isNotNull(presentCondition),
+			cb.notEqual(presentCondition, PresentCondition.ALIVE),
+			cb.equal(person.get(Person.CAUSE_OF_DEATH_DISEASE), caze.get(Case.DISEASE)));
+
+		Expression<Date> quarantineFrom = caze.get(Case.QUARANTINE_FROM);
+		Expression<Date> quarantineTo = caze.get(Case.QUARANTINE_TO);
+		Predicate inQuarantine = cb.or(
+			cb.and(
+				cb.isNotNull(quarantineFrom),
+				cb.isNotNull(quarantineTo),
+				cb.greaterThan(quarantineTo, dateFrom),
+				cb.lessThan(quarantineFrom, dateTo)),
+			cb.and(cb.isNotNull(quarantineFrom), cb.isNull(quarantineTo), cb.greaterThan(quarantineFrom, dateFrom), cb.lessThan(quarantineFrom, dateTo)),
+			cb.and(cb.isNull(quarantineFrom), cb.isNotNull(quarantineTo), cb.greaterThan(quarantineTo, dateFrom), cb.lessThan(quarantineTo, dateTo)));
+		Predicate placedInQuarantine = cb.and(
+			inQuarantine,
+			cb.isNotNull(quarantineFrom),
+			cb.greaterThan(quarantineFrom, DateHelper.subtractDays(dateFrom, 1)),
+			cb.lessThan(quarantineFrom, dateTo));
+
+		Expression<CaseClassification> classification = caze.get(Case.CASE_CLASSIFICATION);
+		cq.multiselect(
+			classification,
+			countIf(cb, current),
+			countIf(cb, cb.and(current, fatal)),
+			countIf(cb, cb.and(previous, fatal)),
+			countIf(cb, cb.and(current, inQuarantine)),
+			countIf(cb, cb.and(current, placedInQuarantine)),
+			countIf(cb, cb.and(current, cb.isNotEmpty(caze.<List<Contact>> get(Case.CONVERTED_FROM_CONTACT)))));
+		cq.where(filter);
+		cq.groupBy(classification);
+
+		Map<CaseClassification, Integer> caseCountByClassification = new HashMap<>();
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			CaseClassification caseClassification = (CaseClassification) result[0];
+			long caseCount = ((Number) result[1]).longValue();
+			if (caseCount > 0) {
+				caseCountByClassification.put(caseClassification, (int) caseCount);
+			}
 
-		cq.multiselect(person.get(Person.CAUSE_OF_DEATH_DISEASE), cb.count(person));
-		cq.groupBy(person.get(Person.CAUSE_OF_DEATH_DISEASE));
-
-		List<Object[]> results = em.createQuery(cq).getResultList();
+			if (caseClassification == CaseClassification.NO_CASE) {
+				// the remaining figures are about actual cases only
+				continue;
+			}
 
-		Map<Disease, Long> outbreaks = results.stream().collect(Collectors.toMap(e -> (Disease) e[0], e -> (Long) e[1]));
+			snapshot.setCaseCount(snapshot.getCaseCount() + caseCount);
+			snapshot.setFatalCaseCount(snapshot.getFatalCaseCount() + ((Number) result[2]).longValue());
+			snapshot.setPreviousFatalCaseCount(snapshot.getPreviousFatalCaseCount() + ((Number) result[3]).longValue());
+			snapshot.setCasesInQuarantineCount(snapshot.getCasesInQuarantineCount() + ((Number) result[4]).longValue());
+			snapshot.setCasesPlacedInQuarantineCount(snapshot.getCasesPlacedInQuarantineCount() + ((Number) result[5]).longValue());
+			snapshot.setCasesConvertedFromContactsCount(snapshot.getCasesConvertedFromContactsCount() + ((Number) result[6]).longValue());
+		}
+		snapshot.setCaseCountByClassification(caseCountByClassification);
+	}
 
-		return outbreaks;
+	private Expression<Long> countIf(CriteriaBuilder cb, Predicate condition) {
+		return cb.sum(cb.selectCase().when(condition, 1).otherwise(0).as(Long.class));
 	}
 
-	public long countCasesConvertedFromContacts(DashboardCriteria dashboardCriteria) {
+	public List<Long> getCaseIds(DashboardCriteria dashboardCriteria) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
@@ -262,20 +430,33 @@ public class DashboardService {
 		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
 
 		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
-		Predicate criteriaFilter = createCaseCriteriaFilter(dashboardCriteria, caseQueryContext);
-		filter = CriteriaBuilderHelper.and(cb, filter, criteriaFilter);
-
-		caze.join(Case.CONVERTED_FROM_CONTACT, JoinType.INNER);
+		filter = CriteriaBuilderHelper.and(cb, filter, createCaseCriteriaFilter(dashboardCriteria, caseQueryContext));
 
 		if (filter != null) {
 			cq.where(filter);
 		}
 
-		cq.select(cb.countDistinct(caze));
-		return em.createQuery(cq).getSingleResult();
+		cq.select(caze.get(Case.ID));
+		return em.createQuery(cq).getResultList();
 	}
 
-	public Map<PresentCondition, Integer> getCasesCountPerPersonCondition(DashboardCriteria dashboardCriteria) {
+	/**
+	 * Counts the new cases per day and series value in a single query and adds them to the buckets of the histogram.
+	 */
+	public void fillCaseEpiCurve(DashboardCriteria dashboardCriteria, CaseEpiCurveSeries series, EpiCurveHistogramDto histogram) {
+
+		if (histogram.getBucketCount() == 0) {
+			return;
+		}
+
+		CriteriaDateType newCaseDateType = dashboardCriteria.getNewCaseDateType();
+		if (newCaseDateType != null && !(newCaseDateType instanceof NewCaseDateType)) {
+			// the date of the latest external share is determined in a sub query, so it can't be grouped by
+			fillCaseEpiCurvePerBucket(dashboardCriteria, series, histogram);
+			return;
+		}
+
+		dashboardCriteria.dateBetween(histogram.getFrom(), histogram.getTo());
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
@@ -283,23 +464,55 @@ public class DashboardService {
 		final CaseQueryContext caseQueryContext = new CaseQueryContext(cb, cq, caze);
 		final CaseJoins<Case> joins = (CaseJoins<Case>) caseQueryContext.getJoins();
 
-		Join<Case, Person> person = joins.getPerson();
-
 		Predicate filter = caseService.createUserFilter(cb, cq, caze, new CaseUserFilterCriteria().excludeCasesFromContacts(true));
 		Predicate criteriaFilter = createCaseCriteriaFilter(dashboardCriteria, caseQueryContext);
 		filter = CriteriaBuilderHelper.and(cb, filter, criteriaFilter);
 
-		if (filter != null) {
-			cq.where(filter);
+		if (filter == null) {
+			return;
 		}
 
-		cq.groupBy(person.get(Person.PRESENT_CONDITION));
-		cq.multiselect(person.get(Person.PRESENT_CONDITION), cb.count(caze));
-		List<Object[]> results = em.createQuery(cq).getResultList();
+		Expression<Date> newCaseDate;
+		if (newCaseDateType == NewCaseDateType.ONSET) {
+			newCaseDate = joins.getSymptoms().<Date> get(Symptoms.ONSET_DATE);
+		} else if (newCaseDateType == NewCaseDateType.REPORT) {
+			newCaseDate = caze.<Date> get(Case.REPORT_DATE);
+		} else {
+			newCaseDate = cb.coalesce(joins.getSymptoms().<Date> get(Symptoms.ONSET_DATE), caze.<Date> get(Case.REPORT_DATE));
+		}
+		Expression<Date> newCaseDay = cb.function("date", Date.class, newCaseDate);
 
-		Map<PresentCondition, Integer> resultMap = results.stream()
-			.collect(Collectors.toMap(e -> e[0] != null ? (PresentCondition) e[0] : PresentCondition.UNKNOWN, e -> ((Number) e[1]).intValue()));
-		return resultMap;
+		Expression<?> seriesExpression;
+		if (series == CaseEpiCurveSeries.PRESENT_CONDITION) {
+			seriesExpression = joins.getPerson().get(Person.PRESENT_CONDITION);
+		} else {
+			seriesExpression = caze.get(Case.CASE_CLASSIFICATION);
+		}
+
+		cq.multiselect(newCaseDay, seriesExpression, cb.count(caze));
+		cq.where(filter);
+		cq.groupBy(newCaseDay, seriesExpression);
+
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			Object seriesValue = result[1];
+			if (series == CaseEpiCurveSeries.PRESENT_CONDITION && seriesValue == null) {
+				seriesValue = PresentCondition.UNKNOWN;
+			}
+			histogram.add(seriesValue, (Date) result[0], ((Number) result[2]).intValue());
+		}
+	}
+
+	private void fillCaseEpiCurvePerBucket(DashboardCriteria dashboardCriteria, CaseEpiCurveSeries series, EpiCurveHistogramDto histogram) {
+
+		for (int i = 0; i < histogram.getBucketCount(); i++) {
+			Date bucketStart = histogram.getBucketStart(i);
+			dashboardCriteria.dateBetween(bucketStart, histogram.getBucketEnd(i));
+
+			Map<?, Integer> counts = series == CaseEpiCurveSeries.PRESENT_CONDITION
+				? getCasesCountPerPersonCondition(dashboardCriteria)
+				: getCasesCountByClassification(dashboardCriteria);
+			counts.forEach((seriesValue, count) -> histogram.add(seriesValue, bucketStart, count));
+		}
 	}
 
 	public List<DashboardEventDto> getNewEvents(DashboardCriteria dashboardCriteria) {
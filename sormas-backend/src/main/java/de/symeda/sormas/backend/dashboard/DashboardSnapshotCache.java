@@ -0,0 +1,152 @@
+package de.symeda.sormas.backend.dashboard;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+
+import de.symeda.sormas.api.ReferenceDto;
+import de.symeda.sormas.api.dashboard.DashboardCriteria;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.user.User;
+
+/**
+ * Keeps dashboard figures for a short time, so users with the same jurisdiction looking at the same dashboard don't
+ * compute the same figures again. When several users request a missing entry at the same time, only the first one
+ * computes it and the others wait for the result.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DashboardSnapshotCache {
+
+	public static final long TIME_TO_LIVE_MILLIS = 60 * 1000L;
+
+	private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the cached value for the key or the value computed by the loader, if there is none or it is expired.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, Supplier<T> loader) {
+
+		while (true) {
+			long now = System.currentTimeMillis();
+			CacheEntry entry = entries.get(key);
+
+			if (entry == null || entry.isExpired(now)) {
+				CacheEntry newEntry = new CacheEntry(new FutureTask<>(loader::get), now + TIME_TO_LIVE_MILLIS);
+				boolean added = entry == null ? entries.putIfAbsent(key, newEntry) == null : entries.replace(key, entry, newEntry);
+				if (!added) {
+					// another thread was faster
+					continue;
+				}
+				removeExpired(now);
+				entry = newEntry;
+				entry.task.run();
+			}
+
+			try {
+				return (T) entry.task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				// don't keep the failure, the next request tries again
+				entries.remove(key, entry);
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	private void removeExpired(long now) {
+		entries.values().removeIf(e -> e.isExpired(now));
+	}
+
+	public static String createCriteriaKey(DashboardCriteria criteria) {
+
+		return String.join(
+			"|",
+			getUuid(criteria.getRegion()),
+			getUuid(criteria.getDistrict()),
+			String.valueOf(criteria.getDisease()),
+			String.valueOf(criteria.getNewCaseDateType()),
+			getTime(criteria.getDateFrom()),
+			getTime(criteria.getDateTo()),
+			getTime(criteria.getPreviousDateFrom()),
+			getTime(criteria.getPreviousDateTo()),
+			String.valueOf(criteria.shouldIncludeNotACaseClassification()));
+	}
+
+	/**
+	 * @return a key for everything the case user filter depends on; users with the same key see the same cases when
+	 *         cases of other jurisdictions are not included
+	 */
+	public static String createJurisdictionKey(User user) {
+
+		if (user == null) {
+			return "";
+		}
+
+		return String.join(
+			"|",
+			String.valueOf(user.getJurisdictionLevel()),
+			getId(user.getRegion()),
+			getId(user.getDistrict()),
+			getId(user.getCommunity()),
+			getId(user.getHealthFacility()),
+			getId(user.getPointOfEntry()),
+			getId(user.getLaboratory()),
+			String.valueOf(user.getLimitedDisease()),
+			String.valueOf(UserRole.isPortHealthUser(user.getUserRoles())),
+			String.valueOf(user.hasAnyUserRole(UserRole.REST_USER, UserRole.REST_EXTERNAL_VISITS_USER)));
+	}
+
+	/**
+	 * @return the uuid as part of a cache key, empty for no reference
+	 */
+	public static String getUuid(ReferenceDto reference) {
+		return reference != null ? reference.getUuid() : "";
+	}
+
+	private static String getId(AbstractDomainObject entity) {
+		return entity != null ? String.valueOf(entity.getId()) : "";
+	}
+
+	/**
+	 * @return the time as part of a cache key, empty for no date
+	 */
+	public static String getTime(Date date) {
+		return date != null ? String.valueOf(date.getTime()) : "";
+	}
+
+	private static final class CacheEntry {
+
+		private final FutureTask<?> task;
+		private final long expiresAt;
+
+		private CacheEntry(FutureTask<?> task, long expiresAt) {
+			this.task = task;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return now > expiresAt;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.docgeneration;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+
+import de.symeda.sormas.api.docgeneneration.DocumentTemplateException;
+import de.symeda.sormas.api.docgeneneration.DocumentVariables;
+import de.symeda.sormas.api.i18n.I18nProperties;
+import de.symeda.sormas.api.i18n.Strings;
+import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.document.IXDocReport;
+
+/**
+ * Keeps the parsed docx templates with their variables, so a template is only read and sanitized once and not for every
+ * generated document. A template is read again when its file has been modified.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class DocumentTemplateCache {
+
+	private final TemplateEngine templateEngine = new TemplateEngine();
+
+	private final Map<String, DocxTemplate> docxTemplates = new ConcurrentHashMap<>();
+
+	public DocxTemplate getDocxTemplate(File templateFile) throws DocumentTemplateException {
+
+		String key = templateFile.getAbsolutePath();
+		long lastModified = templateFile.lastModified();
+		long length = templateFile.length();
+
+		DocxTemplate template = docxTemplates.get(key);
+		if (template != null && template.isUpToDate(lastModified, length)) {
+			return template;
+		}
+
+		synchronized (this) {
+			template = docxTemplates.get(key);
+			if (template != null && template.isUpToDate(lastModified, length)) {
+				return template;
+			}
+
+			DocxTemplate readTemplate = readDocxTemplate(templateFile, lastModified, length);
+			DocxTemplate replaced = docxTemplates.put(key, readTemplate);
+			if (replaced != null) {
+				templateEngine.releaseXDocReport(replaced.getReport());
+			}
+			return readTemplate;
+		}
+	}
+
+	/**
+	 * To be called when the template file is replaced or deleted.
+	 */
+	public void invalidate(File templateFile) {
+
+		DocxTemplate removed = docxTemplates.remove(templateFile.getAbsolutePath());
+		if (removed != null) {
+			templateEngine.releaseXDocReport(removed.getReport());
+		}
+	}
+
+	@PreDestroy
+	public void clear() {
+		docxTemplates.values().forEach(t -> templateEngine.releaseXDocReport(t.getReport()));
+		docxTemplates.clear();
+	}
+
+	private DocxTemplate readDocxTemplate(File templateFile, long lastModified, long length) throws DocumentTemplateException {
+
+		try (FileInputStream templateInputStream = new FileInputStream(templateFile)) {
+			IXDocReport report = templateEngine.readXDocReport(templateInputStream);
+			return new DocxTemplate(report, templateEngine.extractTemplateVariablesDocx(report), lastModified, length);
+		} catch (XDocReportException | IOException e) {
+			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
+		}
+	}
+
+	public static class DocxTemplate {
+
+		private final IXDocReport report;
+		private final DocumentVariables variables;
+		private final long lastModified;
+		private final long length;
+
+		private DocxTemplate(IXDocReport report, DocumentVariables variables, long lastModified, long length) {
+			this.report = report;
+			this.variables = variables;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		public IXDocReport getReport() {
+			return report;
+		}
+
+		/**
+		 * @return the variables of the template; a copy, because callers add information to them
+		 */
+		public DocumentVariables getVariables() {
+			return new DocumentVariables(new HashSet<>(variables.getVariables()), new HashSet<>(variables.getNullableVariables()));
+		}
+
+		private boolean isUpToDate(long lastModified, long length) {
+			return this.lastModified == lastModified && this.length == length;
+		}
+	}
+}
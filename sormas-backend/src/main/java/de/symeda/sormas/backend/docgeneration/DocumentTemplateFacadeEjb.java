@@ -16,6 +16,7 @@
 package de.symeda.sormas.backend.docgeneration;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -65,6 +66,7 @@ import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
+import de.symeda.sormas.backend.docgeneration.DocumentTemplateCache.DocxTemplate;
 import de.symeda.sormas.backend.event.EventFacadeEjb.EventFacadeEjbLocal;
 import de.symeda.sormas.backend.event.EventParticipantFacadeEjb.EventParticipantFacadeEjbLocal;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb.FacilityFacadeEjbLocal;
@@ -120,6 +122,9 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 	@EJB
 	private EventParticipantFacadeEjbLocal eventParticipantFacade;
 
+	@EJB
+	private DocumentTemplateCache templateCache;
+
 	private TemplateEngine templateEngine = new TemplateEngine();
 
 	@Override
@@ -134,17 +139,17 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 				String.format(I18nProperties.getString(Strings.messageWrongTemplateFileType), documentWorkflow, documentWorkflow.getFileExtension()));
 		}
 
-		// 1. Read template from custom directory
+		// 1. Read template from custom directory, unless it has already been read
 		File templateFile = getTemplateFile(documentWorkflow, templateName);
+		DocxTemplate template = templateCache.getDocxTemplate(templateFile);
 
-		// 2. Extract document variables
-		DocumentVariables documentVariables = getTemplateVariablesDocx(templateFile);
-
-		// 3. prepare properties
-		Properties properties = prepareProperties(documentWorkflow, entities, extraProperties, documentVariables);
+		// 2. prepare properties
+		Properties properties = prepareProperties(documentWorkflow, entities, extraProperties, template.getVariables());
 
-		// 4. generate document
-		return generateDocumentDocx(templateFile, properties);
+		// 3. generate document
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		templateEngine.generateDocumentDocx(properties, template.getReport(), templateName, outputStream);
+		return outputStream.toByteArray();
 	}
 
 	@Override
@@ -252,10 +257,6 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		return properties;
 	}
 
-	private byte[] generateDocumentDocx(File templateFile, Properties properties) throws DocumentTemplateException {
-		return templateEngine.generateDocumentDocx(properties, templateFile);
-	}
-
 	private String generateDocumentTxt(File templateFile, Properties properties) {
 		return templateEngine.generateDocumentTxt(properties, templateFile);
 	}
@@ -317,11 +318,13 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 		} catch (IOException e) {
 			throw new DocumentTemplateException(I18nProperties.getString(Strings.errorCreatingTemplateDirectory));
 		}
-		try (FileOutputStream fileOutputStream =
-			new FileOutputStream(new File(workflowTemplateDirPath.resolve(FilenameUtils.getName(templateName)).toUri()))) {
+		File templateFile = new File(workflowTemplateDirPath.resolve(FilenameUtils.getName(templateName)).toUri());
+		try (FileOutputStream fileOutputStream = new FileOutputStream(templateFile)) {
 			fileOutputStream.write(document);
 		} catch (IOException e) {
 			throw new DocumentTemplateException(I18nProperties.getString(Strings.errorWritingTemplate));
+		} finally {
+			templateCache.invalidate(templateFile);
 		}
 	}
 
@@ -329,6 +332,7 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 	public boolean deleteDocumentTemplate(DocumentWorkflow documentWorkflow, String fileName) throws DocumentTemplateException {
 		File templateFile = new File(getWorkflowTemplateDirPath(documentWorkflow).resolve(fileName).toUri());
 		if (templateFile.exists() && templateFile.isFile()) {
+			templateCache.invalidate(templateFile);
 			return templateFile.delete();
 		} else {
 			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorFileNotFound), fileName));
@@ -354,7 +358,7 @@ public class DocumentTemplateFacadeEjb implements DocumentTemplateFacade {
 	}
 
 	private DocumentVariables getTemplateVariablesDocx(File templateFile) throws DocumentTemplateException {
-		return templateEngine.extractTemplateVariablesDocx(templateFile);
+		return templateCache.getDocxTemplate(templateFile).getVariables();
 	}
 
 	private DocumentVariables getTemplateVariablesTxt(File templateFile) throws DocumentTemplateException {
@@ -15,13 +15,31 @@
 
 package de.symeda.sormas.backend.docgeneration;
 
-import java.util.HashMap;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
+import javax.enterprise.concurrent.ManagedExecutorService;
 
 import de.symeda.sormas.api.ReferenceDto;
 import de.symeda.sormas.api.docgeneneration.DocumentTemplateEntities;
@@ -29,9 +47,15 @@ import de.symeda.sormas.api.docgeneneration.DocumentTemplateException;
 import de.symeda.sormas.api.docgeneneration.DocumentVariables;
 import de.symeda.sormas.api.docgeneneration.DocumentWorkflow;
 import de.symeda.sormas.api.docgeneneration.QuarantineOrderFacade;
+import de.symeda.sormas.api.i18n.I18nProperties;
+import de.symeda.sormas.api.i18n.Strings;
+import de.symeda.sormas.api.importexport.ImportExportUtils;
 import de.symeda.sormas.api.sample.PathogenTestReferenceDto;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb.ContactFacadeEjbLocal;
 import de.symeda.sormas.backend.docgeneration.DocumentTemplateFacadeEjb.DocumentTemplateFacadeEjbLocal;
 import de.symeda.sormas.backend.event.EventParticipantFacadeEjb.EventParticipantFacadeEjbLocal;
@@ -62,6 +86,12 @@ public class QuarantineOrderFacadeEjb implements QuarantineOrderFacade {
 	@EJB
 	private DocumentTemplateEntitiesBuilder entitiesBuilder;
 
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+
+	@Resource
+	private ManagedExecutorService executorService;
+
 	@Override
 	public byte[] getGeneratedDocument(
 		String templateName,
@@ -86,18 +116,118 @@ public class QuarantineOrderFacadeEjb implements QuarantineOrderFacade {
 		Properties extraProperties)
 		throws DocumentTemplateException {
 
-		Map<ReferenceDto, byte[]> documents = new HashMap<>(rootEntityReferences.size());
+		Map<ReferenceDto, byte[]> documents = new ConcurrentHashMap<>(rootEntityReferences.size());
+		try {
+			generateDocuments(templateName, workflow, rootEntityReferences, extraProperties, documents::put);
+		} catch (IOException e) {
+			// not thrown when collecting the documents in memory
+			throw new UncheckedIOException(e);
+		}
+		return documents;
+	}
+
+	@Override
+	public String getGeneratedDocumentsArchive(
+		String templateName,
+		DocumentWorkflow workflow,
+		List<ReferenceDto> rootEntityReferences,
+		Properties extraProperties)
+		throws DocumentTemplateException {
+
+		String fileName = ImportExportUtils.TEMP_FILE_PREFIX + "_documents_" + DateHelper.formatDateForExport(new Date()) + "_"
+			+ new Random().nextInt(Integer.MAX_VALUE) + ".zip";
+		Path archivePath = Paths.get(configFacade.getTempFilesPath()).resolve(fileName);
+
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archivePath)))) {
+			generateDocuments(templateName, workflow, rootEntityReferences, extraProperties, (rootEntityReference, content) -> {
+				synchronized (zipOutputStream) {
+					zipOutputStream.putNextEntry(new ZipEntry(DataHelper.getShortUuid(rootEntityReference) + '-' + templateName));
+					zipOutputStream.write(content);
+					zipOutputStream.closeEntry();
+				}
+			});
+		} catch (IOException | DocumentTemplateException | RuntimeException e) {
+			try {
+				Files.deleteIfExists(archivePath);
+			} catch (IOException e2) {
+				e.addSuppressed(e2);
+			}
+			if (e instanceof DocumentTemplateException) {
+				throw (DocumentTemplateException) e;
+			} else if (e instanceof IOException) {
+				throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorDocumentGeneration), templateName));
+			}
+			throw (RuntimeException) e;
+		}
+
+		return archivePath.toString();
+	}
+
+	private interface DocumentConsumer {
+
+		void accept(ReferenceDto rootEntityReference, byte[] content) throws IOException;
+	}
+
+	/**
+	 * Generates the documents on up to {@link ConfigFacadeEjbLocal#getDocgenerationMaxConcurrentDocuments()} threads and
+	 * passes each one to the consumer as soon as it is generated, so they do not have to be kept until all are done. The
+	 * consumer has to be thread-safe.
+	 */
+	private void generateDocuments(
+		String templateName,
+		DocumentWorkflow workflow,
+		List<ReferenceDto> rootEntityReferences,
+		Properties extraProperties,
+		DocumentConsumer consumer)
+		throws DocumentTemplateException, IOException {
 
 		Map<ReferenceDto, DocumentTemplateEntities> quarantineOrderEntities =
 			entitiesBuilder.getQuarantineOrderEntities(workflow, rootEntityReferences);
-		for (Map.Entry<ReferenceDto, DocumentTemplateEntities> entities : quarantineOrderEntities.entrySet()) {
-			byte[] documentContent =
-				documentTemplateFacade.generateDocumentDocxFromEntities(workflow, templateName, entities.getValue(), extraProperties);
-
-			documents.put(entities.getKey(), documentContent);
+		Queue<Map.Entry<ReferenceDto, DocumentTemplateEntities>> pendingEntities =
+			new ConcurrentLinkedQueue<>(quarantineOrderEntities.entrySet());
+		AtomicReference<Exception> failure = new AtomicReference<>();
+
+		Runnable worker = () -> {
+			Map.Entry<ReferenceDto, DocumentTemplateEntities> entities;
+			while (failure.get() == null && (entities = pendingEntities.poll()) != null) {
+				try {
+					byte[] documentContent =
+						documentTemplateFacade.generateDocumentDocxFromEntities(workflow, templateName, entities.getValue(), extraProperties);
+					consumer.accept(entities.getKey(), documentContent);
+				} catch (DocumentTemplateException | IOException | RuntimeException e) {
+					failure.compareAndSet(null, e);
+				}
+			}
+		};
+
+		int workerCount = Math.min(quarantineOrderEntities.size(), configFacade.getDocgenerationMaxConcurrentDocuments());
+		List<Future<?>> workers = new ArrayList<>();
+		if (executorService != null) {
+			for (int i = 1; i < workerCount; i++) {
+				workers.add(executorService.submit(worker));
+			}
+		}
+		worker.run();
+
+		try {
+			for (Future<?> future : workers) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
 		}
 
-		return documents;
+		Exception e = failure.get();
+		if (e instanceof DocumentTemplateException) {
+			throw (DocumentTemplateException) e;
+		} else if (e instanceof IOException) {
+			throw (IOException) e;
+		} else if (e != null) {
+			throw (RuntimeException) e;
+		}
 	}
 
 	@Override
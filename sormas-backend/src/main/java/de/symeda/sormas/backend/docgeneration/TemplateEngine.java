@@ -23,6 +23,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
@@ -89,19 +90,20 @@ public class TemplateEngine {
 	}
 
 	public DocumentVariables extractTemplateVariablesDocx(File templateFile) throws DocumentTemplateException {
-		try {
-			FileInputStream templateInputStream = new FileInputStream(templateFile);
-			IXDocReport report = readXDocReport(templateInputStream);
-
-			FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
-			report.extractFields(extractor);
-
-			return filterExtractedVariables(extractor);
+		try (FileInputStream templateInputStream = new FileInputStream(templateFile)) {
+			return extractTemplateVariablesDocx(readXDocReport(templateInputStream));
 		} catch (XDocReportException | IOException e) {
 			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorReadingTemplate), templateFile.getName()));
 		}
 	}
 
+	public DocumentVariables extractTemplateVariablesDocx(IXDocReport report) throws XDocReportException, IOException {
+		FieldsExtractor<FieldExtractor> extractor = FieldsExtractor.create();
+		report.extractFields(extractor);
+
+		return filterExtractedVariables(extractor);
+	}
+
 	public DocumentVariables extractTemplateVariablesTxt(File templateFile) throws DocumentTemplateException {
 		try {
 			FileReader templateFileReader = new FileReader(templateFile);
@@ -116,9 +118,25 @@ public class TemplateEngine {
 	}
 
 	public byte[] generateDocumentDocx(Properties properties, File templateFile) throws DocumentTemplateException {
+		IXDocReport report;
+		try (FileInputStream templateInputStream = new FileInputStream(templateFile)) {
+			report = readXDocReport(templateInputStream);
+		} catch (IOException e) {
+			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorDocumentGeneration), templateFile.getName()));
+		}
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generateDocumentDocx(properties, report, templateFile.getName(), outputStream);
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Generates the document from an already read template, which can be reused for any number of documents, also
+	 * concurrently.
+	 */
+	public void generateDocumentDocx(Properties properties, IXDocReport report, String templateName, OutputStream outputStream)
+		throws DocumentTemplateException {
 		try {
-			FileInputStream templateInputStream = new FileInputStream(templateFile);
-			IXDocReport report = readXDocReport(templateInputStream);
 			IContext context = report.createContext();
 
 			for (Object key : properties.keySet()) {
@@ -130,11 +148,9 @@ public class TemplateEngine {
 				}
 			}
 
-			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 			report.process(context, outputStream);
-			return outputStream.toByteArray();
 		} catch (IOException | XDocReportException | VelocityException e) {
-			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorDocumentGeneration), templateFile.getName()));
+			throw new DocumentTemplateException(String.format(I18nProperties.getString(Strings.errorDocumentGeneration), templateName));
 		}
 	}
 
@@ -202,6 +218,14 @@ public class TemplateEngine {
 		}
 	}
 
+	/**
+	 * Removes a report that is not used anymore from the registry it has been added to by
+	 * {@link #readXDocReport(InputStream)}.
+	 */
+	public void releaseXDocReport(IXDocReport report) {
+		XDocReportRegistry.getRegistry().unregisterReport(report);
+	}
+
 	public void validateTemplateTxt(InputStream templateInputStream) throws DocumentTemplateException {
 		getFieldExtractorTxt(new InputStreamReader(templateInputStream), "validate");
 	}
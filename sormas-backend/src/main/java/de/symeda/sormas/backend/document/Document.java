@@ -38,6 +38,7 @@ public class Document extends AbstractDomainObject {
 	public static final String NAME = "name";
 	public static final String CONTENT_TYPE = "contentType";
 	public static final String SIZE = "size";
+	public static final String STORAGE_REFERENCE = "storageReference";
 	public static final String RELATED_ENTITY_UUID = "relatedEntityUuid";
 	public static final String RELATED_ENTITY_TYPE = "relatedEntityType";
 
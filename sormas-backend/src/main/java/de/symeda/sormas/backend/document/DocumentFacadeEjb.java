@@ -15,6 +15,10 @@
 package de.symeda.sormas.backend.document;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,8 +34,10 @@ import de.symeda.sormas.api.document.DocumentFacade;
 import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseService;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
+import de.symeda.sormas.backend.document.DocumentStorageService.StoredContent;
 import de.symeda.sormas.backend.event.Event;
 import de.symeda.sormas.backend.event.EventService;
 import de.symeda.sormas.backend.user.UserFacadeEjb;
@@ -61,6 +67,8 @@ public class DocumentFacadeEjb implements DocumentFacade {
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
 	@EJB
 	private UserService userService;
 	@EJB
@@ -81,6 +89,29 @@ public class DocumentFacadeEjb implements DocumentFacade {
 
 	@Override
 	public DocumentDto saveDocument(DocumentDto dto, byte[] content) throws IOException {
+		return saveDocument(dto, document -> documentStorageService.save(document, content));
+	}
+
+	@Override
+	public DocumentDto saveDocumentFromFile(DocumentDto dto, String filePath) throws IOException {
+
+		Path tempFilesPath = Paths.get(configFacade.getTempFilesPath()).toAbsolutePath().normalize();
+		Path path = Paths.get(filePath).toAbsolutePath().normalize();
+		if (!path.startsWith(tempFilesPath)) {
+			throw new IllegalArgumentException("Documents can only be saved from the temp files directory: " + filePath);
+		}
+
+		try (InputStream content = Files.newInputStream(path)) {
+			return saveDocument(dto, document -> documentStorageService.save(document, content));
+		}
+	}
+
+	private interface ContentStorage {
+
+		StoredContent store(Document document) throws IOException;
+	}
+
+	private DocumentDto saveDocument(DocumentDto dto, ContentStorage contentStorage) throws IOException {
 		Document existingDocument = dto.getUuid() == null ? null : documentService.getByUuid(dto.getUuid());
 		if (existingDocument != null) {
 			throw new EntityExistsException("Tried to save a document that already exists: " + dto.getUuid());
@@ -92,19 +123,22 @@ public class DocumentFacadeEjb implements DocumentFacade {
 
 		Document document = fromDto(dto, true);
 
-		String storageReference = documentStorageService.save(document, content);
+		StoredContent storedContent = contentStorage.store(document);
 		try {
-			document.setStorageReference(storageReference);
+			document.setStorageReference(storedContent.getStorageReference());
 
 			documentService.persist(document);
 			documentService.doFlush();
 
 			return convertToDto(document, Pseudonymizer.getDefault(userService::hasRight));
 		} catch (Throwable t) {
-			try {
-				documentStorageService.delete(storageReference);
-			} catch (Throwable t2) {
-				t.addSuppressed(t2);
+			// content that has been stored before is referenced by other documents
+			if (storedContent.isCreated()) {
+				try {
+					documentStorageService.delete(storedContent.getStorageReference());
+				} catch (Throwable t2) {
+					t.addSuppressed(t2);
+				}
 			}
 			throw t;
 		}
@@ -133,12 +167,20 @@ public class DocumentFacadeEjb implements DocumentFacade {
 		return documentStorageService.read(document.getStorageReference());
 	}
 
+	@Override
+	public byte[] read(String uuid, long offset, int length) throws IOException {
+		Document document = documentService.getByUuid(uuid);
+		return documentStorageService.read(document.getStorageReference(), offset, length);
+	}
+
 	@Override
 	public void cleanupDeletedDocuments() {
 		List<Document> deleted = documentService.getDocumentsMarkedForDeletion();
 		for (Document document : deleted) {
-			documentStorageService.delete(document.getStorageReference());
+			String storageReference = document.getStorageReference();
 			documentService.delete(document);
+			// the same content may be referenced by other documents
+			documentStorageService.deleteIfUnreferenced(storageReference);
 		}
 	}
 
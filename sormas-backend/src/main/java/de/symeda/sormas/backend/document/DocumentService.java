@@ -100,4 +100,28 @@ public class DocumentService extends AdoServiceWithUserFilter<Document> {
 
 		return em.createQuery(cq).getResultList();
 	}
+
+	/**
+	 * @return the number of documents, including the ones marked for deletion, that reference the stored content
+	 */
+	public long countByStorageReference(String storageReference) {
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		Root<Document> from = cq.from(getElementClass());
+
+		cq.select(cb.count(from));
+		cq.where(cb.equal(from.get(Document.STORAGE_REFERENCE), storageReference));
+
+		return em.createQuery(cq).getSingleResult();
+	}
+
+	/**
+	 * Serializes storing and deleting the same content until the end of the transaction, so the content is not deleted
+	 * while a new document referencing it is being saved.
+	 */
+	public void lockStorageReference(String storageReference) {
+		em.createNativeQuery("SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(?1)) AS storagelock")
+			.setParameter(1, (long) storageReference.hashCode())
+			.getSingleResult();
+	}
 }
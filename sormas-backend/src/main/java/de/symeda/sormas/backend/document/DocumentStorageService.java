@@ -14,12 +14,20 @@
  */
 package de.symeda.sormas.backend.document;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -40,33 +48,104 @@ import de.symeda.sormas.backend.user.UserService;
  * The current implementation stores files on the filesystem, in {@link ConfigFacade#getDocumentFilesPath() documents.path}.
  * <p>
  * The computed <i>storage reference</i> is the path of the file, relative to {@code documents.path}.
+ * <p>
+ * Content is stored under its SHA-256 hash, so the same file attached to several documents is only stored once. Content
+ * of documents saved before is still stored by upload date and document UUID, which is transparent to the storage
+ * reference. Content is only deleted once no document references it anymore.
  */
 @Stateless
 @LocalBean
 public class DocumentStorageService {
 
+	private static final String CONTENT_DIRECTORY = "sha256";
+	private static final String UPLOAD_DIRECTORY = "upload";
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
 	@EJB
 	private UserService userService;
+	@EJB
+	private DocumentService documentService;
 
 	public byte[] read(String storageReference) throws IOException {
-		return Files.readAllBytes(Paths.get(configFacade.getDocumentFilesPath(), storageReference));
+		return Files.readAllBytes(resolve(storageReference));
+	}
+
+	/**
+	 * @return up to {@code length} bytes of the content, starting at {@code offset}; less if the end of the content is
+	 *         reached
+	 */
+	public byte[] read(String storageReference, long offset, int length) throws IOException {
+
+		try (SeekableByteChannel channel = Files.newByteChannel(resolve(storageReference))) {
+			ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(length, channel.size() - offset)));
+			channel.position(offset);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// read until the buffer is full
+			}
+			return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+		}
+	}
+
+	/**
+	 * The caller is responsible for closing the stream.
+	 */
+	public InputStream openStream(String storageReference) throws IOException {
+		return Files.newInputStream(resolve(storageReference));
+	}
+
+	public StoredContent save(Document document, byte[] content) throws IOException {
+		return save(document, new ByteArrayInputStream(content));
+	}
+
+	/**
+	 * The content is written to a temporary file while its hash is computed and then moved to its place, unless the same
+	 * content has already been stored.
+	 */
+	public StoredContent save(Document document, InputStream content) throws IOException {
+
+		Path uploadPath = Paths.get(configFacade.getDocumentFilesPath(), UPLOAD_DIRECTORY, document.getUuid());
+		Files.createDirectories(uploadPath.getParent());
+		try {
+			MessageDigest digest = createDigest();
+			Files.copy(new DigestInputStream(content, digest), uploadPath);
+
+			String hash = toHex(digest.digest());
+			Path relativePath = Paths.get(CONTENT_DIRECTORY, hash.substring(0, 2), hash);
+			Path filePath = Paths.get(configFacade.getDocumentFilesPath()).resolve(relativePath);
+
+			// prevents the content from being deleted by a cleanup of another document until this transaction is committed
+			documentService.lockStorageReference(relativePath.toString());
+			if (Files.exists(filePath)) {
+				return new StoredContent(relativePath.toString(), false);
+			}
+
+			Files.createDirectories(filePath.getParent());
+			Files.move(uploadPath, filePath, StandardCopyOption.ATOMIC_MOVE);
+			// the attributes describe the document the content has first been stored for
+			setDocumentAttributes(document, filePath);
+			return new StoredContent(relativePath.toString(), true);
+		} finally {
+			Files.deleteIfExists(uploadPath);
+		}
 	}
 
-	public String save(Document document, byte[] content) throws IOException {
-		Path relativePath = computeRelativePath(document);
-		Path filePath = Paths.get(configFacade.getDocumentFilesPath()).resolve(relativePath);
-		Files.createDirectories(filePath.getParent());
-		Files.write(filePath, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
-		setDocumentAttributes(document, filePath);
-		return relativePath.toString();
+	/**
+	 * Deletes the content if no document references it anymore. Documents that are to be deleted must have been
+	 * removed before.
+	 */
+	public void deleteIfUnreferenced(String storageReference) {
+
+		documentService.lockStorageReference(storageReference);
+		if (documentService.countByStorageReference(storageReference) == 0) {
+			delete(storageReference);
+		}
 	}
 
 	public void delete(String storageReference) {
-		Path path = Paths.get(configFacade.getDocumentFilesPath(), storageReference);
+		Path path = resolve(storageReference);
 		try {
 			Files.deleteIfExists(path);
 		} catch (IOException e) {
@@ -74,14 +153,25 @@ public class DocumentStorageService {
 		}
 	}
 
-	@SuppressWarnings("deprecation")
-	private Path computeRelativePath(Document document) {
-		return Paths.get(
-			Integer.toString(1900 + document.getCreationDate().getYear()),
-			Integer.toString(1 + document.getCreationDate().getMonth()),
-			Integer.toString(document.getCreationDate().getDate()),
-			Integer.toString(document.getCreationDate().getHours()),
-			document.getUuid());
+	private Path resolve(String storageReference) {
+		return Paths.get(configFacade.getDocumentFilesPath(), storageReference);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
 	}
 
 	private void setDocumentAttributes(Document document, Path filePath) throws IOException {
@@ -95,4 +185,26 @@ public class DocumentStorageService {
 	private void setAttribute(Path path, String attributeKey, String attributeValue) throws IOException {
 		Files.setAttribute(path, "user:" + attributeKey, Charset.defaultCharset().encode(attributeValue));
 	}
+
+	public static class StoredContent {
+
+		private final String storageReference;
+		private final boolean created;
+
+		public StoredContent(String storageReference, boolean created) {
+			this.storageReference = storageReference;
+			this.created = created;
+		}
+
+		public String getStorageReference() {
+			return storageReference;
+		}
+
+		/**
+		 * @return {@code true} if the content has not been stored before
+		 */
+		public boolean isCreated() {
+			return created;
+		}
+	}
 }
@@ -18,14 +18,21 @@
 package de.symeda.sormas.backend.epidata;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 
 import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.activityascase.ActivityAsCase;
@@ -63,4 +70,31 @@ public class EpiDataService extends BaseAdoService<EpiData> {
 			.add(activitiesAsCaseJoin)
 			.add(activitiesAsCaseJoin, ActivityAsCase.LOCATION);
 	}
+
+	/**
+	 * Loads the exposures of several epi data at once, grouped by the id of the epi data.
+	 */
+	public Map<Long, List<Exposure>> getExposuresByEpiDataIds(List<Long> epiDataIds) {
+
+		Map<Long, List<Exposure>> exposuresByEpiDataId = new HashMap<>();
+		if (epiDataIds.isEmpty()) {
+			return exposuresByEpiDataId;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Exposure> from = cq.from(Exposure.class);
+		from.fetch(Exposure.LOCATION, JoinType.LEFT);
+		Path<Long> epiDataId = from.get(Exposure.EPI_DATA).get(EpiData.ID);
+
+		cq.multiselect(epiDataId, from);
+		cq.where(epiDataId.in(epiDataIds));
+		cq.orderBy(cb.asc(from.get(Exposure.ID)));
+
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			exposuresByEpiDataId.computeIfAbsent((Long) result[0], k -> new ArrayList<>()).add((Exposure) result[1]);
+		}
+
+		return exposuresByEpiDataId;
+	}
 }
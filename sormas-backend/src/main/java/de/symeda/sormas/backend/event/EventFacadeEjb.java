@@ -42,7 +42,6 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
@@ -78,11 +77,13 @@ import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
 import de.symeda.sormas.api.location.LocationDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
+import de.symeda.sormas.api.systemevents.SystemEventType;
 import de.symeda.sormas.api.user.UserRight;
 import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
+import de.symeda.sormas.backend.common.BulkArchivingJob;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.externalsurveillancetool.ExternalSurveillanceToolGatewayFacadeEjb.ExternalSurveillanceToolGatewayFacadeEjbLocal;
@@ -140,6 +141,8 @@ public class EventFacadeEjb implements EventFacade {
 	private ExternalSurveillanceToolGatewayFacadeEjbLocal externalSurveillanceToolFacade;
 	@EJB
 	private ExternalShareInfoService externalShareInfoService;
+	@EJB
+	private BulkArchivingJob bulkArchivingJob;
 
 	@Override
 	public List<String> getAllActiveUuids() {
@@ -1103,7 +1106,7 @@ public class EventFacadeEjb implements EventFacade {
 	 *            defines the amount of days
 	 */
 	@Override
-	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public void archiveAllArchivableEvents(int daysAfterEventGetsArchived) {
 
 		archiveAllArchivableEvents(daysAfterEventGetsArchived, LocalDate.now());
@@ -1112,27 +1115,10 @@ public class EventFacadeEjb implements EventFacade {
 	void archiveAllArchivableEvents(int daysAfterEventGetsArchived, @NotNull LocalDate referenceDate) {
 
 		LocalDate notChangedSince = referenceDate.minusDays(daysAfterEventGetsArchived);
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<String> cq = cb.createQuery(String.class);
-		Root<Event> from = cq.from(Event.class);
-
 		Timestamp notChangedTimestamp = Timestamp.valueOf(notChangedSince.atStartOfDay());
-		cq.where(cb.equal(from.get(Event.ARCHIVED), false), cb.not(eventService.createChangeDateFilter(cb, from, notChangedTimestamp)));
-		cq.select(from.get(Event.UUID));
-		List<String> uuids = em.createQuery(cq).getResultList();
 
-		if (!uuids.isEmpty()) {
-
-			CriteriaUpdate<Event> cu = cb.createCriteriaUpdate(Event.class);
-			Root<Event> root = cu.from(Event.class);
-
-			cu.set(root.get(Event.ARCHIVED), true);
-
-			cu.where(root.get(Event.UUID).in(uuids));
-
-			em.createQuery(cu).executeUpdate();
-		}
+		bulkArchivingJob
+			.archive(SystemEventType.ARCHIVE_EVENTS, Event.class, (cb, root) -> cb.not(eventService.createChangeDateFilter(cb, root, notChangedTimestamp)));
 	}
 
 	@Override
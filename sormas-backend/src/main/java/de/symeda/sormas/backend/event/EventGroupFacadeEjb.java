@@ -45,8 +45,6 @@ import javax.validation.constraints.NotNull;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -69,7 +67,6 @@ import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.region.Region;
 import de.symeda.sormas.backend.user.User;
@@ -81,8 +78,6 @@ import de.symeda.sormas.backend.util.ModelConstants;
 @Stateless(name = "EventGroupFacade")
 public class EventGroupFacadeEjb implements EventGroupFacade {
 
-	private final Logger logger = LoggerFactory.getLogger(getClass());
-
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 	@EJB
@@ -489,32 +484,24 @@ public class EventGroupFacadeEjb implements EventGroupFacade {
 				continue;
 			}
 
-			try {
-				String message;
-				if (impactedEventReferences.isEmpty()) {
-					message = String.format(
-						I18nProperties.getString(contentTemplate),
-						eventGroup.getName(),
-						DataHelper.getShortUuid(eventGroup.getUuid()),
-						buildCaptionForUserInNotification(currentUser),
-						buildEventGroupSummaryForNotification(responsibleUserByRemainingEventUuid));
-				} else {
-					message = String.format(
-						I18nProperties.getString(contentTemplate),
-						stringifyEventsWithResponsibleUser(responsibleUserByImpactedEventUuid, ", ", ""),
-						eventGroup.getName(),
-						DataHelper.getShortUuid(eventGroup.getUuid()),
-						buildCaptionForUserInNotification(currentUser),
-						buildEventGroupSummaryForNotification(responsibleUserByRemainingEventUuid));
-				}
-				messagingService.sendMessage(responsibleUser, subject, message, MessageType.EMAIL, MessageType.SMS);
-			} catch (NotificationDeliveryFailedException e) {
-				logger.error(
-					String.format(
-						"NotificationDeliveryFailedException when trying to notify event responsible user about a modification on an EventGroup. "
-							+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-						responsibleUser.getUuid()));
+			String message;
+			if (impactedEventReferences.isEmpty()) {
+				message = String.format(
+					I18nProperties.getString(contentTemplate),
+					eventGroup.getName(),
+					DataHelper.getShortUuid(eventGroup.getUuid()),
+					buildCaptionForUserInNotification(currentUser),
+					buildEventGroupSummaryForNotification(responsibleUserByRemainingEventUuid));
+			} else {
+				message = String.format(
+					I18nProperties.getString(contentTemplate),
+					stringifyEventsWithResponsibleUser(responsibleUserByImpactedEventUuid, ", ", ""),
+					eventGroup.getName(),
+					DataHelper.getShortUuid(eventGroup.getUuid()),
+					buildCaptionForUserInNotification(currentUser),
+					buildEventGroupSummaryForNotification(responsibleUserByRemainingEventUuid));
 			}
+			messagingService.sendMessage(responsibleUser, subject, message, MessageType.EMAIL, MessageType.SMS);
 		}
 	}
 
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -906,4 +907,33 @@ public class EventService extends AbstractCoreAdoService<Event> {
 
 		return em.createQuery(cq).getResultList();
 	}
+
+	/**
+	 * Unlike {@link #getAllByCase(String)}, this does not apply a user filter. Used by system jobs.
+	 * 
+	 * @return The active events the cases are participants of, mapped by the case id.
+	 */
+	public Map<Long, List<Event>> getAllByCaseIds(List<Long> caseIds) {
+
+		Map<Long, List<Event>> eventsByCaseId = new HashMap<>();
+		if (caseIds.isEmpty()) {
+			return eventsByCaseId;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Event> from = cq.from(getElementClass());
+		from.fetch(Event.EVENT_LOCATION);
+		Path<Long> caseId = from.join(Event.EVENT_PERSONS).join(EventParticipant.RESULTING_CASE).get(Case.ID);
+
+		cq.multiselect(caseId, from);
+		cq.where(cb.and(createActiveEventsFilter(cb, from), caseId.in(caseIds)));
+		cq.distinct(true);
+
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			eventsByCaseId.computeIfAbsent((Long) result[0], k -> new ArrayList<>()).add((Event) result[1]);
+		}
+
+		return eventsByCaseId;
+	}
 }
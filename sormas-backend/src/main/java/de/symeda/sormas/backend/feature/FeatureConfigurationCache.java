@@ -0,0 +1,158 @@
+package de.symeda.sormas.backend.feature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.feature.FeatureType;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Keeps the disabled feature types and the active server features in memory, so checking whether a feature is enabled
+ * doesn't need a query.
+ * <p>
+ * They are loaded on first use and dropped by {@link #invalidate()} whenever a configuration is saved or deleted. When
+ * called inside a transaction, they are dropped again after the transaction has completed, so neither a concurrent
+ * reload nor a reload within the transaction can keep a state that differs from the database. They are also reloaded
+ * after {@link #MAX_AGE_MILLIS}, to pick up changes made by other servers.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class FeatureConfigurationCache {
+
+	public static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	/** incremented by each invalidation; configurations loaded under an older generation are not published */
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile FeatureConfigurationTable table;
+
+	/**
+	 * @return whether there is a configuration disabling the feature, for any region, district or disease
+	 */
+	public boolean isFeatureDisabled(FeatureType featureType) {
+		return getTable().disabledFeatureTypes.contains(featureType);
+	}
+
+	public List<FeatureType> getActiveServerFeatureTypes() {
+		return getTable().activeServerFeatureTypes;
+	}
+
+	/**
+	 * Drops the configurations held in memory. Has to be called whenever a feature configuration is changed.
+	 */
+	public void invalidate() {
+
+		generation.incrementAndGet();
+		table = null;
+
+		if (transactionSynchronizationRegistry != null && transactionSynchronizationRegistry.getTransactionKey() != null) {
+			transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+					// nothing to do
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					// also after a rollback, since a reload within the transaction may have seen its changes
+					generation.incrementAndGet();
+					table = null;
+				}
+			});
+		}
+	}
+
+	private FeatureConfigurationTable getTable() {
+
+		FeatureConfigurationTable currentTable = table;
+		if (currentTable == null || currentTable.isExpired(System.currentTimeMillis())) {
+			long loadGeneration = generation.get();
+			currentTable = loadTable();
+			if (generation.get() == loadGeneration) {
+				table = currentTable;
+			}
+		}
+		return currentTable;
+	}
+
+	private FeatureConfigurationTable loadTable() {
+
+		long startTime = DateHelper.startTime();
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<FeatureConfiguration> root = cq.from(FeatureConfiguration.class);
+		cq.multiselect(root.get(FeatureConfiguration.FEATURE_TYPE), root.get(FeatureConfiguration.ENABLED));
+		cq.distinct(true);
+
+		Set<FeatureType> disabledFeatureTypes = EnumSet.noneOf(FeatureType.class);
+		Set<FeatureType> activeServerFeatureTypes = EnumSet.noneOf(FeatureType.class);
+
+		List<Object[]> rows = em.createQuery(cq).getResultList();
+		for (Object[] row : rows) {
+			FeatureType featureType = (FeatureType) row[0];
+			if (!(Boolean) row[1]) {
+				disabledFeatureTypes.add(featureType);
+			} else if (featureType.isServerFeature()) {
+				activeServerFeatureTypes.add(featureType);
+			}
+		}
+
+		logger.debug("Loaded feature configurations in {} ms", DateHelper.durationMillies(startTime));
+
+		return new FeatureConfigurationTable(
+			disabledFeatureTypes,
+			Collections.unmodifiableList(new ArrayList<>(activeServerFeatureTypes)),
+			System.currentTimeMillis() + MAX_AGE_MILLIS);
+	}
+
+	private static final class FeatureConfigurationTable {
+
+		private final Set<FeatureType> disabledFeatureTypes;
+		private final List<FeatureType> activeServerFeatureTypes;
+		private final long expiresAt;
+
+		private FeatureConfigurationTable(Set<FeatureType> disabledFeatureTypes, List<FeatureType> activeServerFeatureTypes, long expiresAt) {
+
+			this.disabledFeatureTypes = disabledFeatureTypes;
+			this.activeServerFeatureTypes = activeServerFeatureTypes;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+}
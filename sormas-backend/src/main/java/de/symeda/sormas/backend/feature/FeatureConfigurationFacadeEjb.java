@@ -72,6 +72,8 @@ public class FeatureConfigurationFacadeEjb implements FeatureConfigurationFacade
 	private DistrictService districtService;
 	@EJB
 	private UserService userService;
+	@EJB
+	private FeatureConfigurationCache featureConfigurationCache;
 
 	@Override
 	public List<FeatureConfigurationDto> getAllAfter(Date date) {
@@ -242,15 +244,7 @@ public class FeatureConfigurationFacadeEjb implements FeatureConfigurationFacade
 
 	@Override
 	public boolean isFeatureDisabled(FeatureType featureType) {
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
-		Root<FeatureConfiguration> root = cq.from(FeatureConfiguration.class);
-
-		cq.where(cb.and(cb.equal(root.get(FeatureConfiguration.FEATURE_TYPE), featureType), cb.isFalse(root.get(FeatureConfiguration.ENABLED))));
-		cq.select(cb.count(root));
-
-		return em.createQuery(cq).getSingleResult() > 0;
+		return featureConfigurationCache.isFeatureDisabled(featureType);
 	}
 
 	@Override
@@ -285,19 +279,11 @@ public class FeatureConfigurationFacadeEjb implements FeatureConfigurationFacade
 	@Override
 	public List<FeatureType> getActiveServerFeatureTypes() {
 
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<FeatureType> cq = cb.createQuery(FeatureType.class);
-		Root<FeatureConfiguration> root = cq.from(FeatureConfiguration.class);
-
-		List<FeatureType> serverFeatures = FeatureType.getAllServerFeatures();
-		if (serverFeatures.isEmpty()) {
+		if (FeatureType.getAllServerFeatures().isEmpty()) {
 			return null;
 		}
 
-		cq.where(cb.and(root.get(FeatureConfiguration.FEATURE_TYPE).in(serverFeatures), cb.isTrue(root.get(FeatureConfiguration.ENABLED))));
-		cq.select(root.get(FeatureConfiguration.FEATURE_TYPE));
-
-		return em.createQuery(cq).getResultList();
+		return featureConfigurationCache.getActiveServerFeatureTypes();
 	}
 
 	public static FeatureConfigurationDto toDto(FeatureConfiguration source) {
@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.Query;
@@ -30,10 +31,27 @@ import de.symeda.sormas.backend.user.User;
 @LocalBean
 public class FeatureConfigurationService extends AdoServiceWithUserFilter<FeatureConfiguration> {
 
+	@EJB
+	private FeatureConfigurationCache featureConfigurationCache;
+
 	public FeatureConfigurationService() {
 		super(FeatureConfiguration.class);
 	}
 
+	@Override
+	public void ensurePersisted(FeatureConfiguration configuration) {
+
+		super.ensurePersisted(configuration);
+		featureConfigurationCache.invalidate();
+	}
+
+	@Override
+	public void delete(FeatureConfiguration configuration) {
+
+		super.delete(configuration);
+		featureConfigurationCache.invalidate();
+	}
+
 	public List<String> getDeletedUuids(Date since, User user) {
 
 		StringBuilder queryBuilder = new StringBuilder();
@@ -0,0 +1,74 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.geocoding;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Transient;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+import de.symeda.sormas.backend.common.AbstractDomainObject;
+
+/**
+ * Result of the geocoding service for a {@link LocationQuery#getNormalizedKey() normalized address}, identified by the
+ * SHA-256 hash of the normalized address, because the address itself can be longer than an indexed column allows.
+ * Entries without coordinates record that the service did not find the address.
+ */
+@Entity
+public class GeocodingCacheEntry extends AbstractDomainObject {
+
+	private static final long serialVersionUID = 3129473805316724516L;
+
+	public static final String TABLE_NAME = "geocodingcacheentry";
+
+	public static final String QUERY_HASH = "queryHash";
+	public static final String LATITUDE = "latitude";
+	public static final String LONGITUDE = "longitude";
+
+	private String queryHash;
+	private Double latitude;
+	private Double longitude;
+
+	@Column(nullable = false, unique = true, length = 64)
+	public String getQueryHash() {
+		return queryHash;
+	}
+
+	public void setQueryHash(String queryHash) {
+		this.queryHash = queryHash;
+	}
+
+	public Double getLatitude() {
+		return latitude;
+	}
+
+	public void setLatitude(Double latitude) {
+		this.latitude = latitude;
+	}
+
+	public Double getLongitude() {
+		return longitude;
+	}
+
+	public void setLongitude(Double longitude) {
+		this.longitude = longitude;
+	}
+
+	@Transient
+	public GeoLatLon getLatLon() {
+		return latitude != null && longitude != null ? new GeoLatLon(latitude, longitude) : null;
+	}
+}
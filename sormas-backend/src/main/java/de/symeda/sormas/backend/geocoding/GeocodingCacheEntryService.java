@@ -0,0 +1,134 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.geocoding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.jpa.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.backend.common.BaseAdoService;
+import de.symeda.sormas.backend.util.IterableHelper;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+@Stateless
+@LocalBean
+public class GeocodingCacheEntryService extends BaseAdoService<GeocodingCacheEntry> {
+
+	public GeocodingCacheEntryService() {
+		super(GeocodingCacheEntry.class);
+	}
+
+	/**
+	 * @return the entries for the normalized queries, including expired ones, mapped by their normalized query key
+	 */
+	public Map<String, GeocodingCacheEntry> getByQueryKeys(Collection<String> queryKeys) {
+
+		Map<String, String> queryKeysByHash = new HashMap<>();
+		for (String queryKey : queryKeys) {
+			queryKeysByHash.put(hashQueryKey(queryKey), queryKey);
+		}
+
+		Map<String, GeocodingCacheEntry> entries = new HashMap<>();
+		IterableHelper.executeBatched(new ArrayList<>(queryKeysByHash.keySet()), ModelConstants.PARAMETER_LIMIT, batchedQueryHashes -> {
+			CriteriaBuilder cb = em.getCriteriaBuilder();
+			CriteriaQuery<GeocodingCacheEntry> cq = cb.createQuery(GeocodingCacheEntry.class);
+			Root<GeocodingCacheEntry> from = cq.from(GeocodingCacheEntry.class);
+			cq.where(from.get(GeocodingCacheEntry.QUERY_HASH).in(batchedQueryHashes));
+
+			for (GeocodingCacheEntry entry : em.createQuery(cq).getResultList()) {
+				entries.put(queryKeysByHash.get(entry.getQueryHash()), entry);
+			}
+		});
+		return entries;
+	}
+
+	/**
+	 * Stores the result of the geocoding service for the query, replacing the entry if there is one.
+	 * <p>
+	 * The entry is written in its own transaction with an update or an insert that ignores a concurrently inserted entry
+	 * for the same address, so a cache write never fails or rolls back the operation that geocoded the address.
+	 *
+	 * @param latLon
+	 *            {@code null} if the service did not find the address
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void store(String queryKey, GeoLatLon latLon) {
+
+		String queryHash = hashQueryKey(queryKey);
+		TypedParameterValue latitude = new TypedParameterValue(StandardBasicTypes.DOUBLE, latLon != null ? latLon.getLat() : null);
+		TypedParameterValue longitude = new TypedParameterValue(StandardBasicTypes.DOUBLE, latLon != null ? latLon.getLon() : null);
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		int updatedCount = em
+			.createNativeQuery(
+				"UPDATE " + GeocodingCacheEntry.TABLE_NAME + " SET latitude = ?1, longitude = ?2, changedate = ?3 WHERE queryhash = ?4")
+			.setParameter(1, latitude)
+			.setParameter(2, longitude)
+			.setParameter(3, now)
+			.setParameter(4, queryHash)
+			.executeUpdate();
+
+		if (updatedCount == 0) {
+			em.createNativeQuery(
+				"INSERT INTO " + GeocodingCacheEntry.TABLE_NAME
+					+ " (id, uuid, changedate, creationdate, queryhash, latitude, longitude) VALUES (nextval('entity_seq'), ?1, ?2, ?2, ?3, ?4, ?5)"
+					+ " ON CONFLICT DO NOTHING")
+				.setParameter(1, DataHelper.createUuid())
+				.setParameter(2, now)
+				.setParameter(3, queryHash)
+				.setParameter(4, latitude)
+				.setParameter(5, longitude)
+				.executeUpdate();
+		}
+	}
+
+	/**
+	 * @return the hex encoded SHA-256 hash of the normalized query key
+	 */
+	static String hashQueryKey(String queryKey) {
+
+		byte[] hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256").digest(queryKey.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+
+		StringBuilder hex = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.geocoding;
+
+import java.net.URI;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.util.ClientHelper;
+
+/**
+ * Sends the requests to the geocoding service through one client, so connections to the service are pooled and reused
+ * instead of being opened for every address. The number of concurrent requests and the requests per second are
+ * limited as configured, no matter how many threads use the client.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class GeocodingClient {
+
+	private static final int TIMEOUT_SECONDS = 10;
+
+	@EJB
+	private ConfigFacadeEjbLocal configFacade;
+
+	private volatile Client client;
+	private volatile Semaphore permits;
+
+	private long nextRequestNanos;
+
+	/**
+	 * @return the response with its entity buffered, so the connection is already returned to the pool
+	 */
+	public Response get(URI uri) {
+
+		Client restClient = getClient();
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+
+		try {
+			awaitRequestSlot();
+			Response response = restClient.target(uri).request(MediaType.APPLICATION_JSON_TYPE).get();
+			response.bufferEntity();
+			return response;
+		} finally {
+			permits.release();
+		}
+	}
+
+	private Client getClient() {
+
+		if (client == null) {
+			synchronized (this) {
+				if (client == null) {
+					int maxConcurrentRequests = Math.max(1, configFacade.getGeocodingMaxConcurrentRequests());
+					ClientBuilder builder =
+						ClientHelper.newBuilderWithProxy().connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+					if (builder instanceof ResteasyClientBuilder) {
+						((ResteasyClientBuilder) builder).connectionPoolSize(maxConcurrentRequests).maxPooledPerRoute(maxConcurrentRequests);
+					}
+					permits = new Semaphore(maxConcurrentRequests, true);
+					client = builder.build();
+				}
+			}
+		}
+		return client;
+	}
+
+	/**
+	 * Waits until the configured number of requests per second allows another request.
+	 */
+	private void awaitRequestSlot() {
+
+		double requestsPerSecond = configFacade.getGeocodingRequestsPerSecond();
+		if (requestsPerSecond <= 0) {
+			return;
+		}
+
+		long waitNanos;
+		synchronized (this) {
+			long now = System.nanoTime();
+			long slot = Math.max(now, nextRequestNanos);
+			nextRequestNanos = slot + (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+			waitNanos = slot - now;
+		}
+
+		if (waitNanos > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(waitNanos);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+
+		if (client != null) {
+			client.close();
+			client = null;
+		}
+	}
+}
@@ -21,17 +21,27 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status.Family;
 
@@ -47,9 +57,9 @@ import com.nimbusds.jose.util.StandardCharset;
 
 import de.symeda.sormas.api.region.GeoLatLon;
 import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.location.Location;
-import de.symeda.sormas.backend.util.ClientHelper;
 
 @Stateless
 @LocalBean
@@ -64,6 +74,12 @@ public class GeocodingService {
 
 	@EJB
 	private ConfigFacadeEjbLocal configFacade;
+	@EJB
+	private GeocodingCacheEntryService cacheEntryService;
+	@EJB
+	private GeocodingClient geocodingClient;
+	@Resource
+	private ManagedExecutorService executorService;
 
 	public boolean isEnabled() {
 		return configFacade.getGeocodingServiceUrlTemplate() != null;
@@ -71,29 +87,146 @@ public class GeocodingService {
 
 	public GeoLatLon getLatLon(Location location) {
 
+		LocationQuery query = getQuery(location);
+		return query != null ? getLatLon(query) : null;
+	}
+
+	/**
+	 * @return the query for the address of the location or {@code null} if the address is not specific enough to be
+	 *         geocoded
+	 */
+	public LocationQuery getQuery(Location location) {
+
 		String street = Objects.toString(location.getStreet(), "");
 		String houseNumber = Objects.toString(location.getHouseNumber(), "");
 		String city = Objects.toString(location.getCity(), "");
 		String postalCode = Objects.toString(location.getPostalCode(), "");
 		if (StringUtils.isNotBlank(street) && (StringUtils.isNotBlank(city) || StringUtils.isNotBlank(postalCode))) {
-			return getLatLon(new LocationQuery(houseNumber, street, postalCode, city));
+			return new LocationQuery(houseNumber, street, postalCode, city);
 		}
 		return null;
 	}
 
 	public GeoLatLon getLatLon(LocationQuery query) {
+		return getLatLons(Collections.singletonList(query)).get(query.getNormalizedKey());
+	}
+
+	/**
+	 * Geocodes many addresses at once: Each distinct address is looked up once, results of the last
+	 * {@link ConfigFacadeEjbLocal#getGeocodingCacheDays()} days are reused and the remaining addresses are sent to the
+	 * geocoding service by a bounded number of threads.
+	 *
+	 * @return the coordinates of the addresses that were found, mapped by {@link LocationQuery#getNormalizedKey()}
+	 */
+	public Map<String, GeoLatLon> getLatLons(Collection<LocationQuery> queries) {
 
 		String urlTemplate = configFacade.getGeocodingServiceUrlTemplate();
 		if (DataHelper.isNullOrEmpty(urlTemplate)
 			|| DataHelper.isNullOrEmpty(configFacade.getGeocodingLatitudeJsonPath())
 			|| DataHelper.isNullOrEmpty(configFacade.getGeocodingLongitudeJsonPath())) {
-			return null;
+			return Collections.emptyMap();
+		}
+
+		Map<String, LocationQuery> distinctQueries = new LinkedHashMap<>();
+		for (LocationQuery query : queries) {
+			distinctQueries.putIfAbsent(query.getNormalizedKey(), query);
 		}
 
-		return getLatLon(query, urlTemplate);
+		int cacheDays = configFacade.getGeocodingCacheDays();
+		Map<String, GeocodingCacheEntry> cacheEntries =
+			cacheDays > 0 ? cacheEntryService.getByQueryKeys(distinctQueries.keySet()) : Collections.emptyMap();
+		Date expiryDate = DateHelper.subtractDays(new Date(), cacheDays);
+
+		Map<String, GeoLatLon> latLons = new HashMap<>();
+		Map<String, LocationQuery> uncachedQueries = new LinkedHashMap<>();
+		distinctQueries.forEach((queryKey, query) -> {
+			GeocodingCacheEntry cacheEntry = cacheEntries.get(queryKey);
+			if (cacheEntry != null && cacheEntry.getChangeDate().after(expiryDate)) {
+				if (cacheEntry.getLatLon() != null) {
+					latLons.put(queryKey, cacheEntry.getLatLon());
+				}
+			} else {
+				uncachedQueries.put(queryKey, query);
+			}
+		});
+
+		Map<String, GeoLatLon> foundLatLons = new ConcurrentHashMap<>();
+		Set<String> notFoundQueryKeys = ConcurrentHashMap.newKeySet();
+		requestLatLons(uncachedQueries, urlTemplate, foundLatLons, notFoundQueryKeys);
+
+		// failed requests are not cached, so they are repeated next time
+		if (cacheDays > 0) {
+			foundLatLons.forEach(this::storeInCache);
+			notFoundQueryKeys.forEach(queryKey -> storeInCache(queryKey, null));
+		}
+
+		latLons.putAll(foundLatLons);
+		return latLons;
 	}
 
-	private GeoLatLon getLatLon(LocationQuery query, String urlTemplate) {
+	private void storeInCache(String queryKey, GeoLatLon latLon) {
+
+		try {
+			cacheEntryService.store(queryKey, latLon);
+		} catch (RuntimeException e) {
+			// the address is just geocoded again next time
+			logger.warn("Could not cache the geocoding result for '{}': {}", queryKey, e.getMessage());
+		}
+	}
+
+	/**
+	 * Sends the queries to the geocoding service. Up to {@link ConfigFacadeEjbLocal#getGeocodingMaxConcurrentRequests()}
+	 * workers take the queries from a shared queue; the results are only collected here and stored by the calling
+	 * thread, because the workers don't take part in its transaction.
+	 */
+	private void requestLatLons(
+		Map<String, LocationQuery> queries,
+		String urlTemplate,
+		Map<String, GeoLatLon> foundLatLons,
+		Set<String> notFoundQueryKeys) {
+
+		Queue<Map.Entry<String, LocationQuery>> pendingQueries = new ConcurrentLinkedQueue<>(queries.entrySet());
+		Runnable worker = () -> {
+			Map.Entry<String, LocationQuery> pendingQuery;
+			while ((pendingQuery = pendingQueries.poll()) != null) {
+				try {
+					GeoLatLon latLon = requestLatLon(pendingQuery.getValue(), urlTemplate);
+					if (latLon != null) {
+						foundLatLons.put(pendingQuery.getKey(), latLon);
+					} else {
+						notFoundQueryKeys.add(pendingQuery.getKey());
+					}
+				} catch (RuntimeException e) {
+					logger.error("geosearch query '{}' failed: {}", pendingQuery.getValue(), e.getMessage());
+				}
+			}
+		};
+
+		int workerCount = Math.min(queries.size(), configFacade.getGeocodingMaxConcurrentRequests());
+		List<Future<?>> workers = new ArrayList<>();
+		if (executorService != null) {
+			for (int i = 1; i < workerCount; i++) {
+				workers.add(executorService.submit(worker));
+			}
+		}
+		worker.run();
+
+		try {
+			for (Future<?> future : workers) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * @return the coordinates or {@code null} if the service did not find the address
+	 */
+	private GeoLatLon requestLatLon(LocationQuery query, String urlTemplate) {
 
 		StringSubstitutor substitutor = new StringSubstitutor(buildQuerySubstitutions(query));
 		String url = substitutor.replace(urlTemplate);
@@ -105,16 +238,11 @@ public class GeocodingService {
 			throw new IllegalArgumentException(e);
 		}
 
-		Client client = ClientHelper.newBuilderWithProxy().connectTimeout(10, TimeUnit.SECONDS).readTimeout(10, TimeUnit.SECONDS).build();
-		WebTarget target = client.target(targetUrl);
-		Response response = target.request(MediaType.APPLICATION_JSON_TYPE).get();
+		Response response = geocodingClient.get(targetUrl);
 		String responseText = readResponseAsText(response);
 
 		if (response.getStatusInfo().getFamily() != Family.SUCCESSFUL) {
-			if (logger.isErrorEnabled()) {
-				logger.error("geosearch query '{}' returned {} - {}:\n{}", query, response.getStatus(), response.getStatusInfo(), responseText);
-			}
-			return null;
+			throw new IllegalStateException(response.getStatus() + " - " + response.getStatusInfo() + ":\n" + responseText);
 		}
 
 		try {
@@ -15,6 +15,12 @@
 
 package de.symeda.sormas.backend.geocoding;
 
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
 public class LocationQuery {
 
 	private final String houseNumber;
@@ -45,6 +51,16 @@ public class LocationQuery {
 		return city;
 	}
 
+	/**
+	 * @return the address in lower case without redundant whitespace, so queries which only differ in spelling share one
+	 *         result of the geocoding service
+	 */
+	public String getNormalizedKey() {
+		return Stream.of(houseNumber, street, postalCode, city)
+			.map(value -> StringUtils.normalizeSpace(StringUtils.defaultString(value)).toLowerCase(Locale.ROOT))
+			.collect(Collectors.joining("|"));
+	}
+
 	@Override
 	public String toString() {
 		return "LocationQuery{" + "houseNumber='" + houseNumber + '\'' + ", street='" + street + '\'' + ", postalCode='" + postalCode + '\''
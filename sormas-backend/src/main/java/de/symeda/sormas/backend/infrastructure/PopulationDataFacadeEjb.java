@@ -10,7 +10,6 @@ import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
-import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
@@ -26,12 +25,9 @@ import org.apache.commons.collections.CollectionUtils;
 import de.symeda.sormas.api.AgeGroup;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
-import de.symeda.sormas.api.infrastructure.InfrastructureHelper;
 import de.symeda.sormas.api.infrastructure.PopulationDataCriteria;
 import de.symeda.sormas.api.infrastructure.PopulationDataDto;
 import de.symeda.sormas.api.infrastructure.PopulationDataFacade;
-import de.symeda.sormas.api.region.DistrictReferenceDto;
-import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.region.Area;
@@ -62,105 +58,27 @@ public class PopulationDataFacadeEjb implements PopulationDataFacade {
 	private DistrictService districtService;
 	@EJB
 	private CommunityService communityService;
+	@EJB
+	private PopulationLookupService populationLookupService;
 
 	@Override
 	public Integer getRegionPopulation(String regionUuid) {
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
-		Root<PopulationData> root = cq.from(PopulationData.class);
-
-		PopulationDataCriteria criteria = new PopulationDataCriteria().ageGroupIsNull(true)
-			.sexIsNull(true)
-			.districtIsNull(true)
-			.communityIsNull(true)
-			.region(new RegionReferenceDto(regionUuid, null, null));
-		Predicate filter = service.buildCriteriaFilter(criteria, cb, root);
-		cq.where(filter);
-		cq.select(root.get(PopulationData.POPULATION));
-
-		try {
-			return em.createQuery(cq).getSingleResult();
-		} catch (NoResultException e) {
-			return null;
-		}
+		return populationLookupService.getRegionPopulation(regionUuid);
 	}
 
 	@Override
 	public Integer getProjectedRegionPopulation(String regionUuid) {
-
-		Float growthRate = regionService.getByUuid(regionUuid).getGrowthRate();
-
-		if (growthRate == null || growthRate == 0) {
-			return getRegionPopulation(regionUuid);
-		}
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<PopulationData> cq = cb.createQuery(PopulationData.class);
-		Root<PopulationData> root = cq.from(PopulationData.class);
-
-		PopulationDataCriteria criteria = new PopulationDataCriteria().ageGroupIsNull(true)
-			.sexIsNull(true)
-			.districtIsNull(true)
-			.communityIsNull(true)
-			.region(new RegionReferenceDto(regionUuid, null, null));
-		Predicate filter = service.buildCriteriaFilter(criteria, cb, root);
-		cq.where(filter);
-
-		try {
-			PopulationData populationData = em.createQuery(cq).getSingleResult();
-			return InfrastructureHelper.getProjectedPopulation(populationData.getPopulation(), populationData.getCollectionDate(), growthRate);
-		} catch (NoResultException | NonUniqueResultException e) {
-			return null;
-		}
+		return populationLookupService.getProjectedRegionPopulation(regionUuid);
 	}
 
 	@Override
 	public Integer getDistrictPopulation(String districtUuid) {
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
-		Root<PopulationData> root = cq.from(PopulationData.class);
-
-		PopulationDataCriteria criteria = new PopulationDataCriteria().ageGroupIsNull(true)
-			.sexIsNull(true)
-			.communityIsNull(true)
-			.district(new DistrictReferenceDto(districtUuid, null, null));
-		Predicate filter = service.buildCriteriaFilter(criteria, cb, root);
-		cq.where(filter);
-		cq.select(root.get(PopulationData.POPULATION));
-
-		try {
-			return em.createQuery(cq).getSingleResult();
-		} catch (NoResultException e) {
-			return null;
-		}
+		return populationLookupService.getDistrictPopulation(districtUuid);
 	}
 
 	@Override
 	public Integer getProjectedDistrictPopulation(String districtUuid) {
-
-		Float growthRate = districtService.getByUuid(districtUuid).getGrowthRate();
-
-		if (growthRate == null || growthRate == 0) {
-			return getDistrictPopulation(districtUuid);
-		}
-
-		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<PopulationData> cq = cb.createQuery(PopulationData.class);
-		Root<PopulationData> root = cq.from(PopulationData.class);
-
-		PopulationDataCriteria criteria =
-			new PopulationDataCriteria().ageGroupIsNull(true).sexIsNull(true).district(new DistrictReferenceDto(districtUuid, null, null));
-		Predicate filter = service.buildCriteriaFilter(criteria, cb, root);
-		cq.where(filter);
-
-		try {
-			PopulationData populationData = em.createQuery(cq).getSingleResult();
-			return InfrastructureHelper.getProjectedPopulation(populationData.getPopulation(), populationData.getCollectionDate(), growthRate);
-		} catch (NoResultException | NonUniqueResultException e) {
-			return null;
-		}
+		return populationLookupService.getProjectedDistrictPopulation(districtUuid);
 	}
 
 	@Override
@@ -171,6 +89,8 @@ public class PopulationDataFacadeEjb implements PopulationDataFacade {
 			PopulationData entity = fromDto(populationData, true);
 			service.ensurePersisted(entity);
 		}
+
+		populationLookupService.invalidate();
 	}
 
 	@Override
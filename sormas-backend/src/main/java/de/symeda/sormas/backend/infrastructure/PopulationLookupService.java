@@ -0,0 +1,322 @@
+package de.symeda.sormas.backend.infrastructure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.AgeGroup;
+import de.symeda.sormas.api.infrastructure.InfrastructureHelper;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.region.Community;
+import de.symeda.sormas.backend.region.District;
+import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.util.ModelConstants;
+
+/**
+ * Keeps all population data together with the growth rates of the related infrastructure in memory, so incidence
+ * computations don't need a query per region or district.
+ * <p>
+ * The table is loaded on first use and dropped by {@link #invalidate()} whenever population data or growth rates are
+ * changed. When called inside a transaction, the table is dropped again after the transaction has completed, so a
+ * concurrent reload can't keep the state from before the commit.
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class PopulationLookupService {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
+	private EntityManager em;
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+	/** incremented by each invalidation; a table loaded under an older generation is not published */
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile PopulationTable table;
+
+	/**
+	 * @return all population data entries, including the breakdowns by district, community, sex and age group.
+	 */
+	public List<PopulationEntry> getEntries() {
+		return getTable().entries;
+	}
+
+	public Integer getRegionPopulation(String regionUuid) {
+
+		PopulationEntry entry = getTable().regionTotals.get(regionUuid);
+		return entry != null ? entry.getPopulation() : null;
+	}
+
+	public Integer getProjectedRegionPopulation(String regionUuid) {
+
+		PopulationEntry entry = getTable().regionTotals.get(regionUuid);
+		return entry != null ? project(entry, entry.getRegionGrowthRate()) : null;
+	}
+
+	public Integer getDistrictPopulation(String districtUuid) {
+
+		PopulationEntry entry = getTable().districtTotals.get(districtUuid);
+		return entry != null ? entry.getPopulation() : null;
+	}
+
+	public Integer getProjectedDistrictPopulation(String districtUuid) {
+
+		PopulationEntry entry = getTable().districtTotals.get(districtUuid);
+		return entry != null ? project(entry, entry.getDistrictGrowthRate()) : null;
+	}
+
+	/**
+	 * Drops the in-memory table. Has to be called whenever population data or the growth rate of a region, district or
+	 * community is changed.
+	 */
+	public void invalidate() {
+
+		generation.incrementAndGet();
+		table = null;
+
+		if (transactionSynchronizationRegistry != null && transactionSynchronizationRegistry.getTransactionKey() != null) {
+			transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+				@Override
+				public void beforeCompletion() {
+					// nothing to do
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == Status.STATUS_COMMITTED) {
+						generation.incrementAndGet();
+						table = null;
+					}
+				}
+			});
+		}
+	}
+
+	private Integer project(PopulationEntry entry, Float growthRate) {
+
+		if (growthRate == null || growthRate == 0) {
+			return entry.getPopulation();
+		}
+		return InfrastructureHelper.getProjectedPopulation(entry.getPopulation(), entry.getCollectionDate(), growthRate);
+	}
+
+	private PopulationTable getTable() {
+
+		PopulationTable currentTable = table;
+		if (currentTable == null) {
+			long loadGeneration = generation.get();
+			currentTable = loadTable();
+			if (generation.get() == loadGeneration) {
+				table = currentTable;
+			}
+		}
+		return currentTable;
+	}
+
+	private PopulationTable loadTable() {
+
+		long startTime = DateHelper.startTime();
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<PopulationData> root = cq.from(PopulationData.class);
+		Join<PopulationData, Region> region = root.join(PopulationData.REGION, JoinType.LEFT);
+		Join<PopulationData, District> district = root.join(PopulationData.DISTRICT, JoinType.LEFT);
+		Join<PopulationData, Community> community = root.join(PopulationData.COMMUNITY, JoinType.LEFT);
+
+		cq.multiselect(
+			region.get(Region.ID),
+			region.get(Region.UUID),
+			region.get(Region.GROWTH_RATE),
+			district.get(District.ID),
+			district.get(District.UUID),
+			district.get(District.GROWTH_RATE),
+			community.get(Community.ID),
+			community.get(Community.UUID),
+			community.get(Community.GROWTH_RATE),
+			root.get(PopulationData.SEX),
+			root.get(PopulationData.AGE_GROUP),
+			root.get(PopulationData.POPULATION),
+			root.get(PopulationData.COLLECTION_DATE));
+
+		List<PopulationEntry> entries = new ArrayList<>();
+		Map<String, PopulationEntry> regionTotals = new HashMap<>();
+		Map<String, PopulationEntry> districtTotals = new HashMap<>();
+
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			PopulationEntry entry = new PopulationEntry(
+				(Long) row[0],
+				(String) row[1],
+				(Float) row[2],
+				(Long) row[3],
+				(String) row[4],
+				(Float) row[5],
+				(Long) row[6],
+				(String) row[7],
+				(Float) row[8],
+				(Sex) row[9],
+				(AgeGroup) row[10],
+				(Integer) row[11],
+				(Date) row[12]);
+			entries.add(entry);
+
+			if (entry.getSex() == null && entry.getAgeGroup() == null && entry.getCommunityId() == null) {
+				if (entry.getDistrictId() != null) {
+					districtTotals.put(entry.getDistrictUuid(), entry);
+				} else if (entry.getRegionId() != null) {
+					regionTotals.put(entry.getRegionUuid(), entry);
+				}
+			}
+		}
+
+		logger.debug("Loaded {} population data entries in {} ms", entries.size(), DateHelper.durationMillies(startTime));
+
+		return new PopulationTable(Collections.unmodifiableList(entries), regionTotals, districtTotals);
+	}
+
+	private static final class PopulationTable {
+
+		private final List<PopulationEntry> entries;
+		/** total population (no district, community, sex or age group) by region uuid */
+		private final Map<String, PopulationEntry> regionTotals;
+		/** total population (no community, sex or age group) by district uuid */
+		private final Map<String, PopulationEntry> districtTotals;
+
+		private PopulationTable(List<PopulationEntry> entries, Map<String, PopulationEntry> regionTotals, Map<String, PopulationEntry> districtTotals) {
+			this.entries = entries;
+			this.regionTotals = regionTotals;
+			this.districtTotals = districtTotals;
+		}
+	}
+
+	/**
+	 * One row of population data with the growth rates of its region, district and community.
+	 */
+	public static final class PopulationEntry {
+
+		private final Long regionId;
+		private final String regionUuid;
+		private final Float regionGrowthRate;
+		private final Long districtId;
+		private final String districtUuid;
+		private final Float districtGrowthRate;
+		private final Long communityId;
+		private final String communityUuid;
+		private final Float communityGrowthRate;
+		private final Sex sex;
+		private final AgeGroup ageGroup;
+		private final Integer population;
+		private final Date collectionDate;
+
+		public PopulationEntry(
+			Long regionId,
+			String regionUuid,
+			Float regionGrowthRate,
+			Long districtId,
+			String districtUuid,
+			Float districtGrowthRate,
+			Long communityId,
+			String communityUuid,
+			Float communityGrowthRate,
+			Sex sex,
+			AgeGroup ageGroup,
+			Integer population,
+			Date collectionDate) {
+
+			this.regionId = regionId;
+			this.regionUuid = regionUuid;
+			this.regionGrowthRate = regionGrowthRate;
+			this.districtId = districtId;
+			this.districtUuid = districtUuid;
+			this.districtGrowthRate = districtGrowthRate;
+			this.communityId = communityId;
+			this.communityUuid = communityUuid;
+			this.communityGrowthRate = communityGrowthRate;
+			this.sex = sex;
+			this.ageGroup = ageGroup;
+			this.population = population;
+			this.collectionDate = collectionDate;
+		}
+
+		public Long getRegionId() {
+			return regionId;
+		}
+
+		public String getRegionUuid() {
+			return regionUuid;
+		}
+
+		public Float getRegionGrowthRate() {
+			return regionGrowthRate;
+		}
+
+		public Long getDistrictId() {
+			return districtId;
+		}
+
+		public String getDistrictUuid() {
+			return districtUuid;
+		}
+
+		public Float getDistrictGrowthRate() {
+			return districtGrowthRate;
+		}
+
+		public Long getCommunityId() {
+			return communityId;
+		}
+
+		public String getCommunityUuid() {
+			return communityUuid;
+		}
+
+		public Float getCommunityGrowthRate() {
+			return communityGrowthRate;
+		}
+
+		public Sex getSex() {
+			return sex;
+		}
+
+		public AgeGroup getAgeGroup() {
+			return ageGroup;
+		}
+
+		public Integer getPopulation() {
+			return population;
+		}
+
+		public Date getCollectionDate() {
+			return collectionDate;
+		}
+	}
+}
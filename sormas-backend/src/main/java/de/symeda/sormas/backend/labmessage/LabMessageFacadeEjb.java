@@ -4,13 +4,20 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.naming.CannotProceedException;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -42,6 +49,7 @@ import de.symeda.sormas.api.labmessage.LabMessageFetchResult;
 import de.symeda.sormas.api.labmessage.LabMessageIndexDto;
 import de.symeda.sormas.api.labmessage.LabMessageStatus;
 import de.symeda.sormas.api.labmessage.NewMessagesState;
+import de.symeda.sormas.api.labmessage.PagedExternalLabResultsFacade;
 import de.symeda.sormas.api.systemevents.SystemEventDto;
 import de.symeda.sormas.api.systemevents.SystemEventStatus;
 import de.symeda.sormas.api.systemevents.SystemEventType;
@@ -67,6 +75,8 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 		LabMessageIndexDto.TEST_RESULT,
 		LabMessageIndexDto.TESTED_DISEASE);
 
+	static final int FETCH_PAGE_SIZE = 500;
+
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
@@ -80,6 +90,8 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 	private ConfigFacadeEjb.ConfigFacadeEjbLocal configFacade;
 	@EJB
 	private SystemEventFacadeEjb.SystemEventFacadeEjbLocal systemEventFacade;
+	@EJB
+	private LabMessageIngestionService labMessageIngestionService;
 
 	LabMessage fromDto(@NotNull LabMessageDto source, LabMessage target, boolean checkChangeDate) {
 
@@ -322,25 +334,27 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 
 	/**
 	 * This method marks the previously unfinished system events as UNCLEAR(if any exists) and creates a new event with status STARTED.
-	 * If the fetching succeds, the status of the currentSystemEvent is changed to SUCCESS.
-	 * In case of any Exception, the status of the currentSystemEvent is changed to ERROR.
+	 * The messages are fetched and saved page by page, each page in its own transaction. After each page, the status of the
+	 * currentSystemEvent is changed to SUCCESS with the synchronization date to continue with.
+	 * In case of any Exception, the error is reported in the currentSystemEvent, or in a new event if pages have already been saved.
 	 *
 	 * @return An indication whether the fetching of new labMessage was successful. If it was not, an error message meant for UI users.
 	 */
 	@Override
+	@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 	public LabMessageFetchResult fetchAndSaveExternalLabMessages(Date since) {
 		systemEventFacade.markPreviouslyStartedAsUnclear(SystemEventType.FETCH_LAB_MESSAGES);
 		SystemEventDto currentSystemEvent = initializeFetchEvent();
 		try {
 			return fetchAndSaveExternalLabMessages(currentSystemEvent, since);
 		} catch (CannotProceedException e) {
-			systemEventFacade.reportError(currentSystemEvent, e.getMessage(), new Date());
+			reportFetchError(currentSystemEvent, e.getMessage());
 			return new LabMessageFetchResult(false, NewMessagesState.UNCLEAR, e.getMessage());
 		} catch (NamingException e) {
-			systemEventFacade.reportError(currentSystemEvent, e.getMessage(), new Date());
+			reportFetchError(currentSystemEvent, e.getMessage());
 			return new LabMessageFetchResult(false, NewMessagesState.UNCLEAR, I18nProperties.getString(Strings.errorLabResultsAdapterNotFound));
 		} catch (Exception t) {
-			systemEventFacade.reportError(currentSystemEvent, t.getMessage(), new Date());
+			reportFetchError(currentSystemEvent, t.getMessage());
 			throw t;
 		}
 	}
@@ -349,18 +363,72 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 		if (since == null) {
 			since = findLastUpdateDate();
 		}
-		ExternalMessageResult<List<LabMessageDto>> externalMessageResult = fetchExternalMessages(since);
-		if (externalMessageResult.isSuccess()) {
-			externalMessageResult.getValue().forEach(this::save);
-			String message = "Last synchronization date: " + externalMessageResult.getSynchronizationDate().getTime();
-			systemEventFacade.reportSuccess(currentSystemEvent, message, new Date());
-			return getSuccessfulFetchResult(externalMessageResult);
-		} else {
-			throw new CannotProceedException(externalMessageResult.getError());
+		ExternalLabResultsFacade labResultsFacade = getExternalLabResultsFacade();
+
+		// messages repeated on the next page are only saved again if they have changed
+		Map<String, Date> savedChangeDates = new HashMap<>();
+		boolean newMessages = false;
+		while (true) {
+			ExternalMessageResult<List<LabMessageDto>> externalMessageResult = fetchPage(labResultsFacade, since);
+			if (!externalMessageResult.isSuccess()) {
+				throw new CannotProceedException(externalMessageResult.getError());
+			}
+
+			List<LabMessageDto> fetchedMessages = externalMessageResult.getValue() != null ? externalMessageResult.getValue() : Collections.emptyList();
+			List<LabMessageDto> labMessages = deduplicate(fetchedMessages, savedChangeDates);
+			Date synchronizationDate = externalMessageResult.getSynchronizationDate();
+			labMessageIngestionService.saveChunk(labMessages, currentSystemEvent, synchronizationDate);
+			labMessages.forEach(labMessage -> savedChangeDates.put(labMessage.getUuid(), labMessage.getChangeDate()));
+			newMessages |= !labMessages.isEmpty();
+
+			if (!(labResultsFacade instanceof PagedExternalLabResultsFacade)
+				|| fetchedMessages.size() < FETCH_PAGE_SIZE
+				|| synchronizationDate == null
+				|| !synchronizationDate.after(since)) {
+				break;
+			}
+			since = synchronizationDate;
+		}
+
+		return new LabMessageFetchResult(true, newMessages ? NewMessagesState.NEW_MESSAGES : NewMessagesState.NO_NEW_MESSAGES, null);
+	}
+
+	/**
+	 * Adapters that don't support paging return all messages at once.
+	 */
+	private static ExternalMessageResult<List<LabMessageDto>> fetchPage(ExternalLabResultsFacade labResultsFacade, Date since) {
+
+		if (labResultsFacade instanceof PagedExternalLabResultsFacade) {
+			return ((PagedExternalLabResultsFacade) labResultsFacade).getExternalLabMessages(since, FETCH_PAGE_SIZE);
 		}
+		return labResultsFacade.getExternalLabMessages(since);
 	}
 
-	protected ExternalMessageResult<List<LabMessageDto>> fetchExternalMessages(Date since) throws NamingException {
+	/**
+	 * @return the messages of the page that have not been saved in the same version before, only the last one per uuid
+	 */
+	static List<LabMessageDto> deduplicate(List<LabMessageDto> labMessages, Map<String, Date> savedChangeDates) {
+
+		Map<String, LabMessageDto> latestByUuid = new LinkedHashMap<>();
+		for (LabMessageDto labMessage : labMessages) {
+			latestByUuid.put(labMessage.getUuid(), labMessage);
+		}
+		latestByUuid.values()
+			.removeIf(
+				labMessage -> savedChangeDates.containsKey(labMessage.getUuid())
+					&& Objects.equals(savedChangeDates.get(labMessage.getUuid()), labMessage.getChangeDate()));
+
+		return new ArrayList<>(latestByUuid.values());
+	}
+
+	private void reportFetchError(SystemEventDto currentSystemEvent, String errorMessage) {
+
+		// keep the synchronization date of the pages saved before the error
+		SystemEventDto errorEvent = currentSystemEvent.getStatus() == SystemEventStatus.SUCCESS ? initializeFetchEvent() : currentSystemEvent;
+		systemEventFacade.reportError(errorEvent, errorMessage, new Date());
+	}
+
+	protected ExternalLabResultsFacade getExternalLabResultsFacade() throws NamingException {
 		InitialContext ic = new InitialContext();
 		String jndiName = configFacade.getDemisJndiName();
 
@@ -368,8 +436,7 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 			throw new CannotProceedException(I18nProperties.getValidationError(Validations.externalMessageConfigError));
 		}
 
-		ExternalLabResultsFacade labResultsFacade = (ExternalLabResultsFacade) ic.lookup(jndiName);
-		return labResultsFacade.getExternalLabMessages(since);
+		return (ExternalLabResultsFacade) ic.lookup(jndiName);
 	}
 
 	protected SystemEventDto initializeFetchEvent() {
@@ -400,7 +467,7 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 		if (info != null) {
 			try {
 				//parse last synchronization date
-				return Long.parseLong(info.replace("Last synchronization date: ", ""));
+				return Long.parseLong(info.replace(LabMessageIngestionService.SYNCHRONIZATION_DATE_PREFIX, ""));
 			} catch (NumberFormatException e) {
 				logger.error("Synchronization date could not be parsed for the last successful lab message retrieval. Falling back to start date.");
 				return latestSuccess.getStartDate().getTime();
@@ -411,18 +478,6 @@ public class LabMessageFacadeEjb implements LabMessageFacade {
 		}
 	}
 
-	private LabMessageFetchResult getSuccessfulFetchResult(ExternalMessageResult<List<LabMessageDto>> externalMessageResult) {
-		if (isEmptyResult(externalMessageResult)) {
-			return new LabMessageFetchResult(true, NewMessagesState.NO_NEW_MESSAGES, null);
-		} else {
-			return new LabMessageFetchResult(true, NewMessagesState.NEW_MESSAGES, null);
-		}
-	}
-
-	private boolean isEmptyResult(ExternalMessageResult<List<LabMessageDto>> externalMessageResult) {
-		return externalMessageResult.getValue() == null || externalMessageResult.getValue().isEmpty();
-	}
-
 	@Override
 	public boolean exists(String uuid) {
 		return labMessageService.exists(uuid);
@@ -0,0 +1,60 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.labmessage;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import de.symeda.sormas.api.labmessage.LabMessageDto;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.backend.labmessage.LabMessageFacadeEjb.LabMessageFacadeEjbLocal;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
+
+/**
+ * Saves the fetched external lab messages page by page, each page in its own transaction.
+ */
+@Stateless
+@LocalBean
+public class LabMessageIngestionService {
+
+	static final String SYNCHRONIZATION_DATE_PREFIX = "Last synchronization date: ";
+
+	@EJB
+	private LabMessageFacadeEjbLocal labMessageFacade;
+	@EJB
+	private SystemEventFacadeEjbLocal systemEventFacade;
+
+	/**
+	 * Saves the lab messages and records the synchronization date in the fetch event in the same transaction, so the
+	 * next fetch continues after the last saved page even if a later page fails. Without a synchronization date, the one
+	 * recorded for a previous page is kept.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void saveChunk(List<LabMessageDto> labMessages, SystemEventDto fetchEvent, Date synchronizationDate) {
+
+		labMessages.forEach(labMessageFacade::save);
+		if (synchronizationDate != null) {
+			systemEventFacade.reportSuccess(fetchEvent, SYNCHRONIZATION_DATE_PREFIX + synchronizationDate.getTime(), new Date());
+		} else {
+			systemEventFacade.reportSuccess(fetchEvent, new Date());
+		}
+	}
+}
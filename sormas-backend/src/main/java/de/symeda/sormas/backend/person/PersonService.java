@@ -17,7 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.person;
 
-import static de.symeda.sormas.backend.ExtendedPostgreSQL94Dialect.SIMILARITY_OPERATOR;
+import static de.symeda.sormas.backend.ExtendedPostgreSQL95Dialect.SIMILARITY_OPERATOR;
 import static de.symeda.sormas.backend.common.CriteriaBuilderHelper.and;
 import static de.symeda.sormas.backend.common.CriteriaBuilderHelper.andEquals;
 import static de.symeda.sormas.backend.common.CriteriaBuilderHelper.andEqualsReferenceDto;
@@ -26,8 +26,10 @@ import java.sql.Timestamp;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -78,6 +80,7 @@ import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.event.EventParticipant;
 import de.symeda.sormas.backend.event.EventParticipantService;
 import de.symeda.sormas.backend.geocoding.GeocodingService;
+import de.symeda.sormas.backend.geocoding.LocationQuery;
 import de.symeda.sormas.backend.location.Location;
 import de.symeda.sormas.backend.region.Community;
 import de.symeda.sormas.backend.region.District;
@@ -582,10 +585,28 @@ public class PersonService extends AdoServiceWithUserFilter<Person> {
 	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
 	public long updateGeoLocation(List<String> personUuids, boolean overwriteExistingCoordinates) {
 
+		// persons sharing an address are geocoded with one request
+		Map<Person, LocationQuery> queries = new LinkedHashMap<>();
+		for (Person person : getByUuids(personUuids)) {
+			if (person.getAddress() != null
+				&& (overwriteExistingCoordinates || (person.getAddress().getLatitude() == null || person.getAddress().getLongitude() == null))) {
+				LocationQuery query = geocodingService.getQuery(person.getAddress());
+				if (query != null) {
+					queries.put(person, query);
+				}
+			}
+		}
+
+		Map<String, GeoLatLon> latLons = geocodingService.getLatLons(queries.values());
+
 		long updatedCount = 0;
-		List<Person> persons = getByUuids(personUuids);
-		for (Person person : persons) {
-			if (updateGeoLocation(person, overwriteExistingCoordinates)) {
+		for (Map.Entry<Person, LocationQuery> entry : queries.entrySet()) {
+			GeoLatLon latLon = latLons.get(entry.getValue().getNormalizedKey());
+			if (latLon != null) {
+				Person person = entry.getKey();
+				person.getAddress().setLatitude(latLon.getLat());
+				person.getAddress().setLongitude(latLon.getLon());
+				ensurePersisted(person);
 				updatedCount++;
 			}
 		}
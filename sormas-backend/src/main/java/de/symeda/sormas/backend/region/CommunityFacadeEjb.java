@@ -52,6 +52,7 @@ import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.utils.SortProperty;
 import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.facility.Facility;
+import de.symeda.sormas.backend.infrastructure.PopulationLookupService;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -68,6 +69,8 @@ public class CommunityFacadeEjb implements CommunityFacade {
 	private UserService userService;
 	@EJB
 	private DistrictService districtService;
+	@EJB
+	private PopulationLookupService populationLookupService;
 
 	@Override
 	public List<CommunityReferenceDto> getAllActiveByDistrict(String districtUuid) {
@@ -288,6 +291,8 @@ public class CommunityFacadeEjb implements CommunityFacade {
 		}
 		community = fillOrBuildEntity(dto, community, true);
 		communityService.ensurePersisted(community);
+		// the growth rate is used to project the population
+		populationLookupService.invalidate();
 	}
 
 	@Override
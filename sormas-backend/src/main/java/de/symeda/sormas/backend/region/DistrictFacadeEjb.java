@@ -55,6 +55,7 @@ import de.symeda.sormas.api.utils.ValidationRuntimeException;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.infrastructure.PointOfEntry;
 import de.symeda.sormas.backend.infrastructure.PopulationDataFacadeEjb.PopulationDataFacadeEjbLocal;
+import de.symeda.sormas.backend.infrastructure.PopulationLookupService;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
 import de.symeda.sormas.backend.util.ModelConstants;
@@ -73,6 +74,8 @@ public class DistrictFacadeEjb implements DistrictFacade {
 	private RegionService regionService;
 	@EJB
 	private PopulationDataFacadeEjbLocal populationDataFacade;
+	@EJB
+	private PopulationLookupService populationLookupService;
 
 	@Override
 	public List<DistrictReferenceDto> getAllActiveAsReference() {
@@ -279,6 +282,8 @@ public class DistrictFacadeEjb implements DistrictFacade {
 
 		district = fillOrBuildEntity(dto, district, true);
 		districtService.ensurePersisted(district);
+		// the growth rate is used to project the population
+		populationLookupService.invalidate();
 	}
 
 	@Override
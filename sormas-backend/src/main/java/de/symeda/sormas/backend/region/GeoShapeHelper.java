@@ -17,7 +17,9 @@ package de.symeda.sormas.backend.region;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -29,6 +31,7 @@ import org.geotools.referencing.CRS;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -39,6 +42,7 @@ import org.slf4j.LoggerFactory;
 
 import de.symeda.sormas.api.InfrastructureDataReferenceDto;
 import de.symeda.sormas.api.region.GeoLatLon;
+import de.symeda.sormas.api.region.GeoShapeSimplification;
 
 public class GeoShapeHelper {
 
@@ -151,20 +155,57 @@ public class GeoShapeHelper {
 	}
 
 	/**
-	 * Convert a polygon to an 2D array of Lat/Lon coordinates.
+	 * Convert the polygons of a geometry to an 2D array of Lat/Lon coordinates.
 	 * 
-	 * @param multiPolygon
-	 *            The polygon which Lat/Lon coordinates get extracted.
+	 * @param geometry
+	 *            The polygon or multi-polygon which Lat/Lon coordinates get extracted.
+	 * @return
+	 *         2D array of Lat/Lon coordinates of the polygons; empty polygons are left out.
+	 */
+	private static GeoLatLon[][] polygonToGeoLatLons(Geometry geometry) {
+		List<GeoLatLon[]> shape = new ArrayList<>();
+		for (int i = 0; i < geometry.getNumGeometries(); i++) {
+			Geometry part = geometry.getGeometryN(i);
+			if (part instanceof Polygon && !part.isEmpty()) {
+				Polygon polygon = (Polygon) part;
+				shape.add(Arrays.stream(polygon.getExteriorRing().getCoordinates()).map(c -> new GeoLatLon(c.y, c.x)).toArray(GeoLatLon[]::new));
+			}
+		}
+		return shape.toArray(new GeoLatLon[0][]);
+	}
+
+	/**
+	 * Simplify the geometry for the zoom level without changing its topology.
+	 * 
+	 * @param geometry
+	 *            The polygon or multi-polygon to simplify.
+	 * @param zoomLevel
+	 *            One of {@link GeoShapeSimplification#ZOOM_LEVELS}.
+	 * @return
+	 *         2D array of Lat/Lon coordinates of the simplified polygons.
+	 */
+	public static GeoLatLon[][] simplifyShape(Geometry geometry, int zoomLevel) {
+		return polygonToGeoLatLons(TopologyPreservingSimplifier.simplify(geometry, GeoShapeSimplification.getTolerance(zoomLevel)));
+	}
+
+	/**
+	 * Simplify the polygons of all regions/districts for each of the {@link GeoShapeSimplification#ZOOM_LEVELS}.
+	 * 
+	 * @param polygonStore
+	 *            The polygon cache of the EJB.
+	 * @param <T>
+	 *            Either RegionReferenceDto or DistrictReferenceDto.
 	 * @return
-	 *         2D array of Lat/Lon coordinates of the polygon.
+	 *         The simplified shapes by zoom level.
 	 */
-	private static GeoLatLon[][] polygonToGeoLatLons(MultiPolygon multiPolygon) {
-		GeoLatLon[][] shape = new GeoLatLon[multiPolygon.getNumGeometries()][];
-		for (int i = 0; i < multiPolygon.getNumGeometries(); i++) {
-			Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
-			shape[i] = Arrays.stream(polygon.getExteriorRing().getCoordinates()).map(c -> new GeoLatLon(c.y, c.x)).toArray(GeoLatLon[]::new);
+	public static <T> Map<Integer, Map<T, GeoLatLon[][]>> simplifyShapes(Map<T, MultiPolygon> polygonStore) {
+		Map<Integer, Map<T, GeoLatLon[][]>> simplifiedShapes = new HashMap<>();
+		for (int zoomLevel : GeoShapeSimplification.ZOOM_LEVELS) {
+			Map<T, GeoLatLon[][]> shapes = new HashMap<>();
+			polygonStore.forEach((infra, multiPolygon) -> shapes.put(infra, simplifyShape(multiPolygon, zoomLevel)));
+			simplifiedShapes.put(zoomLevel, shapes);
 		}
-		return shape;
+		return simplifiedShapes;
 	}
 
 	/**
@@ -0,0 +1,131 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+
+/**
+ * Finds the shape containing a coordinate without testing every shape: an STR-tree over the envelopes of the shapes
+ * yields the few candidates, which are then tested with prepared geometries. The centers of the shapes are computed
+ * once when the index is built.
+ * <p>
+ * The index is immutable and can be used by several threads.
+ */
+public class GeoShapeIndex<T> {
+
+	private final STRtree tree = new STRtree();
+	private final Map<T, GeoLatLon> centers = new HashMap<>();
+	private final GeoLatLon centerOfAll;
+
+	public GeoShapeIndex(Map<T, MultiPolygon> multiPolygons) {
+
+		double lat = 0, lon = 0;
+		for (Map.Entry<T, MultiPolygon> entry : multiPolygons.entrySet()) {
+			MultiPolygon multiPolygon = entry.getValue();
+			tree.insert(multiPolygon.getEnvelopeInternal(), new Shape<>(entry.getKey(), PreparedGeometryFactory.prepare(multiPolygon)));
+
+			Point centroid = multiPolygon.getCentroid();
+			centers.put(entry.getKey(), new GeoLatLon(centroid.getY(), centroid.getX()));
+			lon += centroid.getX();
+			lat += centroid.getY();
+		}
+		// building the tree is not thread-safe, so it is done here and not lazily by the first query
+		tree.build();
+
+		centerOfAll = multiPolygons.isEmpty() ? null : new GeoLatLon(lat / multiPolygons.size(), lon / multiPolygons.size());
+	}
+
+	public static <T> GeoShapeIndex<T> empty() {
+		return new GeoShapeIndex<>(Collections.emptyMap());
+	}
+
+	/**
+	 * @return the key of a shape containing the coordinate or {@code null} if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public T getByCoord(GeoLatLon latLon) {
+
+		Coordinate coordinate = new Coordinate(latLon.getLon(), latLon.getLat());
+		Point point = null;
+		for (Object candidate : tree.query(new Envelope(coordinate))) {
+			Shape<T> shape = (Shape<T>) candidate;
+			if (point == null) {
+				point = GeometryFactory.createPointFromInternalCoord(coordinate, shape.geometry.getGeometry());
+			}
+			if (shape.geometry.contains(point)) {
+				return shape.key;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the keys of the shapes containing the coordinates, in the same order; {@code null} for coordinates outside
+	 *         of all shapes
+	 */
+	public List<T> getByCoords(List<GeoLatLon> latLons) {
+
+		List<T> result = new ArrayList<>(latLons.size());
+		for (GeoLatLon latLon : latLons) {
+			result.add(latLon != null ? getByCoord(latLon) : null);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the centroid of the shape or {@code null} if there is no shape for the key
+	 */
+	public GeoLatLon getCenter(T key) {
+		return centers.get(key);
+	}
+
+	/**
+	 * @return the average of the centroids of all shapes or {@code null} if there are none
+	 */
+	public GeoLatLon getCenterOfAll() {
+		return centerOfAll;
+	}
+
+	public boolean isEmpty() {
+		return centers.isEmpty();
+	}
+
+	private static final class Shape<T> {
+
+		private final T key;
+		private final PreparedGeometry geometry;
+
+		private Shape(T key, PreparedGeometry geometry) {
+			this.key = key;
+			this.geometry = geometry;
+		}
+	}
+}
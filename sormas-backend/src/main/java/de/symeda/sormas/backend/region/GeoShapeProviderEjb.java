@@ -24,7 +24,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 
 import javax.annotation.PostConstruct;
@@ -38,7 +37,6 @@ import org.geotools.geometry.jts.JTSFactoryFinder;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.MultiPolygon;
-import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.TopologyException;
 import org.opengis.feature.simple.SimpleFeature;
@@ -49,6 +47,7 @@ import org.slf4j.LoggerFactory;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.GeoLatLon;
 import de.symeda.sormas.api.region.GeoShapeProvider;
+import de.symeda.sormas.api.region.GeoShapeSimplification;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.region.DistrictFacadeEjb.DistrictFacadeEjbLocal;
@@ -68,73 +67,67 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 
 	private final Map<RegionReferenceDto, MultiPolygon> regionMultiPolygons = new HashMap<>();
 	private final Map<RegionReferenceDto, GeoLatLon[][]> regionShapes = new HashMap<>();
-
-	private GeoLatLon regionsCenter;
+	private GeoShapeIndex<RegionReferenceDto> regionIndex = GeoShapeIndex.empty();
+	private Map<Integer, Map<RegionReferenceDto, GeoLatLon[][]>> simplifiedRegionShapes = Collections.emptyMap();
 
 	private final Map<DistrictReferenceDto, MultiPolygon> districtMultiPolygons = new HashMap<>();
 	private final Map<DistrictReferenceDto, GeoLatLon[][]> districtShapes = new HashMap<>();
+	private GeoShapeIndex<DistrictReferenceDto> districtIndex = GeoShapeIndex.empty();
+	private Map<Integer, Map<DistrictReferenceDto, GeoLatLon[][]>> simplifiedDistrictShapes = Collections.emptyMap();
 
 	private GeoLatLon[][] countryShape;
+	private final Map<Integer, GeoLatLon[][]> simplifiedCountryShapes = new HashMap<>();
 
 	@Override
 	public GeoLatLon[][] getRegionShape(RegionReferenceDto region) {
 		return regionShapes.get(region);
 	}
 
+	@Override
+	public GeoLatLon[][] getRegionShape(RegionReferenceDto region, int zoom) {
+		return getShape(regionShapes, simplifiedRegionShapes, region, zoom);
+	}
+
 	@Override
 	public GeoLatLon[][] getCountryShape() {
 		return countryShape;
 	}
 
 	@Override
-	public RegionReferenceDto getRegionByCoord(GeoLatLon latLon) {
+	public GeoLatLon[][] getCountryShape(int zoom) {
+		return simplifiedCountryShapes.getOrDefault(GeoShapeSimplification.getZoomLevel(zoom), countryShape);
+	}
 
-		for (Entry<RegionReferenceDto, MultiPolygon> regionMultiPolygon : regionMultiPolygons.entrySet()) {
-			if (regionMultiPolygon.getValue()
-				.contains(
-					GeometryFactory.createPointFromInternalCoord(new Coordinate(latLon.getLon(), latLon.getLat()), regionMultiPolygon.getValue()))) {
-				return regionMultiPolygon.getKey();
-			}
-		}
-		return null;
+	private static <T> GeoLatLon[][] getShape(
+		Map<T, GeoLatLon[][]> shapes,
+		Map<Integer, Map<T, GeoLatLon[][]>> simplifiedShapes,
+		T infrastructure,
+		int zoom) {
+
+		Map<T, GeoLatLon[][]> zoomLevelShapes = simplifiedShapes.get(GeoShapeSimplification.getZoomLevel(zoom));
+		return zoomLevelShapes != null ? zoomLevelShapes.get(infrastructure) : shapes.get(infrastructure);
 	}
 
 	@Override
-	public GeoLatLon getCenterOfAllRegions() {
-		return regionsCenter;
+	public RegionReferenceDto getRegionByCoord(GeoLatLon latLon) {
+		return regionIndex.getByCoord(latLon);
 	}
 
-	protected void updateCenterOfAllRegions() {
-		if (regionMultiPolygons.isEmpty()) {
-			regionsCenter = null;
-
-		} else {
-
-			double lat = 0, lon = 0;
-			int count = 0;
-			for (MultiPolygon polygon : regionMultiPolygons.values()) {
-				lon += polygon.getCentroid().getX();
-				lat += polygon.getCentroid().getY();
-				count++;
-			}
+	@Override
+	public List<RegionReferenceDto> getRegionsByCoords(List<GeoLatLon> latLons) {
+		return regionIndex.getByCoords(latLons);
+	}
 
-			if (count > 0) {
-				regionsCenter = new GeoLatLon(lat / count, lon / count);
-			} else {
-				regionsCenter = null;
-			}
-		}
+	@Override
+	public GeoLatLon getCenterOfAllRegions() {
+		return regionIndex.getCenterOfAll();
 	}
 
 	@Override
 	public GeoLatLon getCenterOfRegion(RegionReferenceDto region) {
 
-		if (regionMultiPolygons.isEmpty() || !regionMultiPolygons.containsKey(region)) {
-			return getCenterOfAllRegions();
-		}
-
-		Point polygonCenter = regionMultiPolygons.get(region).getCentroid();
-		return new GeoLatLon(polygonCenter.getY(), polygonCenter.getX());
+		GeoLatLon center = regionIndex.getCenter(region);
+		return center != null ? center : getCenterOfAllRegions();
 	}
 
 	@Override
@@ -142,29 +135,26 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 		return districtShapes.get(district);
 	}
 
+	@Override
+	public GeoLatLon[][] getDistrictShape(DistrictReferenceDto district, int zoom) {
+		return getShape(districtShapes, simplifiedDistrictShapes, district, zoom);
+	}
+
 	@Override
 	public DistrictReferenceDto getDistrictByCoord(GeoLatLon latLon) {
+		return districtIndex.getByCoord(latLon);
+	}
 
-		for (Entry<DistrictReferenceDto, MultiPolygon> districtMultiPolygon : districtMultiPolygons.entrySet()) {
-			if (districtMultiPolygon.getValue()
-				.contains(
-					GeometryFactory
-						.createPointFromInternalCoord(new Coordinate(latLon.getLon(), latLon.getLat()), districtMultiPolygon.getValue()))) {
-				return districtMultiPolygon.getKey();
-			}
-		}
-		return null;
+	@Override
+	public List<DistrictReferenceDto> getDistrictsByCoords(List<GeoLatLon> latLons) {
+		return districtIndex.getByCoords(latLons);
 	}
 
 	@Override
 	public GeoLatLon getCenterOfDistrict(DistrictReferenceDto district) {
 
-		if (districtMultiPolygons.isEmpty() || !districtMultiPolygons.containsKey(district)) {
-			return getCenterOfAllRegions();
-		}
-
-		Point polygonCenter = districtMultiPolygons.get(district).getCentroid();
-		return new GeoLatLon(polygonCenter.getY(), polygonCenter.getX());
+		GeoLatLon center = districtIndex.getCenter(district);
+		return center != null ? center : getCenterOfAllRegions();
 	}
 
 	@PostConstruct
@@ -234,7 +224,8 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 			throw new RuntimeException(e);
 		}
 
-		updateCenterOfAllRegions();
+		regionIndex = new GeoShapeIndex<>(regionMultiPolygons);
+		simplifiedRegionShapes = GeoShapeHelper.simplifyShapes(regionMultiPolygons);
 	}
 
 	private void loadDistrictData(String countryName, String wkt) {
@@ -323,6 +314,9 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
+
+		districtIndex = new GeoShapeIndex<>(districtMultiPolygons);
+		simplifiedDistrictShapes = GeoShapeHelper.simplifyShapes(districtMultiPolygons);
 	}
 
 	private void buildCountryShape() {
@@ -388,6 +382,12 @@ public class GeoShapeProviderEjb implements GeoShapeProvider {
 					.map(coordinate -> new GeoLatLon(coordinate.y, coordinate.x))
 					.toArray(GeoLatLon[]::new))
 			.toArray(GeoLatLon[][]::new);
+
+		simplifiedCountryShapes.clear();
+		MultiPolygon countryPolygon = factory.createMultiPolygon(polygons.toArray(new Polygon[0]));
+		for (int zoomLevel : GeoShapeSimplification.ZOOM_LEVELS) {
+			simplifiedCountryShapes.put(zoomLevel, GeoShapeHelper.simplifyShape(countryPolygon, zoomLevel));
+		}
 	}
 
 	/**
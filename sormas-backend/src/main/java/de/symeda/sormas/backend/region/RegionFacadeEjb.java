@@ -55,6 +55,7 @@ import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.facility.Facility;
 import de.symeda.sormas.backend.infrastructure.PointOfEntry;
 import de.symeda.sormas.backend.infrastructure.PopulationDataFacadeEjb.PopulationDataFacadeEjbLocal;
+import de.symeda.sormas.backend.infrastructure.PopulationLookupService;
 import de.symeda.sormas.backend.region.CountryFacadeEjb.CountryFacadeEjbLocal;
 import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.DtoHelper;
@@ -73,6 +74,8 @@ public class RegionFacadeEjb implements RegionFacade {
 	@EJB
 	private PopulationDataFacadeEjbLocal populationDataFacade;
 	@EJB
+	private PopulationLookupService populationLookupService;
+	@EJB
 	private AreaService areaService;
 	@EJB
 	private CountryService countryService;
@@ -357,6 +360,8 @@ public class RegionFacadeEjb implements RegionFacade {
 
 		region = fillOrBuildEntity(dto, region, true);
 		regionService.ensurePersisted(region);
+		// the growth rate is used to project the population
+		populationLookupService.invalidate();
 	}
 
 	@Override
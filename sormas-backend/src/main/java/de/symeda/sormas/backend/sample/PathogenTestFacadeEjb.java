@@ -37,9 +37,6 @@ import javax.persistence.criteria.Root;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Validations;
@@ -56,7 +53,6 @@ import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseFacadeEjb.CaseFacadeEjbLocal;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.event.EventParticipant;
 import de.symeda.sormas.backend.facility.FacilityFacadeEjb;
@@ -74,8 +70,6 @@ import de.symeda.sormas.backend.util.Pseudonymizer;
 @Stateless(name = "PathogenTestFacade")
 public class PathogenTestFacadeEjb implements PathogenTestFacade {
 
-	private final Logger logger = LoggerFactory.getLogger(getClass());
-
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
@@ -473,51 +467,35 @@ public class PathogenTestFacadeEjb implements PathogenTestFacade {
 		String shortUuid) {
 		if (existingPathogenTest == null && newPathogenTest.getTestResult() != PathogenTestResultType.PENDING) {
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.LAB_RESULT_ARRIVED,
-						String.format(
-							I18nProperties.getString(contentLabResultArrived),
-							newPathogenTest.getTestResult().toString(),
-							disease,
-							shortUuid,
-							newPathogenTest.getTestType(),
-							newPathogenTest.getTestedDisease()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify supervisors " + "about the arrival of a lab result. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.LAB_RESULT_ARRIVED,
+					String.format(
+						I18nProperties.getString(contentLabResultArrived),
+						newPathogenTest.getTestResult().toString(),
+						disease,
+						shortUuid,
+						newPathogenTest.getTestType(),
+						newPathogenTest.getTestedDisease()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		} else if (existingPathogenTest != null
 			&& existingPathogenTest.getTestResult() == PathogenTestResultType.PENDING
 			&& newPathogenTest.getTestResult() != PathogenTestResultType.PENDING) {
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.LAB_RESULT_SPECIFIED,
-						String.format(
-							I18nProperties.getString(contentLabResultSpecified),
-							disease,
-							shortUuid,
-							newPathogenTest.getTestResult().toString(),
-							newPathogenTest.getTestType(),
-							newPathogenTest.getTestedDisease()),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify supervisors " + "about the specification of a lab result. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.LAB_RESULT_SPECIFIED,
+					String.format(
+						I18nProperties.getString(contentLabResultSpecified),
+						disease,
+						shortUuid,
+						newPathogenTest.getTestResult().toString(),
+						newPathogenTest.getTestType(),
+						newPathogenTest.getTestedDisease()),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 	}
@@ -19,8 +19,11 @@ package de.symeda.sormas.backend.sample;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -30,9 +33,11 @@ import javax.ejb.TransactionAttributeType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Fetch;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -147,6 +152,35 @@ public class PathogenTestService extends AbstractCoreAdoService<PathogenTest> {
 		return em.createQuery(cq).getResultList();
 	}
 
+	/**
+	 * @return The pathogen tests of the cases, mapped by the case id and ordered by test date descending.
+	 */
+	public Map<Long, List<PathogenTest>> getAllByCaseIds(List<Long> caseIds) {
+
+		Map<Long, List<PathogenTest>> pathogenTestsByCaseId = new HashMap<>();
+		if (caseIds.isEmpty()) {
+			return pathogenTestsByCaseId;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<PathogenTest> from = cq.from(getElementClass());
+
+		Fetch<PathogenTest, Sample> sampleFetch = from.fetch(PathogenTest.SAMPLE);
+		Join<PathogenTest, Sample> sampleJoin = (Join<PathogenTest, Sample>) sampleFetch;
+		Path<Long> caseId = sampleJoin.get(Sample.ASSOCIATED_CASE).get(Case.ID);
+
+		cq.multiselect(caseId, from);
+		cq.where(cb.and(createDefaultFilter(cb, from), caseId.in(caseIds)));
+		cq.orderBy(cb.desc(from.get(PathogenTest.TEST_DATE_TIME)));
+
+		for (Object[] result : em.createQuery(cq).getResultList()) {
+			pathogenTestsByCaseId.computeIfAbsent((Long) result[0], k -> new ArrayList<>()).add((PathogenTest) result[1]);
+		}
+
+		return pathogenTestsByCaseId;
+	}
+
 	public Long countByCase(Case caze) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
@@ -85,7 +85,6 @@ import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactJoins;
@@ -1073,30 +1072,22 @@ public class SampleFacadeEjb implements SampleFacade {
 			List<User> messageRecipients = userService.getLabUsersOfLab(newSample.getLab());
 
 			for (User recipient : messageRecipients) {
-				try {
-					String messageContent = null;
-					if (newSample.getAssociatedCase() != null) {
-						messageContent = String.format(
-							I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT),
-							DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid()));
-					} else if (newSample.getAssociatedContact() != null) {
-						messageContent = String.format(
-							I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_CONTACT),
-							DataHelper.getShortUuid(newSample.getAssociatedContact().getUuid()));
-					} else if (newSample.getAssociatedEventParticipant() != null) {
-						messageContent = String.format(
-							I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_EVENT_PARTICIPANT),
-							DataHelper.getShortUuid(newSample.getAssociatedEventParticipant().getUuid()));
-					}
-					messagingService.sendMessage(recipient, MessageSubject.LAB_SAMPLE_SHIPPED, messageContent, MessageType.EMAIL, MessageType.SMS);
-
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify supervisors about " + "the shipment of a lab sample. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
+				String messageContent = null;
+				if (newSample.getAssociatedCase() != null) {
+					messageContent = String.format(
+						I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT),
+						DataHelper.getShortUuid(newSample.getAssociatedCase().getUuid()));
+				} else if (newSample.getAssociatedContact() != null) {
+					messageContent = String.format(
+						I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_CONTACT),
+						DataHelper.getShortUuid(newSample.getAssociatedContact().getUuid()));
+				} else if (newSample.getAssociatedEventParticipant() != null) {
+					messageContent = String.format(
+						I18nProperties.getString(MessagingService.CONTENT_LAB_SAMPLE_SHIPPED_SHORT_FOR_EVENT_PARTICIPANT),
+						DataHelper.getShortUuid(newSample.getAssociatedEventParticipant().getUuid()));
 				}
+				messagingService.sendMessage(recipient, MessageSubject.LAB_SAMPLE_SHIPPED, messageContent, MessageType.EMAIL, MessageType.SMS);
+
 			}
 		}
 	}
@@ -40,7 +40,7 @@ import de.symeda.sormas.api.share.ExternalShareCriteria;
 import de.symeda.sormas.api.share.ExternalShareInfoCriteria;
 import de.symeda.sormas.api.share.ExternalShareStatus;
 import de.symeda.sormas.api.utils.DataHelper;
-import de.symeda.sormas.backend.ExtendedPostgreSQL94Dialect;
+import de.symeda.sormas.backend.ExtendedPostgreSQL95Dialect;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
 import de.symeda.sormas.backend.common.AdoServiceWithUserFilter;
@@ -135,7 +135,7 @@ public class ExternalShareInfoService extends AdoServiceWithUserFilter<ExternalS
 		Path<Object> latestShareInfoAssociatedObject = latestShareInfoRoot.get(associatedObjectName);
 		latestShareInfoSubQuery.select(
 			cb.function(
-				ExtendedPostgreSQL94Dialect.CONCAT_FUNCTION,
+				ExtendedPostgreSQL95Dialect.CONCAT_FUNCTION,
 				String.class,
 				latestShareInfoAssociatedObject.get(AbstractDomainObject.ID),
 				cb.max(latestShareInfoRoot.get(ExternalShareInfo.CREATION_DATE))));
@@ -151,7 +151,7 @@ public class ExternalShareInfoService extends AdoServiceWithUserFilter<ExternalS
 
 		cq.multiselect(associatedObjectUuid, countSubQuery, creationDate, root.get(ExternalShareInfo.STATUS));
 		cq.where(
-			cb.function(ExtendedPostgreSQL94Dialect.CONCAT_FUNCTION, String.class, associatedObjectId, creationDate).in(latestShareInfoSubQuery),
+			cb.function(ExtendedPostgreSQL95Dialect.CONCAT_FUNCTION, String.class, associatedObjectId, creationDate).in(latestShareInfoSubQuery),
 			associatedObjectId.in(ids));
 
 		return em.createQuery(cq).getResultList();
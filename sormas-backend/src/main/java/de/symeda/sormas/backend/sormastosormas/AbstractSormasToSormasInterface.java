@@ -32,6 +32,7 @@ import javax.ejb.EJB;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 
+import org.apache.commons.collections4.ListUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,6 +70,8 @@ public abstract class AbstractSormasToSormasInterface<ADO extends AbstractDomain
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSormasToSormasInterface.class);
 
+	static final int SHARE_CHUNK_SIZE = 100;
+
 	@EJB
 	private UserService userService;
 	@Inject
@@ -262,18 +265,22 @@ public abstract class AbstractSormasToSormasInterface<ADO extends AbstractDomain
 
 		validateEntitiesBeforeShare(entities, options.isHandOverOwnership());
 
-		List<S> entitiesToSend = new ArrayList<>();
-		List<AssociatedEntityWrapper<?>> associatedEntities = new ArrayList<>();
-		for (ADO entity : entities) {
-			ShareData<ADO, S> shareData = getShareDataBuilder().buildShareData(entity, currentUser, options);
+		// large shares are sent in chunks, each of which is saved by the receiver and recorded here on its own,
+		// so a failure only requires the remaining chunks to be shared again
+		for (List<ADO> chunk : ListUtils.partition(entities, SHARE_CHUNK_SIZE)) {
+			List<S> entitiesToSend = new ArrayList<>();
+			List<AssociatedEntityWrapper<?>> associatedEntities = new ArrayList<>();
+			for (ADO entity : chunk) {
+				ShareData<ADO, S> shareData = getShareDataBuilder().buildShareData(entity, currentUser, options);
 
-			entitiesToSend.add(shareData.getDto());
+				entitiesToSend.add(shareData.getDto());
 
-			associatedEntities.addAll(shareData.getAssociatedEntities());
-		}
+				associatedEntities.addAll(shareData.getAssociatedEntities());
+			}
 
-		sormasToSormasRestClient.post(options.getOrganization().getUuid(), saveEndpoint, entitiesToSend, null);
-		saveNewShareInfo(currentUser.toReference(), options, DataHelper.createUuid(), ShareRequestStatus.ACCEPTED, entities, associatedEntities);
+			sormasToSormasRestClient.post(options.getOrganization().getUuid(), saveEndpoint, entitiesToSend, null);
+			saveNewShareInfo(currentUser.toReference(), options, DataHelper.createUuid(), ShareRequestStatus.ACCEPTED, chunk, associatedEntities);
+		}
 	}
 
 	@Override
@@ -10,6 +10,10 @@ public class OrganizationServerAccessData {
 	private String name;
 	private String hostName;
 	private String restUserPassword;
+	/**
+	 * Whether the server accepts gzip compressed payloads; servers of older versions don't.
+	 */
+	private boolean compressionSupported;
 
 	public OrganizationServerAccessData() {
 	}
@@ -51,6 +55,14 @@ public class OrganizationServerAccessData {
 		this.restUserPassword = restUserPassword;
 	}
 
+	public boolean isCompressionSupported() {
+		return compressionSupported;
+	}
+
+	public void setCompressionSupported(boolean compressionSupported) {
+		this.compressionSupported = compressionSupported;
+	}
+
 	public ServerAccessDataReferenceDto toReference() {
 		return new ServerAccessDataReferenceDto(id, name);
 	}
@@ -65,7 +77,8 @@ public class OrganizationServerAccessData {
 		return Objects.equals(id, that.id)
 			&& Objects.equals(hostName, that.hostName)
 			&& Objects.equals(name, that.name)
-			&& Objects.equals(restUserPassword, that.restUserPassword);
+			&& Objects.equals(restUserPassword, that.restUserPassword)
+			&& compressionSupported == that.compressionSupported;
 	}
 
 	@Override
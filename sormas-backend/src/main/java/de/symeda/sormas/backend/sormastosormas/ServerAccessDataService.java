@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +47,11 @@ public class ServerAccessDataService {
 
 	private static final String ORGANIZATION_LIST_FILE_NAME = "organization-list.csv";
 
+	/**
+	 * Listed in the optional fifth column of the server access data by servers that accept gzip compressed payloads
+	 */
+	static final String CAPABILITY_GZIP = "gzip";
+
 	@Inject
 	private SormasToSormasConfig sormasToSormasConfig;
 
@@ -117,6 +123,9 @@ public class ServerAccessDataService {
 		if (row[3] != null) {
 			dto.setRestUserPassword(row[3]);
 		}
+		if (row.length > 4 && row[4] != null) {
+			dto.setCompressionSupported(Arrays.asList(StringUtils.split(row[4])).contains(CAPABILITY_GZIP));
+		}
 
 		return dto;
 	}
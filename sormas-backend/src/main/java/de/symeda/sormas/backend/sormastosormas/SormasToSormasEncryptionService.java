@@ -15,39 +15,37 @@
 package de.symeda.sormas.backend.sormastosormas;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.PrivateKey;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
-import javax.inject.Inject;
 
-import org.bouncycastle.cms.CMSException;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Lists;
 
-import de.symeda.sormas.api.SormasToSormasConfig;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.api.sormastosormas.SormasToSormasEncryptedDataDto;
 import de.symeda.sormas.api.sormastosormas.SormasToSormasException;
 import de.symeda.sormas.backend.crypt.CmsCreator;
+import de.symeda.sormas.backend.crypt.CmsIdentity;
+import de.symeda.sormas.backend.crypt.CmsPartner;
 import de.symeda.sormas.backend.crypt.CmsReader;
+import de.symeda.sormas.backend.sormastosormas.SormasToSormasKeyMaterialCache.KeyMaterial;
 
 @Stateless
 @LocalBean
@@ -55,10 +53,10 @@ public class SormasToSormasEncryptionService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SormasToSormasEncryptionService.class);
 
-	@Inject
-	protected SormasToSormasConfig sormasToSormasConfig;
 	@EJB
 	protected ServerAccessDataService serverAccessDataService;
+	@EJB
+	private SormasToSormasKeyMaterialCache keyMaterialCache;
 
 	private final ObjectMapper objectMapper;
 
@@ -66,55 +64,9 @@ public class SormasToSormasEncryptionService {
 		objectMapper = new ObjectMapper();
 		objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
 		objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-	}
-
-	private KeyStore getKeystore() throws CertificateException, KeyStoreException, IOException, NoSuchAlgorithmException {
-		return loadStore(sormasToSormasConfig.getKeystoreName(), sormasToSormasConfig.getKeystorePass());
-	}
-
-	private KeyStore getTruststore() throws CertificateException, KeyStoreException, IOException, NoSuchAlgorithmException {
-		return loadStore(sormasToSormasConfig.getTruststoreName(), sormasToSormasConfig.getTruststorePass());
-	}
-
-	private KeyStore loadStore(String name, String password) throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
-		String filePath = sormasToSormasConfig.getPath();
-		Path storePath = Paths.get(filePath, name);
-		KeyStore store = KeyStore.getInstance("pkcs12");
-		try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(storePath))) {
-			store.load(in, password.toCharArray());
-		}
-
-		return store;
-	}
-
-	private enum Mode {
-		ENCRYPTION,
-		DECRYPTION
-	}
-
-	private byte[] cipher(Mode mode, byte[] data, String otherId)
-		throws SormasToSormasException, CMSException, CertificateException, KeyStoreException, IOException, NoSuchAlgorithmException,
-		UnrecoverableKeyException {
-		String ownId = getOrganizationId();
-		KeyStore keystore = getKeystore();
-		KeyStore truststore = getTruststore();
-		X509Certificate ownCert = (X509Certificate) keystore.getCertificate(ownId);
-		// todo private key should have own password
-		PrivateKey ownKey = (PrivateKey) keystore.getKey(ownId, sormasToSormasConfig.getKeystorePass().toCharArray());
-		X509Certificate otherCert = (X509Certificate) truststore.getCertificate(otherId);
-
-		if (otherCert == null) {
-			throw new SormasToSormasException(String.format("No certificate for id %s could be found", otherId));
-		}
-
-		switch (mode) {
-		case ENCRYPTION:
-			return CmsCreator.signAndEncrypt(data, ownCert, ownKey, otherCert, true);
-		case DECRYPTION:
-			return CmsReader.decryptAndVerify(data, Lists.newArrayList(otherCert), ownCert, ownKey);
-		default:
-			throw new IllegalArgumentException("Unknown mode " + mode);
-		}
+		// the streams are closed by the service, the CMS stream must not be closed before the compression is finished
+		objectMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		objectMapper.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
 	}
 
 	public SormasToSormasEncryptedDataDto signAndEncrypt(Object entities, String recipientId) throws SormasToSormasException {
@@ -122,8 +74,25 @@ public class SormasToSormasEncryptionService {
 			OrganizationServerAccessData serverAccessData = serverAccessDataService.getServerAccessData()
 				.orElseThrow(() -> new SormasToSormasException(I18nProperties.getString(Strings.errorSormasToSormasServerAccess)));
 
-			byte[] encryptedData = cipher(Mode.ENCRYPTION, objectMapper.writeValueAsBytes(entities), recipientId);
-			return new SormasToSormasEncryptedDataDto(serverAccessData.getId(), encryptedData);
+			long start = System.nanoTime();
+			KeyMaterial keyMaterial = keyMaterialCache.getKeyMaterial(serverAccessData.getId());
+			CmsIdentity ownIdentity = getOwnIdentity(keyMaterial);
+			CmsPartner recipient = getPartner(keyMaterial, recipientId);
+
+			// servers of older versions can't read compressed payloads
+			boolean compress = serverAccessDataService.getServerListItemById(recipientId)
+				.map(OrganizationServerAccessData::isCompressionSupported)
+				.orElse(false);
+
+			// the entities are serialized, compressed and encrypted in one pass, so only the encrypted data is kept in memory
+			ByteArrayOutputStream encryptedData = new ByteArrayOutputStream();
+			OutputStream signAndEncrypt = CmsCreator.openSignAndEncrypt(encryptedData, ownIdentity, recipient);
+			try (OutputStream out = compress ? new GZIPOutputStream(signAndEncrypt) : signAndEncrypt) {
+				objectMapper.writeValue(out, entities);
+			}
+			keyMaterialCache.recordEncryption(start);
+
+			return new SormasToSormasEncryptedDataDto(serverAccessData.getId(), encryptedData.toByteArray());
 		} catch (Exception e) {
 			LOGGER.error("Could not sign and encrypt data", e);
 			throw new SormasToSormasException(I18nProperties.getString(Strings.errorSormasToSormasEncrypt));
@@ -132,14 +101,60 @@ public class SormasToSormasEncryptionService {
 
 	public <T> T decryptAndVerify(SormasToSormasEncryptedDataDto encryptedData, Class<T> dataType) throws SormasToSormasException {
 		try {
-			byte[] decryptedData = cipher(Mode.DECRYPTION, encryptedData.getData(), encryptedData.getOrganizationId());
-			return objectMapper.readValue(decryptedData, dataType);
+			long start = System.nanoTime();
+			KeyMaterial keyMaterial = keyMaterialCache.getKeyMaterial(getOrganizationId());
+			CmsIdentity ownIdentity = getOwnIdentity(keyMaterial);
+			CmsPartner sender = getPartner(keyMaterial, encryptedData.getOrganizationId());
+
+			// the payload is only decompressed and parsed once the signature has been verified, so unverified data
+			// can't be used to exhaust the memory; compressed, it is not larger than the encrypted data
+			byte[] payload = CmsReader.decryptAndVerify(new ByteArrayInputStream(encryptedData.getData()), sender, ownIdentity, IOUtils::toByteArray);
+			T data = objectMapper.readValue(decompressIfNeeded(new ByteArrayInputStream(payload)), dataType);
+			keyMaterialCache.recordDecryption(start);
+
+			return data;
 		} catch (Exception e) {
 			LOGGER.error("Could not decrypt and verify data", e);
 			throw new SormasToSormasException(I18nProperties.getString(Strings.errorSormasToSormasDecrypt));
 		}
 	}
 
+	/**
+	 * Servers of older versions send the JSON uncompressed, so the payload is only decompressed if it starts with the
+	 * gzip header.
+	 */
+	static InputStream decompressIfNeeded(InputStream payload) throws IOException {
+
+		InputStream in = new BufferedInputStream(payload);
+		in.mark(2);
+		int first = in.read();
+		int second = in.read();
+		in.reset();
+
+		if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+			return new GZIPInputStream(in);
+		}
+		return in;
+	}
+
+	private static CmsIdentity getOwnIdentity(KeyMaterial keyMaterial) throws SormasToSormasException {
+
+		CmsIdentity ownIdentity = keyMaterial.getIdentity();
+		if (ownIdentity == null) {
+			throw new SormasToSormasException("No own certificate and private key could be found");
+		}
+		return ownIdentity;
+	}
+
+	private static CmsPartner getPartner(KeyMaterial keyMaterial, String otherId) throws SormasToSormasException {
+
+		CmsPartner other = keyMaterial.getPartner(otherId);
+		if (other == null) {
+			throw new SormasToSormasException(String.format("No certificate for id %s could be found", otherId));
+		}
+		return other;
+	}
+
 	private String getOrganizationId() throws SormasToSormasException {
 		return serverAccessDataService.getServerAccessData()
 			.orElseThrow(() -> new SormasToSormasException(I18nProperties.getString(Strings.errorSormasToSormasCertNotGenerated)))
@@ -0,0 +1,222 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.sormastosormas;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.symeda.sormas.api.SormasToSormasConfig;
+import de.symeda.sormas.backend.crypt.CmsIdentity;
+import de.symeda.sormas.backend.crypt.CmsPartner;
+import de.symeda.sormas.backend.util.ValueStatistics;
+
+/**
+ * Keeps the parsed key store and trust store of the sormas to sormas communication, so they are not loaded for every
+ * message:
+ * <ul>
+ * <li>The own certificate and private key are prepared as a {@link CmsIdentity}, the certificates of the trust store
+ * as {@link CmsPartner}s, which are built when an organization is first needed.</li>
+ * <li>The stores are loaded again when one of the files or the configuration changes.</li>
+ * <li>The durations of loading the stores, encrypting and decrypting are counted and logged.</li>
+ * </ul>
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SormasToSormasKeyMaterialCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SormasToSormasKeyMaterialCache.class);
+
+	@Inject
+	protected SormasToSormasConfig sormasToSormasConfig;
+
+	private volatile KeyMaterial keyMaterial;
+
+	private final ValueStatistics loads = new ValueStatistics("ms");
+	private final ValueStatistics encryptions = new ValueStatistics("ms");
+	private final ValueStatistics decryptions = new ValueStatistics("ms");
+
+	/**
+	 * @return the key material of the organization, loaded again if the stores have changed since they were loaded
+	 */
+	public KeyMaterial getKeyMaterial(String ownId) throws IOException, GeneralSecurityException {
+
+		StoreFile keystoreFile = new StoreFile(
+			Paths.get(sormasToSormasConfig.getPath(), sormasToSormasConfig.getKeystoreName()),
+			sormasToSormasConfig.getKeystorePass());
+		StoreFile truststoreFile = new StoreFile(
+			Paths.get(sormasToSormasConfig.getPath(), sormasToSormasConfig.getTruststoreName()),
+			sormasToSormasConfig.getTruststorePass());
+
+		KeyMaterial current = keyMaterial;
+		if (current == null || !current.isLoadedFrom(ownId, keystoreFile, truststoreFile)) {
+			long start = System.nanoTime();
+			current = new KeyMaterial(ownId, keystoreFile, truststoreFile);
+			long millis = record(loads, start);
+			LOGGER.info("Loaded sormas to sormas key material for {} in {} ms, loads since startup: {}", ownId, millis, loads);
+			keyMaterial = current;
+		}
+
+		return current;
+	}
+
+	public void recordEncryption(long startNanos) {
+
+		long millis = record(encryptions, startNanos);
+		LOGGER.debug("Signed and encrypted sormas to sormas data in {} ms, encryptions since startup: {}", millis, encryptions);
+	}
+
+	public void recordDecryption(long startNanos) {
+
+		long millis = record(decryptions, startNanos);
+		LOGGER.debug("Decrypted and verified sormas to sormas data in {} ms, decryptions since startup: {}", millis, decryptions);
+	}
+
+	private static long record(ValueStatistics statistics, long startNanos) {
+
+		long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+		statistics.record(millis);
+		return millis;
+	}
+
+	/**
+	 * The parsed key material of one organization. The certificates of the other organizations are prepared when first
+	 * used.
+	 */
+	public static final class KeyMaterial {
+
+		private final String ownId;
+		private final StoreFile keystoreFile;
+		private final StoreFile truststoreFile;
+		private final CmsIdentity identity;
+		private final Map<String, X509Certificate> trustedCertificates;
+		private final Map<String, CmsPartner> partners = new ConcurrentHashMap<>();
+
+		private KeyMaterial(String ownId, StoreFile keystoreFile, StoreFile truststoreFile) throws IOException, GeneralSecurityException {
+
+			this.ownId = ownId;
+			this.keystoreFile = keystoreFile;
+			this.truststoreFile = truststoreFile;
+
+			KeyStore keystore = keystoreFile.load();
+			X509Certificate ownCert = (X509Certificate) keystore.getCertificate(ownId);
+			// todo private key should have own password
+			PrivateKey ownKey = (PrivateKey) keystore.getKey(ownId, keystoreFile.password.toCharArray());
+			identity = ownCert != null && ownKey != null ? new CmsIdentity(ownCert, ownKey) : null;
+
+			KeyStore truststore = truststoreFile.load();
+			Map<String, X509Certificate> certificates = new HashMap<>();
+			for (Enumeration<String> aliases = truststore.aliases(); aliases.hasMoreElements();) {
+				String alias = aliases.nextElement();
+				Certificate certificate = truststore.getCertificate(alias);
+				if (certificate instanceof X509Certificate) {
+					certificates.put(alias, (X509Certificate) certificate);
+				}
+			}
+			trustedCertificates = Collections.unmodifiableMap(certificates);
+		}
+
+		private boolean isLoadedFrom(String ownId, StoreFile keystoreFile, StoreFile truststoreFile) {
+			return this.ownId.equals(ownId) && this.keystoreFile.equals(keystoreFile) && this.truststoreFile.equals(truststoreFile);
+		}
+
+		/**
+		 * @return the own certificate and private key or {@code null} if they are not in the key store
+		 */
+		public CmsIdentity getIdentity() {
+			return identity;
+		}
+
+		/**
+		 * @return the certificate of the organization or {@code null} if it is not in the trust store
+		 */
+		public CmsPartner getPartner(String organizationId) {
+
+			X509Certificate certificate = trustedCertificates.get(organizationId);
+			return certificate != null ? partners.computeIfAbsent(organizationId, id -> new CmsPartner(certificate)) : null;
+		}
+	}
+
+	/**
+	 * A store file in the version it had when it was looked at; a change of the file or of the password makes it a
+	 * different one.
+	 */
+	private static final class StoreFile {
+
+		private final Path path;
+		private final String password;
+		private final long lastModified;
+		private final long size;
+
+		private StoreFile(Path path, String password) throws IOException {
+
+			this.path = path;
+			this.password = password;
+			this.lastModified = Files.getLastModifiedTime(path).toMillis();
+			this.size = Files.size(path);
+		}
+
+		private KeyStore load() throws IOException, GeneralSecurityException {
+
+			KeyStore store = KeyStore.getInstance("pkcs12");
+			try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+				store.load(in, password.toCharArray());
+			}
+			return store;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			StoreFile that = (StoreFile) o;
+			return lastModified == that.lastModified && size == that.size && path.equals(that.path) && Objects.equals(password, that.password);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(path, lastModified, size);
+		}
+	}
+}
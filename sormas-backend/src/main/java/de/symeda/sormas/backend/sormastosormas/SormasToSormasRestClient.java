@@ -30,6 +30,7 @@ import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.ResponseProcessingException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -37,7 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.symeda.sormas.api.i18n.I18nProperties;
@@ -66,6 +67,8 @@ public class SormasToSormasRestClient {
 		mapper = new ObjectMapper();
 		mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
 		mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+		// the request stream is owned by the http client
+		mapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 	}
 
 	public <T> T post(String receiverId, String endpoint, Object body, Class<T> responseType) throws SormasToSormasException {
@@ -99,7 +102,9 @@ public class SormasToSormasRestClient {
 	private <T> T sendRequest(String receiverId, String endpoint, Object body, Class<T> responseType, String method) throws SormasToSormasException {
 		try {
 			SormasToSormasEncryptedDataDto encryptedBody = encryptionService.signAndEncrypt(body, receiverId);
-			Entity<String> entity = Entity.entity(mapper.writeValueAsString(encryptedBody), MediaType.APPLICATION_JSON_TYPE);
+			// the body is written directly to the connection instead of being copied into a string first
+			Entity<StreamingOutput> entity =
+				Entity.entity((StreamingOutput) out -> mapper.writeValue(out, encryptedBody), MediaType.APPLICATION_JSON_TYPE);
 			Invocation.Builder invocation = buildRestClient(receiverId, endpoint);
 
 			Response response;
@@ -114,9 +119,6 @@ public class SormasToSormasRestClient {
 				throw new SormasToSormasException("Invalid HTTP verb used");
 			}
 			return handleResponse(response, responseType);
-		} catch (JsonProcessingException e) {
-			LOGGER.error("Unable to send data sormas", e);
-			throw new SormasToSormasException(I18nProperties.getString(Strings.errorSormasToSormasSend));
 		} catch (ResponseProcessingException e) {
 			LOGGER.error("Unable to process sormas response", e);
 			throw new SormasToSormasException(I18nProperties.getString(Strings.errorSormasToSormasResult));
@@ -0,0 +1,43 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.systemevent;
+
+import java.util.List;
+
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+
+import de.symeda.sormas.api.systemevents.ScheduledJobFacade;
+import de.symeda.sormas.api.systemevents.ScheduledJobStatusDto;
+import de.symeda.sormas.backend.common.JobScheduler;
+
+@Stateless(name = "ScheduledJobFacade")
+public class ScheduledJobFacadeEjb implements ScheduledJobFacade {
+
+	@EJB
+	private JobScheduler jobScheduler;
+
+	@Override
+	public List<ScheduledJobStatusDto> getScheduledJobStatuses() {
+		return jobScheduler.getStatuses();
+	}
+
+	@LocalBean
+	@Stateless
+	public static class ScheduledJobFacadeEjbLocal extends ScheduledJobFacadeEjb {
+
+	}
+}
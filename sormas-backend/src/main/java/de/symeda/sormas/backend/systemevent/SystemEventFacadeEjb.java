@@ -55,7 +55,10 @@ public class SystemEventFacadeEjb implements SystemEventFacade {
 		CriteriaQuery<SystemEvent> cq = cb.createQuery(SystemEvent.class);
 		Root<SystemEvent> systemEventRoot = cq.from(SystemEvent.class);
 
-		cq.where(cb.equal(systemEventRoot.get(SystemEvent.STATUS), SystemEventStatus.SUCCESS));
+		cq.where(
+			cb.and(
+				cb.equal(systemEventRoot.get(SystemEvent.STATUS), SystemEventStatus.SUCCESS),
+				cb.equal(systemEventRoot.get(SystemEvent.TYPE), type)));
 		cq.orderBy(cb.desc(systemEventRoot.get(SystemEvent.START_DATE)));
 
 		try {
@@ -2,7 +2,12 @@ package de.symeda.sormas.backend.systemevent;
 
 import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
+import javax.persistence.NoResultException;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
 
+import de.symeda.sormas.api.systemevents.SystemEventType;
 import de.symeda.sormas.backend.common.BaseAdoService;
 
 @Stateless
@@ -13,4 +18,21 @@ public class SystemEventService extends BaseAdoService<SystemEvent> {
 		super(SystemEvent.class);
 	}
 
+	/**
+	 * @return the latest SystemEvent of the type whose additional info starts with the prefix, regardless of its status
+	 */
+	public SystemEvent getLatestByTypeAndInfoPrefix(SystemEventType type, String infoPrefix) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<SystemEvent> cq = cb.createQuery(SystemEvent.class);
+		Root<SystemEvent> root = cq.from(SystemEvent.class);
+		cq.where(cb.equal(root.get(SystemEvent.TYPE), type), cb.like(root.get(SystemEvent.ADDITIONAL_INFO), infoPrefix + "%"));
+		cq.orderBy(cb.desc(root.get(SystemEvent.START_DATE)));
+
+		try {
+			return em.createQuery(cq).setMaxResults(1).getSingleResult();
+		} catch (NoResultException e) {
+			return null;
+		}
+	}
 }
@@ -48,8 +48,6 @@ import javax.persistence.criteria.Selection;
 import javax.validation.Valid;
 
 import de.symeda.sormas.backend.facility.FacilityService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import de.symeda.sormas.api.caze.CaseReferenceDto;
 import de.symeda.sormas.api.common.Page;
@@ -84,7 +82,6 @@ import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.CronService;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactFacadeEjb;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -111,7 +108,6 @@ import de.symeda.sormas.backend.util.Pseudonymizer;
 public class TaskFacadeEjb implements TaskFacade {
 
 	private static final int ARCHIVE_BATCH_SIZE = 1000;
-	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
@@ -281,23 +277,15 @@ public class TaskFacadeEjb implements TaskFacade {
 				UserRole.CASE_SUPERVISOR,
 				UserRole.CONTACT_SUPERVISOR);
 			for (User recipient : messageRecipients) {
-				try {
-					messagingService.sendMessage(
-						recipient,
-						MessageSubject.VISIT_COMPLETED,
-						String.format(
-							I18nProperties.getString(MessagingService.CONTENT_VISIT_COMPLETED),
-							DataHelper.getShortUuid(ado.getContact().getUuid()),
-							DataHelper.getShortUuid(ado.getAssigneeUser().getUuid())),
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"NotificationDeliveryFailedException when trying to notify supervisors about the completion of a follow-up visit. "
-								+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-							recipient.getUuid()));
-				}
+				messagingService.sendMessage(
+					recipient,
+					MessageSubject.VISIT_COMPLETED,
+					String.format(
+						I18nProperties.getString(MessagingService.CONTENT_VISIT_COMPLETED),
+						DataHelper.getShortUuid(ado.getContact().getUuid()),
+						DataHelper.getShortUuid(ado.getAssigneeUser().getUuid())),
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -685,27 +673,19 @@ public class TaskFacadeEjb implements TaskFacade {
 				? task.getCaze()
 				: context == TaskContext.CONTACT ? task.getContact() : context == TaskContext.EVENT ? task.getEvent() : null;
 			if (task.getAssigneeUser() != null) {
-				try {
-					String content = context == TaskContext.GENERAL
-						? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_GENERAL), task.getTaskType().toString())
-						: String.format(
-							I18nProperties.getString(MessagingService.CONTENT_TASK_START_SPECIFIC),
-							task.getTaskType().toString(),
-							buildAssociatedEntityLinkContent(context, associatedEntity));
-
-					messagingService.sendMessage(
-						userService.getByUuid(task.getAssigneeUser().getUuid()),
-						MessageSubject.TASK_START,
-						content,
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify a user about a starting task. " + "Failed to send "
-								+ e.getMessageType() + " to user with UUID %s.",
-							task.getAssigneeUser().getUuid()));
-				}
+				String content = context == TaskContext.GENERAL
+					? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_START_GENERAL), task.getTaskType().toString())
+					: String.format(
+						I18nProperties.getString(MessagingService.CONTENT_TASK_START_SPECIFIC),
+						task.getTaskType().toString(),
+						buildAssociatedEntityLinkContent(context, associatedEntity));
+
+				messagingService.sendMessage(
+					userService.getByUuid(task.getAssigneeUser().getUuid()),
+					MessageSubject.TASK_START,
+					content,
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 
@@ -716,27 +696,19 @@ public class TaskFacadeEjb implements TaskFacade {
 				? task.getCaze()
 				: context == TaskContext.CONTACT ? task.getContact() : context == TaskContext.EVENT ? task.getEvent() : null;
 			if (task.getAssigneeUser() != null) {
-				try {
-					String content = context == TaskContext.GENERAL
-						? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_GENERAL), task.getTaskType().toString())
-						: String.format(
-							I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_SPECIFIC),
-							task.getTaskType().toString(),
-							buildAssociatedEntityLinkContent(context, associatedEntity));
-
-					messagingService.sendMessage(
-						userService.getByUuid(task.getAssigneeUser().getUuid()),
-						MessageSubject.TASK_DUE,
-						content,
-						MessageType.EMAIL,
-						MessageType.SMS);
-				} catch (NotificationDeliveryFailedException e) {
-					logger.error(
-						String.format(
-							"EmailDeliveryFailedException when trying to notify a user about a due task. " + "Failed to send " + e.getMessageType()
-								+ " to user with UUID %s.",
-							task.getAssigneeUser().getUuid()));
-				}
+				String content = context == TaskContext.GENERAL
+					? String.format(I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_GENERAL), task.getTaskType().toString())
+					: String.format(
+						I18nProperties.getString(MessagingService.CONTENT_TASK_DUE_SPECIFIC),
+						task.getTaskType().toString(),
+						buildAssociatedEntityLinkContent(context, associatedEntity));
+
+				messagingService.sendMessage(
+					userService.getByUuid(task.getAssigneeUser().getUuid()),
+					MessageSubject.TASK_DUE,
+					content,
+					MessageType.EMAIL,
+					MessageType.SMS);
 			}
 		}
 	}
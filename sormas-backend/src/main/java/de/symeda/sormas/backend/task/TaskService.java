@@ -20,9 +20,17 @@ package de.symeda.sormas.backend.task;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -40,12 +48,15 @@ import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Selection;
 
+import org.apache.commons.lang3.time.DateUtils;
+
 import de.symeda.sormas.api.EntityRelevanceStatus;
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskCriteria;
 import de.symeda.sormas.api.task.TaskJurisdictionFlagsDto;
 import de.symeda.sormas.api.task.TaskPriority;
 import de.symeda.sormas.api.task.TaskStatus;
+import de.symeda.sormas.api.task.TaskType;
 import de.symeda.sormas.api.user.JurisdictionLevel;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
@@ -55,6 +66,7 @@ import de.symeda.sormas.backend.common.AdoServiceWithUserFilter;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.TaskCreationException;
 import de.symeda.sormas.backend.contact.Contact;
+import de.symeda.sormas.backend.contact.ContactFollowUpTaskCandidate;
 import de.symeda.sormas.backend.contact.ContactJoins;
 import de.symeda.sormas.backend.contact.ContactService;
 import de.symeda.sormas.backend.event.Event;
@@ -453,6 +465,115 @@ public class TaskService extends AdoServiceWithUserFilter<Task> {
 		return assignee;
 	}
 
+	/**
+	 * Creates the follow-up tasks due between the dates for the next chunk of contacts that don't have one yet, in a
+	 * transaction of its own. The assignee is chosen like in {@link #getTaskAssignee(Contact)}, but the candidates of
+	 * all districts and regions of the chunk are loaded at once. No task is created if the assignee already has a
+	 * pending follow-up task for the contact.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public ContactFollowUpTaskChunkResult createContactFollowUpTasks(Date fromDate, Date toDate, Long afterContactId, int chunkSize) {
+
+		List<ContactFollowUpTaskCandidate> candidates = contactService.getFollowUpTaskCandidates(fromDate, toDate, afterContactId, chunkSize);
+		if (candidates.isEmpty()) {
+			return new ContactFollowUpTaskChunkResult(null, 0, 0, 0, 0);
+		}
+
+		Set<Long> districtIds = new HashSet<>();
+		Set<Long> regionIds = new HashSet<>();
+		for (ContactFollowUpTaskCandidate candidate : candidates) {
+			if (candidate.getContactOfficerId() == null) {
+				candidate.getDistrictIds().stream().filter(Objects::nonNull).forEach(districtIds::add);
+				candidate.getRegionIds().stream().filter(Objects::nonNull).forEach(regionIds::add);
+			}
+		}
+		Map<Long, List<Long>> contactOfficerIds = userService.getUserIdsByJurisdiction(User.DISTRICT, districtIds, UserRole.CONTACT_OFFICER);
+		Map<Long, List<Long>> contactSupervisorIds = userService.getUserIdsByJurisdiction(User.REGION, regionIds, UserRole.CONTACT_SUPERVISOR);
+		Map<Long, Set<Long>> pendingTaskAssigneeIds = getPendingTaskAssigneeIds(
+			TaskType.CONTACT_FOLLOW_UP,
+			candidates.stream().map(ContactFollowUpTaskCandidate::getContactId).collect(Collectors.toList()));
+
+		Random random = new Random();
+		int createdCount = 0;
+		int withoutAssigneeCount = 0;
+		int pendingTaskCount = 0;
+		for (ContactFollowUpTaskCandidate candidate : candidates) {
+			Long assigneeId = candidate.getContactOfficerId();
+			if (assigneeId == null) {
+				assigneeId = getRandomUserId(contactOfficerIds, candidate.getDistrictIds(), random);
+			}
+			if (assigneeId == null) {
+				assigneeId = getRandomUserId(contactSupervisorIds, candidate.getRegionIds(), random);
+			}
+
+			if (assigneeId == null) {
+				logger.warn("Contact has not contact officer and no region - can't create follow-up task: " + candidate.getContactUuid());
+				withoutAssigneeCount++;
+			} else if (pendingTaskAssigneeIds.getOrDefault(candidate.getContactId(), Collections.emptySet()).contains(assigneeId)) {
+				// the user still has a pending task for this contact
+				pendingTaskCount++;
+			} else {
+				Task task = buildTask(null);
+				task.setTaskContext(TaskContext.CONTACT);
+				task.setContact(em.getReference(Contact.class, candidate.getContactId()));
+				task.setTaskType(TaskType.CONTACT_FOLLOW_UP);
+				task.setSuggestedStart(fromDate);
+				task.setDueDate(DateUtils.addMinutes(toDate, -1));
+				task.setAssigneeUser(em.getReference(User.class, assigneeId));
+				if (candidate.isHighPriority()) {
+					task.setPriority(TaskPriority.HIGH);
+				}
+				em.persist(task);
+				createdCount++;
+			}
+		}
+		em.flush();
+
+		return new ContactFollowUpTaskChunkResult(
+			candidates.get(candidates.size() - 1).getContactId(),
+			candidates.size(),
+			createdCount,
+			withoutAssigneeCount,
+			pendingTaskCount);
+	}
+
+	/**
+	 * @return the ids of the users assigned to pending tasks of the type, mapped by the id of the contact
+	 */
+	private Map<Long, Set<Long>> getPendingTaskAssigneeIds(TaskType taskType, List<Long> contactIds) {
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<Task> from = cq.from(Task.class);
+
+		cq.multiselect(from.get(Task.CONTACT).get(Contact.ID), from.get(Task.ASSIGNEE_USER).get(User.ID));
+		cq.where(
+			from.get(Task.CONTACT).get(Contact.ID).in(contactIds),
+			cb.equal(from.get(Task.TASK_TYPE), taskType),
+			cb.equal(from.get(Task.TASK_STATUS), TaskStatus.PENDING),
+			cb.isNotNull(from.get(Task.ASSIGNEE_USER)));
+
+		Map<Long, Set<Long>> assigneeIds = new HashMap<>();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			assigneeIds.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((Long) row[1]);
+		}
+		return assigneeIds;
+	}
+
+	/**
+	 * @return a random user of the first jurisdiction in the list that has users, {@code null} if there is none
+	 */
+	private Long getRandomUserId(Map<Long, List<Long>> userIdsByJurisdiction, List<Long> jurisdictionIds, Random random) {
+
+		for (Long jurisdictionId : jurisdictionIds) {
+			List<Long> userIds = jurisdictionId != null ? userIdsByJurisdiction.get(jurisdictionId) : null;
+			if (userIds != null && !userIds.isEmpty()) {
+				return userIds.get(random.nextInt(userIds.size()));
+			}
+		}
+		return null;
+	}
+
 	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
 	public void updateArchived(List<String> taskUuids, boolean archived) {
 
@@ -508,4 +629,50 @@ public class TaskService extends AdoServiceWithUserFilter<Task> {
 		final User currentUser = userService.getCurrentUser();
 		return TaskJurisdictionPredicateValidator.of(cb, joins, currentUser).inJurisdictionOrOwned();
 	}
+
+	public static class ContactFollowUpTaskChunkResult {
+
+		private final Long lastContactId;
+		private final int processedCount;
+		private final int createdCount;
+		private final int withoutAssigneeCount;
+		private final int pendingTaskCount;
+
+		public ContactFollowUpTaskChunkResult(Long lastContactId, int processedCount, int createdCount, int withoutAssigneeCount, int pendingTaskCount) {
+			this.lastContactId = lastContactId;
+			this.processedCount = processedCount;
+			this.createdCount = createdCount;
+			this.withoutAssigneeCount = withoutAssigneeCount;
+			this.pendingTaskCount = pendingTaskCount;
+		}
+
+		/**
+		 * @return The id to continue the next chunk after, {@code null} if there are no more contacts.
+		 */
+		public Long getLastContactId() {
+			return lastContactId;
+		}
+
+		public int getProcessedCount() {
+			return processedCount;
+		}
+
+		public int getCreatedCount() {
+			return createdCount;
+		}
+
+		/**
+		 * @return The number of contacts without a task because no assignee could be found.
+		 */
+		public int getWithoutAssigneeCount() {
+			return withoutAssigneeCount;
+		}
+
+		/**
+		 * @return The number of contacts without a new task because the assignee still has a pending one.
+		 */
+		public int getPendingTaskCount() {
+			return pendingTaskCount;
+		}
+	}
 }
@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.user;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -293,6 +294,37 @@ public class UserService extends AdoServiceWithUserFilter<User> {
 		return getByUuid(chosenUser.getUuid());
 	}
 
+	/**
+	 * Loads the candidates for {@link #getRandomUser(List)} of many districts or regions with one query.
+	 *
+	 * @param jurisdictionAttribute
+	 *            {@link User#DISTRICT} or {@link User#REGION}
+	 * @return the ids of the active users with one of the roles, mapped by the id of their district or region
+	 */
+	public Map<Long, List<Long>> getUserIdsByJurisdiction(String jurisdictionAttribute, Collection<Long> jurisdictionIds, UserRole... userRoles) {
+
+		Map<Long, List<Long>> userIds = new HashMap<>();
+		if (jurisdictionIds.isEmpty()) {
+			return userIds;
+		}
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+		Root<User> from = cq.from(User.class);
+		Join<User, UserRole> rolesJoin = from.join(User.USER_ROLES);
+		Expression<Long> jurisdictionId = from.join(jurisdictionAttribute).get(AbstractDomainObject.ID);
+
+		cq.multiselect(jurisdictionId, from.get(AbstractDomainObject.ID));
+		cq.where(createDefaultFilter(cb, from), jurisdictionId.in(jurisdictionIds), rolesJoin.in(Arrays.asList(userRoles)));
+		cq.distinct(true);
+		cq.orderBy(cb.asc(from.get(AbstractDomainObject.ID)));
+
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			userIds.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+		}
+		return userIds;
+	}
+
 	public List<User> getInformantsOfFacility(Facility facility) {
 
 		if (facility == null || !FacilityType.HOSPITAL.equals(facility.getType())) {
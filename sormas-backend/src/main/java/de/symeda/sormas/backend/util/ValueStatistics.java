@@ -0,0 +1,75 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts recorded values, e.g. durations in milliseconds, along with their sum and maximum. Values can be recorded
+ * concurrently.
+ */
+public final class ValueStatistics {
+
+	private final String unit;
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param unit
+	 *            appended to the values in {@link #toString()}, e.g. {@code "ms"}; may be empty
+	 */
+	public ValueStatistics(String unit) {
+		this.unit = unit;
+	}
+
+	public void record(long value) {
+
+		count.incrementAndGet();
+		total.addAndGet(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getTotal() {
+		return total.get();
+	}
+
+	/**
+	 * @return the average of the values, 0 if nothing has been recorded
+	 */
+	public long getAverage() {
+
+		long currentCount = count.get();
+		return currentCount > 0 ? total.get() / currentCount : 0;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return e.g. {@code "12 (avg 40 ms, max 210 ms)"}
+	 */
+	@Override
+	public String toString() {
+
+		String suffix = unit.isEmpty() ? "" : " " + unit;
+		return getCount() + " (avg " + getAverage() + suffix + ", max " + getMax() + suffix + ")";
+	}
+}
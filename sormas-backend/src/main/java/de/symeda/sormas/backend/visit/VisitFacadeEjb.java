@@ -47,9 +47,6 @@ import javax.persistence.criteria.Root;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import de.symeda.sormas.api.VisitOrigin;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.CaseReferenceDto;
@@ -83,7 +80,6 @@ import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.common.messaging.MessageSubject;
 import de.symeda.sormas.backend.common.messaging.MessagingService;
-import de.symeda.sormas.backend.common.messaging.NotificationDeliveryFailedException;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactJoins;
 import de.symeda.sormas.backend.contact.ContactService;
@@ -105,8 +101,6 @@ import de.symeda.sormas.utils.CaseJoins;
 @Stateless(name = "VisitFacade")
 public class VisitFacadeEjb implements VisitFacade {
 
-	private final Logger logger = LoggerFactory.getLogger(getClass());
-
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
@@ -572,28 +566,20 @@ public class VisitFacadeEjb implements VisitFacade {
 					UserRole.SURVEILLANCE_SUPERVISOR,
 					UserRole.CONTACT_SUPERVISOR);
 				for (User recipient : messageRecipients) {
-					try {
-						String messageContent;
-						if (contactCase != null) {
-							messageContent = String.format(
-								I18nProperties.getString(MessagingService.CONTENT_CONTACT_SYMPTOMATIC),
-								DataHelper.getShortUuid(contact.getUuid()),
-								DataHelper.getShortUuid(contactCase.getUuid()));
-						} else {
-							messageContent = String.format(
-								I18nProperties.getString(MessagingService.CONTENT_CONTACT_WITHOUT_CASE_SYMPTOMATIC),
-								DataHelper.getShortUuid(contact.getUuid()));
-						}
-
-						messagingService
-							.sendMessage(recipient, MessageSubject.CONTACT_SYMPTOMATIC, messageContent, MessageType.EMAIL, MessageType.SMS);
-					} catch (NotificationDeliveryFailedException e) {
-						logger.error(
-							String.format(
-								"EmailDeliveryFailedException when trying to notify supervisors about a contact that has become symptomatic. "
-									+ "Failed to send " + e.getMessageType() + " to user with UUID %s.",
-								recipient.getUuid()));
+					String messageContent;
+					if (contactCase != null) {
+						messageContent = String.format(
+							I18nProperties.getString(MessagingService.CONTENT_CONTACT_SYMPTOMATIC),
+							DataHelper.getShortUuid(contact.getUuid()),
+							DataHelper.getShortUuid(contactCase.getUuid()));
+					} else {
+						messageContent = String.format(
+							I18nProperties.getString(MessagingService.CONTENT_CONTACT_WITHOUT_CASE_SYMPTOMATIC),
+							DataHelper.getShortUuid(contact.getUuid()));
 					}
+
+					messagingService
+						.sendMessage(recipient, MessageSubject.CONTACT_SYMPTOMATIC, messageContent, MessageType.EMAIL, MessageType.SMS);
 				}
 			}
 		}
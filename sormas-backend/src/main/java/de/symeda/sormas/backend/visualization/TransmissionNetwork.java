@@ -0,0 +1,695 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.visualization;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.contact.ContactProximity;
+
+/**
+ * The transmission network of a set of contacts with one node per person and one edge from the person of the source
+ * case to the contact person. Person ids are mapped to node indices and all node and edge data is kept in primitive
+ * arrays, so networks with a hundred thousand contacts don't need an object per node or edge.
+ * <p>
+ * Besides the data shown in the diagram, every node gets the transmission chain (connected component) it belongs to
+ * and its generation within the chain. Chains are numbered by size, starting with 1 for the largest one.
+ * <p>
+ * {@link #toJson()} creates the visNetwork htmlwidget data that used to be created by an R script, with
+ * placeholders like <code>{heading}</code> for the texts to be translated.
+ */
+final class TransmissionNetwork {
+
+	static final String HEALTHY_GROUP = "{Classification.HEALTHY}";
+
+	private static final Set<ContactProximity> HIGH_RISK_PROXIMITIES = EnumSet.of(
+		ContactProximity.FACE_TO_FACE_LONG,
+		ContactProximity.TOUCHED_FLUID,
+		ContactProximity.MEDICAL_UNSAFE,
+		ContactProximity.CLOTHES_OR_OTHER,
+		ContactProximity.PHYSICAL_CONTACT);
+
+	private static final String[] GROUPS = {
+		HEALTHY_GROUP,
+		group(CaseClassification.NOT_CLASSIFIED),
+		group(CaseClassification.SUSPECT),
+		group(CaseClassification.PROBABLE),
+		group(CaseClassification.CONFIRMED),
+		group(CaseClassification.CONFIRMED_NO_SYMPTOMS),
+		group(CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS) };
+
+	// see CountElementStyle.POSITIVE and styles.css count-element
+	private static final String[] GROUP_COLORS = {
+		"#32CD32",
+		"#808080",
+		"#c8aa00",
+		"#be6900",
+		"#c80000",
+		"#C80000B2",
+		"#C800007F" };
+
+	private static final String PERSON_ICON = "f007";
+	private static final String ARROW_ICON = "f178";
+	private static final int ICON_SIZE = 25;
+	private static final String HIDE_COLOR = "rgba(200,200,200,0.5)";
+
+	private static final String DEFAULT_FONT = "font-family:'Open Sans', sans-serif, 'Source Sans Pro'";
+	private static final String MAIN_STYLE = DEFAULT_FONT + "; color: #6591C4; ;font-weight: 600; font-size: 1.6em; text-align:center;";
+	private static final String SUBMAIN_STYLE = DEFAULT_FONT + "; text-align:center;";
+	private static final String LEGEND_MAIN_STYLE = "font-family:Georgia, Times New Roman, Times, serif;font-weight:bold;font-size:14px;text-align:center;";
+	private static final String TOOLTIP_STYLE = "position: fixed;visibility:hidden;padding: 5px;white-space: nowrap;font-family: verdana;"
+		+ "font-size:14px;font-color:#000000;background-color: #f5f4ed;-moz-border-radius: 3px;-webkit-border-radius: 3px;"
+		+ "border-radius: 3px;border: 1px solid #808074;box-shadow: 3px 3px 10px rgba(0, 0, 0, 0.2);";
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final LongIntHashMap nodeIndices = new LongIntHashMap(INITIAL_CAPACITY);
+	private long[] personIds = new long[INITIAL_CAPACITY];
+	private String[] caseUuids = new String[INITIAL_CAPACITY];
+	private long[] caseReportDates = new long[INITIAL_CAPACITY];
+	private CaseClassification[] caseClassifications = new CaseClassification[INITIAL_CAPACITY];
+	private int nodeCount;
+
+	private final LongIntHashMap edgeIndices = new LongIntHashMap(INITIAL_CAPACITY);
+	private int[] edgeSources = new int[INITIAL_CAPACITY];
+	private int[] edgeTargets = new int[INITIAL_CAPACITY];
+	private boolean[] highRiskEdges = new boolean[INITIAL_CAPACITY];
+	private int edgeCount;
+
+	private int[] chains;
+	private int[] generations;
+
+	/**
+	 * Adds the person without a case, if it is not part of the network yet.
+	 */
+	public void addPerson(long personId) {
+		getOrAddNode(personId);
+	}
+
+	/**
+	 * Adds the case to the person. A person with several cases is shown with the earliest one.
+	 */
+	public void addCase(long personId, String caseUuid, Date reportDate, CaseClassification classification) {
+
+		int node = getOrAddNode(personId);
+		long reportTime = reportDate != null ? reportDate.getTime() : Long.MAX_VALUE;
+
+		String currentUuid = caseUuids[node];
+		if (currentUuid == null
+			|| reportTime < caseReportDates[node]
+			|| reportTime == caseReportDates[node] && caseUuid.compareTo(currentUuid) < 0) {
+			caseUuids[node] = caseUuid;
+			caseReportDates[node] = reportTime;
+			caseClassifications[node] = classification;
+		}
+	}
+
+	/**
+	 * Adds the transmission from the source case person to the contact person. Multiple contacts between the same
+	 * persons are shown as one edge, which is a high risk edge if any of the contacts is a high risk contact.
+	 */
+	public void addContact(long sourcePersonId, long contactPersonId, ContactProximity proximity) {
+
+		int source = getOrAddNode(sourcePersonId);
+		int target = getOrAddNode(contactPersonId);
+		if (source == target) {
+			return;
+		}
+
+		boolean highRisk = proximity != null && HIGH_RISK_PROXIMITIES.contains(proximity);
+		long key = ((long) source << 32) | target;
+		int edge = edgeIndices.get(key);
+		if (edge >= 0) {
+			highRiskEdges[edge] |= highRisk;
+			return;
+		}
+
+		if (edgeCount == edgeSources.length) {
+			int capacity = edgeCount * 2;
+			edgeSources = Arrays.copyOf(edgeSources, capacity);
+			edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+			highRiskEdges = Arrays.copyOf(highRiskEdges, capacity);
+		}
+		edgeSources[edgeCount] = source;
+		edgeTargets[edgeCount] = target;
+		highRiskEdges[edgeCount] = highRisk;
+		edgeIndices.put(key, edgeCount);
+		edgeCount++;
+		invalidateStructure();
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * @return the number of the transmission chain the person belongs to, 1 being the largest chain
+	 */
+	public int getChain(long personId) {
+		computeStructure();
+		return chains[nodeIndices.get(personId)];
+	}
+
+	/**
+	 * @return the generation of the person within its transmission chain, 0 for persons not infected by any other
+	 *         person of the network
+	 */
+	public int getGeneration(long personId) {
+		computeStructure();
+		return generations[nodeIndices.get(personId)];
+	}
+
+	public String toJson() {
+
+		computeStructure();
+
+		StringWriter writer = new StringWriter(nodeCount * 120 + edgeCount * 40 + 4096);
+		try (JsonGenerator json = new JsonFactory().createGenerator(writer)) {
+			json.writeStartObject();
+			json.writeObjectFieldStart("x");
+
+			writeNodes(json);
+			writeEdges(json);
+			json.writeBooleanField("nodesToDataframe", true);
+			json.writeBooleanField("edgesToDataframe", true);
+			writeOptions(json);
+
+			json.writeArrayFieldStart("groups");
+			for (String group : getUsedGroups()) {
+				json.writeString(group);
+			}
+			json.writeEndArray();
+
+			json.writeStringField("width", "100%");
+			json.writeNullField("height");
+			json.writeObjectFieldStart("idselection");
+			json.writeBooleanField("enabled", false);
+			json.writeEndObject();
+			writeSelectedBy(json);
+			writeText(json, "main", "{heading}", MAIN_STYLE);
+			writeText(json, "submain", "{subheading}", SUBMAIN_STYLE);
+			json.writeNullField("footer");
+			json.writeStringField("background", "white");
+			writeHighlight(json);
+			writeCollapse(json);
+			json.writeNumberField("tooltipStay", 300);
+			json.writeStringField("tooltipStyle", TOOLTIP_STYLE);
+			json.writeBooleanField("iconsRedraw", true);
+			writeLegend(json);
+
+			json.writeEndObject();
+			json.writeArrayFieldStart("evals");
+			json.writeEndArray();
+			json.writeArrayFieldStart("jsHooks");
+			json.writeEndArray();
+			json.writeEndObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	private int getOrAddNode(long personId) {
+
+		int node = nodeIndices.get(personId);
+		if (node >= 0) {
+			return node;
+		}
+
+		if (nodeCount == personIds.length) {
+			int capacity = nodeCount * 2;
+			personIds = Arrays.copyOf(personIds, capacity);
+			caseUuids = Arrays.copyOf(caseUuids, capacity);
+			caseReportDates = Arrays.copyOf(caseReportDates, capacity);
+			caseClassifications = Arrays.copyOf(caseClassifications, capacity);
+		}
+		personIds[nodeCount] = personId;
+		nodeIndices.put(personId, nodeCount);
+		invalidateStructure();
+		return nodeCount++;
+	}
+
+	private void invalidateStructure() {
+		chains = null;
+		generations = null;
+	}
+
+	private void computeStructure() {
+
+		if (chains != null) {
+			return;
+		}
+
+		// chains: union-find over the edges, numbered by size afterwards
+		int[] parents = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			parents[i] = i;
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			int sourceRoot = findRoot(parents, edgeSources[e]);
+			int targetRoot = findRoot(parents, edgeTargets[e]);
+			if (sourceRoot != targetRoot) {
+				parents[Math.max(sourceRoot, targetRoot)] = Math.min(sourceRoot, targetRoot);
+			}
+		}
+
+		int[] chainSizes = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			chainSizes[findRoot(parents, i)]++;
+		}
+		// roots sorted by chain size, the chain found first comes first on equal size
+		Integer[] roots = new Integer[nodeCount];
+		int rootCount = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			if (parents[i] == i) {
+				roots[rootCount++] = i;
+			}
+		}
+		Arrays.sort(roots, 0, rootCount, (r1, r2) -> chainSizes[r1] != chainSizes[r2] ? chainSizes[r2] - chainSizes[r1] : r1 - r2);
+		int[] chainNumbers = new int[nodeCount];
+		for (int c = 0; c < rootCount; c++) {
+			chainNumbers[roots[c]] = c + 1;
+		}
+		chains = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			chains[i] = chainNumbers[parents[i]];
+		}
+
+		// generations: breadth-first search along the outgoing edges in compressed sparse row layout
+		int[] edgeOffsets = new int[nodeCount + 1];
+		int[] incomingCounts = new int[nodeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			edgeOffsets[edgeSources[e] + 1]++;
+			incomingCounts[edgeTargets[e]]++;
+		}
+		for (int i = 0; i < nodeCount; i++) {
+			edgeOffsets[i + 1] += edgeOffsets[i];
+		}
+		int[] successors = new int[edgeCount];
+		int[] fillPositions = Arrays.copyOf(edgeOffsets, nodeCount);
+		for (int e = 0; e < edgeCount; e++) {
+			successors[fillPositions[edgeSources[e]]++] = edgeTargets[e];
+		}
+
+		int[] newGenerations = new int[nodeCount];
+		Arrays.fill(newGenerations, -1);
+		int[] queue = new int[nodeCount];
+		int queueEnd = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			if (incomingCounts[i] == 0) {
+				newGenerations[i] = 0;
+				queue[queueEnd++] = i;
+			}
+		}
+		int queueStart = 0;
+		int nextUnvisited = 0;
+		while (true) {
+			while (queueStart < queueEnd) {
+				int node = queue[queueStart++];
+				for (int s = edgeOffsets[node]; s < edgeOffsets[node + 1]; s++) {
+					int successor = successors[s];
+					if (newGenerations[successor] < 0) {
+						newGenerations[successor] = newGenerations[node] + 1;
+						queue[queueEnd++] = successor;
+					}
+				}
+			}
+
+			// persons only reachable through a cycle: start with the first one found
+			while (nextUnvisited < nodeCount && newGenerations[nextUnvisited] >= 0) {
+				nextUnvisited++;
+			}
+			if (nextUnvisited == nodeCount) {
+				break;
+			}
+			newGenerations[nextUnvisited] = 0;
+			queue[queueEnd++] = nextUnvisited;
+		}
+		generations = newGenerations;
+	}
+
+	private static int findRoot(int[] parents, int node) {
+
+		while (parents[node] != node) {
+			parents[node] = parents[parents[node]];
+			node = parents[node];
+		}
+		return node;
+	}
+
+	private void writeNodes(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("nodes");
+
+		json.writeArrayFieldStart("id");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeNumber(personIds[i]);
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("uuid");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeString(caseUuids[i]);
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("label");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeString(caseUuids[i] != null ? caseUuids[i].substring(0, Math.min(6, caseUuids[i].length())).toUpperCase() : null);
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("Classification");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeString(getGroup(i));
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("group");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeString(getGroup(i));
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("chain");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeNumber(chains[i]);
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("level");
+		for (int i = 0; i < nodeCount; i++) {
+			json.writeNumber(generations[i]);
+		}
+		json.writeEndArray();
+
+		json.writeEndObject();
+	}
+
+	private void writeEdges(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("edges");
+
+		json.writeArrayFieldStart("from");
+		for (int e = 0; e < edgeCount; e++) {
+			json.writeNumber(personIds[edgeSources[e]]);
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("to");
+		for (int e = 0; e < edgeCount; e++) {
+			json.writeNumber(personIds[edgeTargets[e]]);
+		}
+		json.writeEndArray();
+
+		json.writeArrayFieldStart("label");
+		for (int e = 0; e < edgeCount; e++) {
+			json.writeString(highRiskEdges[e] ? "1" : "2");
+		}
+		json.writeEndArray();
+
+		// broken lines for low risk contacts
+		json.writeArrayFieldStart("dashes");
+		for (int e = 0; e < edgeCount; e++) {
+			json.writeBoolean(!highRiskEdges[e]);
+		}
+		json.writeEndArray();
+
+		json.writeEndObject();
+	}
+
+	private void writeOptions(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("options");
+		json.writeStringField("width", "100%");
+		json.writeStringField("height", "100%");
+
+		json.writeObjectFieldStart("nodes");
+		json.writeStringField("shape", "dot");
+		json.writeEndObject();
+
+		json.writeObjectFieldStart("manipulation");
+		json.writeBooleanField("enabled", false);
+		json.writeEndObject();
+
+		json.writeObjectFieldStart("edges");
+		json.writeStringField("arrows", "to");
+		json.writeStringField("color", "black");
+		json.writeObjectFieldStart("smooth");
+		json.writeStringField("type", "continuous");
+		json.writeEndObject();
+		json.writeEndObject();
+
+		json.writeObjectFieldStart("groups");
+		for (int g = 0; g < GROUPS.length; g++) {
+			json.writeObjectFieldStart(GROUPS[g]);
+			json.writeNumberField("size", 10);
+			json.writeStringField("shape", "icon");
+			json.writeObjectFieldStart("icon");
+			json.writeStringField("face", "FontAwesome");
+			json.writeStringField("code", PERSON_ICON);
+			json.writeStringField("color", GROUP_COLORS[g]);
+			json.writeEndObject();
+			json.writeEndObject();
+		}
+		json.writeBooleanField("useDefaultGroups", true);
+		json.writeEndObject();
+
+		json.writeObjectFieldStart("physics");
+		json.writeStringField("solver", "barnesHut");
+		json.writeObjectFieldStart("barnesHut");
+		json.writeNumberField("damping", 0.26);
+		json.writeNumberField("avoidOverlap", 0.2);
+		json.writeEndObject();
+		json.writeEndObject();
+
+		json.writeObjectFieldStart("interaction");
+		json.writeBooleanField("dragNodes", true);
+		json.writeBooleanField("dragView", true);
+		json.writeBooleanField("zoomView", true);
+		json.writeEndObject();
+
+		json.writeEndObject();
+	}
+
+	private void writeSelectedBy(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("byselection");
+		json.writeBooleanField("enabled", true);
+		json.writeStringField("style", "width: 150px; height: 26px");
+		json.writeBooleanField("multiple", false);
+		json.writeStringField("hideColor", HIDE_COLOR);
+		json.writeBooleanField("highlight", false);
+		json.writeStringField("variable", "Classification");
+		json.writeStringField("main", "{selectByClassification}");
+		json.writeArrayFieldStart("values");
+		for (String group : GROUPS) {
+			json.writeString(group);
+		}
+		json.writeEndArray();
+		json.writeEndObject();
+	}
+
+	private static void writeHighlight(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("highlight");
+		json.writeBooleanField("enabled", true);
+		json.writeBooleanField("hoverNearest", false);
+		json.writeNumberField("degree", 1);
+		json.writeStringField("algorithm", "all");
+		json.writeStringField("hideColor", HIDE_COLOR);
+		json.writeBooleanField("labelOnly", true);
+		json.writeEndObject();
+	}
+
+	private static void writeCollapse(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("collapse");
+		json.writeBooleanField("enabled", false);
+		json.writeBooleanField("fit", false);
+		json.writeBooleanField("resetHighlight", true);
+		json.writeNullField("clusterOptions");
+		json.writeBooleanField("keepCoord", true);
+		json.writeStringField("labelSuffix", "(cluster)");
+		json.writeEndObject();
+	}
+
+	private static void writeLegend(JsonGenerator json) throws IOException {
+
+		json.writeObjectFieldStart("legend");
+		json.writeNumberField("width", 0.2);
+		json.writeBooleanField("useGroups", false);
+		json.writeStringField("position", "left");
+		json.writeNumberField("ncol", 1);
+		json.writeNumberField("stepX", 100);
+		json.writeNumberField("stepY", 100);
+		json.writeBooleanField("zoom", true);
+
+		json.writeObjectFieldStart("nodes");
+		json.writeArrayFieldStart("label");
+		for (String group : GROUPS) {
+			json.writeString(group);
+		}
+		json.writeString("1 = {highRisk}");
+		json.writeString("2 = {lowRisk}");
+		json.writeEndArray();
+		json.writeArrayFieldStart("shape");
+		for (int i = 0; i < GROUPS.length + 2; i++) {
+			json.writeString("icon");
+		}
+		json.writeEndArray();
+		json.writeArrayFieldStart("icon.code");
+		for (int i = 0; i < GROUPS.length; i++) {
+			json.writeString(PERSON_ICON);
+		}
+		json.writeString(ARROW_ICON);
+		json.writeString(ARROW_ICON);
+		json.writeEndArray();
+		json.writeArrayFieldStart("icon.size");
+		for (int i = 0; i < GROUPS.length + 2; i++) {
+			json.writeNumber(ICON_SIZE);
+		}
+		json.writeEndArray();
+		json.writeArrayFieldStart("icon.color");
+		for (String color : GROUP_COLORS) {
+			json.writeString(color);
+		}
+		json.writeString("#0d0c0c");
+		json.writeString("#0d0c0c");
+		json.writeEndArray();
+		json.writeEndObject();
+
+		json.writeBooleanField("nodesToDataframe", true);
+		writeText(json, "main", "{legend}", LEGEND_MAIN_STYLE);
+		json.writeEndObject();
+	}
+
+	private static void writeText(JsonGenerator json, String fieldName, String text, String style) throws IOException {
+
+		json.writeObjectFieldStart(fieldName);
+		json.writeStringField("text", text);
+		json.writeStringField("style", style);
+		json.writeEndObject();
+	}
+
+	private Set<String> getUsedGroups() {
+
+		Set<String> groups = new LinkedHashSet<>();
+		for (int i = 0; i < nodeCount; i++) {
+			groups.add(getGroup(i));
+		}
+		return groups;
+	}
+
+	private String getGroup(int node) {
+
+		CaseClassification classification = caseClassifications[node];
+		if (classification == null || classification == CaseClassification.NO_CASE) {
+			return HEALTHY_GROUP;
+		}
+		return group(classification);
+	}
+
+	private static String group(CaseClassification classification) {
+		return "{Classification." + classification.name() + "}";
+	}
+
+	/**
+	 * Open addressing hash map from non-negative long keys to int values, returning -1 for missing keys.
+	 */
+	private static final class LongIntHashMap {
+
+		private static final long FREE = -1L;
+
+		private long[] keys;
+		private int[] values;
+		private int size;
+
+		private LongIntHashMap(int expectedSize) {
+			int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+			keys = new long[capacity];
+			Arrays.fill(keys, FREE);
+			values = new int[capacity];
+		}
+
+		private int get(long key) {
+
+			int mask = keys.length - 1;
+			for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+				long slotKey = keys[slot];
+				if (slotKey == key) {
+					return values[slot];
+				}
+				if (slotKey == FREE) {
+					return -1;
+				}
+			}
+		}
+
+		private void put(long key, int value) {
+
+			if ((size + 1) * 2 > keys.length) {
+				resize();
+			}
+
+			int mask = keys.length - 1;
+			int slot = slot(key, mask);
+			while (keys[slot] != FREE && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			if (keys[slot] == FREE) {
+				size++;
+			}
+			keys[slot] = key;
+			values[slot] = value;
+		}
+
+		private void resize() {
+
+			long[] oldKeys = keys;
+			int[] oldValues = values;
+			keys = new long[oldKeys.length * 2];
+			Arrays.fill(keys, FREE);
+			values = new int[oldValues.length * 2];
+			size = 0;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != FREE) {
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+
+		private static int slot(long key, int mask) {
+
+			long hash = key * 0x9E3779B97F4A7C15L;
+			return (int) (hash ^ (hash >>> 32)) & mask;
+		}
+	}
+}
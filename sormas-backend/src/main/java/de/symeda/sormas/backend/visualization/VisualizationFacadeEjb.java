@@ -17,15 +17,6 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.visualization;
 
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.Reader;
-import java.io.UncheckedIOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -36,7 +27,6 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.ejb.EJB;
 import javax.ejb.LocalBean;
@@ -50,18 +40,11 @@ import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.parser.Parser;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.contact.ContactClassification;
+import de.symeda.sormas.api.contact.ContactProximity;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
@@ -69,25 +52,19 @@ import de.symeda.sormas.api.visualization.VisualizationFacade;
 import de.symeda.sormas.backend.caze.Case;
 import de.symeda.sormas.backend.caze.CaseService;
 import de.symeda.sormas.backend.common.AbstractDomainObject;
-import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
 import de.symeda.sormas.backend.common.CriteriaBuilderHelper;
 import de.symeda.sormas.backend.contact.Contact;
 import de.symeda.sormas.backend.contact.ContactService;
+import de.symeda.sormas.backend.dashboard.DashboardSnapshotCache;
 import de.symeda.sormas.backend.region.District;
 import de.symeda.sormas.backend.region.Region;
+import de.symeda.sormas.backend.user.User;
+import de.symeda.sormas.backend.user.UserService;
 import de.symeda.sormas.backend.util.ModelConstants;
 
 @Stateless(name = "VisualizationFacade")
 public class VisualizationFacadeEjb implements VisualizationFacade {
 
-	static final String SORMAS_DATA_POOL_JNDI = "jdbc/sormasDataPool";
-
-	//	private static final String TRANSMISSION_CHAIN_SCRIPT = "transmission_chain.r";
-	private static final String TRANSMISSION_CHAIN_SCRIPT = "transform_contact.R";
-	private static final String[] REQUIRED_SCRIPTS = {
-		"encodeGraphic.R",
-		"networkFunction.R" };
-
 	@PersistenceContext(unitName = ModelConstants.PERSISTENCE_UNIT_NAME)
 	private EntityManager em;
 
@@ -96,7 +73,9 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 	@EJB
 	private ContactService contactService;
 	@EJB
-	private ConfigFacadeEjbLocal configFacade;
+	private UserService userService;
+	@EJB
+	private DashboardSnapshotCache snapshotCache;
 
 	@Override
 	public String buildTransmissionChainJson(
@@ -107,22 +86,23 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 		Collection<Disease> diseases,
 		Language language) {
 
-		String rExecutable = configFacade.getRScriptExecutable();
-		if (StringUtils.isBlank(rExecutable)) {
-			return null;
-		}
-		Path tempBasePath = new File(configFacade.getTempFilesPath()).toPath();
-
-		Collection<Long> contactIds = getContactIds(fromDate, toDate, region, district, diseases);
-
-		if (contactIds.isEmpty()) {
-			return null;
-		}
-
-		//working dir is the config directory of the domain
-		Path domainXmlPath = Paths.get("domain.xml");
-
-		return buildTransmissionChainJson(rExecutable, tempBasePath, domainXmlPath, contactIds, language);
+		User currentUser = userService.getCurrentUser();
+		String key = String.join(
+			"|",
+			"transmissionChains",
+			DashboardSnapshotCache.getUuid(region),
+			DashboardSnapshotCache.getUuid(district),
+			diseases.stream().sorted().map(Disease::name).collect(Collectors.joining(",")),
+			DashboardSnapshotCache.getTime(fromDate),
+			DashboardSnapshotCache.getTime(toDate),
+			currentUser != null ? currentUser.getUuid() : "");
+
+		// the json is cached untranslated, so it is shared by users with different languages
+		Optional<String> json = snapshotCache.get(
+			key,
+			() -> Optional.ofNullable(buildTransmissionNetwork(fromDate, toDate, region, district, diseases)).map(TransmissionNetwork::toJson));
+
+		return json.map(j -> doI18n(j, language)).orElse(null);
 	}
 
 	@Override
@@ -131,15 +111,19 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 		CriteriaBuilder cb = em.getCriteriaBuilder();
 		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 		Root<Contact> root = cq.from(Contact.class);
+		Join<Contact, Case> caze = root.join(Contact.CAZE, JoinType.LEFT);
 
-		cq.where(buildContactFilters(cb, cq, root, fromDate, toDate, region, district, diseases));
+		cq.where(buildContactFilters(cb, cq, root, caze, fromDate, toDate, region, district, diseases));
 
 		cq.select(cb.count(root.get(AbstractDomainObject.ID)));
 
 		return em.createQuery(cq).getSingleResult();
 	}
 
-	private Collection<Long> getContactIds(
+	/**
+	 * @return the network of all contacts matching the filters, loaded in one query, or {@code null} if there are none
+	 */
+	private TransmissionNetwork buildTransmissionNetwork(
 		Date fromDate,
 		Date toDate,
 		RegionReferenceDto region,
@@ -147,26 +131,53 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 		Collection<Disease> diseases) {
 
 		CriteriaBuilder cb = em.getCriteriaBuilder();
-		CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+		CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
 		Root<Contact> root = cq.from(Contact.class);
+		Join<Contact, Case> caze = root.join(Contact.CAZE, JoinType.LEFT);
+		Join<Contact, Case> resultingCase = root.join(Contact.RESULTING_CASE, JoinType.LEFT);
+
+		cq.multiselect(
+			root.get(Contact.PERSON).get(AbstractDomainObject.ID),
+			root.get(Contact.CONTACT_PROXIMITY),
+			caze.get(Case.PERSON).get(AbstractDomainObject.ID),
+			caze.get(Case.UUID),
+			caze.get(Case.REPORT_DATE),
+			caze.get(Case.CASE_CLASSIFICATION),
+			resultingCase.get(Case.UUID),
+			resultingCase.get(Case.REPORT_DATE),
+			resultingCase.get(Case.CASE_CLASSIFICATION),
+			resultingCase.get(Case.DELETED));
+		cq.where(buildContactFilters(cb, cq, root, caze, fromDate, toDate, region, district, diseases));
+
+		TransmissionNetwork network = new TransmissionNetwork();
+		for (Object[] row : em.createQuery(cq).getResultList()) {
+			long contactPersonId = (Long) row[0];
+			network.addPerson(contactPersonId);
+
+			if (row[6] != null && !Boolean.TRUE.equals(row[9]) && row[8] != CaseClassification.NO_CASE) {
+				network.addCase(contactPersonId, (String) row[6], (Date) row[7], (CaseClassification) row[8]);
+			}
 
-		cq.where(buildContactFilters(cb, cq, root, fromDate, toDate, region, district, diseases));
-
-		cq.select(root.get(AbstractDomainObject.ID));
+			if (row[2] != null) {
+				long sourcePersonId = (Long) row[2];
+				network.addCase(sourcePersonId, (String) row[3], (Date) row[4], (CaseClassification) row[5]);
+				network.addContact(sourcePersonId, contactPersonId, (ContactProximity) row[1]);
+			}
+		}
 
-		return em.createQuery(cq).getResultList();
+		return network.getNodeCount() > 0 ? network : null;
 	}
 
 	private Predicate buildContactFilters(
 		CriteriaBuilder cb,
-		CriteriaQuery<Long> cq,
+		CriteriaQuery<?> cq,
 		Root<Contact> root,
+		Join<Contact, Case> caze,
 		Date fromDate,
 		Date toDate,
 		RegionReferenceDto region,
 		DistrictReferenceDto district,
 		Collection<Disease> diseases) {
-		Join<Contact, Case> caze = root.join(Contact.CAZE, JoinType.LEFT);
 
 		return CriteriaBuilderHelper.and(
 			cb,
@@ -184,172 +195,6 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 			district == null ? null : cb.equal(root.join(Contact.DISTRICT).get(District.UUID), district.getUuid()));
 	}
 
-	enum EnvParam {
-
-		DB_USER("user"),
-		DB_PASS("password"),
-		DB_NAME("databaseName"),
-		DB_HOST("serverName"),
-		DB_PORT("portNumber"),
-		CONTACT_IDS,
-		HIERARCHICAL,
-		OUTFILE;
-
-		private final String propertyName;
-
-		EnvParam() {
-			this(null);
-		}
-
-		EnvParam(String propertyName) {
-			this.propertyName = propertyName;
-
-		}
-
-		String toEnv(String value) {
-			return value == null ? null : (this.name() + '=' + value);
-		}
-
-		void put(Map<String, String> env, String value) {
-			if (value == null) {
-				env.remove(this.name());
-			} else {
-				env.put(this.name(), value);
-			}
-		}
-
-		void putFrom(Map<String, String> env, Map<String, String> properties) {
-			env.put(this.name(), properties.get(propertyName));
-		}
-	}
-
-	static String buildTransmissionChainJson(
-		String rScriptExecutable,
-		Path tempBasePath,
-		Path domainXmlPath,
-		Collection<Long> contactIds,
-		Language language) {
-
-		Path tempDir;
-		try {
-			tempDir = Files.createTempDirectory(tempBasePath, "vis_");
-		} catch (IOException e) {
-			throw new UncheckedIOException(e);
-		}
-
-		try {
-			copyVisualisationResourceFile(tempDir, TRANSMISSION_CHAIN_SCRIPT);
-
-			Arrays.stream(REQUIRED_SCRIPTS).forEach(s -> copyVisualisationResourceFile(tempDir, s));
-
-			Path scriptFile = tempDir.resolve(TRANSMISSION_CHAIN_SCRIPT);
-
-			Path outputFile = tempDir.resolve("result.html");
-
-			try {
-				ProcessBuilder pb;
-				if (rScriptExecutable.toUpperCase().contains("RSCRIPT")) {
-					pb = new ProcessBuilder(
-						new String[] {
-							rScriptExecutable,
-							scriptFile.toString() });
-				} else {
-					pb = new ProcessBuilder(
-						new String[] {
-							rScriptExecutable,
-							"-f",
-							scriptFile.toString() });
-				}
-				pb.directory(tempDir.toFile());
-
-				Map<String, String> poolProperties = getConnectionPoolProperties(domainXmlPath, SORMAS_DATA_POOL_JNDI);
-				Map<String, String> env = pb.environment();
-
-				EnvParam.DB_USER.putFrom(env, poolProperties);
-				EnvParam.DB_PASS.putFrom(env, poolProperties);
-				EnvParam.DB_NAME.putFrom(env, poolProperties);
-				EnvParam.DB_HOST.putFrom(env, poolProperties);
-				EnvParam.DB_PORT.putFrom(env, poolProperties);
-
-				String contactIdStr;
-				if (contactIds.isEmpty()) {
-					contactIdStr = "NULL";
-				} else {
-					StringBuilder sb = new StringBuilder(contactIds.size() * 6);
-					contactIds.forEach(l -> {
-						sb.append(l);
-						sb.append(',');
-					});
-					contactIdStr = sb.substring(0, sb.length() - 1);
-				}
-
-				EnvParam.CONTACT_IDS.put(env, contactIdStr);
-				EnvParam.OUTFILE.put(env, outputFile.toString());
-
-				File outFile = tempDir.resolve("console.log").toFile();
-				pb.redirectErrorStream(true);
-				pb.redirectOutput(outFile);
-
-				Process pr = pb.start();
-				int exitCode = pr.waitFor();
-
-				if (exitCode == 0) {
-					String html = new String(Files.readAllBytes(outputFile));
-					return extractJson(html, language);
-				} else {
-					Logger logger = LoggerFactory.getLogger(VisualizationFacadeEjb.class);
-					logger.warn("R failed with code {} : {}", exitCode, pb.command().stream().collect(Collectors.joining(" ")));
-					if (logger.isDebugEnabled() && outFile.length() > 0) {
-						try (Stream<String> lines = Files.lines(outFile.toPath(), Charset.defaultCharset())) {
-							logger.debug(lines.collect(Collectors.joining("\n  ", "Console output of R script:\n  ", "")));
-						}
-					}
-					return null;
-				}
-
-			} catch (IOException e) {
-				throw new UncheckedIOException(e);
-
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				throw new RuntimeException(e);
-			}
-
-		} finally {
-			try {
-				FileUtils.deleteDirectory(tempDir.toFile());
-			} catch (IOException e) {
-				Logger logger = LoggerFactory.getLogger(VisualizationFacadeEjb.class);
-				logger.warn(e.getMessage(), e);
-			}
-		}
-	}
-
-	private static void copyVisualisationResourceFile(Path dir, String resourceName) {
-
-		Path outFile = dir.resolve(resourceName);
-		try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("visualisation/" + resourceName)) {
-			if (in == null) {
-				throw new IllegalArgumentException("Could not find " + resourceName);
-			}
-			Files.copy(in, outFile);
-		} catch (IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
-
-	static String extractJson(String html, Language language) {
-
-		final Parser parser = Parser.htmlParser();
-		final Document doc = parser.parseInput(html, "");
-
-		Element jsonScripElement = doc.select("script[type='application/json']").first();
-
-		String json = jsonScripElement.html();
-		json = doI18n(json, language);
-		return json;
-	}
-
 	private static final Map<String, Enum<?>> supportedEnums;
 	static {
 		Map<String, Enum<?>> map = new HashMap<>();
@@ -361,7 +206,7 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 	private static final Pattern INTERNATIONALIZATION_KEY_PATTERN = Pattern.compile("\\{([A-Za-z_.]+)\\}");
 	private static final String DISEASE_NETWORK_DIAGRAM_PREFIX = "DiseaseNetworkDiagram.";
 
-	private static String doI18n(String json, Language language) {
+	static String doI18n(String json, Language language) {
 
 		Matcher m = INTERNATIONALIZATION_KEY_PATTERN.matcher(json);
 
@@ -393,20 +238,6 @@ public class VisualizationFacadeEjb implements VisualizationFacade {
 		return string.replace("\"", "\\\"");
 	}
 
-	static Map<String, String> getConnectionPoolProperties(Path domPath, String jndiName) throws IOException {
-		final Parser parser = Parser.xmlParser();
-		final org.jsoup.nodes.Document doc;
-		try (Reader rd = Files.newBufferedReader(domPath)) {
-			doc = parser.parseInput(rd, "");
-		}
-
-		String poolName = doc.selectFirst("jdbc-resource[jndi-name=\"" + jndiName + "\"]").attr("pool-name");
-
-		return doc.select("jdbc-connection-pool[name=\"" + poolName + "\"] > property")
-			.stream()
-			.collect(Collectors.toMap(e -> e.attr("name"), e -> e.attr("value")));
-	}
-
 	@LocalBean
 	@Stateless
 	public static class VisualizationFacadeEjbLocal extends VisualizationFacadeEjb {
@@ -7518,4 +7518,149 @@ INSERT INTO schema_version (version_number, comment) VALUES (380, 'Added new ent
 
 
 
+-- 2021-07-05 Pre-aggregated case statistics
+CREATE TABLE casestatisticsfact (
+    case_id bigint NOT NULL,
+    reportdate date NOT NULL,
+    onsetdate date,
+    disease varchar(255),
+    caseclassification varchar(255),
+    outcome varchar(255),
+    sex varchar(255),
+    caseage integer,
+    region_id bigint,
+    district_id bigint,
+    PRIMARY KEY (case_id)
+);
+ALTER TABLE casestatisticsfact OWNER TO sormas_user;
+CREATE INDEX idx_casestatisticsfact_reportdate ON casestatisticsfact (reportdate);
+
+CREATE TABLE casestatisticscube (
+    reportdate date NOT NULL,
+    onsetdate date,
+    disease varchar(255),
+    caseclassification varchar(255),
+    outcome varchar(255),
+    sex varchar(255),
+    caseage integer,
+    region_id bigint,
+    district_id bigint,
+    casecount bigint NOT NULL
+);
+ALTER TABLE casestatisticscube OWNER TO sormas_user;
+CREATE INDEX idx_casestatisticscube_reportdate ON casestatisticscube (reportdate);
+CREATE INDEX idx_casestatisticscube_onsetdate ON casestatisticscube (onsetdate);
+
+INSERT INTO schema_version (version_number, comment) VALUES (381, 'Pre-aggregated case statistics');
+
+-- 2021-07-06 Geocoding cache
+CREATE TABLE geocodingcacheentry (
+    id bigint not null,
+    uuid varchar(36) not null unique,
+    changedate timestamp not null,
+    creationdate timestamp not null,
+    querykey varchar(512) not null unique,
+    latitude double precision,
+    longitude double precision,
+    primary key(id)
+);
+
+ALTER TABLE geocodingcacheentry OWNER TO sormas_user;
+
+INSERT INTO schema_version (version_number, comment) VALUES (382, 'Geocoding cache');
+
+-- 2021-07-13 Transactional outbox for email and SMS notifications
+CREATE TABLE outboxmessage (
+    id bigint not null,
+    uuid varchar(36) not null unique,
+    changedate timestamp not null,
+    creationdate timestamp not null,
+    messagetype varchar(255) not null,
+    recipient varchar(512) not null,
+    subject text,
+    content text,
+    status varchar(255) not null,
+    attemptcount integer not null,
+    nextattemptdate timestamp not null,
+    lasterror text,
+    primary key(id)
+);
+
+ALTER TABLE outboxmessage OWNER TO sormas_user;
+CREATE INDEX idx_outboxmessage_status_nextattemptdate ON outboxmessage (status, nextattemptdate);
+
+INSERT INTO schema_version (version_number, comment) VALUES (383, 'Transactional outbox for notifications');
+
+-- 2021-07-14 Cluster-safe scheduled jobs
+CREATE TABLE scheduledjob (
+    id bigint not null,
+    uuid varchar(36) not null unique,
+    changedate timestamp not null,
+    creationdate timestamp not null,
+    name varchar(255) not null unique,
+    leaseowner varchar(255),
+    leaseend timestamp,
+    lastscheduledrun timestamp,
+    primary key(id)
+);
+
+ALTER TABLE scheduledjob OWNER TO sormas_user;
+
+INSERT INTO schema_version (version_number, comment) VALUES (384, 'Cluster-safe scheduled jobs');
+
+-- 2021-07-15 Queue for audit log entries
+CREATE TABLE auditlogqueue (
+    id bigserial not null,
+    creationdate timestamp not null,
+    payload bytea not null,
+    primary key(id)
+);
+
+ALTER TABLE auditlogqueue OWNER TO sormas_user;
+
+INSERT INTO schema_version (version_number, comment) VALUES (385, 'Queue for audit log entries');
+
+-- 2021-07-16 Content-addressed document storage
+CREATE INDEX idx_documents_storage_reference ON documents (storage_reference);
+
+INSERT INTO schema_version (version_number, comment) VALUES (386, 'Content-addressed document storage');
+
+-- 2021-07-19 Identify geocoding cache entries by the hash of the address
+DELETE FROM geocodingcacheentry;
+ALTER TABLE geocodingcacheentry RENAME COLUMN querykey TO queryhash;
+ALTER TABLE geocodingcacheentry ALTER COLUMN queryhash TYPE varchar(64);
+
+INSERT INTO schema_version (version_number, comment) VALUES (387, 'Identify geocoding cache entries by the hash of the address');
+
+-- 2021-07-19 Mark manually sent messages as sent when they have been delivered
+ALTER TABLE outboxmessage ADD COLUMN manualmessagelog_id bigint;
+ALTER TABLE outboxmessage ADD CONSTRAINT fk_outboxmessage_manualmessagelog_id FOREIGN KEY (manualmessagelog_id) REFERENCES manualmessagelog(id);
+
+INSERT INTO schema_version (version_number, comment) VALUES (388, 'Mark manually sent messages as sent when they have been delivered');
+
+-- 2021-07-19 Aggregate the case statistics by report and onset period instead of day
+CREATE OR REPLACE FUNCTION epi_period_start (indate timestamp)
+RETURNS date AS
+$result$
+	-- epi weeks start on monday like ISO weeks, so the period shares month and epi week with the date
+	SELECT CAST(GREATEST(date_trunc('month', indate), date_trunc('week', indate)) AS date);
+$result$
+LANGUAGE sql IMMUTABLE;
+
+DELETE FROM casestatisticscube;
+DELETE FROM casestatisticsfact;
+ALTER TABLE casestatisticsfact RENAME COLUMN reportdate TO reportperiodstart;
+ALTER TABLE casestatisticsfact RENAME COLUMN onsetdate TO onsetperiodstart;
+ALTER TABLE casestatisticscube RENAME COLUMN reportdate TO reportperiodstart;
+ALTER TABLE casestatisticscube RENAME COLUMN onsetdate TO onsetperiodstart;
+-- the next refresh rebuilds the tables from all cases
+DELETE FROM systemevent WHERE type = 'CASE_STATISTICS_REFRESH';
+
+INSERT INTO schema_version (version_number, comment) VALUES (389, 'Aggregate the case statistics by report and onset period instead of day');
+
+-- 2021-07-19 Log manually sent messages before they have been delivered
+ALTER TABLE manualmessagelog ALTER COLUMN sentdate DROP NOT NULL;
+
+INSERT INTO schema_version (version_number, comment) VALUES (390, 'Log manually sent messages before they have been delivered');
+
 -- *** Insert new sql commands BEFORE this line ***
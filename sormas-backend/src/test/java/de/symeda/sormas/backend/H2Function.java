@@ -38,6 +38,17 @@ public class H2Function {
 		return DateHelper.getEpiWeek(date).getYear().intValue();
 	}
 
+	public static Date epi_period_start(Date date) {
+
+		if (date == null) {
+			return null;
+		}
+
+		Date startOfMonth = DateHelper.getStartOfMonth(date);
+		Date startOfEpiWeek = DateHelper.getEpiWeekStart(DateHelper.getEpiWeek(date));
+		return startOfMonth.after(startOfEpiWeek) ? startOfMonth : startOfEpiWeek;
+	}
+
 	public static boolean similarity_operator(String a, String b) {
 		return a.equalsIgnoreCase(b) ? true : false;
 	}
@@ -49,4 +60,9 @@ public class H2Function {
 	public static Date date(Date timestamp) {
 		return DateHelper.getStartOfDay(timestamp);
 	}
+
+	public static boolean pg_advisory_xact_lock(long key) {
+		// H2 is only used by a single thread in the tests
+		return true;
+	}
 }
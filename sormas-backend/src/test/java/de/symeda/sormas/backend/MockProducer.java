@@ -35,6 +35,7 @@ import javax.enterprise.inject.Specializes;
 import javax.jms.ConnectionFactory;
 import javax.jms.Topic;
 import javax.mail.Session;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
 
 import de.symeda.sormas.api.utils.InfoProvider;
@@ -58,6 +59,7 @@ public class MockProducer {
 	private static final TimerService timerService = mock(TimerService.class);
 	public static final Properties properties = new Properties();
 	private static final UserTransaction userTransaction = mock(UserTransaction.class);
+	private static final TransactionSynchronizationRegistry transactionSynchronizationRegistry = mock(TransactionSynchronizationRegistry.class);
 	private static final SormasToSormasRestClient SORMAS_TO_SORMAS_REST_CLIENT = mock(SormasToSormasRestClient.class);
 	private static final ManagedScheduledExecutorService managedScheduledExecutorService = mock(ManagedScheduledExecutorService.class);
 	private static final String TMP_PATH = "target/tmp";
@@ -101,6 +103,7 @@ public class MockProducer {
 			connectionFactory,
 			timerService,
 			userTransaction,
+			transactionSynchronizationRegistry,
 			SORMAS_TO_SORMAS_REST_CLIENT,
 			managedScheduledExecutorService);
 		wireMocks();
@@ -146,6 +149,11 @@ public class MockProducer {
 		return userTransaction;
 	}
 
+	@Produces
+	public static TransactionSynchronizationRegistry getTransactionSynchronizationRegistry() {
+		return transactionSynchronizationRegistry;
+	}
+
 	@Produces
 	public static Principal getPrincipal() {
 		return principal;
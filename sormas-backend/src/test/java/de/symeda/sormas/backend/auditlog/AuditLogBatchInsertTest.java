@@ -0,0 +1,126 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.symeda.auditlog.api.ChangeType;
+import de.symeda.sormas.backend.auditlog.AuditLogBatchInsert.LoggedTransaction;
+
+public class AuditLogBatchInsertTest {
+
+	private Connection connection;
+	private PreparedStatement idStatement;
+	private PreparedStatement entryStatement;
+	private PreparedStatement attributeStatement;
+
+	@Before
+	public void setUp() throws SQLException {
+
+		connection = mock(Connection.class);
+		idStatement = mock(PreparedStatement.class);
+		entryStatement = mock(PreparedStatement.class);
+		attributeStatement = mock(PreparedStatement.class);
+		when(connection.prepareStatement(startsWith("SELECT nextval('auditlog_seq')"))).thenReturn(idStatement);
+		when(connection.prepareStatement(startsWith("INSERT INTO auditlogentry ("))).thenReturn(entryStatement);
+		when(connection.prepareStatement(startsWith("INSERT INTO auditlogentry_attributes"))).thenReturn(attributeStatement);
+
+		// the sequence hands out as many ids as requested
+		AtomicLong sequence = new AtomicLong();
+		AtomicInteger requested = new AtomicInteger();
+		doAnswer(invocation -> {
+			requested.set(invocation.getArgument(1));
+			return null;
+		}).when(idStatement).setInt(eq(1), anyInt());
+		when(idStatement.executeQuery()).thenAnswer(invocation -> {
+			AtomicInteger remaining = new AtomicInteger(requested.get());
+			ResultSet resultSet = mock(ResultSet.class);
+			when(resultSet.next()).thenAnswer(next -> remaining.getAndDecrement() > 0);
+			when(resultSet.getLong(1)).thenAnswer(getLong -> sequence.incrementAndGet());
+			return resultSet;
+		});
+	}
+
+	@Test
+	public void testInsertInBatches() throws SQLException {
+
+		List<AuditLogEntry> firstEntries = new ArrayList<>();
+		for (int i = 0; i < AuditLogBatchInsert.BATCH_SIZE; i++) {
+			firstEntries.add(entry("A" + i, null));
+		}
+		List<AuditLogEntry> secondEntries = Collections.singletonList(entry("B", Collections.singletonMap("firstName", "Jane")));
+		Date firstCompletion = new Date(1000);
+		Date secondCompletion = new Date(2000);
+
+		AuditLogBatchInsert.insert(
+			connection,
+			Arrays.asList(new LoggedTransaction(firstEntries, firstCompletion), new LoggedTransaction(secondEntries, secondCompletion)));
+
+		// the ids follow the order of the entries, also across batches
+		for (int i = 0; i < firstEntries.size(); i++) {
+			assertEquals(Long.valueOf(i + 1), firstEntries.get(i).getId());
+		}
+		assertEquals(Long.valueOf(AuditLogBatchInsert.BATCH_SIZE + 1), secondEntries.get(0).getId());
+
+		verify(idStatement).setInt(1, AuditLogBatchInsert.BATCH_SIZE);
+		verify(idStatement).setInt(1, 1);
+		verify(entryStatement, times(AuditLogBatchInsert.BATCH_SIZE + 1)).addBatch();
+		verify(entryStatement, times(2)).executeBatch();
+		verify(attributeStatement).addBatch();
+		verify(attributeStatement).executeBatch();
+
+		// the entries are stamped with the completion of their transaction
+		verify(entryStatement, times(AuditLogBatchInsert.BATCH_SIZE)).setTimestamp(8, new Timestamp(firstCompletion.getTime()));
+		verify(entryStatement).setTimestamp(8, new Timestamp(secondCompletion.getTime()));
+	}
+
+	private AuditLogEntry entry(String uuid, Map<String, String> attributes) {
+
+		AuditLogEntry entry = new AuditLogEntry();
+		entry.setUuid(uuid);
+		entry.setClazz("de.symeda.sormas.backend.person.Person");
+		entry.setChangeType(ChangeType.UPDATE);
+		entry.setEditingUser("admin");
+		entry.setTransactionId("tx1");
+		entry.setDetectionTimestamp(new Date());
+		entry.setAttributes(attributes);
+		return entry;
+	}
+}
@@ -0,0 +1,53 @@
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import de.symeda.auditlog.api.ChangeType;
+
+public class AuditLogQueueServiceTest {
+
+	@Test
+	public void testSerialize() {
+
+		Map<String, String> attributes = new HashMap<>();
+		attributes.put("firstName", "Jane");
+		attributes.put("lastName", null);
+
+		List<AuditLogEntry> entries =
+			Arrays.asList(entry("A", ChangeType.CREATE, attributes), entry("B", ChangeType.UPDATE, null), entry("A", ChangeType.DELETE, null));
+
+		List<AuditLogEntry> deserialized = AuditLogQueueService.deserialize(AuditLogQueueService.serialize(entries));
+
+		assertEquals(3, deserialized.size());
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(entries.get(i).getUuid(), deserialized.get(i).getUuid());
+			assertEquals(entries.get(i).getChangeType(), deserialized.get(i).getChangeType());
+			assertEquals(entries.get(i).getDetectionTimestamp(), deserialized.get(i).getDetectionTimestamp());
+			assertEquals(entries.get(i).getTransactionId(), deserialized.get(i).getTransactionId());
+		}
+		assertEquals(attributes, deserialized.get(0).getAttributes());
+		assertNull(deserialized.get(1).getAttributes());
+	}
+
+	private AuditLogEntry entry(String uuid, ChangeType changeType, Map<String, String> attributes) {
+
+		AuditLogEntry entry = new AuditLogEntry();
+		entry.setUuid(uuid);
+		entry.setClazz("de.symeda.sormas.backend.person.Person");
+		entry.setChangeType(changeType);
+		entry.setEditingUser("admin");
+		entry.setTransactionId("tx1");
+		entry.setDetectionTimestamp(new Date());
+		entry.setAttributes(attributes);
+		return entry;
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.auditlog;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import de.symeda.auditlog.api.ChangeType;
+import de.symeda.sormas.backend.auditlog.AuditLogQueueService.DrainResult;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+
+public class AuditLogWriterTest {
+
+	@InjectMocks
+	private AuditLogWriter writer;
+
+	@Mock
+	private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+	@Mock
+	private EntityManager auditEm;
+	@Mock
+	private Session session;
+	@Mock
+	private AuditLogQueueService queueService;
+	@Mock
+	private ConfigFacadeEjbLocal configFacade;
+
+	/** the resources and synchronization of the current transaction */
+	private Map<Object, Object> resources;
+	private Synchronization synchronization;
+
+	@Before
+	public void setUp() {
+
+		MockitoAnnotations.initMocks(this);
+
+		when(auditEm.unwrap(Session.class)).thenReturn(session);
+		when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+		when(transactionSynchronizationRegistry.getResource(any())).thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+		doAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1))).when(transactionSynchronizationRegistry)
+			.putResource(any(), any());
+		doAnswer(invocation -> synchronization = invocation.getArgument(0)).when(transactionSynchronizationRegistry)
+			.registerInterposedSynchronization(any());
+
+		when(queueService.drain(anyInt())).thenReturn(new DrainResult(0, 0, null, 0));
+		when(configFacade.getAuditorQueueMaxBacklog()).thenReturn(2);
+	}
+
+	@Test
+	public void testEntriesAreWrittenAtCompletion() {
+
+		beginTransaction();
+		writer.write(entry());
+		writer.write(entry());
+		verify(session, never()).doWork(any());
+
+		synchronization.beforeCompletion();
+		verify(session).doWork(any());
+
+		// entries logged while the transaction is being completed are written right away
+		writer.write(entry());
+		verify(session, times(2)).doWork(any());
+	}
+
+	@Test
+	public void testEntriesOfRolledBackTransactionAreDropped() {
+
+		beginTransaction();
+		writer.write(entry());
+		when(transactionSynchronizationRegistry.getTransactionStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+		completeTransaction();
+
+		verify(session, never()).doWork(any());
+	}
+
+	@Test
+	public void testDirectWriteWaitsForQueue() {
+
+		// entries that may still be queued from before are moved first
+		beginTransaction();
+		writer.write(entry());
+		completeTransaction();
+
+		beginTransaction();
+		writer.write(entry());
+		completeTransaction();
+
+		InOrder inOrder = inOrder(queueService, session);
+		inOrder.verify(queueService).drain(anyInt());
+		inOrder.verify(session, times(2)).doWork(any());
+		verify(queueService, never()).enqueue(any());
+	}
+
+	@Test
+	public void testQueueBackPressure() {
+
+		when(configFacade.isAuditorQueueEnabled()).thenReturn(true);
+		List<String> queueCalls = new ArrayList<>();
+		doAnswer(invocation -> queueCalls.add("enqueue")).when(queueService).enqueue(any());
+		doAnswer(invocation -> {
+			queueCalls.add("drain");
+			return new DrainResult(0, 0, null, 0);
+		}).when(queueService).drain(anyInt());
+		AuditLogEntry first = entry();
+		AuditLogEntry second = entry();
+
+		beginTransaction();
+		writer.write(first);
+		writer.write(second);
+		completeTransaction();
+		verify(queueService).enqueue(Arrays.asList(first, second));
+
+		for (int i = 0; i < 3; i++) {
+			beginTransaction();
+			writer.write(entry());
+			completeTransaction();
+		}
+
+		// the last transaction found the queue full and drained it before adding to it, nothing was written directly
+		assertEquals(Arrays.asList("enqueue", "enqueue", "enqueue", "drain", "enqueue"), queueCalls);
+		verify(session, never()).doWork(any());
+	}
+
+	private void beginTransaction() {
+		resources = new HashMap<>();
+		synchronization = null;
+	}
+
+	private void completeTransaction() {
+		if (synchronization != null) {
+			synchronization.beforeCompletion();
+			synchronization.afterCompletion(Status.STATUS_COMMITTED);
+		}
+		resources = Collections.emptyMap();
+	}
+
+	private AuditLogEntry entry() {
+
+		AuditLogEntry entry = new AuditLogEntry();
+		entry.setUuid("A");
+		entry.setClazz("de.symeda.sormas.backend.person.Person");
+		entry.setChangeType(ChangeType.UPDATE);
+		entry.setEditingUser("admin");
+		entry.setTransactionId("tx1");
+		entry.setDetectionTimestamp(new Date());
+		return entry;
+	}
+}
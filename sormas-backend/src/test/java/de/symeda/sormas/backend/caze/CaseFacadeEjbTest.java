@@ -17,6 +17,7 @@
  *******************************************************************************/
 package de.symeda.sormas.backend.caze;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -59,6 +60,7 @@ import org.junit.rules.ExpectedException;
 import de.symeda.sormas.api.Disease;
 import de.symeda.sormas.api.Language;
 import de.symeda.sormas.api.VisitOrigin;
+import de.symeda.sormas.api.caze.CaseBulkEditData;
 import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseCriteria;
 import de.symeda.sormas.api.caze.CaseDataDto;
@@ -77,6 +79,9 @@ import de.symeda.sormas.api.clinicalcourse.ClinicalVisitDto;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.ContactReferenceDto;
 import de.symeda.sormas.api.contact.FollowUpStatus;
+import de.symeda.sormas.api.dashboard.MapCaseDisplayMode;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.document.DocumentDto;
 import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.api.epidata.EpiDataDto;
@@ -113,6 +118,8 @@ import de.symeda.sormas.api.sample.SampleMaterial;
 import de.symeda.sormas.api.share.ExternalShareStatus;
 import de.symeda.sormas.api.symptoms.SymptomState;
 import de.symeda.sormas.api.symptoms.SymptomsDto;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.api.systemevents.SystemEventType;
 import de.symeda.sormas.api.task.TaskContext;
 import de.symeda.sormas.api.task.TaskDto;
 import de.symeda.sormas.api.task.TaskStatus;
@@ -326,6 +333,44 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(null, contact.getFollowUpUntil());
 	}
 
+	@Test
+	public void testBulkDiseaseChangeUpdatesContacts() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		List<String> caseUuids = new ArrayList<>();
+		List<ContactDto> contacts = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			PersonDto cazePerson = creator.createPerson("Case", "Person" + i);
+			CaseDataDto caze = creator.createCase(
+				user.toReference(),
+				cazePerson.toReference(),
+				Disease.EVD,
+				CaseClassification.PROBABLE,
+				InvestigationStatus.PENDING,
+				new Date(),
+				rdcf);
+			caseUuids.add(caze.getUuid());
+			PersonDto contactPerson = creator.createPerson("Contact", "Person" + i);
+			contacts.add(
+				creator.createContact(user.toReference(), user.toReference(), contactPerson.toReference(), caze, new Date(), new Date(), null));
+		}
+
+		CaseBulkEditData bulkEditData = new CaseBulkEditData();
+		bulkEditData.setDisease(Disease.MEASLES);
+		getCaseFacade().saveBulkCase(caseUuids, bulkEditData, true, false, false, false, false);
+
+		// the contacts of all cases are updated after the cases have been saved
+		for (ContactDto contact : contacts) {
+			contact = getContactFacade().getContactByUuid(contact.getUuid());
+			assertEquals(Disease.MEASLES, contact.getDisease());
+			assertEquals(FollowUpStatus.NO_FOLLOW_UP, contact.getFollowUpStatus());
+			assertEquals(null, contact.getFollowUpUntil());
+		}
+	}
+
 	@Test
 	public void testCountCasesWithMisingContactInformation() {
 		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
@@ -441,6 +486,7 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 			caze.getDisease(),
 			DateHelper.subtractDays(new Date(), 1),
 			DateHelper.addDays(new Date(), 1),
+			null,
 			null);
 
 		List<MapCaseDto> mapCaseDtos = getCaseFacade().getCasesForMap(
@@ -449,6 +495,7 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 			caze.getDisease(),
 			DateHelper.subtractDays(new Date(), 1),
 			DateHelper.addDays(new Date(), 1),
+			null,
 			null);
 
 		// List should have one entry
@@ -456,6 +503,52 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(1, mapCaseDtos.size());
 	}
 
+	@Test
+	public void testMapCaseClusters() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		createMapCase(user, rdcf, CaseClassification.CONFIRMED, 10.0, 10.0);
+		createMapCase(user, rdcf, CaseClassification.SUSPECT, 10.001, 10.001);
+		createMapCase(user, rdcf, CaseClassification.SUSPECT, 10.002, 10.002);
+		createMapCase(user, rdcf, CaseClassification.SUSPECT, -30.0, -30.0);
+
+		Date from = DateHelper.subtractDays(new Date(), 1);
+		Date to = DateHelper.addDays(new Date(), 1);
+		MapViewportDto viewport = new MapViewportDto(0, 0, 20, 20, 6);
+
+		List<MapMarkerClusterDto<CaseClassification>> clusters = getCaseFacade()
+			.getCaseClustersForMap(null, null, Disease.EVD, from, to, null, MapCaseDisplayMode.CASE_ADDRESS, viewport);
+
+		// the three cases within the viewport are in the same cell, the fourth one is outside
+		assertEquals(1, clusters.size());
+		MapMarkerClusterDto<CaseClassification> cluster = clusters.get(0);
+		assertEquals(3, cluster.getTotalCount());
+		assertEquals(1, cluster.getCount(CaseClassification.CONFIRMED));
+		assertEquals(2, cluster.getCount(CaseClassification.SUSPECT));
+		assertEquals(viewport.getCellCenter(7), cluster.getLatitude(), 0);
+		assertEquals(viewport.getCellCenter(7), cluster.getLongitude(), 0);
+
+		// the facility has no coordinates
+		assertEquals(
+			0,
+			getCaseFacade().getCaseClustersForMap(null, null, Disease.EVD, from, to, null, MapCaseDisplayMode.FACILITY, viewport).size());
+
+		assertEquals(3, getCaseFacade().getCasesForMap(null, null, Disease.EVD, from, to, null, viewport).size());
+		assertEquals(3L, (long) getCaseFacade().countCasesForMap(null, null, Disease.EVD, from, to, null, viewport));
+		assertEquals(4, getCaseFacade().getCasesForMap(null, null, Disease.EVD, from, to, null, null).size());
+	}
+
+	private void createMapCase(UserDto user, RDCFEntities rdcf, CaseClassification classification, double latitude, double longitude) {
+
+		PersonDto person = creator.createPerson("Case", "Person", p -> {
+			p.getAddress().setLatitude(latitude);
+			p.getAddress().setLongitude(longitude);
+		});
+		creator.createCase(user.toReference(), person.toReference(), Disease.EVD, classification, InvestigationStatus.PENDING, new Date(), rdcf);
+	}
+
 	@Test
 	public void testGetIndexList() {
 
@@ -1487,6 +1580,9 @@ public class CaseFacadeEjbTest extends AbstractBeanTest {
 		cut.archiveAllArchivableCases(70, LocalDate.now().plusDays(71));
 		assertTrue(cut.isArchived(case1.getUuid()));
 		assertTrue(cut.isArchived(case2.getUuid()));
+
+		SystemEventDto systemEvent = getSystemEventFacade().getLatestSuccessByType(SystemEventType.ARCHIVE_CASES);
+		assertThat(systemEvent.getAdditionalInfo(), containsString("Case entities"));
 	}
 
 	@Test
@@ -0,0 +1,229 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.caze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.IntegerRange;
+import de.symeda.sormas.api.Month;
+import de.symeda.sormas.api.Year;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.externalsurveillancetool.ExternalSurveillanceToolException;
+import de.symeda.sormas.api.person.ApproximateAgeType;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.person.Sex;
+import de.symeda.sormas.api.statistics.StatisticsCaseAttribute;
+import de.symeda.sormas.api.statistics.StatisticsCaseCriteria;
+import de.symeda.sormas.api.statistics.StatisticsCaseSubAttribute;
+import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.caze.CaseStatisticsFacadeEjb.CaseStatisticsFacadeEjbLocal;
+
+public class CaseStatisticsCubeServiceTest extends AbstractBeanTest {
+
+	private static final String ATTRIBUTE_COLUMN_DEFINITIONS =
+		"reportperiodstart date NOT NULL, onsetperiodstart date, disease varchar(255), caseclassification varchar(255), outcome varchar(255), "
+			+ "sex varchar(255), caseage integer, region_id bigint, district_id bigint";
+
+	@Before
+	public void createStatisticsTables() {
+
+		// the tables are created by the schema script, which is not used for the tests
+		EntityManager em = getEntityManager();
+		em.getTransaction().begin();
+		em.createNativeQuery(
+			"CREATE TABLE IF NOT EXISTS " + CaseStatisticsCubeService.FACT_TABLE_NAME + " (case_id bigint NOT NULL, " + ATTRIBUTE_COLUMN_DEFINITIONS
+				+ ", PRIMARY KEY (case_id))")
+			.executeUpdate();
+		em.createNativeQuery(
+			"CREATE TABLE IF NOT EXISTS " + CaseStatisticsCubeService.CUBE_TABLE_NAME + " (" + ATTRIBUTE_COLUMN_DEFINITIONS
+				+ ", casecount bigint NOT NULL)")
+			.executeUpdate();
+		em.getTransaction().commit();
+	}
+
+	@Test
+	public void testIsCoveredGroupings() {
+
+		StatisticsCaseCriteria criteria = new StatisticsCaseCriteria();
+
+		assertTrue(CaseStatisticsCubeService.isCovered(criteria, null, null, null, null));
+		assertTrue(
+			CaseStatisticsCubeService.isCovered(
+				criteria,
+				StatisticsCaseAttribute.ONSET_TIME,
+				StatisticsCaseSubAttribute.EPI_WEEK_OF_YEAR,
+				StatisticsCaseAttribute.JURISDICTION,
+				StatisticsCaseSubAttribute.DISTRICT));
+		assertTrue(CaseStatisticsCubeService.isCovered(criteria, StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS, null, StatisticsCaseAttribute.SEX, null));
+
+		assertFalse(
+			CaseStatisticsCubeService
+				.isCovered(criteria, StatisticsCaseAttribute.JURISDICTION, StatisticsCaseSubAttribute.COMMUNITY, null, null));
+		assertFalse(
+			CaseStatisticsCubeService.isCovered(criteria, StatisticsCaseAttribute.OUTCOME_TIME, StatisticsCaseSubAttribute.YEAR, null, null));
+		assertFalse(CaseStatisticsCubeService.isCovered(criteria, null, null, StatisticsCaseAttribute.REPORTING_USER_ROLE, null));
+	}
+
+	@Test
+	public void testIsCoveredFilters() {
+
+		StatisticsCaseCriteria criteria = new StatisticsCaseCriteria();
+		criteria.years(Arrays.asList(new Year(2020), new Year(2021)), StatisticsCaseAttribute.REPORT_TIME);
+		criteria.addAgeIntervals(Arrays.asList(new IntegerRange(10, 40)));
+		criteria.sexes(Arrays.asList(Sex.FEMALE));
+		criteria.diseases(Arrays.asList(Disease.CORONAVIRUS));
+		assertTrue(CaseStatisticsCubeService.isCovered(criteria, StatisticsCaseAttribute.DISEASE, null, null, null));
+
+		criteria = new StatisticsCaseCriteria();
+		criteria.years(Arrays.asList(new Year(2020)), StatisticsCaseAttribute.OUTCOME_TIME);
+		assertFalse(CaseStatisticsCubeService.isCovered(criteria, null, null, null, null));
+
+		criteria = new StatisticsCaseCriteria();
+		criteria.dateRange(new Date(), new Date(), StatisticsCaseAttribute.ONSET_TIME);
+		assertFalse(CaseStatisticsCubeService.isCovered(criteria, null, null, null, null));
+
+		criteria = new StatisticsCaseCriteria();
+		criteria.reportingUserRoles(Collections.singletonList(UserRole.SURVEILLANCE_OFFICER));
+		assertFalse(CaseStatisticsCubeService.isCovered(criteria, null, null, null, null));
+	}
+
+	@Test
+	public void testCubeMatchesCaseCountQuery() throws ExternalSurveillanceToolException {
+
+		RDCF rdcf1 = creator.createRDCF("Region 1", "District 1", "Community 1", "Facility 1");
+		RDCF rdcf2 = creator.createRDCF("Region 2", "District 2", "Community 2", "Facility 2");
+		UserReferenceDto user = creator.createUser(rdcf1, UserRole.SURVEILLANCE_SUPERVISOR).toReference();
+
+		// monday of the epi week that spans march and april 2021
+		createCase(user, rdcf1, Disease.CORONAVIRUS, Sex.FEMALE, 34, DateHelper.getDateZero(2021, 2, 29));
+		createCase(user, rdcf1, Disease.CORONAVIRUS, Sex.MALE, 35, DateHelper.getDateZero(2021, 3, 1));
+		createCase(user, rdcf2, Disease.CORONAVIRUS, Sex.FEMALE, 7, DateHelper.getDateZero(2021, 3, 2));
+		CaseDataDto changedCase = createCase(user, rdcf2, Disease.EVD, null, 80, DateHelper.getDateZero(2021, 3, 5));
+		// belongs to the first epi week of 2021
+		CaseDataDto deletedCase = createCase(user, rdcf1, Disease.EVD, Sex.MALE, 61, DateHelper.getDateZero(2020, 11, 31));
+		createCase(user, rdcf2, Disease.CORONAVIRUS, Sex.MALE, 61, DateHelper.getDateZero(2021, 0, 1));
+
+		CaseStatisticsFacadeEjbLocal caseStatisticsFacade = getBean(CaseStatisticsFacadeEjbLocal.class);
+		caseStatisticsFacade.refreshStatisticsCube();
+		assertCubeMatchesCaseCountQuery();
+
+		// the next refresh only re-reads the changed cases
+		changedCase.setDisease(Disease.CORONAVIRUS);
+		changedCase.setReportDate(DateHelper.getDateZero(2021, 2, 31));
+		getCaseFacade().saveCase(changedCase);
+		getCaseFacade().deleteCase(deletedCase.getUuid());
+		caseStatisticsFacade.refreshStatisticsCube();
+		assertCubeMatchesCaseCountQuery();
+	}
+
+	private void assertCubeMatchesCaseCountQuery() {
+
+		StatisticsCaseCriteria criteria = new StatisticsCaseCriteria();
+		assertCubeMatchesCaseCountQuery(criteria, null, null, null, null);
+		for (StatisticsCaseSubAttribute timeGrouping : Arrays.asList(
+			StatisticsCaseSubAttribute.YEAR,
+			StatisticsCaseSubAttribute.QUARTER,
+			StatisticsCaseSubAttribute.MONTH,
+			StatisticsCaseSubAttribute.EPI_WEEK,
+			StatisticsCaseSubAttribute.QUARTER_OF_YEAR,
+			StatisticsCaseSubAttribute.MONTH_OF_YEAR,
+			StatisticsCaseSubAttribute.EPI_WEEK_OF_YEAR)) {
+			assertCubeMatchesCaseCountQuery(criteria, StatisticsCaseAttribute.REPORT_TIME, timeGrouping, StatisticsCaseAttribute.DISEASE, null);
+			assertCubeMatchesCaseCountQuery(criteria, StatisticsCaseAttribute.ONSET_TIME, timeGrouping, StatisticsCaseAttribute.SEX, null);
+		}
+		assertCubeMatchesCaseCountQuery(
+			criteria,
+			StatisticsCaseAttribute.JURISDICTION,
+			StatisticsCaseSubAttribute.REGION,
+			StatisticsCaseAttribute.AGE_INTERVAL_5_YEARS,
+			null);
+		assertCubeMatchesCaseCountQuery(
+			criteria,
+			StatisticsCaseAttribute.JURISDICTION,
+			StatisticsCaseSubAttribute.DISTRICT,
+			StatisticsCaseAttribute.CLASSIFICATION,
+			null);
+		assertCubeMatchesCaseCountQuery(criteria, StatisticsCaseAttribute.AGE_INTERVAL_1_YEAR, null, StatisticsCaseAttribute.OUTCOME, null);
+
+		criteria.months(Collections.singletonList(Month.APRIL), StatisticsCaseAttribute.REPORT_TIME);
+		criteria.sexes(Collections.singletonList(Sex.FEMALE));
+		criteria.addAgeIntervals(Collections.singletonList(new IntegerRange(30, 39)));
+		assertCubeMatchesCaseCountQuery(criteria, StatisticsCaseAttribute.REPORT_TIME, StatisticsCaseSubAttribute.EPI_WEEK, null, null);
+	}
+
+	private void assertCubeMatchesCaseCountQuery(
+		StatisticsCaseCriteria criteria,
+		StatisticsCaseAttribute rowGrouping,
+		StatisticsCaseSubAttribute rowSubGrouping,
+		StatisticsCaseAttribute columnGrouping,
+		StatisticsCaseSubAttribute columnSubGrouping) {
+
+		assertTrue(CaseStatisticsCubeService.isCovered(criteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping));
+
+		CaseStatisticsFacadeEjbLocal caseStatisticsFacade = getBean(CaseStatisticsFacadeEjbLocal.class);
+		assertEquals(
+			rowGrouping + " " + rowSubGrouping + " by " + columnGrouping + " " + columnSubGrouping,
+			queryCaseCounts(caseStatisticsFacade.buildCaseCountQuery(criteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping)),
+			queryCaseCounts(
+				caseStatisticsFacade.buildCubeCaseCountQuery(criteria, rowGrouping, rowSubGrouping, columnGrouping, columnSubGrouping)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> queryCaseCounts(Pair<String, List<Object>> queryAndParameters) {
+
+		Query query = getEntityManager().createNativeQuery(queryAndParameters.getKey());
+		for (int i = 0; i < queryAndParameters.getValue().size(); i++) {
+			query.setParameter(i + 1, queryAndParameters.getValue().get(i));
+		}
+
+		return ((List<Object[]>) query.getResultList()).stream()
+			.map(row -> ((Number) row[0]).longValue() + " " + row[1] + " " + row[2])
+			.sorted()
+			.collect(Collectors.toList());
+	}
+
+	private CaseDataDto createCase(UserReferenceDto user, RDCF rdcf, Disease disease, Sex sex, int age, Date reportDate) {
+
+		PersonDto person = creator.createPerson("Case", "Person", p -> {
+			p.setSex(sex);
+			p.setApproximateAge(age);
+			p.setApproximateAgeType(ApproximateAgeType.YEARS);
+			p.setApproximateAgeReferenceDate(new Date());
+		});
+		return creator.createCase(user, person.toReference(), disease, CaseClassification.PROBABLE, InvestigationStatus.PENDING, reportDate, rdcf);
+	}
+}
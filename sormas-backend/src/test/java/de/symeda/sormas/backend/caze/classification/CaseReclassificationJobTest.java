@@ -0,0 +1,152 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.caze.classification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.caze.classification.CaseReclassificationProgressDto;
+import de.symeda.sormas.api.exposure.ExposureDto;
+import de.symeda.sormas.api.exposure.ExposureType;
+import de.symeda.sormas.api.symptoms.SymptomState;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.YesNoUnknown;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
+import de.symeda.sormas.backend.TestDataCreator.RDCFEntities;
+import de.symeda.sormas.backend.caze.classification.CaseClassificationFacadeEjb.ReclassificationChunkResult;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb;
+
+public class CaseReclassificationJobTest extends AbstractBeanTest {
+
+	private CaseDataDto suspectCase;
+	private CaseDataDto probableCase;
+	private CaseDataDto unchangedCase;
+	private CaseDataDto noCase;
+
+	@Before
+	public void createCases() {
+
+		// the classifications are only changed by the re-classification
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.FEATURE_AUTOMATIC_CASE_CLASSIFICATION, "false");
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user =
+			creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		suspectCase = createEvdCase(user, rdcf, CaseClassification.NOT_CLASSIFIED);
+		suspectCase.getSymptoms().setFever(SymptomState.YES);
+		suspectCase.getSymptoms().setGumsBleeding(SymptomState.YES);
+		suspectCase = getCaseFacade().saveCase(suspectCase);
+
+		// probable because of an exposure, which is loaded separately from the case
+		probableCase = createEvdCase(user, rdcf, CaseClassification.NOT_CLASSIFIED);
+		probableCase.getSymptoms().setFever(SymptomState.YES);
+		probableCase.getSymptoms().setGumsBleeding(SymptomState.YES);
+		probableCase.setOutcome(CaseOutcome.DECEASED);
+		ExposureDto exposure = ExposureDto.build(ExposureType.WORK);
+		exposure.setHandlingSamples(YesNoUnknown.YES);
+		probableCase.getEpiData().getExposures().add(exposure);
+		probableCase = getCaseFacade().saveCase(probableCase);
+
+		unchangedCase = createEvdCase(user, rdcf, CaseClassification.NOT_CLASSIFIED);
+
+		noCase = createEvdCase(user, rdcf, CaseClassification.NO_CASE);
+		noCase.getSymptoms().setFever(SymptomState.YES);
+		noCase.getSymptoms().setGumsBleeding(SymptomState.YES);
+		noCase = getCaseFacade().saveCase(noCase);
+
+		getEntityManager().clear();
+	}
+
+	@Test
+	public void testReclassifyCaseChunks() {
+
+		CaseClassificationFacadeEjb caseClassificationFacade = getCaseClassificationLogic();
+
+		ReclassificationChunkResult first = caseClassificationFacade.reclassifyCaseChunk(Disease.EVD, null, 2);
+		assertEquals(2, first.getProcessedCount());
+		assertEquals(2, first.getChangedCount());
+		assertEquals(getCaseId(probableCase), first.getLastCaseId());
+
+		ReclassificationChunkResult second = caseClassificationFacade.reclassifyCaseChunk(Disease.EVD, first.getLastCaseId(), 2);
+		assertEquals(1, second.getProcessedCount());
+		assertEquals(0, second.getChangedCount());
+		assertEquals(getCaseId(unchangedCase), second.getLastCaseId());
+
+		// the case that is no case is not re-classified
+		ReclassificationChunkResult third = caseClassificationFacade.reclassifyCaseChunk(Disease.EVD, second.getLastCaseId(), 2);
+		assertEquals(0, third.getProcessedCount());
+		assertNull(third.getLastCaseId());
+
+		getEntityManager().clear();
+		assertEquals(CaseClassification.SUSPECT, getCaseFacade().getCaseDataByUuid(suspectCase.getUuid()).getCaseClassification());
+		assertEquals(CaseClassification.PROBABLE, getCaseFacade().getCaseDataByUuid(probableCase.getUuid()).getCaseClassification());
+		assertEquals(CaseClassification.NOT_CLASSIFIED, getCaseFacade().getCaseDataByUuid(unchangedCase.getUuid()).getCaseClassification());
+		assertEquals(CaseClassification.NO_CASE, getCaseFacade().getCaseDataByUuid(noCase.getUuid()).getCaseClassification());
+	}
+
+	@Test
+	public void testOnlyOneReclassificationRuns() {
+
+		CaseReclassificationJob job = getBean(CaseReclassificationJob.class);
+
+		assertTrue(job.prepare(Disease.EVD));
+		// neither for the same nor for another disease while one is running
+		assertFalse(job.prepare(Disease.EVD));
+		assertFalse(job.prepare(Disease.CHOLERA));
+
+		job.reclassify(Disease.EVD);
+
+		CaseReclassificationProgressDto progress = job.getProgress(Disease.EVD);
+		assertEquals(SystemEventStatus.SUCCESS, progress.getStatus());
+		assertEquals(3, progress.getTotalCount());
+		assertEquals(3, progress.getProcessedCount());
+		assertEquals(2, progress.getChangedCount());
+
+		assertTrue(job.prepare(Disease.CHOLERA));
+		job.reclassify(Disease.CHOLERA);
+		assertEquals(SystemEventStatus.SUCCESS, job.getProgress(Disease.CHOLERA).getStatus());
+	}
+
+	private CaseDataDto createEvdCase(UserDto user, RDCFEntities rdcf, CaseClassification classification) {
+		return creator.createCase(
+			user.toReference(),
+			creator.createPerson("Case", "Person").toReference(),
+			Disease.EVD,
+			classification,
+			InvestigationStatus.PENDING,
+			new Date(),
+			rdcf);
+	}
+
+	private Long getCaseId(CaseDataDto caze) {
+		return getCaseService().getByUuid(caze.getUuid()).getId();
+	}
+}
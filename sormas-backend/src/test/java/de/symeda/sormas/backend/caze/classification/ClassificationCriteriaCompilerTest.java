@@ -0,0 +1,199 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.backend.caze.classification;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.caze.classification.ClassificationAllOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCaseCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationEpiDataCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationExposureCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationNoneOfCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPathogenTestPositiveResultCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationPersonAgeBetweenYearsCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationSymptomsCriteriaDto;
+import de.symeda.sormas.api.caze.classification.ClassificationXOfCriteriaDto;
+import de.symeda.sormas.api.epidata.EpiDataDto;
+import de.symeda.sormas.api.event.EventDto;
+import de.symeda.sormas.api.exposure.ExposureDto;
+import de.symeda.sormas.api.exposure.ExposureType;
+import de.symeda.sormas.api.person.ApproximateAgeType;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.sample.PathogenTestDto;
+import de.symeda.sormas.api.sample.PathogenTestResultType;
+import de.symeda.sormas.api.sample.PathogenTestType;
+import de.symeda.sormas.api.symptoms.SymptomState;
+import de.symeda.sormas.api.symptoms.SymptomsDto;
+import de.symeda.sormas.api.utils.YesNoUnknown;
+import de.symeda.sormas.backend.caze.classification.ClassificationCriteriaCompiler.ClassificationEvaluator;
+import de.symeda.sormas.backend.caze.classification.ClassificationCriteriaCompiler.EvaluationCost;
+
+/**
+ * @see ClassificationCriteriaCompiler
+ */
+public class ClassificationCriteriaCompilerTest {
+
+	private final ClassificationCriteriaDto suspect = new ClassificationAllOfCriteriaDto(
+		new ClassificationSymptomsCriteriaDto(SymptomsDto.FEVER),
+		new ClassificationXOfCriteriaDto(
+			1,
+			new ClassificationSymptomsCriteriaDto(SymptomsDto.COUGH),
+			new ClassificationEpiDataCriteriaDto(EpiDataDto.CONTACT_WITH_SOURCE_CASE_KNOWN),
+			new ClassificationExposureCriteriaDto(ExposureDto.HANDLING_SAMPLES, ExposureType.WORK)));
+
+	private final ClassificationCriteriaDto confirmed = new ClassificationAllOfCriteriaDto(
+		new ClassificationPersonAgeBetweenYearsCriteriaDto(5, null),
+		new ClassificationPathogenTestPositiveResultCriteriaDto(Disease.CORONAVIRUS, PathogenTestType.PCR_RT_PCR),
+		suspect,
+		new ClassificationNoneOfCriteriaDto(new ClassificationCaseCriteriaDto(CaseDataDto.OUTCOME, CaseOutcome.DECEASED)));
+
+	@Test
+	public void testCompiledCriteriaEvaluateLikeDtoCriteria() {
+
+		ClassificationEvaluator compiledSuspect = ClassificationCriteriaCompiler.compile(suspect);
+		ClassificationEvaluator compiledConfirmed = ClassificationCriteriaCompiler.compile(confirmed);
+
+		for (CaseDataDto caze : buildCases()) {
+			for (PersonDto person : buildPersons()) {
+				for (List<PathogenTestDto> pathogenTests : buildPathogenTests()) {
+					List<EventDto> events = Collections.emptyList();
+					ClassificationEvaluationContext context = new ClassificationEvaluationContext(caze, person, pathogenTests, events);
+
+					assertThat(compiledSuspect.eval(context), is(suspect.eval(caze, person, pathogenTests, events)));
+					assertThat(compiledConfirmed.eval(context), is(confirmed.eval(caze, person, pathogenTests, events)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCaseDataIsEvaluatedBeforeLoadingRelatedData() {
+
+		ClassificationEvaluator compiledConfirmed = ClassificationCriteriaCompiler.compile(confirmed);
+
+		CaseDataDto caze = buildCase(SymptomState.NO, SymptomState.NO, CaseOutcome.NO_OUTCOME);
+		AtomicInteger loads = new AtomicInteger();
+		ClassificationEvaluationContext context = new ClassificationEvaluationContext(caze, () -> {
+			loads.incrementAndGet();
+			return PersonDto.build();
+		}, () -> {
+			loads.incrementAndGet();
+			return Collections.emptyList();
+		}, () -> {
+			loads.incrementAndGet();
+			return Collections.emptyList();
+		});
+
+		assertThat(compiledConfirmed.eval(context), is(false));
+		assertThat(loads.get(), is(0));
+	}
+
+	@Test
+	public void testRequiredData() {
+
+		Set<EvaluationCost> requiredData = EnumSet.noneOf(EvaluationCost.class);
+		ClassificationCriteriaCompiler.compile(suspect).collectRequiredData(requiredData);
+		assertThat(requiredData, is(EnumSet.of(EvaluationCost.CASE)));
+
+		ClassificationCriteriaCompiler.compile(confirmed).collectRequiredData(requiredData);
+		assertThat(requiredData, is(EnumSet.of(EvaluationCost.CASE, EvaluationCost.PATHOGEN_TESTS, EvaluationCost.PERSON)));
+	}
+
+	private static List<CaseDataDto> buildCases() {
+
+		List<CaseDataDto> cases = new ArrayList<>();
+		for (SymptomState fever : SymptomState.values()) {
+			for (SymptomState cough : SymptomState.values()) {
+				for (CaseOutcome outcome : CaseOutcome.values()) {
+					cases.add(buildCase(fever, cough, outcome));
+				}
+			}
+		}
+
+		CaseDataDto exposureCase = buildCase(SymptomState.YES, SymptomState.NO, CaseOutcome.NO_OUTCOME);
+		ExposureDto exposure = ExposureDto.build(ExposureType.WORK);
+		exposure.setHandlingSamples(YesNoUnknown.YES);
+		exposureCase.getEpiData().getExposures().add(exposure);
+		cases.add(exposureCase);
+
+		CaseDataDto contactCase = buildCase(SymptomState.YES, SymptomState.NO, CaseOutcome.NO_OUTCOME);
+		contactCase.getEpiData().setContactWithSourceCaseKnown(YesNoUnknown.YES);
+		cases.add(contactCase);
+
+		return cases;
+	}
+
+	private static CaseDataDto buildCase(SymptomState fever, SymptomState cough, CaseOutcome outcome) {
+
+		CaseDataDto caze = CaseDataDto.build(null, Disease.CORONAVIRUS);
+		caze.setReportDate(new Date());
+		caze.setOutcome(outcome);
+		caze.getSymptoms().setFever(fever);
+		caze.getSymptoms().setCough(cough);
+		return caze;
+	}
+
+	private static List<PersonDto> buildPersons() {
+
+		List<PersonDto> persons = new ArrayList<>();
+		persons.add(PersonDto.build());
+		for (int age : new int[] {
+			2,
+			5,
+			40 }) {
+			PersonDto person = PersonDto.build();
+			person.setApproximateAge(age);
+			person.setApproximateAgeType(ApproximateAgeType.YEARS);
+			persons.add(person);
+		}
+		return persons;
+	}
+
+	private static List<List<PathogenTestDto>> buildPathogenTests() {
+
+		List<List<PathogenTestDto>> pathogenTests = new ArrayList<>();
+		pathogenTests.add(Collections.emptyList());
+		for (PathogenTestResultType result : new PathogenTestResultType[] {
+			PathogenTestResultType.POSITIVE,
+			PathogenTestResultType.NEGATIVE }) {
+			for (Disease disease : new Disease[] {
+				Disease.CORONAVIRUS,
+				Disease.EVD }) {
+				PathogenTestDto pathogenTest = new PathogenTestDto();
+				pathogenTest.setTestType(PathogenTestType.PCR_RT_PCR);
+				pathogenTest.setTestedDisease(disease);
+				pathogenTest.setTestResult(result);
+				pathogenTests.add(Collections.singletonList(pathogenTest));
+			}
+		}
+		return pathogenTests;
+	}
+}
@@ -0,0 +1,57 @@
+package de.symeda.sormas.backend.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.person.PersonReferenceDto;
+import de.symeda.sormas.api.user.UserReferenceDto;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCFEntities;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.common.BulkArchivingService.ArchivingChunkResult;
+
+public class BulkArchivingServiceTest extends AbstractBeanTest {
+
+	@Test
+	public void testArchiveChunk() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities();
+		UserReferenceDto user = creator.createUser(rdcf).toReference();
+		PersonReferenceDto person = creator.createPerson("Walter", "Schuster").toReference();
+
+		List<CaseDataDto> cases = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			CaseDataDto caze = creator.createCase(user, person, rdcf);
+			if (i == 1) {
+				caze.setDisease(Disease.CHOLERA);
+				caze = getCaseFacade().saveCase(caze);
+			}
+			cases.add(caze);
+		}
+		// already archived cases don't count for the chunk size
+		getCaseFacade().archiveOrDearchiveCase(cases.get(0).getUuid(), true);
+
+		BulkArchivingService cut = getBean(BulkArchivingService.class);
+		ArchivingChunkResult chunk = cut.archiveChunk(Case.class, (cb, root) -> cb.notEqual(root.get(Case.DISEASE), Disease.CHOLERA), null, 2);
+		assertThat(chunk.getArchivedCount(), is(2));
+		assertTrue(getCaseFacade().isArchived(cases.get(2).getUuid()));
+		assertTrue(getCaseFacade().isArchived(cases.get(3).getUuid()));
+		assertFalse(getCaseFacade().isArchived(cases.get(4).getUuid()));
+
+		chunk = cut.archiveChunk(Case.class, (cb, root) -> cb.notEqual(root.get(Case.DISEASE), Disease.CHOLERA), chunk.getLastId(), 2);
+		assertThat(chunk.getArchivedCount(), is(1));
+		assertThat(chunk.getLastId(), is(nullValue()));
+		assertTrue(getCaseFacade().isArchived(cases.get(4).getUuid()));
+		assertFalse(getCaseFacade().isArchived(cases.get(1).getUuid()));
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.symeda.sormas.api.systemevents.ScheduledJobStatusDto;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
+import de.symeda.sormas.backend.common.JobScheduler.Histogram;
+
+public class JobSchedulerTest extends AbstractBeanTest {
+
+	private ScheduledFuture<?> leaseRenewalFuture;
+	private final AtomicReference<Runnable> leaseRenewal = new AtomicReference<>();
+
+	@Before
+	public void mockLeaseRenewal() {
+
+		leaseRenewalFuture = mock(ScheduledFuture.class);
+		doAnswer(invocation -> {
+			leaseRenewal.set(invocation.getArgument(0));
+			return leaseRenewalFuture;
+		}).when(MockProducer.getManagedScheduledExecutorService()).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+	}
+
+	@Test
+	public void testExecute() {
+
+		JobScheduler cut = getBean(JobScheduler.class);
+
+		AtomicBoolean nestedRun = new AtomicBoolean();
+		assertTrue(cut.execute("testJob", () -> {
+			// the job is still running, so it is skipped
+			nestedRun.set(cut.execute("testJob", () -> 0L));
+			return 5L;
+		}));
+		assertFalse(nestedRun.get());
+
+		assertFalse(cut.execute("failingJob", () -> {
+			throw new IllegalStateException("Failure");
+		}));
+
+		ScheduledJobStatusDto failingJob = cut.getStatuses().get(0);
+		assertThat(failingJob.getJobName(), is("failingJob"));
+		assertThat(failingJob.getLastStatus(), is(SystemEventStatus.ERROR));
+		assertThat(failingJob.getLastInfo(), is("failingJob: Failure"));
+		assertThat(failingJob.getFailedCount(), is(1L));
+
+		ScheduledJobStatusDto testJob = cut.getStatuses().get(1);
+		assertThat(testJob.getJobName(), is("testJob"));
+		assertThat(testJob.getLastStatus(), is(SystemEventStatus.SUCCESS));
+		assertThat(testJob.getLastInfo(), startsWith("testJob: 5 rows, "));
+		assertThat(testJob.getRunCount(), is(1L));
+		assertThat(testJob.getSkippedCount(), is(1L));
+		assertThat(testJob.getFailedCount(), is(0L));
+		assertThat(testJob.getRowCountHistogram(), is("≤10: 1"));
+		assertFalse(testJob.isRunning());
+	}
+
+	@Test
+	public void testLeaseIsRenewedWhileRunning() {
+
+		JobScheduler cut = getBean(JobScheduler.class);
+		ScheduledJobService scheduledJobService = getBean(ScheduledJobService.class);
+
+		assertTrue(cut.execute("longJob", () -> {
+			Date leaseEnd = getLeaseEnd(scheduledJobService, "longJob");
+			assertNotNull(leaseEnd);
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+
+			leaseRenewal.get().run();
+			assertTrue(getLeaseEnd(scheduledJobService, "longJob").after(leaseEnd));
+			return null;
+		}));
+
+		// the renewal ends with the run and the lease is released
+		verify(leaseRenewalFuture).cancel(false);
+		assertNull(getLeaseEnd(scheduledJobService, "longJob"));
+	}
+
+	@Test
+	public void testAcquireLease() {
+
+		ScheduledJobService cut = getBean(ScheduledJobService.class);
+		cut.createIfMissing("testJob");
+
+		Date run = DateUtils.addMinutes(new Date(), -10);
+		Date leaseEnd = DateUtils.addHours(new Date(), 1);
+		assertTrue(cut.acquireLease("testJob", "server1", run, leaseEnd));
+		// leased by another server
+		assertFalse(cut.acquireLease("testJob", "server2", DateUtils.addMinutes(run, 1), leaseEnd));
+
+		Date renewedLeaseEnd = DateUtils.addHours(leaseEnd, 1);
+		assertTrue(cut.renewLease("testJob", "server1", renewedLeaseEnd));
+		assertFalse(cut.renewLease("testJob", "server2", renewedLeaseEnd));
+
+		cut.releaseLease("testJob", "server1");
+		// a released lease is not renewed
+		assertFalse(cut.renewLease("testJob", "server1", renewedLeaseEnd));
+		// already run by another server
+		assertFalse(cut.acquireLease("testJob", "server2", run, leaseEnd));
+		assertTrue(cut.acquireLease("testJob", "server2", DateUtils.addMinutes(run, 1), leaseEnd));
+
+		// the lease of a crashed server expires
+		cut.createIfMissing("otherJob");
+		assertTrue(cut.acquireLease("otherJob", "server1", run, DateUtils.addMinutes(new Date(), -1)));
+		assertTrue(cut.acquireLease("otherJob", "server2", DateUtils.addMinutes(run, 1), leaseEnd));
+		// jobs without a row are never leased
+		assertFalse(cut.acquireLease("unknownJob", "server1", run, leaseEnd));
+	}
+
+	@Test
+	public void testHistogram() {
+
+		Histogram histogram = new Histogram(new long[] {
+			10,
+			100 }, new String[] {
+				"10",
+				"100" });
+		histogram.record(0);
+		histogram.record(10);
+		histogram.record(11);
+		histogram.record(1000);
+
+		assertThat(histogram.getCount(0), is(2L));
+		assertThat(histogram.getCount(1), is(1L));
+		assertThat(histogram.getCount(2), is(1L));
+		assertThat(histogram.toString(), is("≤10: 2, ≤100: 1, >100: 1"));
+	}
+
+	private Date getLeaseEnd(ScheduledJobService scheduledJobService, String jobName) {
+
+		// the lease is changed by bulk updates
+		getEntityManager().clear();
+		return scheduledJobService.getByName(jobName).getLeaseEnd();
+	}
+}
@@ -0,0 +1,343 @@
+package de.symeda.sormas.backend.common.messaging;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import de.symeda.sormas.api.messaging.ManualMessageLogDto;
+import de.symeda.sormas.api.messaging.MessageType;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb;
+import de.symeda.sormas.backend.common.messaging.OutboxDispatcher.DeliveryStatistics;
+
+public class OutboxDispatcherTest extends AbstractBeanTest {
+
+	private static final int WIREMOCK_TESTING_PORT = 7779;
+
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule(options().port(WIREMOCK_TESTING_PORT), false);
+
+	private SmtpStub smtpStub;
+
+	@Before
+	public void setup() throws IOException {
+
+		smtpStub = new SmtpStub();
+		MockProducer.getProperties().setProperty("mail.smtp.host", "localhost");
+		MockProducer.getProperties().setProperty("mail.smtp.port", String.valueOf(smtpStub.getPort()));
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.SMS_AUTH_KEY, "key");
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.SMS_AUTH_SECRET, "secret");
+		MockProducer.getProperties().setProperty(ConfigFacadeEjb.SMS_BASE_URL, "http://localhost:" + WIREMOCK_TESTING_PORT);
+	}
+
+	@After
+	public void teardown() throws IOException {
+
+		smtpStub.close();
+		MockProducer.getProperties().remove("mail.smtp.host");
+		MockProducer.getProperties().remove("mail.smtp.port");
+		MockProducer.getProperties().remove(ConfigFacadeEjb.SMS_AUTH_KEY);
+		MockProducer.getProperties().remove(ConfigFacadeEjb.SMS_AUTH_SECRET);
+		MockProducer.getProperties().remove(ConfigFacadeEjb.SMS_BASE_URL);
+	}
+
+	@Test
+	public void testMessagesAreOnlySentByDispatcher() {
+
+		RDCF rdcf = creator.createRDCF();
+		UserDto sender = creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto recipient = creator.createUser(rdcf, "Recipient", "User", UserRole.SURVEILLANCE_OFFICER);
+		recipient.setUserEmail("recipient@sormas.org");
+		recipient.setPhone("+49123456789");
+		getUserFacade().saveUser(recipient);
+		loginWith(sender);
+		stubSms("mobile", "0");
+
+		getBean(MessagingService.class).sendMessage(
+			getUserService().getByUuid(recipient.getUuid()),
+			MessageSubject.CASE_CLASSIFICATION_CHANGED,
+			"Classification changed",
+			MessageType.EMAIL,
+			MessageType.SMS);
+
+		assertThat(smtpStub.getReceivedMessages(), empty());
+		verify(0, anyRequestedFor(urlPathEqualTo("/sms/json")));
+		assertThat(getOutboxMessageService().countByStatus(OutboxMessageStatus.PENDING), is(2L));
+
+		DeliveryStatistics emailStatistics = getOutboxDispatcher().getStatistics(MessageType.EMAIL);
+		long emailsDelivered = emailStatistics.getDelivered();
+		long smsDelivered = getOutboxDispatcher().getStatistics(MessageType.SMS).getDelivered();
+
+		assertThat(getOutboxDispatcher().dispatch(), is(2));
+
+		assertThat(smtpStub.getReceivedMessages(), hasSize(1));
+		assertThat(smtpStub.getReceivedMessages().get(0), containsString("Classification changed"));
+		verify(1, anyRequestedFor(urlPathEqualTo("/sms/json")));
+		assertThat(getOutboxMessageService().count(), is(0L));
+		assertThat(emailStatistics.getDelivered(), is(emailsDelivered + 1));
+		assertThat(getOutboxDispatcher().getStatistics(MessageType.SMS).getDelivered(), is(smsDelivered + 1));
+		assertThat(emailStatistics.getMaxLatencyMillis(), greaterThan(-1L));
+
+		// nothing left to deliver
+		assertThat(getOutboxDispatcher().dispatch(), is(0));
+	}
+
+	@Test
+	public void testManualMessageIsLoggedAsSentOnDelivery() {
+
+		RDCF rdcf = creator.createRDCF();
+		loginWith(creator.createUser(rdcf, UserRole.SURVEILLANCE_SUPERVISOR));
+		PersonDto person = creator.createPerson("Recipient", "Person", p -> p.setEmailAddress("person@sormas.org"));
+
+		getBean(MessagingService.class)
+			.sendMessage(getPersonService().getByUuid(person.getUuid()), "Subject", "Manual message", MessageType.EMAIL, MessageType.SMS);
+
+		List<ManualMessageLogDto> messageLog = getCaseFacade().getMessageLog(person.getUuid(), MessageType.EMAIL);
+		assertThat(messageLog, hasSize(1));
+		assertThat(messageLog.get(0).getSentDate(), nullValue());
+		// the person has no phone number, so no SMS is sent or logged
+		assertThat(getCaseFacade().getMessageLog(person.getUuid(), MessageType.SMS), empty());
+
+		assertThat(getOutboxDispatcher().dispatch(), is(1));
+
+		assertThat(smtpStub.getReceivedMessages(), hasSize(1));
+		messageLog = getCaseFacade().getMessageLog(person.getUuid(), MessageType.EMAIL);
+		assertThat(messageLog, hasSize(1));
+		assertThat(messageLog.get(0).getSentDate(), notNullValue());
+	}
+
+	@Test
+	public void testDispatchInBatches() {
+
+		int messageCount = OutboxDispatcher.BATCH_SIZE + 5;
+		for (int i = 0; i < messageCount; i++) {
+			getOutboxMessageService().enqueue(MessageType.EMAIL, "recipient" + i + "@sormas.org", "Subject", "Content " + i);
+		}
+
+		assertThat(getOutboxDispatcher().dispatch(), is(messageCount));
+
+		assertThat(smtpStub.getReceivedMessages(), hasSize(messageCount));
+		assertThat(getOutboxMessageService().count(), is(0L));
+	}
+
+	@Test
+	public void testFailedDeliveryIsRetriedAndDeadLettered() {
+
+		smtpStub.setRejectRecipients(true);
+		getOutboxMessageService().enqueue(MessageType.EMAIL, "recipient@sormas.org", "Subject", "Content");
+		long deadLettered = getOutboxDispatcher().getStatistics(MessageType.EMAIL).getDeadLettered();
+
+		assertThat(getOutboxDispatcher().dispatch(), is(1));
+
+		OutboxMessage message = getOutboxMessageService().getAll().get(0);
+		assertThat(message.getStatus(), is(OutboxMessageStatus.PENDING));
+		assertThat(message.getAttemptCount(), is(1));
+		assertThat(message.getNextAttemptDate().after(new Date()), is(true));
+
+		// not due before the backoff has passed
+		assertThat(getOutboxDispatcher().dispatch(), is(0));
+
+		for (int attempt = 2; attempt <= OutboxDispatcher.MAX_ATTEMPTS; attempt++) {
+			makeDue(message);
+			assertThat(getOutboxDispatcher().dispatch(), is(1));
+			message = getOutboxMessageService().getById(message.getId());
+			assertThat(message.getAttemptCount(), is(attempt));
+		}
+
+		assertThat(message.getStatus(), is(OutboxMessageStatus.DEAD_LETTER));
+		assertThat(getOutboxDispatcher().getStatistics(MessageType.EMAIL).getDeadLettered(), is(deadLettered + 1));
+		assertThat(smtpStub.getReceivedMessages(), empty());
+
+		// dead letters are not sent again
+		makeDue(message);
+		assertThat(getOutboxDispatcher().dispatch(), is(0));
+
+		// a message enqueued after the server has recovered is delivered right away
+		smtpStub.setRejectRecipients(false);
+		getOutboxMessageService().enqueue(MessageType.EMAIL, "recipient@sormas.org", "Subject", "Recovered");
+		assertThat(getOutboxDispatcher().dispatch(), is(1));
+		assertThat(smtpStub.getReceivedMessages(), hasSize(1));
+		assertThat(getOutboxMessageService().countByStatus(OutboxMessageStatus.DEAD_LETTER), is(1L));
+	}
+
+	@Test
+	public void testInvalidPhoneNumberIsDeadLetteredRightAway() {
+
+		stubSms("landline", "0");
+		getOutboxMessageService().enqueue(MessageType.SMS, "+49301234567", null, "Content");
+
+		assertThat(getOutboxDispatcher().dispatch(), is(1));
+
+		OutboxMessage message = getOutboxMessageService().getAll().get(0);
+		assertThat(message.getStatus(), is(OutboxMessageStatus.DEAD_LETTER));
+		assertThat(message.getAttemptCount(), is(1));
+		verify(0, anyRequestedFor(urlPathEqualTo("/sms/json")));
+	}
+
+	@Test
+	public void testRejectedSmsIsRetried() {
+
+		// status 1: throttled
+		stubSms("mobile", "1");
+		getOutboxMessageService().enqueue(MessageType.SMS, "+49123456789", null, "Content");
+
+		assertThat(getOutboxDispatcher().dispatch(), is(1));
+
+		OutboxMessage message = getOutboxMessageService().getAll().get(0);
+		assertThat(message.getStatus(), is(OutboxMessageStatus.PENDING));
+		assertThat(message.getAttemptCount(), is(1));
+	}
+
+	@Test
+	public void testGetRetryDelay() {
+
+		assertThat(OutboxDispatcher.getRetryDelay(1), is(60_000L));
+		assertThat(OutboxDispatcher.getRetryDelay(2), is(120_000L));
+		assertThat(OutboxDispatcher.getRetryDelay(3), is(240_000L));
+		assertThat(OutboxDispatcher.getRetryDelay(10), is(3_600_000L));
+		assertThat(OutboxDispatcher.getRetryDelay(100), is(3_600_000L));
+	}
+
+	private void makeDue(OutboxMessage message) {
+
+		OutboxMessage managedMessage = getOutboxMessageService().getById(message.getId());
+		managedMessage.setNextAttemptDate(new Date(System.currentTimeMillis() - 1000));
+		getOutboxMessageService().ensurePersisted(managedMessage);
+	}
+
+	private void stubSms(String networkType, String submissionStatus) {
+
+		stubFor(
+			any(urlPathEqualTo("/ni/standard/json")).willReturn(
+				aResponse().withStatus(200)
+					.withHeader("Content-Type", "application/json")
+					.withBody(
+						"{\"status\":0,\"status_message\":\"Success\",\"request_id\":\"aaaaaaaa-bbbb-cccc-dddd-0123456789ab\","
+							+ "\"international_format_number\":\"49123456789\",\"national_format_number\":\"0123 456789\","
+							+ "\"country_code\":\"DE\",\"country_code_iso3\":\"DEU\",\"country_name\":\"Germany\",\"country_prefix\":\"49\","
+							+ "\"current_carrier\":{\"network_code\":\"26201\",\"name\":\"Carrier\",\"country\":\"DE\",\"network_type\":\""
+							+ networkType + "\"}}")));
+		stubFor(
+			any(urlPathEqualTo("/sms/json")).willReturn(
+				aResponse().withStatus(200)
+					.withHeader("Content-Type", "application/json")
+					.withBody(
+						"{\"message-count\":\"1\",\"messages\":[{\"to\":\"49123456789\",\"message-id\":\"0A0000000123ABCD1\",\"status\":\""
+							+ submissionStatus + "\",\"remaining-balance\":\"3.14159265\",\"message-price\":\"0.03330000\",\"network\":\"26201\""
+							+ ("0".equals(submissionStatus) ? "" : ",\"error-text\":\"Throttled\"") + "}]}")));
+	}
+
+	/**
+	 * Minimal SMTP server that accepts all messages, or rejects all recipients with a temporary error.
+	 */
+	private static final class SmtpStub implements AutoCloseable {
+
+		private final ServerSocket serverSocket;
+		private final List<String> receivedMessages = Collections.synchronizedList(new ArrayList<>());
+		private volatile boolean rejectRecipients;
+
+		private SmtpStub() throws IOException {
+
+			serverSocket = new ServerSocket(0);
+			Thread acceptor = new Thread(() -> {
+				while (!serverSocket.isClosed()) {
+					try (Socket socket = serverSocket.accept()) {
+						handle(socket);
+					} catch (IOException e) {
+						// closed
+					}
+				}
+			}, "smtp-stub");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		private void handle(Socket socket) throws IOException {
+
+			BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+			out.print("220 localhost ESMTP stub\r\n");
+			out.flush();
+
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+				switch (command) {
+				case "RCPT":
+					out.print(rejectRecipients ? "451 Try again later\r\n" : "250 OK\r\n");
+					break;
+				case "DATA":
+					out.print("354 End data with <CR><LF>.<CR><LF>\r\n");
+					out.flush();
+					StringBuilder message = new StringBuilder();
+					while ((line = in.readLine()) != null && !".".equals(line)) {
+						message.append(line).append('\n');
+					}
+					receivedMessages.add(message.toString());
+					out.print("250 OK\r\n");
+					break;
+				case "QUIT":
+					out.print("221 Bye\r\n");
+					out.flush();
+					return;
+				default:
+					out.print("250 OK\r\n");
+				}
+				out.flush();
+			}
+		}
+
+		private int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		private List<String> getReceivedMessages() {
+			return receivedMessages;
+		}
+
+		private void setRejectRecipients(boolean rejectRecipients) {
+			this.rejectRecipients = rejectRecipients;
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+}
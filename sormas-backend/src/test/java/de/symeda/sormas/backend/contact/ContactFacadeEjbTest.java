@@ -23,6 +23,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isEmptyOrNullString;
 import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -68,6 +69,9 @@ import de.symeda.sormas.api.contact.ContactStatus;
 import de.symeda.sormas.api.contact.FollowUpStatus;
 import de.symeda.sormas.api.contact.MapContactDto;
 import de.symeda.sormas.api.contact.SimilarContactDto;
+import de.symeda.sormas.api.dashboard.ContactEpiCurveSeries;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.document.DocumentDto;
 import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.api.epidata.EpiDataDto;
@@ -331,6 +335,56 @@ public class ContactFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(1, tasks.size());
 	}
 
+	@Test
+	public void testGenerateContactFollowUpTasksAssignees() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		UserDto contactOfficer =
+			creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Cont", "Off", UserRole.CONTACT_OFFICER);
+		CaseDataDto caze = creator.createCase(
+			user.toReference(),
+			creator.createPerson("Case", "Person").toReference(),
+			Disease.EVD,
+			CaseClassification.PROBABLE,
+			InvestigationStatus.PENDING,
+			new Date(),
+			rdcf);
+
+		// no contact officer: a contact officer of the case's district is assigned
+		ContactDto contactWithoutOfficer =
+			creator.createContact(user.toReference(), null, creator.createPerson("Contact", "One").toReference(), caze, new Date(), new Date(), null);
+		// the contact officer still has a pending follow-up task from yesterday
+		ContactDto contactWithPendingTask = creator
+			.createContact(user.toReference(), contactOfficer.toReference(), creator.createPerson("Contact", "Two").toReference(), caze, new Date(), new Date(), null);
+		creator.createTask(
+			TaskContext.CONTACT,
+			TaskType.CONTACT_FOLLOW_UP,
+			TaskStatus.PENDING,
+			null,
+			contactWithPendingTask.toReference(),
+			null,
+			DateHelper.subtractDays(new Date(), 1),
+			contactOfficer.toReference());
+
+		getContactFacade().generateContactFollowUpTasks();
+
+		List<TaskDto> tasks = getTaskFacade().getAllByContact(contactWithoutOfficer.toReference())
+			.stream()
+			.filter(t -> t.getTaskType() == TaskType.CONTACT_FOLLOW_UP)
+			.collect(Collectors.toList());
+		assertEquals(1, tasks.size());
+		assertEquals(contactOfficer.toReference(), tasks.get(0).getAssigneeUser());
+
+		tasks = getTaskFacade().getAllByContact(contactWithPendingTask.toReference())
+			.stream()
+			.filter(t -> t.getTaskType() == TaskType.CONTACT_FOLLOW_UP)
+			.collect(Collectors.toList());
+		assertEquals(1, tasks.size());
+		assertEquals(LocalDate.now().minusDays(1), DateHelper8.toLocalDate(tasks.get(0).getDueDate()));
+	}
+
 	@Test
 	public void testMapContactListCreation() {
 
@@ -364,14 +418,16 @@ public class ContactFacadeEjbTest extends AbstractBeanTest {
 			caze.getDistrict(),
 			caze.getDisease(),
 			DateHelper.subtractDays(new Date(), 1),
-			DateHelper.addDays(new Date(), 1));
+			DateHelper.addDays(new Date(), 1),
+			null);
 
 		List<MapContactDto> mapContactDtos = getContactFacade().getContactsForMap(
 			caze.getRegion(),
 			caze.getDistrict(),
 			caze.getDisease(),
 			DateHelper.subtractDays(new Date(), 1),
-			DateHelper.addDays(new Date(), 1));
+			DateHelper.addDays(new Date(), 1),
+			null);
 
 		// List should have one entry
 		assertEquals((long) count, mapContactDtos.size());
@@ -784,6 +840,64 @@ public class ContactFacadeEjbTest extends AbstractBeanTest {
 		assertThat(result[2], equalTo(0));
 	}
 
+	@Test
+	public void testGetContactEpiCurve() {
+
+		RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto contactPerson = creator.createPerson("Contact", "Person");
+		Date today = new Date();
+
+		List<ContactDto> contacts = new ArrayList<>();
+		for (Date reportDate : Arrays.asList(today, today, DateHelper.subtractDays(today, 2), DateHelper.subtractDays(today, 30))) {
+			contacts.add(
+				creator.createContact(
+					user.toReference(),
+					user.toReference(),
+					contactPerson.toReference(),
+					null,
+					reportDate,
+					reportDate,
+					Disease.EVD,
+					rdcf,
+					c -> c.setContactClassification(ContactClassification.CONFIRMED)));
+		}
+		ContactDto unconfirmedContact = contacts.get(1);
+		unconfirmedContact.setContactClassification(ContactClassification.UNCONFIRMED);
+		getContactFacade().saveContact(unconfirmedContact);
+
+		List<Date> bucketDates =
+			Arrays.asList(DateHelper.subtractDays(today, 3), DateHelper.subtractDays(today, 2), DateHelper.subtractDays(today, 1), today);
+		ContactCriteria contactCriteria = new ContactCriteria().region(rdcf.region).disease(Disease.EVD);
+
+		EpiCurveHistogramDto epiCurve =
+			getContactFacade().getContactEpiCurve(contactCriteria, bucketDates, EpiCurveGrouping.DAY, ContactEpiCurveSeries.CONTACT_CLASSIFICATION);
+
+		assertArrayEquals(new int[] {
+			0,
+			1,
+			0,
+			1 }, epiCurve.getCounts(ContactClassification.CONFIRMED));
+		assertArrayEquals(new int[] {
+			0,
+			0,
+			0,
+			1 }, epiCurve.getCounts(ContactClassification.UNCONFIRMED));
+		assertArrayEquals(new int[4], epiCurve.getCounts(ContactClassification.NO_CONTACT));
+
+		// the contacts reported today have the same follow-up until date
+		Date followUpUntil = contacts.get(0).getFollowUpUntil();
+		epiCurve = getContactFacade()
+			.getContactEpiCurve(contactCriteria, Collections.singletonList(followUpUntil), EpiCurveGrouping.DAY, ContactEpiCurveSeries.FOLLOW_UP_UNTIL);
+		assertArrayEquals(new int[] {
+			2 }, epiCurve.getCounts(null));
+
+		// the date ranges of the curves are not left in the criteria
+		assertNull(contactCriteria.getReportDateFrom());
+		assertNull(contactCriteria.getFollowUpUntilFrom());
+	}
+
 	@Test
 	public void testGetNonSourceCaseCountForDashboard() {
 
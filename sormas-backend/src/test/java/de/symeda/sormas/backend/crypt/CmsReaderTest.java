@@ -1,8 +1,15 @@
 package de.symeda.sormas.backend.crypt;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -93,4 +100,39 @@ public class CmsReaderTest {
 
 	}
 
+	@Test
+	public void testDecryptAndVerifyStreaming() throws Exception {
+
+		CmsIdentity alice = new CmsIdentity(aliceCert, (PrivateKey) aliceKs.getKey(ALICE_ALIAS, PASSWORD.toCharArray()));
+		CmsIdentity bob = new CmsIdentity(bobCert, (PrivateKey) bobKs.getKey(BOB_ALIAS, PASSWORD.toCharArray()));
+
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			text.append("Hello World ").append(i).append('\n');
+		}
+		byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+
+		ByteArrayOutputStream signedAndEncrypted = new ByteArrayOutputStream();
+		try (OutputStream out = CmsCreator.openSignAndEncrypt(signedAndEncrypted, alice, new CmsPartner(bobCert))) {
+			out.write(data);
+		}
+
+		// the streamed message can also be read as a whole
+		assertArrayEquals(data, CmsReader.decryptAndVerify(signedAndEncrypted.toByteArray(), new CmsPartner(aliceCert), bob));
+
+		// the reader does not need to consume the whole payload
+		String firstLine = CmsReader.decryptAndVerify(
+			new ByteArrayInputStream(signedAndEncrypted.toByteArray()),
+			new CmsPartner(aliceCert),
+			bob,
+			payload -> new BufferedReader(new InputStreamReader(payload, StandardCharsets.UTF_8)).readLine());
+		assertEquals("Hello World 0", firstLine);
+
+		try {
+			CmsReader.decryptAndVerify(new ByteArrayInputStream(signedAndEncrypted.toByteArray()), new CmsPartner(bobCert), bob, payload -> null);
+			fail("Signature of the wrong signer must not be accepted");
+		} catch (RuntimeException e) {
+			// expected
+		}
+	}
 }
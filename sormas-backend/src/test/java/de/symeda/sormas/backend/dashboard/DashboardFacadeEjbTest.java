@@ -1,7 +1,9 @@
 package de.symeda.sormas.backend.dashboard;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -12,21 +14,30 @@ import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.InvestigationStatus;
 import de.symeda.sormas.api.caze.NewCaseDateType;
+import de.symeda.sormas.api.dashboard.CaseEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardCaseDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
+import de.symeda.sormas.api.dashboard.DashboardSnapshotDto;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.disease.DiseaseBurdenDto;
 import de.symeda.sormas.api.event.EventDto;
 import de.symeda.sormas.api.event.EventInvestigationStatus;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.event.TypeOfPlace;
+import de.symeda.sormas.api.person.CauseOfDeath;
 import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.person.PresentCondition;
 import de.symeda.sormas.api.region.CommunityDto;
+import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.user.UserDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.AbstractBeanTest;
 import de.symeda.sormas.backend.TestDataCreator;
+import de.symeda.sormas.backend.region.Community;
+import de.symeda.sormas.backend.region.District;
 
 public class DashboardFacadeEjbTest extends AbstractBeanTest {
 
@@ -171,4 +182,212 @@ public class DashboardFacadeEjbTest extends AbstractBeanTest {
 		assertEquals(new Long(1), evdBurden.getPreviousCaseCount());
 		assertEquals(rdcf.district.getCaption(), evdBurden.getLastReportedDistrictName());
 	}
+
+	@Test
+	public void testGetCaseEpiCurve() {
+
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		Date today = new Date();
+		creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, today, rdcf);
+		creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, today, rdcf);
+		creator.createCase(
+			user.toReference(),
+			cazePerson.toReference(),
+			Disease.EVD,
+			CaseClassification.CONFIRMED,
+			InvestigationStatus.PENDING,
+			DateHelper.subtractDays(today, 2),
+			rdcf);
+		// outside of the buckets
+		creator.createCase(
+			user.toReference(),
+			cazePerson.toReference(),
+			Disease.EVD,
+			CaseClassification.CONFIRMED,
+			InvestigationStatus.PENDING,
+			DateHelper.subtractDays(today, 30),
+			rdcf);
+
+		List<Date> bucketDates =
+			Arrays.asList(DateHelper.subtractDays(today, 3), DateHelper.subtractDays(today, 2), DateHelper.subtractDays(today, 1), today);
+		DashboardCriteria dashboardCriteria =
+			new DashboardCriteria().region(rdcf.region).disease(Disease.EVD).newCaseDateType(NewCaseDateType.MOST_RELEVANT);
+
+		EpiCurveHistogramDto epiCurve =
+			getDashboardFacade().getCaseEpiCurve(dashboardCriteria, bucketDates, EpiCurveGrouping.DAY, CaseEpiCurveSeries.CASE_CLASSIFICATION);
+
+		assertArrayEquals(new int[] {
+			0,
+			0,
+			0,
+			2 }, epiCurve.getCounts(CaseClassification.PROBABLE));
+		assertArrayEquals(new int[] {
+			0,
+			1,
+			0,
+			0 }, epiCurve.getCounts(CaseClassification.CONFIRMED));
+		assertArrayEquals(new int[4], epiCurve.getCounts(CaseClassification.SUSPECT));
+
+		epiCurve = getDashboardFacade().getCaseEpiCurve(
+			dashboardCriteria,
+			Arrays.asList(DateHelper.subtractDays(today, 7), today),
+			EpiCurveGrouping.WEEK,
+			CaseEpiCurveSeries.PRESENT_CONDITION);
+		assertEquals(3, Arrays.stream(epiCurve.getCounts(PresentCondition.UNKNOWN)).sum());
+	}
+
+	@Test
+	public void testGetSnapshot() {
+
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+		loginWith(user);
+
+		Date today = new Date();
+		PersonDto cazePerson = creator.createPerson("Case", "Person");
+		creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, today, rdcf);
+		creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, today, rdcf);
+		creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.NO_CASE, InvestigationStatus.PENDING, today, rdcf);
+
+		PersonDto fatalPerson = creator.createPerson("Fatal", "Person");
+		creator.createCase(
+			user.toReference(),
+			fatalPerson.toReference(),
+			Disease.EVD,
+			CaseClassification.CONFIRMED,
+			InvestigationStatus.PENDING,
+			today,
+			rdcf,
+			c -> {
+				c.setQuarantineFrom(DateHelper.subtractDays(today, 1));
+				c.setQuarantineTo(DateHelper.addDays(today, 5));
+			});
+		PersonDto previousFatalPerson = creator.createPerson("Previous", "Person");
+		creator.createCase(
+			user.toReference(),
+			previousFatalPerson.toReference(),
+			Disease.EVD,
+			CaseClassification.CONFIRMED,
+			InvestigationStatus.PENDING,
+			DateHelper.subtractDays(today, 10),
+			rdcf);
+		for (PersonDto person : Arrays.asList(fatalPerson, previousFatalPerson)) {
+			person = getPersonFacade().getPersonByUuid(person.getUuid());
+			person.setPresentCondition(PresentCondition.DEAD);
+			person.setDeathDate(today);
+			person.setCauseOfDeath(CauseOfDeath.EPIDEMIC_DISEASE);
+			person.setCauseOfDeathDisease(Disease.EVD);
+			getPersonFacade().savePerson(person);
+		}
+
+		DashboardCriteria dashboardCriteria = new DashboardCriteria().region(rdcf.region)
+			.disease(Disease.EVD)
+			.newCaseDateType(NewCaseDateType.MOST_RELEVANT)
+			.dateBetween(DateHelper.subtractDays(today, 1), today)
+			.previousDateBetween(DateHelper.subtractDays(today, 14), DateHelper.subtractDays(today, 7));
+
+		DashboardSnapshotDto snapshot = getDashboardFacade().getSnapshot(dashboardCriteria);
+
+		assertEquals(Integer.valueOf(2), snapshot.getCaseCountByClassification().get(CaseClassification.PROBABLE));
+		assertEquals(Integer.valueOf(1), snapshot.getCaseCountByClassification().get(CaseClassification.CONFIRMED));
+		assertEquals(Integer.valueOf(1), snapshot.getCaseCountByClassification().get(CaseClassification.NO_CASE));
+		assertEquals(3, snapshot.getCaseCount());
+		assertEquals(1, snapshot.getFatalCaseCount());
+		assertEquals(1, snapshot.getPreviousFatalCaseCount());
+		assertEquals(1, snapshot.getCasesInQuarantineCount());
+		assertEquals(1, snapshot.getCasesPlacedInQuarantineCount());
+		assertEquals(0, snapshot.getCasesConvertedFromContactsCount());
+		assertEquals("District", snapshot.getLastReportedDistrictName());
+
+		// served from the cache until it expires
+		creator.createCase(user.toReference(), cazePerson.toReference(), Disease.EVD, CaseClassification.PROBABLE, InvestigationStatus.PENDING, today, rdcf);
+		assertEquals(3, getDashboardFacade().getSnapshot(dashboardCriteria).getCaseCount());
+
+		getBean(DashboardSnapshotCache.class).clear();
+		assertEquals(4, getDashboardFacade().getSnapshot(dashboardCriteria).getCaseCount());
+	}
+
+	@Test
+	public void testDiseaseBurdenMatchesSeparateQueries() {
+
+		Date today = new Date();
+		TestDataCreator.RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		District district2 = creator.createDistrict("District2", rdcf.region);
+		Community community2 = creator.createCommunity("Community2", district2);
+		TestDataCreator.RDCFEntities rdcf2 =
+			new TestDataCreator.RDCFEntities(rdcf.region, district2, community2, creator.createFacility("Facility2", rdcf.region, district2, community2));
+		RegionReferenceDto region = new TestDataCreator.RDCF(rdcf).region;
+		UserDto user = creator
+			.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Surv", "Sup", UserRole.SURVEILLANCE_SUPERVISOR);
+
+		int[] daysBack = {
+			0,
+			1,
+			3,
+			8,
+			12,
+			20 };
+		CaseClassification[] classifications = {
+			CaseClassification.PROBABLE,
+			CaseClassification.CONFIRMED,
+			CaseClassification.NO_CASE };
+		int i = 0;
+		for (Disease disease : Arrays.asList(Disease.EVD, Disease.CHOLERA, Disease.DENGUE)) {
+			for (int days : daysBack) {
+				i++;
+				PersonDto person = creator.createPerson("Case", "Person" + i);
+				creator.createCase(
+					user.toReference(),
+					person.toReference(),
+					disease,
+					classifications[i % classifications.length],
+					InvestigationStatus.PENDING,
+					DateHelper.subtractDays(today, days),
+					i % 2 == 0 ? rdcf : rdcf2);
+				if (i % 4 == 0) {
+					person = getPersonFacade().getPersonByUuid(person.getUuid());
+					person.setPresentCondition(PresentCondition.DEAD);
+					person.setDeathDate(today);
+					person.setCauseOfDeath(CauseOfDeath.EPIDEMIC_DISEASE);
+					person.setCauseOfDeathDisease(disease);
+					getPersonFacade().savePerson(person);
+				}
+			}
+		}
+
+		Date fromDate = DateHelper.getStartOfDay(DateHelper.subtractDays(today, 6));
+		Date toDate = DateHelper.getEndOfDay(today);
+		Date previousFromDate = DateHelper.getStartOfDay(DateHelper.subtractDays(today, 13));
+		Date previousToDate = DateHelper.getEndOfDay(DateHelper.subtractDays(today, 7));
+
+		for (NewCaseDateType newCaseDateType : NewCaseDateType.values()) {
+			getBean(DashboardSnapshotCache.class).clear();
+			List<DiseaseBurdenDto> diseaseBurden = getDashboardFacade()
+				.getDiseaseBurden(region, null, fromDate, toDate, previousFromDate, previousToDate, newCaseDateType);
+
+			DashboardService dashboardService = getBean(DashboardService.class);
+			for (DiseaseBurdenDto burden : diseaseBurden) {
+				Disease disease = burden.getDisease();
+				DashboardCriteria dashboardCriteria =
+					new DashboardCriteria().region(region).disease(disease).newCaseDateType(newCaseDateType).dateBetween(fromDate, toDate);
+				List<DashboardCaseDto> cases = dashboardService.getCases(dashboardCriteria);
+				long deathCount = 0;
+				for (DashboardCaseDto caze : cases) {
+					if (caze.getCauseOfDeathDisease() == disease) {
+						deathCount++;
+					}
+				}
+
+				assertEquals(disease.toString(), cases.size(), burden.getCaseCount().longValue());
+				assertEquals(disease.toString(), deathCount, burden.getCaseDeathCount().longValue());
+				assertEquals(disease.toString(), dashboardService.getLastReportedDistrictName(dashboardCriteria), burden.getLastReportedDistrictName());
+				dashboardCriteria.dateBetween(previousFromDate, previousToDate);
+				assertEquals(disease.toString(), dashboardService.getCases(dashboardCriteria).size(), burden.getPreviousCaseCount().longValue());
+			}
+		}
+	}
 }
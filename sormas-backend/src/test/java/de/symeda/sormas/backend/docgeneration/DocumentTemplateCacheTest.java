@@ -0,0 +1,113 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.docgeneration;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.symeda.sormas.api.docgeneneration.DocumentTemplateException;
+import de.symeda.sormas.backend.docgeneration.DocumentTemplateCache.DocxTemplate;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
+
+public class DocumentTemplateCacheTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private DocumentTemplateCache cache;
+	private File templateFile;
+
+	@Before
+	public void setUp() throws IOException {
+
+		cache = new DocumentTemplateCache();
+		templateFile = tempFolder.newFile("Quarantine.docx");
+		copyTemplate("/docgeneration/quarantine/Quarantine.docx");
+	}
+
+	@After
+	public void tearDown() {
+		cache.clear();
+	}
+
+	@Test
+	public void testTemplateIsReadOnce() throws DocumentTemplateException {
+
+		DocxTemplate template = cache.getDocxTemplate(templateFile);
+		assertSame(template, cache.getDocxTemplate(templateFile));
+		assertTrue(isRegistered(template));
+
+		// the variables are copied, so callers cannot change the cached ones
+		template.getVariables().getVariables().clear();
+		assertFalse(cache.getDocxTemplate(templateFile).getVariables().getVariables().isEmpty());
+	}
+
+	@Test
+	public void testChangedTemplateIsReadAgain() throws DocumentTemplateException, IOException {
+
+		DocxTemplate template = cache.getDocxTemplate(templateFile);
+
+		copyTemplate("/docgeneration/testcasesDocx/BasicTest.docx");
+		assertTrue(templateFile.setLastModified(templateFile.lastModified() + 10000));
+
+		DocxTemplate changedTemplate = cache.getDocxTemplate(templateFile);
+		assertNotSame(template, changedTemplate);
+		assertSame(changedTemplate, cache.getDocxTemplate(templateFile));
+
+		// the replaced report is not kept by the registry
+		assertFalse(isRegistered(template));
+		assertTrue(isRegistered(changedTemplate));
+	}
+
+	@Test
+	public void testInvalidate() throws DocumentTemplateException {
+
+		DocxTemplate template = cache.getDocxTemplate(templateFile);
+
+		cache.invalidate(templateFile);
+		assertFalse(isRegistered(template));
+
+		DocxTemplate readAgain = cache.getDocxTemplate(templateFile);
+		assertNotSame(template, readAgain);
+		assertTrue(isRegistered(readAgain));
+
+		cache.clear();
+		assertFalse(isRegistered(readAgain));
+	}
+
+	private void copyTemplate(String resourcePath) throws IOException {
+		try (InputStream templateStream = getClass().getResourceAsStream(resourcePath)) {
+			Files.copy(templateStream, templateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static boolean isRegistered(DocxTemplate template) {
+		return XDocReportRegistry.getRegistry().existsReport(template.getReport().getId());
+	}
+}
@@ -17,19 +17,25 @@ package de.symeda.sormas.backend.docgeneration;
 
 import static de.symeda.sormas.backend.docgeneration.TemplateTestUtil.cleanLineSeparators;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
@@ -64,6 +70,7 @@ import de.symeda.sormas.api.sample.SamplePurpose;
 import de.symeda.sormas.api.sample.SampleReferenceDto;
 import de.symeda.sormas.api.user.UserDto;
 import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.MockProducer;
 import de.symeda.sormas.backend.TestDataCreator;
 import de.symeda.sormas.backend.common.ConfigFacadeEjb;
@@ -242,6 +249,38 @@ public class QuarantineOrderFacadeEjbTest extends AbstractDocGenerationTest {
 		verifyGeneratedDocument(rootEntityReference, workflow, "QuarantineEvent.cmp", documentContents.get(rootEntityReference));
 	}
 
+	@Test
+	public void testBulkDocumentArchiveCreation() throws DocumentTemplateException, IOException {
+		ReferenceDto caseReference = caseDataDto.toReference();
+		ReferenceDto contactReference = contactDto.toReference();
+
+		Properties properties = new Properties();
+		properties.setProperty("extraremark1", "the first remark");
+		properties.setProperty("extra.remark.no3", "the third remark");
+
+		DocumentWorkflow workflow = DocumentWorkflow.QUARANTINE_ORDER_CASE;
+		String archivePath =
+			quarantineOrderFacadeEjb.getGeneratedDocumentsArchive("Quarantine.docx", workflow, Collections.singletonList(caseReference), properties);
+
+		Map<String, byte[]> entries = new HashMap<>();
+		try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(Paths.get(archivePath)))) {
+			ZipEntry entry;
+			while ((entry = zipInputStream.getNextEntry()) != null) {
+				entries.put(entry.getName(), IOUtils.toByteArray(zipInputStream));
+			}
+		} finally {
+			Files.delete(Paths.get(archivePath));
+		}
+
+		assertEquals(1, entries.size());
+		verifyGeneratedDocument(
+			caseReference,
+			workflow,
+			"QuarantineCase.cmp",
+			entries.get(DataHelper.getShortUuid(caseReference) + "-Quarantine.docx"));
+		assertFalse(entries.containsKey(DataHelper.getShortUuid(contactReference) + "-Quarantine.docx"));
+	}
+
 	private void generateQuarantineOrderTest(
 		ReferenceDto rootEntityReference,
 		DocumentWorkflow documentWorkflow,
@@ -0,0 +1,195 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.docgeneration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import de.symeda.sormas.api.ReferenceDto;
+import de.symeda.sormas.api.caze.CaseReferenceDto;
+import de.symeda.sormas.api.docgeneneration.DocumentTemplateEntities;
+import de.symeda.sormas.api.docgeneneration.DocumentTemplateException;
+import de.symeda.sormas.api.docgeneneration.DocumentWorkflow;
+import de.symeda.sormas.api.docgeneneration.RootEntityType;
+import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.backend.common.ConfigFacadeEjb.ConfigFacadeEjbLocal;
+import de.symeda.sormas.backend.docgeneration.DocumentTemplateFacadeEjb.DocumentTemplateFacadeEjbLocal;
+
+/**
+ * Generates several documents on a real executor, which is not available in the bean tests.
+ */
+public class QuarantineOrderFacadeEjbUnitTest {
+
+	private static final String TEMPLATE_NAME = "Quarantine.docx";
+	private static final int MAX_CONCURRENT_DOCUMENTS = 2;
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@InjectMocks
+	private QuarantineOrderFacadeEjb quarantineOrderFacade;
+
+	@Mock
+	private DocumentTemplateEntitiesBuilder entitiesBuilder;
+	@Mock
+	private DocumentTemplateFacadeEjbLocal documentTemplateFacade;
+	@Mock
+	private ConfigFacadeEjbLocal configFacade;
+	@Mock
+	private ManagedExecutorService executorService;
+
+	private ExecutorService executor;
+	private List<ReferenceDto> caseReferences;
+
+	@Before
+	public void setUp() throws DocumentTemplateException {
+
+		MockitoAnnotations.initMocks(this);
+
+		executor = Executors.newFixedThreadPool(MAX_CONCURRENT_DOCUMENTS);
+		when(executorService.submit(any(Runnable.class))).thenAnswer(invocation -> executor.submit((Runnable) invocation.getArgument(0)));
+		when(configFacade.getDocgenerationMaxConcurrentDocuments()).thenReturn(MAX_CONCURRENT_DOCUMENTS);
+		when(configFacade.getTempFilesPath()).thenReturn(tempFolder.getRoot().getAbsolutePath());
+
+		caseReferences = new ArrayList<>();
+		Map<ReferenceDto, DocumentTemplateEntities> entities = new LinkedHashMap<>();
+		for (int i = 0; i < 4; i++) {
+			CaseReferenceDto caseReference = new CaseReferenceDto(DataHelper.createUuid());
+			caseReferences.add(caseReference);
+			DocumentTemplateEntities caseEntities = new DocumentTemplateEntities();
+			caseEntities.addEntity(RootEntityType.ROOT_CASE, caseReference);
+			entities.put(caseReference, caseEntities);
+		}
+		when(entitiesBuilder.getQuarantineOrderEntities(DocumentWorkflow.QUARANTINE_ORDER_CASE, caseReferences)).thenReturn(entities);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testDocumentsAreGeneratedConcurrently() throws DocumentTemplateException {
+
+		// every document waits for another one to be generated at the same time, so this only passes with two workers
+		CyclicBarrier barrier = new CyclicBarrier(MAX_CONCURRENT_DOCUMENTS);
+		Set<String> generatingThreads = ConcurrentHashMap.newKeySet();
+		when(documentTemplateFacade.generateDocumentDocxFromEntities(eq(DocumentWorkflow.QUARANTINE_ORDER_CASE), eq(TEMPLATE_NAME), any(), any()))
+			.thenAnswer(invocation -> {
+				generatingThreads.add(Thread.currentThread().getName());
+				barrier.await(10, TimeUnit.SECONDS);
+				return documentContent(invocation.getArgument(2));
+			});
+
+		Map<ReferenceDto, byte[]> documents =
+			quarantineOrderFacade.getGeneratedDocuments(TEMPLATE_NAME, DocumentWorkflow.QUARANTINE_ORDER_CASE, caseReferences, new Properties());
+
+		assertEquals(caseReferences.size(), documents.size());
+		for (ReferenceDto caseReference : caseReferences) {
+			assertArrayEquals(caseReference.getUuid().getBytes(StandardCharsets.UTF_8), documents.get(caseReference));
+		}
+		assertEquals(MAX_CONCURRENT_DOCUMENTS, generatingThreads.size());
+	}
+
+	@Test
+	public void testFailingDocumentStopsGeneration() throws DocumentTemplateException {
+
+		ReferenceDto failingReference = caseReferences.get(1);
+		when(documentTemplateFacade.generateDocumentDocxFromEntities(eq(DocumentWorkflow.QUARANTINE_ORDER_CASE), eq(TEMPLATE_NAME), any(), any()))
+			.thenAnswer(invocation -> {
+				DocumentTemplateEntities entities = invocation.getArgument(2);
+				if (failingReference.equals(entities.getEntity(RootEntityType.ROOT_CASE))) {
+					throw new DocumentTemplateException("Faulty document");
+				}
+				return documentContent(entities);
+			});
+
+		try {
+			quarantineOrderFacade.getGeneratedDocuments(TEMPLATE_NAME, DocumentWorkflow.QUARANTINE_ORDER_CASE, caseReferences, new Properties());
+			fail("The failure of the document has not been passed on");
+		} catch (DocumentTemplateException e) {
+			assertEquals("Faulty document", e.getMessage());
+		}
+
+		try {
+			quarantineOrderFacade
+				.getGeneratedDocumentsArchive(TEMPLATE_NAME, DocumentWorkflow.QUARANTINE_ORDER_CASE, caseReferences, new Properties());
+			fail("The failure of the document has not been passed on");
+		} catch (DocumentTemplateException e) {
+			assertEquals("Faulty document", e.getMessage());
+		}
+
+		// the incomplete archive has been deleted
+		File[] remainingFiles = tempFolder.getRoot().listFiles();
+		assertTrue(remainingFiles == null || remainingFiles.length == 0);
+	}
+
+	@Test
+	public void testArchiveContainsAllDocuments() throws DocumentTemplateException, IOException {
+
+		when(documentTemplateFacade.generateDocumentDocxFromEntities(eq(DocumentWorkflow.QUARANTINE_ORDER_CASE), eq(TEMPLATE_NAME), any(), any()))
+			.thenAnswer(invocation -> documentContent(invocation.getArgument(2)));
+
+		String archivePath = quarantineOrderFacade
+			.getGeneratedDocumentsArchive(TEMPLATE_NAME, DocumentWorkflow.QUARANTINE_ORDER_CASE, caseReferences, new Properties());
+
+		List<String> entryNames = new ArrayList<>();
+		try (ZipFile archive = new ZipFile(archivePath)) {
+			Collections.list(archive.entries()).forEach(entry -> entryNames.add(entry.getName()));
+		}
+		assertEquals(caseReferences.size(), entryNames.size());
+		for (ReferenceDto caseReference : caseReferences) {
+			assertTrue(entryNames.contains(DataHelper.getShortUuid(caseReference) + '-' + TEMPLATE_NAME));
+		}
+	}
+
+	private static byte[] documentContent(DocumentTemplateEntities entities) {
+		return ((ReferenceDto) entities.getEntity(RootEntityType.ROOT_CASE)).getUuid().getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -17,16 +17,23 @@ package de.symeda.sormas.backend.document;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeNotNull;
 import static org.junit.Assume.assumeThat;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 import javax.persistence.EntityExistsException;
 
@@ -36,6 +43,7 @@ import de.symeda.sormas.api.document.DocumentDto;
 import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.api.event.EventDto;
 import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.utils.DataHelper;
 import de.symeda.sormas.backend.AbstractBeanTest;
 import de.symeda.sormas.backend.TestDataCreator;
 
@@ -118,4 +126,97 @@ public class DocumentFacadeEjbTest extends AbstractBeanTest {
 
 		assertEquals("application/octet-stream", getDocumentFacade().getDocumentByUuid(document.getUuid()).getMimeType());
 	}
+
+	@Test
+	public void testContentDeduplication() throws IOException {
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf);
+		EventDto event = creator.createEvent(user.toReference());
+
+		byte[] content = ("content " + DataHelper.createUuid()).getBytes(StandardCharsets.UTF_8);
+		DocumentDto document1 = creator.createDocument(user.toReference(), "First.pdf", "application/pdf", content.length, event.toReference(), content);
+		DocumentDto document2 = creator.createDocument(user.toReference(), "Second.pdf", "application/pdf", content.length, event.toReference(), content);
+
+		String storageReference = getDocumentService().getByUuid(document1.getUuid()).getStorageReference();
+		assertEquals(storageReference, getDocumentService().getByUuid(document2.getUuid()).getStorageReference());
+		Path contentPath = Paths.get(getConfigFacade().getDocumentFilesPath(), storageReference);
+
+		assertArrayEquals(content, getDocumentFacade().read(document2.getUuid()));
+		assertArrayEquals(Arrays.copyOfRange(content, 2, 6), getDocumentFacade().read(document2.getUuid(), 2, 4));
+		assertArrayEquals(Arrays.copyOfRange(content, 8, content.length), getDocumentFacade().read(document2.getUuid(), 8, 1000));
+		assertEquals(0, getDocumentFacade().read(document2.getUuid(), content.length + 1, 10).length);
+
+		// the content is kept as long as a document references it
+		getDocumentFacade().deleteDocument(document1.getUuid());
+		getDocumentFacade().cleanupDeletedDocuments();
+		assertTrue(Files.exists(contentPath));
+		assertArrayEquals(content, getDocumentFacade().read(document2.getUuid()));
+
+		getDocumentFacade().deleteDocument(document2.getUuid());
+		getDocumentFacade().cleanupDeletedDocuments();
+		assertFalse(Files.exists(contentPath));
+	}
+
+	@Test
+	public void testSaveDocumentFromFile() throws IOException {
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf);
+		EventDto event = creator.createEvent(user.toReference());
+
+		byte[] content = ("content " + DataHelper.createUuid()).getBytes(StandardCharsets.UTF_8);
+		Path tempFilesPath = Paths.get(getConfigFacade().getTempFilesPath());
+		Files.createDirectories(tempFilesPath);
+		Path uploadedFile = Files.write(tempFilesPath.resolve("upload-" + DataHelper.createUuid() + ".pdf"), content);
+
+		try {
+			DocumentDto document = buildDocument(user, "Uploaded.pdf", content.length, event);
+			document = getDocumentFacade().saveDocumentFromFile(document, uploadedFile.toString());
+			assertArrayEquals(content, getDocumentFacade().read(document.getUuid()));
+
+			// the same content saved from bytes is stored only once
+			DocumentDto sameContent =
+				creator.createDocument(user.toReference(), "Copy.pdf", "application/pdf", content.length, event.toReference(), content);
+			assertEquals(
+				getDocumentService().getByUuid(document.getUuid()).getStorageReference(),
+				getDocumentService().getByUuid(sameContent.getUuid()).getStorageReference());
+		} finally {
+			Files.deleteIfExists(uploadedFile);
+		}
+	}
+
+	@Test
+	public void testSaveDocumentFromFileOutsideTempFiles() throws IOException {
+		TestDataCreator.RDCF rdcf = creator.createRDCF("Region", "District", "Community", "Facility");
+		UserDto user = creator.createUser(rdcf);
+		EventDto event = creator.createEvent(user.toReference());
+
+		byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+		Path tempFilesPath = Paths.get(getConfigFacade().getTempFilesPath());
+		Files.createDirectories(tempFilesPath);
+		String outsideFileName = "outside-" + DataHelper.createUuid() + ".pdf";
+		Path outsideFile = Files.write(tempFilesPath.toAbsolutePath().getParent().resolve(outsideFileName), content);
+
+		try {
+			// the file exists, but is only reachable by leaving the temp files directory
+			getDocumentFacade().saveDocumentFromFile(
+				buildDocument(user, "Outside.pdf", content.length, event),
+				tempFilesPath.resolve("..").resolve(outsideFileName).toString());
+			fail("A file outside of the temp files directory has been saved");
+		} catch (IllegalArgumentException e) {
+			assertThat(getDocumentFacade().getDocumentsRelatedToEntity(DocumentRelatedEntityType.EVENT, event.getUuid()), empty());
+		} finally {
+			Files.deleteIfExists(outsideFile);
+		}
+	}
+
+	private DocumentDto buildDocument(UserDto user, String name, long size, EventDto event) {
+		DocumentDto document = DocumentDto.build();
+		document.setUploadingUser(user.toReference());
+		document.setName(name);
+		document.setMimeType("application/pdf");
+		document.setSize(size);
+		document.setRelatedEntityType(DocumentRelatedEntityType.EVENT);
+		document.setRelatedEntityUuid(event.getUuid());
+		return document;
+	}
 }
@@ -1,7 +1,10 @@
 package de.symeda.sormas.backend.feature;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Date;
 import java.util.List;
 
 import org.junit.Test;
@@ -14,6 +17,7 @@ import de.symeda.sormas.api.task.TaskDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.api.utils.DataHelper;
+import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.backend.AbstractBeanTest;
 import de.symeda.sormas.backend.TestDataCreator.RDCFEntities;
 
@@ -35,4 +39,28 @@ public class FeatureConfigurationFacadeEjbTest extends AbstractBeanTest {
 		List<TaskDto> caseTasks = getTaskFacade().getAllPendingByCase(caze.toReference());
 		assertEquals(0, caseTasks.size());
 	}
+
+	@Test
+	public void testFeatureConfigurationCache() {
+
+		assertFalse(getFeatureConfigurationFacade().isFeatureDisabled(FeatureType.TASK_GENERATION_CONTACT_TRACING));
+
+		// saving invalidates the cached configurations
+		FeatureConfigurationIndexDto featureConfiguration =
+			new FeatureConfigurationIndexDto(DataHelper.createUuid(), null, null, null, null, null, false, null);
+		getFeatureConfigurationFacade().saveFeatureConfiguration(featureConfiguration, FeatureType.TASK_GENERATION_CONTACT_TRACING);
+		assertTrue(getFeatureConfigurationFacade().isFeatureDisabled(FeatureType.TASK_GENERATION_CONTACT_TRACING));
+
+		// configurations keep disabling the feature after their end date until they are deleted
+		FeatureConfigurationIndexDto expiredConfiguration =
+			new FeatureConfigurationIndexDto(DataHelper.createUuid(), null, null, null, null, null, false, null);
+		expiredConfiguration.setEndDate(DateHelper.subtractDays(new Date(), 1));
+		getFeatureConfigurationFacade().saveFeatureConfiguration(expiredConfiguration, FeatureType.TASK_GENERATION_EVENT_SURVEILLANCE);
+		assertTrue(getFeatureConfigurationFacade().isFeatureDisabled(FeatureType.TASK_GENERATION_EVENT_SURVEILLANCE));
+
+		// deleting expired configurations invalidates the cached configurations
+		getFeatureConfigurationFacade().deleteAllExpiredFeatureConfigurations(new Date());
+		assertFalse(getFeatureConfigurationFacade().isFeatureDisabled(FeatureType.TASK_GENERATION_EVENT_SURVEILLANCE));
+		assertTrue(getFeatureConfigurationFacade().isFeatureDisabled(FeatureType.TASK_GENERATION_CONTACT_TRACING));
+	}
 }
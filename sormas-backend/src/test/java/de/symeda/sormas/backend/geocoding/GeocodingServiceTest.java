@@ -0,0 +1,174 @@
+package de.symeda.sormas.backend.geocoding;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.MockProducer;
+
+public class GeocodingServiceTest extends AbstractBeanTest {
+
+	private static final int WIREMOCK_TESTING_PORT = 7778;
+
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule(options().port(WIREMOCK_TESTING_PORT), false);
+
+	@Before
+	public void setup() {
+		MockProducer.getProperties()
+			.setProperty(
+				"geocodingServiceUrlTemplate",
+				String.format("http://localhost:%s/geocode?q=${street}+${houseNumber},${postalCode}+${city}", WIREMOCK_TESTING_PORT));
+		MockProducer.getProperties().setProperty("geocodingLongitudeJsonPath", "$.features[0].geometry.coordinates[0]");
+		MockProducer.getProperties().setProperty("geocodingLatitudeJsonPath", "$.features[0].geometry.coordinates[1]");
+	}
+
+	@After
+	public void teardown() {
+		MockProducer.getProperties().remove("geocodingServiceUrlTemplate");
+		MockProducer.getProperties().remove("geocodingLongitudeJsonPath");
+		MockProducer.getProperties().remove("geocodingLatitudeJsonPath");
+	}
+
+	@Test
+	public void testGetLatLonIsCached() {
+
+		stubGeocoding("Main", "{\"features\":[{\"geometry\":{\"coordinates\":[13.4,52.5]}}]}");
+
+		GeoLatLon latLon = getGeocodingService().getLatLon(new LocationQuery("1", "Main Street", "12345", "Berlin"));
+		assertThat(latLon.getLat(), closeTo(52.5, 0.0001));
+		assertThat(latLon.getLon(), closeTo(13.4, 0.0001));
+
+		// differs only in spelling
+		GeoLatLon cachedLatLon = getGeocodingService().getLatLon(new LocationQuery("1", " main  STREET", "12345", "berlin "));
+		assertThat(cachedLatLon.getLat(), closeTo(52.5, 0.0001));
+
+		verify(1, getRequestedFor(urlPathEqualTo("/geocode")));
+		assertThat(
+			getGeocodingCacheEntryService()
+				.getByQueryKeys(Collections.singletonList(new LocationQuery("1", "Main Street", "12345", "Berlin").getNormalizedKey()))
+				.size(),
+			is(1));
+	}
+
+	@Test
+	public void testLongAddressIsCached() {
+
+		stubGeocoding("Main", "{\"features\":[{\"geometry\":{\"coordinates\":[13.4,52.5]}}]}");
+
+		LocationQuery query = new LocationQuery(
+			StringUtils.repeat("1", 512),
+			"Main Street " + StringUtils.repeat("x", 500),
+			StringUtils.repeat("2", 512),
+			StringUtils.repeat("Berlin", 85));
+		assertThat(query.getNormalizedKey().length(), greaterThan(2000));
+
+		assertThat(getGeocodingService().getLatLon(query).getLat(), closeTo(52.5, 0.0001));
+		assertThat(getGeocodingService().getLatLon(query).getLat(), closeTo(52.5, 0.0001));
+
+		verify(1, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	@Test
+	public void testStoreForCachedAddress() {
+
+		stubGeocoding("Main", "{\"features\":[{\"geometry\":{\"coordinates\":[13.4,52.5]}}]}");
+
+		LocationQuery query = new LocationQuery("1", "Main Street", "12345", "Berlin");
+		getGeocodingService().getLatLon(query);
+
+		// a concurrent request that did not see the entry yet stores the address again
+		getGeocodingCacheEntryService().store(query.getNormalizedKey(), new GeoLatLon(48.1, 11.6));
+		getGeocodingCacheEntryService().store(query.getNormalizedKey(), null);
+		getGeocodingCacheEntryService().store(query.getNormalizedKey(), new GeoLatLon(50.1, 8.7));
+		getEntityManager().clear();
+
+		Map<String, GeocodingCacheEntry> entries =
+			getGeocodingCacheEntryService().getByQueryKeys(Collections.singletonList(query.getNormalizedKey()));
+		assertThat(entries.size(), is(1));
+		assertThat(entries.get(query.getNormalizedKey()).getLatitude(), closeTo(50.1, 0.0001));
+		assertThat(getGeocodingCacheEntryService().count(), is(1L));
+	}
+
+	@Test
+	public void testAddressNotFoundIsCached() {
+
+		stubGeocoding("Main", "{\"features\":[]}");
+
+		LocationQuery query = new LocationQuery("1", "Main Street", "12345", "Berlin");
+		assertThat(getGeocodingService().getLatLon(query), nullValue());
+		assertThat(getGeocodingService().getLatLon(query), nullValue());
+
+		verify(1, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	@Test
+	public void testFailedRequestIsNotCached() {
+
+		stubFor(get(urlPathEqualTo("/geocode")).willReturn(aResponse().withStatus(HttpStatus.SC_INTERNAL_SERVER_ERROR)));
+
+		LocationQuery query = new LocationQuery("1", "Main Street", "12345", "Berlin");
+		assertThat(getGeocodingService().getLatLon(query), nullValue());
+		assertThat(getGeocodingService().getLatLon(query), nullValue());
+
+		verify(2, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	@Test
+	public void testGetLatLonsRequestsEachAddressOnce() {
+
+		stubGeocoding("Main", "{\"features\":[{\"geometry\":{\"coordinates\":[13.4,52.5]}}]}");
+		stubGeocoding("Side", "{\"features\":[{\"geometry\":{\"coordinates\":[11.6,48.1]}}]}");
+
+		LocationQuery main = new LocationQuery("1", "Main Street", "12345", "Berlin");
+		LocationQuery side = new LocationQuery("2", "Side Street", "80331", "Munich");
+		Map<String, GeoLatLon> latLons =
+			getGeocodingService().getLatLons(Arrays.asList(main, side, new LocationQuery("1", "MAIN STREET", "12345", "Berlin")));
+
+		assertThat(latLons.size(), is(2));
+		assertThat(latLons.get(main.getNormalizedKey()).getLat(), closeTo(52.5, 0.0001));
+		assertThat(latLons.get(side.getNormalizedKey()).getLat(), closeTo(48.1, 0.0001));
+		verify(2, getRequestedFor(urlPathEqualTo("/geocode")));
+
+		// cached and uncached addresses in one batch
+		LocationQuery unknown = new LocationQuery("3", "Unknown Street", "12345", "Berlin");
+		stubGeocoding("Unknown", "{\"features\":[]}");
+		latLons = getGeocodingService().getLatLons(Arrays.asList(main, unknown));
+
+		assertThat(latLons.get(main.getNormalizedKey()), notNullValue());
+		assertThat(latLons.containsKey(unknown.getNormalizedKey()), is(false));
+		verify(3, getRequestedFor(urlPathEqualTo("/geocode")));
+	}
+
+	private void stubGeocoding(String street, String responseBody) {
+		stubFor(
+			get(urlPathEqualTo("/geocode")).withQueryParam("q", containing(street))
+				.willReturn(aResponse().withStatus(HttpStatus.SC_OK).withHeader("Content-Type", "application/json").withBody(responseBody)));
+	}
+}
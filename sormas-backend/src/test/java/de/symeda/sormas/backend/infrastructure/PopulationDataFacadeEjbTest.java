@@ -1,11 +1,15 @@
 package de.symeda.sormas.backend.infrastructure;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
+import java.util.Collections;
 import java.util.Date;
 
 import org.junit.Test;
 
+import de.symeda.sormas.api.infrastructure.PopulationDataCriteria;
+import de.symeda.sormas.api.infrastructure.PopulationDataDto;
 import de.symeda.sormas.api.region.DistrictDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionDto;
@@ -44,4 +48,25 @@ public class PopulationDataFacadeEjbTest extends AbstractBeanTest {
 
 		assertEquals(new Integer(487440), getPopulationDataFacade().getProjectedDistrictPopulation(rdcf.district.getUuid()));
 	}
+
+	@Test
+	public void testPopulationIsUpdatedAfterChanges() {
+
+		RDCFEntities rdcf = creator.createRDCFEntities("Region", "District", "Community", "Facility");
+		RegionReferenceDto regionRef = new RegionReferenceDto(rdcf.region.getUuid(), null, null);
+		assertNull(getPopulationDataFacade().getRegionPopulation(rdcf.region.getUuid()));
+
+		PopulationDataDto populationData = creator.createPopulationData(regionRef, null, 450000, DateHelper.subtractYears(new Date(), 3));
+		assertEquals(new Integer(450000), getPopulationDataFacade().getProjectedRegionPopulation(rdcf.region.getUuid()));
+
+		RegionDto region = getRegionFacade().getRegionByUuid(rdcf.region.getUuid());
+		region.setGrowthRate(2.7f);
+		getRegionFacade().saveRegion(region);
+		assertEquals(new Integer(487440), getPopulationDataFacade().getProjectedRegionPopulation(rdcf.region.getUuid()));
+
+		populationData = getPopulationDataFacade().getPopulationData(new PopulationDataCriteria().region(regionRef)).get(0);
+		populationData.setPopulation(500000);
+		getPopulationDataFacade().savePopulationData(Collections.singletonList(populationData));
+		assertEquals(new Integer(500000), getPopulationDataFacade().getRegionPopulation(rdcf.region.getUuid()));
+	}
 }
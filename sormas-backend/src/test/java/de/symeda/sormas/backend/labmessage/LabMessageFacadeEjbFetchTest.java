@@ -0,0 +1,233 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.labmessage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.symeda.sormas.api.labmessage.ExternalLabResultsFacade;
+import de.symeda.sormas.api.labmessage.ExternalMessageResult;
+import de.symeda.sormas.api.labmessage.LabMessageDto;
+import de.symeda.sormas.api.labmessage.LabMessageFetchResult;
+import de.symeda.sormas.api.labmessage.NewMessagesState;
+import de.symeda.sormas.api.labmessage.PagedExternalLabResultsFacade;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LabMessageFacadeEjbFetchTest {
+
+	private final StubLabResultsFacade labResultsFacade = new StubLabResultsFacade();
+	private ExternalLabResultsFacade adapter = labResultsFacade;
+
+	@Mock
+	private SystemEventFacadeEjb.SystemEventFacadeEjbLocal systemEventFacade;
+	@Mock
+	private LabMessageIngestionService labMessageIngestionService;
+
+	@InjectMocks
+	private LabMessageFacadeEjb sut = new LabMessageFacadeEjb() {
+
+		@Override
+		protected ExternalLabResultsFacade getExternalLabResultsFacade() {
+			return adapter;
+		}
+	};
+
+	@Captor
+	private ArgumentCaptor<List<LabMessageDto>> chunkCaptor;
+	@Captor
+	private ArgumentCaptor<Date> synchronizationDateCaptor;
+
+	@Test
+	public void testFetchInPages() {
+
+		int messageCount = 2 * LabMessageFacadeEjb.FETCH_PAGE_SIZE + 200;
+		for (int i = 1; i <= messageCount; i++) {
+			labResultsFacade.messages.add(labMessage("message" + i, i));
+		}
+
+		LabMessageFetchResult result = sut.fetchAndSaveExternalLabMessages(null);
+
+		assertTrue(result.isSuccess());
+		assertEquals(NewMessagesState.NEW_MESSAGES, result.getNewMessagesState());
+
+		verify(labMessageIngestionService, times(3)).saveChunk(chunkCaptor.capture(), any(), synchronizationDateCaptor.capture());
+		List<List<LabMessageDto>> chunks = chunkCaptor.getAllValues();
+		// the last message of a page is repeated on the next one, but only saved once
+		assertEquals(LabMessageFacadeEjb.FETCH_PAGE_SIZE, chunks.get(0).size());
+		assertEquals(LabMessageFacadeEjb.FETCH_PAGE_SIZE - 1, chunks.get(1).size());
+		Set<String> savedUuids = chunks.stream().flatMap(List::stream).map(LabMessageDto::getUuid).collect(Collectors.toSet());
+		assertEquals(messageCount, savedUuids.size());
+
+		List<Long> synchronizationDates = synchronizationDateCaptor.getAllValues().stream().map(Date::getTime).collect(Collectors.toList());
+		assertEquals(LabMessageFacadeEjb.FETCH_PAGE_SIZE, (long) synchronizationDates.get(0));
+		assertEquals(2 * LabMessageFacadeEjb.FETCH_PAGE_SIZE - 1, (long) synchronizationDates.get(1));
+		assertEquals(messageCount, (long) synchronizationDates.get(2));
+	}
+
+	@Test
+	public void testFetchWithoutPaging() {
+
+		int messageCount = LabMessageFacadeEjb.FETCH_PAGE_SIZE + 200;
+		List<LabMessageDto> messages = new ArrayList<>();
+		for (int i = 1; i <= messageCount; i++) {
+			messages.add(labMessage("message" + i, i));
+		}
+		ExternalLabResultsFacade unpagedAdapter = mock(ExternalLabResultsFacade.class);
+		when(unpagedAdapter.getExternalLabMessages(any())).thenReturn(new ExternalMessageResult<>(messages, new Date(messageCount), true, null));
+		adapter = unpagedAdapter;
+
+		LabMessageFetchResult result = sut.fetchAndSaveExternalLabMessages(null);
+
+		// the adapter returns all messages at once, so it is only asked once
+		assertTrue(result.isSuccess());
+		verify(unpagedAdapter).getExternalLabMessages(any());
+		verify(labMessageIngestionService).saveChunk(chunkCaptor.capture(), any(), eq(new Date(messageCount)));
+		assertEquals(messageCount, chunkCaptor.getValue().size());
+	}
+
+	@Test
+	public void testFetchWithoutMessages() {
+
+		LabMessageFetchResult result = sut.fetchAndSaveExternalLabMessages(new Date(100));
+
+		assertTrue(result.isSuccess());
+		assertEquals(NewMessagesState.NO_NEW_MESSAGES, result.getNewMessagesState());
+		verify(labMessageIngestionService).saveChunk(eq(new ArrayList<>()), any(), eq(new Date(100)));
+	}
+
+	@Test
+	public void testErrorKeepsSavedPages() {
+
+		for (int i = 1; i <= LabMessageFacadeEjb.FETCH_PAGE_SIZE + 1; i++) {
+			labResultsFacade.messages.add(labMessage("message" + i, i));
+		}
+		labResultsFacade.failAfterPages = 1;
+		doAnswer(invocation -> {
+			((SystemEventDto) invocation.getArgument(1)).setStatus(SystemEventStatus.SUCCESS);
+			return null;
+		}).when(labMessageIngestionService).saveChunk(any(), any(), any());
+
+		LabMessageFetchResult result = sut.fetchAndSaveExternalLabMessages(null);
+
+		assertFalse(result.isSuccess());
+		ArgumentCaptor<SystemEventDto> fetchEventCaptor = ArgumentCaptor.forClass(SystemEventDto.class);
+		ArgumentCaptor<SystemEventDto> errorEventCaptor = ArgumentCaptor.forClass(SystemEventDto.class);
+		verify(labMessageIngestionService).saveChunk(any(), fetchEventCaptor.capture(), any());
+		verify(systemEventFacade).reportError(errorEventCaptor.capture(), eq("adapter down"), any());
+		assertNotEquals(fetchEventCaptor.getValue().getUuid(), errorEventCaptor.getValue().getUuid());
+		assertEquals(SystemEventStatus.SUCCESS, fetchEventCaptor.getValue().getStatus());
+	}
+
+	@Test
+	public void testDeduplicate() {
+
+		LabMessageDto first = labMessage("a", 1);
+		LabMessageDto changed = labMessage("a", 2);
+		LabMessageDto other = labMessage("b", 1);
+		List<LabMessageDto> page = new ArrayList<>();
+		page.add(first);
+		page.add(other);
+		page.add(changed);
+
+		List<LabMessageDto> result = LabMessageFacadeEjb.deduplicate(page, new HashMap<>());
+		assertEquals(2, result.size());
+		assertEquals(new Date(2), result.get(0).getChangeDate());
+
+		Map<String, Date> saved = new HashMap<>();
+		saved.put("b", new Date(1));
+		saved.put("a", new Date(1));
+		result = LabMessageFacadeEjb.deduplicate(page, saved);
+		assertEquals(1, result.size());
+		assertEquals("a", result.get(0).getUuid());
+	}
+
+	private static LabMessageDto labMessage(String uuid, long changeDate) {
+
+		LabMessageDto labMessage = LabMessageDto.build();
+		labMessage.setUuid(uuid);
+		labMessage.setChangeDate(new Date(changeDate));
+		return labMessage;
+	}
+
+	/**
+	 * Pages by change date and repeats the messages changed at the synchronization date on the next page.
+	 */
+	private static class StubLabResultsFacade implements PagedExternalLabResultsFacade {
+
+		private final List<LabMessageDto> messages = new ArrayList<>();
+		private int failAfterPages = -1;
+		private int pageCount;
+
+		@Override
+		public ExternalMessageResult<List<LabMessageDto>> getExternalLabMessages(Date since) {
+			return getExternalLabMessages(since, Integer.MAX_VALUE);
+		}
+
+		@Override
+		public ExternalMessageResult<List<LabMessageDto>> getExternalLabMessages(Date since, int maxResults) {
+
+			if (pageCount++ == failAfterPages) {
+				return new ExternalMessageResult<>(null, null, false, "adapter down");
+			}
+
+			List<LabMessageDto> page = messages.stream()
+				.filter(m -> !m.getChangeDate().before(since))
+				.sorted(Comparator.comparing(LabMessageDto::getChangeDate))
+				.limit(maxResults)
+				.collect(Collectors.toList());
+			Date synchronizationDate = page.isEmpty() ? since : page.get(page.size() - 1).getChangeDate();
+			return new ExternalMessageResult<>(page, synchronizationDate, true, null);
+		}
+
+		@Override
+		public ExternalMessageResult<String> convertToHTML(LabMessageDto message) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ExternalMessageResult<byte[]> convertToPDF(LabMessageDto message) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
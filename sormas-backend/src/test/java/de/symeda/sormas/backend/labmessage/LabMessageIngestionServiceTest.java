@@ -0,0 +1,73 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.labmessage;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import de.symeda.sormas.api.labmessage.LabMessageDto;
+import de.symeda.sormas.api.systemevents.SystemEventDto;
+import de.symeda.sormas.backend.labmessage.LabMessageFacadeEjb.LabMessageFacadeEjbLocal;
+import de.symeda.sormas.backend.systemevent.SystemEventFacadeEjb.SystemEventFacadeEjbLocal;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LabMessageIngestionServiceTest {
+
+	@Mock
+	private LabMessageFacadeEjbLocal labMessageFacade;
+	@Mock
+	private SystemEventFacadeEjbLocal systemEventFacade;
+
+	@InjectMocks
+	private LabMessageIngestionService sut;
+
+	@Test
+	public void testSaveChunk() {
+
+		LabMessageDto labMessage = LabMessageDto.build();
+		SystemEventDto fetchEvent = new SystemEventDto();
+
+		sut.saveChunk(Collections.singletonList(labMessage), fetchEvent, new Date(100));
+
+		verify(labMessageFacade).save(labMessage);
+		verify(systemEventFacade).reportSuccess(eq(fetchEvent), eq(LabMessageIngestionService.SYNCHRONIZATION_DATE_PREFIX + 100), any());
+	}
+
+	@Test
+	public void testSaveChunkWithoutSynchronizationDate() {
+
+		LabMessageDto labMessage = LabMessageDto.build();
+		SystemEventDto fetchEvent = new SystemEventDto();
+
+		sut.saveChunk(Collections.singletonList(labMessage), fetchEvent, null);
+
+		// the messages are saved and the synchronization date of a previous page is kept
+		verify(labMessageFacade).save(labMessage);
+		verify(systemEventFacade).reportSuccess(eq(fetchEvent), any(Date.class));
+		verify(systemEventFacade, never()).reportSuccess(any(), anyString(), any());
+	}
+}
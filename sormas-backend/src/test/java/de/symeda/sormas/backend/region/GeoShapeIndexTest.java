@@ -0,0 +1,73 @@
+package de.symeda.sormas.backend.region;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+
+import de.symeda.sormas.api.region.GeoLatLon;
+
+public class GeoShapeIndexTest {
+
+	private final GeometryFactory factory = new GeometryFactory();
+
+	@Test
+	public void testGetByCoord() {
+
+		Map<String, MultiPolygon> shapes = new HashMap<>();
+		shapes.put("west", square(0, 0, 10));
+		shapes.put("east", square(10, 0, 10));
+		// an L-shaped shape whose envelope also covers (22, 5)
+		shapes.put("l-shape", factory.createMultiPolygon(new Polygon[] {
+			polygon(25, 0, 30, 0, 30, 20, 20, 20, 20, 10, 25, 10, 25, 0) }));
+		GeoShapeIndex<String> index = new GeoShapeIndex<>(shapes);
+
+		assertEquals("west", index.getByCoord(new GeoLatLon(5, 5)));
+		assertEquals("east", index.getByCoord(new GeoLatLon(5, 15)));
+		assertEquals("l-shape", index.getByCoord(new GeoLatLon(15, 22)));
+		assertEquals("l-shape", index.getByCoord(new GeoLatLon(5, 27)));
+		assertNull(index.getByCoord(new GeoLatLon(5, 22)));
+		assertNull(index.getByCoord(new GeoLatLon(50, 50)));
+
+		List<String> keys = index.getByCoords(Arrays.asList(new GeoLatLon(5, 5), null, new GeoLatLon(50, 50), new GeoLatLon(5, 15)));
+		assertEquals(Arrays.asList("west", null, null, "east"), keys);
+
+		assertEquals(5, index.getCenter("west").getLat(), 0.0001);
+		assertEquals(15, index.getCenter("east").getLon(), 0.0001);
+		assertNull(index.getCenter("north"));
+	}
+
+	@Test
+	public void testEmpty() {
+
+		GeoShapeIndex<String> index = GeoShapeIndex.empty();
+
+		assertTrue(index.isEmpty());
+		assertNull(index.getByCoord(new GeoLatLon(5, 5)));
+		assertNull(index.getCenterOfAll());
+	}
+
+	private MultiPolygon square(double x, double y, double size) {
+		return factory.createMultiPolygon(new Polygon[] {
+			polygon(x, y, x + size, y, x + size, y + size, x, y + size, x, y) });
+	}
+
+	private Polygon polygon(double... xys) {
+
+		Coordinate[] coordinates = new Coordinate[xys.length / 2];
+		for (int i = 0; i < coordinates.length; i++) {
+			coordinates[i] = new Coordinate(xys[2 * i], xys[2 * i + 1]);
+		}
+		return factory.createPolygon(coordinates);
+	}
+}
@@ -16,14 +16,17 @@
 package de.symeda.sormas.backend.sormastosormas;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isEmptyString;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
@@ -45,6 +48,7 @@ import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.CaseOrigin;
 import de.symeda.sormas.api.caze.CaseOutcome;
+import de.symeda.sormas.api.caze.CaseReferenceDto;
 import de.symeda.sormas.api.caze.porthealthinfo.PortHealthInfoDto;
 import de.symeda.sormas.api.contact.ContactDto;
 import de.symeda.sormas.api.contact.QuarantineType;
@@ -198,6 +202,45 @@ public class SormasToSormasCaseFacadeEjbTest extends SormasToSormasFacadeTest {
 		assertThat(contactShareInfo.getComment(), is("Test comment"));
 	}
 
+	@Test
+	public void testShareCasesInChunks() throws SormasToSormasException {
+		TestDataCreator.RDCF rdcf = creator.createRDCF();
+
+		useSurveillanceOfficerLogin(rdcf);
+
+		UserReferenceDto officer = creator.createUser(rdcf, UserRole.SURVEILLANCE_OFFICER).toReference();
+		List<String> caseUuids = new ArrayList<>();
+		for (int i = 0; i <= AbstractSormasToSormasInterface.SHARE_CHUNK_SIZE; i++) {
+			caseUuids.add(creator.createCase(officer, creator.createPerson().toReference(), rdcf).getUuid());
+		}
+
+		SormasToSormasOptionsDto options = new SormasToSormasOptionsDto();
+		options.setOrganization(new ServerAccessDataReferenceDto(SECOND_SERVER_ACCESS_ID));
+
+		List<Integer> chunkSizes = new ArrayList<>();
+		Mockito.when(MockProducer.getSormasToSormasClient().post(Matchers.anyString(), Matchers.anyString(), Matchers.any(), Matchers.any()))
+			.thenAnswer(invocation -> {
+				chunkSizes.add(invocation.getArgument(2, List.class).size());
+
+				return Response.noContent().build();
+			});
+
+		getSormasToSormasCaseFacade().shareEntities(caseUuids, options);
+
+		assertThat(chunkSizes, contains(AbstractSormasToSormasInterface.SHARE_CHUNK_SIZE, 1));
+
+		// each chunk is recorded with its own share info
+		List<SormasToSormasShareInfoDto> firstShareInfos = getSormasToSormasFacade()
+			.getShareInfoIndexList(new SormasToSormasShareInfoCriteria().caze(new CaseReferenceDto(caseUuids.get(0))), 0, 100);
+		List<SormasToSormasShareInfoDto> lastShareInfos = getSormasToSormasFacade().getShareInfoIndexList(
+			new SormasToSormasShareInfoCriteria().caze(new CaseReferenceDto(caseUuids.get(AbstractSormasToSormasInterface.SHARE_CHUNK_SIZE))),
+			0,
+			100);
+		assertThat(firstShareInfos, hasSize(1));
+		assertThat(lastShareInfos, hasSize(1));
+		assertThat(firstShareInfos.get(0).getUuid(), is(not(lastShareInfos.get(0).getUuid())));
+	}
+
 	@Test
 	public void testShareCaseWithSamples() throws SormasToSormasException, JsonProcessingException {
 		TestDataCreator.RDCF rdcf = creator.createRDCF();
@@ -16,12 +16,19 @@
 package de.symeda.sormas.backend.sormastosormas;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.Test;
 
@@ -34,6 +41,8 @@ import de.symeda.sormas.api.sormastosormas.caze.SormasToSormasCaseDto;
 import de.symeda.sormas.api.user.UserReferenceDto;
 import de.symeda.sormas.api.user.UserRole;
 import de.symeda.sormas.backend.TestDataCreator;
+import de.symeda.sormas.backend.crypt.CmsCreator;
+import de.symeda.sormas.backend.crypt.CmsReader;
 
 public class SormasToSormasEncryptionServiceTest extends SormasToSormasFacadeTest {
 
@@ -77,4 +86,71 @@ public class SormasToSormasEncryptionServiceTest extends SormasToSormasFacadeTes
 		assertThat(decryptedCase.getAssociatedContacts(), is(nullValue()));
 
 	}
+
+	@Test
+	public void testCompressionOnlyForCapableReceivers() throws Exception {
+
+		// the second server lists the gzip capability
+		mockDefaultServerAccess();
+		SormasToSormasEncryptedDataDto compressed = getSormasToSormasEncryptionService().signAndEncrypt("payload", SECOND_SERVER_ACCESS_ID);
+		mockSecondServerAccess();
+
+		byte[] compressedPayload = decrypt(compressed, SECOND_SERVER_ACCESS_ID);
+		assertThat(compressedPayload[0], is((byte) GZIPInputStream.GZIP_MAGIC));
+		assertThat(getSormasToSormasEncryptionService().decryptAndVerify(compressed, String.class), is("payload"));
+
+		// the default server is listed without capabilities, like servers of older versions
+		SormasToSormasEncryptedDataDto uncompressed = getSormasToSormasEncryptionService().signAndEncrypt("payload", DEFAULT_SERVER_ACCESS_ID);
+		mockDefaultServerAccess();
+
+		assertThat(new String(decrypt(uncompressed, DEFAULT_SERVER_ACCESS_ID), StandardCharsets.UTF_8), is("\"payload\""));
+		assertThat(getSormasToSormasEncryptionService().decryptAndVerify(uncompressed, String.class), is("payload"));
+	}
+
+	@Test
+	public void testDecryptLegacyPayload() throws Exception {
+
+		// servers of older versions sign and encrypt the uncompressed JSON in memory
+		mockDefaultServerAccess();
+		SormasToSormasKeyMaterialCache.KeyMaterial keyMaterial =
+			getBean(SormasToSormasKeyMaterialCache.class).getKeyMaterial(DEFAULT_SERVER_ACCESS_ID);
+		byte[] legacyData = CmsCreator.signAndEncrypt(
+			"[\"payload\"]".getBytes(StandardCharsets.UTF_8),
+			keyMaterial.getIdentity(),
+			keyMaterial.getPartner(SECOND_SERVER_ACCESS_ID),
+			true);
+
+		assertThat(decryptSharesData(legacyData, String[].class), arrayContaining("payload"));
+	}
+
+	@Test
+	public void testKeyMaterialCache() throws Exception {
+
+		mockDefaultServerAccess();
+		SormasToSormasKeyMaterialCache cache = getBean(SormasToSormasKeyMaterialCache.class);
+
+		SormasToSormasKeyMaterialCache.KeyMaterial keyMaterial = cache.getKeyMaterial(DEFAULT_SERVER_ACCESS_ID);
+		assertThat(keyMaterial.getIdentity(), notNullValue());
+		assertThat(keyMaterial.getPartner(SECOND_SERVER_ACCESS_ID), notNullValue());
+		assertThat(keyMaterial.getPartner("unknown"), nullValue());
+
+		// the stores are only loaded again when they change
+		assertThat(cache.getKeyMaterial(DEFAULT_SERVER_ACCESS_ID), sameInstance(keyMaterial));
+		assertThat(keyMaterial.getPartner(SECOND_SERVER_ACCESS_ID), sameInstance(keyMaterial.getPartner(SECOND_SERVER_ACCESS_ID)));
+
+		File keystore = new File(new File("src/test/java/de/symeda/sormas/backend/sormastosormas/serveraccessdefault"), "default.sormas2sormas.keystore.p12");
+		long lastModified = keystore.lastModified();
+		try {
+			keystore.setLastModified(lastModified + 1000);
+			assertThat(cache.getKeyMaterial(DEFAULT_SERVER_ACCESS_ID), not(sameInstance(keyMaterial)));
+		} finally {
+			keystore.setLastModified(lastModified);
+		}
+	}
+
+	private byte[] decrypt(SormasToSormasEncryptedDataDto encryptedData, String ownId) throws Exception {
+
+		SormasToSormasKeyMaterialCache.KeyMaterial keyMaterial = getBean(SormasToSormasKeyMaterialCache.class).getKeyMaterial(ownId);
+		return CmsReader.decryptAndVerify(encryptedData.getData(), keyMaterial.getPartner(encryptedData.getOrganizationId()), keyMaterial.getIdentity());
+	}
 }
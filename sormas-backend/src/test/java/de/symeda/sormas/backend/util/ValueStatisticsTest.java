@@ -0,0 +1,42 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class ValueStatisticsTest {
+
+	@Test
+	public void testRecord() {
+
+		ValueStatistics statistics = new ValueStatistics("ms");
+		assertThat(statistics.getAverage(), equalTo(0L));
+		assertThat(statistics.toString(), equalTo("0 (avg 0 ms, max 0 ms)"));
+
+		statistics.record(10);
+		statistics.record(40);
+		statistics.record(25);
+
+		assertThat(statistics.getCount(), equalTo(3L));
+		assertThat(statistics.getTotal(), equalTo(75L));
+		assertThat(statistics.getAverage(), equalTo(25L));
+		assertThat(statistics.getMax(), equalTo(40L));
+		assertThat(statistics.toString(), equalTo("3 (avg 25 ms, max 40 ms)"));
+		assertThat(new ValueStatistics("").toString(), equalTo("0 (avg 0, max 0)"));
+	}
+}
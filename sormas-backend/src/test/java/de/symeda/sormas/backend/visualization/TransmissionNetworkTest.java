@@ -0,0 +1,124 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.backend.visualization;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.symeda.sormas.api.Language;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.contact.ContactProximity;
+
+public class TransmissionNetworkTest {
+
+	@Test
+	public void testChainsAndGenerations() {
+
+		TransmissionNetwork network = new TransmissionNetwork();
+
+		// chain 1: 1 -> 2 -> 3, 1 -> 4, 2 -> 4
+		network.addContact(1, 2, ContactProximity.SAME_ROOM);
+		network.addContact(2, 3, ContactProximity.SAME_ROOM);
+		network.addContact(1, 4, ContactProximity.SAME_ROOM);
+		network.addContact(2, 4, ContactProximity.SAME_ROOM);
+		// chain 2: a cycle 5 -> 6 -> 5
+		network.addContact(5, 6, ContactProximity.SAME_ROOM);
+		network.addContact(6, 5, ContactProximity.SAME_ROOM);
+		// chain 3: a contact without source case
+		network.addPerson(7);
+
+		assertThat(network.getNodeCount(), is(7));
+		assertThat(network.getEdgeCount(), is(6));
+
+		assertThat(network.getChain(1), is(1));
+		assertThat(network.getChain(4), is(1));
+		assertThat(network.getChain(5), is(2));
+		assertThat(network.getChain(6), is(2));
+		assertThat(network.getChain(7), is(3));
+
+		assertThat(network.getGeneration(1), is(0));
+		assertThat(network.getGeneration(2), is(1));
+		assertThat(network.getGeneration(3), is(2));
+		assertThat(network.getGeneration(4), is(1));
+		assertThat(network.getGeneration(5), is(0));
+		assertThat(network.getGeneration(6), is(1));
+		assertThat(network.getGeneration(7), is(0));
+	}
+
+	@Test
+	public void testToJson() throws IOException {
+
+		TransmissionNetwork network = new TransmissionNetwork();
+		network.addCase(1, "ABCDEF-GHIJ", new Date(2000), CaseClassification.CONFIRMED);
+		// the earlier case of the person is shown
+		network.addCase(1, "BBCDEF-GHIJ", new Date(1000), CaseClassification.SUSPECT);
+		network.addContact(1, 2, ContactProximity.SAME_ROOM);
+		// one edge for several contacts, high risk if any of them is
+		network.addContact(1, 2, ContactProximity.PHYSICAL_CONTACT);
+		network.addContact(1, 3, null);
+		// no edge from a person to itself
+		network.addContact(3, 3, ContactProximity.SAME_ROOM);
+
+		JsonNode x = new ObjectMapper().readTree(network.toJson()).get("x");
+
+		JsonNode nodes = x.get("nodes");
+		assertThat(values(nodes.get("id")), contains("1", "2", "3"));
+		assertThat(values(nodes.get("label")), contains("BBCDEF", "null", "null"));
+		assertThat(
+			values(nodes.get("group")),
+			contains("{Classification.SUSPECT}", TransmissionNetwork.HEALTHY_GROUP, TransmissionNetwork.HEALTHY_GROUP));
+		assertThat(values(nodes.get("chain")), contains("1", "1", "1"));
+		assertThat(values(nodes.get("level")), contains("0", "1", "1"));
+
+		JsonNode edges = x.get("edges");
+		assertThat(values(edges.get("from")), contains("1", "1"));
+		assertThat(values(edges.get("to")), contains("2", "3"));
+		assertThat(values(edges.get("label")), contains("1", "2"));
+		assertThat(values(edges.get("dashes")), contains("false", "true"));
+
+		assertThat(values(x.get("groups")), contains("{Classification.SUSPECT}", TransmissionNetwork.HEALTHY_GROUP));
+		assertThat(x.get("footer").isNull(), is(true));
+		assertThat(x.get("main").get("text").asText(), is("{heading}"));
+	}
+
+	@Test
+	public void testI18n() {
+
+		String json = VisualizationFacadeEjb.doI18n(new TransmissionNetwork().toJson(), Language.EN);
+
+		assertThat(json.contains("\"Disease network diagram\""), is(true));
+		assertThat(json.contains("\"Healthy\""), is(true));
+		assertThat(json.contains("{legend}"), is(false));
+		assertThat(json.contains("{Classification."), is(false));
+	}
+
+	private static List<String> values(JsonNode array) {
+
+		List<String> values = new ArrayList<>();
+		array.forEach(v -> values.add(v.asText()));
+		return values;
+	}
+}
@@ -1,99 +1,155 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
 package de.symeda.sormas.backend.visualization;
 
-import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.endsWith;
-import static org.hamcrest.Matchers.hasSize;
-import static org.hamcrest.Matchers.is;
-import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
-import org.hamcrest.Matchers;
-import org.junit.Ignore;
-import org.junit.Rule;
 import org.junit.Test;
-import org.junit.rules.TemporaryFolder;
 
-import de.symeda.sormas.api.Language;
-
-public class VisualizationFacadeEjbTest { // extends AbstractBeanTest {
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-	@Rule
-	public TemporaryFolder temp = new TemporaryFolder();
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.Language;
+import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.caze.CaseDataDto;
+import de.symeda.sormas.api.caze.InvestigationStatus;
+import de.symeda.sormas.api.contact.ContactProximity;
+import de.symeda.sormas.api.person.PersonDto;
+import de.symeda.sormas.api.user.UserDto;
+import de.symeda.sormas.api.user.UserRole;
+import de.symeda.sormas.api.utils.DateHelper;
+import de.symeda.sormas.backend.AbstractBeanTest;
+import de.symeda.sormas.backend.TestDataCreator.RDCF;
+import de.symeda.sormas.backend.caze.Case;
+import de.symeda.sormas.backend.visualization.VisualizationFacadeEjb.VisualizationFacadeEjbLocal;
+
+public class VisualizationFacadeEjbTest extends AbstractBeanTest {
+
+	private RDCF rdcf;
 
 	@Test
-	@Ignore
-	public void testStaticBuildTransmissionChainJson() {
-
-		// FIXME depends on local database
-
-		List<Long> contactIds = Arrays.asList(30481L, 30478L);
-
-		String[] rscriptExecutableLocs = {
-			"C:\\Program Files\\R\\R-3.6.2\\bin\\Rscript.exe",
-			"C:\\Program Files\\R\\R-3.6.3\\bin\\Rscript.exe" };
-
-		Optional<String> rscriptExecutable = Arrays.stream(rscriptExecutableLocs).filter(p -> Files.isExecutable(Paths.get(p))).findFirst();
-
-		rscriptExecutable.ifPresent(r -> {
+	public void testBuildTransmissionChainJson() throws IOException {
+
+		rdcf = creator.createRDCF();
+		UserDto user =
+			creator.createUser(rdcf.region.getUuid(), rdcf.district.getUuid(), rdcf.facility.getUuid(), "Nat", "User", UserRole.NATIONAL_USER);
+		loginWith(user);
+		Date today = new Date();
+
+		PersonDto sourcePerson = creator.createPerson("Source", "Person");
+		PersonDto contactPerson = creator.createPerson("Contact", "Person");
+		PersonDto deletedCasePerson = creator.createPerson("Deleted", "Person");
+		PersonDto noCasePerson = creator.createPerson("NoCase", "Person");
+		PersonDto unknownSourcePerson = creator.createPerson("Unknown", "Person");
+		PersonDto noCaseContactPerson = creator.createPerson("NoCaseContact", "Person");
+
+		CaseDataDto sourceCase = createCase(user, sourcePerson, CaseClassification.CONFIRMED, DateHelper.subtractDays(today, 10));
+		CaseDataDto earlierCase = createCase(user, contactPerson, CaseClassification.PROBABLE, DateHelper.subtractDays(today, 5));
+		CaseDataDto laterCase = createCase(user, contactPerson, CaseClassification.CONFIRMED, DateHelper.subtractDays(today, 2));
+		CaseDataDto deletedCase = createCase(user, deletedCasePerson, CaseClassification.CONFIRMED, DateHelper.subtractDays(today, 3));
+		CaseDataDto noCase = createCase(user, noCasePerson, CaseClassification.NO_CASE, DateHelper.subtractDays(today, 3));
+
+		// two contacts of the same person, each with a resulting case
+		createContact(user, contactPerson, sourceCase, laterCase, ContactProximity.SAME_ROOM);
+		createContact(user, contactPerson, sourceCase, earlierCase, ContactProximity.PHYSICAL_CONTACT);
+		createContact(user, deletedCasePerson, sourceCase, deletedCase, null);
+		createContact(user, noCasePerson, sourceCase, noCase, null);
+		createContact(user, unknownSourcePerson, null, null, null);
+		// contacts of a case that is no case are not shown
+		createContact(user, noCaseContactPerson, noCase, null, null);
+
+		// deleting a case through the facade would also remove it from the contacts
+		Case deleted = getCaseService().getByUuid(deletedCase.getUuid());
+		deleted.setDeleted(true);
+		getCaseService().ensurePersisted(deleted);
+
+		String json = getBean(VisualizationFacadeEjbLocal.class)
+			.buildTransmissionChainJson(null, null, null, null, Collections.singleton(Disease.EVD), Language.EN);
+		JsonNode x = new ObjectMapper().readTree(json).get("x");
+
+		Map<String, String> caseUuidsByPerson = new HashMap<>();
+		JsonNode nodes = x.get("nodes");
+		for (int i = 0; i < nodes.get("id").size(); i++) {
+			JsonNode caseUuid = nodes.get("uuid").get(i);
+			caseUuidsByPerson.put(nodes.get("id").get(i).asText(), caseUuid.isNull() ? null : caseUuid.asText());
+		}
 
-			Path domainXmlPath = writeDomainXml();
+		assertEquals(5, caseUuidsByPerson.size());
+		assertEquals(sourceCase.getUuid(), caseUuidsByPerson.get(getPersonId(sourcePerson)));
+		// the earliest case of the person is shown
+		assertEquals(earlierCase.getUuid(), caseUuidsByPerson.get(getPersonId(contactPerson)));
+		// deleted resulting cases and those that are no case are left out, but the contact persons are shown
+		assertNull(caseUuidsByPerson.get(getPersonId(deletedCasePerson)));
+		assertNull(caseUuidsByPerson.get(getPersonId(noCasePerson)));
+		assertNull(caseUuidsByPerson.get(getPersonId(unknownSourcePerson)));
+		assertFalse(caseUuidsByPerson.containsKey(getPersonId(noCaseContactPerson)));
+
+		Set<String> edges = new HashSet<>();
+		JsonNode jsonEdges = x.get("edges");
+		for (int i = 0; i < jsonEdges.get("from").size(); i++) {
+			edges.add(jsonEdges.get("from").get(i).asText() + "->" + jsonEdges.get("to").get(i).asText());
+		}
 
-			String result = VisualizationFacadeEjb.buildTransmissionChainJson(r, temp.getRoot().toPath(), domainXmlPath, contactIds, Language.EN);
-			assertThat(result, startsWith("{"));
-			assertThat(result, endsWith("}"));
-		});
+		// one edge from the source case to each contact person, none for the contact without source case
+		Set<String> expectedEdges = new HashSet<>();
+		expectedEdges.add(getPersonId(sourcePerson) + "->" + getPersonId(contactPerson));
+		expectedEdges.add(getPersonId(sourcePerson) + "->" + getPersonId(deletedCasePerson));
+		expectedEdges.add(getPersonId(sourcePerson) + "->" + getPersonId(noCasePerson));
+		assertEquals(expectedEdges, edges);
+		assertEquals(expectedEdges.size(), jsonEdges.get("from").size());
 	}
 
-	@Test
-	public void testExtractJson() {
-		String json = VisualizationFacadeEjb.extractJson(
-			"<!DOCTYPE html>\r\n" + "<html>\r\n" + "<head>\r\n" + "<meta charset=\"utf-8\"/>\r\n" + "<style>body{background-color:white;}</style>\r\n"
-				+ "<script src=\"result_files/htmlwidgets-1.5.1/htmlwidgets.js\"></script>\r\n"
-				+ "<link href=\"result_files/vis-4.20.1/vis.css\" rel=\"stylesheet\" />\r\n" + "</head>\r\n" + "<body>\r\n"
-				+ "<div id=\"htmlwidget_container\">\r\n"
-				+ "  <div id=\"htmlwidget-b9f896960aa32dc1f3e5\" style=\"width:90%;height:700px;\" class=\"visNetwork html-widget\"></div>\r\n"
-				+ "</div>\r\n" + "<script type=\"application/json\" data-for=\"htmlwidget-b9f896960aa32dc1f3e5\">{\"x\":\"a\\/b\"}</script>\r\n"
-				+ "</body>\r\n" + "</html>",
-			Language.EN);
-		assertThat(json, is("{\"x\":\"a\\/b\"}"));
+	private CaseDataDto createCase(UserDto user, PersonDto person, CaseClassification classification, Date reportDate) {
+		return creator.createCase(
+			user.toReference(),
+			person.toReference(),
+			Disease.EVD,
+			classification,
+			InvestigationStatus.PENDING,
+			reportDate,
+			rdcf);
 	}
 
-	@Test
-	public void testReadDbConection() throws IOException {
-
-		Path domainXmlPath = writeDomainXml();
-
-		Map<String, String> dbProperties =
-			VisualizationFacadeEjb.getConnectionPoolProperties(domainXmlPath, VisualizationFacadeEjb.SORMAS_DATA_POOL_JNDI);
-		assertThat(dbProperties.entrySet(), hasSize(5));
-		assertThat(dbProperties, Matchers.hasEntry("user", "sormas_user"));
-		assertThat(dbProperties, Matchers.hasEntry("password", "sormas_user"));
-		assertThat(dbProperties, Matchers.hasEntry("portNumber", "5432"));
-		assertThat(dbProperties, Matchers.hasEntry("databaseName", "sormas_db"));
-		assertThat(dbProperties, Matchers.hasEntry("serverName", "localhost"));
+	private void createContact(UserDto user, PersonDto person, CaseDataDto sourceCase, CaseDataDto resultingCase, ContactProximity proximity) {
+		creator.createContact(
+			user.toReference(),
+			null,
+			person.toReference(),
+			sourceCase,
+			new Date(),
+			null,
+			Disease.EVD,
+			rdcf,
+			contact -> {
+				contact.setResultingCase(resultingCase != null ? resultingCase.toReference() : null);
+				contact.setContactProximity(proximity);
+			});
 	}
 
-	private Path writeDomainXml() {
-		try {
-			Path domPath = Files.createTempFile(temp.getRoot().toPath(), "domain", ".xml");
-
-			try (InputStream in = getClass().getResourceAsStream("/domain.xml")) {
-				Files.copy(in, domPath, StandardCopyOption.REPLACE_EXISTING);
-			}
-			return domPath;
-		} catch (IOException e) {
-			throw new UncheckedIOException(e);
-		}
+	private String getPersonId(PersonDto person) {
+		return String.valueOf(getPersonService().getByUuid(person.getUuid()).getId());
 	}
 }
@@ -316,5 +316,4 @@ echo "${DOMAIN_DIR}/stop-payara-sormas.sh"
 echo "---"
 echo "Please make sure to perform the following steps:"
 echo "  - Adjust the ${DOMAIN_DIR}/sormas.properties file to your system"
-echo "  - Execute the r-setup.sh file to enable disease network diagrams"
 echo "  - Build and deploy war and ear"
@@ -0,0 +1,147 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package de.symeda.sormas.ui.caze;
+
+import com.vaadin.shared.Registration;
+import com.vaadin.shared.ui.ContentMode;
+import com.vaadin.ui.Button;
+import com.vaadin.ui.ComboBox;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.Notification;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.VerticalLayout;
+import com.vaadin.ui.themes.ValoTheme;
+import com.vaadin.v7.ui.ProgressBar;
+
+import de.symeda.sormas.api.Disease;
+import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.caze.classification.CaseReclassificationProgressDto;
+import de.symeda.sormas.api.i18n.Captions;
+import de.symeda.sormas.api.i18n.I18nProperties;
+import de.symeda.sormas.api.i18n.Strings;
+import de.symeda.sormas.api.systemevents.SystemEventStatus;
+import de.symeda.sormas.ui.utils.ButtonHelper;
+import de.symeda.sormas.ui.utils.CssStyles;
+
+/**
+ * Starts the background re-classification of all cases of a disease and polls its progress.
+ */
+@SuppressWarnings("serial")
+public class CaseReclassificationLayout extends VerticalLayout {
+
+	private static final int POLL_INTERVAL = 1000;
+
+	private final ComboBox<Disease> diseaseField;
+	private final Button startButton;
+	private final ProgressBar progressBar;
+	private final Label progressLabel;
+
+	private Registration pollRegistration;
+
+	public CaseReclassificationLayout() {
+
+		setWidth(100, Unit.PERCENTAGE);
+		setMargin(true);
+
+		Label infoLabel = new Label(I18nProperties.getString(Strings.infoCaseReclassification), ContentMode.HTML);
+		infoLabel.setWidth(100, Unit.PERCENTAGE);
+		addComponent(infoLabel);
+
+		diseaseField = new ComboBox<>(null, FacadeProvider.getDiseaseConfigurationFacade().getAllDiseases(true, true, true));
+		diseaseField.setCaption(I18nProperties.getCaption(Captions.disease));
+		diseaseField.setEmptySelectionAllowed(false);
+		diseaseField.addValueChangeListener(
+			e -> showProgress(e.getValue() != null ? FacadeProvider.getCaseReclassificationFacade().getProgress(e.getValue()) : null));
+		addComponent(diseaseField);
+
+		progressBar = new ProgressBar(0.0f);
+		progressBar.setWidth(100, Unit.PERCENTAGE);
+		CssStyles.style(progressBar, CssStyles.VSPACE_TOP_3);
+		addComponent(progressBar);
+
+		progressLabel = new Label();
+		CssStyles.style(progressLabel, CssStyles.VSPACE_TOP_5);
+		addComponent(progressLabel);
+
+		startButton = ButtonHelper.createButton(Captions.caseReclassificationStart, e -> startReclassification(), ValoTheme.BUTTON_PRIMARY);
+		startButton.setEnabled(false);
+		addComponent(startButton);
+
+		addDetachListener(e -> stopPolling());
+	}
+
+	private void startReclassification() {
+
+		Disease disease = diseaseField.getValue();
+		if (!FacadeProvider.getCaseReclassificationFacade().reclassifyCases(disease)) {
+			Notification.show(I18nProperties.getString(Strings.messageCaseReclassificationAlreadyRunning), Notification.Type.WARNING_MESSAGE);
+		}
+		showProgress(FacadeProvider.getCaseReclassificationFacade().getProgress(disease));
+	}
+
+	private void showProgress(CaseReclassificationProgressDto progress) {
+
+		startButton.setEnabled(diseaseField.getValue() != null && (progress == null || !progress.isRunning()));
+
+		if (progress == null) {
+			progressBar.setValue(0.0f);
+			progressLabel.setValue(null);
+			stopPolling();
+			return;
+		}
+
+		progressBar.setValue(progress.getTotalCount() > 0 ? (float) progress.getProcessedCount() / progress.getTotalCount() : 1.0f);
+		progressLabel.setValue(
+			String.format(
+				I18nProperties.getCaption(Captions.caseReclassificationProgress),
+				progress.getProcessedCount(),
+				progress.getTotalCount(),
+				progress.getChangedCount(),
+				progress.getCasesPerSecond()));
+		CssStyles.removeStyles(progressLabel, CssStyles.LABEL_CRITICAL);
+		if (progress.getStatus() == SystemEventStatus.ERROR) {
+			CssStyles.style(progressLabel, CssStyles.LABEL_CRITICAL);
+		}
+
+		if (progress.isRunning()) {
+			startPolling(progress.getDisease());
+		} else {
+			stopPolling();
+		}
+	}
+
+	private void startPolling(Disease disease) {
+
+		stopPolling();
+		UI currentUI = UI.getCurrent();
+		currentUI.setPollInterval(POLL_INTERVAL);
+		pollRegistration = currentUI.addPollListener(e -> {
+			if (disease == diseaseField.getValue()) {
+				showProgress(FacadeProvider.getCaseReclassificationFacade().getProgress(disease));
+			}
+		});
+	}
+
+	private void stopPolling() {
+
+		if (pollRegistration != null) {
+			pollRegistration.remove();
+			pollRegistration = null;
+			UI.getCurrent().setPollInterval(-1);
+		}
+	}
+}
@@ -443,6 +443,19 @@ public class CasesView extends AbstractView {
 			moreLayout.addComponent(mergeDuplicatesButton);
 		}
 
+		if (UserProvider.getCurrent().hasUserRight(UserRight.CASE_RECLASSIFY)
+			&& FacadeProvider.getConfigFacade().isFeatureAutomaticCaseClassification()) {
+			Button reclassifyCasesButton = ButtonHelper.createIconButton(Captions.caseReclassifyCases, VaadinIcons.REFRESH, e -> {
+				Window window = VaadinUiUtil.createPopupWindow();
+				window.setCaption(I18nProperties.getCaption(Captions.caseReclassifyCases));
+				window.setWidth(640, Unit.PIXELS);
+				window.setContent(new CaseReclassificationLayout());
+				UI.getCurrent().addWindow(window);
+			}, ValoTheme.BUTTON_PRIMARY);
+			reclassifyCasesButton.setWidth(100, Unit.PERCENTAGE);
+			moreLayout.addComponent(reclassifyCasesButton);
+		}
+
 		Button searchSpecificCaseButton = ButtonHelper.createIconButton(
 			Captions.caseSearchSpecificCase,
 			VaadinIcons.SEARCH,
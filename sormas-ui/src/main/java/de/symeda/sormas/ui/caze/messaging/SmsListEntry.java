@@ -38,9 +38,13 @@ public class SmsListEntry extends HorizontalLayout {
 			topLeftLayout.setMargin(false);
 			topLeftLayout.setSpacing(false);
 			final UserReferenceDto sendingUser = manualMessageLogDto.getSendingUser();
+			// messages waiting in the outbox don't have a sent date yet
+			final String sentDate = manualMessageLogDto.getSentDate() != null
+				? DateFormatHelper.formatLocalDateTime(manualMessageLogDto.getSentDate())
+				: I18nProperties.getCaption(Captions.messagesPendingDelivery);
 			final Label sendingInfo = new Label(
 				I18nProperties.getCaption(Captions.messagesSentBy) + ": " + sendingUser.getFirstName() + " " + sendingUser.getLastName() + " "
-					+ DateFormatHelper.formatLocalDateTime(manualMessageLogDto.getSentDate()));
+					+ sentDate);
 			topLeftLayout.addComponent(sendingInfo);
 		}
 		topLayout.addComponent(topLeftLayout);
@@ -44,6 +44,7 @@ import de.symeda.sormas.ui.configuration.infrastructure.SubcontinentsView;
 import de.symeda.sormas.ui.configuration.infrastructure.components.CountryCombo;
 import de.symeda.sormas.ui.configuration.linelisting.LineListingConfigurationView;
 import de.symeda.sormas.ui.configuration.outbreak.OutbreaksView;
+import de.symeda.sormas.ui.configuration.scheduledjobs.ScheduledJobsView;
 import de.symeda.sormas.ui.utils.AbstractSubNavigationView;
 import de.symeda.sormas.ui.utils.ComboBoxHelper;
 import de.symeda.sormas.ui.utils.DirtyStateComponent;
@@ -104,6 +105,10 @@ public abstract class AbstractConfigurationView extends AbstractSubNavigationVie
 			navigator.addView(DocumentTemplatesView.VIEW_NAME, DocumentTemplatesView.class);
 		}
 
+		if (UserProvider.getCurrent().hasUserRole(UserRole.ADMIN)) {
+			navigator.addView(ScheduledJobsView.VIEW_NAME, ScheduledJobsView.class);
+		}
+
 		if (FacadeProvider.getConfigFacade().isDevMode() && UserProvider.getCurrent().hasUserRole(UserRole.ADMIN)) {
 			navigator.addView(DevModeView.VIEW_NAME, DevModeView.class);
 		}
@@ -207,6 +212,13 @@ public abstract class AbstractConfigurationView extends AbstractSubNavigationVie
 				null,
 				false);
 		}
+		if (UserProvider.getCurrent().hasUserRole(UserRole.ADMIN)) {
+			menu.addView(
+				ScheduledJobsView.VIEW_NAME,
+				I18nProperties.getPrefixCaption("View", ScheduledJobsView.VIEW_NAME.replaceAll("/", ".") + ".short", ""),
+				null,
+				false);
+		}
 		if (FacadeProvider.getConfigFacade().isDevMode() && UserProvider.getCurrent().hasUserRole(UserRole.ADMIN)) {
 			menu.addView(
 				DevModeView.VIEW_NAME,
@@ -0,0 +1,72 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.ui.configuration.scheduledjobs;
+
+import java.util.Date;
+import java.util.List;
+
+import com.vaadin.ui.Grid;
+import com.vaadin.ui.renderers.DateRenderer;
+
+import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.i18n.I18nProperties;
+import de.symeda.sormas.api.systemevents.ScheduledJobStatusDto;
+import de.symeda.sormas.api.utils.DateHelper;
+
+public class ScheduledJobsGrid extends Grid<ScheduledJobStatusDto> {
+
+	private static final long serialVersionUID = -3415309474215624874L;
+
+	@SuppressWarnings("unchecked")
+	public ScheduledJobsGrid() {
+
+		super(ScheduledJobStatusDto.class);
+		setSizeFull();
+		setSelectionMode(SelectionMode.NONE);
+
+		setColumns(
+			ScheduledJobStatusDto.JOB_NAME,
+			ScheduledJobStatusDto.LEASE_OWNER,
+			ScheduledJobStatusDto.LAST_STATUS,
+			ScheduledJobStatusDto.LAST_START_DATE,
+			ScheduledJobStatusDto.LAST_END_DATE,
+			ScheduledJobStatusDto.LAST_INFO,
+			ScheduledJobStatusDto.RUNNING,
+			ScheduledJobStatusDto.RUN_COUNT,
+			ScheduledJobStatusDto.SKIPPED_COUNT,
+			ScheduledJobStatusDto.FAILED_COUNT,
+			ScheduledJobStatusDto.AVERAGE_DURATION_MILLIS,
+			ScheduledJobStatusDto.MAX_DURATION_MILLIS,
+			ScheduledJobStatusDto.DURATION_HISTOGRAM,
+			ScheduledJobStatusDto.ROW_COUNT_HISTOGRAM);
+
+		((Column<ScheduledJobStatusDto, Date>) getColumn(ScheduledJobStatusDto.LAST_START_DATE))
+			.setRenderer(new DateRenderer(DateHelper.getLocalDateTimeFormat(I18nProperties.getUserLanguage())));
+		((Column<ScheduledJobStatusDto, Date>) getColumn(ScheduledJobStatusDto.LAST_END_DATE))
+			.setRenderer(new DateRenderer(DateHelper.getLocalDateTimeFormat(I18nProperties.getUserLanguage())));
+		getColumn(ScheduledJobStatusDto.LAST_INFO).setExpandRatio(1);
+
+		for (Column<?, ?> column : getColumns()) {
+			column.setCaption(I18nProperties.getPrefixCaption(ScheduledJobStatusDto.I18N_PREFIX, column.getId(), column.getCaption()));
+		}
+	}
+
+	public void reload() {
+
+		List<ScheduledJobStatusDto> statuses = FacadeProvider.getScheduledJobFacade().getScheduledJobStatuses();
+		setItems(statuses);
+	}
+}
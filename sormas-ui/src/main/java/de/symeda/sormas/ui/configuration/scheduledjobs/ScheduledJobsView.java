@@ -0,0 +1,56 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.ui.configuration.scheduledjobs;
+
+import com.vaadin.navigator.ViewChangeListener.ViewChangeEvent;
+import com.vaadin.ui.VerticalLayout;
+
+import de.symeda.sormas.ui.configuration.AbstractConfigurationView;
+
+/**
+ * Shows the status of the scheduled jobs of all servers and the run statistics of the server the user is connected to.
+ */
+public class ScheduledJobsView extends AbstractConfigurationView {
+
+	private static final long serialVersionUID = 7384529076187290384L;
+
+	public static final String VIEW_NAME = ROOT_VIEW_NAME + "/scheduledJobs";
+
+	private final ScheduledJobsGrid grid;
+
+	public ScheduledJobsView() {
+
+		super(VIEW_NAME);
+
+		grid = new ScheduledJobsGrid();
+
+		VerticalLayout contentLayout = new VerticalLayout();
+		contentLayout.addComponent(grid);
+		contentLayout.setMargin(true);
+		contentLayout.setSpacing(true);
+		contentLayout.setSizeFull();
+		contentLayout.setStyleName("crud-main-layout");
+		contentLayout.setExpandRatio(grid, 1);
+
+		addComponent(contentLayout);
+	}
+
+	@Override
+	public void enter(ViewChangeEvent event) {
+		grid.reload();
+		super.enter(event);
+	}
+}
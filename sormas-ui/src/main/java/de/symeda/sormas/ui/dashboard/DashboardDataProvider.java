@@ -36,9 +36,9 @@ import de.symeda.sormas.api.dashboard.DashboardContactDto;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
 import de.symeda.sormas.api.dashboard.DashboardQuarantineDataDto;
+import de.symeda.sormas.api.dashboard.DashboardSnapshotDto;
 import de.symeda.sormas.api.disease.DiseaseBurdenDto;
 import de.symeda.sormas.api.event.EventStatus;
-import de.symeda.sormas.api.outbreak.OutbreakCriteria;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.sample.DashboardTestResultDto;
@@ -67,7 +67,9 @@ public class DashboardDataProvider {
 
 	// disease specific
 	private List<DashboardCaseDto> cases = new ArrayList<>();
-	private List<DashboardCaseDto> previousCases = new ArrayList<>();
+	private Long caseCount = 0L;
+	private Long fatalCaseCount = 0L;
+	private Long previousFatalCaseCount = 0L;
 	private Map<CaseClassification, Integer> casesCountByClassification = new HashMap<>();
 	private Long outbreakDistrictCount = 0L;
 	private String lastReportedDistrict = "";
@@ -108,20 +110,6 @@ public class DashboardDataProvider {
 		setContactsPlacedInQuarantineCount(dashboardContactsPlacedInQuarantineCount);
 	}
 
-	private void refreshDataForQuarantinedCases() {
-
-		List<DashboardQuarantineDataDto> casesInQuarantineDtos = getCases().stream()
-			.map(DashboardCaseDto::getDashboardQuarantineDataDto)
-			.filter(quarantineData(fromDate, toDate))
-			.collect(Collectors.toList());
-
-		setCasesInQuarantineCount((long) casesInQuarantineDtos.size());
-
-		Long dashboardCasesPlacedInQuarantineCount = getPlacedInQuarantine(casesInQuarantineDtos);
-
-		setCasesPlacedInQuarantineCount(dashboardCasesPlacedInQuarantineCount);
-	}
-
 	private Predicate<DashboardQuarantineDataDto> quarantineData(Date fromDate, Date toDate) {
 		return p -> {
 			Date quarantineFrom = p.getQuarantineFrom();
@@ -162,12 +150,6 @@ public class DashboardDataProvider {
 			.count();
 	}
 
-	private void refreshDataForConvertedContactsToCase() {
-		DashboardCriteria dashboardCriteria =
-			new DashboardCriteria().region(region).district(district).disease(disease).dateBetween(fromDate, toDate);
-		setContactsConvertedToCaseCount(FacadeProvider.getDashboardFacade().countCasesConvertedFromContacts(dashboardCriteria));
-	}
-
 	private void refreshDataForSelectedDisease() {
 
 		// Update the entities lists according to the filters
@@ -179,9 +161,7 @@ public class DashboardDataProvider {
 				FacadeProvider.getContactFacade().getContactsForDashboard(region, district, disease, previousFromDate, previousToDate));
 
 			this.refreshDataForQuarantinedContacts();
-		}
 
-		if (getDashboardType() == DashboardType.CONTACTS || this.disease != null) {
 			// Cases
 			DashboardCriteria dashboardCriteria = new DashboardCriteria().region(region)
 				.district(district)
@@ -189,36 +169,38 @@ public class DashboardDataProvider {
 				.newCaseDateType(newCaseDateType)
 				.dateBetween(fromDate, toDate);
 			setCases(FacadeProvider.getDashboardFacade().getCases(dashboardCriteria));
-			setLastReportedDistrict(FacadeProvider.getDashboardFacade().getLastReportedDistrictName(dashboardCriteria));
-
-			dashboardCriteria.dateBetween(previousFromDate, previousToDate);
-			setPreviousCases(FacadeProvider.getDashboardFacade().getCases(dashboardCriteria));
-
-			if (getDashboardType() != DashboardType.CONTACTS) {
-				setTestResultCountByResultType(FacadeProvider.getDashboardFacade().getTestResultCountByResultType(getCases()));
-			}
-
-			dashboardCriteria.dateBetween(fromDate, toDate).includeNotACaseClassification(true);
-			setCasesCountByClassification(FacadeProvider.getDashboardFacade().getCasesCountByClassification(dashboardCriteria));
+			return;
 		}
 
-		if (this.disease == null || getDashboardType() == DashboardType.CONTACTS) {
+		if (this.disease == null) {
 			return;
 		}
 
-		// Events
-		DashboardCriteria dashboardCriteria =
-			new DashboardCriteria().region(region).district(district).disease(disease).dateBetween(fromDate, toDate);
-		setEvents(FacadeProvider.getDashboardFacade().getNewEvents(dashboardCriteria));
-		setEventCountByStatus(FacadeProvider.getDashboardFacade().getEventCountByStatus(dashboardCriteria));
-
-		setOutbreakDistrictCount(
-			FacadeProvider.getOutbreakFacade()
-				.getOutbreakDistrictCount(
-					new OutbreakCriteria().region(region).district(district).disease(disease).reportedBetween(fromDate, toDate)));
-
-		refreshDataForQuarantinedCases();
-		refreshDataForConvertedContactsToCase();
+		// Aggregated figures of cases and events
+		DashboardCriteria dashboardCriteria = new DashboardCriteria().region(region)
+			.district(district)
+			.disease(disease)
+			.newCaseDateType(newCaseDateType)
+			.dateBetween(fromDate, toDate)
+			.previousDateBetween(previousFromDate, previousToDate);
+		DashboardSnapshotDto snapshot = FacadeProvider.getDashboardFacade().getSnapshot(dashboardCriteria);
+
+		setCaseCount(snapshot.getCaseCount());
+		setFatalCaseCount(snapshot.getFatalCaseCount());
+		setPreviousFatalCaseCount(snapshot.getPreviousFatalCaseCount());
+		setLastReportedDistrict(snapshot.getLastReportedDistrictName());
+		setTestResultCountByResultType(snapshot.getTestResultCountByResultType());
+		setCasesCountByClassification(snapshot.getCaseCountByClassification());
+		setEventCountByStatus(snapshot.getEventCountByStatus());
+		setOutbreakDistrictCount(snapshot.getOutbreakDistrictCount());
+		setCasesInQuarantineCount(snapshot.getCasesInQuarantineCount());
+		setCasesPlacedInQuarantineCount(snapshot.getCasesPlacedInQuarantineCount());
+		setContactsConvertedToCaseCount(snapshot.getCasesConvertedFromContactsCount());
+
+		// Events, shown as markers on the map
+		setEvents(
+			FacadeProvider.getDashboardFacade()
+				.getNewEvents(new DashboardCriteria().region(region).district(district).disease(disease).dateBetween(fromDate, toDate)));
 	}
 
 	public List<DashboardCaseDto> getCases() {
@@ -229,12 +211,28 @@ public class DashboardDataProvider {
 		this.cases = cases;
 	}
 
-	public List<DashboardCaseDto> getPreviousCases() {
-		return previousCases;
+	public Long getCaseCount() {
+		return caseCount;
+	}
+
+	public void setCaseCount(Long caseCount) {
+		this.caseCount = caseCount;
+	}
+
+	public Long getFatalCaseCount() {
+		return fatalCaseCount;
+	}
+
+	public void setFatalCaseCount(Long fatalCaseCount) {
+		this.fatalCaseCount = fatalCaseCount;
+	}
+
+	public Long getPreviousFatalCaseCount() {
+		return previousFatalCaseCount;
 	}
 
-	public void setPreviousCases(List<DashboardCaseDto> previousCases) {
-		this.previousCases = previousCases;
+	public void setPreviousFatalCaseCount(Long previousFatalCaseCount) {
+		this.previousFatalCaseCount = previousFatalCaseCount;
 	}
 
 	public Map<CaseClassification, Integer> getCasesCountByClassification() {
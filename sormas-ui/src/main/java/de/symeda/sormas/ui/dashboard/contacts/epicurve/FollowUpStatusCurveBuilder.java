@@ -2,17 +2,17 @@ package de.symeda.sormas.ui.dashboard.contacts.epicurve;
 
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.contact.ContactCriteria;
 import de.symeda.sormas.api.contact.ContactStatus;
 import de.symeda.sormas.api.contact.FollowUpStatus;
+import de.symeda.sormas.api.dashboard.ContactEpiCurveSeries;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.i18n.I18nProperties;
-import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.ui.dashboard.DashboardDataProvider;
-import de.symeda.sormas.ui.dashboard.diagram.EpiCurveGrouping;
 
 public class FollowUpStatusCurveBuilder extends ContactsEpiCurveBuilder {
 
@@ -22,40 +22,19 @@ public class FollowUpStatusCurveBuilder extends ContactsEpiCurveBuilder {
 
 	@Override
 	public void buildEpiCurve(List<Date> datesGroupedBy, DashboardDataProvider dashboardDataProvider) {
-		int[] underFollowUpNumbers = new int[datesGroupedBy.size()];
-		int[] lostToFollowUpNumbers = new int[datesGroupedBy.size()];
-		int[] completedFollowUpNumbers = new int[datesGroupedBy.size()];
-		int[] canceledFollowUpNumbers = new int[datesGroupedBy.size()];
-		int[] convertedNumbers = new int[datesGroupedBy.size()];
+		ContactCriteria contactCriteria = new ContactCriteria().disease(dashboardDataProvider.getDisease())
+			.region(dashboardDataProvider.getRegion())
+			.district(dashboardDataProvider.getDistrict());
+		EpiCurveHistogramDto contactCounts = FacadeProvider.getContactFacade()
+			.getContactEpiCurve(contactCriteria, datesGroupedBy, epiCurveGrouping, ContactEpiCurveSeries.FOLLOW_UP_STATUS);
+		EpiCurveHistogramDto contactStatusCounts = FacadeProvider.getContactFacade()
+			.getContactEpiCurve(contactCriteria, datesGroupedBy, epiCurveGrouping, ContactEpiCurveSeries.CONTACT_STATUS);
 
-		for (int i = 0; i < datesGroupedBy.size(); i++) {
-			Date date = datesGroupedBy.get(i);
-
-			ContactCriteria contactCriteria = new ContactCriteria().disease(dashboardDataProvider.getDisease())
-				.region(dashboardDataProvider.getRegion())
-				.district(dashboardDataProvider.getDistrict());
-			if (epiCurveGrouping == EpiCurveGrouping.DAY) {
-				contactCriteria.reportDateBetween(DateHelper.getStartOfDay(date), DateHelper.getEndOfDay(date));
-			} else if (epiCurveGrouping == EpiCurveGrouping.WEEK) {
-				contactCriteria.reportDateBetween(DateHelper.getStartOfWeek(date), DateHelper.getEndOfWeek(date));
-			} else {
-				contactCriteria.reportDateBetween(DateHelper.getStartOfMonth(date), DateHelper.getEndOfMonth(date));
-			}
-
-			Map<FollowUpStatus, Long> contactCounts = FacadeProvider.getContactFacade().getNewContactCountPerFollowUpStatus(contactCriteria);
-			Map<ContactStatus, Long> contactStatusCounts = FacadeProvider.getContactFacade().getNewContactCountPerStatus(contactCriteria);
-
-			Long underFollowUpCount = contactCounts.get(FollowUpStatus.FOLLOW_UP);
-			Long lostToFollowUpCount = contactCounts.get(FollowUpStatus.LOST);
-			Long completedFollowUpCount = contactCounts.get(FollowUpStatus.COMPLETED);
-			Long canceledFollowUpCount = contactCounts.get(FollowUpStatus.CANCELED);
-			Long convertedCount = contactStatusCounts.get(ContactStatus.CONVERTED);
-			underFollowUpNumbers[i] = underFollowUpCount != null ? underFollowUpCount.intValue() : 0;
-			lostToFollowUpNumbers[i] = lostToFollowUpCount != null ? lostToFollowUpCount.intValue() : 0;
-			completedFollowUpNumbers[i] = completedFollowUpCount != null ? completedFollowUpCount.intValue() : 0;
-			canceledFollowUpNumbers[i] = canceledFollowUpCount != null ? canceledFollowUpCount.intValue() : 0;
-			convertedNumbers[i] = convertedCount != null ? convertedCount.intValue() : 0;
-		}
+		int[] underFollowUpNumbers = contactCounts.getCounts(FollowUpStatus.FOLLOW_UP);
+		int[] lostToFollowUpNumbers = contactCounts.getCounts(FollowUpStatus.LOST);
+		int[] completedFollowUpNumbers = contactCounts.getCounts(FollowUpStatus.COMPLETED);
+		int[] canceledFollowUpNumbers = contactCounts.getCounts(FollowUpStatus.CANCELED);
+		int[] convertedNumbers = contactStatusCounts.getCounts(ContactStatus.CONVERTED);
 
 		hcjs.append("series: [");
 		hcjs.append(
@@ -5,11 +5,12 @@ import java.util.List;
 
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.contact.ContactCriteria;
+import de.symeda.sormas.api.dashboard.ContactEpiCurveSeries;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.i18n.I18nProperties;
-import de.symeda.sormas.api.utils.DateHelper;
 import de.symeda.sormas.ui.dashboard.DashboardDataProvider;
-import de.symeda.sormas.ui.dashboard.diagram.EpiCurveGrouping;
 
 public class FollowUpUntilCurveBuilder extends ContactsEpiCurveBuilder {
 
@@ -19,24 +20,13 @@ public class FollowUpUntilCurveBuilder extends ContactsEpiCurveBuilder {
 
 	@Override
 	public void buildEpiCurve(List<Date> datesGroupedBy, DashboardDataProvider dashboardDataProvider) {
-		int[] followUpUntilNumbers = new int[datesGroupedBy.size()];
+		ContactCriteria contactCriteria = new ContactCriteria().disease(dashboardDataProvider.getDisease())
+			.region(dashboardDataProvider.getRegion())
+			.district(dashboardDataProvider.getDistrict());
+		EpiCurveHistogramDto contactCounts = FacadeProvider.getContactFacade()
+			.getContactEpiCurve(contactCriteria, datesGroupedBy, epiCurveGrouping, ContactEpiCurveSeries.FOLLOW_UP_UNTIL);
 
-		for (int i = 0; i < datesGroupedBy.size(); i++) {
-			Date date = datesGroupedBy.get(i);
-
-			ContactCriteria contactCriteria = new ContactCriteria().disease(dashboardDataProvider.getDisease())
-				.region(dashboardDataProvider.getRegion())
-				.district(dashboardDataProvider.getDistrict());
-			if (epiCurveGrouping == EpiCurveGrouping.DAY) {
-				contactCriteria.followUpUntilBetween(DateHelper.getStartOfDay(date), DateHelper.getEndOfDay(date));
-			} else if (epiCurveGrouping == EpiCurveGrouping.WEEK) {
-				contactCriteria.followUpUntilBetween(DateHelper.getStartOfWeek(date), DateHelper.getEndOfWeek(date));
-			} else {
-				contactCriteria.followUpUntilBetween(DateHelper.getStartOfMonth(date), DateHelper.getEndOfMonth(date));
-			}
-
-			followUpUntilNumbers[i] = FacadeProvider.getContactFacade().getFollowUpUntilCount(contactCriteria);
-		}
+		int[] followUpUntilNumbers = contactCounts.getCounts(null);
 
 		hcjs.append("series: [");
 		hcjs.append(
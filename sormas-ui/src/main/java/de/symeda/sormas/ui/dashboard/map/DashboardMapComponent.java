@@ -20,6 +20,7 @@ package de.symeda.sormas.ui.dashboard.map;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -55,9 +56,14 @@ import de.symeda.sormas.api.caze.CaseClassification;
 import de.symeda.sormas.api.caze.CaseDataDto;
 import de.symeda.sormas.api.caze.CaseFacade;
 import de.symeda.sormas.api.caze.MapCaseDto;
+import de.symeda.sormas.api.caze.NewCaseDateType;
 import de.symeda.sormas.api.contact.ContactClassification;
 import de.symeda.sormas.api.contact.MapContactDto;
 import de.symeda.sormas.api.dashboard.DashboardEventDto;
+import de.symeda.sormas.api.dashboard.MapCaseClassificationOption;
+import de.symeda.sormas.api.dashboard.MapCaseDisplayMode;
+import de.symeda.sormas.api.dashboard.MapMarkerClusterDto;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.event.EventStatus;
 import de.symeda.sormas.api.facility.FacilityDto;
 import de.symeda.sormas.api.facility.FacilityReferenceDto;
@@ -69,6 +75,7 @@ import de.symeda.sormas.api.region.DistrictDto;
 import de.symeda.sormas.api.region.DistrictReferenceDto;
 import de.symeda.sormas.api.region.GeoLatLon;
 import de.symeda.sormas.api.region.GeoShapeProvider;
+import de.symeda.sormas.api.region.GeoShapeSimplification;
 import de.symeda.sormas.api.region.RegionReferenceDto;
 import de.symeda.sormas.api.user.UserDto;
 import de.symeda.sormas.api.user.UserRole;
@@ -125,6 +132,8 @@ public class DashboardMapComponent extends VerticalLayout {
 	// Map data
 	private final List<FacilityReferenceDto> markerCaseFacilities = new ArrayList<FacilityReferenceDto>();
 	private final List<MapContactDto> markerContacts = new ArrayList<MapContactDto>();
+	private final List<MapMarkerClusterDto<CaseClassification>> markerCaseClusters = new ArrayList<>();
+	private final List<MapMarkerClusterDto<ContactClassification>> markerContactClusters = new ArrayList<>();
 	private final List<DashboardEventDto> markerEvents = new ArrayList<DashboardEventDto>();
 	private final List<RegionReferenceDto> polygonRegions = new ArrayList<RegionReferenceDto>();
 	private final List<DistrictReferenceDto> polygonDistricts = new ArrayList<DistrictReferenceDto>();
@@ -132,11 +141,16 @@ public class DashboardMapComponent extends VerticalLayout {
 	// Others
 	private CaseMeasure caseMeasure = CaseMeasure.CASE_COUNT;
 	private MapCaseDisplayMode mapCaseDisplayMode = MapCaseDisplayMode.FACILITY_OR_CASE_ADDRESS;
+	private List<Pair<DistrictDto, BigDecimal>> measurePerDistrict = new ArrayList<>();
+	private int shapesZoomLevel;
 	private BigDecimal districtValuesLowerQuartile;
 	private BigDecimal districtValuesMedian;
 	private BigDecimal districtValuesUpperQuartile;
 	private Consumer<Boolean> externalExpandListener;
 	private boolean emptyPopulationDistrictPresent;
+	private boolean markerLimitIgnored;
+	private boolean markersLoaded;
+	private MapViewportDto loadedViewport;
 
 	public DashboardMapComponent(DashboardDataProvider dashboardDataProvider) {
 		this.dashboardDataProvider = dashboardDataProvider;
@@ -148,6 +162,7 @@ public class DashboardMapComponent extends VerticalLayout {
 		map = new LeafletMap();
 		map.setSizeFull();
 		map.addMarkerClickListener(event -> onMarkerClicked(event.getGroupId(), event.getMarkerIndex()));
+		map.addViewportChangeListener(event -> onViewportChanged(event.getViewport()));
 
 		{
 
@@ -239,37 +254,77 @@ public class DashboardMapComponent extends VerticalLayout {
 
 	private void refreshMap(boolean forced) {
 		clearRegionShapes();
-		clearCaseMarkers();
-		clearContactMarkers();
-		clearEventMarkers();
 		LeafletMapUtil.clearOtherCountriesOverlay(map);
 
 		if (hideOtherCountries) {
-			LeafletMapUtil.addOtherCountriesOverlay(map);
+			LeafletMapUtil.addOtherCountriesOverlay(map, map.getZoom());
 		}
-
-		Date fromDate = dashboardDataProvider.getFromDate();
-		Date toDate = dashboardDataProvider.getToDate();
+		shapesZoomLevel = GeoShapeSimplification.getZoomLevel(map.getZoom());
 
 		if (showRegions) {
-			showRegionsShapes(caseMeasure, fromDate, toDate, dashboardDataProvider.getDisease());
+			showRegionsShapes(caseMeasure, dashboardDataProvider.getFromDate(), dashboardDataProvider.getToDate(), dashboardDataProvider.getDisease());
 		}
 
+		markerLimitIgnored = forced;
+		refreshMarkers();
+	}
+
+	private void refreshMarkers() {
+		clearCaseMarkers();
+		clearContactMarkers();
+		clearEventMarkers();
+
+		Date fromDate = dashboardDataProvider.getFromDate();
+		Date toDate = dashboardDataProvider.getToDate();
+		MapViewportDto viewport = map.getViewport();
+
+		// clustered markers are limited by the number of grid cells
 		int maxDisplayCount = FacadeProvider.getConfigFacade().getDashboardMapMarkerLimit();
+		boolean limited = !markerLimitIgnored && maxDisplayCount >= 0 && (viewport == null || !viewport.isClustered());
 		Long count = 0L;
-		if (!forced && maxDisplayCount >= 0) {
-			count = getMarkerCount(fromDate, toDate, maxDisplayCount);
+		if (limited) {
+			count = getMarkerCount(fromDate, toDate, maxDisplayCount, viewport);
 		}
 
-		if (!forced && maxDisplayCount >= 0 && count > maxDisplayCount) {
+		if (limited && count > maxDisplayCount) {
+			markersLoaded = false;
 			showMapOverlay(maxDisplayCount);
 		} else {
 			hideMapOverlay();
 
-			loadMapData(fromDate, toDate);
+			loadMapData(fromDate, toDate, viewport);
+			markersLoaded = true;
+			loadedViewport = viewport;
 		}
 	}
 
+	private void onViewportChanged(MapViewportDto viewport) {
+
+		// the shapes are simplified to the precision visible at the zoom level
+		int zoomLevel = GeoShapeSimplification.getZoomLevel(viewport.getZoom());
+		if (zoomLevel != shapesZoomLevel) {
+			shapesZoomLevel = zoomLevel;
+			if (hideOtherCountries) {
+				LeafletMapUtil.clearOtherCountriesOverlay(map);
+				LeafletMapUtil.addOtherCountriesOverlay(map, viewport.getZoom());
+			}
+			if (showRegions) {
+				drawRegionsShapes();
+			}
+		}
+
+		if (!showCases && !showContacts) {
+			return;
+		}
+
+		// all markers are already shown if they have been loaded without a viewport
+		if (markersLoaded && loadedViewport == null && !viewport.isClustered()) {
+			return;
+		}
+
+		refreshMarkers();
+	}
+
 	public void refreshMap() {
 		refreshMap(false);
 	}
@@ -285,7 +340,7 @@ public class DashboardMapComponent extends VerticalLayout {
 		overlayLayout.setVisible(false);
 	}
 
-	private Long getMarkerCount(Date fromDate, Date toDate, int maxCount) {
+	private Long getMarkerCount(Date fromDate, Date toDate, int maxCount, MapViewportDto viewport) {
 		RegionReferenceDto region = dashboardDataProvider.getRegion();
 		DistrictReferenceDto district = dashboardDataProvider.getDistrict();
 		Disease disease = dashboardDataProvider.getDisease();
@@ -300,11 +355,12 @@ public class DashboardMapComponent extends VerticalLayout {
 					disease,
 					fromDate,
 					toDate,
-					showCurrentEpiSituation ? null : dashboardDataProvider.getNewCaseDateType());
+					showCurrentEpiSituation ? null : dashboardDataProvider.getNewCaseDateType(),
+					viewport);
 		}
 
 		if (count < maxCount && showContacts) {
-			count += FacadeProvider.getContactFacade().countContactsForMap(region, district, disease, fromDate, toDate);
+			count += FacadeProvider.getContactFacade().countContactsForMap(region, district, disease, fromDate, toDate, viewport);
 		}
 
 		if (count < maxCount && showEvents) {
@@ -314,24 +370,29 @@ public class DashboardMapComponent extends VerticalLayout {
 		return count;
 	}
 
-	private void loadMapData(Date fromDate, Date toDate) {
+	private void loadMapData(Date fromDate, Date toDate, MapViewportDto viewport) {
 		RegionReferenceDto region = dashboardDataProvider.getRegion();
 		DistrictReferenceDto district = dashboardDataProvider.getDistrict();
 		Disease disease = dashboardDataProvider.getDisease();
+		boolean clustered = viewport != null && viewport.isClustered();
 
 		if (showCases) {
-			showCaseMarkers(
-				FacadeProvider.getCaseFacade()
-					.getCasesForMap(
-						region,
-						district,
-						disease,
-						fromDate,
-						toDate,
-						showCurrentEpiSituation ? null : dashboardDataProvider.getNewCaseDateType()));
+			NewCaseDateType dateType = showCurrentEpiSituation ? null : dashboardDataProvider.getNewCaseDateType();
+			if (clustered) {
+				showCaseClusterMarkers(
+					FacadeProvider.getCaseFacade()
+						.getCaseClustersForMap(region, district, disease, fromDate, toDate, dateType, mapCaseDisplayMode, viewport));
+			} else {
+				showCaseMarkers(FacadeProvider.getCaseFacade().getCasesForMap(region, district, disease, fromDate, toDate, dateType, viewport));
+			}
 		}
 		if (showContacts) {
-			showContactMarkers(FacadeProvider.getContactFacade().getContactsForMap(region, district, disease, fromDate, toDate));
+			if (clustered) {
+				showContactClusterMarkers(
+					FacadeProvider.getContactFacade().getContactClustersForMap(region, district, disease, fromDate, toDate, viewport));
+			} else {
+				showContactMarkers(FacadeProvider.getContactFacade().getContactsForMap(region, district, disease, fromDate, toDate, viewport));
+			}
 		}
 		if (showEvents) {
 			showEventMarkers(dashboardDataProvider.getEvents());
@@ -890,35 +951,8 @@ public class DashboardMapComponent extends VerticalLayout {
 	}
 
 	private void showRegionsShapes(CaseMeasure caseMeasure, Date fromDate, Date toDate, Disease disease) {
-		clearRegionShapes();
-		map.setTileLayerOpacity(0.5f);
-
-		List<RegionReferenceDto> regions = FacadeProvider.getRegionFacade().getAllActiveByServerCountry();
-		List<LeafletPolygon> regionPolygons = new ArrayList<LeafletPolygon>();
 
-		// draw outlines of all regions
-		for (RegionReferenceDto region : regions) {
-
-			GeoLatLon[][] regionShape = FacadeProvider.getGeoShapeProvider().getRegionShape(region);
-			if (regionShape == null) {
-				continue;
-			}
-
-			for (GeoLatLon[] regionShapePart : regionShape) {
-				LeafletPolygon polygon = new LeafletPolygon();
-				polygon.setCaption(region.getCaption());
-				// fillOpacity is used, so we can still hover the region
-				polygon.setOptions("{\"weight\": 1, \"color\": '#444', \"fillOpacity\": 0.02}");
-				polygon.setLatLons(regionShapePart);
-				regionPolygons.add(polygon);
-				polygonRegions.add(region);
-			}
-		}
-
-		map.addPolygonGroup(REGIONS_GROUP_ID, regionPolygons);
-
-		List<Pair<DistrictDto, BigDecimal>> measurePerDistrict =
-			FacadeProvider.getCaseFacade().getCaseMeasurePerDistrict(fromDate, toDate, disease, caseMeasure);
+		measurePerDistrict = FacadeProvider.getCaseFacade().getCaseMeasurePerDistrict(fromDate, toDate, disease, caseMeasure);
 		if (caseMeasure == CaseMeasure.CASE_COUNT) {
 			districtValuesLowerQuartile =
 				measurePerDistrict.size() > 0 ? measurePerDistrict.get((int) (measurePerDistrict.size() * 0.25)).getElement1() : null;
@@ -944,6 +978,38 @@ public class DashboardMapComponent extends VerticalLayout {
 				: null;
 		}
 
+		drawRegionsShapes();
+	}
+
+	private void drawRegionsShapes() {
+		clearRegionShapes();
+		map.setTileLayerOpacity(0.5f);
+
+		int zoom = map.getZoom();
+		List<RegionReferenceDto> regions = FacadeProvider.getRegionFacade().getAllActiveByServerCountry();
+		List<LeafletPolygon> regionPolygons = new ArrayList<LeafletPolygon>();
+
+		// draw outlines of all regions
+		for (RegionReferenceDto region : regions) {
+
+			GeoLatLon[][] regionShape = FacadeProvider.getGeoShapeProvider().getRegionShape(region, zoom);
+			if (regionShape == null) {
+				continue;
+			}
+
+			for (GeoLatLon[] regionShapePart : regionShape) {
+				LeafletPolygon polygon = new LeafletPolygon();
+				polygon.setCaption(region.getCaption());
+				// fillOpacity is used, so we can still hover the region
+				polygon.setOptions("{\"weight\": 1, \"color\": '#444', \"fillOpacity\": 0.02}");
+				polygon.setLatLons(regionShapePart);
+				regionPolygons.add(polygon);
+				polygonRegions.add(region);
+			}
+		}
+
+		map.addPolygonGroup(REGIONS_GROUP_ID, regionPolygons);
+
 		List<LeafletPolygon> districtPolygons = new ArrayList<LeafletPolygon>();
 
 		// Draw relevant district fills
@@ -952,7 +1018,7 @@ public class DashboardMapComponent extends VerticalLayout {
 			DistrictDto district = districtMeasure.getElement0();
 			DistrictReferenceDto districtRef = district.toReference();
 			BigDecimal districtValue = districtMeasure.getElement1();
-			GeoLatLon[][] districtShape = FacadeProvider.getGeoShapeProvider().getDistrictShape(districtRef);
+			GeoLatLon[][] districtShape = FacadeProvider.getGeoShapeProvider().getDistrictShape(districtRef, zoom);
 			if (districtShape == null) {
 				continue;
 			}
@@ -995,6 +1061,7 @@ public class DashboardMapComponent extends VerticalLayout {
 
 		map.removeGroup(CASES_GROUP_ID);
 		markerCaseFacilities.clear();
+		markerCaseClusters.clear();
 		casesByFacility.clear();
 		mapCaseDtos.clear();
 		mapAndFacilityCases.clear();
@@ -1044,18 +1111,7 @@ public class DashboardMapComponent extends VerticalLayout {
 
 		for (MapCaseDto caze : mapCaseDtos) {
 			LeafletMarker marker = new LeafletMarker();
-			CaseClassification caseClassification = caze.getCaseClassification();
-			if (caseClassification == CaseClassification.CONFIRMED
-				|| caseClassification == CaseClassification.CONFIRMED_NO_SYMPTOMS
-				|| caseClassification == CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS) {
-				marker.setIcon(MarkerIcon.CASE_CONFIRMED);
-			} else if (caseClassification == CaseClassification.PROBABLE) {
-				marker.setIcon(MarkerIcon.CASE_PROBABLE);
-			} else if (caseClassification == CaseClassification.SUSPECT) {
-				marker.setIcon(MarkerIcon.CASE_SUSPECT);
-			} else {
-				marker.setIcon(MarkerIcon.CASE_UNCLASSIFIED);
-			}
+			marker.setIcon(getCaseIcon(caze.getCaseClassification()));
 
 			if (caze.getAddressLat() != null && caze.getAddressLon() != null) {
 				marker.setLatLon(caze.getAddressLat(), caze.getAddressLon());
@@ -1069,6 +1125,61 @@ public class DashboardMapComponent extends VerticalLayout {
 		map.addMarkerGroup("cases", caseMarkers);
 	}
 
+	private static MarkerIcon getCaseIcon(CaseClassification caseClassification) {
+
+		if (caseClassification == CaseClassification.CONFIRMED
+			|| caseClassification == CaseClassification.CONFIRMED_NO_SYMPTOMS
+			|| caseClassification == CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS) {
+			return MarkerIcon.CASE_CONFIRMED;
+		} else if (caseClassification == CaseClassification.PROBABLE) {
+			return MarkerIcon.CASE_PROBABLE;
+		} else if (caseClassification == CaseClassification.SUSPECT) {
+			return MarkerIcon.CASE_SUSPECT;
+		} else {
+			return MarkerIcon.CASE_UNCLASSIFIED;
+		}
+	}
+
+	private void showCaseClusterMarkers(List<MapMarkerClusterDto<CaseClassification>> clusters) {
+
+		clearCaseMarkers();
+
+		List<LeafletMarker> caseMarkers = new ArrayList<LeafletMarker>();
+
+		for (MapMarkerClusterDto<CaseClassification> cluster : clusters) {
+
+			long numberOfCases;
+			MarkerIcon icon;
+			if (caseClassificationOption == MapCaseClassificationOption.CONFIRMED_CASES_ONLY) {
+				numberOfCases = cluster.getCount(CaseClassification.CONFIRMED);
+				icon = MarkerIcon.CASE_CONFIRMED;
+			} else {
+				numberOfCases = cluster.getTotalCount();
+				// use the "strongest" classification of the cluster, like the clusters of the browser
+				icon = cluster.getCountByClassification()
+					.entrySet()
+					.stream()
+					.filter(e -> e.getValue() > 0)
+					.map(e -> getCaseIcon(e.getKey()))
+					.min(Comparator.naturalOrder())
+					.orElse(MarkerIcon.CASE_UNCLASSIFIED);
+			}
+
+			if (numberOfCases == 0) {
+				continue;
+			}
+
+			LeafletMarker marker = new LeafletMarker();
+			marker.setLatLon(cluster.getLatitude(), cluster.getLongitude());
+			marker.setIcon(icon);
+			marker.setMarkerCount((int) numberOfCases);
+			markerCaseClusters.add(cluster);
+			caseMarkers.add(marker);
+		}
+
+		map.addMarkerGroup(CASES_GROUP_ID, caseMarkers);
+	}
+
 	private void fillCaseLists(List<MapCaseDto> cases) {
 		for (MapCaseDto caze : cases) {
 			// these filters need to be used for the count too
@@ -1113,6 +1224,7 @@ public class DashboardMapComponent extends VerticalLayout {
 	private void clearContactMarkers() {
 		map.removeGroup(CONTACTS_GROUP_ID);
 		markerContacts.clear();
+		markerContactClusters.clear();
 		mapContactDtos.clear();
 	}
 
@@ -1183,6 +1295,41 @@ public class DashboardMapComponent extends VerticalLayout {
 		map.addMarkerGroup(CONTACTS_GROUP_ID, contactMarkers);
 	}
 
+	private void showContactClusterMarkers(List<MapMarkerClusterDto<ContactClassification>> clusters) {
+
+		clearContactMarkers();
+
+		List<LeafletMarker> contactMarkers = new ArrayList<LeafletMarker>();
+
+		for (MapMarkerClusterDto<ContactClassification> cluster : clusters) {
+
+			long unconfirmedCount = cluster.getCount(ContactClassification.UNCONFIRMED);
+			long confirmedCount = cluster.getTotalCount() - unconfirmedCount;
+			long numberOfContacts = (showUnconfirmedContacts ? unconfirmedCount : 0) + (showConfirmedContacts ? confirmedCount : 0);
+			if (numberOfContacts == 0) {
+				continue;
+			}
+
+			MarkerIcon icon;
+			if (showConfirmedContacts && cluster.getCount(ContactClassification.CONFIRMED) > 0) {
+				icon = MarkerIcon.CONTACT_LONG_OVERDUE;
+			} else if (showUnconfirmedContacts && unconfirmedCount > 0) {
+				icon = MarkerIcon.CONTACT_OVERDUE;
+			} else {
+				icon = MarkerIcon.CONTACT_OK;
+			}
+
+			LeafletMarker marker = new LeafletMarker();
+			marker.setLatLon(cluster.getLatitude(), cluster.getLongitude());
+			marker.setIcon(icon);
+			marker.setMarkerCount((int) numberOfContacts);
+			markerContactClusters.add(cluster);
+			contactMarkers.add(marker);
+		}
+
+		map.addMarkerGroup(CONTACTS_GROUP_ID, contactMarkers);
+	}
+
 	private void clearEventMarkers() {
 		map.removeGroup(EVENTS_GROUP_ID);
 		markerEvents.clear();
@@ -1237,7 +1384,9 @@ public class DashboardMapComponent extends VerticalLayout {
 
 		switch (groupId) {
 		case CASES_GROUP_ID:
-			if (markerIndex < markerCaseFacilities.size()) {
+			if (!markerCaseClusters.isEmpty()) {
+				zoomToCluster(markerCaseClusters.get(markerIndex));
+			} else if (markerIndex < markerCaseFacilities.size()) {
 				FacilityReferenceDto facility = markerCaseFacilities.get(markerIndex);
 				VerticalLayout layout = new VerticalLayout();
 				Window window = VaadinUiUtil.showPopupWindow(layout);
@@ -1254,8 +1403,12 @@ public class DashboardMapComponent extends VerticalLayout {
 			}
 			break;
 		case CONTACTS_GROUP_ID:
-			MapContactDto contact = markerContacts.get(markerIndex);
-			ControllerProvider.getContactController().navigateToData(contact.getUuid(), true);
+			if (!markerContactClusters.isEmpty()) {
+				zoomToCluster(markerContactClusters.get(markerIndex));
+			} else {
+				MapContactDto contact = markerContacts.get(markerIndex);
+				ControllerProvider.getContactController().navigateToData(contact.getUuid(), true);
+			}
 			break;
 		case EVENTS_GROUP_ID:
 			DashboardEventDto event = markerEvents.get(markerIndex);
@@ -1263,4 +1416,10 @@ public class DashboardMapComponent extends VerticalLayout {
 			break;
 		}
 	}
+
+	private void zoomToCluster(MapMarkerClusterDto<?> cluster) {
+
+		map.setCenter(new GeoLatLon(cluster.getLatitude(), cluster.getLongitude()));
+		map.setZoom(Math.min(map.getZoom() + 2, MapViewportDto.INDIVIDUAL_MARKERS_MIN_ZOOM));
+	}
 }
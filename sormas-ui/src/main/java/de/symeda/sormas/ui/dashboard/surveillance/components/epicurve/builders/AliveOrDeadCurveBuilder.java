@@ -3,13 +3,14 @@ package de.symeda.sormas.ui.dashboard.surveillance.components.epicurve.builders;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
 import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.dashboard.CaseEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.person.PresentCondition;
-import de.symeda.sormas.ui.dashboard.diagram.EpiCurveGrouping;
 
 public class AliveOrDeadCurveBuilder extends SurveillanceEpiCurveBuilder {
 
@@ -19,21 +20,12 @@ public class AliveOrDeadCurveBuilder extends SurveillanceEpiCurveBuilder {
 
 	@Override
 	List<EpiCurveSeriesElement> buildEpiCurveSeriesElements(List<Date> filteredDates, DashboardCriteria dashboardCriteria) {
-		int filteredDatesSize = filteredDates.size();
+		EpiCurveHistogramDto caseCounts = FacadeProvider.getDashboardFacade()
+			.getCaseEpiCurve(dashboardCriteria, filteredDates, epiCurveGrouping, CaseEpiCurveSeries.PRESENT_CONDITION);
 
-		int[] aliveNumbers = new int[filteredDatesSize];
-		int[] deadNumbers = new int[filteredDatesSize];
-		int[] unknownNumbers = new int[filteredDatesSize];
-
-		for (int i = 0; i < filteredDates.size(); i++) {
-			dashboardCriteria = setNewCaseDatesInCaseCriteria(filteredDates.get(i), dashboardCriteria);
-			Map<PresentCondition, Integer> caseCounts = FacadeProvider.getDashboardFacade().getCasesCountPerPersonCondition(dashboardCriteria);
-
-			aliveNumbers[i] = caseCounts.getOrDefault(PresentCondition.ALIVE, 0).intValue();
-			deadNumbers[i] =
-				caseCounts.getOrDefault(PresentCondition.DEAD, 0).intValue() + caseCounts.getOrDefault(PresentCondition.BURIED, 0).intValue();
-			unknownNumbers[i] = caseCounts.getOrDefault(PresentCondition.UNKNOWN, 0).intValue();
-		}
+		int[] aliveNumbers = caseCounts.getCounts(PresentCondition.ALIVE);
+		int[] deadNumbers = caseCounts.getSummedCounts(PresentCondition.DEAD, PresentCondition.BURIED);
+		int[] unknownNumbers = caseCounts.getCounts(PresentCondition.UNKNOWN);
 
 		return Arrays.asList(
 			new EpiCurveSeriesElement(Captions.dashboardAlive, "#32CD32", aliveNumbers),
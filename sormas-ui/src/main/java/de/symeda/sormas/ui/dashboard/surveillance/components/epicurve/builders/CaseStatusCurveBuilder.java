@@ -3,14 +3,15 @@ package de.symeda.sormas.ui.dashboard.surveillance.components.epicurve.builders;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 
 import de.symeda.sormas.api.CountryHelper;
 import de.symeda.sormas.api.FacadeProvider;
 import de.symeda.sormas.api.caze.CaseClassification;
+import de.symeda.sormas.api.dashboard.CaseEpiCurveSeries;
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
+import de.symeda.sormas.api.dashboard.EpiCurveHistogramDto;
 import de.symeda.sormas.api.i18n.Captions;
-import de.symeda.sormas.ui.dashboard.diagram.EpiCurveGrouping;
 
 public class CaseStatusCurveBuilder extends SurveillanceEpiCurveBuilder {
 
@@ -20,30 +21,16 @@ public class CaseStatusCurveBuilder extends SurveillanceEpiCurveBuilder {
 
 	@Override
 	List<EpiCurveSeriesElement> buildEpiCurveSeriesElements(List<Date> filteredDates, DashboardCriteria dashboardCriteria) {
-		int filteredDatesSize = filteredDates.size();
+		EpiCurveHistogramDto caseCounts = FacadeProvider.getDashboardFacade()
+			.getCaseEpiCurve(dashboardCriteria, filteredDates, epiCurveGrouping, CaseEpiCurveSeries.CASE_CLASSIFICATION);
 
-		int[] confirmedNumbers = new int[filteredDatesSize];
-		int[] probableNumbers = new int[filteredDatesSize];
-		int[] suspectNumbers = new int[filteredDatesSize];
-		int[] notYetClassifiedNumbers = new int[filteredDatesSize];
+		int[] confirmedNumbers = caseCounts.getCounts(CaseClassification.CONFIRMED);
+		int[] probableNumbers = caseCounts.getCounts(CaseClassification.PROBABLE);
+		int[] suspectNumbers = caseCounts.getCounts(CaseClassification.SUSPECT);
+		int[] notYetClassifiedNumbers = caseCounts.getCounts(CaseClassification.NOT_CLASSIFIED);
 
-		int[] confirmedNoSymptomsNumbers = new int[filteredDatesSize];
-		int[] confirmedUnknownSymptomsNumbers = new int[filteredDatesSize];
-
-		for (int i = 0; i < filteredDates.size(); i++) {
-			dashboardCriteria = setNewCaseDatesInCaseCriteria(filteredDates.get(i), dashboardCriteria);
-			Map<CaseClassification, Integer> caseCounts = FacadeProvider.getDashboardFacade().getCasesCountByClassification(dashboardCriteria);
-
-			confirmedNumbers[i] = caseCounts.getOrDefault(CaseClassification.CONFIRMED, 0).intValue();
-			probableNumbers[i] = caseCounts.getOrDefault(CaseClassification.PROBABLE, 0).intValue();
-			suspectNumbers[i] = caseCounts.getOrDefault(CaseClassification.SUSPECT, 0).intValue();
-			notYetClassifiedNumbers[i] = caseCounts.getOrDefault(CaseClassification.NOT_CLASSIFIED, 0).intValue();
-
-			if (FacadeProvider.getConfigFacade().isConfiguredCountry(CountryHelper.COUNTRY_CODE_GERMANY)) {
-				confirmedNoSymptomsNumbers[i] = caseCounts.getOrDefault(CaseClassification.CONFIRMED_NO_SYMPTOMS, 0).intValue();
-				confirmedUnknownSymptomsNumbers[i] = caseCounts.getOrDefault(CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS, 0).intValue();
-			}
-		}
+		int[] confirmedNoSymptomsNumbers = caseCounts.getCounts(CaseClassification.CONFIRMED_NO_SYMPTOMS);
+		int[] confirmedUnknownSymptomsNumbers = caseCounts.getCounts(CaseClassification.CONFIRMED_UNKNOWN_SYMPTOMS);
 
 		if (FacadeProvider.getConfigFacade().isConfiguredCountry(CountryHelper.COUNTRY_CODE_GERMANY)) {
 			return Arrays.asList(
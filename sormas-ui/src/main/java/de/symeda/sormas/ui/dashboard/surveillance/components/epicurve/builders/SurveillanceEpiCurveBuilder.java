@@ -6,10 +6,10 @@ import java.util.Date;
 import java.util.List;
 
 import de.symeda.sormas.api.dashboard.DashboardCriteria;
+import de.symeda.sormas.api.dashboard.EpiCurveGrouping;
 import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.utils.DateHelper;
-import de.symeda.sormas.ui.dashboard.diagram.EpiCurveGrouping;
 import de.symeda.sormas.ui.utils.DateFormatHelper;
 
 public abstract class SurveillanceEpiCurveBuilder {
@@ -89,17 +89,6 @@ public abstract class SurveillanceEpiCurveBuilder {
 		return hcjs.toString();
 	}
 
-	protected DashboardCriteria setNewCaseDatesInCaseCriteria(Date date, DashboardCriteria dashboardCriteria) {
-		if (epiCurveGrouping == EpiCurveGrouping.DAY) {
-			dashboardCriteria.dateBetween(DateHelper.getStartOfDay(date), DateHelper.getEndOfDay(date));
-		} else if (epiCurveGrouping == EpiCurveGrouping.WEEK) {
-			dashboardCriteria.dateBetween(DateHelper.getStartOfWeek(date), DateHelper.getEndOfWeek(date));
-		} else {
-			dashboardCriteria.dateBetween(DateHelper.getStartOfMonth(date), DateHelper.getEndOfMonth(date));
-		}
-		return dashboardCriteria;
-	}
-
 	protected void buildSeries(List<EpiCurveSeriesElement> elements) {
 		hcjs.append("series: [");
 		for (int i = 0; i < elements.size(); i++) {
@@ -51,7 +51,8 @@ public class DiseaseSummaryComponent extends DashboardStatisticsSubComponent {
 	}
 
 	public void update(DashboardDataProvider dashboardDataProvider) {
-		fatalitiesSummaryElementComponent.update(dashboardDataProvider.getCases(), dashboardDataProvider.getPreviousCases());
+		fatalitiesSummaryElementComponent
+			.update(dashboardDataProvider.getCaseCount(), dashboardDataProvider.getFatalCaseCount(), dashboardDataProvider.getPreviousFatalCaseCount());
 
 		String district = dashboardDataProvider.getLastReportedDistrict();
 		lastReportedDistrict.updateTotalLabel(DataHelper.isNullOrEmpty(district) ? I18nProperties.getString(Strings.none).toUpperCase() : district);
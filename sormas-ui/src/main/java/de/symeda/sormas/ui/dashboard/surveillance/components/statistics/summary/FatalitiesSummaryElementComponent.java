@@ -1,7 +1,5 @@
 package de.symeda.sormas.ui.dashboard.surveillance.components.statistics.summary;
 
-import java.util.List;
-
 import com.vaadin.icons.VaadinIcons;
 import com.vaadin.server.Sizeable;
 import com.vaadin.shared.ui.ContentMode;
@@ -9,7 +7,6 @@ import com.vaadin.ui.Alignment;
 import com.vaadin.ui.HorizontalLayout;
 import com.vaadin.ui.Label;
 
-import de.symeda.sormas.api.dashboard.DashboardCaseDto;
 import de.symeda.sormas.api.i18n.Strings;
 import de.symeda.sormas.ui.utils.CssStyles;
 
@@ -39,11 +36,7 @@ public class FatalitiesSummaryElementComponent extends HorizontalLayout {
 		setComponentAlignment(caseFatalityCountValue, Alignment.MIDDLE_RIGHT);
 	}
 
-	public void update(List<DashboardCaseDto> newCases, List<DashboardCaseDto> previousCases) {
-		int casesCount = newCases.size();
-		long fatalCasesCount = newCases.stream().filter(DashboardCaseDto::wasFatal).count();
-
-		long previousFatalCasesCount = previousCases.stream().filter(DashboardCaseDto::wasFatal).count();
+	public void update(long casesCount, long fatalCasesCount, long previousFatalCasesCount) {
 		long fatalCasesGrowth = fatalCasesCount - previousFatalCasesCount;
 		float fatalityRate = 100 * ((float) fatalCasesCount / (float) (casesCount == 0 ? 1 : casesCount));
 		fatalityRate = Math.round(fatalityRate * 100) / 100f;
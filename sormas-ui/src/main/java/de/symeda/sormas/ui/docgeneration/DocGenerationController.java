@@ -15,14 +15,13 @@
 
 package de.symeda.sormas.ui.docgeneration;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.Map;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import com.vaadin.server.Sizeable;
 import com.vaadin.ui.Window;
@@ -59,28 +58,12 @@ public class DocGenerationController {
 		showDialog(new QuarantineOrderLayout(workflow, null, (templateFile, sample, pathogenTest, extraProperties) -> {
 			QuarantineOrderFacade quarantineOrderFacade = FacadeProvider.getQuarantineOrderFacade();
 
-			Map<ReferenceDto, byte[]> generatedDocumentContents =
-				quarantineOrderFacade.getGeneratedDocuments(templateFile, workflow, referenceDtos, extraProperties);
-
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-
-				for (Map.Entry<ReferenceDto, byte[]> referenceDocumentContent : generatedDocumentContents.entrySet()) {
-					ZipEntry entry = new ZipEntry(getDocumentFileName(referenceDocumentContent.getKey(), templateFile));
-					zos.putNextEntry(entry);
-
-					zos.write(referenceDocumentContent.getValue());
-					zos.closeEntry();
-				}
-
-				zos.finish();
-				zos.flush();
-
-				return new ByteArrayInputStream(baos.toByteArray());
+			String archivePath = quarantineOrderFacade.getGeneratedDocumentsArchive(templateFile, workflow, referenceDtos, extraProperties);
+			try {
+				return new BufferedInputStream(Files.newInputStream(Paths.get(archivePath)));
 			} catch (IOException e) {
 				throw new RuntimeException(e);
 			}
-
 		}, (templateFile) -> filename));
 	}
 
@@ -0,0 +1,87 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package de.symeda.sormas.ui.document;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import de.symeda.sormas.api.document.DocumentFacade;
+
+/**
+ * Reads the content of a document part by part while it is being downloaded, so only one part is held in memory.
+ * The first part is read when the stream is created, so missing content is reported before the download starts.
+ */
+public class DocumentContentInputStream extends InputStream {
+
+	static final int PART_SIZE = 1024 * 1024;
+
+	private final DocumentFacade documentFacade;
+	private final String documentUuid;
+
+	private byte[] part;
+	private int positionInPart;
+	private long offsetOfNextPart;
+
+	public DocumentContentInputStream(DocumentFacade documentFacade, String documentUuid) throws IOException {
+		this.documentFacade = documentFacade;
+		this.documentUuid = documentUuid;
+		readNextPart();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureAvailable()) {
+			return -1;
+		}
+		return part[positionInPart++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!ensureAvailable()) {
+			return -1;
+		}
+
+		int count = Math.min(len, part.length - positionInPart);
+		System.arraycopy(part, positionInPart, b, off, count);
+		positionInPart += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return part.length - positionInPart;
+	}
+
+	/**
+	 * @return {@code false} if the end of the content has been reached
+	 */
+	private boolean ensureAvailable() throws IOException {
+		if (positionInPart == part.length && part.length == PART_SIZE) {
+			readNextPart();
+		}
+		return positionInPart < part.length;
+	}
+
+	private void readNextPart() throws IOException {
+		part = documentFacade.read(documentUuid, offsetOfNextPart, PART_SIZE);
+		positionInPart = 0;
+		offsetOfNextPart += part.length;
+	}
+}
@@ -14,7 +14,6 @@
  */
 package de.symeda.sormas.ui.document;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -171,7 +170,7 @@ public class DocumentListComponent extends VerticalLayout {
 		StreamResource streamResource = new StreamResource((StreamResource.StreamSource) () -> {
 			DocumentFacade documentFacade = FacadeProvider.getDocumentFacade();
 			try {
-				return new ByteArrayInputStream(documentFacade.read(document.getUuid()));
+				return new DocumentContentInputStream(documentFacade, document.getUuid());
 			} catch (IOException | IllegalArgumentException e) {
 				new Notification(
 					String.format(I18nProperties.getString(Strings.errorReadingDocument), document),
@@ -16,8 +16,11 @@
 package de.symeda.sormas.ui.importer;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
-import com.google.common.io.ByteStreams;
 import com.vaadin.server.Page;
 import com.vaadin.ui.Label;
 import com.vaadin.ui.Notification;
@@ -29,6 +32,7 @@ import de.symeda.sormas.api.document.DocumentRelatedEntityType;
 import de.symeda.sormas.api.i18n.Captions;
 import de.symeda.sormas.api.i18n.I18nProperties;
 import de.symeda.sormas.api.i18n.Strings;
+import de.symeda.sormas.api.importexport.ImportExportUtils;
 import de.symeda.sormas.ui.UserProvider;
 import de.symeda.sormas.ui.utils.VaadinUiUtil;
 
@@ -46,11 +50,18 @@ public class DocumentUploadFinishedHandler implements UploadFinishedHandler {
 
 	@Override
 	public void handleFile(InputStream inputStream, String fileName, String mimeType, long length, int filesLeftInQueue) {
+		// the receiver deletes its file when this method returns, but the document may only be saved after a confirmation
+		Path contentFile = null;
+		boolean confirmationPending = false;
 		try {
-			byte[] bytes = ByteStreams.toByteArray(inputStream);
+			contentFile = Files
+				.createTempFile(Paths.get(FacadeProvider.getConfigFacade().getTempFilesPath()), ImportExportUtils.TEMP_FILE_PREFIX + "_document_", null);
+			Files.copy(inputStream, contentFile, StandardCopyOption.REPLACE_EXISTING);
 
+			Path savedContentFile = contentFile;
 			String existing = FacadeProvider.getDocumentFacade().isExistingDocument(relatedEntityType, relatedEntityUuid, fileName);
 			if (existing != null) {
+				confirmationPending = true;
 				VaadinUiUtil.showConfirmationPopup(
 					I18nProperties.getString(Strings.headingFileExists),
 					new Label(String.format(I18nProperties.getString(Strings.infoDocumentAlreadyExists), fileName)),
@@ -58,30 +69,34 @@ public class DocumentUploadFinishedHandler implements UploadFinishedHandler {
 					I18nProperties.getCaption(Captions.actionCancel),
 					null,
 					ok -> {
-						if (ok) {
-							FacadeProvider.getDocumentFacade().deleteDocument(existing);
-							try {
-								saveDocument(fileName, mimeType, length, relatedEntityType, relatedEntityUuid, bytes);
-							} catch (Exception e) {
-								new Notification(
-									I18nProperties.getString(Strings.headingImportError),
-									I18nProperties.getString(Strings.messageImportError),
-									Notification.Type.ERROR_MESSAGE,
-									false).show(Page.getCurrent());
-								throw new RuntimeException(e);
+						try {
+							if (ok) {
+								FacadeProvider.getDocumentFacade().deleteDocument(existing);
+								try {
+									saveDocument(fileName, mimeType, length, relatedEntityType, relatedEntityUuid, savedContentFile);
+								} catch (Exception e) {
+									new Notification(
+										I18nProperties.getString(Strings.headingImportError),
+										I18nProperties.getString(Strings.messageImportError),
+										Notification.Type.ERROR_MESSAGE,
+										false).show(Page.getCurrent());
+									throw new RuntimeException(e);
+								}
+								if (filesLeftInQueue == 0) {
+									Notification.show(I18nProperties.getString(Strings.headingUploadSuccess), Notification.Type.TRAY_NOTIFICATION);
+								}
 							}
 							if (filesLeftInQueue == 0) {
-								Notification.show(I18nProperties.getString(Strings.headingUploadSuccess), Notification.Type.TRAY_NOTIFICATION);
-							}
-						}
-						if (filesLeftInQueue == 0) {
-							if (callback != null) {
-								callback.run();
+								if (callback != null) {
+									callback.run();
+								}
 							}
+						} finally {
+							deleteFile(savedContentFile);
 						}
 					});
 			} else {
-				saveDocument(fileName, mimeType, length, relatedEntityType, relatedEntityUuid, bytes);
+				saveDocument(fileName, mimeType, length, relatedEntityType, relatedEntityUuid, contentFile);
 
 				if (filesLeftInQueue == 0) {
 					Notification.show(I18nProperties.getString(Strings.headingUploadSuccess), Notification.Type.TRAY_NOTIFICATION);
@@ -97,6 +112,10 @@ public class DocumentUploadFinishedHandler implements UploadFinishedHandler {
 				Notification.Type.ERROR_MESSAGE,
 				false).show(Page.getCurrent());
 			throw new RuntimeException(e);
+		} finally {
+			if (!confirmationPending) {
+				deleteFile(contentFile);
+			}
 		}
 	}
 
@@ -106,7 +125,7 @@ public class DocumentUploadFinishedHandler implements UploadFinishedHandler {
 		Long length,
 		DocumentRelatedEntityType relatedEntityType,
 		String relatedEntityUuid,
-		byte[] bytes)
+		Path contentFile)
 		throws Exception {
 		DocumentDto document = DocumentDto.build();
 		document.setUploadingUser(UserProvider.getCurrent().getUserReference());
@@ -116,6 +135,12 @@ public class DocumentUploadFinishedHandler implements UploadFinishedHandler {
 		document.setRelatedEntityType(relatedEntityType);
 		document.setRelatedEntityUuid(relatedEntityUuid);
 
-		FacadeProvider.getDocumentFacade().saveDocument(document, bytes);
+		FacadeProvider.getDocumentFacade().saveDocumentFromFile(document, contentFile.toString());
+	}
+
+	private static void deleteFile(Path file) {
+		if (file != null) {
+			file.toFile().delete();
+		}
 	}
 }
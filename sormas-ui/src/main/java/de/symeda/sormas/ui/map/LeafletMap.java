@@ -29,6 +29,7 @@ import com.vaadin.ui.JavaScriptFunction;
 import com.vaadin.util.ReflectTools;
 
 import de.symeda.sormas.api.FacadeProvider;
+import de.symeda.sormas.api.dashboard.MapViewportDto;
 import de.symeda.sormas.api.region.GeoLatLon;
 import elemental.json.Json;
 import elemental.json.JsonArray;
@@ -65,6 +66,8 @@ public class LeafletMap extends AbstractJavaScriptComponent {
 
 	private int mapId = nextMapId();
 
+	private MapViewportDto viewport;
+
 	/**
 	 * Creates the chart object.
 	 */
@@ -84,6 +87,24 @@ public class LeafletMap extends AbstractJavaScriptComponent {
 				LeafletMap.this.fireEvent(new MarkerClickEvent(LeafletMap.this, groupId, markerIndex));
 			}
 		});
+		addFunction("onViewportChange", new JavaScriptFunction() {
+
+			@Override
+			public void call(JsonArray arguments) {
+				int zoom = (int) arguments.getNumber(4);
+				viewport = new MapViewportDto(
+					arguments.getNumber(0),
+					arguments.getNumber(1),
+					arguments.getNumber(2),
+					arguments.getNumber(3),
+					zoom);
+				// keep the state in sync, so other state changes don't reset the view
+				getState().setCenterLatitude(arguments.getNumber(5));
+				getState().setCenterLongitude(arguments.getNumber(6));
+				getState().setZoom(zoom);
+				LeafletMap.this.fireEvent(new ViewportChangeEvent(LeafletMap.this, viewport));
+			}
+		});
 		// credit where credit's due
 		String attribution = FacadeProvider.getGeoShapeProvider().loadShapefileAttributions();
 		this.addShapefileAttribution(attribution);
@@ -116,6 +137,13 @@ public class LeafletMap extends AbstractJavaScriptComponent {
 		return getState().getZoom();
 	}
 
+	/**
+	 * @return the part of the map visible in the browser or {@code null} if it has not been rendered yet
+	 */
+	public MapViewportDto getViewport() {
+		return viewport;
+	}
+
 	public void setCenter(GeoLatLon coordinates) {
 		getState().setCenterLatitude(coordinates.getLat());
 		getState().setCenterLongitude(coordinates.getLon());
@@ -153,6 +181,10 @@ public class LeafletMap extends AbstractJavaScriptComponent {
 		addListener(MarkerClickEvent.class, listener, MarkerClickListener.MARKER_CLICK_METHOD);
 	}
 
+	public void addViewportChangeListener(ViewportChangeListener listener) {
+		addListener(ViewportChangeEvent.class, listener, ViewportChangeListener.VIEWPORT_CHANGE_METHOD);
+	}
+
 	/**
 	 * Append the give attribution to the Leaflet attribution list.
 	 * See https://leafletjs.com/reference-1.7.1.html#control-attribution
@@ -191,4 +223,26 @@ public class LeafletMap extends AbstractJavaScriptComponent {
 			return markerIndex;
 		}
 	}
+
+	public interface ViewportChangeListener extends Serializable {
+
+		Method VIEWPORT_CHANGE_METHOD = ReflectTools.findMethod(ViewportChangeListener.class, "viewportChange", ViewportChangeEvent.class);
+
+		void viewportChange(ViewportChangeEvent event);
+	}
+
+	public static class ViewportChangeEvent extends EventObject {
+
+		private static final long serialVersionUID = 5188917371408253312L;
+		private final MapViewportDto viewport;
+
+		public ViewportChangeEvent(LeafletMap map, MapViewportDto viewport) {
+			super(map);
+			this.viewport = viewport;
+		}
+
+		public MapViewportDto getViewport() {
+			return viewport;
+		}
+	}
 }
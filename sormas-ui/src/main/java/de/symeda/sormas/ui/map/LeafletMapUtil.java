@@ -18,6 +18,17 @@ public final class LeafletMapUtil {
 	}
 
 	public static void addOtherCountriesOverlay(LeafletMap map) {
+		addOtherCountriesOverlay(map, FacadeProvider.getGeoShapeProvider().getCountryShape());
+	}
+
+	/**
+	 * Adds the overlay with the country shape simplified for the zoom level.
+	 */
+	public static void addOtherCountriesOverlay(LeafletMap map, int zoom) {
+		addOtherCountriesOverlay(map, FacadeProvider.getGeoShapeProvider().getCountryShape(zoom));
+	}
+
+	private static void addOtherCountriesOverlay(LeafletMap map, GeoLatLon[][] countryShape) {
 
 		//@formatter:off
 		LeafletPolygon negativeShape = new LeafletPolygon();
@@ -29,7 +40,6 @@ public final class LeafletMapUtil {
 		});
 		//@formatter:on
 
-		GeoLatLon[][] countryShape = FacadeProvider.getGeoShapeProvider().getCountryShape();
 		negativeShape.setHoleLatLons(countryShape);
 
 		negativeShape.setOptions("{\"stroke\": false, \"color\": '#FEFEFE', \"fillOpacity\": 1}");
@@ -74,6 +74,18 @@ window.de_symeda_sormas_ui_map_LeafletMap = function () {
 		attribution: '&copy; <a href="https://www.openstreetmap.org/copyright">OpenStreetMap</a> contributors. Tiles courtesy of Humanitarian OpenStreetMap Team'
 	});
 
+	// tell the server which part of the map is visible, so it can load the markers of this part only
+	var lastViewport = null;
+	map.on("moveend", function() {
+		var bounds = map.getBounds();
+		var center = map.getCenter();
+		var viewport = [bounds.getSouth(), bounds.getWest(), bounds.getNorth(), bounds.getEast(), map.getZoom(), center.lat, center.lng];
+		if (lastViewport == null || lastViewport.join() != viewport.join()) {
+			lastViewport = viewport;
+			connector.onViewportChange.apply(connector, viewport);
+		}
+	});
+
 	this.onStateChange = function () {
 
 		map.setView([this.getState().centerLatitude, this.getState().centerLongitude], this.getState().zoom);
@@ -0,0 +1,112 @@
+/*
+ * SORMAS® - Surveillance Outbreak Response Management & Analysis System
+ * Copyright © 2016-2021 Helmholtz-Zentrum für Infektionsforschung GmbH (HZI)
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.symeda.sormas.ui.document;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.symeda.sormas.api.document.DocumentFacade;
+
+public class DocumentContentInputStreamTest {
+
+	private static final String DOCUMENT_UUID = "DOCUMENT-UUID";
+
+	@Test
+	public void testContentLargerThanPart() throws IOException {
+
+		byte[] content = randomContent(2 * DocumentContentInputStream.PART_SIZE + 10);
+		DocumentFacade documentFacade = mockDocumentFacade(content);
+
+		assertArrayEquals(content, readAll(new DocumentContentInputStream(documentFacade, DOCUMENT_UUID)));
+		// the last part is shorter, so no further part is requested
+		verify(documentFacade, times(3)).read(eq(DOCUMENT_UUID), anyLong(), eq(DocumentContentInputStream.PART_SIZE));
+		verify(documentFacade).read(DOCUMENT_UUID, 2L * DocumentContentInputStream.PART_SIZE, DocumentContentInputStream.PART_SIZE);
+	}
+
+	@Test
+	public void testContentOfExactlyOnePart() throws IOException {
+
+		byte[] content = randomContent(DocumentContentInputStream.PART_SIZE);
+		DocumentFacade documentFacade = mockDocumentFacade(content);
+
+		DocumentContentInputStream inputStream = new DocumentContentInputStream(documentFacade, DOCUMENT_UUID);
+		assertArrayEquals(content, readAll(inputStream));
+		assertEquals(-1, inputStream.read());
+		// the end is only known when the following part is empty
+		verify(documentFacade, times(2)).read(eq(DOCUMENT_UUID), anyLong(), anyInt());
+	}
+
+	@Test
+	public void testReadSingleBytes() throws IOException {
+
+		byte[] content = new byte[] {
+			1,
+			-1,
+			127 };
+		DocumentContentInputStream inputStream = new DocumentContentInputStream(mockDocumentFacade(content), DOCUMENT_UUID);
+
+		assertEquals(3, inputStream.available());
+		assertEquals(1, inputStream.read());
+		assertEquals(255, inputStream.read());
+		assertEquals(127, inputStream.read());
+		assertEquals(-1, inputStream.read());
+		assertEquals(-1, inputStream.read(new byte[10], 0, 10));
+	}
+
+	private static DocumentFacade mockDocumentFacade(byte[] content) throws IOException {
+
+		DocumentFacade documentFacade = mock(DocumentFacade.class);
+		when(documentFacade.read(eq(DOCUMENT_UUID), anyLong(), anyInt())).thenAnswer(invocation -> {
+			long offset = invocation.getArgument(1);
+			int length = invocation.getArgument(2);
+			int from = (int) Math.min(offset, content.length);
+			return Arrays.copyOfRange(content, from, Math.min(from + length, content.length));
+		});
+		return documentFacade;
+	}
+
+	private static byte[] readAll(DocumentContentInputStream inputStream) throws IOException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		// smaller than a part, so parts are read in several steps
+		byte[] buffer = new byte[8192];
+		int count;
+		while ((count = inputStream.read(buffer, 0, buffer.length)) != -1) {
+			outputStream.write(buffer, 0, count);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] randomContent(int size) {
+
+		byte[] content = new byte[size];
+		new Random(size).nextBytes(content);
+		return content;
+	}
+}